@@ -59,6 +59,7 @@ public class CassandraConfiguration {
     public static final boolean DEFAULT_STRONG_CONSISTENCY = true;
     public static final boolean DEFAULT_OPTIMISTIC_CONSISTENCY_LEVEL = false;
     public static final boolean DEFAULT_MAIL_REPOSITORY_STRONG_CONSISTENCY = true;
+    public static final int DEFAULT_MESSAGE_METADATA_SCAN_PAGE_SIZE = 1000;
 
     private static final String MAILBOX_READ_REPAIR = "mailbox.read.repair.chance";
     private static final String MAILBOX_MAX_COUNTERS_READ_REPAIR = "mailbox.counters.read.repair.chance.max";
@@ -80,6 +81,7 @@ public class CassandraConfiguration {
     private static final String CONSISTENCY_LEVEL_LIGHTWEIGHT_TRANSACTION = "cassandra.consistency_level.lightweight_transaction";
     private static final String OPTIMISTIC_CONSISTENCY_LEVEL = "optimistic.consistency.level.enabled";
     private static final String MAIL_REPOSITORY_STRONG_CONSISTENCY = "mailrepository.strong.consistency";
+    private static final String MESSAGE_METADATA_SCAN_PAGE_SIZE = "mailbox.metadata.scan.page.size";
 
     public static final CassandraConfiguration DEFAULT_CONFIGURATION = builder().build();
 
@@ -104,6 +106,7 @@ public class CassandraConfiguration {
         private Optional<Boolean> messageWriteStrongConsistency = Optional.empty();
         private Optional<Boolean> optimisticConsistencyLevel = Optional.empty();
         private Optional<Boolean> mailRepositoryStrongConsistency = Optional.empty();
+        private Optional<Integer> messageMetadataScanPageSize = Optional.empty();
 
         public Builder mailboxReadStrongConsistency(boolean value) {
             this.mailboxReadStrongConsistency = Optional.of(value);
@@ -320,6 +323,17 @@ public class CassandraConfiguration {
             return this;
         }
 
+        public Builder messageMetadataScanPageSize(int value) {
+            Preconditions.checkArgument(value > 0, "messageMetadataScanPageSize needs to be strictly positive");
+            this.messageMetadataScanPageSize = Optional.of(value);
+            return this;
+        }
+
+        public Builder messageMetadataScanPageSize(Optional<Integer> value) {
+            value.ifPresent(this::messageMetadataScanPageSize);
+            return this;
+        }
+
         public CassandraConfiguration build() {
             String consistencyLevelRegular = this.consistencyLevelRegular.orElse(DEFAULT_CONSISTENCY_LEVEL_REGULAR);
             String consistencyLevelLightweightTransaction = this.consistencyLevelLightweightTransaction.orElse(DEFAULT_CONSISTENCY_LEVEL_LIGHTWEIGHT_TRANSACTION);
@@ -348,7 +362,8 @@ public class CassandraConfiguration {
                 messageReadStrongConsistency.orElse(DEFAULT_STRONG_CONSISTENCY),
                 messageWriteStrongConsistency.orElse(DEFAULT_STRONG_CONSISTENCY),
                 optimisticConsistencyLevel.orElse(DEFAULT_OPTIMISTIC_CONSISTENCY_LEVEL),
-                mailRepositoryStrongConsistency.orElse(DEFAULT_MAIL_REPOSITORY_STRONG_CONSISTENCY));
+                mailRepositoryStrongConsistency.orElse(DEFAULT_MAIL_REPOSITORY_STRONG_CONSISTENCY),
+                messageMetadataScanPageSize.orElse(DEFAULT_MESSAGE_METADATA_SCAN_PAGE_SIZE));
         }
     }
 
@@ -398,6 +413,8 @@ public class CassandraConfiguration {
                 propertiesConfiguration.getBoolean(OPTIMISTIC_CONSISTENCY_LEVEL, null)))
             .mailRepositoryStrongConsistency(Optional.ofNullable(
                 propertiesConfiguration.getBoolean(MAIL_REPOSITORY_STRONG_CONSISTENCY, null)))
+            .messageMetadataScanPageSize(Optional.ofNullable(
+                propertiesConfiguration.getInteger(MESSAGE_METADATA_SCAN_PAGE_SIZE, null)))
             .build();
     }
 
@@ -421,6 +438,7 @@ public class CassandraConfiguration {
     private final boolean messageWriteStrongConsistency;
     private final boolean optimisticConsistencyLevel;
     private final boolean mailRepositoryStrongConsistency;
+    private final int messageMetadataScanPageSize;
 
     @VisibleForTesting
     CassandraConfiguration(int aclMaxRetry, int expungeChunkSize,
@@ -431,7 +449,8 @@ public class CassandraConfiguration {
                            float mailboxReadRepair, float mailboxCountersReadRepairChanceMax,
                            float mailboxCountersReadRepairChanceOneHundred, boolean mailboxReadStrongConsistency,
                            boolean messageReadStrongConsistency, boolean messageWriteStrongConsistency,
-                           boolean optimisticConsistencyLevel, boolean mailRepositoryStrongConsistency) {
+                           boolean optimisticConsistencyLevel, boolean mailRepositoryStrongConsistency,
+                           int messageMetadataScanPageSize) {
         this.aclMaxRetry = aclMaxRetry;
         this.expungeChunkSize = expungeChunkSize;
         this.flagsUpdateMessageIdMaxRetry = flagsUpdateMessageIdMaxRetry;
@@ -452,6 +471,7 @@ public class CassandraConfiguration {
         this.messageWriteStrongConsistency = messageWriteStrongConsistency;
         this.optimisticConsistencyLevel = optimisticConsistencyLevel;
         this.mailRepositoryStrongConsistency = mailRepositoryStrongConsistency;
+        this.messageMetadataScanPageSize = messageMetadataScanPageSize;
     }
 
     public boolean isMailboxReadStrongConsistency() {
@@ -534,6 +554,10 @@ public class CassandraConfiguration {
         return mailRepositoryStrongConsistency;
     }
 
+    public int getMessageMetadataScanPageSize() {
+        return messageMetadataScanPageSize;
+    }
+
     @Override
     public final boolean equals(Object o) {
         if (o instanceof CassandraConfiguration) {
@@ -558,7 +582,8 @@ public class CassandraConfiguration {
                 && Objects.equals(this.consistencyLevelRegular, that.consistencyLevelRegular)
                 && Objects.equals(this.consistencyLevelLightweightTransaction, that.consistencyLevelLightweightTransaction)
                 && Objects.equals(this.optimisticConsistencyLevel, that.optimisticConsistencyLevel)
-                && Objects.equals(this.mailRepositoryStrongConsistency, that.mailRepositoryStrongConsistency);
+                && Objects.equals(this.mailRepositoryStrongConsistency, that.mailRepositoryStrongConsistency)
+                && Objects.equals(this.messageMetadataScanPageSize, that.messageMetadataScanPageSize);
 
         }
         return false;
@@ -572,7 +597,8 @@ public class CassandraConfiguration {
             blobPartSize, attachmentV2MigrationReadTimeout, messageAttachmentIdsReadTimeout,
             consistencyLevelRegular, consistencyLevelLightweightTransaction, mailboxReadRepair,
             messageReadStrongConsistency, mailboxReadStrongConsistency, messageWriteStrongConsistency,
-            optimisticConsistencyLevel, mailRepositoryStrongConsistency);
+            optimisticConsistencyLevel, mailRepositoryStrongConsistency,
+            messageMetadataScanPageSize);
     }
 
     @Override
@@ -598,6 +624,7 @@ public class CassandraConfiguration {
             .add("consistencyLevelLightweightTransaction", consistencyLevelLightweightTransaction)
             .add("optimisticConsistencyLevel", optimisticConsistencyLevel)
             .add("mailRepositoryStrongConsistency", mailRepositoryStrongConsistency)
+            .add("messageMetadataScanPageSize", messageMetadataScanPageSize)
             .toString();
     }
 }
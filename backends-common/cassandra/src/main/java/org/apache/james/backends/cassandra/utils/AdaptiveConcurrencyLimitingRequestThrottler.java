@@ -0,0 +1,280 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.backends.cassandra.utils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.datastax.oss.driver.api.core.RequestThrottlingException;
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
+import com.datastax.oss.driver.api.core.config.DriverOption;
+import com.datastax.oss.driver.api.core.context.DriverContext;
+import com.datastax.oss.driver.api.core.session.throttling.RequestThrottler;
+import com.datastax.oss.driver.api.core.session.throttling.Throttled;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+/**
+ * Concurrency limiting {@link RequestThrottler} adapting its limit to the observed Cassandra latency, following an
+ * AIMD (additive increase, multiplicative decrease) strategy:
+ *
+ *  - Each time a full window of requests (as many requests as the current limit) completes under the latency
+ *  threshold, the limit is increased by one, up to `advanced.throttler.max-concurrent-requests`.
+ *  - When a request exceeds the latency threshold or times out, the limit is multiplied by the backoff ratio, down
+ *  to `advanced.throttler.adaptive.min-concurrent-requests`. Decreases happen at most once per latency threshold
+ *  period so that a burst of slow requests do not collapse the limit.
+ *
+ * Requests exceeding the current limit are queued, up to `advanced.throttler.max-queue-size`.
+ *
+ * The Cassandra driver instantiates a single throttler per session, thus limits are read from the default execution
+ * profile and apply to all execution profiles.
+ *
+ * Like {@link LockLessConcurrencyLimitingRequestThrottler} this is implemented in a lock free manner.
+ */
+public class AdaptiveConcurrencyLimitingRequestThrottler implements RequestThrottler {
+    public enum AdaptiveThrottlerOption implements DriverOption {
+        MIN_CONCURRENT_REQUESTS("advanced.throttler.adaptive.min-concurrent-requests"),
+        INITIAL_CONCURRENT_REQUESTS("advanced.throttler.adaptive.initial-concurrent-requests"),
+        LATENCY_THRESHOLD("advanced.throttler.adaptive.latency-threshold"),
+        BACKOFF_RATIO("advanced.throttler.adaptive.backoff-ratio");
+
+        private final String path;
+
+        AdaptiveThrottlerOption(String path) {
+            this.path = path;
+        }
+
+        @Override
+        public String getPath() {
+            return path;
+        }
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(AdaptiveConcurrencyLimitingRequestThrottler.class);
+    private static final int DEFAULT_MIN_CONCURRENT_REQUESTS = 8;
+    private static final Duration DEFAULT_LATENCY_THRESHOLD = Duration.ofMillis(100);
+    private static final double DEFAULT_BACKOFF_RATIO = 0.9;
+
+    private final String logPrefix;
+    private final int minConcurrentRequests;
+    private final int maxConcurrentRequests;
+    private final int maxQueueSize;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlightRequests = new AtomicInteger(0);
+    private final AtomicInteger queueSize = new AtomicInteger(0);
+    private final AtomicInteger successesSinceLastIncrease = new AtomicInteger(0);
+    private final AtomicLong lastDecrease;
+    private final Queue<Throttled> queue = new ConcurrentLinkedQueue<>();
+    private final Map<Throttled, Long> startTimes = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    public AdaptiveConcurrencyLimitingRequestThrottler(DriverContext context) {
+        this(context, System::nanoTime);
+    }
+
+    @VisibleForTesting
+    AdaptiveConcurrencyLimitingRequestThrottler(DriverContext context, LongSupplier nanoClock) {
+        this.logPrefix = context.getSessionName();
+        this.nanoClock = nanoClock;
+        DriverExecutionProfile config = context.getConfig().getDefaultProfile();
+        this.maxConcurrentRequests = config.getInt(DefaultDriverOption.REQUEST_THROTTLER_MAX_CONCURRENT_REQUESTS);
+        this.maxQueueSize = config.getInt(DefaultDriverOption.REQUEST_THROTTLER_MAX_QUEUE_SIZE);
+        this.minConcurrentRequests = Math.min(maxConcurrentRequests,
+            config.getInt(AdaptiveThrottlerOption.MIN_CONCURRENT_REQUESTS, DEFAULT_MIN_CONCURRENT_REQUESTS));
+        int initialConcurrentRequests = config.getInt(AdaptiveThrottlerOption.INITIAL_CONCURRENT_REQUESTS, maxConcurrentRequests);
+        this.latencyThresholdNanos = config.getDuration(AdaptiveThrottlerOption.LATENCY_THRESHOLD, DEFAULT_LATENCY_THRESHOLD).toNanos();
+        this.backoffRatio = config.getDouble(AdaptiveThrottlerOption.BACKOFF_RATIO, DEFAULT_BACKOFF_RATIO);
+
+        Preconditions.checkArgument(minConcurrentRequests > 0, "'%s' needs to be strictly positive", AdaptiveThrottlerOption.MIN_CONCURRENT_REQUESTS.getPath());
+        Preconditions.checkArgument(backoffRatio > 0 && backoffRatio < 1, "'%s' needs to be strictly between 0 and 1", AdaptiveThrottlerOption.BACKOFF_RATIO.getPath());
+        Preconditions.checkArgument(latencyThresholdNanos > 0, "'%s' needs to be strictly positive", AdaptiveThrottlerOption.LATENCY_THRESHOLD.getPath());
+
+        this.limit = new AtomicInteger(Math.max(minConcurrentRequests, Math.min(maxConcurrentRequests, initialConcurrentRequests)));
+        this.lastDecrease = new AtomicLong(nanoClock.getAsLong() - latencyThresholdNanos);
+        LOG.debug(
+            "[{}] Initializing with minConcurrentRequests = {}, maxConcurrentRequests = {}, initialConcurrentRequests = {}, maxQueueSize = {}, latencyThreshold = {} ms",
+            logPrefix,
+            minConcurrentRequests,
+            maxConcurrentRequests,
+            limit.get(),
+            maxQueueSize,
+            Duration.ofNanos(latencyThresholdNanos).toMillis());
+    }
+
+    @Override
+    public void register(Throttled request) {
+        if (closed) {
+            LOG.trace("[{}] Rejecting request after shutdown", logPrefix);
+            fail(request, "The session is shutting down");
+        } else if (tryAcquire()) {
+            LOG.trace("[{}] Starting newly registered request", logPrefix);
+            start(request, false);
+        } else if (queueSize.incrementAndGet() <= maxQueueSize) {
+            LOG.trace("[{}] Enqueuing request", logPrefix);
+            queue.add(request);
+            // A slot might have been released between our acquisition attempt and the enqueue
+            drainQueue();
+        } else {
+            queueSize.decrementAndGet();
+            LOG.trace("[{}] Rejecting request because of full queue", logPrefix);
+            fail(
+                request,
+                String.format(
+                    "The session has reached its maximum capacity "
+                        + "(concurrent requests: %d, queue size: %d)",
+                    limit.get(), maxQueueSize));
+        }
+    }
+
+    @Override
+    public void signalSuccess(Throttled request) {
+        Long startTime = startTimes.remove(request);
+        if (startTime != null) {
+            onLatency(nanoClock.getAsLong() - startTime);
+        }
+        onRequestDone();
+    }
+
+    @Override
+    public void signalError(Throttled request, Throwable error) {
+        signalSuccess(request); // latency is accounted the same way
+    }
+
+    @Override
+    public void signalTimeout(Throttled request) {
+        if (!closed) {
+            if (queue.remove(request)) { // The request timed out before it was active
+                queueSize.decrementAndGet();
+                LOG.trace("[{}] Removing timed out request from the queue", logPrefix);
+            } else {
+                startTimes.remove(request);
+                decreaseLimit();
+                onRequestDone();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        LOG.debug("[{}] Rejecting {} queued requests after shutdown", logPrefix, queue.size());
+        Throttled request;
+        while ((request = queue.poll()) != null) {
+            fail(request, "The session is shutting down");
+        }
+        startTimes.clear();
+    }
+
+    public int getCurrentLimit() {
+        return limit.get();
+    }
+
+    public int getInFlightRequests() {
+        return inFlightRequests.get();
+    }
+
+    public int getQueueSize() {
+        return queueSize.get();
+    }
+
+    private void onLatency(long latencyNanos) {
+        if (latencyNanos > latencyThresholdNanos) {
+            decreaseLimit();
+        } else {
+            increaseLimit();
+        }
+    }
+
+    private void increaseLimit() {
+        int currentLimit = limit.get();
+        if (currentLimit < maxConcurrentRequests
+            && successesSinceLastIncrease.incrementAndGet() >= currentLimit
+            && limit.compareAndSet(currentLimit, currentLimit + 1)) {
+            successesSinceLastIncrease.set(0);
+            LOG.trace("[{}] Increasing concurrency limit to {}", logPrefix, currentLimit + 1);
+            drainQueue();
+        }
+    }
+
+    private void decreaseLimit() {
+        long now = nanoClock.getAsLong();
+        long previousDecrease = lastDecrease.get();
+        if (now - previousDecrease >= latencyThresholdNanos && lastDecrease.compareAndSet(previousDecrease, now)) {
+            int newLimit = limit.updateAndGet(currentLimit -> Math.max(minConcurrentRequests, (int) (currentLimit * backoffRatio)));
+            successesSinceLastIncrease.set(0);
+            LOG.debug("[{}] Decreasing concurrency limit to {}", logPrefix, newLimit);
+        }
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            int current = inFlightRequests.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlightRequests.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void onRequestDone() {
+        if (!closed) {
+            inFlightRequests.decrementAndGet();
+            drainQueue();
+        }
+    }
+
+    private void drainQueue() {
+        while (!closed && !queue.isEmpty() && tryAcquire()) {
+            Throttled throttled = queue.poll();
+            if (throttled == null) {
+                inFlightRequests.decrementAndGet();
+                return;
+            }
+            queueSize.decrementAndGet();
+            LOG.trace("[{}] Starting dequeued request", logPrefix);
+            start(throttled, true);
+        }
+    }
+
+    private void start(Throttled request, boolean wasDelayed) {
+        startTimes.put(request, nanoClock.getAsLong());
+        request.onThrottleReady(wasDelayed);
+    }
+
+    private static void fail(Throttled request, String message) {
+        request.onThrottleFailure(new RequestThrottlingException(message));
+    }
+}
@@ -61,6 +61,7 @@ class CassandraConfigurationReadingTest {
                 .messageAttachmentIdsReadTimeout(11)
                 .consistencyLevelRegular("LOCAL_QUORUM")
                 .consistencyLevelLightweightTransaction("LOCAL_SERIAL")
+                .messageMetadataScanPageSize(12)
                 .build());
     }
 
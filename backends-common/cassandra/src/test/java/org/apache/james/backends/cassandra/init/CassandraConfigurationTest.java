@@ -112,6 +112,20 @@ class CassandraConfigurationTest {
             .isInstanceOf(IllegalArgumentException.class);
     }
 
+    @Test
+    void messageMetadataScanPageSizeShouldThrowOnNegativeValue() {
+        assertThatThrownBy(() -> CassandraConfiguration.builder()
+                .messageMetadataScanPageSize(-1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void messageMetadataScanPageSizeShouldThrowOnZero() {
+        assertThatThrownBy(() -> CassandraConfiguration.builder()
+                .messageMetadataScanPageSize(0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     void modSeqMaxRetryShouldThrowOnNegativeValue() {
         assertThatThrownBy(() -> CassandraConfiguration.builder()
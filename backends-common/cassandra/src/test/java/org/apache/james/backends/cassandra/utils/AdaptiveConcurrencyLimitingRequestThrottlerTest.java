@@ -0,0 +1,215 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.backends.cassandra.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.james.backends.cassandra.utils.AdaptiveConcurrencyLimitingRequestThrottler.AdaptiveThrottlerOption;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.datastax.oss.driver.api.core.RequestThrottlingException;
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.DriverConfigLoader;
+import com.datastax.oss.driver.api.core.context.DriverContext;
+import com.datastax.oss.driver.api.core.session.throttling.Throttled;
+
+class AdaptiveConcurrencyLimitingRequestThrottlerTest {
+    private static final Duration LATENCY_THRESHOLD = Duration.ofMillis(100);
+
+    private AtomicLong clock;
+    private AdaptiveConcurrencyLimitingRequestThrottler testee;
+
+    @BeforeEach
+    void setUp() {
+        DriverContext context = mock(DriverContext.class);
+        when(context.getSessionName()).thenReturn("test");
+        when(context.getConfig()).thenReturn(DriverConfigLoader.programmaticBuilder()
+            .withInt(DefaultDriverOption.REQUEST_THROTTLER_MAX_CONCURRENT_REQUESTS, 10)
+            .withInt(DefaultDriverOption.REQUEST_THROTTLER_MAX_QUEUE_SIZE, 2)
+            .withInt(AdaptiveThrottlerOption.MIN_CONCURRENT_REQUESTS, 2)
+            .withInt(AdaptiveThrottlerOption.INITIAL_CONCURRENT_REQUESTS, 4)
+            .withDuration(AdaptiveThrottlerOption.LATENCY_THRESHOLD, LATENCY_THRESHOLD)
+            .withDouble(AdaptiveThrottlerOption.BACKOFF_RATIO, 0.5)
+            .build()
+            .getInitialConfig());
+
+        clock = new AtomicLong(0);
+        testee = new AdaptiveConcurrencyLimitingRequestThrottler(context, clock::get);
+    }
+
+    @Test
+    void registerShouldStartRequestsUnderTheInitialLimit() {
+        Throttled request = mock(Throttled.class);
+
+        testee.register(request);
+
+        verify(request).onThrottleReady(false);
+        assertThat(testee.getInFlightRequests()).isEqualTo(1);
+    }
+
+    @Test
+    void registerShouldEnqueueRequestsAboveTheLimit() {
+        startRequests(4);
+        Throttled request = mock(Throttled.class);
+
+        testee.register(request);
+
+        verify(request, never()).onThrottleReady(anyBoolean());
+        assertThat(testee.getQueueSize()).isEqualTo(1);
+    }
+
+    @Test
+    void registerShouldRejectRequestsWhenQueueIsFull() {
+        startRequests(4);
+        testee.register(mock(Throttled.class));
+        testee.register(mock(Throttled.class));
+        Throttled request = mock(Throttled.class);
+
+        testee.register(request);
+
+        verify(request).onThrottleFailure(any(RequestThrottlingException.class));
+        assertThat(testee.getQueueSize()).isEqualTo(2);
+    }
+
+    @Test
+    void completionShouldStartQueuedRequests() {
+        Throttled[] requests = startRequests(4);
+        Throttled queued = mock(Throttled.class);
+        testee.register(queued);
+
+        testee.signalSuccess(requests[0]);
+
+        verify(queued).onThrottleReady(true);
+        assertThat(testee.getQueueSize()).isZero();
+        assertThat(testee.getInFlightRequests()).isEqualTo(4);
+    }
+
+    @Test
+    void fastRequestsShouldIncreaseTheLimitOncePerWindow() {
+        Throttled[] requests = startRequests(4);
+
+        for (Throttled request : requests) {
+            testee.signalSuccess(request);
+        }
+
+        assertThat(testee.getCurrentLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void limitShouldNotExceedMaxConcurrentRequests() {
+        for (int i = 0; i < 100; i++) {
+            testee.signalSuccess(startRequests(1)[0]);
+        }
+
+        assertThat(testee.getCurrentLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void slowRequestsShouldDecreaseTheLimit() {
+        Throttled request = startRequests(1)[0];
+        clock.addAndGet(LATENCY_THRESHOLD.toNanos() + 1);
+
+        testee.signalSuccess(request);
+
+        assertThat(testee.getCurrentLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void timeoutsShouldDecreaseTheLimit() {
+        Throttled request = startRequests(1)[0];
+
+        testee.signalTimeout(request);
+
+        assertThat(testee.getCurrentLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void decreasesShouldHappenAtMostOncePerLatencyThreshold() {
+        Throttled[] requests = startRequests(2);
+        clock.addAndGet(LATENCY_THRESHOLD.toNanos() + 1);
+
+        testee.signalSuccess(requests[0]);
+        testee.signalSuccess(requests[1]);
+
+        assertThat(testee.getCurrentLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void limitShouldNotGoBelowMinConcurrentRequests() {
+        for (int i = 0; i < 10; i++) {
+            clock.addAndGet(LATENCY_THRESHOLD.toNanos());
+            testee.signalTimeout(startRequests(1)[0]);
+        }
+
+        assertThat(testee.getCurrentLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void timeoutOfQueuedRequestsShouldRemoveThemFromTheQueue() {
+        startRequests(4);
+        Throttled queued = mock(Throttled.class);
+        testee.register(queued);
+
+        testee.signalTimeout(queued);
+
+        assertThat(testee.getQueueSize()).isZero();
+        assertThat(testee.getCurrentLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void closeShouldFailQueuedRequests() {
+        startRequests(4);
+        Throttled queued = mock(Throttled.class);
+        testee.register(queued);
+
+        testee.close();
+
+        verify(queued).onThrottleFailure(any(RequestThrottlingException.class));
+    }
+
+    @Test
+    void registerShouldFailAfterClose() {
+        testee.close();
+        Throttled request = mock(Throttled.class);
+
+        testee.register(request);
+
+        verify(request).onThrottleFailure(any(RequestThrottlingException.class));
+    }
+
+    private Throttled[] startRequests(int count) {
+        Throttled[] requests = new Throttled[count];
+        for (int i = 0; i < count; i++) {
+            requests[i] = mock(Throttled.class);
+            testee.register(requests[i]);
+        }
+        return requests;
+    }
+}
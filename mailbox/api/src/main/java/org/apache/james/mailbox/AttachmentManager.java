@@ -38,6 +38,12 @@ public interface AttachmentManager extends AttachmentContentLoader {
 
     InputStream loadAttachmentContent(AttachmentId attachmentId, MailboxSession mailboxSession) throws AttachmentNotFoundException, IOException;
 
+    /**
+     * Reads at most `length` bytes of the attachment content, starting at `offset`, without loading
+     * the leading bytes when the underlying storage supports it.
+     */
+    InputStream loadAttachmentContentRange(AttachmentId attachmentId, long offset, long length, MailboxSession mailboxSession) throws AttachmentNotFoundException, IOException;
+
     @Override
     default InputStream load(AttachmentMetadata attachment, MailboxSession mailboxSession) throws IOException, AttachmentNotFoundException {
         return loadAttachmentContent(attachment.getAttachmentId(), mailboxSession);
@@ -87,7 +87,12 @@ public interface MailboxManager extends RequestAware, RightManager, MailboxAnnot
         Namespace,
         UserFlag,
         ACL,
-        Quota
+        Quota,
+        /**
+         * Mailbox and message events are also dispatched with the {@link org.apache.james.mailbox.events.UsernameRegistrationKey}
+         * of the mailbox owner, allowing to watch a whole account with a single registration.
+         */
+        AccountWideEvents
     }
 
     EnumSet<MailboxCapabilities> getSupportedMailboxCapabilities();
@@ -19,6 +19,7 @@
 
 package org.apache.james.mailbox;
 
+import java.io.InputStream;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
@@ -75,6 +76,14 @@ public interface MessageIdManager {
 
     Publisher<Void> setInMailboxesReactive(MessageId messageId, Collection<MailboxId> mailboxIds, MailboxSession mailboxSession);
 
+    /**
+     * Reads at most `length` bytes of the full content of a message, starting at `offset`, without loading
+     * the leading bytes when the underlying storage supports it.
+     *
+     * @return an empty publisher when the message is not accessible to the user
+     */
+    Publisher<InputStream> loadFullContentRange(MessageId messageId, long offset, long length, MailboxSession mailboxSession);
+
     default List<MessageResult> getMessage(MessageId messageId, FetchGroup fetchGroup, MailboxSession mailboxSession) throws MailboxException {
         return getMessages(ImmutableList.of(messageId), fetchGroup, mailboxSession);
     }
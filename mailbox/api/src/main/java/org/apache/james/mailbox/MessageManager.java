@@ -54,6 +54,7 @@ import org.apache.james.mailbox.model.MailboxCounters;
 import org.apache.james.mailbox.model.MailboxId;
 import org.apache.james.mailbox.model.MailboxPath;
 import org.apache.james.mailbox.model.MessageAttachmentMetadata;
+import org.apache.james.mailbox.model.MessageMetaData;
 import org.apache.james.mailbox.model.MessageRange;
 import org.apache.james.mailbox.model.MessageResult;
 import org.apache.james.mailbox.model.MessageResultIterator;
@@ -386,6 +387,20 @@ public interface MessageManager {
 
     Publisher<AppendResult> appendMessageReactive(AppendCommand appendCommand, MailboxSession session);
 
+    /**
+     * Appends several messages at once. Uids of the appended messages follow the order of the commands.
+     *
+     * This default implementation appends the messages one after the other: should one of them fail, the ones
+     * appended before are kept. Implementations may override it to append either all of the messages or none.
+     *
+     * @return the results of the appends, in the order of the commands
+     */
+    default Publisher<List<AppendResult>> appendMessagesReactive(List<AppendCommand> appendCommands, MailboxSession session) {
+        return Flux.fromIterable(appendCommands)
+            .concatMap(appendCommand -> appendMessageReactive(appendCommand, session))
+            .collectList();
+    }
+
     /**
      * Gets messages in the given range. The messages may get fetched under
      * the-hood in batches so the caller should check if
@@ -414,6 +429,12 @@ public interface MessageManager {
 
     Publisher<ComposedMessageIdWithMetaData> listMessagesMetadata(MessageRange set, MailboxSession session);
 
+    /**
+     * Stream the metadata, including size and internal date, of the messages within the given range, ordered by uid,
+     * without reading their content.
+     */
+    Publisher<MessageMetaData> listMessagesMetadataWithSize(MessageRange set, MailboxSession session);
+
     /**
      * Return the underlying {@link Mailbox}
      */
@@ -0,0 +1,73 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.events;
+
+import java.util.Objects;
+
+import org.apache.james.core.Username;
+import org.apache.james.events.RegistrationKey;
+
+/**
+ * Account wide registration key: events related to mailboxes owned by a given user are dispatched
+ * with this key, allowing a single registration to observe all of them.
+ */
+public class UsernameRegistrationKey implements RegistrationKey {
+    public static class Factory implements RegistrationKey.Factory {
+        @Override
+        public Class<? extends RegistrationKey> forClass() {
+            return UsernameRegistrationKey.class;
+        }
+
+        @Override
+        public RegistrationKey fromString(String asString) {
+            return new UsernameRegistrationKey(Username.of(asString));
+        }
+    }
+
+    private final Username username;
+
+    public UsernameRegistrationKey(Username username) {
+        this.username = username;
+    }
+
+    public Username getUsername() {
+        return username;
+    }
+
+    @Override
+    public String asString() {
+        return username.asString();
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof UsernameRegistrationKey) {
+            UsernameRegistrationKey that = (UsernameRegistrationKey) o;
+
+            return Objects.equals(this.username, that.username);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(username);
+    }
+}
@@ -833,6 +833,66 @@ public abstract class MailboxManagerTest<T extends MailboxManager> {
                 .satisfies(event -> assertThat(event.getUids()).hasSize(1));
         }
 
+        @Test
+        void appendingSeveralMessagesShouldFireASingleAddedEvent() throws Exception {
+            Mono.from(retrieveEventBus(mailboxManager).register(listener, new MailboxIdRegistrationKey(inboxId))).block();
+            List<MessageManager.AppendResult> appendResults = Mono.from(inboxManager.appendMessagesReactive(ImmutableList.of(
+                    MessageManager.AppendCommand.builder().build(message),
+                    MessageManager.AppendCommand.builder().build(message),
+                    MessageManager.AppendCommand.builder().build(message)), session))
+                .block();
+
+            assertThat(listener.getEvents())
+                .filteredOn(event -> event instanceof Added)
+                .hasSize(1)
+                .extracting(event -> (Added) event)
+                .element(0)
+                .satisfies(event -> assertThat(event.getMailboxId()).isEqualTo(inboxId))
+                .satisfies(event -> assertThat(event.getUids())
+                    .containsExactlyInAnyOrderElementsOf(appendResults.stream()
+                        .map(appendResult -> appendResult.getId().getUid())
+                        .collect(ImmutableList.toImmutableList())));
+        }
+
+        @Test
+        void appendMessagesReactiveShouldReturnResultsInCommandOrder() throws Exception {
+            List<MessageManager.AppendResult> appendResults = Mono.from(inboxManager.appendMessagesReactive(ImmutableList.of(
+                    MessageManager.AppendCommand.builder().build(message),
+                    MessageManager.AppendCommand.builder().build(message),
+                    MessageManager.AppendCommand.builder().build(message)), session))
+                .block();
+
+            assertThat(appendResults)
+                .extracting(appendResult -> appendResult.getId().getUid())
+                .isSorted()
+                .doesNotHaveDuplicates()
+                .hasSize(3);
+        }
+
+        @Test
+        void appendMessagesReactiveShouldAllocateUidsFollowingCommandOrder() throws Exception {
+            ImmutableList.Builder<MessageManager.AppendCommand> appendCommands = ImmutableList.builder();
+            for (int i = 0; i < 10; i++) {
+                appendCommands.add(MessageManager.AppendCommand.builder()
+                    .build(Message.Builder.of()
+                        .setSubject("message " + i)
+                        .setBody("testmail", StandardCharsets.UTF_8)));
+            }
+
+            List<MessageManager.AppendResult> appendResults = Mono.from(inboxManager.appendMessagesReactive(appendCommands.build(), session))
+                .block();
+
+            assertThat(appendResults)
+                .extracting(appendResult -> appendResult.getId().getUid())
+                .isSorted();
+            for (int i = 0; i < appendResults.size(); i++) {
+                MessageResult messageResult = inboxManager.getMessages(MessageRange.one(appendResults.get(i).getId().getUid()), FetchGroup.FULL_CONTENT, session)
+                    .next();
+                assertThat(new String(messageResult.getFullContent().getInputStream().readAllBytes(), StandardCharsets.UTF_8))
+                    .contains("Subject: message " + i + "\r\n");
+            }
+        }
+
         @Test
         void expungeMessageShouldFireExpungedEvent() throws Exception {
             inboxManager.appendMessage(MessageManager.AppendCommand.builder().build(message), session);
@@ -86,7 +86,7 @@ public class CassandraMailboxManager extends StoreMailboxManager {
 
     @Override
     public EnumSet<MailboxManager.MailboxCapabilities> getSupportedMailboxCapabilities() {
-        return MAILBOX_CAPABILITIES;
+        return withConfiguredCapabilities(MAILBOX_CAPABILITIES);
     }
 
     @Override
@@ -108,7 +108,8 @@ public class CassandraMailboxManager extends StoreMailboxManager {
             configuration.getBatchSizes(),
             getStoreRightManager(),
             getPreDeletionHooks(),
-            getThreadIdGuessingAlgorithm());
+            getThreadIdGuessingAlgorithm(),
+            configuration.getRegistrationKeys());
     }
 
     @Override
@@ -89,6 +89,15 @@ public class CassandraAttachmentMapper implements AttachmentMapper {
             .orElseThrow(() -> new AttachmentNotFoundException(attachmentId.toString()));
     }
 
+    @Override
+    public InputStream loadAttachmentContentRange(AttachmentId attachmentId, long offset, long length) throws AttachmentNotFoundException {
+        return attachmentDAOV2.getAttachment(attachmentId, messageIdFallback(attachmentId))
+            .publishOn(ReactorUtils.BLOCKING_CALL_WRAPPER)
+            .map(daoAttachment -> blobStore.readRange(blobStore.getDefaultBucketName(), daoAttachment.getBlobId(), offset, length))
+            .blockOptional()
+            .orElseThrow(() -> new AttachmentNotFoundException(attachmentId.toString()));
+    }
+
     private Mono<CassandraMessageId> messageIdFallback(AttachmentId attachmentId) {
         return attachmentMessageIdDAO.getOwnerMessageIds(attachmentId)
             .map(CassandraMessageId.class::cast)
@@ -31,6 +31,9 @@ import static org.apache.james.mailbox.cassandra.table.CassandraMailboxCountersT
 import static org.apache.james.mailbox.cassandra.table.CassandraMailboxCountersTable.TABLE_NAME;
 import static org.apache.james.mailbox.cassandra.table.CassandraMailboxCountersTable.UNSEEN;
 
+import java.util.Collection;
+import java.util.UUID;
+
 import javax.inject.Inject;
 
 import org.apache.james.backends.cassandra.utils.CassandraAsyncExecutor;
@@ -42,13 +45,16 @@ import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.cql.BoundStatement;
 import com.datastax.oss.driver.api.core.cql.PreparedStatement;
 import com.datastax.oss.driver.api.querybuilder.update.Assignment;
+import com.google.common.collect.ImmutableList;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public class CassandraMailboxCounterDAO {
 
     private final CassandraAsyncExecutor cassandraAsyncExecutor;
     private final PreparedStatement readStatement;
+    private final PreparedStatement readManyStatement;
     private final PreparedStatement incrementUnseenCountStatement;
     private final PreparedStatement incrementMessageCountStatement;
     private final PreparedStatement addToCounters;
@@ -63,6 +69,11 @@ public class CassandraMailboxCounterDAO {
     public CassandraMailboxCounterDAO(CqlSession session) {
         cassandraAsyncExecutor = new CassandraAsyncExecutor(session);
         readStatement = createReadStatement(session);
+        readManyStatement = session.prepare(
+            selectFrom(TABLE_NAME)
+                .columns(MAILBOX_ID, UNSEEN, COUNT)
+                .where(column(MAILBOX_ID).in(bindMarker(MAILBOX_ID)))
+                .build());
         incrementMessageCountStatement = updateMailboxStatement(session, increment(COUNT));
         incrementUnseenCountStatement = updateMailboxStatement(session, increment(UNSEEN));
 
@@ -127,6 +138,24 @@ public class CassandraMailboxCounterDAO {
                 .build());
     }
 
+    /**
+     * Reads the counters of several mailboxes with a single IN query. Mailboxes without stored counters are omitted.
+     */
+    public Flux<MailboxCounters> retrieveMailboxCounters(Collection<CassandraId> mailboxIds) {
+        if (mailboxIds.isEmpty()) {
+            return Flux.empty();
+        }
+        return cassandraAsyncExecutor.executeRows(readManyStatement.bind()
+                .setList(MAILBOX_ID, mailboxIds.stream()
+                    .map(CassandraId::asUuid)
+                    .collect(ImmutableList.toImmutableList()), UUID.class))
+            .map(row -> MailboxCounters.builder()
+                .mailboxId(CassandraId.of(row.getUuid(MAILBOX_ID)))
+                .count(row.getLong(COUNT))
+                .unseen(row.getLong(UNSEEN))
+                .build());
+    }
+
     public Mono<Void> resetCounters(MailboxCounters counters) {
         CassandraId mailboxId = (CassandraId) counters.getMailboxId();
 
@@ -114,6 +114,7 @@ public class CassandraMessageIdDAO {
     private final PreparedStatement selectUidRange;
     private final PreparedStatement selectUidOnlyRange;
     private final PreparedStatement selectMetadataRange;
+    private final PreparedStatement selectMetadataWithSizeRange;
     private final PreparedStatement selectUidRangeLimited;
     private final PreparedStatement update;
     private final PreparedStatement listStatement;
@@ -136,6 +137,7 @@ public class CassandraMessageIdDAO {
         this.selectUidRangeLimited = prepareSelectUidRangeLimited(session);
         this.listStatement = prepareList(session);
         this.selectMetadataRange = prepareSelectMetadataRange(session);
+        this.selectMetadataWithSizeRange = prepareSelectMetadataWithSizeRange(session);
     }
 
     private PreparedStatement prepareDelete(CqlSession session) {
@@ -275,6 +277,29 @@ public class CassandraMessageIdDAO {
                 .build());
     }
 
+    private PreparedStatement prepareSelectMetadataWithSizeRange(CqlSession session) {
+        return session.prepare(
+            QueryBuilder.selectFrom(TABLE_NAME)
+                .columns(IMAP_UID,
+                    MESSAGE_ID,
+                    THREAD_ID_LOWERCASE,
+                    ANSWERED.toLowerCase(Locale.US),
+                    DELETED.toLowerCase(Locale.US),
+                    DRAFT.toLowerCase(Locale.US),
+                    RECENT.toLowerCase(Locale.US),
+                    SEEN.toLowerCase(Locale.US),
+                    FLAGGED.toLowerCase(Locale.US),
+                    USER.toLowerCase(Locale.US),
+                    USER_FLAGS_LOWERCASE,
+                    MOD_SEQ_LOWERCASE,
+                    FULL_CONTENT_OCTETS_LOWERCASE,
+                    INTERNAL_DATE_LOWERCASE)
+                .where(column(MAILBOX_ID).isEqualTo(bindMarker(MAILBOX_ID)),
+                    column(IMAP_UID).isGreaterThanOrEqualTo(bindMarker(IMAP_UID_GTE)),
+                    column(IMAP_UID).isLessThanOrEqualTo(bindMarker(IMAP_UID_LTE)))
+                .build());
+    }
+
     private PreparedStatement prepareSelectUidRangeLimited(CqlSession session) {
         return session.prepare(QueryBuilder.selectFrom(TABLE_NAME)
             .all()
@@ -434,6 +459,35 @@ public class CassandraMessageIdDAO {
             });
     }
 
+    /**
+     * Reads flags, size and internal date of the given uid range in a single pass over the messageIdTable partition.
+     *
+     * Size and internal date might be missing for rows written by older versions of James.
+     */
+    public Flux<CassandraMessageMetadata> listMessagesMetadataWithSize(CassandraId mailboxId, MessageRange range, int pageSize) {
+        return cassandraAsyncExecutor.executeRows(selectMetadataWithSizeRange.bind()
+                .setUuid(MAILBOX_ID, mailboxId.asUuid())
+                .setLong(IMAP_UID_GTE, range.getUidFrom().asLong())
+                .setLong(IMAP_UID_LTE, range.getUidTo().asLong())
+                .setPageSize(pageSize))
+            .map(row -> {
+                CassandraMessageId messageId = CassandraMessageId.Factory.of(row.getUuid(MESSAGE_ID_LOWERCASE));
+                return CassandraMessageMetadata.builder()
+                    .ids(ComposedMessageIdWithMetaData.builder()
+                        .modSeq(ModSeq.of(row.getLong(MOD_SEQ_LOWERCASE)))
+                        .threadId(getThreadIdFromRow(row, messageId))
+                        .flags(FlagsExtractor.getFlags(row))
+                        .composedMessageId(new ComposedMessageId(mailboxId,
+                            messageId,
+                            MessageUid.of(row.getLong(IMAP_UID))))
+                        .build())
+                    .size(row.get(FULL_CONTENT_OCTETS_LOWERCASE, Long.class))
+                    .internalDate(Optional.ofNullable(row.getInstant(INTERNAL_DATE_LOWERCASE))
+                        .map(Date::from))
+                    .build();
+            });
+    }
+
     private Flux<MessageUid> doListUids(CassandraId mailboxId, MessageRange range) {
         return cassandraAsyncExecutor.executeRows(selectUidOnlyRange.bind()
                 .setUuid(MAILBOX_ID, mailboxId.asUuid())
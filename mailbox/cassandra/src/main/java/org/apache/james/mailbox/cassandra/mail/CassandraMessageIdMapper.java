@@ -23,6 +23,8 @@ import static org.apache.james.backends.cassandra.init.configuration.JamesExecut
 import static org.apache.james.blob.api.BlobStore.StoragePolicy.SIZE_BASED;
 import static org.apache.james.util.ReactorUtils.DEFAULT_CONCURRENCY;
 
+import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
@@ -141,6 +143,31 @@ public class CassandraMessageIdMapper implements MessageIdMapper {
             .flatMap(messageRepresentation -> attachmentLoader.addAttachmentToMessage(messageRepresentation, fetchType));
     }
 
+    @Override
+    public Mono<InputStream> loadFullContentRange(MessageId messageId, long offset, long length) {
+        CassandraMessageId cassandraMessageId = (CassandraMessageId) messageId;
+        return messageDAOV3.retrieveMessage(cassandraMessageId, FetchType.METADATA)
+            .switchIfEmpty(Mono.defer(() -> messageDAO.retrieveMessage(cassandraMessageId, FetchType.METADATA)))
+            .publishOn(ReactorUtils.BLOCKING_CALL_WRAPPER)
+            .map(message -> readFullContentRange(message, offset, length));
+    }
+
+    // The header blob holds the first bodyStartOctet bytes of the full content, the body blob the remaining ones
+    private InputStream readFullContentRange(MessageRepresentation message, long offset, long length) {
+        long headerSize = message.getBodyStartOctet();
+        long headerLength = Math.max(0, Math.min(length, headerSize - offset));
+        InputStream header = readRange(message.getHeaderId(), offset, headerLength);
+        InputStream body = readRange(message.getBodyId(), Math.max(0, offset - headerSize), length - headerLength);
+        return new SequenceInputStream(header, body);
+    }
+
+    private InputStream readRange(BlobId blobId, long offset, long length) {
+        if (length == 0) {
+            return InputStream.nullInputStream();
+        }
+        return blobStore.readRange(blobStore.getDefaultBucketName(), blobId, offset, length);
+    }
+
     @Override
     public Publisher<ComposedMessageIdWithMetaData> findMetadata(MessageId messageId) {
         return imapUidDAO.retrieve((CassandraMessageId) messageId, Optional.empty(), chooseReadConsistency())
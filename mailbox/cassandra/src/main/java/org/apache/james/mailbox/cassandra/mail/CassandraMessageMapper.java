@@ -33,6 +33,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 import javax.mail.Flags;
 import javax.mail.Flags.Flag;
@@ -56,6 +57,7 @@ import org.apache.james.mailbox.model.ComposedMessageId;
 import org.apache.james.mailbox.model.ComposedMessageIdWithMetaData;
 import org.apache.james.mailbox.model.Mailbox;
 import org.apache.james.mailbox.model.MailboxCounters;
+import org.apache.james.mailbox.model.MailboxId;
 import org.apache.james.mailbox.model.MessageMetaData;
 import org.apache.james.mailbox.model.MessageRange;
 import org.apache.james.mailbox.model.UpdatedFlags;
@@ -81,6 +83,8 @@ import com.google.common.collect.Streams;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 import reactor.util.retry.Retry;
 
 public class CassandraMessageMapper implements MessageMapper {
@@ -88,6 +92,7 @@ public class CassandraMessageMapper implements MessageMapper {
     private static final byte[] EMPTY_BYTE_ARRAY = {};
 
     private static final int MAX_RETRY = 5;
+    private static final int MAX_COUNTERS_PER_QUERY = 100;
     private static final Duration MIN_RETRY_BACKOFF = Duration.ofMillis(10);
     private static final Duration MAX_RETRY_BACKOFF = Duration.ofMillis(1000);
 
@@ -170,6 +175,38 @@ public class CassandraMessageMapper implements MessageMapper {
             .doOnNext(counters -> readRepair(mailbox, counters));
     }
 
+    @Override
+    public Flux<MailboxCounters> getMailboxCountersReactive(Collection<Mailbox> mailboxes) {
+        return Flux.fromIterable(mailboxes)
+            .buffer(MAX_COUNTERS_PER_QUERY)
+            .concatMap(this::readMailboxCounters)
+            .flatMap(t2 -> {
+                Mailbox mailbox = t2.getT1();
+                MailboxCounters counters = t2.getT2();
+                if (!counters.isValid()) {
+                    return fixCounters(mailbox)
+                        .then(readMailboxCounters((CassandraId) mailbox.getMailboxId()));
+                }
+                readRepair(mailbox, counters);
+                return Mono.just(counters);
+            }, DEFAULT_CONCURRENCY);
+    }
+
+    private Flux<Tuple2<Mailbox, MailboxCounters>> readMailboxCounters(List<Mailbox> mailboxes) {
+        Map<MailboxId, Mailbox> mailboxesById = mailboxes.stream()
+            .collect(ImmutableMap.toImmutableMap(Mailbox::getMailboxId, Function.identity(), (a, b) -> a));
+
+        return mailboxCounterDAO.retrieveMailboxCounters(mailboxesById.keySet()
+                .stream()
+                .map(CassandraId.class::cast)
+                .collect(ImmutableList.toImmutableList()))
+            .collectMap(MailboxCounters::getMailboxId)
+            .flatMapIterable(storedCounters -> mailboxesById.values()
+                .stream()
+                .map(mailbox -> Tuples.of(mailbox, storedCounters.getOrDefault(mailbox.getMailboxId(), MailboxCounters.empty(mailbox.getMailboxId()))))
+                .collect(ImmutableList.toImmutableList()));
+    }
+
     public Mono<MailboxCounters> readMailboxCounters(CassandraId mailboxId) {
         return mailboxCounterDAO.retrieveMailboxCounters(mailboxId)
             .defaultIfEmpty(MailboxCounters.empty(mailboxId));
@@ -252,6 +289,33 @@ public class CassandraMessageMapper implements MessageMapper {
         return messageIdDAO.listMessagesMetadata(mailboxId, set);
     }
 
+    /**
+     * The requested range is read in a single paged scan of the messageIdTable: pages only hold stored messages,
+     * whatever the holes of sparse uid ranges.
+     */
+    @Override
+    public Flux<MessageMetaData> listMessagesMetadataWithSize(Mailbox mailbox, MessageRange set) {
+        CassandraId mailboxId = (CassandraId) mailbox.getMailboxId();
+
+        return messageIdDAO.listMessagesMetadataWithSize(mailboxId, set, cassandraConfiguration.getMessageMetadataScanPageSize())
+            .flatMapSequential(this::toMessageMetaData, reactorConcurrency);
+    }
+
+    private Mono<MessageMetaData> toMessageMetaData(CassandraMessageMetadata metadata) {
+        if (metadata.getSize().isPresent() && metadata.getInternalDate().isPresent()) {
+            ComposedMessageIdWithMetaData ids = metadata.getComposedMessageId();
+            return Mono.just(new MessageMetaData(ids.getComposedMessageId().getUid(),
+                ids.getModSeq(),
+                ids.getFlags(),
+                metadata.getSize().get(),
+                metadata.getInternalDate().get(),
+                ids.getComposedMessageId().getMessageId(),
+                ids.getThreadId()));
+        }
+        return toMailboxMessage(metadata, FetchType.METADATA)
+            .map(MailboxMessage::metaData);
+    }
+
     @Override
     public Flux<MailboxMessage> findInMailboxReactive(Mailbox mailbox, MessageRange messageRange, FetchType ftype, int limitAsInt) {
         CassandraId mailboxId = (CassandraId) mailbox.getMailboxId();
@@ -408,6 +472,32 @@ public class CassandraMessageMapper implements MessageMapper {
             .map(MailboxMessage::metaData);
     }
 
+    @Override
+    public Flux<MessageMetaData> addReactive(Mailbox mailbox, List<MailboxMessage> messages) {
+        if (messages.isEmpty()) {
+            return Flux.empty();
+        }
+        CassandraId mailboxId = (CassandraId) mailbox.getMailboxId();
+
+        // A contiguous uid block is reserved upfront: uids follow the order of the messages
+        // while their content is saved concurrently
+        Mono<List<MessageUid>> uids = uidProvider.nextUids(mailboxId, messages.size());
+        Mono<ModSeq> nextModSeq = modSeqProvider.nextModSeqReactive(mailboxId)
+            .switchIfEmpty(Mono.error(() -> new MailboxException("Can not find a MODSEQ to save messages in " + mailboxId)));
+
+        return Mono.zip(uids, nextModSeq)
+            .flatMapMany(tuple -> Flux.fromStream(Streams.zip(tuple.getT1().stream(), messages.stream(),
+                (uid, message) -> {
+                    message.setUid(uid);
+                    message.setModSeq(tuple.getT2());
+                    return message;
+                })))
+            .flatMapSequentialDelayError(Throwing.function((MailboxMessage message) ->
+                save(mailbox, message)
+                    .thenReturn(message)).sneakyThrow(), DEFAULT_CONCURRENCY, 1)
+            .map(MailboxMessage::metaData);
+    }
+
     private Mono<MailboxMessage> addUidAndModseq(MailboxMessage message, CassandraId mailboxId) {
         Mono<MessageUid> messageUidMono = uidProvider
             .nextUidReactive(mailboxId)
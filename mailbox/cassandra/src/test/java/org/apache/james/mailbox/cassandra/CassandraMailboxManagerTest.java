@@ -21,6 +21,7 @@ package org.apache.james.mailbox.cassandra;
 import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.selectFrom;
 import static org.apache.james.backends.cassandra.Scenario.Builder.fail;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
 
 import java.nio.charset.StandardCharsets;
@@ -42,6 +43,8 @@ import org.apache.james.blob.api.BlobStore;
 import org.apache.james.blob.api.HashBlobId;
 import org.apache.james.blob.cassandra.BlobTables;
 import org.apache.james.core.Username;
+import org.apache.james.core.quota.QuotaCountUsage;
+import org.apache.james.core.quota.QuotaSizeUsage;
 import org.apache.james.events.EventBus;
 import org.apache.james.eventsourcing.eventstore.cassandra.CassandraEventStore;
 import org.apache.james.eventsourcing.eventstore.cassandra.EventStoreDao;
@@ -81,6 +84,7 @@ import org.apache.james.mailbox.model.MessageAttachmentMetadata;
 import org.apache.james.mailbox.model.MessageId;
 import org.apache.james.mailbox.model.MessageRange;
 import org.apache.james.mailbox.model.MessageResult;
+import org.apache.james.mailbox.model.QuotaRoot;
 import org.apache.james.mailbox.model.ThreadId;
 import org.apache.james.mailbox.store.BatchSizes;
 import org.apache.james.mailbox.store.MailboxManagerConfiguration;
@@ -890,6 +894,66 @@ public class CassandraMailboxManagerTest extends MailboxManagerTest<CassandraMai
         }
     }
 
+    @Nested
+    class MultiAppendTests {
+        private MailboxSession session;
+        private MessageManager inboxManager;
+
+        @BeforeEach
+        void setUp() throws Exception {
+            session = mailboxManager.createSystemSession(USER_1);
+            MailboxPath inbox = MailboxPath.inbox(session);
+            mailboxManager.createMailbox(inbox, session);
+            inboxManager = mailboxManager.getMailbox(inbox, session);
+        }
+
+        @Test
+        void failingBatchShouldLeaveNothingBehind(CassandraCluster cassandraCluster) throws Exception {
+            cassandraCluster.getConf().registerScenario(fail()
+                .times(1)
+                .whenQueryStartsWith("INSERT INTO imapuidtable"));
+
+            List<MessageManager.AppendCommand> appendCommands = ImmutableList.of(
+                MessageManager.AppendCommand.builder().build(message),
+                MessageManager.AppendCommand.builder().build(message),
+                MessageManager.AppendCommand.builder().build(message));
+            assertThatThrownBy(() -> Mono.from(inboxManager.appendMessagesReactive(appendCommands, session)).block())
+                .isInstanceOf(Exception.class);
+
+            QuotaRoot quotaRoot = mailboxManager.getQuotaComponents().getQuotaRootResolver().getQuotaRoot(inboxManager.getMailboxPath());
+            SoftAssertions.assertSoftly(Throwing.consumer(softly -> {
+                softly.assertThat(Iterators.toStream(inboxManager.getMessages(MessageRange.all(), FetchGroup.MINIMAL, session)))
+                    .isEmpty();
+                softly.assertThat(inboxManager.getMailboxCounters(session).getCount())
+                    .isZero();
+                softly.assertThat(inboxManager.getMailboxCounters(session).getUnseen())
+                    .isZero();
+                softly.assertThat(mailboxManager.getQuotaComponents().getQuotaManager().getMessageQuota(quotaRoot).getUsed())
+                    .isEqualTo(QuotaCountUsage.count(0));
+                softly.assertThat(mailboxManager.getQuotaComponents().getQuotaManager().getStorageQuota(quotaRoot).getUsed())
+                    .isEqualTo(QuotaSizeUsage.size(0));
+            }));
+        }
+
+        @Test
+        void batchShouldBeAppendedOnceFailureIsGone(CassandraCluster cassandraCluster) throws Exception {
+            cassandraCluster.getConf().registerScenario(fail()
+                .times(1)
+                .whenQueryStartsWith("INSERT INTO imapuidtable"));
+
+            List<MessageManager.AppendCommand> appendCommands = ImmutableList.of(
+                MessageManager.AppendCommand.builder().build(message),
+                MessageManager.AppendCommand.builder().build(message));
+            assertThatThrownBy(() -> Mono.from(inboxManager.appendMessagesReactive(appendCommands, session)).block())
+                .isInstanceOf(Exception.class);
+
+            Mono.from(inboxManager.appendMessagesReactive(appendCommands, session)).block();
+
+            assertThat(inboxManager.getMailboxCounters(session).getCount())
+                .isEqualTo(2);
+        }
+    }
+
     @Nested
     class WithBatchSize extends MailboxManagerTest<CassandraMailboxManager> {
         @Override
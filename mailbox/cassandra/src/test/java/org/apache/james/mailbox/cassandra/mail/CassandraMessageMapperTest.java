@@ -20,11 +20,18 @@
 package org.apache.james.mailbox.cassandra.mail;
 
 import static org.apache.james.backends.cassandra.Scenario.Builder.fail;
+import static org.apache.james.mailbox.cassandra.table.CassandraMessageIds.IMAP_UID;
+import static org.apache.james.mailbox.cassandra.table.CassandraMessageIds.MAILBOX_ID;
+import static org.apache.james.mailbox.cassandra.table.CassandraMessageV3Table.FULL_CONTENT_OCTETS;
+import static org.apache.james.mailbox.cassandra.table.CassandraMessageV3Table.INTERNAL_DATE;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.awaitility.Durations.ONE_SECOND;
 
 import java.time.Duration;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 import javax.mail.Flags;
@@ -38,9 +45,12 @@ import org.apache.james.blob.api.HashBlobId;
 import org.apache.james.mailbox.MessageManager;
 import org.apache.james.mailbox.cassandra.ids.CassandraId;
 import org.apache.james.mailbox.cassandra.ids.CassandraMessageId;
+import org.apache.james.mailbox.cassandra.table.CassandraMessageIdTable;
 import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.model.MessageMetaData;
 import org.apache.james.mailbox.model.MessageRange;
 import org.apache.james.mailbox.store.FlagsUpdateCalculator;
+import org.apache.james.mailbox.store.mail.MessageMapper;
 import org.apache.james.mailbox.store.mail.MessageMapper.FetchType;
 import org.apache.james.mailbox.store.mail.model.MailboxMessage;
 import org.apache.james.mailbox.store.mail.model.MapperProvider;
@@ -48,10 +58,14 @@ import org.apache.james.mailbox.store.mail.model.MessageMapperTest;
 import org.apache.james.util.streams.Limit;
 import org.assertj.core.api.SoftAssertions;
 import org.awaitility.Awaitility;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
 import com.github.fge.lambdas.Throwing;
 import com.google.common.collect.ImmutableList;
 
@@ -215,6 +229,88 @@ class CassandraMessageMapperTest extends MessageMapperTest {
         }
     }
 
+    @Nested
+    class MetadataWithSizeListingTests {
+        private MessageMapper pagingMessageMapper;
+
+        @BeforeEach
+        void setUp(CassandraCluster cassandra) throws MailboxException {
+            pagingMessageMapper = new CassandraMapperProvider(cassandra, CassandraConfiguration.builder()
+                    .messageMetadataScanPageSize(2)
+                    .build())
+                .createMessageMapper();
+        }
+
+        @Test
+        void listMessagesMetadataWithSizeShouldReturnAllMessagesAcrossPages() throws MailboxException {
+            saveMessages();
+
+            assertThat(pagingMessageMapper.listMessagesMetadataWithSize(benwaInboxMailbox, MessageRange.all()).collectList().block())
+                .extracting(MessageMetaData::getUid, MessageMetaData::getSize, MessageMetaData::getModSeq)
+                .containsExactly(
+                    tuple(message1.getUid(), message1.getFullContentOctets(), message1.getModSeq()),
+                    tuple(message2.getUid(), message2.getFullContentOctets(), message2.getModSeq()),
+                    tuple(message3.getUid(), message3.getFullContentOctets(), message3.getModSeq()),
+                    tuple(message4.getUid(), message4.getFullContentOctets(), message4.getModSeq()),
+                    tuple(message5.getUid(), message5.getFullContentOctets(), message5.getModSeq()));
+        }
+
+        @Test
+        void listMessagesMetadataWithSizeShouldReadTheMessageIdTableInASinglePass(CassandraCluster cassandra) throws MailboxException {
+            saveMessages();
+
+            StatementRecorder statementRecorder = new StatementRecorder();
+            cassandra.getConf().recordStatements(statementRecorder);
+
+            pagingMessageMapper.listMessagesMetadataWithSize(benwaInboxMailbox, MessageRange.all()).collectList().block();
+
+            assertThat(messageIdTableReads(statementRecorder))
+                .hasSize(1);
+        }
+
+        @Test
+        void listMessagesMetadataWithSizeShouldHandleSparseUidRanges(CassandraCluster cassandra) throws MailboxException {
+            saveMessages();
+            messageMapper.deleteMessages(benwaInboxMailbox, ImmutableList.of(message2.getUid(), message3.getUid(), message4.getUid()));
+
+            StatementRecorder statementRecorder = new StatementRecorder();
+            cassandra.getConf().recordStatements(statementRecorder);
+
+            assertThat(pagingMessageMapper.listMessagesMetadataWithSize(benwaInboxMailbox, MessageRange.all()).collectList().block())
+                .extracting(MessageMetaData::getUid)
+                .containsExactly(message1.getUid(), message5.getUid());
+            assertThat(messageIdTableReads(statementRecorder))
+                .hasSize(1);
+        }
+
+        @Test
+        void listMessagesMetadataWithSizeShouldFallbackToTheMessageTableWhenDenormalizedColumnsAreMissing(CassandraCluster cassandra) throws MailboxException {
+            saveMessages();
+            cassandra.getConf().execute(SimpleStatement.newInstance(
+                String.format("UPDATE %s SET %s = null, %s = null WHERE %s = ? AND %s = ?",
+                    CassandraMessageIdTable.TABLE_NAME, FULL_CONTENT_OCTETS, INTERNAL_DATE, MAILBOX_ID, IMAP_UID),
+                ((CassandraId) benwaInboxMailbox.getMailboxId()).asUuid(),
+                message2.getUid().asLong()));
+
+            assertThat(pagingMessageMapper.listMessagesMetadataWithSize(benwaInboxMailbox, MessageRange.range(message1.getUid(), message3.getUid())).collectList().block())
+                .extracting(MessageMetaData::getUid, MessageMetaData::getSize, MessageMetaData::getInternalDate)
+                .containsExactly(
+                    tuple(message1.getUid(), message1.getFullContentOctets(), message1.getInternalDate()),
+                    tuple(message2.getUid(), message2.getFullContentOctets(), message2.getInternalDate()),
+                    tuple(message3.getUid(), message3.getFullContentOctets(), message3.getInternalDate()));
+        }
+
+        private List<Statement> messageIdTableReads(StatementRecorder statementRecorder) {
+            return statementRecorder.listExecutedStatements().stream()
+                .filter(BoundStatement.class::isInstance)
+                .filter(statement -> {
+                    String query = ((BoundStatement) statement).getPreparedStatement().getQuery().toLowerCase(Locale.US);
+                    return query.startsWith("select") && query.contains("from messageidtable");
+                })
+                .collect(ImmutableList.toImmutableList());
+        }
+    }
+
     @Nested
     class FailureTesting {
         @Test
@@ -18,6 +18,7 @@
  ****************************************************************/
 package org.apache.james.mailbox.jpa.mail;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -57,6 +58,7 @@ import org.apache.openjpa.persistence.ArgumentException;
 
 import com.github.fge.lambdas.Throwing;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 
 import reactor.core.publisher.Flux;
 
@@ -66,6 +68,7 @@ import reactor.core.publisher.Flux;
 public class JPAMessageMapper extends JPATransactionalMapper implements MessageMapper {
     private static final int UNLIMIT_MAX_SIZE = -1;
     private static final int UNLIMITED = -1;
+    private static final int MAX_MAILBOXES_PER_COUNTERS_QUERY = 100;
 
     private final MessageUtils messageMetadataMapper;
     private final UidProvider uidProvider;
@@ -87,6 +90,45 @@ public class JPAMessageMapper extends JPATransactionalMapper implements MessageM
             .build();
     }
 
+    @Override
+    public Flux<MailboxCounters> getMailboxCountersReactive(Collection<Mailbox> mailboxes) {
+        return Flux.fromIterable(mailboxes)
+            .buffer(MAX_MAILBOXES_PER_COUNTERS_QUERY)
+            .concatMapIterable(Throwing.<List<Mailbox>, List<MailboxCounters>>function(this::getMailboxCounters).sneakyThrow());
+    }
+
+    private List<MailboxCounters> getMailboxCounters(List<Mailbox> mailboxes) throws MailboxException {
+        List<Long> mailboxIds = mailboxes.stream()
+            .map(mailbox -> ((JPAId) mailbox.getMailboxId()).getRawId())
+            .collect(ImmutableList.toImmutableList());
+        try {
+            Map<Long, Long> counts = countByMailbox("countMessagesInMailboxes", mailboxIds);
+            Map<Long, Long> unseenCounts = countByMailbox("countUnseenMessagesInMailboxes", mailboxIds);
+
+            return mailboxes.stream()
+                .map(mailbox -> {
+                    long rawId = ((JPAId) mailbox.getMailboxId()).getRawId();
+                    return MailboxCounters.builder()
+                        .mailboxId(mailbox.getMailboxId())
+                        .count(counts.getOrDefault(rawId, 0L))
+                        .unseen(unseenCounts.getOrDefault(rawId, 0L))
+                        .build();
+                })
+                .collect(ImmutableList.toImmutableList());
+        } catch (PersistenceException e) {
+            throw new MailboxException("Count of messages failed in mailboxes " + mailboxIds, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Long> countByMailbox(String namedQuery, List<Long> mailboxIds) {
+        List<Object[]> rows = getEntityManager().createNamedQuery(namedQuery)
+            .setParameter("idsParam", mailboxIds)
+            .getResultList();
+        return rows.stream()
+            .collect(ImmutableMap.toImmutableMap(row -> (Long) row[0], row -> (Long) row[1]));
+    }
+
     @Override
     public Flux<MessageUid> listAllMessageUids(Mailbox mailbox) {
         return findInMailboxReactive(mailbox, MessageRange.all(), FetchType.METADATA, UNLIMITED)
@@ -96,6 +96,8 @@ import com.google.common.collect.ImmutableList;
 
         @NamedQuery(name = "countUnseenMessagesInMailbox", query = "SELECT COUNT(message) FROM MailboxMessage message WHERE message.mailbox.mailboxId = :idParam AND message.seen=FALSE"),
         @NamedQuery(name = "countMessagesInMailbox", query = "SELECT COUNT(message) FROM MailboxMessage message WHERE message.mailbox.mailboxId = :idParam"),
+        @NamedQuery(name = "countMessagesInMailboxes", query = "SELECT message.mailbox.mailboxId, COUNT(message) FROM MailboxMessage message WHERE message.mailbox.mailboxId IN :idsParam GROUP BY message.mailbox.mailboxId"),
+        @NamedQuery(name = "countUnseenMessagesInMailboxes", query = "SELECT message.mailbox.mailboxId, COUNT(message) FROM MailboxMessage message WHERE message.mailbox.mailboxId IN :idsParam AND message.seen=FALSE GROUP BY message.mailbox.mailboxId"),
         @NamedQuery(name = "deleteMessages", query = "DELETE FROM MailboxMessage message WHERE message.mailbox.mailboxId = :idParam"),
         @NamedQuery(name = "findLastUidInMailbox", query = "SELECT message.uid FROM MailboxMessage message WHERE message.mailbox.mailboxId = :idParam ORDER BY message.uid DESC"),
         @NamedQuery(name = "findHighestModSeqInMailbox", query = "SELECT message.modSeq FROM MailboxMessage message WHERE message.mailbox.mailboxId = :idParam ORDER BY message.modSeq DESC")
@@ -80,12 +80,13 @@ public class OpenJPAMailboxManager extends StoreMailboxManager {
             getMessageIdFactory(),
             configuration.getBatchSizes(),
             getStoreRightManager(),
-            getThreadIdGuessingAlgorithm());
+            getThreadIdGuessingAlgorithm(),
+            configuration.getRegistrationKeys());
     }
 
     @Override
     public EnumSet<MailboxCapabilities> getSupportedMailboxCapabilities() {
-        return MAILBOX_CAPABILITIES;
+        return withConfiguredCapabilities(MAILBOX_CAPABILITIES);
     }
 
 }
@@ -20,6 +20,7 @@
 package org.apache.james.mailbox.jpa.mail;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 import java.util.Optional;
 
@@ -31,6 +32,8 @@ import org.apache.james.mailbox.MessageManager;
 import org.apache.james.mailbox.ModSeq;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.jpa.JPAMailboxFixture;
+import org.apache.james.mailbox.model.MessageMetaData;
+import org.apache.james.mailbox.model.MessageRange;
 import org.apache.james.mailbox.model.UpdatedFlags;
 import org.apache.james.mailbox.store.FlagsUpdateCalculator;
 import org.apache.james.mailbox.store.mail.model.MapperProvider;
@@ -139,4 +142,20 @@ class JpaMessageMapperTest extends MessageMapperTest {
                     .newFlags(new Flags())
                     .build());
     }
+
+    @Test
+    @Override
+    public void listMessagesMetadataWithSizeShouldReturnMetadataOrderedByUid() throws MailboxException {
+        saveMessages();
+
+        // JPA does not support MessageId
+        assertThat(messageMapper.listMessagesMetadataWithSize(benwaInboxMailbox, MessageRange.all()).collectList().block())
+            .extracting(MessageMetaData::getUid, MessageMetaData::getSize, MessageMetaData::getModSeq)
+            .containsExactly(
+                tuple(message1.getUid(), message1.getFullContentOctets(), message1.getModSeq()),
+                tuple(message2.getUid(), message2.getFullContentOctets(), message2.getModSeq()),
+                tuple(message3.getUid(), message3.getFullContentOctets(), message3.getModSeq()),
+                tuple(message4.getUid(), message4.getFullContentOctets(), message4.getModSeq()),
+                tuple(message5.getUid(), message5.getFullContentOctets(), message5.getModSeq()));
+    }
 }
@@ -68,7 +68,7 @@ public class InMemoryMailboxManager extends StoreMailboxManager {
 
     @Override
     public EnumSet<MailboxCapabilities> getSupportedMailboxCapabilities() {
-        return MAILBOX_CAPABILITIES;
+        return withConfiguredCapabilities(MAILBOX_CAPABILITIES);
     }
     
     @Override
@@ -90,6 +90,7 @@ public class InMemoryMailboxManager extends StoreMailboxManager {
             configuration.getBatchSizes(),
             getStoreRightManager(),
             getPreDeletionHooks(),
-            getThreadIdGuessingAlgorithm());
+            getThreadIdGuessingAlgorithm(),
+            configuration.getRegistrationKeys());
     }
 }
@@ -0,0 +1,332 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.store;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import javax.mail.Flags;
+
+import org.apache.james.events.Event;
+import org.apache.james.events.Event.EventId;
+import org.apache.james.events.EventBus;
+import org.apache.james.events.EventListener;
+import org.apache.james.events.Registration;
+import org.apache.james.mailbox.events.MailboxEvents.Added;
+import org.apache.james.mailbox.events.MailboxEvents.Expunged;
+import org.apache.james.mailbox.events.MailboxEvents.FlagsUpdated;
+import org.apache.james.mailbox.events.MailboxEvents.MailboxDeletion;
+import org.apache.james.mailbox.events.MailboxEvents.MetaDataHoldingEvent;
+import org.apache.james.mailbox.events.MailboxIdRegistrationKey;
+import org.apache.james.mailbox.model.Mailbox;
+import org.apache.james.mailbox.model.MailboxCounters;
+import org.apache.james.mailbox.model.MailboxId;
+import org.apache.james.mailbox.store.mail.MessageMapper;
+import org.reactivestreams.Publisher;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Per node cache of {@link MailboxCounters}, sparing the counter reads of clients regularly polling
+ * STATUS or LIST on all their mailboxes.
+ *
+ * Each cached entry registers a listener on the {@link MailboxIdRegistrationKey} of its mailbox in order to
+ * incrementally apply {@link Added}, {@link Expunged} and {@link FlagsUpdated} events. As key registrations are
+ * delivered to every node, and synchronously for changes issued locally, cached values stay in line with writes.
+ *
+ * Entries are reloaded from the {@link MessageMapper} after a given duration in order to bound drifts, and
+ * discarded (unregistering their listener) once the cache size is exceeded.
+ *
+ * Updates are idempotent: the ids of the events applied to an entry are tracked so that redelivered events are
+ * ignored. An entry is discarded whenever its value can not be trusted anymore: events received while loading,
+ * too many events to track, or inconsistent counters.
+ *
+ * Events from other nodes might be delayed or lost on distributed event buses: cached values are then not
+ * authoritative, and only suit reads tolerating staleness, like LIST-STATUS. Selecting a mailbox reads its
+ * counters from the {@link MessageMapper}. When disabled, counters are always read from the {@link MessageMapper}.
+ */
+public class MailboxCountersCache {
+    public static final Duration DEFAULT_EXPIRY = Duration.ofMinutes(5);
+    public static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+    private static final int MAXIMUM_APPLIED_EVENTS = 1_000;
+
+    public static class Configuration {
+        public static final Configuration DEFAULT = enabled(DEFAULT_EXPIRY, DEFAULT_MAXIMUM_SIZE);
+        public static final Configuration DISABLED = new Configuration(false, DEFAULT_EXPIRY, DEFAULT_MAXIMUM_SIZE);
+
+        public static Configuration enabled(Duration expiry, long maximumSize) {
+            Preconditions.checkArgument(!expiry.isNegative() && !expiry.isZero(), "'expiry' needs to be strictly positive");
+            Preconditions.checkArgument(maximumSize > 0, "'maximumSize' needs to be strictly positive");
+            return new Configuration(true, expiry, maximumSize);
+        }
+
+        private final boolean enabled;
+        private final Duration expiry;
+        private final long maximumSize;
+
+        private Configuration(boolean enabled, Duration expiry, long maximumSize) {
+            this.enabled = enabled;
+            this.expiry = expiry;
+            this.maximumSize = maximumSize;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public Duration getExpiry() {
+            return expiry;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+    }
+
+    private class CachedCounters implements EventListener.ReactiveEventListener {
+        private final MailboxId mailboxId;
+        private final AtomicReference<MailboxCounters> counters;
+        private final AtomicBoolean updatedWhileLoading;
+        private final Set<EventId> appliedEvents;
+        private volatile Registration registration;
+
+        CachedCounters(MailboxId mailboxId) {
+            this.mailboxId = mailboxId;
+            this.counters = new AtomicReference<>();
+            this.updatedWhileLoading = new AtomicBoolean(false);
+            this.appliedEvents = ConcurrentHashMap.newKeySet();
+        }
+
+        Mono<CachedCounters> register() {
+            return Mono.from(eventBus.register(this, new MailboxIdRegistrationKey(mailboxId)))
+                .doOnNext(registration -> this.registration = registration)
+                .thenReturn(this);
+        }
+
+        Mono<Void> unregister() {
+            return Optional.ofNullable(registration)
+                .map(value -> Mono.from(value.unregister()))
+                .orElse(Mono.empty());
+        }
+
+        @Override
+        public boolean isHandling(Event event) {
+            return event instanceof Added
+                || event instanceof Expunged
+                || event instanceof FlagsUpdated
+                || event instanceof MailboxDeletion;
+        }
+
+        @Override
+        public Publisher<Void> reactiveEvent(Event event) {
+            return Mono.fromRunnable(() -> {
+                if (event instanceof MailboxDeletion) {
+                    cache.invalidate(mailboxId);
+                } else if (counters.get() == null) {
+                    // We can not tell if the loaded counters will include this update
+                    updatedWhileLoading.set(true);
+                } else if (!appliedEvents.add(event.getEventId())) {
+                    // Redelivery of an event that was already applied
+                } else if (appliedEvents.size() > MAXIMUM_APPLIED_EVENTS) {
+                    // Redeliveries could no longer be told apart
+                    cache.invalidate(mailboxId);
+                } else {
+                    MailboxCounters updated = counters.updateAndGet(current -> apply(current, event));
+                    if (!isConsistent(updated)) {
+                        cache.invalidate(mailboxId);
+                    }
+                }
+            });
+        }
+
+        private MailboxCounters apply(MailboxCounters current, Event event) {
+            if (event instanceof Added) {
+                return add(current, (Added) event, 1);
+            }
+            if (event instanceof Expunged) {
+                return add(current, (Expunged) event, -1);
+            }
+            if (event instanceof FlagsUpdated) {
+                return applyFlagsUpdate(current, (FlagsUpdated) event);
+            }
+            return current;
+        }
+
+        private boolean isConsistent(MailboxCounters counters) {
+            return counters.getCount() >= 0
+                && counters.getUnseen() >= 0
+                && counters.getUnseen() <= counters.getCount();
+        }
+
+        @Override
+        public ExecutionMode getExecutionMode() {
+            return ExecutionMode.SYNCHRONOUS;
+        }
+
+        private MailboxCounters add(MailboxCounters current, MetaDataHoldingEvent event, int sign) {
+            long unseen = event.getUids()
+                .stream()
+                .filter(uid -> !event.getMetaData(uid).getFlags().contains(Flags.Flag.SEEN))
+                .count();
+            return MailboxCounters.builder()
+                .mailboxId(mailboxId)
+                .count(current.getCount() + sign * event.getUids().size())
+                .unseen(current.getUnseen() + sign * unseen)
+                .build();
+        }
+
+        private MailboxCounters applyFlagsUpdate(MailboxCounters current, FlagsUpdated event) {
+            long unseenDelta = event.getUpdatedFlags()
+                .stream()
+                .mapToLong(updatedFlags -> {
+                    if (updatedFlags.isModifiedToSet(Flags.Flag.SEEN)) {
+                        return -1;
+                    }
+                    if (updatedFlags.isModifiedToUnset(Flags.Flag.SEEN)) {
+                        return 1;
+                    }
+                    return 0;
+                })
+                .sum();
+            if (unseenDelta == 0) {
+                return current;
+            }
+            return MailboxCounters.builder()
+                .mailboxId(mailboxId)
+                .count(current.getCount())
+                .unseen(current.getUnseen() + unseenDelta)
+                .build();
+        }
+    }
+
+    private final EventBus eventBus;
+    private final boolean enabled;
+    private final Cache<MailboxId, CachedCounters> cache;
+
+    public MailboxCountersCache(EventBus eventBus) {
+        this(eventBus, Configuration.DEFAULT);
+    }
+
+    public MailboxCountersCache(EventBus eventBus, Duration expiry, long maximumSize) {
+        this(eventBus, Configuration.enabled(expiry, maximumSize));
+    }
+
+    public MailboxCountersCache(EventBus eventBus, Configuration configuration) {
+        this.eventBus = eventBus;
+        this.enabled = configuration.isEnabled();
+        this.cache = CacheBuilder.newBuilder()
+            .expireAfterWrite(configuration.getExpiry())
+            .maximumSize(configuration.getMaximumSize())
+            .removalListener(this::onRemoval)
+            .build();
+    }
+
+    public Mono<MailboxCounters> retrieve(Mailbox mailbox, MessageMapper messageMapper) {
+        return retrieve(ImmutableList.of(mailbox), messageMapper)
+            .next()
+            .switchIfEmpty(Mono.fromCallable(() -> MailboxCounters.empty(mailbox.getMailboxId())));
+    }
+
+    /**
+     * Counters of mailboxes not present in the cache are read from the {@link MessageMapper} in a single batch.
+     */
+    public Flux<MailboxCounters> retrieve(Collection<Mailbox> mailboxes, MessageMapper messageMapper) {
+        if (!enabled) {
+            return load(mailboxes, messageMapper);
+        }
+        Map<MailboxId, CachedCounters> cached = cache.getAllPresent(mailboxes.stream()
+            .map(Mailbox::getMailboxId)
+            .collect(ImmutableList.toImmutableList()));
+        List<Mailbox> missing = mailboxes.stream()
+            .filter(mailbox -> !cached.containsKey(mailbox.getMailboxId()))
+            .collect(ImmutableList.toImmutableList());
+
+        return Flux.fromIterable(cached.values())
+            .map(entry -> entry.counters.get())
+            .concatWith(loadAndCache(missing, messageMapper));
+    }
+
+    private Flux<MailboxCounters> load(Collection<Mailbox> mailboxes, MessageMapper messageMapper) {
+        if (mailboxes.isEmpty()) {
+            return Flux.empty();
+        }
+        return messageMapper.getMailboxCountersReactive(mailboxes);
+    }
+
+    private Flux<MailboxCounters> loadAndCache(List<Mailbox> mailboxes, MessageMapper messageMapper) {
+        if (mailboxes.isEmpty()) {
+            return Flux.empty();
+        }
+        return Flux.fromIterable(mailboxes)
+            .flatMap(mailbox -> new CachedCounters(mailbox.getMailboxId()).register())
+            .collectMap(entry -> entry.mailboxId)
+            .flatMapMany(entries -> messageMapper.getMailboxCountersReactive(mailboxes)
+                .collectList()
+                .doOnNext(loadedCounters -> store(entries, loadedCounters))
+                .onErrorResume(e -> Flux.fromIterable(entries.values())
+                    .flatMap(CachedCounters::unregister)
+                    .then(Mono.error(e)))
+                .flatMapIterable(Function.identity()));
+    }
+
+    private void store(Map<MailboxId, CachedCounters> entries, List<MailboxCounters> loadedCounters) {
+        loadedCounters.forEach(counters -> Optional.ofNullable(entries.get(counters.getMailboxId()))
+            .ifPresent(entry -> entry.counters.set(counters)));
+
+        entries.values().forEach(entry -> {
+            if (entry.counters.get() == null || entry.updatedWhileLoading.get()) {
+                entry.unregister().subscribe();
+            } else {
+                cache.put(entry.mailboxId, entry);
+            }
+        });
+    }
+
+    private void onRemoval(RemovalNotification<MailboxId, CachedCounters> notification) {
+        Optional.ofNullable(notification.getValue())
+            .ifPresent(entry -> entry.unregister().subscribe());
+    }
+
+    public void invalidate(MailboxId mailboxId) {
+        cache.invalidate(mailboxId);
+    }
+
+    @VisibleForTesting
+    long size() {
+        cache.cleanUp();
+        return cache.size();
+    }
+}
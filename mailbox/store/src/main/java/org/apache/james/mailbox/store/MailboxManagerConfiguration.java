@@ -21,6 +21,8 @@ package org.apache.james.mailbox.store;
 
 import javax.inject.Inject;
 
+import org.apache.james.mailbox.store.event.MailboxRegistrationKeys;
+
 public class MailboxManagerConfiguration {
     public static final MailboxManagerConfiguration DEFAULT = new MailboxManagerConfiguration(BatchSizes.defaultValues());
 
@@ -33,16 +35,34 @@ public class MailboxManagerConfiguration {
     }
 
     private final BatchSizes batchSizes;
+    private final MailboxRegistrationKeys registrationKeys;
+    private final MailboxCountersCache.Configuration countersCacheConfiguration;
 
-    @Inject
     public MailboxManagerConfiguration(BatchSizes batchSizes) {
+        // Key registrations without listeners are free, and local events are delivered synchronously, on the in VM event bus
+        this(batchSizes, MailboxRegistrationKeys.WITH_ACCOUNT_KEYS, MailboxCountersCache.Configuration.DEFAULT);
+    }
+
+    @Inject
+    public MailboxManagerConfiguration(BatchSizes batchSizes, MailboxRegistrationKeys registrationKeys,
+                                       MailboxCountersCache.Configuration countersCacheConfiguration) {
         this.batchSizes = batchSizes;
+        this.registrationKeys = registrationKeys;
+        this.countersCacheConfiguration = countersCacheConfiguration;
     }
 
     public BatchSizes getBatchSizes() {
         return batchSizes;
     }
 
+    public MailboxRegistrationKeys getRegistrationKeys() {
+        return registrationKeys;
+    }
+
+    public MailboxCountersCache.Configuration getCountersCacheConfiguration() {
+        return countersCacheConfiguration;
+    }
+
     public MessageBatcher getCopyBatcher() {
         return new MessageBatcher(batchSizes.getCopyBatchSize().orElse(MessageBatcher.NO_BATCH_SIZE));
     }
@@ -65,6 +65,15 @@ public interface MessageStorer {
      */
     Mono<Pair<MessageMetaData, Optional<List<MessageAttachmentMetadata>>>> appendMessageToStore(Mailbox mailbox, Date internalDate, int size, int bodyStartOctet, Content content, Flags flags, PropertyBuilder propertyBuilder, Optional<Message> maybeMessage, MailboxSession session, HeaderImpl headers) throws MailboxException;
 
+    /**
+     * Does everything {@link #appendMessageToStore} does but adding the message to the {@link MessageMapper}: attachments
+     * are stored if supported, and the thread of the message is guessed.
+     *
+     * This allows several messages to be prepared concurrently, then to be added at once with
+     * {@link MessageMapper#addReactive(Mailbox, List)}.
+     */
+    Mono<Pair<MailboxMessage, Optional<List<MessageAttachmentMetadata>>>> prepareMessage(Mailbox mailbox, Date internalDate, int size, int bodyStartOctet, Content content, Flags flags, PropertyBuilder propertyBuilder, Optional<Message> maybeMessage, MailboxSession session, HeaderImpl headers);
+
     /**
      * MessageStorer parsing, storing and returning AttachmentMetadata
      *
@@ -94,24 +103,30 @@ public interface MessageStorer {
         @Override
         public Mono<Pair<MessageMetaData, Optional<List<MessageAttachmentMetadata>>>> appendMessageToStore(Mailbox mailbox, Date internalDate, int size, int bodyStartOctet, Content content, Flags flags, PropertyBuilder propertyBuilder, Optional<Message> maybeMessage, MailboxSession session, HeaderImpl headers) {
             MessageMapper messageMapper = mapperFactory.getMessageMapper(session);
+
+            return messageMapper.executeReactive(
+                prepareMessage(mailbox, internalDate, size, bodyStartOctet, content, flags, propertyBuilder, maybeMessage, session, headers)
+                    .flatMap(preparedMessage -> Mono.from(messageMapper.addReactive(mailbox, preparedMessage.getLeft()))
+                        .map(metadata -> Pair.of(metadata, preparedMessage.getRight()))));
+        }
+
+        @Override
+        public Mono<Pair<MailboxMessage, Optional<List<MessageAttachmentMetadata>>>> prepareMessage(Mailbox mailbox, Date internalDate, int size, int bodyStartOctet, Content content, Flags flags, PropertyBuilder propertyBuilder, Optional<Message> maybeMessage, MailboxSession session, HeaderImpl headers) {
             MessageId messageId = messageIdFactory.generate();
             Optional<MimeMessageId> mimeMessageId = MimeMessageHeadersUtil.parseMimeMessageId(headers);
             Optional<MimeMessageId> inReplyTo = MimeMessageHeadersUtil.parseInReplyTo(headers);
             Optional<List<MimeMessageId>> references = MimeMessageHeadersUtil.parseReferences(headers);
             Optional<Subject> subject = MimeMessageHeadersUtil.parseSubject(headers);
 
-            return mapperFactory.getMessageMapper(session)
-                .executeReactive(
-                    storeAttachments(messageId, content, maybeMessage, session)
-                        .zipWith(threadIdGuessingAlgorithm.guessThreadIdReactive(messageId, mimeMessageId, inReplyTo, references, subject, session))
-                        .flatMap(Throwing.function((Tuple2<List<MessageAttachmentMetadata>, ThreadId> pair) -> {
-                                List<MessageAttachmentMetadata> attachments = pair.getT1();
-                                ThreadId threadId = pair.getT2();
-
-                                MailboxMessage message = messageFactory.createMessage(messageId, threadId, mailbox, internalDate, size, bodyStartOctet, content, flags, propertyBuilder, attachments);
-                                return Mono.from(messageMapper.addReactive(mailbox, message))
-                                    .map(metadata -> Pair.of(metadata, Optional.of(attachments)));
-                            }).sneakyThrow()));
+            return storeAttachments(messageId, content, maybeMessage, session)
+                .zipWith(threadIdGuessingAlgorithm.guessThreadIdReactive(messageId, mimeMessageId, inReplyTo, references, subject, session))
+                .map(Throwing.function((Tuple2<List<MessageAttachmentMetadata>, ThreadId> pair) -> {
+                        List<MessageAttachmentMetadata> attachments = pair.getT1();
+                        ThreadId threadId = pair.getT2();
+
+                        MailboxMessage message = messageFactory.createMessage(messageId, threadId, mailbox, internalDate, size, bodyStartOctet, content, flags, propertyBuilder, attachments);
+                        return Pair.of(message, Optional.of(attachments));
+                    }).sneakyThrow());
         }
 
         private Mono<List<MessageAttachmentMetadata>> storeAttachments(MessageId messageId, Content messageContent, Optional<Message> maybeMessage, MailboxSession session) {
@@ -158,21 +173,28 @@ public interface MessageStorer {
         }
 
         @Override
-        public Mono<Pair<MessageMetaData, Optional<List<MessageAttachmentMetadata>>>> appendMessageToStore(Mailbox mailbox, Date internalDate, int size, int bodyStartOctet, Content content, Flags flags, PropertyBuilder propertyBuilder, Optional<Message> maybeMessage, MailboxSession session, HeaderImpl headers) throws MailboxException {
+        public Mono<Pair<MessageMetaData, Optional<List<MessageAttachmentMetadata>>>> appendMessageToStore(Mailbox mailbox, Date internalDate, int size, int bodyStartOctet, Content content, Flags flags, PropertyBuilder propertyBuilder, Optional<Message> maybeMessage, MailboxSession session, HeaderImpl headers) {
             MessageMapper messageMapper = mapperFactory.getMessageMapper(session);
+
+            return messageMapper.executeReactive(
+                prepareMessage(mailbox, internalDate, size, bodyStartOctet, content, flags, propertyBuilder, maybeMessage, session, headers)
+                    .flatMap(preparedMessage -> Mono.from(messageMapper.addReactive(mailbox, preparedMessage.getLeft()))
+                        .map(metadata -> Pair.of(metadata, preparedMessage.getRight()))));
+        }
+
+        @Override
+        public Mono<Pair<MailboxMessage, Optional<List<MessageAttachmentMetadata>>>> prepareMessage(Mailbox mailbox, Date internalDate, int size, int bodyStartOctet, Content content, Flags flags, PropertyBuilder propertyBuilder, Optional<Message> maybeMessage, MailboxSession session, HeaderImpl headers) {
             MessageId messageId = messageIdFactory.generate();
             Optional<MimeMessageId> mimeMessageId = MimeMessageHeadersUtil.parseMimeMessageId(headers);
             Optional<MimeMessageId> inReplyTo = MimeMessageHeadersUtil.parseInReplyTo(headers);
             Optional<List<MimeMessageId>> references = MimeMessageHeadersUtil.parseReferences(headers);
             Optional<Subject> subject = MimeMessageHeadersUtil.parseSubject(headers);
 
-            return mapperFactory.getMessageMapper(session)
-                .executeReactive(threadIdGuessingAlgorithm.guessThreadIdReactive(messageId, mimeMessageId, inReplyTo, references, subject, session)
-                    .flatMap(Throwing.function((ThreadId threadId) -> {
-                        MailboxMessage message = messageFactory.createMessage(messageId, threadId, mailbox, internalDate, size, bodyStartOctet, content, flags, propertyBuilder, ImmutableList.of());
-                        return Mono.from(messageMapper.addReactive(mailbox, message))
-                            .map(metadata -> Pair.of(metadata, Optional.empty()));
-                    })));
+            return threadIdGuessingAlgorithm.guessThreadIdReactive(messageId, mimeMessageId, inReplyTo, references, subject, session)
+                .map(Throwing.function((ThreadId threadId) -> {
+                    MailboxMessage message = messageFactory.createMessage(messageId, threadId, mailbox, internalDate, size, bodyStartOctet, content, flags, propertyBuilder, ImmutableList.of());
+                    return Pair.<MailboxMessage, Optional<List<MessageAttachmentMetadata>>>of(message, Optional.empty());
+                }).sneakyThrow());
         }
     }
 }
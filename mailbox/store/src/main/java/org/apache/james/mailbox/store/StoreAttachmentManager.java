@@ -36,6 +36,7 @@ import org.apache.james.mailbox.model.AttachmentMetadata;
 import org.apache.james.mailbox.model.MessageId;
 import org.apache.james.mailbox.store.mail.AttachmentMapperFactory;
 
+import com.github.fge.lambdas.Throwing;
 import com.google.common.collect.ImmutableList;
 
 public class StoreAttachmentManager implements AttachmentManager {
@@ -94,4 +95,12 @@ public class StoreAttachmentManager implements AttachmentManager {
         }
         return attachmentMapperFactory.getAttachmentMapper(mailboxSession).loadAttachmentContent(attachmentId);
     }
+
+    @Override
+    public InputStream loadAttachmentContentRange(AttachmentId attachmentId, long offset, long length, MailboxSession mailboxSession) throws AttachmentNotFoundException, IOException {
+        if (!Throwing.supplier(() -> exists(attachmentId, mailboxSession)).sneakyThrow().get()) {
+            throw new AttachmentNotFoundException(attachmentId.getId());
+        }
+        return attachmentMapperFactory.getAttachmentMapper(mailboxSession).loadAttachmentContentRange(attachmentId, offset, length);
+    }
 }
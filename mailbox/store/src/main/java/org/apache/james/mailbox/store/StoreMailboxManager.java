@@ -43,7 +43,6 @@ import org.apache.james.mailbox.MailboxSession;
 import org.apache.james.mailbox.MessageManager;
 import org.apache.james.mailbox.MetadataWithMailboxId;
 import org.apache.james.mailbox.SessionProvider;
-import org.apache.james.mailbox.events.MailboxIdRegistrationKey;
 import org.apache.james.mailbox.exception.InboxAlreadyCreated;
 import org.apache.james.mailbox.exception.InsufficientRightsException;
 import org.apache.james.mailbox.exception.MailboxException;
@@ -132,6 +131,7 @@ public class StoreMailboxManager implements MailboxManager {
     private final PreDeletionHooks preDeletionHooks;
     protected final MailboxManagerConfiguration configuration;
     private final ThreadIdGuessingAlgorithm threadIdGuessingAlgorithm;
+    private final MailboxCountersCache mailboxCountersCache;
 
     @Inject
     public StoreMailboxManager(MailboxSessionMapperFactory mailboxSessionMapperFactory, SessionProvider sessionProvider,
@@ -158,6 +158,7 @@ public class StoreMailboxManager implements MailboxManager {
         this.configuration = configuration;
         this.preDeletionHooks = preDeletionHooks;
         this.threadIdGuessingAlgorithm = threadIdGuessingAlgorithm;
+        this.mailboxCountersCache = new MailboxCountersCache(eventBus, configuration.getCountersCacheConfiguration());
     }
 
     public QuotaComponents getQuotaComponents() {
@@ -174,7 +175,19 @@ public class StoreMailboxManager implements MailboxManager {
 
     @Override
     public EnumSet<MailboxCapabilities> getSupportedMailboxCapabilities() {
-        return EnumSet.noneOf(MailboxCapabilities.class);
+        return withConfiguredCapabilities(EnumSet.noneOf(MailboxCapabilities.class));
+    }
+
+    /**
+     * Adds to the given capabilities the ones depending on the {@link MailboxManagerConfiguration}
+     */
+    protected EnumSet<MailboxCapabilities> withConfiguredCapabilities(EnumSet<MailboxCapabilities> capabilities) {
+        if (!configuration.getRegistrationKeys().isAccountKeysEnabled()) {
+            return capabilities;
+        }
+        EnumSet<MailboxCapabilities> result = EnumSet.copyOf(capabilities);
+        result.add(MailboxCapabilities.AccountWideEvents);
+        return result;
     }
 
     @Override
@@ -270,7 +283,8 @@ public class StoreMailboxManager implements MailboxManager {
         return new StoreMessageManager(DEFAULT_NO_MESSAGE_CAPABILITIES, getMapperFactory(), getMessageSearchIndex(), getEventBus(),
             getLocker(), mailbox, quotaManager,
             getQuotaComponents().getQuotaRootResolver(), configuration.getBatchSizes(),
-            getStoreRightManager(), preDeletionHooks, new MessageStorer.WithoutAttachment(mailboxSessionMapperFactory, messageIdFactory, new MessageFactory.StoreMessageFactory(), threadIdGuessingAlgorithm));
+            getStoreRightManager(), preDeletionHooks, new MessageStorer.WithoutAttachment(mailboxSessionMapperFactory, messageIdFactory, new MessageFactory.StoreMessageFactory(), threadIdGuessingAlgorithm),
+            configuration.getRegistrationKeys());
     }
 
     @Override
@@ -417,7 +431,7 @@ public class StoreMailboxManager implements MailboxManager {
                             .mailboxSession(mailboxSession)
                             .mailbox(mailbox)
                             .build(),
-                        new MailboxIdRegistrationKey(mailbox.getMailboxId()))
+                        configuration.getRegistrationKeys().keys(mailbox))
                         .thenReturn(mailbox.getMailboxId()))
                 .onErrorResume(MailboxExistsException.class, e -> {
                     LOGGER.info("{} mailbox was created concurrently", mailboxPath.asString());
@@ -512,7 +526,7 @@ public class StoreMailboxManager implements MailboxManager {
                             .quotaCount(QuotaCountUsage.count(quotaRootWithMessageCount.getT2()))
                             .quotaSize(QuotaSizeUsage.size(totalSize))
                             .build(),
-                        new MailboxIdRegistrationKey(mailbox.getMailboxId())));
+                        configuration.getRegistrationKeys().keys(mailbox)));
             })
             .retryWhen(RETRY_BACKOFF_SPEC)
             // We need to create a copy of the mailbox as maybe we can not refer to the real
@@ -658,7 +672,7 @@ public class StoreMailboxManager implements MailboxManager {
                         .oldPath(result.getOriginPath())
                         .newPath(result.getDestinationPath())
                         .build(),
-                    new MailboxIdRegistrationKey(result.getMailboxId())))
+                    configuration.getRegistrationKeys().keys(result.getMailboxId(), result.getOriginPath().getUser())))
                 .then()))
             .then(Mono.fromCallable(resultBuilder::build));
     }
@@ -676,23 +690,20 @@ public class StoreMailboxManager implements MailboxManager {
     @Override
     public Flux<MessageRange> copyMessagesReactive(MessageRange set, MailboxPath from, MailboxPath to, MailboxSession session) {
         return Mono.zip(Mono.from(getMailboxReactive(from, session)), Mono.from(getMailboxReactive(to, session)))
-            .flatMapMany(fromTo -> configuration.getMoveBatcher().batchMessagesReactive(set, messageRange -> {
-                StoreMessageManager fromMessageManager = (StoreMessageManager) fromTo.getT1();
-                StoreMessageManager toMessageManager = (StoreMessageManager) fromTo.getT2();
-
-                return fromMessageManager.copyTo(messageRange, toMessageManager, session).flatMapIterable(Function.identity());
-            }));
+            .flatMapMany(fromTo -> copyMessagesReactive(set, (StoreMessageManager) fromTo.getT1(), (StoreMessageManager) fromTo.getT2(), session));
     }
 
     @Override
     public Flux<MessageRange> copyMessagesReactive(MessageRange set, MailboxId from, MailboxId to, MailboxSession session) {
         return Mono.zip(Mono.from(getMailboxReactive(from, session)), Mono.from(getMailboxReactive(to, session)))
-            .flatMapMany(fromTo -> configuration.getMoveBatcher().batchMessagesReactive(set, messageRange -> {
-                StoreMessageManager fromMessageManager = (StoreMessageManager) fromTo.getT1();
-                StoreMessageManager toMessageManager = (StoreMessageManager) fromTo.getT2();
+            .flatMapMany(fromTo -> copyMessagesReactive(set, (StoreMessageManager) fromTo.getT1(), (StoreMessageManager) fromTo.getT2(), session));
+    }
 
-                return fromMessageManager.copyTo(messageRange, toMessageManager, session).flatMapIterable(Function.identity());
-            }));
+    private Flux<MessageRange> copyMessagesReactive(MessageRange set, StoreMessageManager fromMessageManager, StoreMessageManager toMessageManager, MailboxSession session) {
+        // Quota is read once and evaluated in memory across batches
+        return toMessageManager.quotaEvaluationContext()
+            .flatMapMany(quotaEvaluationContext -> configuration.getCopyBatcher().batchMessagesReactive(set, messageRange ->
+                fromMessageManager.copyTo(messageRange, toMessageManager, quotaEvaluationContext, session).flatMapIterable(Function.identity())));
     }
 
     @Override
@@ -708,23 +719,19 @@ public class StoreMailboxManager implements MailboxManager {
     @Override
     public Flux<MessageRange> moveMessagesReactive(MessageRange set, MailboxPath from, MailboxPath to, MailboxSession session) {
         return Mono.zip(Mono.from(getMailboxReactive(from, session)), Mono.from(getMailboxReactive(to, session)))
-            .flatMapMany(fromTo -> configuration.getMoveBatcher().batchMessagesReactive(set, messageRange -> {
-                StoreMessageManager fromMessageManager = (StoreMessageManager) fromTo.getT1();
-                StoreMessageManager toMessageManager = (StoreMessageManager) fromTo.getT2();
-
-                return fromMessageManager.moveTo(messageRange, toMessageManager, session).flatMapIterable(Function.identity());
-            }));
+            .flatMapMany(fromTo -> moveMessagesReactive(set, (StoreMessageManager) fromTo.getT1(), (StoreMessageManager) fromTo.getT2(), session));
     }
 
     @Override
     public Flux<MessageRange> moveMessagesReactive(MessageRange set, MailboxId from, MailboxId to, MailboxSession session) {
         return Mono.zip(Mono.from(getMailboxReactive(from, session)), Mono.from(getMailboxReactive(to, session)))
-            .flatMapMany(fromTo -> configuration.getMoveBatcher().batchMessagesReactive(set, messageRange -> {
-                StoreMessageManager fromMessageManager = (StoreMessageManager) fromTo.getT1();
-                StoreMessageManager toMessageManager = (StoreMessageManager) fromTo.getT2();
+            .flatMapMany(fromTo -> moveMessagesReactive(set, (StoreMessageManager) fromTo.getT1(), (StoreMessageManager) fromTo.getT2(), session));
+    }
 
-                return fromMessageManager.moveTo(messageRange, toMessageManager, session).flatMapIterable(Function.identity());
-            }));
+    private Flux<MessageRange> moveMessagesReactive(MessageRange set, StoreMessageManager fromMessageManager, StoreMessageManager toMessageManager, MailboxSession session) {
+        return fromMessageManager.quotaEvaluationContextForMoveTo(toMessageManager)
+            .flatMapMany(quotaEvaluationContext -> configuration.getMoveBatcher().batchMessagesReactive(set, messageRange ->
+                fromMessageManager.moveTo(messageRange, toMessageManager, quotaEvaluationContext, session).flatMapIterable(Function.identity())));
     }
 
     @Override
@@ -749,13 +756,21 @@ public class StoreMailboxManager implements MailboxManager {
     private Function<Flux<Mailbox>, Flux<MailboxMetaData>> withCounters(MailboxSession session, List<Mailbox> mailboxes) {
         MessageMapper messageMapper = mailboxSessionMapperFactory.getMessageMapper(session);
         Map<MailboxPath, Boolean> parentMap = parentMap(mailboxes, session);
-        int concurrency = 4;
         return mailboxFlux -> mailboxFlux
-            .flatMap(mailbox -> retrieveCounters(messageMapper, mailbox, session)
-                .map(Throwing.<MailboxCounters, MailboxMetaData>function(
-                    counters -> toMailboxMetadata(session, parentMap, mailbox, counters))
-                    .sneakyThrow()),
-                concurrency);
+            .collectList()
+            .flatMapMany(matchingMailboxes -> retrieveCounters(messageMapper, matchingMailboxes, session)
+                .flatMapIterable(Throwing.<Map<MailboxId, MailboxCounters>, List<MailboxMetaData>>function(
+                    counters -> toMailboxMetadata(session, parentMap, matchingMailboxes, counters))
+                    .sneakyThrow()));
+    }
+
+    private List<MailboxMetaData> toMailboxMetadata(MailboxSession session, Map<MailboxPath, Boolean> parentMap, List<Mailbox> mailboxes, Map<MailboxId, MailboxCounters> counters) throws UnsupportedRightException {
+        ImmutableList.Builder<MailboxMetaData> result = ImmutableList.builder();
+        for (Mailbox mailbox : mailboxes) {
+            result.add(toMailboxMetadata(session, parentMap, mailbox,
+                counters.getOrDefault(mailbox.getMailboxId(), MailboxCounters.empty(mailbox.getMailboxId()))));
+        }
+        return result.build();
     }
 
     private Map<MailboxPath, Boolean> parentMap(List<Mailbox> mailboxes, MailboxSession session) {
@@ -777,10 +792,13 @@ public class StoreMailboxManager implements MailboxManager {
                     .sneakyThrow());
     }
 
-    private Mono<MailboxCounters> retrieveCounters(MessageMapper messageMapper, Mailbox mailbox, MailboxSession session) {
-        return messageMapper.getMailboxCountersReactive(mailbox)
-            .filter(Throwing.<MailboxCounters>predicate(counter -> storeRightManager.hasRight(mailbox, Right.Read, session)).sneakyThrow())
-            .switchIfEmpty(Mono.just(MailboxCounters.empty(mailbox.getMailboxId())));
+    private Mono<Map<MailboxId, MailboxCounters>> retrieveCounters(MessageMapper messageMapper, List<Mailbox> mailboxes, MailboxSession session) {
+        List<Mailbox> readableMailboxes = mailboxes.stream()
+            .filter(Throwing.<Mailbox>predicate(mailbox -> storeRightManager.hasRight(mailbox, Right.Read, session)).sneakyThrow())
+            .collect(ImmutableList.toImmutableList());
+
+        return mailboxCountersCache.retrieve(readableMailboxes, messageMapper)
+            .collectMap(MailboxCounters::getMailboxId);
     }
 
     private Flux<Mailbox> searchMailboxes(MailboxQuery mailboxQuery, MailboxSession session, Right right) {
@@ -21,6 +21,7 @@ package org.apache.james.mailbox.store;
 
 import static org.apache.james.util.ReactorUtils.DEFAULT_CONCURRENCY;
 
+import java.io.InputStream;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -62,6 +63,7 @@ import org.apache.james.mailbox.model.UpdatedFlags;
 import org.apache.james.mailbox.quota.QuotaManager;
 import org.apache.james.mailbox.quota.QuotaRootResolver;
 import org.apache.james.mailbox.store.event.EventFactory;
+import org.apache.james.mailbox.store.event.MailboxRegistrationKeys;
 import org.apache.james.mailbox.store.mail.FetchGroupConverter;
 import org.apache.james.mailbox.store.mail.MailboxMapper;
 import org.apache.james.mailbox.store.mail.MessageIdMapper;
@@ -103,17 +105,26 @@ public class StoreMessageIdManager implements MessageIdManager {
     private final QuotaManager quotaManager;
     private final QuotaRootResolver quotaRootResolver;
     private final PreDeletionHooks preDeletionHooks;
+    private final MailboxRegistrationKeys registrationKeys;
 
-    @Inject
     public StoreMessageIdManager(RightManager rightManager, MailboxSessionMapperFactory mailboxSessionMapperFactory,
                                  EventBus eventBus, QuotaManager quotaManager, QuotaRootResolver quotaRootResolver,
                                  PreDeletionHooks preDeletionHooks) {
+        this(rightManager, mailboxSessionMapperFactory, eventBus, quotaManager, quotaRootResolver, preDeletionHooks,
+            MailboxManagerConfiguration.DEFAULT);
+    }
+
+    @Inject
+    public StoreMessageIdManager(RightManager rightManager, MailboxSessionMapperFactory mailboxSessionMapperFactory,
+                                 EventBus eventBus, QuotaManager quotaManager, QuotaRootResolver quotaRootResolver,
+                                 PreDeletionHooks preDeletionHooks, MailboxManagerConfiguration configuration) {
         this.rightManager = rightManager;
         this.mailboxSessionMapperFactory = mailboxSessionMapperFactory;
         this.eventBus = eventBus;
         this.quotaManager = quotaManager;
         this.quotaRootResolver = quotaRootResolver;
         this.preDeletionHooks = preDeletionHooks;
+        this.registrationKeys = configuration.getRegistrationKeys();
     }
 
     @Override
@@ -179,6 +190,15 @@ public class StoreMessageIdManager implements MessageIdManager {
             .map(Throwing.function(messageResultConverter(fetchGroup)).sneakyThrow());
     }
 
+    @Override
+    public Publisher<InputStream> loadFullContentRange(MessageId messageId, long offset, long length, MailboxSession mailboxSession) {
+        MessageIdMapper messageIdMapper = mailboxSessionMapperFactory.getMessageIdMapper(mailboxSession);
+
+        return Flux.from(messagesMetadata(ImmutableList.of(messageId), mailboxSession))
+            .next()
+            .flatMap(accessible -> messageIdMapper.loadFullContentRange(messageId, offset, length));
+    }
+
     @Override
     public Publisher<ComposedMessageIdWithMetaData> messagesMetadata(Collection<MessageId> ids, MailboxSession session) {
         MessageIdMapper messageIdMapper = mailboxSessionMapperFactory.getMessageIdMapper(session);
@@ -288,7 +308,7 @@ public class StoreMessageIdManager implements MessageIdManager {
                                 .mailbox(mailbox)
                                 .addMetaData(metadataWithMailboxId.getMessageMetaData())
                                 .build(),
-                            new MailboxIdRegistrationKey(metadataWithMailboxId.getMailboxId()))), DEFAULT_CONCURRENCY)
+                            registrationKeys.keys(mailbox))), DEFAULT_CONCURRENCY)
                     .then());
     }
 
@@ -396,7 +416,7 @@ public class StoreMessageIdManager implements MessageIdManager {
                         .mailbox(message.getRight())
                         .addMetaData(message.getLeft().metaData())
                         .build(),
-                    new MailboxIdRegistrationKey(message.getRight().getMailboxId())), DEFAULT_CONCURRENCY)
+                    registrationKeys.keys(message.getRight())), DEFAULT_CONCURRENCY)
                 .then());
     }
     
@@ -414,7 +434,7 @@ public class StoreMessageIdManager implements MessageIdManager {
                             .mailbox(mailbox)
                             .updatedFlags(updatedFlags)
                             .build(),
-                        new MailboxIdRegistrationKey(mailboxId)));
+                        registrationKeys.keys(mailbox)));
         }
         return Mono.empty();
     }
@@ -484,7 +504,7 @@ public class StoreMessageIdManager implements MessageIdManager {
                             .mailbox(mailbox)
                             .addMetaData(metadata)
                             .build(),
-                        new MailboxIdRegistrationKey(mailbox.getMailboxId())));
+                        registrationKeys.keys(mailbox)));
             }).sneakyThrow())
             .then();
     }
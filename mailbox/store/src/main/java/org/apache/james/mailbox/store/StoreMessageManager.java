@@ -39,6 +39,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Function;
 
 import javax.mail.Flags;
@@ -60,6 +61,7 @@ import org.apache.james.mailbox.MetadataWithMailboxId;
 import org.apache.james.mailbox.ModSeq;
 import org.apache.james.mailbox.events.MailboxIdRegistrationKey;
 import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.exception.OverQuotaException;
 import org.apache.james.mailbox.exception.ReadOnlyException;
 import org.apache.james.mailbox.exception.UnsupportedRightException;
 import org.apache.james.mailbox.model.ComposedMessageId;
@@ -85,12 +87,14 @@ import org.apache.james.mailbox.model.UpdatedFlags;
 import org.apache.james.mailbox.quota.QuotaManager;
 import org.apache.james.mailbox.quota.QuotaRootResolver;
 import org.apache.james.mailbox.store.event.EventFactory;
+import org.apache.james.mailbox.store.event.MailboxRegistrationKeys;
 import org.apache.james.mailbox.store.mail.FetchGroupConverter;
 import org.apache.james.mailbox.store.mail.MessageMapper;
 import org.apache.james.mailbox.store.mail.MessageMapper.FetchType;
 import org.apache.james.mailbox.store.mail.model.MailboxMessage;
 import org.apache.james.mailbox.store.mail.model.impl.PropertyBuilder;
 import org.apache.james.mailbox.store.quota.QuotaChecker;
+import org.apache.james.mailbox.store.quota.QuotaEvaluationContext;
 import org.apache.james.mailbox.store.search.MessageSearchIndex;
 import org.apache.james.mailbox.store.streaming.CountingInputStream;
 import org.apache.james.mime4j.MimeException;
@@ -149,6 +153,30 @@ public class StoreMessageManager implements MessageManager {
         }
     }
 
+    private static class ParsedMessage {
+        final Date internalDate;
+        final Content content;
+        final PropertyBuilder propertyBuilder;
+        final HeaderImpl headers;
+        final int bodyStartOctet;
+        final Flags flags;
+        final Optional<Message> maybeMessage;
+
+        private ParsedMessage(Date internalDate, Content content, PropertyBuilder propertyBuilder, HeaderImpl headers, int bodyStartOctet, Flags flags, Optional<Message> maybeMessage) {
+            this.internalDate = internalDate;
+            this.content = content;
+            this.propertyBuilder = propertyBuilder;
+            this.headers = headers;
+            this.bodyStartOctet = bodyStartOctet;
+            this.flags = flags;
+            this.maybeMessage = maybeMessage;
+        }
+
+        int size() throws MailboxException {
+            return (int) content.size();
+        }
+    }
+
     static {
         MINIMAL_PERMANET_FLAGS = new Flags();
         MINIMAL_PERMANET_FLAGS.add(Flags.Flag.ANSWERED);
@@ -170,12 +198,14 @@ public class StoreMessageManager implements MessageManager {
     private final BatchSizes batchSizes;
     private final PreDeletionHooks preDeletionHooks;
     private final MessageStorer messageStorer;
+    private final MailboxRegistrationKeys registrationKeys;
 
     public StoreMessageManager(EnumSet<MessageCapabilities> messageCapabilities, MailboxSessionMapperFactory mapperFactory,
                                MessageSearchIndex index, EventBus eventBus,
                                MailboxPathLocker locker, Mailbox mailbox,
                                QuotaManager quotaManager, QuotaRootResolver quotaRootResolver, BatchSizes batchSizes,
-                               StoreRightManager storeRightManager, PreDeletionHooks preDeletionHooks, MessageStorer messageStorer) {
+                               StoreRightManager storeRightManager, PreDeletionHooks preDeletionHooks, MessageStorer messageStorer,
+                               MailboxRegistrationKeys registrationKeys) {
         this.messageCapabilities = messageCapabilities;
         this.eventBus = eventBus;
         this.mailbox = mailbox;
@@ -188,6 +218,7 @@ public class StoreMessageManager implements MessageManager {
         this.storeRightManager = storeRightManager;
         this.preDeletionHooks = preDeletionHooks;
         this.messageStorer = messageStorer;
+        this.registrationKeys = registrationKeys;
     }
 
     /**
@@ -314,7 +345,7 @@ public class StoreMessageManager implements MessageManager {
                 .mailbox(getMailboxEntity())
                 .metaData(ImmutableSortedMap.copyOf(deletedMessages))
                 .build(),
-            new MailboxIdRegistrationKey(mailbox.getMailboxId()));
+            registrationKeys.keys(mailbox));
     }
 
     @Override
@@ -339,6 +370,28 @@ public class StoreMessageManager implements MessageManager {
             appendCommand.getMaybeParsedMessage());
     }
 
+    /**
+     * Messages are parsed and their attachments stored concurrently. They are then added through
+     * {@link MessageMapper#addReactive(Mailbox, List)}, so that their uids follow the order of the commands. Quota is
+     * checked once for the whole batch, and a single {@link org.apache.james.mailbox.events.MailboxEvents.Added} event
+     * is dispatched once all messages are stored.
+     *
+     * Should one of the messages fail to be stored, the ones already stored are deleted.
+     */
+    @Override
+    public Publisher<List<AppendResult>> appendMessagesReactive(List<AppendCommand> appendCommands, MailboxSession session) {
+        return Flux.fromIterable(appendCommands)
+            .flatMapSequential(appendCommand -> parseMessage(
+                appendCommand.getMsgIn(),
+                appendCommand.getInternalDate(),
+                session,
+                appendCommand.isRecent(),
+                appendCommand.getFlags(),
+                appendCommand.getMaybeParsedMessage()), DEFAULT_CONCURRENCY)
+            .collectList()
+            .flatMap(Throwing.<List<ParsedMessage>, Mono<List<AppendResult>>>function(messages -> createAndDispatchMessages(messages, session)).sneakyThrow());
+    }
+
     @Override
     public AppendResult appendMessage(InputStream msgIn, Date internalDate, final MailboxSession mailboxSession, boolean isRecent, Flags flagsToBeSet) throws MailboxException {
         File file = null;
@@ -365,8 +418,8 @@ public class StoreMessageManager implements MessageManager {
                 int bodyStartOctet = getBodyStartOctet(bIn);
                 File finalFile = file;
                 Optional<Message> unparsedMimeMessqage = Optional.empty();
-                return MailboxReactorUtils.block(createAndDispatchMessage(computeInternalDate(internalDate),
-                    mailboxSession, new Content() {
+                return MailboxReactorUtils.block(createAndDispatchMessage(new ParsedMessage(computeInternalDate(internalDate),
+                    new Content() {
                         @Override
                         public InputStream getInputStream() throws IOException {
                             return new FileInputStream(finalFile);
@@ -376,8 +429,8 @@ public class StoreMessageManager implements MessageManager {
                         public long size() {
                             return finalFile.length();
                         }
-                    }, propertyBuilder,
-                    getFlags(mailboxSession, isRecent, flagsToBeSet), bodyStartOctet, unparsedMimeMessqage, headers));
+                    }, propertyBuilder, headers, bodyStartOctet,
+                    getFlags(mailboxSession, isRecent, flagsToBeSet), unparsedMimeMessqage), mailboxSession));
             }
         } catch (IOException | MimeException e) {
             throw new MailboxException("Unable to parse message", e);
@@ -394,6 +447,11 @@ public class StoreMessageManager implements MessageManager {
     }
 
     private Mono<AppendResult> appendMessage(Content msgIn, Date internalDate, final MailboxSession mailboxSession, boolean isRecent, Flags flagsToBeSet, Optional<Message> maybeMessage) {
+        return parseMessage(msgIn, internalDate, mailboxSession, isRecent, flagsToBeSet, maybeMessage)
+            .flatMap(Throwing.<ParsedMessage, Mono<AppendResult>>function(message -> createAndDispatchMessage(message, mailboxSession)).sneakyThrow());
+    }
+
+    private Mono<ParsedMessage> parseMessage(Content msgIn, Date internalDate, final MailboxSession mailboxSession, boolean isRecent, Flags flagsToBeSet, Optional<Message> maybeMessage) {
         return Mono.fromCallable(() -> {
             if (!isWriteable(mailboxSession)) {
                 throw new ReadOnlyException(getMailboxPath());
@@ -407,14 +465,12 @@ public class StoreMessageManager implements MessageManager {
                 HeaderImpl headers = pair.getRight();
                 int bodyStartOctet = getBodyStartOctet(bIn);
 
-                return createAndDispatchMessage(computeInternalDate(internalDate),
-                    mailboxSession, msgIn, propertyBuilder,
-                    getFlags(mailboxSession, isRecent, flagsToBeSet), bodyStartOctet, maybeMessage, headers);
+                return new ParsedMessage(computeInternalDate(internalDate), msgIn, propertyBuilder, headers, bodyStartOctet,
+                    getFlags(mailboxSession, isRecent, flagsToBeSet), maybeMessage);
             } catch (IOException | MimeException e) {
                 throw new MailboxException("Unable to parse message", e);
             }
-        }).flatMap(Function.identity())
-            .subscribeOn(Schedulers.boundedElastic());
+        }).subscribeOn(Schedulers.boundedElastic());
     }
 
     private Pair<PropertyBuilder, HeaderImpl> parseProperties(BodyOffsetInputStream bIn) throws IOException, MimeException {
@@ -511,25 +567,107 @@ public class StoreMessageManager implements MessageManager {
         return bodyStartOctet;
     }
 
-    private Mono<AppendResult> createAndDispatchMessage(Date internalDate, MailboxSession mailboxSession, Content content, PropertyBuilder propertyBuilder, Flags flags, int bodyStartOctet, Optional<Message> maybeMessage, HeaderImpl headers) throws MailboxException {
-        int size = (int) content.size();
+    private Mono<AppendResult> createAndDispatchMessage(ParsedMessage message, MailboxSession mailboxSession) throws MailboxException {
+        int size = message.size();
         QuotaRoot quotaRoot = quotaRootResolver.getQuotaRoot(mailbox);
         return Mono.from(quotaManager.getQuotasReactive(quotaRoot))
             .map(quotas -> new QuotaChecker(quotas, quotaRoot))
             .doOnNext(Throwing.consumer((QuotaChecker quotaChecker) -> quotaChecker.tryAddition(1, size)).sneakyThrow())
             .then(Mono.from(locker.executeReactiveWithLockReactive(getMailboxPath(),
-                messageStorer.appendMessageToStore(mailbox, internalDate, size, bodyStartOctet, content, flags, propertyBuilder, maybeMessage, mailboxSession, headers)
+                storeMessage(message, mailboxSession)
                     .flatMap(data -> eventBus.dispatch(EventFactory.added()
                             .randomEventId()
                             .mailboxSession(mailboxSession)
                             .mailbox(mailbox)
                             .addMetaData(data.getLeft())
                             .build(),
-                        new MailboxIdRegistrationKey(mailbox.getMailboxId()))
+                        registrationKeys.keys(mailbox))
                         .thenReturn(computeAppendResult(data, mailbox))),
                 MailboxPathLocker.LockType.Write)));
     }
 
+    private Mono<List<AppendResult>> createAndDispatchMessages(List<ParsedMessage> messages, MailboxSession mailboxSession) throws MailboxException {
+        long size = 0;
+        for (ParsedMessage message : messages) {
+            size += message.size();
+        }
+        long totalSize = size;
+        QuotaRoot quotaRoot = quotaRootResolver.getQuotaRoot(mailbox);
+        return Mono.from(quotaManager.getQuotasReactive(quotaRoot))
+            .map(quotas -> new QuotaChecker(quotas, quotaRoot))
+            .doOnNext(Throwing.consumer((QuotaChecker quotaChecker) -> quotaChecker.tryAddition(messages.size(), totalSize)).sneakyThrow())
+            .then(Flux.fromIterable(messages)
+                .flatMapSequential(message -> prepareMessage(message, mailboxSession), DEFAULT_CONCURRENCY)
+                .collectList())
+            .flatMap(preparedMessages -> Mono.from(locker.executeReactiveWithLockReactive(getMailboxPath(),
+                addMessages(preparedMessages, mailboxSession)
+                    .flatMap(data -> eventBus.dispatch(EventFactory.added()
+                            .randomEventId()
+                            .mailboxSession(mailboxSession)
+                            .mailbox(mailbox)
+                            .addMetaData(data.stream()
+                                .map(Pair::getLeft)
+                                .collect(ImmutableList.toImmutableList()))
+                            .build(),
+                        registrationKeys.keys(mailbox))
+                        .thenReturn(data.stream()
+                            .map(messageData -> computeAppendResult(messageData, mailbox))
+                            .collect(ImmutableList.toImmutableList()))),
+                MailboxPathLocker.LockType.Write)));
+    }
+
+    private Mono<Pair<MessageMetaData, Optional<List<MessageAttachmentMetadata>>>> storeMessage(ParsedMessage message, MailboxSession mailboxSession) {
+        return Mono.defer(Throwing.supplier(() -> messageStorer.appendMessageToStore(mailbox, message.internalDate, message.size(), message.bodyStartOctet,
+            message.content, message.flags, message.propertyBuilder, message.maybeMessage, mailboxSession, message.headers)).sneakyThrow());
+    }
+
+    private Mono<Pair<MailboxMessage, Optional<List<MessageAttachmentMetadata>>>> prepareMessage(ParsedMessage message, MailboxSession mailboxSession) {
+        return Mono.defer(Throwing.supplier(() -> messageStorer.prepareMessage(mailbox, message.internalDate, message.size(), message.bodyStartOctet,
+            message.content, message.flags, message.propertyBuilder, message.maybeMessage, mailboxSession, message.headers)).sneakyThrow());
+    }
+
+    /**
+     * Adds the prepared messages at once so that their uids follow the order of the command, then reverts the ones
+     * that were added should any of them fail.
+     */
+    private Mono<List<Pair<MessageMetaData, Optional<List<MessageAttachmentMetadata>>>>> addMessages(List<Pair<MailboxMessage, Optional<List<MessageAttachmentMetadata>>>> preparedMessages,
+                                                                                                   MailboxSession mailboxSession) {
+        MessageMapper messageMapper = mapperFactory.getMessageMapper(mailboxSession);
+        Map<MessageId, Optional<List<MessageAttachmentMetadata>>> attachments = preparedMessages.stream()
+            .collect(ImmutableMap.toImmutableMap(preparedMessage -> preparedMessage.getLeft().getMessageId(), Pair::getRight));
+        List<MailboxMessage> mailboxMessages = preparedMessages.stream()
+            .map(Pair::getLeft)
+            .collect(ImmutableList.toImmutableList());
+        ConcurrentLinkedQueue<MessageMetaData> stored = new ConcurrentLinkedQueue<>();
+
+        return messageMapper.addReactive(mailbox, mailboxMessages)
+            .doOnNext(stored::add)
+            .map(metadata -> Pair.of(metadata, attachments.get(metadata.getMessageId())))
+            .collectList()
+            .onErrorResume(e -> deleteStoredMessages(ImmutableList.copyOf(stored), mailboxSession)
+                .then(Mono.error(e)));
+    }
+
+    /**
+     * Reverts a partially stored batch. As no event was dispatched for these messages, neither pre-deletion hooks
+     * nor expunged events are triggered, hence quota and mailbox listeners never account for them.
+     *
+     * Only the mailbox entries are deleted: the message content, its blobs and its attachments are left to the blob
+     * store garbage collection, just like the content of deduplicated messages.
+     */
+    private Mono<Void> deleteStoredMessages(List<MessageMetaData> storedMessages, MailboxSession mailboxSession) {
+        if (storedMessages.isEmpty()) {
+            return Mono.empty();
+        }
+        MessageMapper messageMapper = mapperFactory.getMessageMapper(mailboxSession);
+        List<MessageUid> uids = storedMessages.stream()
+            .map(MessageMetaData::getUid)
+            .collect(ImmutableList.toImmutableList());
+
+        return messageMapper.executeReactive(messageMapper.deleteMessagesReactive(mailbox, uids))
+            .then();
+    }
+
     private AppendResult computeAppendResult(Pair<MessageMetaData, Optional<List<MessageAttachmentMetadata>>> data, Mailbox mailbox) {
         MessageMetaData messageMetaData = data.getLeft();
         ComposedMessageId ids = new ComposedMessageId(mailbox.getMailboxId(), messageMetaData.getMessageId(), messageMetaData.getUid());
@@ -705,7 +843,7 @@ public class StoreMessageManager implements MessageManager {
                 .mailbox(getMailboxEntity())
                 .updatedFlags(updatedFlags)
                 .build(),
-                new MailboxIdRegistrationKey(mailbox.getMailboxId()))
+                registrationKeys.keys(mailbox))
             .block();
 
         return updatedFlags.stream().collect(ImmutableMap.toImmutableMap(
@@ -730,7 +868,7 @@ public class StoreMessageManager implements MessageManager {
                     .mailbox(getMailboxEntity())
                     .updatedFlags(updatedFlags)
                     .build(),
-                new MailboxIdRegistrationKey(mailbox.getMailboxId()))
+                registrationKeys.keys(mailbox))
                 .thenReturn(updatedFlags.stream().collect(ImmutableMap.toImmutableMap(
                     UpdatedFlags::getUid,
                     UpdatedFlags::getNewFlags))));
@@ -740,12 +878,21 @@ public class StoreMessageManager implements MessageManager {
      * Copy the {@link MessageRange} to the {@link StoreMessageManager}
      */
     public Mono<List<MessageRange>> copyTo(MessageRange set, StoreMessageManager toMailbox, MailboxSession session) {
+        return toMailbox.quotaEvaluationContext()
+            .flatMap(quotaEvaluationContext -> copyTo(set, toMailbox, quotaEvaluationContext, session));
+    }
+
+    /**
+     * Copy the {@link MessageRange} to the {@link StoreMessageManager}, evaluating quota against a
+     * {@link QuotaEvaluationContext} shared by all the batches of the copy.
+     */
+    public Mono<List<MessageRange>> copyTo(MessageRange set, StoreMessageManager toMailbox, QuotaEvaluationContext quotaEvaluationContext, MailboxSession session) {
         if (!toMailbox.isWriteable(session)) {
             return Mono.error(new ReadOnlyException(toMailbox.getMailboxPath()));
         }
         //TODO lock the from mailbox too, in a non-deadlocking manner - how?
         return Mono.from(locker.executeReactiveWithLockReactive(toMailbox.getMailboxPath(),
-            copy(set, toMailbox, session)
+            copy(set, toMailbox, quotaEvaluationContext, session)
                 .map(map -> MessageRange.toRanges(new ArrayList<>(map.keySet()))),
             MailboxPathLocker.LockType.Write));
     }
@@ -754,6 +901,16 @@ public class StoreMessageManager implements MessageManager {
      * Move the {@link MessageRange} to the {@link StoreMessageManager}
      */
     public Mono<List<MessageRange>> moveTo(MessageRange set, StoreMessageManager toMailbox, MailboxSession session) {
+        return quotaEvaluationContextForMoveTo(toMailbox)
+            .flatMap(quotaEvaluationContext -> moveTo(set, toMailbox, quotaEvaluationContext, session));
+    }
+
+    /**
+     * Move the {@link MessageRange} to the {@link StoreMessageManager}, evaluating quota against a
+     * {@link QuotaEvaluationContext} shared by all the batches of the move. No context is needed when both mailboxes
+     * belong to the same quota root.
+     */
+    public Mono<List<MessageRange>> moveTo(MessageRange set, StoreMessageManager toMailbox, Optional<QuotaEvaluationContext> quotaEvaluationContext, MailboxSession session) {
         if (!isWriteable(session)) {
             return Mono.error(new ReadOnlyException(toMailbox.getMailboxPath()));
         }
@@ -762,11 +919,35 @@ public class StoreMessageManager implements MessageManager {
         }
         //TODO lock the from mailbox too, in a non-deadlocking manner - how?
         return Mono.from(locker.executeReactiveWithLockReactive(toMailbox.getMailboxPath(),
-            move(set, toMailbox, session)
+            move(set, toMailbox, quotaEvaluationContext, session)
                 .map(map -> MessageRange.toRanges(new ArrayList<>(map.keySet()))),
             MailboxPathLocker.LockType.Write));
     }
 
+    /**
+     * Loads usage and limits of the quota root of this mailbox, for evaluating additions to it.
+     */
+    public Mono<QuotaEvaluationContext> quotaEvaluationContext() {
+        return Mono.from(quotaRootResolver.getQuotaRootReactive(getMailboxEntity()))
+            .flatMap(quotaRoot -> QuotaEvaluationContext.load(quotaManager, quotaRoot));
+    }
+
+    /**
+     * Quota evaluation for moving messages from this mailbox to the given mailbox, which is only needed when the
+     * messages change quota root.
+     */
+    public Mono<Optional<QuotaEvaluationContext>> quotaEvaluationContextForMoveTo(StoreMessageManager toMailbox) {
+        return Mono.zip(Mono.from(quotaRootResolver.getQuotaRootReactive(getMailboxEntity())),
+                Mono.from(quotaRootResolver.getQuotaRootReactive(toMailbox.getMailboxEntity())))
+            .flatMap(quotaRoots -> {
+                if (quotaRoots.getT1().equals(quotaRoots.getT2())) {
+                    return Mono.just(Optional.<QuotaEvaluationContext>empty());
+                }
+                return QuotaEvaluationContext.load(quotaManager, quotaRoots.getT2())
+                    .map(Optional::of);
+            });
+    }
+
     @Override
     public long getMessageCount(MailboxSession mailboxSession) throws MailboxException {
         return mapperFactory.getMessageMapper(mailboxSession).countMessagesInMailbox(getMailboxEntity());
@@ -791,6 +972,12 @@ public class StoreMessageManager implements MessageManager {
         return messageMapper.listMessagesMetadata(mailbox, set);
     }
 
+    @Override
+    public Publisher<MessageMetaData> listMessagesMetadataWithSize(MessageRange set, MailboxSession session) {
+        MessageMapper messageMapper = mapperFactory.getMessageMapper(session);
+        return messageMapper.listMessagesMetadataWithSize(mailbox, set);
+    }
+
     /**
      * Return a List which holds all uids of recent messages and optional reset
      * the recent flag on the messages for the uids
@@ -830,7 +1017,7 @@ public class StoreMessageManager implements MessageManager {
                     .mailbox(getMailboxEntity())
                     .updatedFlags(updatedFlags)
                     .build(),
-                new MailboxIdRegistrationKey(mailbox.getMailboxId()));
+                registrationKeys.keys(mailbox));
         }
         return Mono.empty();
     }
@@ -855,39 +1042,51 @@ public class StoreMessageManager implements MessageManager {
         return index.search(mailboxSession, getMailboxEntity(), query);
     }
 
-    private Flux<MessageMetaData> copy(List<MailboxMessage> originalRows, MailboxSession session) {
+    private Flux<MessageMetaData> copy(List<MailboxMessage> originalRows, QuotaEvaluationContext quotaEvaluationContext, MailboxSession session) {
         MessageMapper messageMapper = mapperFactory.getMessageMapper(session);
 
-        try {
-            QuotaRoot quotaRoot = quotaRootResolver.getQuotaRoot(getMailboxPath());
-            return Mono.from(quotaManager.getQuotasReactive(quotaRoot))
-                .doOnNext(Throwing.<QuotaManager.Quotas>consumer(quotas -> new QuotaChecker(quotas, quotaRoot)
-                    .tryAddition(originalRows.size(), originalRows.stream()
-                        .mapToLong(MailboxMessage::getFullContentOctets)
-                        .sum())).sneakyThrow())
-                .thenMany(messageMapper.executeReactive(
-                    messageMapper.copyReactive(getMailboxEntity(), originalRows))
-                    .flatMapIterable(Function.identity()));
-        } catch (MailboxException e) {
-            return Flux.error(e);
-        }
+        return Mono.fromRunnable(Throwing.runnable(() -> reserveQuota(quotaEvaluationContext, originalRows)).sneakyThrow())
+            .thenMany(messageMapper.executeReactive(
+                messageMapper.copyReactive(getMailboxEntity(), originalRows))
+                .doOnError(e -> releaseQuota(quotaEvaluationContext, originalRows))
+                .flatMapIterable(Function.identity()));
     }
 
-    private Mono<MoveResult> move(List<MailboxMessage> originalRows, MailboxSession session) {
+    private Mono<MoveResult> move(List<MailboxMessage> originalRows, Optional<QuotaEvaluationContext> quotaEvaluationContext, MailboxSession session) {
         List<MessageMetaData> originalRowsCopy = originalRows.stream()
             .map(MailboxMessage::metaData)
             .collect(ImmutableList.toImmutableList());
         MessageMapper messageMapper = mapperFactory.getMessageMapper(session);
 
-        return messageMapper.executeReactive(messageMapper.moveReactive(getMailboxEntity(), originalRows))
+        return Mono.fromRunnable(Throwing.runnable(() -> {
+                if (quotaEvaluationContext.isPresent()) {
+                    reserveQuota(quotaEvaluationContext.get(), originalRows);
+                }
+            }).sneakyThrow())
+            .then(messageMapper.executeReactive(messageMapper.moveReactive(getMailboxEntity(), originalRows))
+                .doOnError(e -> quotaEvaluationContext.ifPresent(context -> releaseQuota(context, originalRows))))
             .map(data -> new MoveResult(data, originalRowsCopy));
     }
 
+    private void reserveQuota(QuotaEvaluationContext quotaEvaluationContext, List<MailboxMessage> rows) throws OverQuotaException {
+        quotaEvaluationContext.tryAddition(rows.size(), size(rows));
+    }
+
+    private void releaseQuota(QuotaEvaluationContext quotaEvaluationContext, List<MailboxMessage> rows) {
+        quotaEvaluationContext.release(rows.size(), size(rows));
+    }
+
+    private long size(List<MailboxMessage> rows) {
+        return rows.stream()
+            .mapToLong(MailboxMessage::getFullContentOctets)
+            .sum();
+    }
+
 
-    private Mono<SortedMap<MessageUid, MessageMetaData>> copy(MessageRange set, StoreMessageManager to, MailboxSession session) {
+    private Mono<SortedMap<MessageUid, MessageMetaData>> copy(MessageRange set, StoreMessageManager to, QuotaEvaluationContext quotaEvaluationContext, MailboxSession session) {
         return retrieveOriginalRows(set, session)
             .collectList()
-            .flatMap(originalRows -> to.copy(originalRows, session).collectList().flatMap(copyResult -> {
+            .flatMap(originalRows -> to.copy(originalRows, quotaEvaluationContext, session).collectList().flatMap(copyResult -> {
                 SortedMap<MessageUid, MessageMetaData> copiedUids = collectMetadata(copyResult.iterator());
 
                 ImmutableList<MessageId> messageIds = originalRows.stream()
@@ -906,7 +1105,7 @@ public class StoreMessageManager implements MessageManager {
                             .mailbox(to.getMailboxEntity())
                             .metaData(copiedUids)
                             .build(),
-                        new MailboxIdRegistrationKey(to.getMailboxEntity().getMailboxId())),
+                        registrationKeys.keys(to.getMailboxEntity())),
                     eventBus.dispatch(EventFactory.moved()
                             .messageMoves(messageMoves)
                             .messageId(messageIds)
@@ -918,10 +1117,10 @@ public class StoreMessageManager implements MessageManager {
             }));
     }
 
-    private Mono<SortedMap<MessageUid, MessageMetaData>> move(MessageRange set, StoreMessageManager to, MailboxSession session) {
+    private Mono<SortedMap<MessageUid, MessageMetaData>> move(MessageRange set, StoreMessageManager to, Optional<QuotaEvaluationContext> quotaEvaluationContext, MailboxSession session) {
         return retrieveOriginalRows(set, session)
             .collectList()
-            .flatMap(originalRows -> to.move(originalRows, session).flatMap(moveResult -> {
+            .flatMap(originalRows -> to.move(originalRows, quotaEvaluationContext, session).flatMap(moveResult -> {
                 SortedMap<MessageUid, MessageMetaData> moveUids = collectMetadata(moveResult.getMovedMessages().iterator());
 
                 ImmutableList<MessageId> messageIds = originalRows.stream()
@@ -940,14 +1139,14 @@ public class StoreMessageManager implements MessageManager {
                             .mailbox(to.getMailboxEntity())
                             .metaData(moveUids)
                             .build(),
-                        new MailboxIdRegistrationKey(to.getMailboxEntity().getMailboxId())),
+                        registrationKeys.keys(to.getMailboxEntity())),
                     eventBus.dispatch(EventFactory.expunged()
                             .randomEventId()
                             .mailboxSession(session)
                             .mailbox(getMailboxEntity())
                             .addMetaData(moveResult.getOriginalMessages())
                             .build(),
-                        new MailboxIdRegistrationKey(mailbox.getMailboxId())),
+                        registrationKeys.keys(mailbox)),
                     eventBus.dispatch(EventFactory.moved()
                             .messageMoves(messageMoves)
                             .messageId(messageIds)
@@ -0,0 +1,71 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.store.event;
+
+import java.util.Set;
+
+import org.apache.james.core.Username;
+import org.apache.james.events.RegistrationKey;
+import org.apache.james.mailbox.events.MailboxIdRegistrationKey;
+import org.apache.james.mailbox.events.UsernameRegistrationKey;
+import org.apache.james.mailbox.model.Mailbox;
+import org.apache.james.mailbox.model.MailboxId;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Keys mailbox events are dispatched with: the mailbox itself, for listeners watching a single mailbox
+ * (eg the selected IMAP mailbox), and optionally its owner, for listeners watching a whole account (eg IMAP NOTIFY).
+ *
+ * On distributed event buses each key costs a publish, whether or not anyone registered on it: account wide keys
+ * are thus only dispatched when enabled.
+ */
+public class MailboxRegistrationKeys {
+    public static final MailboxRegistrationKeys MAILBOX_ONLY = new MailboxRegistrationKeys(false);
+    public static final MailboxRegistrationKeys WITH_ACCOUNT_KEYS = new MailboxRegistrationKeys(true);
+
+    public static MailboxRegistrationKeys of(boolean accountKeysEnabled) {
+        if (accountKeysEnabled) {
+            return WITH_ACCOUNT_KEYS;
+        }
+        return MAILBOX_ONLY;
+    }
+
+    private final boolean accountKeysEnabled;
+
+    private MailboxRegistrationKeys(boolean accountKeysEnabled) {
+        this.accountKeysEnabled = accountKeysEnabled;
+    }
+
+    public boolean isAccountKeysEnabled() {
+        return accountKeysEnabled;
+    }
+
+    public Set<RegistrationKey> keys(Mailbox mailbox) {
+        return keys(mailbox.getMailboxId(), mailbox.getUser());
+    }
+
+    public Set<RegistrationKey> keys(MailboxId mailboxId, Username owner) {
+        if (accountKeysEnabled) {
+            return ImmutableSet.of(new MailboxIdRegistrationKey(mailboxId), new UsernameRegistrationKey(owner));
+        }
+        return ImmutableSet.of(new MailboxIdRegistrationKey(mailboxId));
+    }
+}
@@ -33,12 +33,29 @@ import org.apache.james.mailbox.model.ParsedAttachment;
 import org.apache.james.mailbox.store.transaction.Mapper;
 import org.apache.james.util.ReactorUtils;
 
+import com.google.common.io.ByteStreams;
+
 import reactor.core.publisher.Mono;
 
 public interface AttachmentMapper extends Mapper {
 
     InputStream loadAttachmentContent(AttachmentId attachmentId) throws AttachmentNotFoundException, IOException;
 
+    /**
+     * Fallback reading and discarding the leading bytes: implementations backed by a blob store should rather
+     * rely on its ranged reads.
+     */
+    default InputStream loadAttachmentContentRange(AttachmentId attachmentId, long offset, long length) throws AttachmentNotFoundException, IOException {
+        InputStream content = loadAttachmentContent(attachmentId);
+        try {
+            ByteStreams.skipFully(content, offset);
+        } catch (IOException e) {
+            content.close();
+            throw e;
+        }
+        return ByteStreams.limit(content, length);
+    }
+
     AttachmentMetadata getAttachment(AttachmentId attachmentId) throws AttachmentNotFoundException;
 
     List<AttachmentMetadata> getAttachments(Collection<AttachmentId> attachmentIds);
@@ -18,6 +18,7 @@
  ****************************************************************/
 package org.apache.james.mailbox.store.mail;
 
+import java.io.InputStream;
 import java.util.Collection;
 import java.util.List;
 
@@ -37,7 +38,9 @@ import org.apache.james.util.ReactorUtils;
 import org.reactivestreams.Publisher;
 
 import com.github.fge.lambdas.Throwing;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Multimap;
+import com.google.common.io.ByteStreams;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -52,6 +55,20 @@ public interface MessageIdMapper {
         return Flux.fromIterable(find(messageIds, fetchType));
     }
 
+    /**
+     * Fallback reading the full content and discarding its leading bytes: implementations backed by a blob store
+     * should rather rely on its ranged reads.
+     */
+    default Mono<InputStream> loadFullContentRange(MessageId messageId, long offset, long length) {
+        return findReactive(ImmutableList.of(messageId), FetchType.FULL)
+            .next()
+            .map(Throwing.function((MailboxMessage message) -> {
+                InputStream content = message.getFullContent();
+                ByteStreams.skipFully(content, offset);
+                return ByteStreams.limit(content, length);
+            }).sneakyThrow());
+    }
+
     List<MailboxId> findMailboxes(MessageId messageId);
 
     void save(MailboxMessage mailboxMessage) throws MailboxNotFoundException, MailboxException;
@@ -20,6 +20,7 @@ package org.apache.james.mailbox.store.mail;
 
 import static javax.mail.Flags.Flag.RECENT;
 
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -58,6 +59,7 @@ import reactor.core.publisher.Mono;
  */
 public interface MessageMapper extends Mapper {
     int UNLIMITED = -1;
+    int DEFAULT_COUNTERS_CONCURRENCY = 4;
 
     /**
      * Return a {@link Iterator} which holds the messages for the given criterias
@@ -83,6 +85,17 @@ public interface MessageMapper extends Mapper {
                 message.getThreadId()));
     }
 
+    /**
+     * Stream the {@link MessageMetaData} (including size and internal date) of the messages within the given range,
+     * ordered by uid.
+     *
+     * Implementations are expected not to read message content, and to page through large ranges.
+     */
+    default Flux<MessageMetaData> listMessagesMetadataWithSize(Mailbox mailbox, MessageRange set) {
+        return findInMailboxReactive(mailbox, set, FetchType.METADATA, UNLIMITED)
+            .map(MailboxMessage::metaData);
+    }
+
     default Flux<MailboxMessage> findInMailboxReactive(Mailbox mailbox, MessageRange set, FetchType type, int limit) {
         try {
             return Iterators.toFlux(findInMailbox(mailbox, set, type, limit));
@@ -116,6 +129,17 @@ public interface MessageMapper extends Mapper {
         return Mono.fromCallable(() -> getMailboxCounters(mailbox));
     }
 
+    /**
+     * Return the counters of several mailboxes at once. Implementations are encouraged to rely on a single
+     * backend query rather than one query per mailbox.
+     *
+     * No ordering guaranty is given on the returned counters.
+     */
+    default Flux<MailboxCounters> getMailboxCountersReactive(Collection<Mailbox> mailboxes) {
+        return Flux.fromIterable(mailboxes)
+            .flatMap(this::getMailboxCountersReactive, DEFAULT_COUNTERS_CONCURRENCY);
+    }
+
     /**
      * Delete the given {@link MailboxMessage}
      */
@@ -162,6 +186,17 @@ public interface MessageMapper extends Mapper {
             .subscribeOn(ReactorUtils.BLOCKING_CALL_WRAPPER);
     }
 
+    /**
+     * Add the given {@link MailboxMessage}s to the underlying storage. Uids are allocated following the order of the list,
+     * and metadata are emitted following that same order.
+     *
+     * Should a message fail to be added, metadata of every message that was added are emitted before the error.
+     */
+    default Flux<MessageMetaData> addReactive(Mailbox mailbox, List<MailboxMessage> messages) {
+        return Flux.fromIterable(messages)
+            .concatMap(message -> executeReactive(Mono.from(addReactive(mailbox, message))));
+    }
+
     /**
      * Update flags for the given {@link MessageRange}. Only the flags may be modified after a message was saved to a mailbox.
      *
@@ -0,0 +1,79 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.mailbox.store.quota;
+
+import org.apache.james.core.quota.QuotaCountUsage;
+import org.apache.james.core.quota.QuotaSizeUsage;
+import org.apache.james.mailbox.exception.OverQuotaException;
+import org.apache.james.mailbox.model.QuotaRoot;
+import org.apache.james.mailbox.quota.QuotaManager;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Quota evaluation shared by all the batches of a bulk operation (copy, move) targeting a single quota root.
+ *
+ * Current usage and limits are read once. Each batch then reserves its additions in memory, so that batches
+ * executed concurrently are evaluated against the usage of the previous ones, which the current quota updates,
+ * applied asynchronously, do not yet reflect.
+ */
+public class QuotaEvaluationContext {
+    public static Mono<QuotaEvaluationContext> load(QuotaManager quotaManager, QuotaRoot quotaRoot) {
+        return Mono.from(quotaManager.getQuotasReactive(quotaRoot))
+            .map(quotas -> new QuotaEvaluationContext(quotas, quotaRoot));
+    }
+
+    private final QuotaManager.Quotas quotas;
+    private final QuotaRoot quotaRoot;
+    private long reservedCount;
+    private long reservedSize;
+
+    @VisibleForTesting
+    QuotaEvaluationContext(QuotaManager.Quotas quotas, QuotaRoot quotaRoot) {
+        this.quotas = quotas;
+        this.quotaRoot = quotaRoot;
+    }
+
+    public QuotaRoot getQuotaRoot() {
+        return quotaRoot;
+    }
+
+    /**
+     * Checks the addition on top of the previously reserved ones, and reserves it if quota allows it.
+     */
+    public synchronized void tryAddition(long count, long size) throws OverQuotaException {
+        new QuotaChecker(
+            quotas.getMessageQuota().addValueToQuota(QuotaCountUsage.count(reservedCount)),
+            quotas.getStorageQuota().addValueToQuota(QuotaSizeUsage.size(reservedSize)),
+            quotaRoot)
+            .tryAddition(count, size);
+        reservedCount += count;
+        reservedSize += size;
+    }
+
+    /**
+     * Releases an addition previously reserved, typically for a batch that failed.
+     */
+    public synchronized void release(long count, long size) {
+        reservedCount -= count;
+        reservedSize -= size;
+    }
+}
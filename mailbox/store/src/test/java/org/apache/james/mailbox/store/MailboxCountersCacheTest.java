@@ -0,0 +1,307 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.store;
+
+import static org.apache.james.mailbox.store.StoreMailboxManagerTest.RETRY_BACKOFF_CONFIGURATION;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.Optional;
+
+import javax.mail.Flags;
+
+import org.apache.james.core.Username;
+import org.apache.james.core.quota.QuotaCountUsage;
+import org.apache.james.core.quota.QuotaSizeUsage;
+import org.apache.james.events.Event;
+import org.apache.james.events.EventBus;
+import org.apache.james.events.InVMEventBus;
+import org.apache.james.events.MemoryEventDeadLetters;
+import org.apache.james.events.delivery.InVmEventDelivery;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MailboxSessionUtil;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.ModSeq;
+import org.apache.james.mailbox.events.MailboxIdRegistrationKey;
+import org.apache.james.mailbox.model.Mailbox;
+import org.apache.james.mailbox.model.MailboxACL;
+import org.apache.james.mailbox.model.MailboxCounters;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.MessageMetaData;
+import org.apache.james.mailbox.model.QuotaRoot;
+import org.apache.james.mailbox.model.TestId;
+import org.apache.james.mailbox.model.TestMessageId;
+import org.apache.james.mailbox.model.ThreadId;
+import org.apache.james.mailbox.model.UidValidity;
+import org.apache.james.mailbox.model.UpdatedFlags;
+import org.apache.james.mailbox.store.event.EventFactory;
+import org.apache.james.mailbox.store.mail.MessageMapper;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Flux;
+
+class MailboxCountersCacheTest {
+    private static final Username USER = Username.of("user");
+    private static final Mailbox INBOX = new Mailbox(MailboxPath.inbox(USER), UidValidity.of(42), TestId.of(1));
+    private static final Mailbox SENT = new Mailbox(MailboxPath.forUser(USER, "Sent"), UidValidity.of(42), TestId.of(2));
+    private static final MessageUid UID = MessageUid.of(36);
+
+    private InVMEventBus eventBus;
+    private MessageMapper messageMapper;
+    private MailboxSession session;
+    private MailboxCountersCache testee;
+
+    @BeforeEach
+    void setUp() {
+        eventBus = new InVMEventBus(new InVmEventDelivery(new RecordingMetricFactory()), RETRY_BACKOFF_CONFIGURATION, new MemoryEventDeadLetters());
+        messageMapper = mock(MessageMapper.class);
+        session = MailboxSessionUtil.create(USER);
+        when(messageMapper.getMailboxCountersReactive(any(Collection.class)))
+            .thenAnswer(invocation -> Flux.fromIterable(invocation.<Collection<Mailbox>>getArgument(0))
+                .map(mailbox -> counters(mailbox, 10, 5)));
+
+        testee = new MailboxCountersCache(eventBus);
+    }
+
+    @Test
+    void retrieveShouldReturnCountersOfTheMapper() {
+        assertThat(testee.retrieve(INBOX, messageMapper).block())
+            .isEqualTo(counters(INBOX, 10, 5));
+    }
+
+    @Test
+    void retrieveShouldNotQueryTheMapperForCachedCounters() {
+        testee.retrieve(INBOX, messageMapper).block();
+        testee.retrieve(INBOX, messageMapper).block();
+
+        verify(messageMapper, times(1)).getMailboxCountersReactive(any(Collection.class));
+    }
+
+    @Test
+    void retrieveShouldOnlyLoadMissingMailboxes() {
+        testee.retrieve(INBOX, messageMapper).block();
+
+        assertThat(testee.retrieve(ImmutableList.of(INBOX, SENT), messageMapper).collectList().block())
+            .containsExactlyInAnyOrder(counters(INBOX, 10, 5), counters(SENT, 10, 5));
+        verify(messageMapper).getMailboxCountersReactive(ImmutableList.of(SENT));
+    }
+
+    @Test
+    void disabledCacheShouldAlwaysQueryTheMapper() {
+        testee = new MailboxCountersCache(eventBus, MailboxCountersCache.Configuration.DISABLED);
+
+        testee.retrieve(INBOX, messageMapper).block();
+        testee.retrieve(INBOX, messageMapper).block();
+
+        verify(messageMapper, times(2)).getMailboxCountersReactive(any(Collection.class));
+    }
+
+    @Test
+    void disabledCacheShouldNotRegisterListeners() {
+        EventBus mockedEventBus = mock(EventBus.class);
+        testee = new MailboxCountersCache(mockedEventBus, MailboxCountersCache.Configuration.DISABLED);
+
+        testee.retrieve(ImmutableList.of(INBOX, SENT), messageMapper).collectList().block();
+
+        verifyNoInteractions(mockedEventBus);
+        assertThat(testee.size()).isZero();
+    }
+
+    @Test
+    void addedEventsShouldUpdateCachedCounters() {
+        testee.retrieve(INBOX, messageMapper).block();
+
+        eventBus.dispatch(EventFactory.added()
+                .randomEventId()
+                .mailboxSession(session)
+                .mailbox(INBOX)
+                .addMetaData(metaData(new Flags()))
+                .build(),
+            new MailboxIdRegistrationKey(INBOX.getMailboxId()))
+            .block();
+
+        assertThat(testee.retrieve(INBOX, messageMapper).block())
+            .isEqualTo(counters(INBOX, 11, 6));
+    }
+
+    @Test
+    void addedSeenMessagesShouldNotIncrementUnseen() {
+        testee.retrieve(INBOX, messageMapper).block();
+
+        eventBus.dispatch(EventFactory.added()
+                .randomEventId()
+                .mailboxSession(session)
+                .mailbox(INBOX)
+                .addMetaData(metaData(new Flags(Flags.Flag.SEEN)))
+                .build(),
+            new MailboxIdRegistrationKey(INBOX.getMailboxId()))
+            .block();
+
+        assertThat(testee.retrieve(INBOX, messageMapper).block())
+            .isEqualTo(counters(INBOX, 11, 5));
+    }
+
+    @Test
+    void expungedEventsShouldUpdateCachedCounters() {
+        testee.retrieve(INBOX, messageMapper).block();
+
+        eventBus.dispatch(EventFactory.expunged()
+                .randomEventId()
+                .mailboxSession(session)
+                .mailbox(INBOX)
+                .addMetaData(metaData(new Flags()))
+                .build(),
+            new MailboxIdRegistrationKey(INBOX.getMailboxId()))
+            .block();
+
+        assertThat(testee.retrieve(INBOX, messageMapper).block())
+            .isEqualTo(counters(INBOX, 9, 4));
+    }
+
+    @Test
+    void flagsUpdatedEventsShouldUpdateCachedUnseenCount() {
+        testee.retrieve(INBOX, messageMapper).block();
+
+        eventBus.dispatch(EventFactory.flagsUpdated()
+                .randomEventId()
+                .mailboxSession(session)
+                .mailbox(INBOX)
+                .updatedFlag(UpdatedFlags.builder()
+                    .uid(UID)
+                    .modSeq(ModSeq.of(2))
+                    .oldFlags(new Flags())
+                    .newFlags(new Flags(Flags.Flag.SEEN))
+                    .build())
+                .build(),
+            new MailboxIdRegistrationKey(INBOX.getMailboxId()))
+            .block();
+
+        assertThat(testee.retrieve(INBOX, messageMapper).block())
+            .isEqualTo(counters(INBOX, 10, 4));
+    }
+
+    @Test
+    void redeliveredEventsShouldNotSkewCachedCounters() {
+        testee.retrieve(INBOX, messageMapper).block();
+
+        Event added = EventFactory.added()
+            .randomEventId()
+            .mailboxSession(session)
+            .mailbox(INBOX)
+            .addMetaData(metaData(new Flags()))
+            .build();
+        eventBus.dispatch(added, new MailboxIdRegistrationKey(INBOX.getMailboxId())).block();
+        eventBus.dispatch(added, new MailboxIdRegistrationKey(INBOX.getMailboxId())).block();
+
+        assertThat(testee.retrieve(INBOX, messageMapper).block())
+            .isEqualTo(counters(INBOX, 11, 6));
+    }
+
+    @Test
+    void inconsistentCountersShouldBeReloaded() {
+        when(messageMapper.getMailboxCountersReactive(any(Collection.class)))
+            .thenAnswer(invocation -> Flux.fromIterable(invocation.<Collection<Mailbox>>getArgument(0))
+                .map(mailbox -> counters(mailbox, 0, 0)));
+        testee.retrieve(INBOX, messageMapper).block();
+
+        eventBus.dispatch(EventFactory.expunged()
+                .randomEventId()
+                .mailboxSession(session)
+                .mailbox(INBOX)
+                .addMetaData(metaData(new Flags()))
+                .build(),
+            new MailboxIdRegistrationKey(INBOX.getMailboxId()))
+            .block();
+
+        assertThat(testee.retrieve(INBOX, messageMapper).block())
+            .isEqualTo(counters(INBOX, 0, 0));
+        verify(messageMapper, times(2)).getMailboxCountersReactive(any(Collection.class));
+    }
+
+    @Test
+    void eventsShouldNotAffectOtherMailboxes() {
+        testee.retrieve(SENT, messageMapper).block();
+
+        eventBus.dispatch(EventFactory.added()
+                .randomEventId()
+                .mailboxSession(session)
+                .mailbox(INBOX)
+                .addMetaData(metaData(new Flags()))
+                .build(),
+            new MailboxIdRegistrationKey(INBOX.getMailboxId()))
+            .block();
+
+        assertThat(testee.retrieve(SENT, messageMapper).block())
+            .isEqualTo(counters(SENT, 10, 5));
+    }
+
+    @Test
+    void mailboxDeletionShouldEvictCachedCounters() {
+        testee.retrieve(INBOX, messageMapper).block();
+
+        eventBus.dispatch(EventFactory.mailboxDeleted()
+                .randomEventId()
+                .mailboxSession(session)
+                .mailbox(INBOX)
+                .quotaRoot(QuotaRoot.quotaRoot("root", Optional.empty()))
+                .mailboxACL(new MailboxACL())
+                .quotaCount(QuotaCountUsage.count(10))
+                .quotaSize(QuotaSizeUsage.size(100))
+                .build(),
+            new MailboxIdRegistrationKey(INBOX.getMailboxId()))
+            .block();
+
+        assertThat(testee.size()).isZero();
+    }
+
+    @Test
+    void retrieveShouldReloadInvalidatedCounters() {
+        testee.retrieve(INBOX, messageMapper).block();
+
+        testee.invalidate(INBOX.getMailboxId());
+        testee.retrieve(INBOX, messageMapper).block();
+
+        verify(messageMapper, times(2)).getMailboxCountersReactive(any(Collection.class));
+    }
+
+    private MessageMetaData metaData(Flags flags) {
+        TestMessageId messageId = TestMessageId.of(12);
+        return new MessageMetaData(UID, ModSeq.of(1), flags, 25, new Date(), messageId, ThreadId.fromBaseMessageId(messageId));
+    }
+
+    private MailboxCounters counters(Mailbox mailbox, long count, long unseen) {
+        return MailboxCounters.builder()
+            .mailboxId(mailbox.getMailboxId())
+            .count(count)
+            .unseen(unseen)
+            .build();
+    }
+}
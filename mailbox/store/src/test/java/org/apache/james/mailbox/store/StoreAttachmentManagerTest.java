@@ -27,6 +27,7 @@ import static org.mockito.Mockito.when;
 import org.apache.james.mailbox.MailboxSession;
 import org.apache.james.mailbox.MessageIdManager;
 import org.apache.james.mailbox.exception.AttachmentNotFoundException;
+import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.model.AttachmentId;
 import org.apache.james.mailbox.model.AttachmentMetadata;
 import org.apache.james.mailbox.model.MessageId;
@@ -75,4 +76,14 @@ class StoreAttachmentManagerTest {
             .isInstanceOf(AttachmentNotFoundException.class);
     }
 
+    @Test
+    void loadAttachmentContentRangeShouldPropagateMailboxException() throws Exception {
+        MailboxSession mailboxSession = mock(MailboxSession.class);
+        when(attachmentMapper.getAttachment(ATTACHMENT_ID)).thenReturn(ATTACHMENT);
+        when(messageIdManager.accessibleMessages(MESSAGE_IDS, mailboxSession)).thenThrow(new MailboxException("boom"));
+
+        assertThatThrownBy(() -> testee.loadAttachmentContentRange(ATTACHMENT_ID, 0, 10, mailboxSession))
+            .isInstanceOf(MailboxException.class);
+    }
+
 }
\ No newline at end of file
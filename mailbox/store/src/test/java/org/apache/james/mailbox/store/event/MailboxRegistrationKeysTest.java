@@ -0,0 +1,52 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.store.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.james.core.Username;
+import org.apache.james.mailbox.events.MailboxIdRegistrationKey;
+import org.apache.james.mailbox.events.UsernameRegistrationKey;
+import org.apache.james.mailbox.model.MailboxId;
+import org.apache.james.mailbox.model.TestId;
+import org.junit.jupiter.api.Test;
+
+class MailboxRegistrationKeysTest {
+    static final MailboxId MAILBOX_ID = TestId.of(42);
+    static final Username OWNER = Username.of("bob");
+
+    @Test
+    void keysShouldBeLimitedToTheMailboxByDefault() {
+        assertThat(MailboxRegistrationKeys.MAILBOX_ONLY.keys(MAILBOX_ID, OWNER))
+            .containsOnly(new MailboxIdRegistrationKey(MAILBOX_ID));
+    }
+
+    @Test
+    void keysShouldIncludeTheOwnerWhenAccountKeysAreEnabled() {
+        assertThat(MailboxRegistrationKeys.WITH_ACCOUNT_KEYS.keys(MAILBOX_ID, OWNER))
+            .containsOnly(new MailboxIdRegistrationKey(MAILBOX_ID), new UsernameRegistrationKey(OWNER));
+    }
+
+    @Test
+    void ofShouldReturnTheMatchingKeys() {
+        assertThat(MailboxRegistrationKeys.of(true)).isEqualTo(MailboxRegistrationKeys.WITH_ACCOUNT_KEYS);
+        assertThat(MailboxRegistrationKeys.of(false)).isEqualTo(MailboxRegistrationKeys.MAILBOX_ONLY);
+    }
+}
@@ -128,6 +128,44 @@ public abstract class MessageIdMapperTest {
         assertMessages(messages).containOnly(message1, message4, message3);
     }
 
+    @Test
+    void loadFullContentRangeShouldReturnTheRangeWithinTheHeaders() throws MailboxException {
+        saveMessages();
+
+        assertThat(sut.loadFullContentRange(message1.getMessageId(), 2, 5).block())
+            .hasContent("bject");
+    }
+
+    @Test
+    void loadFullContentRangeShouldReturnTheRangeOverlappingHeadersAndBody() throws MailboxException {
+        saveMessages();
+
+        assertThat(sut.loadFullContentRange(message1.getMessageId(), 9, 12).block())
+            .hasContent("Test1 \n\nBody");
+    }
+
+    @Test
+    void loadFullContentRangeShouldReturnTheRangeWithinTheBody() throws MailboxException {
+        saveMessages();
+
+        assertThat(sut.loadFullContentRange(message1.getMessageId(), 18, 4).block())
+            .hasContent("ody1");
+    }
+
+    @Test
+    void loadFullContentRangeShouldTruncateTheRangeToTheContent() throws MailboxException {
+        saveMessages();
+
+        assertThat(sut.loadFullContentRange(message1.getMessageId(), 22, 100).block())
+            .hasContent("\n.\n");
+    }
+
+    @Test
+    void loadFullContentRangeShouldReturnEmptyWhenMessageDoesntExist() {
+        assertThat(sut.loadFullContentRange(message1.getMessageId(), 0, 10).blockOptional())
+            .isEmpty();
+    }
+
     @Test
     void findMailboxesShouldReturnEmptyWhenMessageDoesntExist() {
         assertThat(sut.findMailboxes(mapperProvider.generateMessageId())).isEmpty();
@@ -23,6 +23,7 @@ import static org.apache.james.mailbox.store.mail.model.ListMessageAssert.assert
 import static org.apache.james.mailbox.store.mail.model.ListMessagePropertiesAssert.assertProperties;
 import static org.apache.james.mailbox.store.mail.model.MessageAssert.assertThat;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 import java.io.IOException;
 import java.time.Duration;
@@ -172,6 +173,39 @@ public abstract class MessageMapperTest {
         assertThat(messageMapper.getMailboxCounters(benwaInboxMailbox).getUnseen()).isEqualTo(4);
     }
 
+    @Test
+    void getMailboxCountersReactiveShouldReturnCountersOfAllRequestedMailboxes() throws MailboxException {
+        saveMessages();
+        messageMapper.updateFlags(benwaInboxMailbox, message1.getUid(), new FlagsUpdateCalculator(new Flags(Flags.Flag.SEEN), FlagsUpdateMode.REPLACE));
+
+        assertThat(messageMapper.getMailboxCountersReactive(ImmutableList.of(benwaInboxMailbox, benwaWorkMailbox)).collectList().block())
+            .containsExactlyInAnyOrder(
+                MailboxCounters.builder()
+                    .mailboxId(benwaInboxMailbox.getMailboxId())
+                    .count(5)
+                    .unseen(4)
+                    .build(),
+                MailboxCounters.builder()
+                    .mailboxId(benwaWorkMailbox.getMailboxId())
+                    .count(1)
+                    .unseen(1)
+                    .build());
+    }
+
+    @Test
+    void getMailboxCountersReactiveShouldReturnEmptyCountersForEmptyMailboxes() {
+        assertThat(messageMapper.getMailboxCountersReactive(ImmutableList.of(benwaInboxMailbox, benwaWorkMailbox)).collectList().block())
+            .containsExactlyInAnyOrder(
+                MailboxCounters.empty(benwaInboxMailbox.getMailboxId()),
+                MailboxCounters.empty(benwaWorkMailbox.getMailboxId()));
+    }
+
+    @Test
+    void getMailboxCountersReactiveShouldReturnNothingWhenNoMailboxes() {
+        assertThat(messageMapper.getMailboxCountersReactive(ImmutableList.of()).collectList().block())
+            .isEmpty();
+    }
+
     @Test
     void deletedMessagesShouldBeRemovedFromStorage() throws MailboxException {
         saveMessages();
@@ -291,6 +325,55 @@ public abstract class MessageMapperTest {
             .isEmpty();
     }
 
+    @Test
+    protected void listMessagesMetadataWithSizeShouldReturnMetadataOrderedByUid() throws MailboxException {
+        saveMessages();
+
+        assertThat(messageMapper.listMessagesMetadataWithSize(benwaInboxMailbox, MessageRange.all()).collectList().block())
+            .extracting(MessageMetaData::getUid, MessageMetaData::getSize, MessageMetaData::getModSeq, MessageMetaData::getMessageId)
+            .containsExactly(
+                tuple(message1.getUid(), message1.getFullContentOctets(), message1.getModSeq(), message1.getMessageId()),
+                tuple(message2.getUid(), message2.getFullContentOctets(), message2.getModSeq(), message2.getMessageId()),
+                tuple(message3.getUid(), message3.getFullContentOctets(), message3.getModSeq(), message3.getMessageId()),
+                tuple(message4.getUid(), message4.getFullContentOctets(), message4.getModSeq(), message4.getMessageId()),
+                tuple(message5.getUid(), message5.getFullContentOctets(), message5.getModSeq(), message5.getMessageId()));
+    }
+
+    @Test
+    void listMessagesMetadataWithSizeShouldReturnFlags() throws MailboxException {
+        saveMessages();
+        messageMapper.updateFlags(benwaInboxMailbox, message2.getUid(), new FlagsUpdateCalculator(new Flags(Flags.Flag.SEEN), FlagsUpdateMode.REPLACE));
+
+        assertThat(messageMapper.listMessagesMetadataWithSize(benwaInboxMailbox, MessageRange.one(message2.getUid())).collectList().block())
+            .extracting(MessageMetaData::getFlags)
+            .containsExactly(new Flags(Flags.Flag.SEEN));
+    }
+
+    @Test
+    void listMessagesMetadataWithSizeShouldHandleRangesContainingAHole() throws MailboxException {
+        saveMessages();
+        messageMapper.delete(benwaInboxMailbox, message3);
+
+        assertThat(messageMapper.listMessagesMetadataWithSize(benwaInboxMailbox, MessageRange.range(message2.getUid(), message4.getUid())).collectList().block())
+            .extracting(MessageMetaData::getUid)
+            .containsExactly(message2.getUid(), message4.getUid());
+    }
+
+    @Test
+    void listMessagesMetadataWithSizeShouldHandleFromRanges() throws MailboxException {
+        saveMessages();
+
+        assertThat(messageMapper.listMessagesMetadataWithSize(benwaInboxMailbox, MessageRange.from(message4.getUid())).collectList().block())
+            .extracting(MessageMetaData::getUid)
+            .containsExactly(message4.getUid(), message5.getUid());
+    }
+
+    @Test
+    void listMessagesMetadataWithSizeShouldReturnEmptyWhenNoMessages() {
+        assertThat(messageMapper.listMessagesMetadataWithSize(benwaInboxMailbox, MessageRange.all()).collectList().block())
+            .isEmpty();
+    }
+
     @Test
     void retrievingMessagesWithALimitShouldLimitTheNumberOfMessages() throws MailboxException {
         int limit = 2;
@@ -0,0 +1,101 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.mailbox.store.quota;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Optional;
+
+import org.apache.james.core.quota.QuotaCountLimit;
+import org.apache.james.core.quota.QuotaCountUsage;
+import org.apache.james.core.quota.QuotaSizeLimit;
+import org.apache.james.core.quota.QuotaSizeUsage;
+import org.apache.james.mailbox.exception.OverQuotaException;
+import org.apache.james.mailbox.model.Quota;
+import org.apache.james.mailbox.model.QuotaRoot;
+import org.apache.james.mailbox.quota.QuotaManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class QuotaEvaluationContextTest {
+    static final QuotaRoot QUOTA_ROOT = QuotaRoot.quotaRoot("benwa", Optional.empty());
+
+    QuotaEvaluationContext testee;
+
+    @BeforeEach
+    void setUp() {
+        testee = new QuotaEvaluationContext(new QuotaManager.Quotas(
+                Quota.<QuotaCountLimit, QuotaCountUsage>builder().used(QuotaCountUsage.count(10)).computedLimit(QuotaCountLimit.count(100)).build(),
+                Quota.<QuotaSizeLimit, QuotaSizeUsage>builder().used(QuotaSizeUsage.size(100)).computedLimit(QuotaSizeLimit.size(1000)).build()),
+            QUOTA_ROOT);
+    }
+
+    @Test
+    void tryAdditionShouldNotThrowWithinQuota() {
+        assertThatCode(() -> testee.tryAddition(90, 900))
+            .doesNotThrowAnyException();
+    }
+
+    @Test
+    void tryAdditionShouldThrowWhenExceedingCountQuota() {
+        assertThatThrownBy(() -> testee.tryAddition(91, 0))
+            .isInstanceOf(OverQuotaException.class);
+    }
+
+    @Test
+    void tryAdditionShouldThrowWhenExceedingSizeQuota() {
+        assertThatThrownBy(() -> testee.tryAddition(1, 901))
+            .isInstanceOf(OverQuotaException.class);
+    }
+
+    @Test
+    void tryAdditionShouldTakePreviousAdditionsIntoAccount() throws Exception {
+        testee.tryAddition(50, 100);
+
+        assertThatThrownBy(() -> testee.tryAddition(41, 100))
+            .isInstanceOf(OverQuotaException.class);
+    }
+
+    @Test
+    void tryAdditionShouldTakePreviousSizeAdditionsIntoAccount() throws Exception {
+        testee.tryAddition(1, 500);
+
+        assertThatThrownBy(() -> testee.tryAddition(1, 401))
+            .isInstanceOf(OverQuotaException.class);
+    }
+
+    @Test
+    void rejectedAdditionsShouldNotBeReserved() throws Exception {
+        assertThatThrownBy(() -> testee.tryAddition(91, 0))
+            .isInstanceOf(OverQuotaException.class);
+
+        assertThatCode(() -> testee.tryAddition(90, 0))
+            .doesNotThrowAnyException();
+    }
+
+    @Test
+    void releasedAdditionsShouldNoLongerBeReserved() throws Exception {
+        testee.tryAddition(50, 500);
+        testee.release(50, 500);
+
+        assertThatCode(() -> testee.tryAddition(90, 900))
+            .doesNotThrowAnyException();
+    }
+}
@@ -57,6 +57,7 @@ public class ImapConfiguration {
         private Optional<Boolean> enableIdle;
         private ImmutableSet<String> disabledCaps;
         private Optional<Boolean> isCondstoreEnable;
+        private Optional<Long> appendLimit;
 
         private Builder() {
             this.concurrentRequests = Optional.empty();
@@ -66,6 +67,7 @@ public class ImapConfiguration {
             this.enableIdle = Optional.empty();
             this.disabledCaps = ImmutableSet.of();
             this.isCondstoreEnable = Optional.empty();
+            this.appendLimit = Optional.empty();
         }
 
         public Builder idleTimeInterval(long idleTimeInterval) {
@@ -115,6 +117,21 @@ public class ImapConfiguration {
             return this;
         }
 
+        /**
+         * Maximum size, in bytes, of a message accepted by APPEND. Advertised through the APPENDLIMIT
+         * capability (RFC-7889).
+         */
+        public Builder appendLimit(long appendLimit) {
+            Preconditions.checkArgument(appendLimit > 0, "appendLimit should be strictly positive");
+            this.appendLimit = Optional.of(appendLimit);
+            return this;
+        }
+
+        public Builder appendLimit(Optional<Long> appendLimit) {
+            appendLimit.ifPresent(this::appendLimit);
+            return this;
+        }
+
         public ImapConfiguration build() {
             ImmutableSet<Capability> normalizeDisableCaps = disabledCaps.stream()
                     .filter(Builder::noBlankString)
@@ -128,7 +145,8 @@ public class ImapConfiguration {
                     maxQueueSize.orElse(DEFAULT_QUEUE_SIZE),
                     idleTimeIntervalUnit.orElse(DEFAULT_HEARTBEAT_INTERVAL_UNIT),
                     normalizeDisableCaps,
-                    isCondstoreEnable.orElse(DEFAULT_CONDSTORE_DISABLE));
+                    isCondstoreEnable.orElse(DEFAULT_CONDSTORE_DISABLE),
+                    appendLimit);
         }
     }
 
@@ -139,8 +157,9 @@ public class ImapConfiguration {
     private final ImmutableSet<Capability> disabledCaps;
     private final boolean enableIdle;
     private final boolean isCondstoreEnable;
+    private final Optional<Long> appendLimit;
 
-    private ImapConfiguration(boolean enableIdle, long idleTimeInterval, int concurrentRequests, int maxQueueSize, TimeUnit idleTimeIntervalUnit, ImmutableSet<Capability> disabledCaps, boolean isCondstoreEnable) {
+    private ImapConfiguration(boolean enableIdle, long idleTimeInterval, int concurrentRequests, int maxQueueSize, TimeUnit idleTimeIntervalUnit, ImmutableSet<Capability> disabledCaps, boolean isCondstoreEnable, Optional<Long> appendLimit) {
         this.enableIdle = enableIdle;
         this.idleTimeInterval = idleTimeInterval;
         this.concurrentRequests = concurrentRequests;
@@ -148,6 +167,7 @@ public class ImapConfiguration {
         this.idleTimeIntervalUnit = idleTimeIntervalUnit;
         this.disabledCaps = disabledCaps;
         this.isCondstoreEnable = isCondstoreEnable;
+        this.appendLimit = appendLimit;
     }
 
     public int getConcurrentRequests() {
@@ -178,6 +198,10 @@ public class ImapConfiguration {
         return isCondstoreEnable;
     }
 
+    public Optional<Long> getAppendLimit() {
+        return appendLimit;
+    }
+
     public Duration idleTimeIntervalAsDuration() {
         return Duration.of(getIdleTimeInterval(), getIdleTimeIntervalUnit().toChronoUnit());
     }
@@ -192,7 +216,8 @@ public class ImapConfiguration {
                 && Objects.equal(that.getConcurrentRequests(), concurrentRequests)
                 && Objects.equal(that.getMaxQueueSize(), maxQueueSize)
                 && Objects.equal(that.getDisabledCaps(), disabledCaps)
-                && Objects.equal(that.isCondstoreEnable(), isCondstoreEnable);
+                && Objects.equal(that.isCondstoreEnable(), isCondstoreEnable)
+                && Objects.equal(that.getAppendLimit(), appendLimit);
         }
         return false;
     }
@@ -200,7 +225,7 @@ public class ImapConfiguration {
     @Override
     public final int hashCode() {
         return Objects.hashCode(enableIdle, idleTimeInterval, idleTimeIntervalUnit, disabledCaps, isCondstoreEnable,
-            concurrentRequests, maxQueueSize);
+            concurrentRequests, maxQueueSize, appendLimit);
     }
 
     @Override
@@ -213,6 +238,7 @@ public class ImapConfiguration {
                 .add("isCondstoreEnable", isCondstoreEnable)
                 .add("concurrentRequests", concurrentRequests)
                 .add("maxQueueSize", maxQueueSize)
+                .add("appendLimit", appendLimit)
                 .toString();
     }
 }
@@ -61,6 +61,8 @@ public interface ImapConstants {
 
     byte BYTE_CLOSE_BRACE = 0x7D;
 
+    byte BYTE_TILDE = 0x7E;
+
     char DQUOTE = '\"';
 
     String VERSION = "IMAP4rev1";
@@ -98,6 +100,16 @@ public interface ImapConstants {
     Capability SUPPORTS_UIDPLUS = Capability.of("UIDPLUS");
 
     Capability SUPPORTS_ANNOTATION = Capability.of("ANNOTATION");
+
+    Capability SUPPORTS_LIST_STATUS = Capability.of("LIST-STATUS");
+
+    Capability SUPPORTS_BINARY = Capability.of("BINARY");
+
+    Capability SUPPORTS_MULTIAPPEND = Capability.of("MULTIAPPEND");
+
+    String SUPPORTS_APPENDLIMIT = "APPENDLIMIT";
+
+    Capability SUPPORTS_NOTIFY = Capability.of("NOTIFY");
     
     String INBOX_NAME = "INBOX";
 
@@ -170,6 +182,7 @@ public interface ImapConstants {
     ImapCommand LIST_COMMAND = ImapCommand.authenticatedStateCommand("LIST");
     ImapCommand LSUB_COMMAND = ImapCommand.authenticatedStateCommand("LSUB");
     ImapCommand NAMESPACE_COMMAND = ImapCommand.authenticatedStateCommand("NAMESPACE");
+    ImapCommand NOTIFY_COMMAND = ImapCommand.authenticatedStateCommand("NOTIFY");
     ImapCommand RENAME_COMMAND = ImapCommand.authenticatedStateCommand("RENAME");
     ImapCommand SELECT_COMMAND = ImapCommand.authenticatedStateCommand("SELECT");
     ImapCommand STATUS_COMMAND = ImapCommand.authenticatedStateCommand("STATUS");
@@ -217,12 +230,20 @@ public interface ImapConstants {
 
     byte[] NAME_ATTRIBUTE_UNMARKED = "\\Unmarked".getBytes(US_ASCII);
 
+    byte[] NAME_ATTRIBUTE_NON_EXISTENT = "\\NonExistent".getBytes(US_ASCII);
+
+    String OLDNAME = "OLDNAME";
+
     String FETCH_RFC822 = "RFC822";
 
     String FETCH_RFC822_HEADER = "RFC822.HEADER";
 
     String FETCH_RFC822_TEXT = "RFC822.TEXT";
 
+    String FETCH_BINARY = "BINARY";
+
+    String FETCH_BINARY_SIZE = "BINARY.SIZE";
+
     byte[] FETCH_BODY_STRUCTURE = "BODYSTRUCTURE".getBytes(US_ASCII);
 
     byte[] FETCH_BODY = "BODY".getBytes(US_ASCII);
@@ -94,6 +94,8 @@ public class HumanReadableText {
 
     public static final HumanReadableText SEARCH_FAILED = new HumanReadableText("org.apache.james.imap.SEARCH_FAILED", "failed. Search failed.");
 
+    public static final HumanReadableText UNKNOWN_CTE = new HumanReadableText("org.apache.james.imap.UNKNOWN_CTE", "failed. Can not decode the Content-Transfer-Encoding of the requested section.");
+
     public static final HumanReadableText STATUS_FAILED = new HumanReadableText("org.apache.james.imap.STATUS_FAILED", "failed. Status failed.");
 
     public static final HumanReadableText COUNT_FAILED = new HumanReadableText("org.apache.james.imap.COUNT_FAILED", "failed. Count failed.");
@@ -140,6 +142,8 @@ public class HumanReadableText {
     
     public static final HumanReadableText UNSUPPORTED_SEARCH_CRITERIA = new HumanReadableText("org.apache.james.imap.UNSUPPORTED_CRITERIA", "failed. One or more search criteria is unsupported.");
 
+    public static final HumanReadableText UNSUPPORTED_NOTIFY_EVENT = new HumanReadableText("org.apache.james.imap.UNSUPPORTED_NOTIFY_EVENT", "failed. One or more NOTIFY event is unsupported.");
+
     public static final HumanReadableText UNSUPPORTED_AUTHENTICATION_MECHANISM = new HumanReadableText("org.apache.james.imap.UNSUPPORTED_AUTHENTICATION_MECHANISM", "failed. Authentication mechanism is unsupported.");
     public static final HumanReadableText AUTHENTICATION_FAILED = new HumanReadableText("org.apache.james.imap.AUTHENTICATION_FAILED", "failed. Authentication failed.");
 
@@ -27,6 +27,18 @@ import org.apache.james.imap.api.ImapConstants;
 import com.google.common.base.MoreObjects;
 
 public class BodyFetchElement {
+    /**
+     * How the section content gets returned.
+     */
+    public enum Kind {
+        // Raw content, as stored
+        BODY,
+        // RFC-3516 BINARY: content with its Content-Transfer-Encoding decoded
+        BINARY,
+        // RFC-3516 BINARY.SIZE: size of the decoded content
+        BINARY_SIZE
+    }
+
     private static final String SIMPLE_NAME = BodyFetchElement.class.getSimpleName();
     private static final BodyFetchElement rfc822 = new BodyFetchElement(ImapConstants.FETCH_RFC822, SectionType.CONTENT, null, null, null, null);
 
@@ -52,9 +64,15 @@ public class BodyFetchElement {
     private final SectionType sectionType;
     private final int[] path;
     private final Collection<String> fieldNames;
+    private final Kind kind;
 
     public BodyFetchElement(String name, SectionType sectionType, int[] path, Collection<String> fieldNames, Long firstOctet, Long numberOfOctets) {
+        this(name, sectionType, path, fieldNames, firstOctet, numberOfOctets, Kind.BODY);
+    }
+
+    public BodyFetchElement(String name, SectionType sectionType, int[] path, Collection<String> fieldNames, Long firstOctet, Long numberOfOctets, Kind kind) {
         this.name = name;
+        this.kind = kind;
         this.sectionType = sectionType;
         this.fieldNames = fieldNames;
         this.path = path;
@@ -110,6 +128,10 @@ public class BodyFetchElement {
         return numberOfOctets;
     }
 
+    public final Kind getKind() {
+        return kind;
+    }
+
     @Override
     public final boolean equals(Object o) {
         if (o instanceof BodyFetchElement) {
@@ -119,6 +141,7 @@ public class BodyFetchElement {
                 && Objects.equals(this.firstOctet, that.firstOctet)
                 && Objects.equals(this.numberOfOctets, that.numberOfOctets)
                 && Objects.equals(this.name, that.name)
+                && Objects.equals(this.kind, that.kind)
                 && Arrays.equals(this.path, that.path)
                 && Objects.equals(this.fieldNames, that.fieldNames);
         }
@@ -127,7 +150,7 @@ public class BodyFetchElement {
 
     @Override
     public final int hashCode() {
-        return Objects.hash(firstOctet, numberOfOctets, name, sectionType, Arrays.hashCode(path), fieldNames);
+        return Objects.hash(firstOctet, numberOfOctets, name, sectionType, Arrays.hashCode(path), fieldNames, kind);
     }
 
     @Override
@@ -139,6 +162,7 @@ public class BodyFetchElement {
             .add("name", name)
             .add("sectionType", sectionType)
             .add("fieldNames", fieldNames)
+            .add("kind", kind)
             .toString();
     }
 }
@@ -155,6 +155,21 @@ public class FetchData {
             .isEmpty();
     }
 
+    /**
+     * Items that can be answered from message metadata, without reading message content.
+     */
+    public boolean isOnlyMetadata() {
+        return bodyElements.isEmpty()
+            && itemToFetch.stream()
+            .filter(item -> item != Item.FLAGS)
+            .filter(item -> item != Item.UID)
+            .filter(item -> item != Item.MODSEQ)
+            .filter(item -> item != Item.SIZE)
+            .filter(item -> item != Item.INTERNAL_DATE)
+            .findAny()
+            .isEmpty();
+    }
+
     @Override
     public final int hashCode() {
         return Objects.hash(itemToFetch, bodyElements, setSeen, changedSince);
@@ -42,4 +42,17 @@ public interface ImapRequest extends ImapMessage {
      */
     Tag getTag();
 
+    /**
+     * Tells whether this request may be executed while other requests of the same session are in flight.
+     *
+     * RFC-3501 section 5.5 only allows this for commands that neither alter the selected mailbox state
+     * nor rely on message sequence numbers.
+     *
+     * @return true if this request can be pipelined with other concurrent safe requests, false if it
+     * requires exclusive execution
+     */
+    default boolean canRunConcurrently() {
+        return false;
+    }
+
 }
\ No newline at end of file
@@ -351,6 +351,25 @@ public interface StatusResponse extends ImapResponseMessage {
             return new ResponseCode("NOMODSEQ");
         }
 
+        /**
+         * Create a RFC3516 <code>UNKNOWN-CTE</code> response code
+         *
+         * @return <code>ResponseCode</code>
+         */
+        public static ResponseCode unknownCte() {
+            return new ResponseCode("UNKNOWN-CTE");
+        }
+
+        /**
+         * Create a RFC5465 <code>BADEVENT</code> response code
+         *
+         * @param supportedEvents events supported by the server
+         * @return <code>ResponseCode</code>
+         */
+        public static ResponseCode badEvent(Collection<String> supportedEvents) {
+            return new ResponseCode("BADEVENT", supportedEvents);
+        }
+
 
         
         /**
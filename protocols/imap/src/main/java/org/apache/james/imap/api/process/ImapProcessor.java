@@ -65,5 +65,13 @@ public interface ImapProcessor {
          * @param message <code>not null</code>
          */
         void respond(ImapResponseMessage message);
+
+        /**
+         * Sends the responses written so far to the client. Needed for unsolicited responses
+         * written outside of a command execution.
+         */
+        default void flush() {
+
+        }
     }
 }
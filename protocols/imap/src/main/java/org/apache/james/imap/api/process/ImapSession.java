@@ -25,6 +25,7 @@ import java.util.Optional;
 
 import org.apache.commons.text.RandomStringGenerator;
 import org.apache.james.core.Username;
+import org.apache.james.events.Registration;
 import org.apache.james.imap.api.ImapSessionState;
 import org.apache.james.mailbox.MailboxSession;
 import org.apache.james.protocols.api.CommandDetectionSession;
@@ -254,4 +255,39 @@ public interface ImapSession extends CommandDetectionSession {
     }
 
     void schedule(Runnable runnable, Duration waitDelay);
+
+    /**
+     * Completes once the underlying connection accepts more outbound data.
+     *
+     * Allows long lasting responses to be emitted at the pace the client reads them, rather than
+     * buffering them in memory.
+     */
+    default Mono<Void> awaitWritable() {
+        return Mono.empty();
+    }
+
+    /**
+     * Tells whether pipelined commands of this session are being executed concurrently.
+     *
+     * Responses that shift message sequence numbers, namely EXPUNGE, need to be delayed meanwhile.
+     */
+    default boolean isExecutingConcurrentCommands() {
+        return false;
+    }
+
+    /**
+     * Writes responses that are not bound to any command, such as NOTIFY (RFC-5465) notifications.
+     *
+     * The write is deferred while the responses of a command are being emitted, so that they do not interleave.
+     */
+    default void writeUnsolicited(Runnable write) {
+        write.run();
+    }
+
+    /**
+     * Sets the event bus registration backing the NOTIFY (RFC-5465) settings of this session.
+     *
+     * The previously set registration is released. The registration in place is released upon logout.
+     */
+    Mono<Void> setNotifyRegistration(Optional<Registration> registration);
 }
@@ -52,4 +52,14 @@ public class OutputStreamImapResponseWriter implements ImapResponseWriter {
         output.write(buffer);
     }
 
+    @Override
+    public void write(byte[] buffer, int offset, int length) throws IOException {
+        output.write(buffer, offset, length);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        output.flush();
+    }
+
 }
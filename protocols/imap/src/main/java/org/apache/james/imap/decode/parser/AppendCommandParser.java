@@ -40,9 +40,10 @@ import org.apache.james.imap.message.Literal;
 import org.apache.james.imap.message.request.AppendRequest;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 
 /**
- * Parses APPEND command
+ * Parses APPEND command, including its MULTIAPPEND (RFC-3502) form carrying several messages
  */
 public class AppendCommandParser extends AbstractImapCommandParser {
     private final Clock clock;
@@ -78,18 +79,29 @@ public class AppendCommandParser extends AbstractImapCommandParser {
         return LocalDateTime.now(clock);
     }
 
-    @Override
-    protected ImapMessage decode(ImapRequestLineReader request, Tag tag, ImapSession session) throws DecodingException {
-        String mailboxName = request.mailbox();
+    private AppendRequest.Message parseMessage(ImapRequestLineReader request) throws DecodingException {
         Flags flags = parseFlags(request);
         LocalDateTime datetime = parseDateTime(request);
         request.nextWordChar();
 
         try {
-            Literal literal = request.consumeLiteral(true).right;
-            return new AppendRequest(mailboxName, flags, Date.from(datetime.atZone(ZoneId.systemDefault()).toInstant()), literal, tag);
+            Literal literal = request.consumeLiteral(false).right;
+            return new AppendRequest.Message(flags, Date.from(datetime.atZone(ZoneId.systemDefault()).toInstant()), literal);
         } catch (IOException e) {
             throw new DecodingException(SOCKET_IO_FAILURE, "Error copying content", e);
         }
     }
+
+    @Override
+    protected ImapMessage decode(ImapRequestLineReader request, Tag tag, ImapSession session) throws DecodingException {
+        String mailboxName = request.mailbox();
+        ImmutableList.Builder<AppendRequest.Message> messages = ImmutableList.builder();
+        messages.add(parseMessage(request));
+        while (request.nextWordCharLenient().isPresent()) {
+            messages.add(parseMessage(request));
+        }
+        request.eol();
+
+        return new AppendRequest(mailboxName, messages.build(), tag);
+    }
 }
@@ -148,7 +148,7 @@ public class FetchCommandParser extends AbstractUidCommandParser {
                 numberOfOctets = null;
             }
 
-            BodyFetchElement bodyFetchElement = createBodyElement(parameter, firstOctet, numberOfOctets);
+            BodyFetchElement bodyFetchElement = createBodyElement(kind(name), parameter, firstOctet, numberOfOctets);
             boolean isPeek = isPeek(name);
             fetch.add(bodyFetchElement, isPeek);
         }
@@ -196,20 +196,59 @@ public class FetchCommandParser extends AbstractUidCommandParser {
                 return false;
             case "BODY.PEEK":
                 return true;
+            case "BINARY":
+                return false;
+            case "BINARY.PEEK":
+            case "BINARY.SIZE":
+                return true;
             default:
                 throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Invalid fetch attibute: " + name + "[]");
         }
     }
 
-    private BodyFetchElement createBodyElement(String parameter, Long firstOctet, Long numberOfOctets) throws DecodingException {
-        String responseName = "BODY[" + parameter + "]";
+    private BodyFetchElement.Kind kind(String name) throws DecodingException {
+        switch (name.toUpperCase(Locale.US)) {
+            case "BODY":
+            case "BODY.PEEK":
+                return BodyFetchElement.Kind.BODY;
+            case "BINARY":
+            case "BINARY.PEEK":
+                return BodyFetchElement.Kind.BINARY;
+            case "BINARY.SIZE":
+                return BodyFetchElement.Kind.BINARY_SIZE;
+            default:
+                throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Invalid fetch attibute: " + name + "[]");
+        }
+    }
+
+    private String responseName(BodyFetchElement.Kind kind) {
+        switch (kind) {
+            case BINARY:
+                return ImapConstants.FETCH_BINARY;
+            case BINARY_SIZE:
+                return ImapConstants.FETCH_BINARY_SIZE;
+            default:
+                return "BODY";
+        }
+    }
+
+    private BodyFetchElement createBodyElement(BodyFetchElement.Kind kind, String parameter, Long firstOctet, Long numberOfOctets) throws DecodingException {
+        String responseName = responseName(kind) + "[" + parameter + "]";
         FetchPartPathDecoder decoder = new FetchPartPathDecoder();
         decoder.decode(parameter);
         SectionType sectionType = decoder.getSpecifier();
 
+        // See RFC-3516: BINARY sections are restricted to part numbers
+        if (kind != BodyFetchElement.Kind.BODY && sectionType != SectionType.CONTENT) {
+            throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Invalid section for " + responseName);
+        }
+        if (kind == BodyFetchElement.Kind.BINARY_SIZE && firstOctet != null) {
+            throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Partial fetch is not allowed for " + responseName);
+        }
+
         List<String> names = decoder.getNames();
         int[] path = decoder.getPath();
-        return new BodyFetchElement(responseName, sectionType, path, names, firstOctet, numberOfOctets);
+        return new BodyFetchElement(responseName, sectionType, path, names, firstOctet, numberOfOctets, kind);
     }
 
     private char nextNonSpaceChar(ImapRequestLineReader request) throws DecodingException {
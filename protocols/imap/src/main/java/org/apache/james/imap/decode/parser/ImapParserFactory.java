@@ -109,7 +109,10 @@ public class ImapParserFactory implements ImapCommandParserFactory {
             //RFC5464
             //SETMETADATA, GETMETADATA
             new SetAnnotationCommandParser(statusResponseFactory),
-            new GetAnnotationCommandParser(statusResponseFactory));
+            new GetAnnotationCommandParser(statusResponseFactory),
+
+            // RFC5465
+            new NotifyCommandParser(statusResponseFactory));
 
         imapCommands = parsers.collect(ImmutableMap.toImmutableMap(
                 parser -> parser.getCommand().getName(),
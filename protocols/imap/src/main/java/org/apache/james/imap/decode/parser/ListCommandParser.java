@@ -18,21 +18,30 @@
  ****************************************************************/
 package org.apache.james.imap.decode.parser;
 
+import java.util.Optional;
+
 import org.apache.james.imap.api.ImapCommand;
 import org.apache.james.imap.api.ImapConstants;
 import org.apache.james.imap.api.ImapMessage;
 import org.apache.james.imap.api.Tag;
+import org.apache.james.imap.api.display.HumanReadableText;
+import org.apache.james.imap.api.message.StatusDataItems;
 import org.apache.james.imap.api.message.response.StatusResponseFactory;
 import org.apache.james.imap.api.process.ImapSession;
 import org.apache.james.imap.decode.DecodingException;
 import org.apache.james.imap.decode.ImapRequestLineReader;
 import org.apache.james.imap.decode.ImapRequestLineReader.AtomCharValidator;
+import org.apache.james.imap.decode.ImapRequestLineReader.StringMatcherCharacterValidator;
 import org.apache.james.imap.message.request.ListRequest;
 
 /**
  * Parse LIST commands
  */
 public class ListCommandParser extends AbstractUidCommandParser {
+    private static final String RETURN = "RETURN";
+    private static final String STATUS = "STATUS";
+    private static final String CHILDREN = "CHILDREN";
+
     private static class ListCharValidator extends AtomCharValidator {
         public static ImapRequestLineReader.CharacterValidator INSTANCE = new ListCharValidator();
 
@@ -76,11 +85,43 @@ public class ListCommandParser extends AbstractUidCommandParser {
     protected ImapMessage decode(ImapRequestLineReader request, Tag tag, boolean useUids, ImapSession session) throws DecodingException {
         String referenceName = request.mailbox();
         String mailboxPattern = listMailbox(request);
+        Optional<StatusDataItems> statusDataItems = returnOptions(request);
         request.eol();
-        return createMessage(referenceName, mailboxPattern, tag);
+        return createMessage(referenceName, mailboxPattern, statusDataItems, tag);
+    }
+
+    /**
+     * Reads the optional LIST return options, as defined by RFC-5258:
+     *
+     * <pre>
+     * list-return-opts = "RETURN" SP "(" [return-option *(SP return-option)] ")"
+     * </pre>
+     *
+     * Only the STATUS option (RFC-5819) is supported. CHILDREN is accepted as children attributes are always
+     * returned.
+     */
+    protected Optional<StatusDataItems> returnOptions(ImapRequestLineReader request) throws DecodingException {
+        if (request.nextWordCharLenient().isEmpty()) {
+            return Optional.empty();
+        }
+        request.consumeWord(StringMatcherCharacterValidator.ignoreCase(RETURN));
+        request.nextWordChar();
+        request.consumeChar('(');
+
+        Optional<StatusDataItems> statusDataItems = Optional.empty();
+        while (request.nextWordChar() != ')') {
+            String option = request.atom();
+            if (option.equalsIgnoreCase(STATUS)) {
+                statusDataItems = Optional.of(StatusCommandParser.statusDataItems(request));
+            } else if (!option.equalsIgnoreCase(CHILDREN)) {
+                throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Unsupported LIST return option: '" + option + "'");
+            }
+        }
+        request.consumeChar(')');
+        return statusDataItems;
     }
 
-    protected ImapMessage createMessage(String referenceName, String mailboxPattern, Tag tag) {
-        return new ListRequest(referenceName, mailboxPattern, tag);
+    protected ImapMessage createMessage(String referenceName, String mailboxPattern, Optional<StatusDataItems> statusDataItems, Tag tag) {
+        return new ListRequest(referenceName, mailboxPattern, statusDataItems, tag);
     }
 }
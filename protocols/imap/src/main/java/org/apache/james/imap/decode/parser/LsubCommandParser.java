@@ -18,10 +18,14 @@
  ****************************************************************/
 package org.apache.james.imap.decode.parser;
 
+import java.util.Optional;
+
 import org.apache.james.imap.api.ImapConstants;
 import org.apache.james.imap.api.ImapMessage;
 import org.apache.james.imap.api.Tag;
+import org.apache.james.imap.api.message.StatusDataItems;
 import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.decode.ImapRequestLineReader;
 import org.apache.james.imap.message.request.LsubRequest;
 
 /**
@@ -33,7 +37,13 @@ public class LsubCommandParser extends ListCommandParser {
     }
 
     @Override
-    protected ImapMessage createMessage(String referenceName, String mailboxPattern, Tag tag) {
+    protected Optional<StatusDataItems> returnOptions(ImapRequestLineReader request) {
+        // LSUB do not accept return options
+        return Optional.empty();
+    }
+
+    @Override
+    protected ImapMessage createMessage(String referenceName, String mailboxPattern, Optional<StatusDataItems> statusDataItems, Tag tag) {
         return new LsubRequest(referenceName, mailboxPattern, tag);
     }
 }
@@ -0,0 +1,172 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.decode.parser;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.james.imap.api.ImapConstants;
+import org.apache.james.imap.api.ImapMessage;
+import org.apache.james.imap.api.Tag;
+import org.apache.james.imap.api.display.HumanReadableText;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.api.process.ImapSession;
+import org.apache.james.imap.decode.DecodingException;
+import org.apache.james.imap.decode.ImapRequestLineReader;
+import org.apache.james.imap.decode.base.AbstractImapCommandParser;
+import org.apache.james.imap.message.request.NotifyRequest;
+import org.apache.james.imap.message.request.NotifyRequest.EventGroup;
+import org.apache.james.imap.message.request.NotifyRequest.EventType;
+import org.apache.james.imap.message.request.NotifyRequest.FilterType;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Parse NOTIFY commands, see RFC-5465
+ */
+public class NotifyCommandParser extends AbstractImapCommandParser {
+    private static final String SET = "SET";
+    private static final String NONE = "NONE";
+    private static final String STATUS = "STATUS";
+
+    public NotifyCommandParser(StatusResponseFactory statusResponseFactory) {
+        super(ImapConstants.NOTIFY_COMMAND, statusResponseFactory);
+    }
+
+    @Override
+    protected ImapMessage decode(ImapRequestLineReader request, Tag tag, ImapSession session) throws DecodingException {
+        String operation = request.atom();
+        if (NONE.equalsIgnoreCase(operation)) {
+            request.eol();
+            return NotifyRequest.none(tag);
+        }
+        if (!SET.equalsIgnoreCase(operation)) {
+            throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Expecting SET or NONE, got '" + operation + "'");
+        }
+
+        boolean statusIndicator = false;
+        ImmutableList.Builder<EventGroup> eventGroups = ImmutableList.builder();
+        boolean first = true;
+        do {
+            request.nextWordChar();
+            request.consumeChar('(');
+            String word = request.atom();
+            if (first && STATUS.equalsIgnoreCase(word)) {
+                // The status indicator is only allowed before the event groups
+                request.nextWordChar();
+                request.consumeChar(')');
+                statusIndicator = true;
+            } else {
+                eventGroups.add(eventGroup(request, filterType(word)));
+            }
+            first = false;
+        } while (request.nextWordCharLenient().isPresent());
+        request.eol();
+
+        List<EventGroup> groups = eventGroups.build();
+        if (groups.isEmpty()) {
+            throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "NOTIFY SET expects at least one event group");
+        }
+        return new NotifyRequest(tag, statusIndicator, groups);
+    }
+
+    private FilterType filterType(String word) throws DecodingException {
+        return FilterType.parse(word)
+            .orElseThrow(() -> new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Unknown NOTIFY filter: '" + word + "'"));
+    }
+
+    private EventGroup eventGroup(ImapRequestLineReader request, FilterType filterType) throws DecodingException {
+        List<String> mailboxes = mailboxes(request, filterType);
+        Set<EventType> events = events(request);
+        request.nextWordChar();
+        request.consumeChar(')');
+        return new EventGroup(filterType, mailboxes, events);
+    }
+
+    private List<String> mailboxes(ImapRequestLineReader request, FilterType filterType) throws DecodingException {
+        if (!filterType.takesMailboxes()) {
+            return ImmutableList.of();
+        }
+        if (request.nextWordChar() != '(') {
+            return ImmutableList.of(request.mailbox());
+        }
+        request.consume();
+        ImmutableList.Builder<String> mailboxes = ImmutableList.builder();
+        mailboxes.add(request.mailbox());
+        while (request.nextWordChar() != ')') {
+            mailboxes.add(request.mailbox());
+        }
+        request.consume();
+        return mailboxes.build();
+    }
+
+    private Set<EventType> events(ImapRequestLineReader request) throws DecodingException {
+        if (request.nextWordChar() != '(') {
+            String word = request.atom();
+            if (NONE.equalsIgnoreCase(word)) {
+                return EnumSet.noneOf(EventType.class);
+            }
+            throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Expecting an event list or NONE, got '" + word + "'");
+        }
+        request.consume();
+
+        EnumSet<EventType> events = EnumSet.noneOf(EventType.class);
+        while (request.nextWordChar() != ')') {
+            String word = request.atom();
+            EventType eventType = EventType.parse(word)
+                .orElseThrow(() -> new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Unknown NOTIFY event: '" + word + "'"));
+            if (eventType == EventType.MESSAGE_NEW && request.nextWordChar() == '(') {
+                // FETCH attributes to be returned along with new messages of the selected mailbox are not supported
+                skipFetchAttributes(request);
+            }
+            events.add(eventType);
+        }
+        request.consume();
+
+        validate(events);
+        return events;
+    }
+
+    private void skipFetchAttributes(ImapRequestLineReader request) throws DecodingException {
+        request.consumeChar('(');
+        int depth = 1;
+        while (depth > 0) {
+            char next = request.consume();
+            if (next == '(') {
+                depth++;
+            } else if (next == ')') {
+                depth--;
+            } else if (next == '\r' || next == '\n') {
+                throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Unterminated MessageNew fetch attributes");
+            }
+        }
+    }
+
+    private void validate(Set<EventType> events) throws DecodingException {
+        // RFC-5465 section 5: MessageNew and MessageExpunge go together, FlagChange requires both
+        if (events.contains(EventType.MESSAGE_NEW) != events.contains(EventType.MESSAGE_EXPUNGE)) {
+            throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "MessageNew and MessageExpunge needs to be specified together");
+        }
+        if (events.contains(EventType.FLAG_CHANGE) && !events.contains(EventType.MESSAGE_NEW)) {
+            throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "FlagChange requires MessageNew and MessageExpunge");
+        }
+    }
+}
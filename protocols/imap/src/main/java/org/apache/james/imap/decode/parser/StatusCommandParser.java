@@ -49,11 +49,11 @@ public class StatusCommandParser extends AbstractImapCommandParser {
         return new StatusRequest(mailboxName, statusDataItems, tag);
     }
 
-    private StatusDataItems statusDataItems(ImapRequestLineReader request) throws DecodingException {
+    static StatusDataItems statusDataItems(ImapRequestLineReader request) throws DecodingException {
         return new StatusDataItems(splitWords(request));
     }
 
-    private EnumSet<StatusDataItems.StatusItem> splitWords(ImapRequestLineReader request) throws DecodingException {
+    private static EnumSet<StatusDataItems.StatusItem> splitWords(ImapRequestLineReader request) throws DecodingException {
         EnumSet<StatusDataItems.StatusItem> words = EnumSet.noneOf(StatusDataItems.StatusItem.class);
 
         request.nextWordChar();
@@ -68,7 +68,7 @@ public class StatusCommandParser extends AbstractImapCommandParser {
         return words;
     }
 
-    private StatusDataItems.StatusItem parseStatus(ImapRequestLineReader request) throws DecodingException {
+    private static StatusDataItems.StatusItem parseStatus(ImapRequestLineReader request) throws DecodingException {
         // All the matching must be done in a case-insensitive fashion.
         // See rfc3501 9. Formal Syntax and IMAP-282
         char c = request.nextWordChar();
@@ -87,7 +87,7 @@ public class StatusCommandParser extends AbstractImapCommandParser {
         throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Unknown status item: '" + request.consumeWord(ImapRequestLineReader.NoopCharValidator.INSTANCE) + "'");
     }
 
-    private StatusDataItems.StatusItem readU(ImapRequestLineReader request) throws DecodingException {
+    private static StatusDataItems.StatusItem readU(ImapRequestLineReader request) throws DecodingException {
         char c;
         assertChar(request, 'u', 'U');
         c = request.nextWordChar();
@@ -104,7 +104,7 @@ public class StatusCommandParser extends AbstractImapCommandParser {
         return StatusDataItems.StatusItem.UID_VALIDITY;
     }
 
-    private void readValidity(ImapRequestLineReader request) throws DecodingException {
+    private static void readValidity(ImapRequestLineReader request) throws DecodingException {
         assertChar(request, 'v', 'V');
         assertChar(request, 'a', 'A');
         assertChar(request, 'l', 'L');
@@ -115,7 +115,7 @@ public class StatusCommandParser extends AbstractImapCommandParser {
         assertChar(request, 'y', 'Y');
     }
 
-    private StatusDataItems.StatusItem readUidNext(ImapRequestLineReader request) throws DecodingException {
+    private static StatusDataItems.StatusItem readUidNext(ImapRequestLineReader request) throws DecodingException {
         assertChar(request, 'n', 'N');
         assertChar(request, 'e', 'E');
         assertChar(request, 'x', 'X');
@@ -123,7 +123,7 @@ public class StatusCommandParser extends AbstractImapCommandParser {
         return StatusDataItems.StatusItem.UID_NEXT;
     }
 
-    private StatusDataItems.StatusItem readUnseen(ImapRequestLineReader request) throws DecodingException {
+    private static StatusDataItems.StatusItem readUnseen(ImapRequestLineReader request) throws DecodingException {
         assertChar(request, 'n', 'N');
         assertChar(request, 's', 'S');
         assertChar(request, 'e', 'E');
@@ -132,7 +132,7 @@ public class StatusCommandParser extends AbstractImapCommandParser {
         return StatusDataItems.StatusItem.UNSEEN;
     }
 
-    private StatusDataItems.StatusItem readHighestModseq(ImapRequestLineReader request) throws DecodingException {
+    private static StatusDataItems.StatusItem readHighestModseq(ImapRequestLineReader request) throws DecodingException {
         assertChar(request, 'h', 'H');
         assertChar(request, 'i', 'I');
         assertChar(request, 'g', 'G');
@@ -149,7 +149,7 @@ public class StatusCommandParser extends AbstractImapCommandParser {
         return StatusDataItems.StatusItem.HIGHEST_MODSEQ;
     }
 
-    private StatusDataItems.StatusItem readRecent(ImapRequestLineReader request) throws DecodingException {
+    private static StatusDataItems.StatusItem readRecent(ImapRequestLineReader request) throws DecodingException {
         assertChar(request, 'r', 'R');
         assertChar(request, 'e', 'E');
         assertChar(request, 'c', 'C');
@@ -159,7 +159,7 @@ public class StatusCommandParser extends AbstractImapCommandParser {
         return StatusDataItems.StatusItem.RECENT;
     }
 
-    private StatusDataItems.StatusItem readMessages(ImapRequestLineReader request) throws DecodingException {
+    private static StatusDataItems.StatusItem readMessages(ImapRequestLineReader request) throws DecodingException {
         assertChar(request, 'm', 'M');
         assertChar(request, 'e', 'E');
         assertChar(request, 's', 'S');
@@ -171,7 +171,7 @@ public class StatusCommandParser extends AbstractImapCommandParser {
         return StatusDataItems.StatusItem.MESSAGES;
     }
 
-    private void assertChar(ImapRequestLineReader reader, char low, char up) throws DecodingException {
+    private static void assertChar(ImapRequestLineReader reader, char low, char up) throws DecodingException {
         char c = reader.consume();
         if (c != low && c != up) {
             throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Unexpected token in Status item. Expecting " + up + " got " + c);
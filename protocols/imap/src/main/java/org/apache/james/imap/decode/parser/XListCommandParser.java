@@ -18,9 +18,12 @@
  ****************************************************************/
 package org.apache.james.imap.decode.parser;
 
+import java.util.Optional;
+
 import org.apache.james.imap.api.ImapConstants;
 import org.apache.james.imap.api.ImapMessage;
 import org.apache.james.imap.api.Tag;
+import org.apache.james.imap.api.message.StatusDataItems;
 import org.apache.james.imap.api.message.response.StatusResponseFactory;
 import org.apache.james.imap.message.request.XListRequest;
 
@@ -33,7 +36,7 @@ public class XListCommandParser extends ListCommandParser {
     }
 
     @Override
-    protected ImapMessage createMessage(String referenceName, String mailboxPattern, Tag tag) {
-        return new XListRequest(referenceName, mailboxPattern, tag);
+    protected ImapMessage createMessage(String referenceName, String mailboxPattern, Optional<StatusDataItems> statusDataItems, Tag tag) {
+        return new XListRequest(referenceName, mailboxPattern, statusDataItems, tag);
     }
 }
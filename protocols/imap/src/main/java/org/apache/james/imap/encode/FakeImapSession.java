@@ -26,7 +26,9 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
+import org.apache.james.events.Registration;
 import org.apache.james.imap.api.ImapSessionState;
 import org.apache.james.imap.api.process.ImapLineHandler;
 import org.apache.james.imap.api.process.ImapSession;
@@ -47,6 +49,7 @@ public class FakeImapSession implements ImapSession {
 
     private final Map<String, Object> attributesByKey;
     private final SessionId sessionId;
+    private final AtomicReference<Registration> notifyRegistration = new AtomicReference<>();
 
     public FakeImapSession() {
         this.sessionId = SessionId.generate();
@@ -76,6 +79,7 @@ public class FakeImapSession implements ImapSession {
     @Override
     public Mono<Void> logout() {
         return closeMailbox()
+            .then(setNotifyRegistration(Optional.empty()))
             .then(Mono.fromRunnable(() -> state = ImapSessionState.LOGOUT));
     }
 
@@ -107,6 +111,13 @@ public class FakeImapSession implements ImapSession {
         return this.state;
     }
 
+    @Override
+    public Mono<Void> setNotifyRegistration(Optional<Registration> registration) {
+        return Mono.defer(() -> Optional.ofNullable(notifyRegistration.getAndSet(registration.orElse(null)))
+            .map(previous -> Mono.from(previous.unregister()))
+            .orElse(Mono.empty()));
+    }
+
     private Mono<Void> closeMailbox() {
         if (selectedMailbox != null) {
             return selectedMailbox.deselect()
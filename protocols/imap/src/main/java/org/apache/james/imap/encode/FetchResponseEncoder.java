@@ -81,6 +81,7 @@ public class FetchResponseEncoder implements ImapResponseEncoder<FetchResponse>
         encodeBodyStructure(composer, fetchResponse.getBodyStructure());
         encodeUid(composer, fetchResponse);
         encodeBodyElements(composer, fetchResponse.getElements());
+        encodeBinarySizes(composer, fetchResponse.getBinarySizes());
 
         composer.closeParen().end();
     }
@@ -264,11 +265,22 @@ public class FetchResponseEncoder implements ImapResponseEncoder<FetchResponse>
             for (FetchResponse.BodyElement element : elements) {
                 final String name = element.getName();
                 composer.message(name);
-                composer.literal(element);
+                if (element.isBinary()) {
+                    composer.literal8(element);
+                } else {
+                    composer.literal(element);
+                }
             }
         }
     }
 
+    private void encodeBinarySizes(ImapResponseComposer composer, Map<String, Long> binarySizes) throws IOException {
+        for (Map.Entry<String, Long> binarySize : binarySizes.entrySet()) {
+            composer.message(binarySize.getKey());
+            composer.message(binarySize.getValue());
+        }
+    }
+
     private void encodeSize(ImapResponseComposer composer, FetchResponse fetchResponse) throws IOException {
         final Long size = fetchResponse.getSize();
         if (size != null) {
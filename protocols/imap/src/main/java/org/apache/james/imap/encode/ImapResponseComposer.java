@@ -125,6 +125,17 @@ public interface ImapResponseComposer {
      */
     ImapResponseComposer end() throws IOException;
 
+    /**
+     * Sends the responses written so far to the client.
+     *
+     * Tagged and continuation responses are flushed upon {@link #end()}, untagged responses
+     * can be delayed until then in order to coalesce writes.
+     *
+     * @return composer
+     * @throws IOException
+     */
+    ImapResponseComposer flush() throws IOException;
+
     /**
      * Write a tag
      * 
@@ -156,6 +167,16 @@ public interface ImapResponseComposer {
      */
     ImapResponseComposer literal(Literal literal) throws IOException;
 
+    /**
+     * Compose a RFC-3516 literal8, that can carry NUL octets, and write it to the socket.
+     * Everything which was buffered before will get written too
+     *
+     * @param literal
+     * @return self
+     * @throws IOException
+     */
+    ImapResponseComposer literal8(Literal literal) throws IOException;
+
     /**
      * Write a '('
      * 
@@ -20,6 +20,7 @@
 package org.apache.james.imap.encode;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 import org.apache.james.imap.message.Literal;
 
@@ -49,4 +50,23 @@ public interface ImapResponseWriter {
      */
     void write(byte[] buffer) throws IOException;
 
+    /**
+     * Write a slice of a byte[] to the client. The writer must not retain the
+     * array, which gets reused by the caller.
+     *
+     * @param buffer
+     *            <code>byte array</code> to be written, not null
+     */
+    default void write(byte[] buffer, int offset, int length) throws IOException {
+        write(Arrays.copyOfRange(buffer, offset, offset + length));
+    }
+
+    /**
+     * Sends the previously written responses to the client. Writers are free to
+     * delay writes until then.
+     */
+    default void flush() throws IOException {
+
+    }
+
 }
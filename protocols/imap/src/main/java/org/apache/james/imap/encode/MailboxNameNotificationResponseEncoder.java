@@ -0,0 +1,57 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.encode;
+
+import java.io.IOException;
+
+import org.apache.james.imap.api.ImapConstants;
+import org.apache.james.imap.message.response.MailboxNameNotificationResponse;
+
+/**
+ * Encodes RFC-5465 <code>LIST</code> notifications of mailbox name changes.
+ */
+public class MailboxNameNotificationResponseEncoder implements ImapResponseEncoder<MailboxNameNotificationResponse> {
+    @Override
+    public Class<MailboxNameNotificationResponse> acceptableMessages() {
+        return MailboxNameNotificationResponse.class;
+    }
+
+    @Override
+    public void encode(MailboxNameNotificationResponse response, ImapResponseComposer composer) throws IOException {
+        composer.untagged();
+        composer.message(ImapConstants.LIST_COMMAND.getNameAsBytes());
+        composer.openParen();
+        if (response.isNonExistent()) {
+            composer.message(ImapConstants.NAME_ATTRIBUTE_NON_EXISTENT);
+        }
+        composer.closeParen();
+        composer.quote(response.getHierarchyDelimiter());
+        composer.mailbox(response.getName());
+        if (response.getOldName().isPresent()) {
+            composer.openParen();
+            composer.quote(ImapConstants.OLDNAME);
+            composer.openParen();
+            composer.mailbox(response.getOldName().get());
+            composer.closeParen();
+            composer.closeParen();
+        }
+        composer.end();
+    }
+}
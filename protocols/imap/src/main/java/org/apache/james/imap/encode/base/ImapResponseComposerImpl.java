@@ -58,9 +58,11 @@ public class ImapResponseComposerImpl implements ImapConstants, ImapResponseComp
     private final FastByteArrayOutputStream buffer;
 
     private boolean skipNextSpace;
+    private boolean flushOnEnd;
 
     public ImapResponseComposerImpl(ImapResponseWriter writer, int bufferSize) {
         skipNextSpace = false;
+        flushOnEnd = false;
         this.writer = writer;
         this.buffer = new FastByteArrayOutputStream(bufferSize);
     }
@@ -81,6 +83,8 @@ public class ImapResponseComposerImpl implements ImapConstants, ImapResponseComp
 
     @Override
     public ImapResponseComposer continuationResponse(String message) throws IOException {
+        // The client waits for it
+        flushOnEnd = true;
         buffer.write(CONTINUATION);
         buffer.write(SP);
         writeASCII(message);
@@ -127,13 +131,25 @@ public class ImapResponseComposerImpl implements ImapConstants, ImapResponseComp
     @Override
     public ImapResponseComposer end() throws IOException {
         buffer.write(LINE_END_BYTES);
-        writer.write(buffer.toByteArray());
+        buffer.writeTo(writer);
         buffer.reset();
+        if (flushOnEnd) {
+            flushOnEnd = false;
+            writer.flush();
+        }
+        return this;
+    }
+
+    @Override
+    public ImapResponseComposer flush() throws IOException {
+        writer.flush();
         return this;
     }
 
     @Override
     public ImapResponseComposer tag(Tag tag) throws IOException {
+        // Tagged responses complete commands
+        flushOnEnd = true;
         writeASCII(tag.asString());
         return this;
     }
@@ -291,6 +307,17 @@ public class ImapResponseComposerImpl implements ImapConstants, ImapResponseComp
     @Override
     public ImapResponseComposer literal(Literal literal) throws IOException {
         space();
+        return writeLiteral(literal);
+    }
+
+    @Override
+    public ImapResponseComposer literal8(Literal literal) throws IOException {
+        space();
+        buffer.write(BYTE_TILDE);
+        return writeLiteral(literal);
+    }
+
+    private ImapResponseComposer writeLiteral(Literal literal) throws IOException {
         buffer.write(BYTE_OPEN_BRACE);
         final long size = literal.size();
         writeASCII(Long.toString(size));
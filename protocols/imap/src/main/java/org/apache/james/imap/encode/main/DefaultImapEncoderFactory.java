@@ -44,6 +44,7 @@ import org.apache.james.imap.encode.ImapResponseEncoder;
 import org.apache.james.imap.encode.LSubResponseEncoder;
 import org.apache.james.imap.encode.ListResponseEncoder;
 import org.apache.james.imap.encode.ListRightsResponseEncoder;
+import org.apache.james.imap.encode.MailboxNameNotificationResponseEncoder;
 import org.apache.james.imap.encode.MailboxStatusResponseEncoder;
 import org.apache.james.imap.encode.MyRightsResponseEncoder;
 import org.apache.james.imap.encode.NamespaceResponseEncoder;
@@ -102,6 +103,7 @@ public class DefaultImapEncoderFactory implements ImapEncoderFactory {
             new MyRightsResponseEncoder(),
             new ListRightsResponseEncoder(),
             new ListResponseEncoder(),
+            new MailboxNameNotificationResponseEncoder(),
             new ACLResponseEncoder(),
             new NamespaceResponseEncoder(),
             new StatusResponseEncoder(localizer),
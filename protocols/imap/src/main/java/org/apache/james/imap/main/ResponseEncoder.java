@@ -46,6 +46,15 @@ public class ResponseEncoder implements Responder {
         }
     }
 
+    @Override
+    public void flush() {
+        try {
+            composer.flush();
+        } catch (IOException failure) {
+            this.failure = failure;
+        }
+    }
+
     /**
      * Gets the recorded failure.
      * 
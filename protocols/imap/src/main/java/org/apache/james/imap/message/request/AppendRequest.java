@@ -22,6 +22,7 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Date;
+import java.util.List;
 
 import javax.mail.Flags;
 
@@ -31,40 +32,76 @@ import org.apache.james.imap.api.message.request.ImapRequest;
 import org.apache.james.imap.message.Literal;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 
 /**
- * {@link ImapRequest} which request the append of a message to a mailbox
+ * {@link ImapRequest} which request the append of one or several messages (MULTIAPPEND, RFC-3502) to a mailbox
  */
 public class AppendRequest extends AbstractImapRequest implements Closeable {
+    public static class Message {
+        private final Flags flags;
+        private final Date datetime;
+        private final Literal literal;
+
+        public Message(Flags flags, Date datetime, Literal literal) {
+            this.flags = flags;
+            this.datetime = datetime;
+            this.literal = literal;
+        }
+
+        public Flags getFlags() {
+            return flags;
+        }
+
+        public Date getDatetime() {
+            return datetime;
+        }
+
+        public Literal getLiteral() {
+            return literal;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                .add("flags", flags)
+                .add("datetime", datetime)
+                .add("literal", literal)
+                .toString();
+        }
+    }
+
     private final String mailboxName;
-    private final Flags flags;
-    private final Date datetime;
-    private final Literal message;
+    private final List<Message> messages;
 
     public AppendRequest(String mailboxName, Flags flags, Date datetime, Literal message, Tag tag) {
+        this(mailboxName, ImmutableList.of(new Message(flags, datetime, message)), tag);
+    }
+
+    public AppendRequest(String mailboxName, List<Message> messages, Tag tag) {
         super(tag, ImapConstants.APPEND_COMMAND);
+        Preconditions.checkArgument(!messages.isEmpty(), "An APPEND request needs at least one message");
         this.mailboxName = mailboxName;
-        this.flags = flags;
-        this.datetime = datetime;
-        this.message = message;
+        this.messages = ImmutableList.copyOf(messages);
     }
 
     /**
-     * Return the Date used for the append
+     * Return the Date used for the append of the first message
      * 
      * @return date
      */
     public Date getDatetime() {
-        return datetime;
+        return messages.get(0).getDatetime();
     }
 
     /**
-     * Return Flags for the Message
+     * Return Flags for the first Message
      * 
      * @return flags
      */
     public Flags getFlags() {
-        return flags;
+        return messages.get(0).getFlags();
     }
 
     /**
@@ -77,28 +114,37 @@ public class AppendRequest extends AbstractImapRequest implements Closeable {
     }
 
     /**
-     * Return the message to append as {@link InputStream}
+     * Return the first message to append as {@link InputStream}
      * 
      * @return message
      */
     public Literal getMessage() {
-        return message;
+        return messages.get(0).getLiteral();
+    }
+
+    /**
+     * Return all the messages to append, in the order they were sent
+     *
+     * @return messages
+     */
+    public List<Message> getMessages() {
+        return messages;
     }
 
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
             .add("mailboxName", mailboxName)
-            .add("flags", flags)
-            .add("datetime", datetime)
-            .add("message", message)
+            .add("messages", messages)
             .toString();
     }
 
     @Override
     public void close() throws IOException {
-        if (message instanceof Closeable) {
-            ((Closeable) message).close();
+        for (Message message : messages) {
+            if (message.getLiteral() instanceof Closeable) {
+                ((Closeable) message.getLiteral()).close();
+            }
         }
     }
 }
@@ -49,6 +49,12 @@ public class FetchRequest extends AbstractImapRequest {
         return useUids;
     }
 
+    @Override
+    public boolean canRunConcurrently() {
+        // Sequence numbers and implicit \Seen updates both require exclusive execution
+        return useUids && !fetch.isSetSeen();
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
@@ -42,6 +42,11 @@ public class LsubRequest extends AbstractImapRequest {
         return mailboxPattern;
     }
 
+    @Override
+    public boolean canRunConcurrently() {
+        return true;
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
@@ -0,0 +1,194 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.message.request;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import org.apache.james.imap.api.ImapConstants;
+import org.apache.james.imap.api.Tag;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * NOTIFY request, see RFC-5465.
+ *
+ * A request carrying no event group stands for <code>NOTIFY NONE</code>.
+ */
+public class NotifyRequest extends AbstractImapRequest {
+    public enum FilterType {
+        SELECTED("selected"),
+        SELECTED_DELAYED("selected-delayed"),
+        INBOXES("inboxes"),
+        PERSONAL("personal"),
+        SUBSCRIBED("subscribed"),
+        SUBTREE("subtree"),
+        MAILBOXES("mailboxes");
+
+        public static Optional<FilterType> parse(String value) {
+            return Arrays.stream(values())
+                .filter(filterType -> filterType.value.equalsIgnoreCase(value))
+                .findFirst();
+        }
+
+        private final String value;
+
+        FilterType(String value) {
+            this.value = value;
+        }
+
+        public String asString() {
+            return value;
+        }
+
+        public boolean takesMailboxes() {
+            return this == SUBTREE || this == MAILBOXES;
+        }
+
+        public boolean isSelected() {
+            return this == SELECTED || this == SELECTED_DELAYED;
+        }
+    }
+
+    public enum EventType {
+        MESSAGE_NEW("MessageNew"),
+        MESSAGE_EXPUNGE("MessageExpunge"),
+        FLAG_CHANGE("FlagChange"),
+        ANNOTATION_CHANGE("AnnotationChange"),
+        MAILBOX_NAME("MailboxName"),
+        SUBSCRIPTION_CHANGE("SubscriptionChange"),
+        MAILBOX_METADATA_CHANGE("MailboxMetadataChange"),
+        SERVER_METADATA_CHANGE("ServerMetadataChange");
+
+        public static Optional<EventType> parse(String value) {
+            return Arrays.stream(values())
+                .filter(eventType -> eventType.value.equalsIgnoreCase(value))
+                .findFirst();
+        }
+
+        private final String value;
+
+        EventType(String value) {
+            this.value = value;
+        }
+
+        public String asString() {
+            return value;
+        }
+    }
+
+    public static class EventGroup {
+        private final FilterType filterType;
+        private final List<String> mailboxes;
+        private final Set<EventType> events;
+
+        public EventGroup(FilterType filterType, List<String> mailboxes, Set<EventType> events) {
+            this.filterType = filterType;
+            this.mailboxes = ImmutableList.copyOf(mailboxes);
+            this.events = ImmutableSet.copyOf(events);
+        }
+
+        public FilterType getFilterType() {
+            return filterType;
+        }
+
+        /**
+         * @return the mailboxes specified for {@link FilterType#SUBTREE} and {@link FilterType#MAILBOXES}
+         * filters, empty otherwise
+         */
+        public List<String> getMailboxes() {
+            return mailboxes;
+        }
+
+        /**
+         * @return the events to be notified for this filter, empty for <code>NONE</code>
+         */
+        public Set<EventType> getEvents() {
+            return events;
+        }
+
+        @Override
+        public final boolean equals(Object o) {
+            if (o instanceof EventGroup) {
+                EventGroup that = (EventGroup) o;
+
+                return Objects.equals(this.filterType, that.filterType)
+                    && Objects.equals(this.mailboxes, that.mailboxes)
+                    && Objects.equals(this.events, that.events);
+            }
+            return false;
+        }
+
+        @Override
+        public final int hashCode() {
+            return Objects.hash(filterType, mailboxes, events);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                .add("filterType", filterType)
+                .add("mailboxes", mailboxes)
+                .add("events", events)
+                .toString();
+        }
+    }
+
+    public static NotifyRequest none(Tag tag) {
+        return new NotifyRequest(tag, false, ImmutableList.of());
+    }
+
+    private final boolean statusIndicator;
+    private final List<EventGroup> eventGroups;
+
+    public NotifyRequest(Tag tag, boolean statusIndicator, List<EventGroup> eventGroups) {
+        super(tag, ImapConstants.NOTIFY_COMMAND);
+        this.statusIndicator = statusIndicator;
+        this.eventGroups = ImmutableList.copyOf(eventGroups);
+    }
+
+    /**
+     * @return true if the client asked for the initial STATUS of the watched mailboxes
+     */
+    public boolean isStatusIndicator() {
+        return statusIndicator;
+    }
+
+    public List<EventGroup> getEventGroups() {
+        return eventGroups;
+    }
+
+    public boolean isNone() {
+        return eventGroups.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("statusIndicator", statusIndicator)
+            .add("eventGroups", eventGroups)
+            .toString();
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.james.imap.message.request;
 import org.apache.james.imap.api.ImapConstants;
 import org.apache.james.imap.api.Tag;
 import org.apache.james.imap.api.message.request.SearchOperation;
+import org.apache.james.imap.api.message.request.SearchResultOption;
 
 import com.google.common.base.MoreObjects;
 
@@ -42,6 +43,12 @@ public class SearchRequest extends AbstractImapRequest {
         return useUids;
     }
 
+    @Override
+    public boolean canRunConcurrently() {
+        // SEARCH RETURN (SAVE) alters the session saved result
+        return useUids && !operation.getResultOptions().contains(SearchResultOption.SAVE);
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
@@ -43,6 +43,11 @@ public class StatusRequest extends AbstractImapRequest {
         return statusDataItems;
     }
 
+    @Override
+    public boolean canRunConcurrently() {
+        return true;
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
@@ -18,7 +18,10 @@
  ****************************************************************/
 package org.apache.james.imap.message.request;
 
+import java.util.Optional;
+
 import org.apache.james.imap.api.Tag;
+import org.apache.james.imap.api.message.StatusDataItems;
 
 /**
  * XLIST command request
@@ -29,4 +32,8 @@ public class XListRequest extends ListRequest {
         super(referenceName, mailboxPattern, tag);
     }
 
+    public XListRequest(String referenceName, String mailboxPattern, Optional<StatusDataItems> statusDataItems, Tag tag) {
+        super(referenceName, mailboxPattern, statusDataItems, tag);
+    }
+
 }
@@ -31,6 +31,8 @@ import org.apache.james.mailbox.MessageSequenceNumber;
 import org.apache.james.mailbox.MessageUid;
 import org.apache.james.mailbox.ModSeq;
 
+import com.google.common.collect.ImmutableMap;
+
 public final class FetchResponse implements ImapResponseMessage {
     private final MessageSequenceNumber messageNumber;
     private final Flags flags;
@@ -42,8 +44,15 @@ public final class FetchResponse implements ImapResponseMessage {
     private final Structure body;
     private final Structure bodystructure;
     private final ModSeq modSeq;
+    private final Map<String, Long> binarySizes;
 
     public FetchResponse(MessageSequenceNumber messageNumber, Flags flags, MessageUid uid, ModSeq modSeq, Date internalDate, Long size, Envelope envelope, Structure body, Structure bodystructure, List<BodyElement> elements) {
+        this(messageNumber, flags, uid, modSeq, internalDate, size, envelope, body, bodystructure, elements, ImmutableMap.of());
+    }
+
+    public FetchResponse(MessageSequenceNumber messageNumber, Flags flags, MessageUid uid, ModSeq modSeq, Date internalDate, Long size, Envelope envelope, Structure body, Structure bodystructure, List<BodyElement> elements,
+                         Map<String, Long> binarySizes) {
+        this.binarySizes = binarySizes;
         this.messageNumber = messageNumber;
         this.flags = flags;
         this.uid = uid;
@@ -144,6 +153,15 @@ public final class FetchResponse implements ImapResponseMessage {
     public List<BodyElement> getElements() {
         return elements;
     }
+
+    /**
+     * Gets the RFC-3516 <code>BINARY.SIZE</code> results, indexed by their response name.
+     *
+     * @return decoded section sizes, empty if the <code>FETCH</code> did not include <code>BINARY.SIZE</code>
+     */
+    public Map<String, Long> getBinarySizes() {
+        return binarySizes;
+    }
     
     /**
      * Return the mod-sequence for the message or null if the <code>FETCH</code> did not 
@@ -294,6 +312,12 @@ public final class FetchResponse implements ImapResponseMessage {
          */
         String getName();
 
+        /**
+         * Tells whether this element holds decoded RFC-3516 <code>BINARY</code> content, sent as a literal8.
+         */
+        default boolean isBinary() {
+            return false;
+        }
     }
 
     /**
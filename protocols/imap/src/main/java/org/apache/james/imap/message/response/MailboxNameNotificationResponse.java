@@ -0,0 +1,100 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.message.response;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import org.apache.james.imap.api.message.response.ImapResponseMessage;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * <code>LIST</code> response notifying a mailbox creation, deletion or rename, see RFC-5465 section 5.4.
+ */
+public class MailboxNameNotificationResponse implements ImapResponseMessage {
+    public static MailboxNameNotificationResponse created(String name, char hierarchyDelimiter) {
+        return new MailboxNameNotificationResponse(name, hierarchyDelimiter, false, Optional.empty());
+    }
+
+    public static MailboxNameNotificationResponse deleted(String name, char hierarchyDelimiter) {
+        return new MailboxNameNotificationResponse(name, hierarchyDelimiter, true, Optional.empty());
+    }
+
+    public static MailboxNameNotificationResponse renamed(String oldName, String newName, char hierarchyDelimiter) {
+        return new MailboxNameNotificationResponse(newName, hierarchyDelimiter, false, Optional.of(oldName));
+    }
+
+    private final String name;
+    private final char hierarchyDelimiter;
+    private final boolean nonExistent;
+    private final Optional<String> oldName;
+
+    private MailboxNameNotificationResponse(String name, char hierarchyDelimiter, boolean nonExistent, Optional<String> oldName) {
+        this.name = name;
+        this.hierarchyDelimiter = hierarchyDelimiter;
+        this.nonExistent = nonExistent;
+        this.oldName = oldName;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public char getHierarchyDelimiter() {
+        return hierarchyDelimiter;
+    }
+
+    public boolean isNonExistent() {
+        return nonExistent;
+    }
+
+    public Optional<String> getOldName() {
+        return oldName;
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof MailboxNameNotificationResponse) {
+            MailboxNameNotificationResponse that = (MailboxNameNotificationResponse) o;
+
+            return Objects.equals(this.hierarchyDelimiter, that.hierarchyDelimiter)
+                && Objects.equals(this.nonExistent, that.nonExistent)
+                && Objects.equals(this.name, that.name)
+                && Objects.equals(this.oldName, that.oldName);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(name, hierarchyDelimiter, nonExistent, oldName);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("name", name)
+            .add("hierarchyDelimiter", hierarchyDelimiter)
+            .add("nonExistent", nonExistent)
+            .add("oldName", oldName)
+            .toString();
+    }
+}
@@ -137,7 +137,9 @@ public abstract class AbstractMailboxProcessor<R extends ImapRequest> extends Ab
             LOGGER.debug("No mailbox selected");
             return Mono.empty();
         } else {
-            return unsolicitedResponses(session, responder, selected, omitExpunged, useUid);
+            // Expunges would shift the sequence numbers concurrent commands rely upon: RFC-3501 section 5.5
+            // let us delay them until commands no longer overlap
+            return unsolicitedResponses(session, responder, selected, omitExpunged || session.isExecutingConcurrentCommands(), useUid);
         }
     }
 
@@ -19,13 +19,16 @@
 
 package org.apache.james.imap.processor;
 
+import static org.apache.james.imap.api.ImapConstants.SUPPORTS_APPENDLIMIT;
+import static org.apache.james.imap.api.ImapConstants.SUPPORTS_MULTIAPPEND;
 import static org.apache.james.util.ReactorUtils.logOnError;
 
-import java.util.Date;
-
-import javax.mail.Flags;
+import java.util.List;
+import java.util.Optional;
 
+import org.apache.james.imap.api.ImapConfiguration;
 import org.apache.james.imap.api.display.HumanReadableText;
+import org.apache.james.imap.api.message.Capability;
 import org.apache.james.imap.api.message.UidRange;
 import org.apache.james.imap.api.message.response.StatusResponse;
 import org.apache.james.imap.api.message.response.StatusResponse.ResponseCode;
@@ -40,7 +43,6 @@ import org.apache.james.mailbox.MessageManager;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.exception.MailboxNotFoundException;
 import org.apache.james.mailbox.model.ComposedMessageId;
-import org.apache.james.mailbox.model.Content;
 import org.apache.james.mailbox.model.MailboxPath;
 import org.apache.james.mailbox.model.UidValidity;
 import org.apache.james.metrics.api.MetricFactory;
@@ -49,29 +51,47 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.fge.lambdas.Throwing;
+import com.google.common.collect.ImmutableList;
 
 import reactor.core.publisher.Mono;
 
-public class AppendProcessor extends AbstractMailboxProcessor<AppendRequest> {
+public class AppendProcessor extends AbstractMailboxProcessor<AppendRequest> implements CapabilityImplementingProcessor {
     private static final Logger LOGGER = LoggerFactory.getLogger(AppendProcessor.class);
 
+    private List<Capability> capabilities = ImmutableList.of(SUPPORTS_MULTIAPPEND);
+
     public AppendProcessor(MailboxManager mailboxManager, StatusResponseFactory statusResponseFactory,
             MetricFactory metricFactory) {
         super(AppendRequest.class, mailboxManager, statusResponseFactory, metricFactory);
     }
 
+    @Override
+    public void configure(ImapConfiguration imapConfiguration) {
+        super.configure(imapConfiguration);
+
+        this.capabilities = capabilities(imapConfiguration.getAppendLimit());
+    }
+
+    private static List<Capability> capabilities(Optional<Long> appendLimit) {
+        return appendLimit
+            .map(limit -> ImmutableList.of(SUPPORTS_MULTIAPPEND, Capability.of(SUPPORTS_APPENDLIMIT + "=" + limit)))
+            .orElse(ImmutableList.of(SUPPORTS_MULTIAPPEND));
+    }
+
+    @Override
+    public List<Capability> getImplementedCapabilities(ImapSession session) {
+        return capabilities;
+    }
+
     @Override
     protected Mono<Void> processRequestReactive(AppendRequest request, ImapSession session, Responder responder) {
         final String mailboxName = request.getMailboxName();
-        final Content messageIn = request.getMessage().asMailboxContent();
-        final Date datetime = request.getDatetime();
-        final Flags flags = request.getFlags();
         final MailboxPath mailboxPath = PathConverter.forSession(session).buildFullPath(mailboxName);
         final MailboxManager mailboxManager = getMailboxManager();
 
         session.stopDetectingCommandInjection();
         return Mono.from(mailboxManager.getMailboxReactive(mailboxPath, session.getMailboxSession()))
-            .flatMap(mailbox -> appendToMailbox(messageIn, datetime, flags, session, request, mailbox, responder, mailboxPath))
+            .flatMap(mailbox -> appendToMailbox(session, request, mailbox, responder))
             .doOnEach(logOnError(MailboxNotFoundException.class, e -> LOGGER.debug("Append failed for mailbox {}", mailboxPath, e)))
             .onErrorResume(MailboxNotFoundException.class, e -> {
                 // Indicates that the mailbox does not exist
@@ -87,35 +107,50 @@ public class AppendProcessor extends AbstractMailboxProcessor<AppendRequest> {
             });
     }
 
-    private Mono<Void> appendToMailbox(Content message, Date datetime, Flags flagsToBeSet, ImapSession session, AppendRequest request, MessageManager mailbox, Responder responder, MailboxPath mailboxPath) {
+    private Mono<Void> appendToMailbox(ImapSession session, AppendRequest request, MessageManager mailbox, Responder responder) {
         final MailboxSession mailboxSession = session.getMailboxSession();
         final SelectedMailbox selectedMailbox = session.getSelected();
         final boolean isSelectedMailbox = selectedMailbox != null && selectedMailbox.getMailboxId().equals(mailbox.getId());
 
-        return Mono.from(mailbox.appendMessageReactive(
-            MessageManager.AppendCommand.builder()
-                .withInternalDate(datetime)
-                .withFlags(flagsToBeSet)
+        // RFC-3502: either all messages are appended, or none of them
+        List<MessageManager.AppendCommand> appendCommands = request.getMessages().stream()
+            .map(message -> MessageManager.AppendCommand.builder()
+                .withInternalDate(message.getDatetime())
+                .withFlags(message.getFlags())
                 .isRecent(!isSelectedMailbox)
-                .build(message), mailboxSession))
-            .map(MessageManager.AppendResult::getId)
-            .map(Throwing.<ComposedMessageId, ComposedMessageId>function(messageId -> {
+                .build(message.getLiteral().asMailboxContent()))
+            .collect(ImmutableList.toImmutableList());
+
+        return Mono.from(mailbox.appendMessagesReactive(appendCommands, mailboxSession))
+            .map(appendResults -> appendResults.stream()
+                .map(MessageManager.AppendResult::getId)
+                .collect(ImmutableList.toImmutableList()))
+            .map(Throwing.<List<ComposedMessageId>, List<ComposedMessageId>>function(messageIds -> {
                     if (isSelectedMailbox) {
-                        selectedMailbox.addRecent(messageId.getUid());
+                        for (ComposedMessageId messageId : messageIds) {
+                            selectedMailbox.addRecent(messageId.getUid());
+                        }
                     }
-                    return messageId;
+                    return messageIds;
                 }).sneakyThrow())
-            .flatMap(messageId -> unsolicitedResponses(session, responder, false).thenReturn(messageId))
-            .doOnNext(Throwing.consumer(messageId -> {
+            .flatMap(messageIds -> unsolicitedResponses(session, responder, false).thenReturn(messageIds))
+            .doOnNext(Throwing.consumer(messageIds -> {
                 // get folder UIDVALIDITY
                 UidValidity uidValidity = mailbox
                     .getMailboxEntity()
                     .getUidValidity();
-                okComplete(request, ResponseCode.appendUid(uidValidity, new UidRange[] { new UidRange(messageId.getUid()) }), responder);
+                okComplete(request, ResponseCode.appendUid(uidValidity, uidRanges(messageIds)), responder);
             }))
             .then();
     }
 
+    private UidRange[] uidRanges(List<ComposedMessageId> messageIds) {
+        List<UidRange> uidsAsRanges = messageIds.stream()
+            .map(messageId -> new UidRange(messageId.getUid()))
+            .collect(ImmutableList.toImmutableList());
+        return UidRange.mergeRanges(uidsAsRanges).toArray(UidRange[]::new);
+    }
+
     @Override
     protected MDCBuilder mdc(AppendRequest request) {
         return MDCBuilder.create()
@@ -108,6 +108,9 @@ public class DefaultProcessor implements ImapProcessor {
             builder.add(new SetAnnotationProcessor(mailboxManager, statusResponseFactory, metricFactory));
             builder.add(new GetAnnotationProcessor(mailboxManager, statusResponseFactory, metricFactory));
         }
+        if (mailboxManager.hasCapability(MailboxManager.MailboxCapabilities.AccountWideEvents)) {
+            builder.add(new NotifyProcessor(mailboxManager, eventBus, subscriptionManager, statusResponseFactory, metricFactory));
+        }
 
         ImmutableList<AbstractProcessor> processors = builder.build();
 
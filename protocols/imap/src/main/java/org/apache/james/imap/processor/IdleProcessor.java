@@ -126,8 +126,15 @@ public class IdleProcessor extends AbstractMailboxProcessor<IdleRequest> impleme
                         // outlook client, but can't harm for other clients
                         // too.
                         // See IMAP-272
+                        //
+                        // Heartbeats are held back while the client is not reading what we already sent.
                         StatusResponse response = getStatusResponseFactory().untaggedOk(HumanReadableText.HEARTBEAT);
-                        responder.respond(response);
+                        session.awaitWritable()
+                            .then(Mono.fromRunnable(() -> {
+                                responder.respond(response);
+                                responder.flush();
+                            }))
+                            .subscribe();
 
                         // schedule the heartbeat again for the next interval
                         session.schedule(this, heartbeatInterval);
@@ -164,7 +171,8 @@ public class IdleProcessor extends AbstractMailboxProcessor<IdleRequest> impleme
 
         @Override
         public Publisher<Void> reactiveEvent(Event event) {
-            return unsolicitedResponses(session, responder, false);
+            return unsolicitedResponses(session, responder, false)
+                .then(Mono.fromRunnable(responder::flush));
         }
 
         @Override
@@ -19,10 +19,17 @@
 
 package org.apache.james.imap.processor;
 
+import static org.apache.james.mailbox.MailboxManager.MailboxSearchFetchType.Counters;
 import static org.apache.james.mailbox.MailboxManager.MailboxSearchFetchType.Minimal;
 
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.james.imap.api.ImapConstants;
 import org.apache.james.imap.api.display.HumanReadableText;
 import org.apache.james.imap.api.display.ModifiedUtf7;
+import org.apache.james.imap.api.message.Capability;
+import org.apache.james.imap.api.message.StatusDataItems;
 import org.apache.james.imap.api.message.response.ImapResponseMessage;
 import org.apache.james.imap.api.message.response.StatusResponseFactory;
 import org.apache.james.imap.api.process.ImapSession;
@@ -30,10 +37,15 @@ import org.apache.james.imap.api.process.MailboxType;
 import org.apache.james.imap.main.PathConverter;
 import org.apache.james.imap.message.request.ListRequest;
 import org.apache.james.imap.message.response.ListResponse;
+import org.apache.james.imap.message.response.MailboxStatusResponse;
 import org.apache.james.mailbox.MailboxManager;
 import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.MessageManager.MailboxMetaData.FetchGroup;
+import org.apache.james.mailbox.MessageManager.MailboxMetaData.RecentMode;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.model.MailboxConstants;
+import org.apache.james.mailbox.model.MailboxCounters;
 import org.apache.james.mailbox.model.MailboxMetaData;
 import org.apache.james.mailbox.model.MailboxPath;
 import org.apache.james.mailbox.model.search.MailboxQuery;
@@ -45,10 +57,16 @@ import org.apache.james.util.ReactorUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.github.fge.lambdas.Throwing;
+import com.google.common.collect.ImmutableList;
+
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
-public class ListProcessor<T extends ListRequest> extends AbstractMailboxProcessor<T> {
+public class ListProcessor<T extends ListRequest> extends AbstractMailboxProcessor<T> implements CapabilityImplementingProcessor {
     private static final Logger LOGGER = LoggerFactory.getLogger(ListProcessor.class);
+    private static final List<Capability> CAPABILITIES = ImmutableList.of(ImapConstants.SUPPORTS_LIST_STATUS);
 
     public ListProcessor(MailboxManager mailboxManager, StatusResponseFactory factory, MetricFactory metricFactory) {
         this((Class<T>) ListRequest.class, mailboxManager, factory, metricFactory);
@@ -58,6 +76,11 @@ public class ListProcessor<T extends ListRequest> extends AbstractMailboxProcess
         super(clazz, mailboxManager, factory, metricFactory);
     }
 
+    @Override
+    public List<Capability> getImplementedCapabilities(ImapSession session) {
+        return CAPABILITIES;
+    }
+
     /**
      * (from rfc3501)<br>
      * The LIST command returns a subset of names from the complete set of all
@@ -77,7 +100,7 @@ public class ListProcessor<T extends ListRequest> extends AbstractMailboxProcess
         String mailboxPatternString = request.getMailboxPattern();
         MailboxSession mailboxSession = session.getMailboxSession();
 
-        return respond(session, responder, baseReferenceName, mailboxPatternString, mailboxSession)
+        return respond(session, responder, baseReferenceName, mailboxPatternString, request.getStatusDataItems(), mailboxSession)
             .then(Mono.fromRunnable(() -> okComplete(request, responder)))
             .onErrorResume(MailboxException.class, e -> {
                 no(request, responder, HumanReadableText.SEARCH_FAILED);
@@ -86,11 +109,12 @@ public class ListProcessor<T extends ListRequest> extends AbstractMailboxProcess
             .then();
     }
 
-    private Mono<Void> respond(ImapSession session, Responder responder, String baseReferenceName, String mailboxPatternString, MailboxSession mailboxSession) {
+    private Mono<Void> respond(ImapSession session, Responder responder, String baseReferenceName, String mailboxPatternString,
+                               Optional<StatusDataItems> statusDataItems, MailboxSession mailboxSession) {
         if (mailboxPatternString.length() == 0) {
             return Mono.fromRunnable(() -> respondNamespace(baseReferenceName, responder, mailboxSession));
         } else {
-            return respondMailboxList(baseReferenceName, mailboxPatternString, session, responder, mailboxSession);
+            return respondMailboxList(baseReferenceName, mailboxPatternString, statusDataItems, session, responder, mailboxSession);
         }
     }
 
@@ -127,7 +151,8 @@ public class ListProcessor<T extends ListRequest> extends AbstractMailboxProcess
         }
     }
 
-    private Mono<Void> respondMailboxList(String referenceName, String mailboxName, ImapSession session, Responder responder, MailboxSession mailboxSession) {
+    private Mono<Void> respondMailboxList(String referenceName, String mailboxName, Optional<StatusDataItems> statusDataItems,
+                                          ImapSession session, Responder responder, MailboxSession mailboxSession) {
         // If the mailboxPattern is fully qualified, ignore the
         // reference name.
         String finalReferencename = referenceName;
@@ -139,12 +164,89 @@ public class ListProcessor<T extends ListRequest> extends AbstractMailboxProcess
         boolean isRelative = ((finalReferencename + mailboxName).charAt(0) != MailboxConstants.NAMESPACE_PREFIX_CHAR);
 
         MailboxPath basePath = computeBasePath(session, finalReferencename, isRelative);
+        MailboxQuery mailboxQuery = mailboxQuery(basePath, mailboxName, mailboxSession);
 
-        return getMailboxManager().search(mailboxQuery(basePath, mailboxName, mailboxSession), Minimal, mailboxSession)
+        if (statusDataItems.isPresent()) {
+            return respondMailboxListWithStatus(mailboxQuery, statusDataItems.get(), isRelative, session, responder, mailboxSession);
+        }
+        return getMailboxManager().search(mailboxQuery, Minimal, mailboxSession)
             .doOnNext(metaData -> processResult(responder, isRelative, metaData, getMailboxType(session, metaData.getPath())))
             .then();
     }
 
+    /**
+     * RFC-5819 LIST-STATUS: MESSAGES and UNSEEN are served by the counters the {@link MailboxManager} retrieves in a
+     * single batch for all listed mailboxes. Other status items require a concurrent per mailbox metadata read.
+     *
+     * Each LIST response is immediately followed by the STATUS response of the same mailbox. A mailbox for which
+     * status can not be computed is listed without STATUS response.
+     */
+    private Mono<Void> respondMailboxListWithStatus(MailboxQuery mailboxQuery, StatusDataItems statusDataItems, boolean isRelative,
+                                                    ImapSession session, Responder responder, MailboxSession mailboxSession) {
+        if (statusDataItems.isHighestModSeq()) {
+            // Enable CONDSTORE as this is a CONDSTORE enabling command
+            condstoreEnablingCommand(session, responder, null, false);
+        }
+
+        return getMailboxManager().search(mailboxQuery, Counters, mailboxSession)
+            .flatMap(metaData -> retrieveStatus(metaData, statusDataItems, isRelative, mailboxSession)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .map(status -> Tuples.of(metaData, status)), ReactorUtils.DEFAULT_CONCURRENCY)
+            .doOnNext((Tuple2<MailboxMetaData, Optional<MailboxStatusResponse>> result) -> {
+                MailboxMetaData metaData = result.getT1();
+                processResult(responder, isRelative, metaData, getMailboxType(session, metaData.getPath()));
+                result.getT2().ifPresent(responder::respond);
+            })
+            .then();
+    }
+
+    private Mono<MailboxStatusResponse> retrieveStatus(MailboxMetaData metaData, StatusDataItems statusDataItems, boolean isRelative, MailboxSession mailboxSession) {
+        if (metaData.getSelectability() == MailboxMetaData.Selectability.NOSELECT) {
+            return Mono.empty();
+        }
+        String mailboxName = ModifiedUtf7.encodeModifiedUTF7(mailboxName(isRelative, metaData.getPath(), metaData.getHierarchyDelimiter()));
+        MailboxCounters counters = metaData.getCounters();
+
+        if (!statusDataItems.isRecent() && !statusDataItems.isUidNext() && !statusDataItems.isUidValidity() && !statusDataItems.isHighestModSeq()) {
+            return Mono.just(new MailboxStatusResponse(
+                messages(statusDataItems, counters),
+                null, null, null, null,
+                unseen(statusDataItems, counters),
+                mailboxName));
+        }
+
+        RecentMode recentMode = statusDataItems.isRecent() ? RecentMode.RETRIEVE : RecentMode.IGNORE;
+        return Mono.from(getMailboxManager().getMailboxReactive(metaData.getId(), mailboxSession))
+            .flatMap(Throwing.<MessageManager, Mono<MessageManager.MailboxMetaData>>function(
+                mailbox -> mailbox.getMetaDataReactive(recentMode, mailboxSession, FetchGroup.NO_UNSEEN)).sneakyThrow())
+            .map(mailboxMetaData -> new MailboxStatusResponse(
+                messages(statusDataItems, counters),
+                statusDataItems.isRecent() ? mailboxMetaData.countRecent() : null,
+                statusDataItems.isUidNext() ? mailboxMetaData.getUidNext() : null,
+                statusDataItems.isHighestModSeq() ? mailboxMetaData.getHighestModSeq() : null,
+                statusDataItems.isUidValidity() ? mailboxMetaData.getUidValidity() : null,
+                unseen(statusDataItems, counters),
+                mailboxName))
+            .onErrorResume(MailboxException.class, e -> ReactorUtils.logAsMono(
+                () -> LOGGER.warn("Could not compute status of {} for LIST-STATUS", metaData.getPath(), e))
+                .then(Mono.empty()));
+    }
+
+    private Long messages(StatusDataItems statusDataItems, MailboxCounters counters) {
+        if (statusDataItems.isMessages()) {
+            return counters.getCount();
+        }
+        return null;
+    }
+
+    private Long unseen(StatusDataItems statusDataItems, MailboxCounters counters) {
+        if (statusDataItems.isUnseen()) {
+            return counters.getUnseen();
+        }
+        return null;
+    }
+
     private MailboxQuery mailboxQuery(MailboxPath basePath, String mailboxName, MailboxSession mailboxSession) {
         if (basePath.getNamespace().equals(MailboxConstants.USER_NAMESPACE)
             && basePath.getUser().equals(mailboxSession.getUser())
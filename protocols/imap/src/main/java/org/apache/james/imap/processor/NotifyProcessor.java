@@ -0,0 +1,314 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.processor;
+
+import static org.apache.james.imap.api.ImapConstants.SUPPORTS_NOTIFY;
+import static org.apache.james.mailbox.MessageManager.MailboxMetaData.RecentMode.IGNORE;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.apache.james.events.Event;
+import org.apache.james.events.EventBus;
+import org.apache.james.events.EventListener;
+import org.apache.james.imap.api.display.HumanReadableText;
+import org.apache.james.imap.api.display.ModifiedUtf7;
+import org.apache.james.imap.api.message.Capability;
+import org.apache.james.imap.api.message.response.ImapResponseMessage;
+import org.apache.james.imap.api.message.response.StatusResponse.ResponseCode;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.api.process.ImapSession;
+import org.apache.james.imap.api.process.SelectedMailbox;
+import org.apache.james.imap.main.PathConverter;
+import org.apache.james.imap.message.request.NotifyRequest;
+import org.apache.james.imap.message.request.NotifyRequest.EventGroup;
+import org.apache.james.imap.message.request.NotifyRequest.EventType;
+import org.apache.james.imap.message.request.NotifyRequest.FilterType;
+import org.apache.james.imap.message.response.MailboxNameNotificationResponse;
+import org.apache.james.imap.message.response.MailboxStatusResponse;
+import org.apache.james.mailbox.MailboxManager;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.MessageManager.MailboxMetaData.FetchGroup;
+import org.apache.james.mailbox.SubscriptionManager;
+import org.apache.james.mailbox.events.MailboxEvents.Added;
+import org.apache.james.mailbox.events.MailboxEvents.Expunged;
+import org.apache.james.mailbox.events.MailboxEvents.FlagsUpdated;
+import org.apache.james.mailbox.events.MailboxEvents.MailboxAdded;
+import org.apache.james.mailbox.events.MailboxEvents.MailboxDeletion;
+import org.apache.james.mailbox.events.MailboxEvents.MailboxEvent;
+import org.apache.james.mailbox.events.MailboxEvents.MailboxRenamed;
+import org.apache.james.mailbox.events.UsernameRegistrationKey;
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.model.MailboxId;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.search.MailboxQuery;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.util.MDCBuilder;
+import org.apache.james.util.ReactorUtils;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.fge.lambdas.Throwing;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Implements RFC-5465 NOTIFY.
+ *
+ * A single registration on the event bus, keyed by the user, backs the notifications of all the mailboxes
+ * of the account. Changes of the selected mailbox keep being reported through the usual unsolicited
+ * responses.
+ */
+public class NotifyProcessor extends AbstractMailboxProcessor<NotifyRequest> implements CapabilityImplementingProcessor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(NotifyProcessor.class);
+
+    private static final List<Capability> CAPS = ImmutableList.of(SUPPORTS_NOTIFY);
+    private static final Set<EventType> SUPPORTED_EVENTS = Sets.immutableEnumSet(EventType.MESSAGE_NEW, EventType.MESSAGE_EXPUNGE,
+        EventType.FLAG_CHANGE, EventType.MAILBOX_NAME);
+    private static final List<String> SUPPORTED_EVENT_NAMES = SUPPORTED_EVENTS.stream()
+        .map(EventType::asString)
+        .collect(ImmutableList.toImmutableList());
+
+    private final EventBus eventBus;
+    private final SubscriptionManager subscriptionManager;
+
+    public NotifyProcessor(MailboxManager mailboxManager, EventBus eventBus, SubscriptionManager subscriptionManager,
+                           StatusResponseFactory factory, MetricFactory metricFactory) {
+        super(NotifyRequest.class, mailboxManager, factory, metricFactory);
+        this.eventBus = eventBus;
+        this.subscriptionManager = subscriptionManager;
+    }
+
+    @Override
+    public List<Capability> getImplementedCapabilities(ImapSession session) {
+        return CAPS;
+    }
+
+    @Override
+    protected Mono<Void> processRequestReactive(NotifyRequest request, ImapSession session, Responder responder) {
+        if (request.isNone()) {
+            return session.setNotifyRegistration(Optional.empty())
+                .then(Mono.fromRunnable(() -> okComplete(request, responder)));
+        }
+        if (!unsupportedEvents(request).isEmpty()) {
+            // Notifications stay disabled until the client issues a NOTIFY command the server can honor
+            return session.setNotifyRegistration(Optional.empty())
+                .then(Mono.fromRunnable(() -> no(request, responder, HumanReadableText.UNSUPPORTED_NOTIFY_EVENT,
+                    ResponseCode.badEvent(SUPPORTED_EVENT_NAMES))));
+        }
+
+        MailboxSession mailboxSession = session.getMailboxSession();
+        return notifyFilter(request, session)
+            .flatMap(filter -> Mono.from(eventBus.register(new NotifyListener(session, responder, filter),
+                    new UsernameRegistrationKey(mailboxSession.getUser())))
+                .flatMap(registration -> session.setNotifyRegistration(Optional.of(registration)))
+                .then(initialStatuses(request, filter, session, responder)))
+            .then(Mono.fromRunnable(() -> okComplete(request, responder)));
+    }
+
+    private Set<EventType> unsupportedEvents(NotifyRequest request) {
+        return request.getEventGroups().stream()
+            .flatMap(eventGroup -> eventGroup.getEvents().stream())
+            .filter(Predicate.not(SUPPORTED_EVENTS::contains))
+            .collect(ImmutableSet.toImmutableSet());
+    }
+
+    private Mono<NotifyFilter> notifyFilter(NotifyRequest request, ImapSession session) {
+        PathConverter pathConverter = PathConverter.forSession(session);
+        boolean needsSubscriptions = request.getEventGroups().stream()
+            .anyMatch(eventGroup -> eventGroup.getFilterType() == FilterType.SUBSCRIBED);
+        if (!needsSubscriptions) {
+            return Mono.just(new NotifyFilter(request.getEventGroups(), ImmutableSet.of(), session.getMailboxSession(), pathConverter));
+        }
+        // Subscriptions are evaluated once, when the NOTIFY command is issued
+        return Mono.fromCallable(() -> subscriptionManager.subscriptionsReactive(session.getMailboxSession()))
+            .flatMapMany(Flux::from)
+            .map(pathConverter::buildFullPath)
+            .collect(ImmutableSet.toImmutableSet())
+            .map(subscriptions -> new NotifyFilter(request.getEventGroups(), subscriptions, session.getMailboxSession(), pathConverter));
+    }
+
+    private Mono<Void> initialStatuses(NotifyRequest request, NotifyFilter filter, ImapSession session, Responder responder) {
+        if (!request.isStatusIndicator()) {
+            return Mono.empty();
+        }
+        MailboxSession mailboxSession = session.getMailboxSession();
+        return getMailboxManager().search(MailboxQuery.privateMailboxesBuilder(mailboxSession).build(), MailboxManager.MailboxSearchFetchType.Minimal, mailboxSession)
+            .filter(metaData -> !isSelected(session, metaData.getId()))
+            .filter(metaData -> filter.eventsFor(metaData.getPath()).contains(EventType.MESSAGE_NEW))
+            .concatMap(metaData -> statusResponse(metaData.getId(), metaData.getPath(), mailboxSession))
+            .doOnNext(responder::respond)
+            .then();
+    }
+
+    private Mono<MailboxStatusResponse> statusResponse(MailboxId mailboxId, MailboxPath path, MailboxSession mailboxSession) {
+        return Mono.from(getMailboxManager().getMailboxReactive(mailboxId, mailboxSession))
+            .flatMap(Throwing.<MessageManager, Mono<MessageManager.MailboxMetaData>>function(
+                mailbox -> mailbox.getMetaDataReactive(IGNORE, mailboxSession, FetchGroup.UNSEEN_COUNT)).sneakyThrow())
+            .map(metaData -> new MailboxStatusResponse(metaData.getMessageCount(), null, metaData.getUidNext(), null, null,
+                metaData.getUnseenCount(), ModifiedUtf7.encodeModifiedUTF7(path.getName())))
+            .onErrorResume(MailboxException.class, e -> ReactorUtils.logAsMono(
+                () -> LOGGER.warn("Could not compute status of {} for NOTIFY", path, e))
+                .then(Mono.empty()));
+    }
+
+    private static boolean isSelected(ImapSession session, MailboxId mailboxId) {
+        SelectedMailbox selected = session.getSelected();
+        return selected != null && selected.getMailboxId().equals(mailboxId);
+    }
+
+    /**
+     * Resolves the events a client asked to be notified about for a given mailbox.
+     *
+     * Only mailboxes of the user personal namespace are notified. The first event group whose filter matches
+     * the mailbox applies.
+     */
+    static class NotifyFilter {
+        private final List<EventGroup> eventGroups;
+        private final Set<MailboxPath> subscriptions;
+        private final MailboxSession mailboxSession;
+        private final PathConverter pathConverter;
+
+        NotifyFilter(List<EventGroup> eventGroups, Set<MailboxPath> subscriptions, MailboxSession mailboxSession, PathConverter pathConverter) {
+            this.eventGroups = eventGroups;
+            this.subscriptions = subscriptions;
+            this.mailboxSession = mailboxSession;
+            this.pathConverter = pathConverter;
+        }
+
+        Set<EventType> eventsFor(MailboxPath path) {
+            if (!path.belongsTo(mailboxSession)) {
+                return ImmutableSet.of();
+            }
+            return eventGroups.stream()
+                .filter(eventGroup -> matches(eventGroup, path))
+                .findFirst()
+                .map(EventGroup::getEvents)
+                .orElse(ImmutableSet.of());
+        }
+
+        private boolean matches(EventGroup eventGroup, MailboxPath path) {
+            switch (eventGroup.getFilterType()) {
+                case INBOXES:
+                    return path.isInbox();
+                case PERSONAL:
+                    return true;
+                case SUBSCRIBED:
+                    return subscriptions.contains(path);
+                case SUBTREE:
+                    return eventGroup.getMailboxes().stream()
+                        .map(pathConverter::buildFullPath)
+                        .anyMatch(root -> root.equals(path) || path.getParents(mailboxSession.getPathDelimiter()).contains(root));
+                case MAILBOXES:
+                    return eventGroup.getMailboxes().stream()
+                        .map(pathConverter::buildFullPath)
+                        .anyMatch(path::equals);
+                default:
+                    // The selected mailbox is reported through the usual unsolicited responses
+                    return false;
+            }
+        }
+    }
+
+    private class NotifyListener implements EventListener.ReactiveEventListener {
+        private final ImapSession session;
+        private final Responder responder;
+        private final NotifyFilter filter;
+
+        NotifyListener(ImapSession session, Responder responder, NotifyFilter filter) {
+            this.session = session;
+            this.responder = responder;
+            this.filter = filter;
+        }
+
+        @Override
+        public boolean isHandling(Event event) {
+            return event instanceof Added || event instanceof Expunged || event instanceof FlagsUpdated
+                || event instanceof MailboxAdded || event instanceof MailboxDeletion || event instanceof MailboxRenamed;
+        }
+
+        @Override
+        public Publisher<Void> reactiveEvent(Event event) {
+            MailboxEvent mailboxEvent = (MailboxEvent) event;
+            MailboxSession mailboxSession = session.getMailboxSession();
+            if (mailboxSession == null || mailboxEvent.getSessionId().equals(mailboxSession.getSessionId())) {
+                // Changes caused by this client are already known to it
+                return Mono.empty();
+            }
+            return notification(mailboxEvent, mailboxSession)
+                .flatMap(response -> session.awaitWritable()
+                    .then(Mono.fromRunnable(() -> session.writeUnsolicited(() -> {
+                        responder.respond(response);
+                        responder.flush();
+                    }))))
+                .then();
+        }
+
+        private Mono<ImapResponseMessage> notification(MailboxEvent event, MailboxSession mailboxSession) {
+            char delimiter = mailboxSession.getPathDelimiter();
+            if (event instanceof MailboxRenamed) {
+                MailboxRenamed renamed = (MailboxRenamed) event;
+                if (filter.eventsFor(renamed.getMailboxPath()).contains(EventType.MAILBOX_NAME)
+                    || filter.eventsFor(renamed.getNewPath()).contains(EventType.MAILBOX_NAME)) {
+                    return Mono.just(MailboxNameNotificationResponse.renamed(renamed.getMailboxPath().getName(), renamed.getNewPath().getName(), delimiter));
+                }
+                return Mono.empty();
+            }
+            Set<EventType> events = filter.eventsFor(event.getMailboxPath());
+            if (event instanceof MailboxAdded && events.contains(EventType.MAILBOX_NAME)) {
+                return Mono.just(MailboxNameNotificationResponse.created(event.getMailboxPath().getName(), delimiter));
+            }
+            if (event instanceof MailboxDeletion && events.contains(EventType.MAILBOX_NAME)) {
+                return Mono.just(MailboxNameNotificationResponse.deleted(event.getMailboxPath().getName(), delimiter));
+            }
+            if (isSelected(session, event.getMailboxId())) {
+                return Mono.empty();
+            }
+            if ((event instanceof Added && events.contains(EventType.MESSAGE_NEW))
+                || (event instanceof Expunged && events.contains(EventType.MESSAGE_EXPUNGE))
+                || (event instanceof FlagsUpdated && events.contains(EventType.FLAG_CHANGE))) {
+                return statusResponse(event.getMailboxId(), event.getMailboxPath(), mailboxSession)
+                    .map(ImapResponseMessage.class::cast);
+            }
+            return Mono.empty();
+        }
+
+        @Override
+        public ExecutionMode getExecutionMode() {
+            return ExecutionMode.ASYNCHRONOUS;
+        }
+    }
+
+    @Override
+    protected MDCBuilder mdc(NotifyRequest request) {
+        return MDCBuilder.create()
+            .addToContext(MDCBuilder.ACTION, "NOTIFY")
+            .addToContext("statusIndicator", Boolean.toString(request.isStatusIndicator()))
+            .addToContext("eventGroups", request.getEventGroups().toString());
+    }
+}
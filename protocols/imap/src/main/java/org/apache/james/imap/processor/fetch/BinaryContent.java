@@ -0,0 +1,147 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.processor.fetch;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeUtility;
+
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.model.Content;
+import org.apache.james.mailbox.model.Header;
+import org.apache.james.mailbox.model.MailboxId;
+import org.apache.james.mailbox.model.MimePath;
+
+import com.google.common.cache.Cache;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteStreams;
+
+/**
+ * Content of a MIME part with its Content-Transfer-Encoding decoded, as required by RFC-3516 <code>BINARY</code>.
+ *
+ * Decoding is streamed. Literals need their size upfront: decoded sizes are computed by decoding once then cached,
+ * which also allows <code>BINARY.SIZE</code> to be answered without decoding again.
+ */
+final class BinaryContent implements Content {
+    static final class Section {
+        private final MailboxId mailboxId;
+        private final MessageUid uid;
+        private final MimePath path;
+
+        Section(MailboxId mailboxId, MessageUid uid, MimePath path) {
+            this.mailboxId = mailboxId;
+            this.uid = uid;
+            this.path = path;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o instanceof Section) {
+                Section that = (Section) o;
+
+                return Objects.equals(this.mailboxId, that.mailboxId)
+                    && Objects.equals(this.uid, that.uid)
+                    && Objects.equals(this.path, that.path);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(mailboxId, uid, path);
+        }
+    }
+
+    private static final String CONTENT_TRANSFER_ENCODING = "Content-Transfer-Encoding";
+    private static final ImmutableSet<String> IDENTITY_ENCODINGS = ImmutableSet.of("7bit", "8bit", "binary");
+    private static final ImmutableSet<String> DECODABLE_ENCODINGS = ImmutableSet.of("base64", "quoted-printable", "uuencode", "x-uuencode", "x-uue");
+
+    /**
+     * @param headers MIME headers of the part
+     * @throws UnknownContentTransferEncodingException when the part encoding can not be decoded
+     */
+    static Content of(Content encoded, Iterator<Header> headers, Section section, Cache<Section, Long> decodedSizes) throws MailboxException {
+        Optional<String> encoding = contentTransferEncoding(headers);
+        if (encoding.isEmpty() || IDENTITY_ENCODINGS.contains(encoding.get())) {
+            return encoded;
+        }
+        if (!DECODABLE_ENCODINGS.contains(encoding.get())) {
+            throw new UnknownContentTransferEncodingException(encoding.get());
+        }
+        return new BinaryContent(encoded, encoding.get(), section, decodedSizes);
+    }
+
+    private static Optional<String> contentTransferEncoding(Iterator<Header> headers) {
+        while (headers.hasNext()) {
+            Header header = headers.next();
+            if (header.getName().equalsIgnoreCase(CONTENT_TRANSFER_ENCODING)) {
+                // Ignore comments and parameters
+                String value = header.getValue().trim().split("[\\s(;]", 2)[0];
+                return Optional.of(value.toLowerCase(Locale.US))
+                    .filter(s -> !s.isEmpty());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private final Content encoded;
+    private final String encoding;
+    private final Section section;
+    private final Cache<Section, Long> decodedSizes;
+
+    private BinaryContent(Content encoded, String encoding, Section section, Cache<Section, Long> decodedSizes) {
+        this.encoded = encoded;
+        this.encoding = encoding;
+        this.section = section;
+        this.decodedSizes = decodedSizes;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        try {
+            return MimeUtility.decode(encoded.getInputStream(), encoding);
+        } catch (MessagingException e) {
+            throw new IOException("Unable to decode " + encoding + " content", e);
+        }
+    }
+
+    @Override
+    public long size() throws MailboxException {
+        try {
+            return decodedSizes.get(section, this::decodedSize);
+        } catch (ExecutionException e) {
+            throw new MailboxException("Unable to compute decoded size", e.getCause());
+        }
+    }
+
+    private long decodedSize() throws IOException {
+        try (InputStream decoded = getInputStream()) {
+            return ByteStreams.exhaust(decoded);
+        }
+    }
+}
@@ -50,6 +50,9 @@ class FetchDataConverter {
                     case CONTENT:
                         if (isBase) {
                             result = addContent(result, path, isBase, FetchGroup.Profile.FULL_CONTENT);
+                        } else if (element.getKind() != BodyFetchElement.Kind.BODY) {
+                            // BINARY decoding needs the Content-Transfer-Encoding of the part
+                            result = addContent(result, path, isBase, FetchGroup.Profile.MIME_CONTENT, FetchGroup.Profile.MIME_HEADERS);
                         } else {
                             result = addContent(result, path, isBase, FetchGroup.Profile.MIME_CONTENT);
                         }
@@ -74,12 +77,12 @@ class FetchDataConverter {
         return result;
     }
 
-    private static FetchGroup addContent(FetchGroup result, int[] path, boolean isBase, FetchGroup.Profile profile) {
+    private static FetchGroup addContent(FetchGroup result, int[] path, boolean isBase, FetchGroup.Profile... profiles) {
         if (isBase) {
-            return result.with(profile);
+            return result.with(profiles);
         } else {
             MimePath mimePath = new MimePath(path);
-            return result.addPartContent(mimePath, profile);
+            return result.addPartContent(mimePath, profiles);
         }
     }
 }
@@ -32,12 +32,14 @@ import org.apache.james.imap.api.message.Capability;
 import org.apache.james.imap.api.message.FetchData;
 import org.apache.james.imap.api.message.FetchData.Item;
 import org.apache.james.imap.api.message.IdRange;
+import org.apache.james.imap.api.message.response.StatusResponse;
 import org.apache.james.imap.api.message.response.StatusResponseFactory;
 import org.apache.james.imap.api.process.ImapSession;
 import org.apache.james.imap.api.process.SelectedMailbox;
 import org.apache.james.imap.message.request.FetchRequest;
 import org.apache.james.imap.message.response.FetchResponse;
 import org.apache.james.imap.processor.AbstractMailboxProcessor;
+import org.apache.james.imap.processor.CapabilityImplementingProcessor;
 import org.apache.james.imap.processor.EnableProcessor;
 import org.apache.james.mailbox.MailboxManager;
 import org.apache.james.mailbox.MailboxSession;
@@ -46,6 +48,7 @@ import org.apache.james.mailbox.MessageManager.MailboxMetaData;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.exception.MessageRangeException;
 import org.apache.james.mailbox.model.FetchGroup;
+import org.apache.james.mailbox.model.MessageMetaData;
 import org.apache.james.mailbox.model.MessageRange;
 import org.apache.james.mailbox.model.MessageResult;
 import org.apache.james.metrics.api.MetricFactory;
@@ -55,12 +58,21 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.fge.lambdas.Throwing;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-public class FetchProcessor extends AbstractMailboxProcessor<FetchRequest> {
+public class FetchProcessor extends AbstractMailboxProcessor<FetchRequest> implements CapabilityImplementingProcessor {
     private static final Logger LOGGER = LoggerFactory.getLogger(FetchProcessor.class);
+    private static final List<Capability> CAPABILITIES = ImmutableList.of(ImapConstants.SUPPORTS_BINARY);
+    private static final long DECODED_SIZES_CACHE_SIZE = 10_000;
+
+    private final Cache<BinaryContent.Section, Long> decodedSizes = CacheBuilder.newBuilder()
+        .maximumSize(DECODED_SIZES_CACHE_SIZE)
+        .build();
 
     public FetchProcessor(MailboxManager mailboxManager, StatusResponseFactory factory,
                           MetricFactory metricFactory) {
@@ -106,6 +118,11 @@ public class FetchProcessor extends AbstractMailboxProcessor<FetchRequest> {
                 taggedBad(request, responder, HumanReadableText.INVALID_MESSAGESET);
                 return Mono.empty();
             })
+            .doOnEach(logOnError(UnknownContentTransferEncodingException.class, e -> LOGGER.debug("Fetch failed for mailbox {} and sequence-set {}", session.getSelected().getMailboxId(), idSet, e)))
+            .onErrorResume(UnknownContentTransferEncodingException.class, e -> {
+                no(request, responder, HumanReadableText.UNKNOWN_CTE, StatusResponse.ResponseCode.unknownCte());
+                return Mono.empty();
+            })
             .doOnEach(logOnError(MailboxException.class, e -> LOGGER.error("Fetch failed for mailbox {} and sequence-set {}", session.getSelected().getMailboxId(), idSet, e)))
             .onErrorResume(MailboxException.class, e -> {
                 no(request, responder, HumanReadableText.SEARCH_FAILED);
@@ -133,7 +150,7 @@ public class FetchProcessor extends AbstractMailboxProcessor<FetchRequest> {
             respondVanished(selected, ranges, responder);
         }
         boolean omitExpunged = (!useUids);
-        return processMessageRanges(selected, mailbox, ranges, fetch, mailboxSession, responder)
+        return processMessageRanges(selected, mailbox, ranges, fetch, mailboxSession, responder, session)
             // Don't send expunge responses if FETCH is used to trigger this
             // processor. See IMAP-284
             .then(unsolicitedResponses(session, responder, omitExpunged, useUids))
@@ -153,30 +170,59 @@ public class FetchProcessor extends AbstractMailboxProcessor<FetchRequest> {
     /**
      * Process the given message ranges by fetch them and pass them to the
      * {@link org.apache.james.imap.api.process.ImapProcessor.Responder}
+     *
+     * Each message is only fetched once the connection is writable so that slow clients do not
+     * cause responses to pile up in memory.
      */
-    private Mono<Void> processMessageRanges(SelectedMailbox selected, MessageManager mailbox, List<MessageRange> ranges, FetchData fetch, MailboxSession mailboxSession, Responder responder) throws MailboxException {
-        FetchResponseBuilder builder = new FetchResponseBuilder(new EnvelopeBuilder());
+    private Mono<Void> processMessageRanges(SelectedMailbox selected, MessageManager mailbox, List<MessageRange> ranges, FetchData fetch, MailboxSession mailboxSession, Responder responder, ImapSession session) throws MailboxException {
+        FetchResponseBuilder builder = new FetchResponseBuilder(new EnvelopeBuilder(), decodedSizes);
         FetchGroup resultToFetch = FetchDataConverter.getFetchGroup(fetch);
 
         return Flux.fromIterable(ranges)
             .concatMap(range -> {
                 if (fetch.isOnlyFlags()) {
-                    return processMessageRangeForFlags(selected, mailbox, fetch, mailboxSession, responder, builder, range);
+                    return processMessageRangeForFlags(selected, mailbox, fetch, mailboxSession, responder, builder, range, session);
+                } else if (fetch.isOnlyMetadata()) {
+                    return processMessageRangeForMetadata(selected, mailbox, fetch, mailboxSession, responder, builder, range, session);
                 } else {
-                    return processMessageRange(selected, mailbox, fetch, mailboxSession, responder, builder, resultToFetch, range);
+                    return processMessageRange(selected, mailbox, fetch, mailboxSession, responder, builder, resultToFetch, range, session);
                 }
             })
             .then();
     }
 
-    private Mono<Void> processMessageRangeForFlags(SelectedMailbox selected, MessageManager mailbox, FetchData fetch, MailboxSession mailboxSession, Responder responder, FetchResponseBuilder builder, MessageRange range) {
+    private Mono<Void> processMessageRangeForFlags(SelectedMailbox selected, MessageManager mailbox, FetchData fetch, MailboxSession mailboxSession, Responder responder, FetchResponseBuilder builder, MessageRange range, ImapSession session) {
         return Flux.from(mailbox.listMessagesMetadata(range, mailboxSession))
             .filter(ids -> !fetch.contains(Item.MODSEQ) || ids.getModSeq().asLong() > fetch.getChangedSince())
-            .concatMap(result -> toResponse(mailbox, fetch, mailboxSession, builder, selected, result))
+            .concatMap(result -> session.awaitWritable()
+                .then(Mono.defer(() -> toResponse(mailbox, fetch, mailboxSession, builder, selected, result))))
+            .doOnNext(responder::respond)
+            .then();
+    }
+
+    private Mono<Void> processMessageRangeForMetadata(SelectedMailbox selected, MessageManager mailbox, FetchData fetch, MailboxSession mailboxSession, Responder responder, FetchResponseBuilder builder, MessageRange range, ImapSession session) {
+        return Flux.from(mailbox.listMessagesMetadataWithSize(range, mailboxSession))
+            .filter(metaData -> !fetch.contains(Item.MODSEQ) || metaData.getModSeq().asLong() > fetch.getChangedSince())
+            .concatMap(metaData -> session.awaitWritable()
+                .then(Mono.defer(() -> toResponse(mailbox, fetch, mailboxSession, builder, selected, metaData))))
             .doOnNext(responder::respond)
             .then();
     }
 
+    private Mono<FetchResponse> toResponse(MessageManager mailbox, FetchData fetch, MailboxSession mailboxSession, FetchResponseBuilder builder, SelectedMailbox selected, MessageMetaData metaData) {
+        try {
+            return builder.build(fetch, metaData, mailbox, selected, mailboxSession);
+        } catch (MessageRangeException e) {
+            // we can't for whatever reason find the message so
+            // just skip it and log it to debug
+            return ReactorUtils.logAsMono(() -> LOGGER.debug("Unable to find message with uid {}", metaData.getUid(), e))
+                .then(Mono.empty());
+        } catch (MailboxException e) {
+            return ReactorUtils.logAsMono(() -> LOGGER.error("Unable to fetch message with uid {}, so skip it", metaData.getUid(), e))
+                .then(Mono.empty());
+        }
+    }
+
     private Mono<FetchResponse> toResponse(MessageManager mailbox, FetchData fetch, MailboxSession mailboxSession, FetchResponseBuilder builder, SelectedMailbox selected, org.apache.james.mailbox.model.ComposedMessageIdWithMetaData result) {
         try {
             return builder.build(fetch, result, mailbox, selected, mailboxSession);
@@ -204,6 +250,9 @@ public class FetchProcessor extends AbstractMailboxProcessor<FetchRequest> {
             // just skip it and log it to debug
             return ReactorUtils.logAsMono(() -> LOGGER.debug("Unable to find message with uid {}", result.getUid(), e))
                 .then(Mono.empty());
+        } catch (UnknownContentTransferEncodingException e) {
+            // RFC-3516 requires the whole command to fail with UNKNOWN-CTE
+            return Mono.error(e);
         } catch (MailboxException e) {
             // we can't for whatever reason find parse all requested parts of the message. This may because it was deleted while try to access the parts.
             // So we just skip it
@@ -214,14 +263,20 @@ public class FetchProcessor extends AbstractMailboxProcessor<FetchRequest> {
         }
     }
 
-    private Mono<Void> processMessageRange(SelectedMailbox selected, MessageManager mailbox, FetchData fetch, MailboxSession mailboxSession, Responder responder, FetchResponseBuilder builder, FetchGroup resultToFetch, MessageRange range) {
+    private Mono<Void> processMessageRange(SelectedMailbox selected, MessageManager mailbox, FetchData fetch, MailboxSession mailboxSession, Responder responder, FetchResponseBuilder builder, FetchGroup resultToFetch, MessageRange range, ImapSession session) {
         return Flux.from(mailbox.getMessagesReactive(range, resultToFetch, mailboxSession))
             .filter(ids -> !fetch.contains(Item.MODSEQ) || ids.getModSeq().asLong() > fetch.getChangedSince())
-            .concatMap(result -> toResponse(mailbox, fetch, mailboxSession, builder, selected, result))
+            .concatMap(result -> session.awaitWritable()
+                .then(Mono.defer(() -> toResponse(mailbox, fetch, mailboxSession, builder, selected, result))))
             .doOnNext(responder::respond)
             .then();
     }
 
+    @Override
+    public List<Capability> getImplementedCapabilities(ImapSession session) {
+        return CAPABILITIES;
+    }
+
     @Override
     protected MDCBuilder mdc(FetchRequest request) {
         return MDCBuilder.create()
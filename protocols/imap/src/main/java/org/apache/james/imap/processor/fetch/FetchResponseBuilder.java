@@ -27,7 +27,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import javax.mail.Flags;
@@ -48,14 +50,18 @@ import org.apache.james.mailbox.exception.MessageRangeException;
 import org.apache.james.mailbox.model.ComposedMessageIdWithMetaData;
 import org.apache.james.mailbox.model.Content;
 import org.apache.james.mailbox.model.Header;
+import org.apache.james.mailbox.model.MessageMetaData;
 import org.apache.james.mailbox.model.MessageRange;
 import org.apache.james.mailbox.model.MessageResult;
 import org.apache.james.mailbox.model.MimePath;
 
+import com.google.common.cache.Cache;
+
 import reactor.core.publisher.Mono;
 
 public final class FetchResponseBuilder {
     private final EnvelopeBuilder envelopeBuilder;
+    private final Cache<BinaryContent.Section, Long> decodedSizes;
 
     private MessageSequenceNumber msn;
     private MessageUid uid;
@@ -64,12 +70,14 @@ public final class FetchResponseBuilder {
     private Long size;
     private ModSeq modSeq;
     private List<FetchResponse.BodyElement> elements;
+    private Map<String, Long> binarySizes;
     private FetchResponse.Envelope envelope;
     private FetchResponse.Structure body;
     private FetchResponse.Structure bodystructure;
 
-    public FetchResponseBuilder(EnvelopeBuilder envelopeBuilder) {
+    public FetchResponseBuilder(EnvelopeBuilder envelopeBuilder, Cache<BinaryContent.Section, Long> decodedSizes) {
         this.envelopeBuilder = envelopeBuilder;
+        this.decodedSizes = decodedSizes;
     }
 
     public void reset(MessageSequenceNumber msn) {
@@ -81,6 +89,7 @@ public final class FetchResponseBuilder {
         body = null;
         bodystructure = null;
         elements = null;
+        binarySizes = new LinkedHashMap<>();
         modSeq = null;
     }
 
@@ -98,7 +107,7 @@ public final class FetchResponseBuilder {
     }
 
     public FetchResponse build() {
-        return new FetchResponse(msn, flags, uid, modSeq, internalDate, size, envelope, body, bodystructure, elements);
+        return new FetchResponse(msn, flags, uid, modSeq, internalDate, size, envelope, body, bodystructure, elements, binarySizes);
     }
 
     public Mono<FetchResponse> build(FetchData fetch, MessageResult result, MessageManager mailbox, SelectedMailbox selectedMailbox, MailboxSession mailboxSession) throws MessageRangeException, MailboxException {
@@ -230,6 +239,31 @@ public final class FetchResponseBuilder {
         });
     }
 
+    public Mono<FetchResponse> build(FetchData fetch, MessageMetaData metaData, MessageManager mailbox, SelectedMailbox selectedMailbox, MailboxSession mailboxSession) throws MessageRangeException, MailboxException {
+        final MessageUid resultUid = metaData.getUid();
+        return selectedMailbox.msn(resultUid).fold(() -> {
+            throw new MessageRangeException("No such message found with uid " + resultUid);
+        }, msn -> {
+
+            reset(msn);
+
+            if (fetch.contains(Item.INTERNAL_DATE)) {
+                setInternalDate(metaData.getInternalDate());
+            }
+
+            if (fetch.contains(Item.SIZE)) {
+                setSize(metaData.getSize());
+            }
+
+            addUid(fetch, resultUid);
+
+            addModSeq(fetch, metaData.getModSeq());
+
+            return addFlags(fetch, mailbox, selectedMailbox, resultUid, mailboxSession, metaData.getFlags())
+                .then(Mono.fromCallable(this::build));
+        });
+    }
+
     private FetchResponse.Envelope buildEnvelope(MessageResult result) throws MailboxException {
         return envelopeBuilder.buildEnvelope(result.getHeaders());
     }
@@ -251,8 +285,27 @@ public final class FetchResponseBuilder {
                 .filter(paths -> paths.length > 0)
                 .map(MimePath::new);
         final Collection<String> names = fetchElement.getFieldNames();
-        final FetchResponse.BodyElement fullResult = bodyContent(messageResult, name, specifier, path, names);
-        return wrapIfPartialFetch(firstOctet, numberOfOctets, fullResult);
+        switch (fetchElement.getKind()) {
+            case BINARY:
+                return wrapIfPartialFetch(firstOctet, numberOfOctets, new BinaryBodyElement(name, binaryContent(messageResult, path)));
+            case BINARY_SIZE:
+                binarySizes.put(name, binaryContent(messageResult, path).size());
+                return null;
+            default:
+                final FetchResponse.BodyElement fullResult = bodyContent(messageResult, name, specifier, path, names);
+                return wrapIfPartialFetch(firstOctet, numberOfOctets, fullResult);
+        }
+    }
+
+    private Content binaryContent(MessageResult messageResult, Optional<MimePath> path) throws MailboxException {
+        Content encoded = Optional.ofNullable(getContent(messageResult, path))
+            .orElseGet(EmptyContent::new);
+        if (path.isEmpty()) {
+            // The whole message can not be decoded, as its headers are not subject to the Content-Transfer-Encoding
+            return encoded;
+        }
+        BinaryContent.Section section = new BinaryContent.Section(messageResult.getMailboxId(), messageResult.getUid(), path.get());
+        return BinaryContent.of(encoded, messageResult.iterateMimeHeaders(path.get()), section, decodedSizes);
     }
 
     private FetchResponse.BodyElement bodyContent(MessageResult messageResult, String name, SectionType specifier, Optional<MimePath> path, Collection<String> names) throws MailboxException {
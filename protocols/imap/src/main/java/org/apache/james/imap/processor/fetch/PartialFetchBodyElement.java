@@ -47,6 +47,11 @@ final class PartialFetchBodyElement implements BodyElement {
         return name;
     }
 
+    @Override
+    public boolean isBinary() {
+        return delegate.isBinary();
+    }
+
     @Override
     public long size() throws IOException {
         final long size = delegate.size();
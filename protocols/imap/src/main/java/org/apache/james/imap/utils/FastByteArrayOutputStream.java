@@ -18,9 +18,12 @@ package org.apache.james.imap.utils;
  */
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 
+import org.apache.james.imap.encode.ImapResponseWriter;
+
 /**
  * This class was forked from cassandra:
  * 
@@ -103,6 +106,13 @@ public class FastByteArrayOutputStream extends OutputStream {
         return count;
     }
 
+    /**
+     * Writes the contents of this stream to the given writer, without copying it.
+     */
+    public void writeTo(ImapResponseWriter writer) throws IOException {
+        writer.write(buf, 0, count);
+    }
+
     /**
      * Returns the contents of this ByteArrayOutputStream as a byte array. Any
      * changes made to the receiver after returning will not be reflected in the
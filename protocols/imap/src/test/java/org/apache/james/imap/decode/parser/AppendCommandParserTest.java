@@ -25,17 +25,22 @@ import static org.mockito.Mockito.mock;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.util.Base64;
 
+import javax.mail.Flags;
+
 import org.apache.james.imap.api.Tag;
 import org.apache.james.imap.api.message.response.StatusResponseFactory;
 import org.apache.james.imap.decode.DecodingException;
 import org.apache.james.imap.decode.ImapRequestStreamLineReader;
 import org.apache.james.imap.encode.FakeImapSession;
+import org.apache.james.imap.message.Literal;
+import org.apache.james.imap.message.request.AppendRequest;
 import org.apache.james.imap.message.response.UnpooledStatusResponseFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -120,6 +125,53 @@ class AppendCommandParserTest {
             .isEqualTo("2008-04-09T15:17:51Z");
     }
 
+    @Test
+    void decodeShouldParseASingleMessage() throws Exception {
+        AppendRequest request = (AppendRequest) testee.decode(toRequest("INBOX (\\Seen) {3+}\r\nabc\r\n"), new Tag("A1"), new FakeImapSession());
+
+        assertThat(request.getMailboxName()).isEqualTo("INBOX");
+        assertThat(request.getMessages()).hasSize(1);
+        assertThat(request.getFlags()).isEqualTo(new Flags(Flags.Flag.SEEN));
+        assertThat(asString(request.getMessage())).isEqualTo("abc");
+    }
+
+    @Test
+    void decodeShouldParseSeveralMessages() throws Exception {
+        AppendRequest request = (AppendRequest) testee.decode(
+            toRequest("INBOX (\\Seen) {3+}\r\nabc \"09-Apr-2008 15:17:51 +0000\" {4+}\r\ndefg {2+}\r\nhi\r\n"),
+            new Tag("A1"), new FakeImapSession());
+
+        assertThat(request.getMessages())
+            .extracting(message -> asString(message.getLiteral()))
+            .containsExactly("abc", "defg", "hi");
+        assertThat(request.getMessages())
+            .extracting(AppendRequest.Message::getFlags)
+            .containsExactly(new Flags(Flags.Flag.SEEN), new Flags(), new Flags());
+        assertThat(request.getMessages().get(1).getDatetime().toInstant())
+            .isEqualTo(Instant.parse("2008-04-09T15:17:51Z"));
+    }
+
+    @Test
+    void decodeShouldAcceptTrailingSpaces() throws Exception {
+        AppendRequest request = (AppendRequest) testee.decode(toRequest("INBOX {3+}\r\nabc  \r\n"), new Tag("A1"), new FakeImapSession());
+
+        assertThat(request.getMessages()).hasSize(1);
+    }
+
+    @Test
+    void decodeShouldRejectGarbageAfterTheLastMessage() {
+        assertThatThrownBy(() -> testee.decode(toRequest("INBOX {3+}\r\nabc def\r\n"), new Tag("A1"), new FakeImapSession()))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    private String asString(Literal literal) {
+        try {
+            return new String(literal.getInputStream().readAllBytes(), StandardCharsets.US_ASCII);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     private ImapRequestStreamLineReader toRequest(String input) {
         return new ImapRequestStreamLineReader(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), new ByteArrayOutputStream());
     }
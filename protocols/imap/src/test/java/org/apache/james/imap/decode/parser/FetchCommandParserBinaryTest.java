@@ -0,0 +1,114 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.decode.parser;
+
+import static org.apache.james.imap.ImapFixture.TAG;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.james.imap.api.message.BodyFetchElement;
+import org.apache.james.imap.api.message.FetchData;
+import org.apache.james.imap.api.message.SectionType;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.api.process.ImapSession;
+import org.apache.james.imap.decode.DecodingException;
+import org.apache.james.imap.decode.ImapRequestLineReader;
+import org.apache.james.imap.decode.ImapRequestStreamLineReader;
+import org.apache.james.imap.encode.FakeImapSession;
+import org.apache.james.imap.message.request.FetchRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FetchCommandParserBinaryTest {
+
+    FetchCommandParser parser;
+    ImapSession session;
+
+    @BeforeEach
+    void setUp() {
+        parser = new FetchCommandParser(mock(StatusResponseFactory.class));
+        session = new FakeImapSession();
+    }
+
+    @Test
+    void shouldParseBinary() throws Exception {
+        FetchData expected = FetchData.builder()
+            .add(new BodyFetchElement("BINARY[1.2]", SectionType.CONTENT, new int[] {1, 2},
+                null, null, null, BodyFetchElement.Kind.BINARY), false)
+            .build();
+
+        assertThat(decode("1 (BINARY[1.2])\r\n")).isEqualTo(expected);
+    }
+
+    @Test
+    void shouldParseBinaryPeek() throws Exception {
+        FetchData expected = FetchData.builder()
+            .add(new BodyFetchElement("BINARY[1]", SectionType.CONTENT, new int[] {1},
+                null, null, null, BodyFetchElement.Kind.BINARY), true)
+            .build();
+
+        assertThat(decode("1 (BINARY.PEEK[1])\r\n")).isEqualTo(expected);
+    }
+
+    @Test
+    void shouldParsePartialBinary() throws Exception {
+        FetchData expected = FetchData.builder()
+            .add(new BodyFetchElement("BINARY[1]", SectionType.CONTENT, new int[] {1},
+                null, 0L, 100L, BodyFetchElement.Kind.BINARY), true)
+            .build();
+
+        assertThat(decode("1 (BINARY.PEEK[1]<0.100>)\r\n")).isEqualTo(expected);
+    }
+
+    @Test
+    void shouldParseBinarySize() throws Exception {
+        FetchData expected = FetchData.builder()
+            .add(new BodyFetchElement("BINARY.SIZE[1]", SectionType.CONTENT, new int[] {1},
+                null, null, null, BodyFetchElement.Kind.BINARY_SIZE), true)
+            .build();
+
+        assertThat(decode("1 (BINARY.SIZE[1])\r\n")).isEqualTo(expected);
+    }
+
+    @Test
+    void shouldRejectBinaryOfHeaderSection() {
+        assertThatThrownBy(() -> decode("1 (BINARY[1.HEADER])\r\n"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void shouldRejectPartialBinarySize() {
+        assertThatThrownBy(() -> decode("1 (BINARY.SIZE[1]<0.100>)\r\n"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    private FetchData decode(String input) throws Exception {
+        ImapRequestLineReader reader = new ImapRequestStreamLineReader(
+                new ByteArrayInputStream(input.getBytes(StandardCharsets.US_ASCII)),
+                new ByteArrayOutputStream());
+
+        return ((FetchRequest) parser.decode(reader, TAG, false, session)).getFetch();
+    }
+}
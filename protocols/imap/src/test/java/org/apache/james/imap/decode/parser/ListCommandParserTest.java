@@ -0,0 +1,115 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imap.decode.parser;
+
+import static org.apache.james.imap.ImapFixture.TAG;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.james.imap.api.message.StatusDataItems;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.decode.DecodingException;
+import org.apache.james.imap.decode.ImapRequestStreamLineReader;
+import org.apache.james.imap.message.request.ListRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ListCommandParserTest {
+    private ListCommandParser parser;
+
+    @BeforeEach
+    void setUp() {
+        parser = new ListCommandParser(mock(StatusResponseFactory.class));
+    }
+
+    @Test
+    void decodeShouldParseReferenceAndPattern() throws DecodingException {
+        ListRequest request = decode("\"\" \"*\"\r\n");
+
+        assertThat(request.getBaseReferenceName()).isEmpty();
+        assertThat(request.getMailboxPattern()).isEqualTo("*");
+        assertThat(request.getStatusDataItems()).isEmpty();
+    }
+
+    @Test
+    void decodeShouldParseStatusReturnOption() throws DecodingException {
+        ListRequest request = decode("\"\" * RETURN (STATUS (MESSAGES UNSEEN))\r\n");
+
+        assertThat(request.getMailboxPattern()).isEqualTo("*");
+        assertThat(request.getStatusDataItems())
+            .hasValueSatisfying(items -> {
+                assertThat(items.isMessages()).isTrue();
+                assertThat(items.isUnseen()).isTrue();
+                assertThat(items.isUidNext()).isFalse();
+            });
+    }
+
+    @Test
+    void decodeShouldBeCaseInsensitive() throws DecodingException {
+        ListRequest request = decode("\"\" \"%\" return (status (uidnext))\r\n");
+
+        assertThat(request.getStatusDataItems())
+            .map(StatusDataItems::isUidNext)
+            .contains(true);
+    }
+
+    @Test
+    void decodeShouldAcceptChildrenReturnOption() throws DecodingException {
+        ListRequest request = decode("\"\" * RETURN (CHILDREN STATUS (MESSAGES))\r\n");
+
+        assertThat(request.getStatusDataItems())
+            .map(StatusDataItems::isMessages)
+            .contains(true);
+    }
+
+    @Test
+    void decodeShouldAcceptEmptyReturnOptions() throws DecodingException {
+        ListRequest request = decode("\"\" * RETURN ()\r\n");
+
+        assertThat(request.getStatusDataItems()).isEmpty();
+    }
+
+    @Test
+    void decodeShouldRejectUnsupportedReturnOptions() {
+        assertThatThrownBy(() -> decode("\"\" * RETURN (SUBSCRIBED)\r\n"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void decodeShouldRejectUnknownStatusItems() {
+        assertThatThrownBy(() -> decode("\"\" * RETURN (STATUS (UNKNOWN))\r\n"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void decodeShouldRejectTrailingArguments() {
+        assertThatThrownBy(() -> decode("\"\" * OTHER\r\n"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    private ListRequest decode(String command) throws DecodingException {
+        ImapRequestStreamLineReader lineReader = new ImapRequestStreamLineReader(
+            new ByteArrayInputStream(command.getBytes(StandardCharsets.US_ASCII)), null);
+        return (ListRequest) parser.decode(lineReader, TAG, null);
+    }
+}
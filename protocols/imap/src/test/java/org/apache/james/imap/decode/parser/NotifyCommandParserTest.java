@@ -0,0 +1,128 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.decode.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.james.imap.api.Tag;
+import org.apache.james.imap.decode.DecodingException;
+import org.apache.james.imap.decode.ImapRequestStreamLineReader;
+import org.apache.james.imap.encode.FakeImapSession;
+import org.apache.james.imap.message.request.NotifyRequest;
+import org.apache.james.imap.message.request.NotifyRequest.EventGroup;
+import org.apache.james.imap.message.request.NotifyRequest.EventType;
+import org.apache.james.imap.message.request.NotifyRequest.FilterType;
+import org.apache.james.imap.message.response.UnpooledStatusResponseFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+class NotifyCommandParserTest {
+    private static final Tag TAG = new Tag("A1");
+
+    private NotifyCommandParser testee;
+
+    @BeforeEach
+    void setUp() {
+        testee = new NotifyCommandParser(new UnpooledStatusResponseFactory());
+    }
+
+    private NotifyRequest decode(String arguments) throws DecodingException {
+        ImapRequestStreamLineReader request = new ImapRequestStreamLineReader(
+            new ByteArrayInputStream((arguments + "\r\n").getBytes(StandardCharsets.US_ASCII)),
+            new ByteArrayOutputStream());
+        return (NotifyRequest) testee.decode(request, TAG, new FakeImapSession());
+    }
+
+    @Test
+    void decodeShouldAcceptNone() throws Exception {
+        NotifyRequest request = decode("NONE");
+
+        assertThat(request.isNone()).isTrue();
+    }
+
+    @Test
+    void decodeShouldParseEventGroups() throws Exception {
+        NotifyRequest request = decode("SET (selected (MessageNew (uid body.peek[header.fields (from to subject)]) MessageExpunge)) " +
+            "(subtree (Lists \"Other folders\") (MessageNew MessageExpunge FlagChange)) (personal (MailboxName))");
+
+        assertThat(request.isStatusIndicator()).isFalse();
+        assertThat(request.getEventGroups()).containsExactly(
+            new EventGroup(FilterType.SELECTED, ImmutableList.of(), ImmutableSet.of(EventType.MESSAGE_NEW, EventType.MESSAGE_EXPUNGE)),
+            new EventGroup(FilterType.SUBTREE, ImmutableList.of("Lists", "Other folders"),
+                ImmutableSet.of(EventType.MESSAGE_NEW, EventType.MESSAGE_EXPUNGE, EventType.FLAG_CHANGE)),
+            new EventGroup(FilterType.PERSONAL, ImmutableList.of(), ImmutableSet.of(EventType.MAILBOX_NAME)));
+    }
+
+    @Test
+    void decodeShouldParseStatusIndicator() throws Exception {
+        NotifyRequest request = decode("SET (STATUS) (mailboxes INBOX (MessageNew MessageExpunge))");
+
+        assertThat(request.isStatusIndicator()).isTrue();
+        assertThat(request.getEventGroups()).containsExactly(
+            new EventGroup(FilterType.MAILBOXES, ImmutableList.of("INBOX"), ImmutableSet.of(EventType.MESSAGE_NEW, EventType.MESSAGE_EXPUNGE)));
+    }
+
+    @Test
+    void decodeShouldAcceptNoneEvents() throws Exception {
+        NotifyRequest request = decode("set (Inboxes NONE) (personal (messagenew messageexpunge))");
+
+        assertThat(request.getEventGroups()).containsExactly(
+            new EventGroup(FilterType.INBOXES, ImmutableList.of(), ImmutableSet.of()),
+            new EventGroup(FilterType.PERSONAL, ImmutableList.of(), ImmutableSet.of(EventType.MESSAGE_NEW, EventType.MESSAGE_EXPUNGE)));
+    }
+
+    @Test
+    void decodeShouldRejectMessageNewWithoutMessageExpunge() {
+        assertThatThrownBy(() -> decode("SET (personal (MessageNew))"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void decodeShouldRejectFlagChangeWithoutMessageNew() {
+        assertThatThrownBy(() -> decode("SET (personal (FlagChange))"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void decodeShouldRejectUnknownFilter() {
+        assertThatThrownBy(() -> decode("SET (unknown (MailboxName))"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void decodeShouldRejectSetWithoutEventGroup() {
+        assertThatThrownBy(() -> decode("SET (STATUS)"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void decodeShouldRejectUnknownOperation() {
+        assertThatThrownBy(() -> decode("UNSET"))
+            .isInstanceOf(DecodingException.class);
+    }
+}
@@ -19,8 +19,12 @@
 
 package org.apache.james.imap.encode;
 
+import static java.nio.charset.StandardCharsets.US_ASCII;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
 import javax.mail.Flags;
 
 import org.apache.james.imap.encode.base.ByteImapResponseWriter;
@@ -31,6 +35,9 @@ import org.apache.james.mailbox.MessageUid;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
 class FetchResponseEncoderTest  {
     private static final MessageSequenceNumber MSN = MessageSequenceNumber.of(100);
     private ByteImapResponseWriter writer = new ByteImapResponseWriter();
@@ -77,4 +84,41 @@ class FetchResponseEncoderTest  {
         assertThat(writer.getString()).isEqualTo("* 100 FETCH (FLAGS (\\Deleted) UID 72)\r\n");
         
     }
+
+    @Test
+    void binaryElementsShouldBeEncodedAsLiteral8() throws Exception {
+        FetchResponse.BodyElement element = new FetchResponse.BodyElement() {
+            @Override
+            public String getName() {
+                return "BINARY[1]";
+            }
+
+            @Override
+            public boolean isBinary() {
+                return true;
+            }
+
+            @Override
+            public long size() {
+                return 3;
+            }
+
+            @Override
+            public InputStream getInputStream() {
+                return new ByteArrayInputStream("abc".getBytes(US_ASCII));
+            }
+        };
+        FetchResponse message = new FetchResponse(MSN, null, MessageUid.of(72), null,
+                null, null, null, null, null, ImmutableList.of(element));
+        encoder.encode(message, composer);
+        assertThat(writer.getString()).isEqualTo("* 100 FETCH (UID 72 BINARY[1] ~{3}\r\nabc)\r\n");
+    }
+
+    @Test
+    void shouldEncodeBinarySizes() throws Exception {
+        FetchResponse message = new FetchResponse(MSN, null, MessageUid.of(72), null,
+                null, null, null, null, null, null, ImmutableMap.of("BINARY.SIZE[1]", 12L));
+        encoder.encode(message, composer);
+        assertThat(writer.getString()).isEqualTo("* 100 FETCH (UID 72 BINARY.SIZE[1] 12)\r\n");
+    }
 }
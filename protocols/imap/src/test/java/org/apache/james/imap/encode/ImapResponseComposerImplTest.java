@@ -21,18 +21,28 @@ package org.apache.james.imap.encode;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import org.apache.james.imap.api.Tag;
 import org.apache.james.imap.encode.base.ByteImapResponseWriter;
 import org.apache.james.imap.encode.base.ImapResponseComposerImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 class ImapResponseComposerImplTest {
-    private ByteImapResponseWriter writer;
+    static class FlushCountingWriter extends ByteImapResponseWriter {
+        private int flushCount = 0;
+
+        @Override
+        public void flush() {
+            flushCount++;
+        }
+    }
+
+    private FlushCountingWriter writer;
     private ImapResponseComposer composer;
 
     @BeforeEach
     void setUp() {
-        writer = new ByteImapResponseWriter();
+        writer = new FlushCountingWriter();
         composer = new ImapResponseComposerImpl(writer);
     }
 
@@ -44,4 +54,46 @@ class ImapResponseComposerImplTest {
 
         assertThat(writer.getString()).isEqualTo(" \"?\"\r\n");
     }
+
+    @Test
+    void untaggedResponsesShouldNotBeFlushed() throws Exception {
+        composer.untaggedResponse("1 EXISTS");
+        composer.untaggedResponse("2 EXISTS");
+
+        assertThat(writer.getString()).isEqualTo("* 1 EXISTS\r\n* 2 EXISTS\r\n");
+        assertThat(writer.flushCount).isZero();
+    }
+
+    @Test
+    void taggedResponsesShouldBeFlushed() throws Exception {
+        composer.untaggedResponse("1 EXISTS");
+        composer.tag(new Tag("A1")).message("OK").end();
+
+        assertThat(writer.getString()).isEqualTo("* 1 EXISTS\r\nA1 OK\r\n");
+        assertThat(writer.flushCount).isEqualTo(1);
+    }
+
+    @Test
+    void continuationResponsesShouldBeFlushed() throws Exception {
+        composer.continuationResponse("Idling");
+
+        assertThat(writer.getString()).isEqualTo("+ Idling\r\n");
+        assertThat(writer.flushCount).isEqualTo(1);
+    }
+
+    @Test
+    void flushShouldFlushTheWriter() throws Exception {
+        composer.untaggedResponse("1 EXISTS");
+        composer.flush();
+
+        assertThat(writer.flushCount).isEqualTo(1);
+    }
+
+    @Test
+    void untaggedResponsesFollowingATaggedOneShouldNotBeFlushed() throws Exception {
+        composer.tag(new Tag("A1")).message("OK").end();
+        composer.untaggedResponse("1 EXISTS");
+
+        assertThat(writer.flushCount).isEqualTo(1);
+    }
 }
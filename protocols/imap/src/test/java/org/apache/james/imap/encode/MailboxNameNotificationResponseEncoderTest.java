@@ -0,0 +1,65 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.encode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.james.imap.encode.base.ByteImapResponseWriter;
+import org.apache.james.imap.encode.base.ImapResponseComposerImpl;
+import org.apache.james.imap.message.response.MailboxNameNotificationResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MailboxNameNotificationResponseEncoderTest {
+    private MailboxNameNotificationResponseEncoder encoder;
+    private ByteImapResponseWriter writer = new ByteImapResponseWriter();
+    private ImapResponseComposer composer = new ImapResponseComposerImpl(writer);
+
+    @BeforeEach
+    void setUp() {
+        encoder = new MailboxNameNotificationResponseEncoder();
+    }
+
+    @Test
+    void encoderShouldAcceptMailboxNameNotificationResponse() {
+        assertThat(encoder.acceptableMessages()).isEqualTo(MailboxNameNotificationResponse.class);
+    }
+
+    @Test
+    void encodeShouldWriteCreatedMailbox() throws Exception {
+        encoder.encode(MailboxNameNotificationResponse.created("name", '.'), composer);
+
+        assertThat(writer.getString()).isEqualTo("* LIST () \".\" \"name\"\r\n");
+    }
+
+    @Test
+    void encodeShouldWriteNonExistentAttributeForDeletedMailbox() throws Exception {
+        encoder.encode(MailboxNameNotificationResponse.deleted("name", '.'), composer);
+
+        assertThat(writer.getString()).isEqualTo("* LIST (\\NonExistent) \".\" \"name\"\r\n");
+    }
+
+    @Test
+    void encodeShouldWriteOldNameForRenamedMailbox() throws Exception {
+        encoder.encode(MailboxNameNotificationResponse.renamed("old", "new", '.'), composer);
+
+        assertThat(writer.getString()).isEqualTo("* LIST () \".\" \"new\" (\"OLDNAME\" (\"old\"))\r\n");
+    }
+}
@@ -0,0 +1,161 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import javax.mail.util.SharedByteArrayInputStream;
+
+import org.apache.james.core.Username;
+import org.apache.james.imap.api.Tag;
+import org.apache.james.imap.decode.main.OutputStreamImapResponseWriter;
+import org.apache.james.imap.encode.FakeImapSession;
+import org.apache.james.imap.encode.base.ImapResponseComposerImpl;
+import org.apache.james.imap.encode.main.DefaultImapEncoderFactory;
+import org.apache.james.imap.encode.main.DefaultLocalizer;
+import org.apache.james.imap.main.ResponseEncoder;
+import org.apache.james.imap.message.request.NotifyRequest;
+import org.apache.james.imap.message.request.NotifyRequest.EventGroup;
+import org.apache.james.imap.message.request.NotifyRequest.EventType;
+import org.apache.james.imap.message.request.NotifyRequest.FilterType;
+import org.apache.james.imap.message.response.UnpooledStatusResponseFactory;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.SubscriptionManager;
+import org.apache.james.mailbox.inmemory.InMemoryMailboxManager;
+import org.apache.james.mailbox.inmemory.manager.InMemoryIntegrationResources;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+class NotifyProcessorTest {
+    private static final Username BOB = Username.of("bob");
+    private static final Tag TAG = new Tag("A1");
+
+    private NotifyProcessor testee;
+    private InMemoryMailboxManager mailboxManager;
+    private MailboxSession mailboxSession;
+    private FakeImapSession session;
+    private ByteArrayOutputStream outputStream;
+    private ResponseEncoder responder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        InMemoryIntegrationResources integrationResources = InMemoryIntegrationResources.defaultResources();
+
+        mailboxManager = integrationResources.getMailboxManager();
+        testee = new NotifyProcessor(mailboxManager,
+            integrationResources.getEventBus(),
+            mock(SubscriptionManager.class),
+            new UnpooledStatusResponseFactory(),
+            new RecordingMetricFactory());
+
+        mailboxSession = mailboxManager.createSystemSession(BOB);
+        mailboxManager.createMailbox(MailboxPath.inbox(BOB), mailboxSession);
+
+        session = new FakeImapSession();
+        session.authenticated();
+        session.setMailboxSession(mailboxSession);
+
+        outputStream = new ByteArrayOutputStream();
+        responder = new ResponseEncoder(
+            new DefaultImapEncoderFactory(new DefaultLocalizer(), true).buildImapEncoder(),
+            new ImapResponseComposerImpl(new OutputStreamImapResponseWriter(outputStream)));
+    }
+
+    private String output() {
+        responder.flush();
+        return new String(outputStream.toByteArray(), StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    void notifyShouldRejectUnsupportedEvents() {
+        testee.process(new NotifyRequest(TAG, false, ImmutableList.of(
+                new EventGroup(FilterType.PERSONAL, ImmutableList.of(), ImmutableSet.of(EventType.ANNOTATION_CHANGE)))),
+            responder, session);
+
+        assertThat(output())
+            .contains("A1 NO [BADEVENT (MessageNew MessageExpunge FlagChange MailboxName)]");
+    }
+
+    @Test
+    void notifyNoneShouldSucceed() {
+        testee.process(NotifyRequest.none(TAG), responder, session);
+
+        assertThat(output()).contains("A1 OK NOTIFY completed.");
+    }
+
+    @Test
+    void statusIndicatorShouldSendTheStatusOfWatchedMailboxes() throws Exception {
+        MessageManager inbox = mailboxManager.getMailbox(MailboxPath.inbox(BOB), mailboxSession);
+        inbox.appendMessage(MessageManager.AppendCommand.builder()
+            .build(new SharedByteArrayInputStream("header: value\r\n\r\nbody".getBytes(StandardCharsets.US_ASCII))), mailboxSession);
+
+        testee.process(new NotifyRequest(TAG, true, ImmutableList.of(
+                new EventGroup(FilterType.INBOXES, ImmutableList.of(), ImmutableSet.of(EventType.MESSAGE_NEW, EventType.MESSAGE_EXPUNGE)))),
+            responder, session);
+
+        assertThat(output())
+            .contains("* STATUS \"INBOX\" (MESSAGES 1 UIDNEXT 2 UNSEEN 1)")
+            .contains("A1 OK NOTIFY completed.");
+    }
+
+    @Test
+    void mailboxCreationByAnotherSessionShouldBeNotified() throws Exception {
+        testee.process(new NotifyRequest(TAG, false, ImmutableList.of(
+                new EventGroup(FilterType.PERSONAL, ImmutableList.of(), ImmutableSet.of(EventType.MAILBOX_NAME)))),
+            responder, session);
+
+        mailboxManager.createMailbox(MailboxPath.forUser(BOB, "work"), mailboxManager.createSystemSession(BOB));
+
+        assertThat(output()).contains("* LIST () \".\" \"work\"");
+    }
+
+    @Test
+    void mailboxCreationByTheSameSessionShouldNotBeNotified() throws Exception {
+        testee.process(new NotifyRequest(TAG, false, ImmutableList.of(
+                new EventGroup(FilterType.PERSONAL, ImmutableList.of(), ImmutableSet.of(EventType.MAILBOX_NAME)))),
+            responder, session);
+
+        mailboxManager.createMailbox(MailboxPath.forUser(BOB, "work"), mailboxSession);
+
+        assertThat(output()).doesNotContain("* LIST");
+    }
+
+    @Test
+    void mailboxCreationShouldNotBeNotifiedAfterNotifyNone() throws Exception {
+        testee.process(new NotifyRequest(TAG, false, ImmutableList.of(
+                new EventGroup(FilterType.PERSONAL, ImmutableList.of(), ImmutableSet.of(EventType.MAILBOX_NAME)))),
+            responder, session);
+        testee.process(NotifyRequest.none(new Tag("A2")), responder, session);
+
+        mailboxManager.createMailbox(MailboxPath.forUser(BOB, "work"), mailboxManager.createSystemSession(BOB));
+
+        assertThat(output()).doesNotContain("* LIST");
+    }
+}
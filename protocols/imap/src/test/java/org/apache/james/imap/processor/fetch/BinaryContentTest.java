@@ -0,0 +1,114 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imap.processor.fetch;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.model.ByteContent;
+import org.apache.james.mailbox.model.Content;
+import org.apache.james.mailbox.model.Header;
+import org.apache.james.mailbox.model.MimePath;
+import org.apache.james.mailbox.model.TestId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+
+class BinaryContentTest {
+    private static final BinaryContent.Section SECTION = new BinaryContent.Section(TestId.of(1), MessageUid.of(2), new MimePath(new int[] {1}));
+    private static final byte[] DECODED = {0x00, 0x01, (byte) 0xFF, 'a', '\r', '\n'};
+    private static final Content BASE64 = new ByteContent("AAH/YQ0K\r\n".getBytes(US_ASCII));
+
+    Cache<BinaryContent.Section, Long> decodedSizes;
+
+    @BeforeEach
+    void setUp() {
+        decodedSizes = CacheBuilder.newBuilder().build();
+    }
+
+    @Test
+    void base64ContentShouldBeDecoded() throws Exception {
+        Content content = BinaryContent.of(BASE64, ImmutableList.of(new Header("Content-Transfer-Encoding", "base64")).iterator(), SECTION, decodedSizes);
+
+        try (InputStream inputStream = content.getInputStream()) {
+            assertThat(inputStream.readAllBytes()).isEqualTo(DECODED);
+        }
+    }
+
+    @Test
+    void sizeShouldBeTheDecodedSize() throws Exception {
+        Content content = BinaryContent.of(BASE64, ImmutableList.of(new Header("Content-Transfer-Encoding", "BASE64")).iterator(), SECTION, decodedSizes);
+
+        assertThat(content.size()).isEqualTo(DECODED.length);
+    }
+
+    @Test
+    void sizeShouldBeCached() throws Exception {
+        AtomicInteger reads = new AtomicInteger();
+        Content encoded = new Content() {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                reads.incrementAndGet();
+                return BASE64.getInputStream();
+            }
+
+            @Override
+            public long size() throws MailboxException {
+                return BASE64.size();
+            }
+        };
+        Content content = BinaryContent.of(encoded, ImmutableList.of(new Header("Content-Transfer-Encoding", "base64")).iterator(), SECTION, decodedSizes);
+
+        content.size();
+        content.size();
+
+        assertThat(reads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void identityEncodingsShouldReturnTheContentUnchanged() throws Exception {
+        Content content = BinaryContent.of(BASE64, ImmutableList.of(new Header("Content-Transfer-Encoding", "8bit")).iterator(), SECTION, decodedSizes);
+
+        assertThat(content).isSameAs(BASE64);
+    }
+
+    @Test
+    void missingEncodingShouldReturnTheContentUnchanged() throws Exception {
+        Content content = BinaryContent.of(BASE64, ImmutableList.of(new Header("Content-Type", "text/plain")).iterator(), SECTION, decodedSizes);
+
+        assertThat(content).isSameAs(BASE64);
+    }
+
+    @Test
+    void unknownEncodingShouldThrow() {
+        assertThatThrownBy(() -> BinaryContent.of(BASE64, ImmutableList.of(new Header("Content-Transfer-Encoding", "x-unknown")).iterator(), SECTION, decodedSizes))
+            .isInstanceOf(UnknownContentTransferEncodingException.class);
+    }
+}
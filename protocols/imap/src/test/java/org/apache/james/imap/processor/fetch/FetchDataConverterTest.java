@@ -68,7 +68,9 @@ class FetchDataConverterTest {
             Arguments.arguments(FetchData.builder().add(new BodyFetchElement(ImapConstants.FETCH_RFC822_TEXT, MIME, PATH, null, null, null), PEEK),
                 FetchGroup.MINIMAL.addPartContent(new MimePath(PATH), Profile.MIME_HEADERS)),
             Arguments.arguments(FetchData.builder().add(new BodyFetchElement(ImapConstants.FETCH_RFC822_TEXT, TEXT, PATH, null, null, null), PEEK),
-                FetchGroup.MINIMAL.addPartContent(new MimePath(PATH), Profile.BODY_CONTENT)));
+                FetchGroup.MINIMAL.addPartContent(new MimePath(PATH), Profile.BODY_CONTENT)),
+            Arguments.arguments(FetchData.builder().add(new BodyFetchElement(ImapConstants.FETCH_BINARY, CONTENT, PATH, null, null, null, BodyFetchElement.Kind.BINARY), PEEK),
+                FetchGroup.MINIMAL.addPartContent(new MimePath(PATH), Profile.MIME_CONTENT, Profile.MIME_HEADERS)));
     }
 
     @ParameterizedTest
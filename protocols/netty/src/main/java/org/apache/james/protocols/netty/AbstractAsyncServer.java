@@ -25,6 +25,8 @@ import java.util.Optional;
 
 import org.apache.james.protocols.api.ProtocolServer;
 import org.apache.james.util.concurrent.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.github.fge.lambdas.Throwing;
 import com.google.common.collect.ImmutableList;
@@ -34,11 +36,10 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.EpollChannelOption;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.DefaultChannelGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.ImmediateEventExecutor;
 
@@ -48,6 +49,7 @@ import io.netty.util.concurrent.ImmediateEventExecutor;
  * Abstract base class for Servers which want to use async io
  */
 public abstract class AbstractAsyncServer implements ProtocolServer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AbstractAsyncServer.class);
 
     public static final int DEFAULT_IO_WORKER_COUNT = Runtime.getRuntime().availableProcessors() * 2;
     public static final int DEFAULT_BOSS_WORKER_COUNT = 2;
@@ -64,6 +66,7 @@ public abstract class AbstractAsyncServer implements ProtocolServer {
 
     private volatile int ioWorker = DEFAULT_IO_WORKER_COUNT;
     private volatile Optional<Integer> bossWorker = Optional.of(DEFAULT_BOSS_WORKER_COUNT);
+    private volatile NettyTransport transport = NettyTransport.NIO;
 
     private List<InetSocketAddress> addresses = new ArrayList<>();
 
@@ -110,6 +113,20 @@ public abstract class AbstractAsyncServer implements ProtocolServer {
         this.bossWorker = bossWorker;
     }
 
+    /**
+     * Set the IO transport to use.
+     *
+     * When the requested transport is not available on this platform, NIO is used instead.
+     *
+     * Default is NIO
+     */
+    public void setTransport(NettyTransport transport) {
+        if (started) {
+            throw new IllegalStateException("Can only be set when the server is not running");
+        }
+        this.transport = transport;
+    }
+
     @Override
     public synchronized void bind() throws Exception {
         if (started) {
@@ -120,11 +137,13 @@ public abstract class AbstractAsyncServer implements ProtocolServer {
             throw new RuntimeException("Please specify at least on socketaddress to which the server should get bound!");
         }
 
+        NettyTransport effectiveTransport = effectiveTransport();
+
         ServerBootstrap bootstrap = new ServerBootstrap();
-        bootstrap.channel(NioServerSocketChannel.class);
+        bootstrap.channel(effectiveTransport.serverChannelClass());
 
-        bossGroup = bossWorker.map(count -> new NioEventLoopGroup(count, NamedThreadFactory.withName(jmxName + "-boss")));
-        workerGroup = new NioEventLoopGroup(ioWorker, NamedThreadFactory.withName(jmxName + "-io"));
+        bossGroup = bossWorker.map(count -> effectiveTransport.eventLoopGroup(count, NamedThreadFactory.withName(jmxName + "-boss")));
+        workerGroup = effectiveTransport.eventLoopGroup(ioWorker, NamedThreadFactory.withName(jmxName + "-io"));
 
         bossGroup.<Runnable>map(boss -> () -> bootstrap.group(boss, workerGroup))
             .orElse(() -> bootstrap.group(workerGroup))
@@ -137,14 +156,40 @@ public abstract class AbstractAsyncServer implements ProtocolServer {
 
         configureBootstrap(bootstrap);
 
+        if (effectiveTransport == NettyTransport.EPOLL) {
+            bootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+        }
+
         for (InetSocketAddress address : addresses) {
-            Channel channel = bootstrap.bind(address).sync().channel();
-            channels.add(channel);
+            for (int i = 0; i < listeningSocketCount(effectiveTransport, address); i++) {
+                Channel channel = bootstrap.bind(address).sync().channel();
+                channels.add(channel);
+            }
         }
 
         started = true;
     }
 
+    private NettyTransport effectiveTransport() {
+        if (transport.isAvailable()) {
+            return transport;
+        }
+        LOGGER.warn("{} transport is not available for {}, falling back to {}", transport, jmxName, NettyTransport.NIO);
+        return NettyTransport.NIO;
+    }
+
+    /**
+     * With SO_REUSEPORT, binding one socket per boss thread lets the kernel spread accepts across them.
+     *
+     * Ephemeral ports can not be shared this way as each bind would get a different port.
+     */
+    private int listeningSocketCount(NettyTransport effectiveTransport, InetSocketAddress address) {
+        if (effectiveTransport == NettyTransport.EPOLL && address.getPort() != 0) {
+            return bossWorker.orElse(1);
+        }
+        return 1;
+    }
+
     /**
      * Configure the bootstrap before it get bound
      */
@@ -182,6 +227,7 @@ public abstract class AbstractAsyncServer implements ProtocolServer {
     public synchronized List<InetSocketAddress> getListenAddresses() {
         return channels.stream()
             .map(channel -> (InetSocketAddress) channel.localAddress())
+            .distinct()
             .collect(ImmutableList.toImmutableList());
     }
     
@@ -27,6 +27,8 @@ import org.apache.james.protocols.api.ClientAuth;
 
 import com.google.common.annotations.VisibleForTesting;
 
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslHandler;
 
 /**
@@ -74,6 +76,26 @@ public interface Encryption {
         return new Encryption.LegacyJavaEncryption(context, true, enabledCipherSuites, clientAuth);
     }
 
+    /**
+     * Create a new {@link Encryption} which is TLS based and relies on the given Netty {@link SslContext}.
+     *
+     * The context is expected to be a server context already configured with the given
+     * Ciphersuites and client authentication mode.
+     */
+    static Encryption createTls(SslContext context, String[] enabledCipherSuites, ClientAuth clientAuth) {
+        return new Encryption.NettyEncryption(context, false, enabledCipherSuites, clientAuth);
+    }
+
+    /**
+     * Create a new {@link Encryption} which uses STARTTLS and relies on the given Netty {@link SslContext}.
+     *
+     * The context is expected to be a server context already configured with the given
+     * Ciphersuites and client authentication mode.
+     */
+    static Encryption createStartTls(SslContext context, String[] enabledCipherSuites, ClientAuth clientAuth) {
+        return new Encryption.NettyEncryption(context, true, enabledCipherSuites, clientAuth);
+    }
+
     /**
      * Return <code>true</code> if this {@link Encryption} should be used for
      * STARTTLS
@@ -188,4 +210,50 @@ public interface Encryption {
             return new SslHandler(engine);
         }
     }
+
+    /**
+     * {@link Encryption} backed by a Netty {@link SslContext}, allowing the use of the OpenSSL engine.
+     */
+    class NettyEncryption implements Encryption {
+        private final SslContext context;
+        private final boolean starttls;
+        private final String[] enabledCipherSuites;
+        private final ClientAuth clientAuth;
+
+        private NettyEncryption(SslContext context, boolean starttls, String[] enabledCipherSuites, ClientAuth clientAuth) {
+            this.context = context;
+            this.starttls = starttls;
+            this.enabledCipherSuites = enabledCipherSuites;
+            this.clientAuth = clientAuth;
+        }
+
+        public SslContext getContext() {
+            return context;
+        }
+
+        @Override
+        public boolean isStartTLS() {
+            return starttls;
+        }
+
+        @Override
+        public boolean supportsEncryption() {
+            return context != null;
+        }
+
+        @Override
+        public String[] getEnabledCipherSuites() {
+            return ArrayUtils.clone(enabledCipherSuites);
+        }
+
+        @Override
+        public ClientAuth getClientAuth() {
+            return clientAuth;
+        }
+
+        @Override
+        public SslHandler sslHandler() {
+            return context.newHandler(ByteBufAllocator.DEFAULT);
+        }
+    }
 }
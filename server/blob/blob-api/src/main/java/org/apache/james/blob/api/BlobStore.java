@@ -50,6 +50,14 @@ public interface BlobStore {
 
     Publisher<InputStream> readReactive(BucketName bucketName, BlobId blobId);
 
+    /**
+     * @see BlobStoreDAO#readRange(BucketName, BlobId, long, long)
+     */
+    default InputStream readRange(BucketName bucketName, BlobId blobId, long offset, long length) {
+        RangedInputStreams.checkRange(offset, length);
+        return RangedInputStreams.slice(read(bucketName, blobId), offset, length);
+    }
+
     default Publisher<byte[]> readBytes(BucketName bucketName, BlobId blobId, StoragePolicy storagePolicy) {
        return readBytes(bucketName, blobId);
     }
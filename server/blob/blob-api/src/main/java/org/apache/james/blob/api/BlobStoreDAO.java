@@ -39,6 +39,22 @@ public interface BlobStoreDAO {
 
     Publisher<InputStream> readReactive(BucketName bucketName, BlobId blobId);
 
+    /**
+     * Reads at most `length` bytes of a Blob, starting at `offset`.
+     *
+     * Implementations able to natively read a portion of a blob should override this default, which reads and
+     * discards the leading bytes.
+     *
+     * @return the requested bytes, truncated to the end of the blob. An empty stream is returned when `offset`
+     * exceeds the blob size.
+     * @throws ObjectNotFoundException when the blobId or the bucket is not found
+     * @throws ObjectStoreIOException when an unexpected IO error occurs
+     */
+    default InputStream readRange(BucketName bucketName, BlobId blobId, long offset, long length) throws ObjectStoreIOException, ObjectNotFoundException {
+        RangedInputStreams.checkRange(offset, length);
+        return RangedInputStreams.slice(read(bucketName, blobId), offset, length);
+    }
+
     /**
      * Reads a Blob based on its BucketName and its BlobId
      *
@@ -0,0 +1,57 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.api;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.google.common.base.Preconditions;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Closeables;
+
+/**
+ * Fallback for ranged reads on stores that can not natively read a portion of a blob:
+ * the leading bytes are read and discarded.
+ */
+public class RangedInputStreams {
+    public static void checkRange(long offset, long length) {
+        Preconditions.checkArgument(offset >= 0, "'offset' should not be negative");
+        Preconditions.checkArgument(length >= 0, "'length' should not be negative");
+    }
+
+    /**
+     * @return a stream over at most `length` bytes of `inputStream`, starting at `offset`.
+     * An empty stream is returned when `offset` exceeds the stream length.
+     */
+    public static InputStream slice(InputStream inputStream, long offset, long length) {
+        checkRange(offset, length);
+        try {
+            ByteStreams.skipFully(inputStream, offset);
+        } catch (EOFException e) {
+            Closeables.closeQuietly(inputStream);
+            return InputStream.nullInputStream();
+        } catch (IOException e) {
+            Closeables.closeQuietly(inputStream);
+            throw new ObjectStoreIOException("Failed skipping the first " + offset + " bytes", e);
+        }
+        return ByteStreams.limit(inputStream, length);
+    }
+}
@@ -220,6 +220,78 @@ public interface ReadSaveBlobStoreDAOContract {
         assertThat(read).hasSameContentAs(new ByteArrayInputStream(TWELVE_MEGABYTES));
     }
 
+    @Test
+    default void readRangeShouldReturnRequestedBytes() {
+        BlobStoreDAO store = testee();
+        Mono.from(store.save(TEST_BUCKET_NAME, TEST_BLOB_ID, ELEVEN_KILOBYTES)).block();
+
+        InputStream read = store.readRange(TEST_BUCKET_NAME, TEST_BLOB_ID, 12, 5000);
+
+        assertThat(read).hasSameContentAs(new ByteArrayInputStream(ELEVEN_KILOBYTES, 12, 5000));
+    }
+
+    @Test
+    default void readRangeShouldReturnRequestedBytesOfBigBlobs() {
+        BlobStoreDAO store = testee();
+        Mono.from(store.save(TEST_BUCKET_NAME, TEST_BLOB_ID, TWELVE_MEGABYTES)).block();
+
+        InputStream read = store.readRange(TEST_BUCKET_NAME, TEST_BLOB_ID, 1_000_003, 3_000_007);
+
+        assertThat(read).hasSameContentAs(new ByteArrayInputStream(TWELVE_MEGABYTES, 1_000_003, 3_000_007));
+    }
+
+    @Test
+    default void readRangeShouldReturnRequestedBytesOfBigBlobsSavedFromPartiallyReadStreams() {
+        BlobStoreDAO store = testee();
+        InputStream partiallyRead = new ByteArrayInputStream(TWELVE_MEGABYTES) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 8192));
+            }
+        };
+        Mono.from(store.save(TEST_BUCKET_NAME, TEST_BLOB_ID, partiallyRead)).block();
+
+        InputStream read = store.readRange(TEST_BUCKET_NAME, TEST_BLOB_ID, 1_000_003, 3_000_007);
+
+        assertThat(read).hasSameContentAs(new ByteArrayInputStream(TWELVE_MEGABYTES, 1_000_003, 3_000_007));
+    }
+
+    @Test
+    default void readRangeShouldBeTruncatedToTheBlobEnd() {
+        BlobStoreDAO store = testee();
+        Mono.from(store.save(TEST_BUCKET_NAME, TEST_BLOB_ID, ELEVEN_KILOBYTES)).block();
+
+        InputStream read = store.readRange(TEST_BUCKET_NAME, TEST_BLOB_ID, 10_000, Long.MAX_VALUE);
+
+        assertThat(read).hasSameContentAs(new ByteArrayInputStream(ELEVEN_KILOBYTES, 10_000, ELEVEN_KILOBYTES.length - 10_000));
+    }
+
+    @Test
+    default void readRangeShouldReturnEmptyWhenOffsetExceedsTheBlobSize() {
+        BlobStoreDAO store = testee();
+        Mono.from(store.save(TEST_BUCKET_NAME, TEST_BLOB_ID, SHORT_BYTEARRAY)).block();
+
+        InputStream read = store.readRange(TEST_BUCKET_NAME, TEST_BLOB_ID, SHORT_BYTEARRAY.length + 10, 10);
+
+        assertThat(read).isEmpty();
+    }
+
+    @Test
+    default void readRangeShouldThrowWhenNotExisting() {
+        BlobStoreDAO store = testee();
+
+        assertThatThrownBy(() -> store.readRange(TEST_BUCKET_NAME, new TestBlobId("unknown"), 0, 10).read())
+            .isInstanceOf(ObjectNotFoundException.class);
+    }
+
+    @Test
+    default void readRangeShouldRejectNegativeOffsets() {
+        BlobStoreDAO store = testee();
+
+        assertThatThrownBy(() -> store.readRange(TEST_BUCKET_NAME, TEST_BLOB_ID, -1, 10))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @ParameterizedTest(name = "[{index}] {0}")
     @MethodSource("blobs")
     default void saveBytesShouldBeIdempotent(String description, byte[] bytes) {
@@ -39,6 +39,7 @@ import org.apache.james.blob.api.BlobStoreDAO;
 import org.apache.james.blob.api.BucketName;
 import org.apache.james.blob.api.ObjectNotFoundException;
 import org.apache.james.blob.api.ObjectStoreIOException;
+import org.apache.james.blob.api.RangedInputStreams;
 import org.apache.james.metrics.api.Metric;
 import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.util.DataChunker;
@@ -61,6 +62,7 @@ import reactor.core.publisher.Mono;
  */
 public class CassandraBlobStoreDAO implements BlobStoreDAO {
     public static final boolean LAZY = false;
+    public static final int PART_WRITE_CONCURRENCY = 4;
 
     public static final String CASSANDRA_BLOBSTORE_CL_ONE_MISS_COUNT_METRIC_NAME = "cassandraBlobStoreClOneMisses";
     public static final String CASSANDRA_BLOBSTORE_CL_ONE_HIT_COUNT_METRIC_NAME = "cassandraBlobStoreClOneHits";
@@ -105,6 +107,16 @@ public class CassandraBlobStoreDAO implements BlobStoreDAO {
         return Mono.just(read(bucketName, blobId));
     }
 
+    /**
+     * Only reads the parts holding the requested range. As the part size might have been changed in the configuration
+     * since the blob was saved, the size of the parts is read from the first part.
+     */
+    @Override
+    public InputStream readRange(BucketName bucketName, BlobId blobId, long offset, long length) throws ObjectStoreIOException, ObjectNotFoundException {
+        RangedInputStreams.checkRange(offset, length);
+        return ReactorUtils.toInputStream(readBlobParts(bucketName, blobId, offset, length));
+    }
+
     @Override
     public Mono<byte[]> readBytes(BucketName bucketName, BlobId blobId) {
         return readBlobParts(bucketName, blobId)
@@ -125,7 +137,9 @@ public class CassandraBlobStoreDAO implements BlobStoreDAO {
         Preconditions.checkNotNull(bucketName);
         Preconditions.checkNotNull(inputStream);
 
-        return Mono.fromCallable(() -> DataChunker.chunkStream(inputStream, configuration.getBlobPartSize()))
+        return Mono.fromCallable(() -> DataChunker.chunkStream(inputStream, configuration.getBlobPartSize())
+                // Parts are requested from the threads completing the previous writes, reading must not happen on them
+                .subscribeOn(ReactorUtils.BLOCKING_CALL_WRAPPER))
             .flatMap(chunks -> save(bucketName, blobId, chunks))
             .onErrorMap(e -> new ObjectStoreIOException("Exception occurred while saving input stream", e));
     }
@@ -143,10 +157,14 @@ public class CassandraBlobStoreDAO implements BlobStoreDAO {
             .flatMap(numberOfChunk -> saveBlobPartReference(bucketName, blobId, numberOfChunk));
     }
 
+    /**
+     * Parts are indexed by their position, hence can be written concurrently. The bounded concurrency also bounds the
+     * count of parts held in memory, and propagates back pressure to the source of the chunks.
+     */
     private Mono<Integer> saveBlobParts(BucketName bucketName, BlobId blobId, Flux<ByteBuffer> chunksAsFlux) {
         return chunksAsFlux
             .index()
-            .concatMap(pair -> writePart(bucketName, blobId, pair.getT1().intValue(), pair.getT2()))
+            .flatMap(pair -> writePart(bucketName, blobId, pair.getT1().intValue(), pair.getT2()), PART_WRITE_CONCURRENCY)
             .count()
             .map(Long::intValue);
     }
@@ -259,15 +277,60 @@ public class CassandraBlobStoreDAO implements BlobStoreDAO {
     }
 
     private Flux<ByteBuffer> readBlobParts(BucketName bucketName, BlobId blobId) {
+        return readRowCount(bucketName, blobId)
+            .flatMapMany(rowCount -> Flux.range(0, rowCount)
+                .concatMap(partIndex -> readExistingPart(bucketName, blobId, partIndex)));
+    }
+
+    private Flux<ByteBuffer> readBlobParts(BucketName bucketName, BlobId blobId, long offset, long length) {
+        if (length == 0) {
+            return Flux.empty();
+        }
+        long end = length > Long.MAX_VALUE - offset ? Long.MAX_VALUE : offset + length;
+        return readRowCount(bucketName, blobId)
+            .filter(rowCount -> rowCount > 0)
+            .flatMapMany(rowCount -> readExistingPart(bucketName, blobId, 0)
+                .flatMapMany(firstPart -> {
+                    long partSize = firstPart.remaining();
+                    if (rowCount == 1 || partSize == 0) {
+                        return Flux.just(slice(firstPart, 0, offset, end));
+                    }
+                    int firstPartIndex = (int) Math.min(offset / partSize, rowCount);
+                    int lastPartIndex = (int) Math.min((end - 1) / partSize, rowCount - 1);
+                    return Flux.range(firstPartIndex, Math.max(0, lastPartIndex - firstPartIndex + 1))
+                        .concatMap(partIndex -> readPart(bucketName, blobId, partIndex, firstPart)
+                            .map(part -> slice(part, partIndex * partSize, offset, end)));
+                }));
+    }
+
+    private Mono<ByteBuffer> readPart(BucketName bucketName, BlobId blobId, int partIndex, ByteBuffer firstPart) {
+        if (partIndex == 0) {
+            return Mono.just(firstPart);
+        }
+        return readExistingPart(bucketName, blobId, partIndex);
+    }
+
+    private ByteBuffer slice(ByteBuffer part, long partOffset, long offset, long end) {
+        int from = (int) Math.min(part.remaining(), Math.max(0, offset - partOffset));
+        int to = (int) Math.max(from, Math.min(part.remaining(), end - partOffset));
+        ByteBuffer slice = part.duplicate();
+        slice.position(part.position() + from);
+        slice.limit(part.position() + to);
+        return slice;
+    }
+
+    private Mono<Integer> readRowCount(BucketName bucketName, BlobId blobId) {
         return selectRowCount(bucketName, blobId)
             .single()
             .onErrorMap(NoSuchElementException.class, e ->
-                new ObjectNotFoundException(String.format("Could not retrieve blob metadata for %s", blobId)))
-            .flatMapMany(rowCount -> Flux.range(0, rowCount)
-                .concatMap(partIndex -> readPart(bucketName, blobId, partIndex)
-                    .single()
-                    .onErrorMap(NoSuchElementException.class, e ->
-                        new ObjectNotFoundException(String.format("Missing blob part for blobId %s and position %d", blobId.asString(), partIndex)))));
+                new ObjectNotFoundException(String.format("Could not retrieve blob metadata for %s", blobId)));
+    }
+
+    private Mono<ByteBuffer> readExistingPart(BucketName bucketName, BlobId blobId, int partIndex) {
+        return readPart(bucketName, blobId, partIndex)
+            .single()
+            .onErrorMap(NoSuchElementException.class, e ->
+                new ObjectNotFoundException(String.format("Missing blob part for blobId %s and position %d", blobId.asString(), partIndex)));
     }
 
     private byte[] byteBuffersToBytesArray(List<ByteBuffer> byteBuffers) {
@@ -197,6 +197,14 @@ public class CachedBlobStore implements BlobStore {
         return readReactive(bucketName, blobId, LOW_COST);
     }
 
+    /**
+     * Ranged reads target large blobs, that are not cached: they are served by the backend.
+     */
+    @Override
+    public InputStream readRange(BucketName bucketName, BlobId blobId, long offset, long length) {
+        return backend.readRange(bucketName, blobId, offset, length);
+    }
+
     private Mono<byte[]> readBytesInDefaultBucket(BucketName bucketName, BlobId blobId) {
         return readFromCache(blobId).switchIfEmpty(
             readBytesFromBackend(bucketName, blobId)
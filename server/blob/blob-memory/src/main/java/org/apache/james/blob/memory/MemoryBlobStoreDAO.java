@@ -30,6 +30,7 @@ import org.apache.james.blob.api.BlobStoreDAO;
 import org.apache.james.blob.api.BucketName;
 import org.apache.james.blob.api.ObjectNotFoundException;
 import org.apache.james.blob.api.ObjectStoreIOException;
+import org.apache.james.blob.api.RangedInputStreams;
 import org.reactivestreams.Publisher;
 
 import com.google.common.base.Preconditions;
@@ -62,6 +63,18 @@ public class MemoryBlobStoreDAO implements BlobStoreDAO {
             .map(ByteArrayInputStream::new);
     }
 
+    @Override
+    public InputStream readRange(BucketName bucketName, BlobId blobId, long offset, long length) throws ObjectStoreIOException, ObjectNotFoundException {
+        RangedInputStreams.checkRange(offset, length);
+        return readBytes(bucketName, blobId)
+            .map(bytes -> {
+                int from = (int) Math.min(offset, bytes.length);
+                int rangeLength = (int) Math.min(length, bytes.length - from);
+                return new ByteArrayInputStream(bytes, from, rangeLength);
+            })
+            .block();
+    }
+
     @Override
     public Mono<byte[]> readBytes(BucketName bucketName, BlobId blobId) {
         return Mono.fromCallable(() -> blobs.get(bucketName, blobId))
@@ -32,28 +32,30 @@ import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.net.ssl.TrustManagerFactory;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.james.blob.api.BlobId;
 import org.apache.james.blob.api.BlobStoreDAO;
 import org.apache.james.blob.api.BucketName;
 import org.apache.james.blob.api.ObjectNotFoundException;
 import org.apache.james.blob.api.ObjectStoreIOException;
+import org.apache.james.blob.api.RangedInputStreams;
 import org.apache.james.lifecycle.api.Startable;
 import org.apache.james.util.DataChunker;
 import org.apache.james.util.ReactorUtils;
 import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.github.fge.lambdas.Throwing;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.io.ByteSource;
-import com.google.common.io.FileBackedOutputStream;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -72,7 +74,11 @@ import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Configuration;
 import software.amazon.awssdk.services.s3.model.Bucket;
 import software.amazon.awssdk.services.s3.model.BucketAlreadyOwnedByYouException;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
 import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 import software.amazon.awssdk.services.s3.model.ListBucketsResponse;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
@@ -80,16 +86,22 @@ import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
 import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 import software.amazon.awssdk.services.s3.model.S3Object;
 
 public class S3BlobStoreDAO implements BlobStoreDAO, Startable, Closeable {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(S3BlobStoreDAO.class);
     private static final int CHUNK_SIZE = 1024 * 1024;
     private static final int EMPTY_BUCKET_BATCH_SIZE = 1000;
-    private static final int FILE_THRESHOLD = 1024 * 100;
+    // Minimum size of a multipart upload part, but the last one
+    private static final int MULTIPART_PART_SIZE = 5 * 1024 * 1024;
+    // Also bounds the parts read but not yet uploaded by each upload
+    private static final int MULTIPART_UPLOAD_CONCURRENCY = 4;
     private static final Duration FIRST_BACK_OFF = Duration.ofMillis(100);
     private static final boolean LAZY = false;
     private static final int MAX_RETRIES = 5;
+    private static final int REQUESTED_RANGE_NOT_SATISFIABLE = 416;
 
     private final BucketNameResolver bucketNameResolver;
     private final S3AsyncClient client;
@@ -186,6 +198,35 @@ public class S3BlobStoreDAO implements BlobStoreDAO, Startable, Closeable {
             .map(res -> ReactorUtils.toInputStream(res.flux));
     }
 
+    @Override
+    public InputStream readRange(BucketName bucketName, BlobId blobId, long offset, long length) throws ObjectStoreIOException, ObjectNotFoundException {
+        RangedInputStreams.checkRange(offset, length);
+        if (length == 0) {
+            return InputStream.nullInputStream();
+        }
+        BucketName resolvedBucketName = bucketNameResolver.resolve(bucketName);
+
+        return getObject(builder -> builder.bucket(resolvedBucketName.asString()).key(blobId.asString()).range(rangeHeader(offset, length)))
+            .onErrorMap(NoSuchBucketException.class, e -> new ObjectNotFoundException("Bucket not found " + resolvedBucketName.asString(), e))
+            .onErrorMap(NoSuchKeyException.class, e -> new ObjectNotFoundException("Blob not found " + blobId.asString() + " in bucket " + resolvedBucketName.asString(), e))
+            .map(res -> ReactorUtils.toInputStream(res.flux))
+            .onErrorResume(S3Exception.class, e -> {
+                if (e.statusCode() == REQUESTED_RANGE_NOT_SATISFIABLE) {
+                    // The offset exceeds the blob size
+                    return Mono.just(InputStream.nullInputStream());
+                }
+                return Mono.error(e);
+            })
+            .block();
+    }
+
+    private String rangeHeader(long offset, long length) {
+        if (length > Long.MAX_VALUE - offset) {
+            return "bytes=" + offset + "-";
+        }
+        return "bytes=" + offset + "-" + (offset + length - 1);
+    }
+
     private static class FluxResponse {
         final CompletableFuture<FluxResponse> supportingCompletableFuture = new CompletableFuture<>();
         GetObjectResponse sdkResponse;
@@ -193,9 +234,13 @@ public class S3BlobStoreDAO implements BlobStoreDAO, Startable, Closeable {
     }
 
     private Mono<FluxResponse> getObject(BucketName bucketName, BlobId blobId) {
+        return getObject(builder -> builder.bucket(bucketName.asString()).key(blobId.asString()));
+    }
+
+    private Mono<FluxResponse> getObject(Consumer<GetObjectRequest.Builder> request) {
         return Mono.fromFuture(() ->
             client.getObject(
-                builder -> builder.bucket(bucketName.asString()).key(blobId.asString()),
+                request,
                 new AsyncResponseTransformer<GetObjectResponse, FluxResponse>() {
 
                     FluxResponse response;
@@ -254,25 +299,99 @@ public class S3BlobStoreDAO implements BlobStoreDAO, Startable, Closeable {
             .then();
     }
 
+    /**
+     * The length of the stream is unknown: streams fitting in a single part are sent with a single request, bigger
+     * ones are sent as a multipart upload whose parts are read and sent as they come, without staging the content.
+     *
+     * Parts are only read upon demand of the part uploads: each upload holds at most its concurrently sent parts.
+     */
     @Override
     public Mono<Void> save(BucketName bucketName, BlobId blobId, InputStream inputStream) {
         Preconditions.checkNotNull(inputStream);
+        BucketName resolvedBucketName = bucketNameResolver.resolve(bucketName);
 
-        return uploadUsingFile(bucketName, blobId, inputStream);
-    }
-
-    private Mono<Void> uploadUsingFile(BucketName bucketName, BlobId blobId, InputStream inputStream) {
-        return Mono.using(
-            () -> new FileBackedOutputStream(FILE_THRESHOLD),
-            fileBackedOutputStream ->
-                Mono.fromCallable(() -> IOUtils.copy(inputStream, fileBackedOutputStream))
-                    .flatMap(ignore -> save(bucketName, blobId, fileBackedOutputStream.asByteSource())),
-            Throwing.consumer(FileBackedOutputStream::reset),
-            LAZY)
+        return Mono.fromCallable(() -> readPart(inputStream))
+            .subscribeOn(ReactorUtils.BLOCKING_CALL_WRAPPER)
+            .flatMap(firstPart -> {
+                if (firstPart.length < MULTIPART_PART_SIZE) {
+                    return save(bucketName, blobId, firstPart);
+                }
+                return uploadMultipart(resolvedBucketName, blobId, ByteBuffer.wrap(firstPart),
+                    readRemainingParts(inputStream)
+                        // Parts are requested from the threads completing the previous uploads, reading must not happen on them
+                        .subscribeOn(ReactorUtils.BLOCKING_CALL_WRAPPER));
+            })
             .onErrorMap(IOException.class, e -> new ObjectStoreIOException("Error saving blob", e))
+            .onErrorMap(SdkClientException.class, e -> new ObjectStoreIOException("Error saving blob", e))
             .publishOn(Schedulers.parallel());
     }
 
+    private byte[] readPart(InputStream inputStream) throws IOException {
+        return inputStream.readNBytes(MULTIPART_PART_SIZE);
+    }
+
+    private Flux<ByteBuffer> readRemainingParts(InputStream inputStream) {
+        return Flux.generate(sink -> {
+            try {
+                byte[] part = readPart(inputStream);
+                if (part.length == 0) {
+                    sink.complete();
+                } else {
+                    sink.next(ByteBuffer.wrap(part));
+                }
+            } catch (IOException e) {
+                sink.error(e);
+            }
+        });
+    }
+
+    private Mono<Void> uploadMultipart(BucketName resolvedBucketName, BlobId blobId, ByteBuffer firstPart, Flux<ByteBuffer> remainingParts) {
+        return Mono.fromFuture(() ->
+                client.createMultipartUpload(builder -> builder.bucket(resolvedBucketName.asString()).key(blobId.asString())))
+            .retryWhen(createBucketOnRetry(resolvedBucketName))
+            .map(CreateMultipartUploadResponse::uploadId)
+            .flatMap(uploadId -> Flux.concat(Mono.just(firstPart), remainingParts)
+                .index()
+                // Only requests the next part once one of the uploads completes
+                .flatMapSequential(part -> uploadPart(resolvedBucketName, blobId, uploadId, part.getT1().intValue() + 1, part.getT2()),
+                    MULTIPART_UPLOAD_CONCURRENCY)
+                .collectList()
+                .flatMap(completedParts -> Mono.fromFuture(() ->
+                    client.completeMultipartUpload(builder -> builder.bucket(resolvedBucketName.asString())
+                        .key(blobId.asString())
+                        .uploadId(uploadId)
+                        .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build()))))
+                .onErrorResume(e -> abortMultipartUpload(resolvedBucketName, blobId, uploadId)
+                    .then(Mono.error(e))))
+            .then();
+    }
+
+    private Mono<CompletedPart> uploadPart(BucketName resolvedBucketName, BlobId blobId, String uploadId, int partNumber, ByteBuffer data) {
+        return Mono.fromFuture(() ->
+                client.uploadPart(builder -> builder.bucket(resolvedBucketName.asString())
+                        .key(blobId.asString())
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .contentLength((long) data.remaining()),
+                    AsyncRequestBody.fromByteBuffer(data)))
+            .map(response -> CompletedPart.builder()
+                .partNumber(partNumber)
+                .eTag(response.eTag())
+                .build());
+    }
+
+    private Mono<Void> abortMultipartUpload(BucketName resolvedBucketName, BlobId blobId, String uploadId) {
+        return Mono.fromFuture(() ->
+                client.abortMultipartUpload(builder -> builder.bucket(resolvedBucketName.asString())
+                    .key(blobId.asString())
+                    .uploadId(uploadId)))
+            .onErrorResume(e -> {
+                LOGGER.warn("Failed aborting multipart upload {} of {}", uploadId, blobId.asString(), e);
+                return Mono.empty();
+            })
+            .then();
+    }
+
     @Override
     public Mono<Void> save(BucketName bucketName, BlobId blobId, ByteSource content) {
         BucketName resolvedBucketName = bucketNameResolver.resolve(bucketName);
@@ -20,15 +20,21 @@ package org.apache.james.blob.objectstorage.aws;
 
 import static org.apache.james.blob.api.BlobStoreDAOFixture.ELEVEN_KILOBYTES;
 import static org.apache.james.blob.api.BlobStoreDAOFixture.TEST_BUCKET_NAME;
+import static org.apache.james.blob.api.BlobStoreDAOFixture.TWELVE_MEGABYTES;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
 import java.util.stream.IntStream;
 
 import org.apache.james.blob.api.BlobStoreDAO;
 import org.apache.james.blob.api.BlobStoreDAOContract;
+import org.apache.james.blob.api.ObjectStoreIOException;
 import org.apache.james.blob.api.TestBlobId;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
@@ -107,4 +113,33 @@ public class S3BlobStoreDAOTest implements BlobStoreDAOContract {
                 }
             })).doesNotThrowAnyException();
     }
+
+    @Test
+    void failedMultipartUploadsShouldNotAffectLaterUploads() {
+        BlobStoreDAO store = testee();
+
+        IntStream.range(0, 32)
+            .forEach(i -> assertThatThrownBy(() -> Mono.from(store.save(TEST_BUCKET_NAME, new TestBlobId("failing-" + i), failingAfterSixMegabytes())).block())
+                .isInstanceOf(ObjectStoreIOException.class));
+
+        assertThatCode(() -> Mono.from(store.save(TEST_BUCKET_NAME, new TestBlobId("id"), new ByteArrayInputStream(TWELVE_MEGABYTES)))
+            .block(Duration.ofMinutes(1)))
+            .doesNotThrowAnyException();
+    }
+
+    private InputStream failingAfterSixMegabytes() {
+        return new FilterInputStream(new ByteArrayInputStream(TWELVE_MEGABYTES)) {
+            private long position = 0;
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (position > 6 * 1024 * 1024) {
+                    throw new IOException("Simulated failure");
+                }
+                int read = super.read(b, off, len);
+                position += Math.max(read, 0);
+                return read;
+            }
+        };
+    }
 }
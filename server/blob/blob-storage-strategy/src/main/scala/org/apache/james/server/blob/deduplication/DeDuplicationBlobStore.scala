@@ -106,6 +106,12 @@ class DeDuplicationBlobStore @Inject()(blobStoreDAO: BlobStoreDAO,
     blobStoreDAO.readReactive(bucketName, blobId)
   }
 
+  override def readRange(bucketName: BucketName, blobId: BlobId, offset: Long, length: Long): InputStream = {
+    Preconditions.checkNotNull(bucketName)
+
+    blobStoreDAO.readRange(bucketName, blobId, offset, length)
+  }
+
   override def getDefaultBucketName: BucketName = defaultBucketName
 
   override def deleteBucket(bucketName: BucketName): Publisher[Void] = {
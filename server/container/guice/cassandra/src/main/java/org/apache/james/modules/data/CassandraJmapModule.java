@@ -31,6 +31,7 @@ import org.apache.james.jmap.api.identity.CustomIdentityDAO;
 import org.apache.james.jmap.api.projections.EmailQueryView;
 import org.apache.james.jmap.api.projections.MessageFastViewProjection;
 import org.apache.james.jmap.api.projections.MessageFastViewProjectionHealthCheck;
+import org.apache.james.jmap.api.projections.ThreadMembershipProjection;
 import org.apache.james.jmap.api.pushsubscription.PushSubscriptionRepository;
 import org.apache.james.jmap.api.upload.UploadRepository;
 import org.apache.james.jmap.cassandra.access.CassandraAccessModule;
@@ -44,6 +45,8 @@ import org.apache.james.jmap.cassandra.projections.CassandraEmailQueryView;
 import org.apache.james.jmap.cassandra.projections.CassandraEmailQueryViewModule;
 import org.apache.james.jmap.cassandra.projections.CassandraMessageFastViewProjection;
 import org.apache.james.jmap.cassandra.projections.CassandraMessageFastViewProjectionModule;
+import org.apache.james.jmap.cassandra.projections.CassandraThreadMembershipProjection;
+import org.apache.james.jmap.cassandra.projections.CassandraThreadMembershipProjectionModule;
 import org.apache.james.jmap.cassandra.pushsubscription.CassandraPushSubscriptionModule;
 import org.apache.james.jmap.cassandra.pushsubscription.CassandraPushSubscriptionRepository;
 import org.apache.james.jmap.cassandra.upload.CassandraUploadRepository;
@@ -87,10 +90,14 @@ public class CassandraJmapModule extends AbstractModule {
         bind(CassandraEmailQueryView.class).in(Scopes.SINGLETON);
         bind(EmailQueryView.class).to(CassandraEmailQueryView.class);
 
+        bind(CassandraThreadMembershipProjection.class).in(Scopes.SINGLETON);
+        bind(ThreadMembershipProjection.class).to(CassandraThreadMembershipProjection.class);
+
         Multibinder<CassandraModule> cassandraDataDefinitions = Multibinder.newSetBinder(binder(), CassandraModule.class);
         cassandraDataDefinitions.addBinding().toInstance(CassandraAccessModule.MODULE);
         cassandraDataDefinitions.addBinding().toInstance(CassandraMessageFastViewProjectionModule.MODULE);
         cassandraDataDefinitions.addBinding().toInstance(CassandraEmailQueryViewModule.MODULE);
+        cassandraDataDefinitions.addBinding().toInstance(CassandraThreadMembershipProjectionModule.MODULE);
         cassandraDataDefinitions.addBinding().toInstance(CassandraMailboxChangeModule.MODULE);
         cassandraDataDefinitions.addBinding().toInstance(CassandraEmailChangeModule.MODULE);
         cassandraDataDefinitions.addBinding().toInstance(UploadModule.MODULE);
@@ -19,6 +19,7 @@
 package org.apache.james.modules.mailbox;
 
 import java.io.FileNotFoundException;
+import java.util.Optional;
 import java.util.Set;
 
 import org.apache.commons.configuration2.Configuration;
@@ -38,7 +39,9 @@ import org.apache.james.backends.cassandra.versions.CassandraSchemaVersionModule
 import org.apache.james.core.healthcheck.HealthCheck;
 import org.apache.james.lifecycle.api.StartUpCheck;
 import org.apache.james.mailbox.store.BatchSizes;
+import org.apache.james.mailbox.store.MailboxCountersCache;
 import org.apache.james.server.CassandraProbe;
+import org.apache.james.util.DurationParser;
 import org.apache.james.util.Host;
 import org.apache.james.utils.GuiceProbe;
 import org.apache.james.utils.PropertiesProvider;
@@ -117,6 +120,24 @@ public class CassandraSessionModule extends AbstractModule {
         }
     }
 
+    @Provides
+    @Singleton
+    MailboxCountersCache.Configuration provideMailboxCountersCacheConfiguration(PropertiesProvider propertiesProvider) throws ConfigurationException {
+        try {
+            Configuration configuration = propertiesProvider.getConfiguration(CASSANDRA_FILE_NAME);
+            if (!configuration.getBoolean("mailbox.counters.cache.enabled", false)) {
+                return MailboxCountersCache.Configuration.DISABLED;
+            }
+            return MailboxCountersCache.Configuration.enabled(
+                Optional.ofNullable(configuration.getString("mailbox.counters.cache.expiry", null))
+                    .map(DurationParser::parse)
+                    .orElse(MailboxCountersCache.DEFAULT_EXPIRY),
+                configuration.getLong("mailbox.counters.cache.size", MailboxCountersCache.DEFAULT_MAXIMUM_SIZE));
+        } catch (FileNotFoundException e) {
+            return MailboxCountersCache.Configuration.DISABLED;
+        }
+    }
+
     @VisibleForTesting
     @Provides
     @Singleton
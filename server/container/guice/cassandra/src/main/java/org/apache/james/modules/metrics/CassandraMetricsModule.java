@@ -19,13 +19,16 @@
 
 package org.apache.james.modules.metrics;
 
+import org.apache.james.backends.cassandra.utils.AdaptiveConcurrencyLimitingRequestThrottler;
 import org.apache.james.lifecycle.api.Startable;
+import org.apache.james.metrics.api.GaugeRegistry;
 import org.apache.james.utils.InitializationOperation;
 import org.apache.james.utils.InitilizationOperationBuilder;
 
 import com.codahale.metrics.MetricRegistry;
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.metrics.Metrics;
+import com.datastax.oss.driver.internal.core.context.InternalDriverContext;
 import com.google.inject.AbstractModule;
 import com.google.inject.Scopes;
 import com.google.inject.multibindings.ProvidesIntoSet;
@@ -38,11 +41,24 @@ public class CassandraMetricsModule extends AbstractModule {
     }
 
     @ProvidesIntoSet
-    InitializationOperation injectMetrics(MetricRegistry metricRegistry, CqlSession session) {
+    InitializationOperation injectMetrics(MetricRegistry metricRegistry, GaugeRegistry gaugeRegistry, CqlSession session) {
         return InitilizationOperationBuilder
             .forClass(CassandraMetricsInjector.class)
-            .init(() -> session.getMetrics().map(Metrics::getRegistry)
-                .ifPresent(metricRegistry::registerAll));
+            .init(() -> {
+                session.getMetrics().map(Metrics::getRegistry)
+                    .ifPresent(metricRegistry::registerAll);
+                registerThrottlerGauges(gaugeRegistry, session);
+            });
+    }
+
+    private void registerThrottlerGauges(GaugeRegistry gaugeRegistry, CqlSession session) {
+        if (session.getContext() instanceof InternalDriverContext
+            && ((InternalDriverContext) session.getContext()).getRequestThrottler() instanceof AdaptiveConcurrencyLimitingRequestThrottler) {
+            AdaptiveConcurrencyLimitingRequestThrottler throttler = (AdaptiveConcurrencyLimitingRequestThrottler) ((InternalDriverContext) session.getContext()).getRequestThrottler();
+            gaugeRegistry.register("cassandra.throttler.limit", throttler::getCurrentLimit);
+            gaugeRegistry.register("cassandra.throttler.inFlight", throttler::getInFlightRequests);
+            gaugeRegistry.register("cassandra.throttler.queue.size", throttler::getQueueSize);
+        }
     }
 
     public static class CassandraMetricsInjector implements Startable {
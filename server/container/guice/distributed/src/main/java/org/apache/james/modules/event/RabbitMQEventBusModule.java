@@ -19,6 +19,13 @@
 
 package org.apache.james.modules.event;
 
+import static org.apache.james.modules.queue.rabbitmq.RabbitMQModule.RABBITMQ_CONFIGURATION_NAME;
+
+import java.io.FileNotFoundException;
+
+import javax.inject.Singleton;
+
+import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.james.backends.rabbitmq.SimpleConnectionPool;
 import org.apache.james.core.healthcheck.HealthCheck;
 import org.apache.james.event.json.MailboxEventSerializer;
@@ -33,15 +40,20 @@ import org.apache.james.events.RabbitMQEventBusDeadLetterQueueHealthCheck;
 import org.apache.james.events.RegistrationKey;
 import org.apache.james.events.RetryBackoffConfiguration;
 import org.apache.james.mailbox.events.MailboxIdRegistrationKey;
+import org.apache.james.mailbox.events.UsernameRegistrationKey;
+import org.apache.james.mailbox.store.event.MailboxRegistrationKeys;
 import org.apache.james.utils.InitializationOperation;
 import org.apache.james.utils.InitilizationOperationBuilder;
+import org.apache.james.utils.PropertiesProvider;
 
 import com.google.inject.AbstractModule;
+import com.google.inject.Provides;
 import com.google.inject.Scopes;
 import com.google.inject.multibindings.Multibinder;
 import com.google.inject.multibindings.ProvidesIntoSet;
 
 public class RabbitMQEventBusModule extends AbstractModule {
+    private static final String ACCOUNT_WIDE_EVENTS_ENABLED = "event.bus.account.wide.events.enabled";
 
     @Override
     protected void configure() {
@@ -56,8 +68,9 @@ public class RabbitMQEventBusModule extends AbstractModule {
             .addBinding()
             .to(EventBus.class);
 
-        Multibinder.newSetBinder(binder(), RegistrationKey.Factory.class)
-            .addBinding().to(MailboxIdRegistrationKey.Factory.class);
+        Multibinder<RegistrationKey.Factory> registrationKeyFactories = Multibinder.newSetBinder(binder(), RegistrationKey.Factory.class);
+        registrationKeyFactories.addBinding().to(MailboxIdRegistrationKey.Factory.class);
+        registrationKeyFactories.addBinding().to(UsernameRegistrationKey.Factory.class);
 
         bind(RetryBackoffConfiguration.class).toInstance(RetryBackoffConfiguration.DEFAULT);
         bind(EventBusId.class).toInstance(EventBusId.random());
@@ -70,6 +83,18 @@ public class RabbitMQEventBusModule extends AbstractModule {
             .addBinding().to(RabbitMQEventBusDeadLetterQueueHealthCheck.class);
     }
 
+    @Provides
+    @Singleton
+    MailboxRegistrationKeys provideMailboxRegistrationKeys(PropertiesProvider propertiesProvider) throws ConfigurationException {
+        // Each key is a separate publish: account wide keys are opt-in
+        try {
+            return MailboxRegistrationKeys.of(propertiesProvider.getConfiguration(RABBITMQ_CONFIGURATION_NAME)
+                .getBoolean(ACCOUNT_WIDE_EVENTS_ENABLED, false));
+        } catch (FileNotFoundException e) {
+            return MailboxRegistrationKeys.MAILBOX_ONLY;
+        }
+    }
+
     @ProvidesIntoSet
     InitializationOperation workQueue(RabbitMQEventBus instance) {
         return InitilizationOperationBuilder
@@ -28,6 +28,7 @@ import org.apache.james.events.InVMEventBus;
 import org.apache.james.events.RetryBackoffConfiguration;
 import org.apache.james.events.delivery.EventDelivery;
 import org.apache.james.events.delivery.InVmEventDelivery;
+import org.apache.james.mailbox.store.event.MailboxRegistrationKeys;
 import org.apache.james.modules.EventDeadLettersProbe;
 import org.apache.james.server.core.configuration.ConfigurationProvider;
 import org.apache.james.utils.GuiceProbe;
@@ -62,6 +63,8 @@ public class DefaultEventModule extends AbstractModule {
             .to(EventBus.class);
 
         bind(RetryBackoffConfiguration.class).toInstance(RetryBackoffConfiguration.DEFAULT);
+        // Keys nobody registered on cost nothing in VM
+        bind(MailboxRegistrationKeys.class).toInstance(MailboxRegistrationKeys.WITH_ACCOUNT_KEYS);
 
         Multibinder.newSetBinder(binder(), EventListener.GroupEventListener.class);
         Multibinder.newSetBinder(binder(), EventListener.ReactiveGroupEventListener.class);
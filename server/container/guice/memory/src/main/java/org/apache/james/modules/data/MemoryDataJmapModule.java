@@ -27,11 +27,13 @@ import org.apache.james.jmap.api.identity.CustomIdentityDAO;
 import org.apache.james.jmap.api.projections.EmailQueryView;
 import org.apache.james.jmap.api.projections.MessageFastViewProjection;
 import org.apache.james.jmap.api.projections.MessageFastViewProjectionHealthCheck;
+import org.apache.james.jmap.api.projections.ThreadMembershipProjection;
 import org.apache.james.jmap.api.upload.UploadRepository;
 import org.apache.james.jmap.memory.access.MemoryAccessTokenRepository;
 import org.apache.james.jmap.memory.identity.MemoryCustomIdentityDAO;
 import org.apache.james.jmap.memory.projections.MemoryEmailQueryView;
 import org.apache.james.jmap.memory.projections.MemoryMessageFastViewProjection;
+import org.apache.james.jmap.memory.projections.MemoryThreadMembershipProjection;
 import org.apache.james.jmap.memory.upload.InMemoryUploadRepository;
 import org.apache.james.mailbox.extractor.TextExtractor;
 import org.apache.james.mailbox.store.extractor.DefaultTextExtractor;
@@ -66,6 +68,9 @@ public class MemoryDataJmapModule extends AbstractModule {
         bind(MemoryEmailQueryView.class).in(Scopes.SINGLETON);
         bind(EmailQueryView.class).to(MemoryEmailQueryView.class);
 
+        bind(MemoryThreadMembershipProjection.class).in(Scopes.SINGLETON);
+        bind(ThreadMembershipProjection.class).to(MemoryThreadMembershipProjection.class);
+
         bind(MessageFastViewProjectionHealthCheck.class).in(Scopes.SINGLETON);
         Multibinder.newSetBinder(binder(), HealthCheck.class)
             .addBinding()
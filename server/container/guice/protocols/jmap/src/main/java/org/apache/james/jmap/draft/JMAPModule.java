@@ -185,12 +185,17 @@ public class JMAPModule extends AbstractModule {
                 .enabled(configuration.getBoolean("enabled", true))
                 .port(Port.of(configuration.getInt("jmap.port", DEFAULT_JMAP_PORT)))
                 .enableEmailQueryView(Optional.ofNullable(configuration.getBoolean("view.email.query.enabled", null)))
+                .enableEmailQueryViewFiltering(Optional.ofNullable(configuration.getBoolean("view.email.query.filtering.enabled", null)))
                 .userProvisioningEnabled(Optional.ofNullable(configuration.getBoolean("user.provisioning.enabled", null)))
                 .defaultVersion(Optional.ofNullable(configuration.getString("jmap.version.default", null))
                     .map(Version::of))
                 .maximumSendSize(Optional.ofNullable(configuration.getString("email.send.max.size", null))
                     .map(Throwing.function(Size::parse))
                     .map(Size::asBytes))
+                .compressionEnabled(Optional.ofNullable(configuration.getBoolean("http.compression.enabled", null)))
+                .compressionMinimumSize(Optional.ofNullable(configuration.getString("http.compression.min.size", null))
+                    .map(Throwing.function(Size::parse))
+                    .map(size -> Math.toIntExact(size.asBytes())))
                 .build();
         } catch (FileNotFoundException e) {
             LOGGER.warn("Could not find JMAP configuration file. JMAP server will not be enabled.");
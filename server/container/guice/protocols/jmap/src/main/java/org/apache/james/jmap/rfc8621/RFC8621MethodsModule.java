@@ -36,6 +36,7 @@ import org.apache.james.jmap.change.EmailSubmissionTypeName$;
 import org.apache.james.jmap.change.EmailTypeName$;
 import org.apache.james.jmap.change.IdentityTypeName$;
 import org.apache.james.jmap.change.MailboxTypeName$;
+import org.apache.james.jmap.change.PushHub;
 import org.apache.james.jmap.change.ThreadTypeName$;
 import org.apache.james.jmap.change.VacationResponseTypeName$;
 import org.apache.james.jmap.core.JmapRfc8621Configuration;
@@ -51,6 +52,7 @@ import org.apache.james.jmap.method.EmailChangesMethod;
 import org.apache.james.jmap.method.EmailGetMethod;
 import org.apache.james.jmap.method.EmailImportMethod;
 import org.apache.james.jmap.method.EmailQueryMethod;
+import org.apache.james.jmap.method.EmailQueryResultCache;
 import org.apache.james.jmap.method.EmailSetMethod;
 import org.apache.james.jmap.method.EmailSubmissionSetMethod;
 import org.apache.james.jmap.method.IdentityGetMethod;
@@ -124,6 +126,9 @@ public class RFC8621MethodsModule extends AbstractModule {
         bind(DefaultWebPushClient.class).in(Scopes.SINGLETON);
         bind(WebPushClient.class).to(DefaultWebPushClient.class);
 
+        bind(PushHub.class).in(Scopes.SINGLETON);
+        bind(EmailQueryResultCache.class).in(Scopes.SINGLETON);
+
         Multibinder<Method> methods = Multibinder.newSetBinder(binder(), Method.class);
         methods.addBinding().to(CoreEchoMethod.class);
         methods.addBinding().to(EmailChangesMethod.class);
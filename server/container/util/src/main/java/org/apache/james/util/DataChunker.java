@@ -19,7 +19,6 @@
 
 package org.apache.james.util;
 
-import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
@@ -56,13 +55,13 @@ public class DataChunker {
     public static Flux<ByteBuffer> chunkStream(InputStream data, int chunkSize) {
         Preconditions.checkNotNull(data);
         Preconditions.checkArgument(chunkSize > 0, CHUNK_SIZE_MUST_BE_STRICTLY_POSITIVE);
-        BufferedInputStream bufferedInputStream = new BufferedInputStream(data);
         return Flux
             .<ByteBuffer>generate(sink -> {
                 try {
                     byte[] buffer = new byte[chunkSize];
 
-                    int size = bufferedInputStream.read(buffer);
+                    // Network backed streams return partial reads, chunks (but the last one) are expected to be full
+                    int size = data.readNBytes(buffer, 0, chunkSize);
                     if (size <= 0) {
                         sink.complete();
                     } else {
@@ -166,6 +166,24 @@ public class DataChunkerTest {
 
             assertThat(chunks.map(DataChunkerTest::read).toStream()).containsExactly(part1, part2);
         }
+
+        @Test
+        public void chunkShouldReturnFullChunksWhenInputReturnsPartialReads() {
+            byte[] part1 = "1234567890".getBytes(StandardCharsets.UTF_8);
+            byte[] part2 = "12345".getBytes(StandardCharsets.UTF_8);
+            Assumptions.assumeThat(part1.length).isEqualTo(CHUNK_SIZE);
+            byte[] data = Bytes.concat(part1, part2);
+            java.io.InputStream trickling = new ByteArrayInputStream(data) {
+                @Override
+                public synchronized int read(byte[] b, int off, int len) {
+                    return super.read(b, off, Math.min(len, 3));
+                }
+            };
+
+            Flux<ByteBuffer> chunks = testee.chunkStream(trickling, CHUNK_SIZE);
+
+            assertThat(chunks.map(DataChunkerTest::read).toStream()).containsExactly(part1, part2);
+        }
     }
 
     static byte[] read(ByteBuffer buffer) {
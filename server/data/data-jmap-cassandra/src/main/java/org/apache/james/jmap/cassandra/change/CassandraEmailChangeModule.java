@@ -37,9 +37,11 @@ import static org.apache.james.jmap.cassandra.change.tables.CassandraEmailChange
 import static org.apache.james.jmap.cassandra.change.tables.CassandraEmailChangeTable.UPDATED;
 
 import org.apache.james.backends.cassandra.components.CassandraModule;
+import org.apache.james.jmap.cassandra.change.tables.CassandraEmailChangeCheckpointTable;
 
 public interface CassandraEmailChangeModule {
-    CassandraModule MODULE = CassandraModule.table(TABLE_NAME)
+    CassandraModule MODULE = CassandraModule.builder()
+        .table(TABLE_NAME)
         .comment("Holds EmailChange definition. Used to manage Email state in JMAP.")
         .options(options -> options
             .withClusteringOrder(STATE, ASC)
@@ -52,5 +54,19 @@ public interface CassandraEmailChangeModule {
             .withColumn(CREATED, frozenSetOf(TIMEUUID))
             .withColumn(UPDATED, frozenSetOf(TIMEUUID))
             .withColumn(DESTROYED, frozenSetOf(TIMEUUID)))
+
+        .table(CassandraEmailChangeCheckpointTable.TABLE_NAME)
+        .comment("Holds merged EmailChange windows, allowing Email/changes to skip over compacted parts of the change log.")
+        .options(options -> options
+            .withClusteringOrder(CassandraEmailChangeCheckpointTable.WITH_DELEGATION, ASC)
+            .withClusteringOrder(CassandraEmailChangeCheckpointTable.FROM_STATE, ASC))
+        .statement(statement -> types -> statement
+            .withPartitionKey(CassandraEmailChangeCheckpointTable.ACCOUNT_ID, TEXT)
+            .withClusteringColumn(CassandraEmailChangeCheckpointTable.WITH_DELEGATION, BOOLEAN)
+            .withClusteringColumn(CassandraEmailChangeCheckpointTable.FROM_STATE, TIMEUUID)
+            .withColumn(CassandraEmailChangeCheckpointTable.TO_STATE, TIMEUUID)
+            .withColumn(CassandraEmailChangeCheckpointTable.CREATED, frozenSetOf(TIMEUUID))
+            .withColumn(CassandraEmailChangeCheckpointTable.UPDATED, frozenSetOf(TIMEUUID))
+            .withColumn(CassandraEmailChangeCheckpointTable.DESTROYED, frozenSetOf(TIMEUUID)))
         .build();
 }
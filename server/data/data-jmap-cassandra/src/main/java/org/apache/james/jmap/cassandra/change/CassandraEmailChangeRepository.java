@@ -19,7 +19,12 @@
 
 package org.apache.james.jmap.cassandra.change;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -31,22 +36,49 @@ import org.apache.james.jmap.api.change.Limit;
 import org.apache.james.jmap.api.change.State;
 import org.apache.james.jmap.api.exception.ChangeNotFoundException;
 import org.apache.james.jmap.api.model.AccountId;
+import org.apache.james.jmap.cassandra.change.EmailChangeCheckpointDAO.Checkpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+/**
+ * Email changes are read from the change log, jumping over the parts of it that got compacted into checkpoints.
+ *
+ * Compaction is triggered by reads scanning a long uncompacted part of the log. Each run merges a bounded number
+ * of changes older than {@link #COMPACTION_GRACE_PERIOD} into checkpoints of at most the default limit of changes,
+ * so that checkpoints can be served as a whole to most clients. Raw changes are kept: clients holding a state within
+ * a checkpoint, or asking for fewer changes than a checkpoint holds, keep reading them.
+ */
 public class CassandraEmailChangeRepository implements EmailChangeRepository {
     public static final String LIMIT_NAME = "emailChangeDefaultLimit";
+    public static final Duration COMPACTION_GRACE_PERIOD = Duration.ofHours(1);
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CassandraEmailChangeRepository.class);
+    private static final int COMPACTION_TRIGGER = 512;
+    private static final int MAX_CHANGES_PER_COMPACTION = 8192;
+    private static final int MAX_CHANGES_PER_CHECKPOINT = 1024;
+    private static final Limit UNLIMITED = Limit.of(Integer.MAX_VALUE);
+    private static final boolean WITH_DELEGATION = true;
+    private static final boolean WITHOUT_DELEGATION = false;
 
     private final EmailChangeRepositoryDAO emailChangeRepositoryDAO;
+    private final EmailChangeCheckpointDAO checkpointDAO;
     private final Limit defaultLimit;
+    private final Clock clock;
 
     @Inject
-    public CassandraEmailChangeRepository(EmailChangeRepositoryDAO emailChangeRepositoryDAO, @Named(LIMIT_NAME) Limit defaultLimit) {
+    public CassandraEmailChangeRepository(EmailChangeRepositoryDAO emailChangeRepositoryDAO, EmailChangeCheckpointDAO checkpointDAO,
+                                          @Named(LIMIT_NAME) Limit defaultLimit, Clock clock) {
         this.emailChangeRepositoryDAO = emailChangeRepositoryDAO;
+        this.checkpointDAO = checkpointDAO;
         this.defaultLimit = defaultLimit;
+        this.clock = clock;
     }
 
     @Override
@@ -56,38 +88,174 @@ public class CassandraEmailChangeRepository implements EmailChangeRepository {
 
     @Override
     public Mono<EmailChanges> getSinceState(AccountId accountId, State state, Optional<Limit> maxChanges) {
+        return getSinceState(accountId, state, maxChanges, WITHOUT_DELEGATION);
+    }
+
+    @Override
+    public Mono<EmailChanges> getSinceStateWithDelegation(AccountId accountId, State state, Optional<Limit> maxChanges) {
+        return getSinceState(accountId, state, maxChanges, WITH_DELEGATION);
+    }
+
+    private Mono<EmailChanges> getSinceState(AccountId accountId, State state, Optional<Limit> maxChanges, boolean withDelegation) {
         Preconditions.checkNotNull(accountId);
         Preconditions.checkNotNull(state);
         maxChanges.ifPresent(limit -> Preconditions.checkArgument(limit.getValue() > 0, "maxChanges must be a positive integer"));
 
+        return Mono.defer(() -> {
+            EmailChanges.Builder builder = new EmailChanges.Builder(state, maxChanges.orElse(defaultLimit));
+            AtomicInteger rawChangesRead = new AtomicInteger();
+
+            return checkStateExists(accountId, state)
+                .then(collect(accountId, builder, withDelegation, rawChangesRead))
+                .then(Mono.fromCallable(builder::build))
+                .flatMap(changes -> compactIfNeeded(accountId, rawChangesRead.get())
+                    .thenReturn(changes));
+        });
+    }
+
+    private Mono<Void> checkStateExists(AccountId accountId, State state) {
         if (state.equals(State.INITIAL)) {
-            return emailChangeRepositoryDAO.getAllChanges(accountId)
-                .filter(change -> !change.isDelegated())
-                .collect(new EmailChanges.Builder.EmailChangeCollector(state, maxChanges.orElse(defaultLimit)));
+            return Mono.empty();
         }
+        return emailChangeRepositoryDAO.hasChangesSince(accountId, state)
+            .filter(exists -> exists)
+            .switchIfEmpty(Mono.error(() -> new ChangeNotFoundException(state, String.format("State '%s' could not be found", state.getValue()))))
+            .then();
+    }
+
+    private Mono<Void> collect(AccountId accountId, EmailChanges.Builder builder, boolean withDelegation, AtomicInteger rawChangesRead) {
+        State position = builder.getState();
 
-        return emailChangeRepositoryDAO.getChangesSince(accountId, state)
-            .switchIfEmpty(Flux.error(() -> new ChangeNotFoundException(state, String.format("State '%s' could not be found", state.getValue()))))
-            .filter(change -> !change.isDelegated())
-            .filter(change -> !change.getState().equals(state))
-            .collect(new EmailChanges.Builder.EmailChangeCollector(state, maxChanges.orElse(defaultLimit)));
+        return checkpointDAO.nextCheckpoint(accountId, withDelegation, position)
+            .flatMap(checkpoint -> applyChanges(emailChangeRepositoryDAO.getChangesBetween(accountId, position, checkpoint.getFromState()),
+                    builder, withDelegation, rawChangesRead)
+                .then(Mono.defer(() -> applyCheckpoint(accountId, checkpoint, builder, withDelegation, rawChangesRead)))
+                .thenReturn(checkpoint))
+            .switchIfEmpty(Mono.defer(() -> applyChanges(emailChangeRepositoryDAO.getChangesAfter(accountId, position), builder, withDelegation, rawChangesRead)
+                .then(Mono.empty())))
+            .flatMap(checkpoint -> {
+                if (builder.hasMoreChanges()) {
+                    return Mono.empty();
+                }
+                return collect(accountId, builder, withDelegation, rawChangesRead);
+            });
     }
 
-    @Override
-    public Mono<EmailChanges> getSinceStateWithDelegation(AccountId accountId, State state, Optional<Limit> maxChanges) {
-        Preconditions.checkNotNull(accountId);
-        Preconditions.checkNotNull(state);
-        maxChanges.ifPresent(limit -> Preconditions.checkArgument(limit.getValue() > 0, "maxChanges must be a positive integer"));
+    private Mono<Void> applyCheckpoint(AccountId accountId, Checkpoint checkpoint, EmailChanges.Builder builder,
+                                       boolean withDelegation, AtomicInteger rawChangesRead) {
+        if (builder.hasMoreChanges()) {
+            return Mono.empty();
+        }
+        EmailChange mergedChanges = checkpoint.asEmailChange(accountId);
+        if (builder.canAdd(mergedChanges)) {
+            builder.add(mergedChanges);
+            return Mono.empty();
+        }
+        // The checkpoint is bigger than what the client asked for: fall back to the changes it merged
+        return applyChanges(emailChangeRepositoryDAO.getChangesBetween(accountId, checkpoint.getFromState(), checkpoint.getToState()),
+            builder, withDelegation, rawChangesRead);
+    }
 
-        if (state.equals(State.INITIAL)) {
-            return emailChangeRepositoryDAO.getAllChanges(accountId)
-                .collect(new EmailChanges.Builder.EmailChangeCollector(state, maxChanges.orElse(defaultLimit)));
+    private Mono<Void> applyChanges(Flux<EmailChange> changes, EmailChanges.Builder builder, boolean withDelegation, AtomicInteger rawChangesRead) {
+        // Stops reading the log as soon as the limit is reached
+        return changes
+            .doOnNext(any -> rawChangesRead.incrementAndGet())
+            .filter(change -> withDelegation || !change.isDelegated())
+            .takeWhile(change -> !builder.add(change).hasMoreChanges())
+            .then();
+    }
+
+    private Mono<Void> compactIfNeeded(AccountId accountId, int rawChangesRead) {
+        if (rawChangesRead < COMPACTION_TRIGGER) {
+            return Mono.empty();
+        }
+        return compact(accountId, ZonedDateTime.now(clock).minus(COMPACTION_GRACE_PERIOD))
+            .onErrorResume(e -> {
+                LOGGER.warn("Failed compacting email changes of {}", accountId.getIdentifier(), e);
+                return Mono.empty();
+            });
+    }
+
+    /**
+     * Merges changes anterior to the given date, following the latest checkpoint, into new checkpoints.
+     */
+    @VisibleForTesting
+    Mono<Void> compact(AccountId accountId, ZonedDateTime before) {
+        return checkpointDAO.latestCheckpoint(accountId, WITH_DELEGATION)
+            .map(Checkpoint::getToState)
+            .defaultIfEmpty(State.INITIAL)
+            .flatMap(start -> emailChangeRepositoryDAO.getChangesAfter(accountId, start)
+                .takeWhile(change -> change.getDate().isBefore(before))
+                .take(MAX_CHANGES_PER_COMPACTION)
+                .collectList()
+                .flatMap(changes -> persistCheckpoints(accountId, start, changes)));
+    }
+
+    private Mono<Void> persistCheckpoints(AccountId accountId, State start, List<EmailChange> changes) {
+        if (start.equals(State.INITIAL)) {
+            // Checkpoints start at an actual state of the log
+            if (changes.isEmpty()) {
+                return Mono.empty();
+            }
+            return persistCheckpoints(accountId, changes.get(0).getState(), changes.subList(1, changes.size()));
         }
 
-        return emailChangeRepositoryDAO.getChangesSince(accountId, state)
-            .switchIfEmpty(Flux.error(() -> new ChangeNotFoundException(state, String.format("State '%s' could not be found", state.getValue()))))
-            .filter(change -> !change.getState().equals(state))
-            .collect(new EmailChanges.Builder.EmailChangeCollector(state, maxChanges.orElse(defaultLimit)));
+        List<List<EmailChange>> windows = splitInWindows(start, changes);
+        return Flux.range(0, windows.size())
+            .concatMap(index -> {
+                State from = index == 0 ? start : lastState(windows.get(index - 1));
+                return persistCheckpoint(accountId, from, windows.get(index));
+            })
+            .then();
+    }
+
+    private State lastState(List<EmailChange> window) {
+        return window.get(window.size() - 1).getState();
+    }
+
+    private List<List<EmailChange>> splitInWindows(State start, List<EmailChange> changes) {
+        ImmutableList.Builder<List<EmailChange>> windows = ImmutableList.builder();
+        ImmutableList.Builder<EmailChange> window = ImmutableList.builder();
+        EmailChanges.Builder windowChanges = new EmailChanges.Builder(start, defaultLimit);
+        int windowSize = 0;
+
+        for (EmailChange change : changes) {
+            if (windowSize > 0 && !windowChanges.canAdd(change)) {
+                windows.add(window.build());
+                window = ImmutableList.builder();
+                windowChanges = new EmailChanges.Builder(windowChanges.getState(), defaultLimit);
+                windowSize = 0;
+            }
+            window.add(change);
+            windowChanges.add(change);
+            windowSize++;
+            if (windowSize == MAX_CHANGES_PER_CHECKPOINT) {
+                windows.add(window.build());
+                window = ImmutableList.builder();
+                windowChanges = new EmailChanges.Builder(change.getState(), defaultLimit);
+                windowSize = 0;
+            }
+        }
+        // The last window might still grow: it is only compacted once full
+        return windows.build();
+    }
+
+    private Mono<Void> persistCheckpoint(AccountId accountId, State from, List<EmailChange> window) {
+        EmailChanges.Builder allChanges = new EmailChanges.Builder(from, UNLIMITED);
+        EmailChanges.Builder ownChanges = new EmailChanges.Builder(from, UNLIMITED);
+        window.forEach(change -> {
+            allChanges.add(change);
+            if (!change.isDelegated()) {
+                ownChanges.add(change);
+            }
+        });
+        boolean hasOwnChanges = window.stream().anyMatch(change -> !change.isDelegated());
+
+        // Checkpoints including delegated changes mark the compaction progress, hence are written last
+        return Mono.just(hasOwnChanges)
+            .filter(any -> any)
+            .flatMap(any -> checkpointDAO.insert(accountId, WITHOUT_DELEGATION, from, ownChanges.build()))
+            .then(checkpointDAO.insert(accountId, WITH_DELEGATION, from, allChanges.build()));
     }
 
     @Override
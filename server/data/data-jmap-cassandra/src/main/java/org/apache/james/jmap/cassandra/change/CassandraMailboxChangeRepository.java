@@ -63,14 +63,14 @@ public class CassandraMailboxChangeRepository implements MailboxChangeRepository
         if (state.equals(State.INITIAL)) {
             return mailboxChangeRepositoryDAO.getAllChanges(accountId)
                 .filter(change -> !change.isDelegated())
-                .collect(new MailboxChanges.MailboxChangesBuilder.MailboxChangeCollector(state, maxChanges.orElse(defaultLimit)));
+                .as(changes -> collect(changes, state, maxChanges.orElse(defaultLimit)));
         }
 
         return mailboxChangeRepositoryDAO.getChangesSince(accountId, state)
             .switchIfEmpty(Flux.error(() -> new ChangeNotFoundException(state, String.format("State '%s' could not be found", state.getValue()))))
             .filter(change -> !change.isDelegated())
             .filter(change -> !change.getState().equals(state))
-            .collect(new MailboxChanges.MailboxChangesBuilder.MailboxChangeCollector(state, maxChanges.orElse(defaultLimit)));
+            .as(changes -> collect(changes, state, maxChanges.orElse(defaultLimit)));
     }
 
     @Override
@@ -81,13 +81,24 @@ public class CassandraMailboxChangeRepository implements MailboxChangeRepository
 
         if (state.equals(State.INITIAL)) {
             return mailboxChangeRepositoryDAO.getAllChanges(accountId)
-                .collect(new MailboxChanges.MailboxChangesBuilder.MailboxChangeCollector(state, maxChanges.orElse(defaultLimit)));
+                .as(changes -> collect(changes, state, maxChanges.orElse(defaultLimit)));
         }
 
         return mailboxChangeRepositoryDAO.getChangesSince(accountId, state)
             .switchIfEmpty(Flux.error(() -> new ChangeNotFoundException(state, String.format("State '%s' could not be found", state.getValue()))))
             .filter(change -> !change.getState().equals(state))
-            .collect(new MailboxChanges.MailboxChangesBuilder.MailboxChangeCollector(state, maxChanges.orElse(defaultLimit)));
+            .as(changes -> collect(changes, state, maxChanges.orElse(defaultLimit)));
+    }
+
+    private Mono<MailboxChanges> collect(Flux<MailboxChange> changes, State state, Limit limit) {
+        return Mono.defer(() -> {
+            MailboxChanges.MailboxChangesBuilder builder = new MailboxChanges.MailboxChangesBuilder(state, limit);
+
+            // Stops reading the log as soon as the limit is reached
+            return changes
+                .takeWhile(change -> !builder.add(change).hasMoreChanges())
+                .then(Mono.fromCallable(builder::build));
+        });
     }
 
     @Override
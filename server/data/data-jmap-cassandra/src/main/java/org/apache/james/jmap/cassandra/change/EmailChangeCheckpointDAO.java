@@ -0,0 +1,214 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.jmap.cassandra.change;
+
+import static com.datastax.oss.driver.api.core.metadata.schema.ClusteringOrder.ASC;
+import static com.datastax.oss.driver.api.core.metadata.schema.ClusteringOrder.DESC;
+import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.bindMarker;
+import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.insertInto;
+import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.selectFrom;
+import static org.apache.james.jmap.cassandra.change.tables.CassandraEmailChangeCheckpointTable.ACCOUNT_ID;
+import static org.apache.james.jmap.cassandra.change.tables.CassandraEmailChangeCheckpointTable.CREATED;
+import static org.apache.james.jmap.cassandra.change.tables.CassandraEmailChangeCheckpointTable.DESTROYED;
+import static org.apache.james.jmap.cassandra.change.tables.CassandraEmailChangeCheckpointTable.FROM_STATE;
+import static org.apache.james.jmap.cassandra.change.tables.CassandraEmailChangeCheckpointTable.TABLE_NAME;
+import static org.apache.james.jmap.cassandra.change.tables.CassandraEmailChangeCheckpointTable.TO_STATE;
+import static org.apache.james.jmap.cassandra.change.tables.CassandraEmailChangeCheckpointTable.UPDATED;
+import static org.apache.james.jmap.cassandra.change.tables.CassandraEmailChangeCheckpointTable.WITH_DELEGATION;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+
+import javax.inject.Inject;
+
+import org.apache.james.backends.cassandra.utils.CassandraAsyncExecutor;
+import org.apache.james.jmap.api.change.EmailChange;
+import org.apache.james.jmap.api.change.EmailChanges;
+import org.apache.james.jmap.api.change.State;
+import org.apache.james.jmap.api.model.AccountId;
+import org.apache.james.mailbox.cassandra.ids.CassandraMessageId;
+import org.apache.james.mailbox.model.MessageId;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
+import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
+import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import com.datastax.oss.driver.api.core.uuid.Uuids;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Stores merged windows of the email change log.
+ *
+ * A checkpoint starting at state S holds the changes following S up to and including its target state, as if
+ * they had been applied one after the other. Checkpoints are stored separately for the changes of the account
+ * mailboxes and for all changes including the delegated ones.
+ */
+public class EmailChangeCheckpointDAO {
+    public static class Checkpoint {
+        private final State fromState;
+        private final State toState;
+        private final ImmutableList<MessageId> created;
+        private final ImmutableList<MessageId> updated;
+        private final ImmutableList<MessageId> destroyed;
+
+        Checkpoint(State fromState, State toState, ImmutableList<MessageId> created, ImmutableList<MessageId> updated, ImmutableList<MessageId> destroyed) {
+            this.fromState = fromState;
+            this.toState = toState;
+            this.created = created;
+            this.updated = updated;
+            this.destroyed = destroyed;
+        }
+
+        public State getFromState() {
+            return fromState;
+        }
+
+        public State getToState() {
+            return toState;
+        }
+
+        EmailChange asEmailChange(AccountId accountId) {
+            return EmailChange.builder()
+                .accountId(accountId)
+                .state(toState)
+                .date(Instant.ofEpochMilli(Uuids.unixTimestamp(toState.getValue())).atZone(ZoneOffset.UTC))
+                .isDelegated(false)
+                .created(created)
+                .updated(updated)
+                .destroyed(destroyed)
+                .build();
+        }
+    }
+
+    private static final TypeCodec<Set<UUID>> SET_OF_UUIDS_CODEC = CodecRegistry.DEFAULT.codecFor(DataTypes.frozenSetOf(DataTypes.UUID), GenericType.setOf(UUID.class));
+
+    private final CassandraAsyncExecutor executor;
+    private final PreparedStatement insertStatement;
+    private final PreparedStatement selectNextStatement;
+    private final PreparedStatement selectFirstStatement;
+    private final PreparedStatement selectLatestStatement;
+
+    @Inject
+    public EmailChangeCheckpointDAO(CqlSession session) {
+        executor = new CassandraAsyncExecutor(session);
+
+        insertStatement = session.prepare(insertInto(TABLE_NAME)
+            .value(ACCOUNT_ID, bindMarker(ACCOUNT_ID))
+            .value(WITH_DELEGATION, bindMarker(WITH_DELEGATION))
+            .value(FROM_STATE, bindMarker(FROM_STATE))
+            .value(TO_STATE, bindMarker(TO_STATE))
+            .value(CREATED, bindMarker(CREATED))
+            .value(UPDATED, bindMarker(UPDATED))
+            .value(DESTROYED, bindMarker(DESTROYED))
+            .build());
+
+        selectNextStatement = session.prepare(selectFrom(TABLE_NAME)
+            .all()
+            .whereColumn(ACCOUNT_ID).isEqualTo(bindMarker(ACCOUNT_ID))
+            .whereColumn(WITH_DELEGATION).isEqualTo(bindMarker(WITH_DELEGATION))
+            .whereColumn(FROM_STATE).isGreaterThanOrEqualTo(bindMarker(FROM_STATE))
+            .orderBy(FROM_STATE, ASC)
+            .limit(1)
+            .build());
+
+        selectFirstStatement = session.prepare(selectFrom(TABLE_NAME)
+            .all()
+            .whereColumn(ACCOUNT_ID).isEqualTo(bindMarker(ACCOUNT_ID))
+            .whereColumn(WITH_DELEGATION).isEqualTo(bindMarker(WITH_DELEGATION))
+            .orderBy(FROM_STATE, ASC)
+            .limit(1)
+            .build());
+
+        selectLatestStatement = session.prepare(selectFrom(TABLE_NAME)
+            .all()
+            .whereColumn(ACCOUNT_ID).isEqualTo(bindMarker(ACCOUNT_ID))
+            .whereColumn(WITH_DELEGATION).isEqualTo(bindMarker(WITH_DELEGATION))
+            .orderBy(FROM_STATE, DESC)
+            .limit(1)
+            .build());
+    }
+
+    Mono<Void> insert(AccountId accountId, boolean withDelegation, State fromState, EmailChanges window) {
+        return executor.executeVoid(insertStatement.bind()
+            .setString(ACCOUNT_ID, accountId.getIdentifier())
+            .setBoolean(WITH_DELEGATION, withDelegation)
+            .setUuid(FROM_STATE, fromState.getValue())
+            .setUuid(TO_STATE, window.getNewState().getValue())
+            .set(CREATED, toUuidSet(window.getCreated()), SET_OF_UUIDS_CODEC)
+            .set(UPDATED, toUuidSet(window.getUpdated()), SET_OF_UUIDS_CODEC)
+            .set(DESTROYED, toUuidSet(window.getDestroyed()), SET_OF_UUIDS_CODEC));
+    }
+
+    /**
+     * @return the first checkpoint starting at or after the given state
+     */
+    Mono<Checkpoint> nextCheckpoint(AccountId accountId, boolean withDelegation, State state) {
+        if (state.equals(State.INITIAL)) {
+            return executor.executeSingleRow(selectFirstStatement.bind()
+                    .setString(ACCOUNT_ID, accountId.getIdentifier())
+                    .setBoolean(WITH_DELEGATION, withDelegation))
+                .map(this::readRow);
+        }
+        return executor.executeSingleRow(selectNextStatement.bind()
+                .setString(ACCOUNT_ID, accountId.getIdentifier())
+                .setBoolean(WITH_DELEGATION, withDelegation)
+                .setUuid(FROM_STATE, state.getValue()))
+            .map(this::readRow);
+    }
+
+    Mono<Checkpoint> latestCheckpoint(AccountId accountId, boolean withDelegation) {
+        return executor.executeSingleRow(selectLatestStatement.bind()
+                .setString(ACCOUNT_ID, accountId.getIdentifier())
+                .setBoolean(WITH_DELEGATION, withDelegation))
+            .map(this::readRow);
+    }
+
+    private ImmutableSet<UUID> toUuidSet(Collection<MessageId> ids) {
+        return ids.stream()
+            .filter(CassandraMessageId.class::isInstance)
+            .map(CassandraMessageId.class::cast)
+            .map(CassandraMessageId::get)
+            .collect(ImmutableSet.toImmutableSet());
+    }
+
+    private Checkpoint readRow(Row row) {
+        return new Checkpoint(
+            State.of(row.getUuid(FROM_STATE)),
+            State.of(row.getUuid(TO_STATE)),
+            toIdList(row.get(CREATED, SET_OF_UUIDS_CODEC)),
+            toIdList(row.get(UPDATED, SET_OF_UUIDS_CODEC)),
+            toIdList(row.get(DESTROYED, SET_OF_UUIDS_CODEC)));
+    }
+
+    private ImmutableList<MessageId> toIdList(Set<UUID> uuidSet) {
+        return uuidSet.stream()
+            .map(CassandraMessageId.Factory::of)
+            .collect(ImmutableList.toImmutableList());
+    }
+}
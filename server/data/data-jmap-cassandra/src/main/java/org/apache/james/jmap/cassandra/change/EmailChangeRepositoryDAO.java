@@ -64,13 +64,18 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public class EmailChangeRepositoryDAO {
+    private static final String FROM_STATE = "from_state";
+    private static final String TO_STATE = "to_state";
     private static final TypeCodec<Set<UUID>> SET_OF_UUIDS_CODEC = CodecRegistry.DEFAULT.codecFor(DataTypes.frozenSetOf(DataTypes.UUID), GenericType.setOf(UUID.class));
 
     private final CassandraAsyncExecutor executor;
     private final UserDefinedType zonedDateTimeUserType;
     private final PreparedStatement insertStatement;
     private final PreparedStatement selectAllStatement;
-    private final PreparedStatement selectFromStatement;
+    private final PreparedStatement selectAfterStatement;
+    private final PreparedStatement selectUpToStatement;
+    private final PreparedStatement selectBetweenStatement;
+    private final PreparedStatement selectOneFromStatement;
     private final PreparedStatement selectLatestStatement;
     private final PreparedStatement selectLatestNotDelegatedStatement;
 
@@ -95,13 +100,35 @@ public class EmailChangeRepositoryDAO {
             .orderBy(STATE, ASC)
             .build());
 
-        selectFromStatement = session.prepare(selectFrom(TABLE_NAME)
+        selectAfterStatement = session.prepare(selectFrom(TABLE_NAME)
             .all()
             .whereColumn(ACCOUNT_ID).isEqualTo(bindMarker(ACCOUNT_ID))
-            .whereColumn(STATE).isGreaterThanOrEqualTo(bindMarker(STATE))
+            .whereColumn(STATE).isGreaterThan(bindMarker(STATE))
+            .orderBy(STATE, ASC)
+            .build());
+
+        selectUpToStatement = session.prepare(selectFrom(TABLE_NAME)
+            .all()
+            .whereColumn(ACCOUNT_ID).isEqualTo(bindMarker(ACCOUNT_ID))
+            .whereColumn(STATE).isLessThanOrEqualTo(bindMarker(TO_STATE))
             .orderBy(STATE, ASC)
             .build());
 
+        selectBetweenStatement = session.prepare(selectFrom(TABLE_NAME)
+            .all()
+            .whereColumn(ACCOUNT_ID).isEqualTo(bindMarker(ACCOUNT_ID))
+            .whereColumn(STATE).isGreaterThan(bindMarker(FROM_STATE))
+            .whereColumn(STATE).isLessThanOrEqualTo(bindMarker(TO_STATE))
+            .orderBy(STATE, ASC)
+            .build());
+
+        selectOneFromStatement = session.prepare(selectFrom(TABLE_NAME)
+            .column(STATE)
+            .whereColumn(ACCOUNT_ID).isEqualTo(bindMarker(ACCOUNT_ID))
+            .whereColumn(STATE).isGreaterThanOrEqualTo(bindMarker(STATE))
+            .limit(1)
+            .build());
+
         selectLatestStatement = session.prepare(selectFrom(TABLE_NAME)
             .column(STATE)
             .whereColumn(ACCOUNT_ID).isEqualTo(bindMarker(ACCOUNT_ID))
@@ -144,13 +171,42 @@ public class EmailChangeRepositoryDAO {
             .map(this::readRow);
     }
 
-    Flux<EmailChange> getChangesSince(AccountId accountId, State state) {
-        return executor.executeRows(selectFromStatement.bind()
+    /**
+     * Changes strictly after the given state, INITIAL meaning the beginning of the log.
+     */
+    Flux<EmailChange> getChangesAfter(AccountId accountId, State state) {
+        if (state.equals(State.INITIAL)) {
+            return getAllChanges(accountId);
+        }
+        return executor.executeRows(selectAfterStatement.bind()
             .setString(ACCOUNT_ID, accountId.getIdentifier())
             .setUuid(STATE, state.getValue()))
             .map(this::readRow);
     }
 
+    /**
+     * Changes strictly after the given state and up to the upper bound included, INITIAL meaning the beginning of the log.
+     */
+    Flux<EmailChange> getChangesBetween(AccountId accountId, State after, State upTo) {
+        if (after.equals(State.INITIAL)) {
+            return executor.executeRows(selectUpToStatement.bind()
+                .setString(ACCOUNT_ID, accountId.getIdentifier())
+                .setUuid(TO_STATE, upTo.getValue()))
+                .map(this::readRow);
+        }
+        return executor.executeRows(selectBetweenStatement.bind()
+            .setString(ACCOUNT_ID, accountId.getIdentifier())
+            .setUuid(FROM_STATE, after.getValue())
+            .setUuid(TO_STATE, upTo.getValue()))
+            .map(this::readRow);
+    }
+
+    Mono<Boolean> hasChangesSince(AccountId accountId, State state) {
+        return executor.executeReturnExists(selectOneFromStatement.bind()
+            .setString(ACCOUNT_ID, accountId.getIdentifier())
+            .setUuid(STATE, state.getValue()));
+    }
+
     Mono<State> latestState(AccountId accountId) {
         return executor.executeSingleRow(selectLatestStatement.bind()
             .setString(ACCOUNT_ID, accountId.getIdentifier()))
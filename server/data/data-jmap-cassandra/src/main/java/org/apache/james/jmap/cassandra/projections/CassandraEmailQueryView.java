@@ -24,21 +24,29 @@ import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.bindMarker;
 import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.deleteFrom;
 import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.insertInto;
 import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.selectFrom;
+import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.update;
 import static org.apache.james.jmap.cassandra.projections.table.CassandraEmailQueryViewTable.DATE_LOOKUP_TABLE;
+import static org.apache.james.jmap.cassandra.projections.table.CassandraEmailQueryViewTable.HAS_ATTACHMENT;
+import static org.apache.james.jmap.cassandra.projections.table.CassandraEmailQueryViewTable.KEYWORDS;
 import static org.apache.james.jmap.cassandra.projections.table.CassandraEmailQueryViewTable.MAILBOX_ID;
 import static org.apache.james.jmap.cassandra.projections.table.CassandraEmailQueryViewTable.MESSAGE_ID;
 import static org.apache.james.jmap.cassandra.projections.table.CassandraEmailQueryViewTable.MESSAGE_ID_LOWERCASE;
 import static org.apache.james.jmap.cassandra.projections.table.CassandraEmailQueryViewTable.RECEIVED_AT;
 import static org.apache.james.jmap.cassandra.projections.table.CassandraEmailQueryViewTable.SENT_AT;
+import static org.apache.james.jmap.cassandra.projections.table.CassandraEmailQueryViewTable.TABLE_NAME_KEYWORDS_RECEIVED_AT;
 import static org.apache.james.jmap.cassandra.projections.table.CassandraEmailQueryViewTable.TABLE_NAME_RECEIVED_AT;
 import static org.apache.james.jmap.cassandra.projections.table.CassandraEmailQueryViewTable.TABLE_NAME_SENT_AT;
 
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import javax.inject.Inject;
+import javax.mail.Flags;
 
 import org.apache.james.backends.cassandra.utils.CassandraAsyncExecutor;
 import org.apache.james.jmap.api.projections.EmailQueryView;
@@ -53,18 +61,54 @@ import com.datastax.oss.driver.api.core.cql.PreparedStatement;
 import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.querybuilder.QueryBuilder;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableBiMap;
+import com.google.common.collect.ImmutableSet;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public class CassandraEmailQueryView implements EmailQueryView {
     private static final String LIMIT_MARKER = "LIMIT_BIND_MARKER";
+    private static final int FILTERED_LISTING_MINIMUM_PAGE_SIZE = 100;
+    private static final ImmutableBiMap<Flags.Flag, String> SYSTEM_FLAGS = ImmutableBiMap.of(
+        Flags.Flag.ANSWERED, "\\Answered",
+        Flags.Flag.DELETED, "\\Deleted",
+        Flags.Flag.DRAFT, "\\Draft",
+        Flags.Flag.FLAGGED, "\\Flagged",
+        Flags.Flag.SEEN, "\\Seen");
+
+    private static Set<String> asKeywords(Flags flags) {
+        return Stream.concat(
+                Arrays.stream(flags.getSystemFlags())
+                    .filter(SYSTEM_FLAGS::containsKey)
+                    .map(SYSTEM_FLAGS::get),
+                Arrays.stream(flags.getUserFlags()))
+            .collect(ImmutableSet.toImmutableSet());
+    }
+
+    private static Flags asFlags(Set<String> keywords) {
+        Flags flags = new Flags();
+        keywords.forEach(keyword -> {
+            Flags.Flag systemFlag = SYSTEM_FLAGS.inverse().get(keyword);
+            if (systemFlag != null) {
+                flags.add(systemFlag);
+            } else {
+                flags.add(keyword);
+            }
+        });
+        return flags;
+    }
 
     private final CassandraAsyncExecutor executor;
     private final PreparedStatement listMailboxContentBySentAt;
     private final PreparedStatement listMailboxContentByReceivedAt;
     private final PreparedStatement listMailboxContentSinceSentAt;
     private final PreparedStatement listMailboxContentSinceReceivedAt;
+    private final PreparedStatement listMailboxContentWithKeywordsByReceivedAt;
+    private final PreparedStatement insertKeywords;
+    private final PreparedStatement updateKeywords;
+    private final PreparedStatement deleteKeywords;
+    private final PreparedStatement deleteAllKeywords;
     private final PreparedStatement insertInLookupTable;
     private final PreparedStatement insertReceivedAt;
     private final PreparedStatement insertSentAt;
@@ -109,6 +153,37 @@ public class CassandraEmailQueryView implements EmailQueryView {
             .orderBy(RECEIVED_AT, DESC)
             .build());
 
+        listMailboxContentWithKeywordsByReceivedAt = session.prepare(selectFrom(TABLE_NAME_KEYWORDS_RECEIVED_AT)
+            .columns(MESSAGE_ID, KEYWORDS, HAS_ATTACHMENT)
+            .whereColumn(MAILBOX_ID).isEqualTo(bindMarker(MAILBOX_ID))
+            .orderBy(RECEIVED_AT, DESC)
+            .build());
+
+        insertKeywords = session.prepare(insertInto(TABLE_NAME_KEYWORDS_RECEIVED_AT)
+            .value(MAILBOX_ID, bindMarker(MAILBOX_ID))
+            .value(MESSAGE_ID, bindMarker(MESSAGE_ID))
+            .value(RECEIVED_AT, bindMarker(RECEIVED_AT))
+            .value(KEYWORDS, bindMarker(KEYWORDS))
+            .value(HAS_ATTACHMENT, bindMarker(HAS_ATTACHMENT))
+            .build());
+
+        updateKeywords = session.prepare(update(TABLE_NAME_KEYWORDS_RECEIVED_AT)
+            .setColumn(KEYWORDS, bindMarker(KEYWORDS))
+            .whereColumn(MAILBOX_ID).isEqualTo(bindMarker(MAILBOX_ID))
+            .whereColumn(RECEIVED_AT).isEqualTo(bindMarker(RECEIVED_AT))
+            .whereColumn(MESSAGE_ID).isEqualTo(bindMarker(MESSAGE_ID))
+            .build());
+
+        deleteKeywords = session.prepare(deleteFrom(TABLE_NAME_KEYWORDS_RECEIVED_AT)
+            .whereColumn(MAILBOX_ID).isEqualTo(bindMarker(MAILBOX_ID))
+            .whereColumn(MESSAGE_ID).isEqualTo(bindMarker(MESSAGE_ID))
+            .whereColumn(RECEIVED_AT).isEqualTo(bindMarker(RECEIVED_AT))
+            .build());
+
+        deleteAllKeywords = session.prepare(deleteFrom(TABLE_NAME_KEYWORDS_RECEIVED_AT)
+            .whereColumn(MAILBOX_ID).isEqualTo(bindMarker(MAILBOX_ID))
+            .build());
+
         insertInLookupTable = session.prepare(insertInto(DATE_LOOKUP_TABLE)
             .value(MAILBOX_ID, bindMarker(MAILBOX_ID))
             .value(MESSAGE_ID, bindMarker(MESSAGE_ID))
@@ -236,6 +311,23 @@ public class CassandraEmailQueryView implements EmailQueryView {
             .map(row -> CassandraMessageId.Factory.of(row.getUuid(MESSAGE_ID_LOWERCASE)));
     }
 
+    @Override
+    public Flux<MessageId> listMailboxContentSortedByReceivedAt(MailboxId mailboxId, Filter filter, Limit limit) {
+        Preconditions.checkArgument(!limit.isUnlimited(), "Limit should be defined");
+
+        CassandraId cassandraId = (CassandraId) mailboxId;
+        int pageSize = Math.max(limit.getLimit().get(), FILTERED_LISTING_MINIMUM_PAGE_SIZE);
+
+        // Pages are only fetched on demand: reading stops once enough entries matched
+        return executor.executeRows(listMailboxContentWithKeywordsByReceivedAt.bind()
+                .setUuid(MAILBOX_ID, cassandraId.asUuid())
+                .setPageSize(pageSize))
+            .filter(row -> !row.isNull(HAS_ATTACHMENT))
+            .filter(row -> filter.matches(asFlags(row.getSet(KEYWORDS, String.class)), row.getBoolean(HAS_ATTACHMENT)))
+            .<MessageId>map(row -> CassandraMessageId.Factory.of(row.getUuid(MESSAGE_ID)))
+            .take(limit.getLimit().get());
+    }
+
     @Override
     public Mono<Void> delete(MailboxId mailboxId, MessageId messageId) {
         CassandraMessageId cassandraMessageId = (CassandraMessageId) messageId;
@@ -257,6 +349,10 @@ public class CassandraEmailQueryView implements EmailQueryView {
                 .setUuid(MESSAGE_ID, cassandraMessageId.get())
                 .setInstant(SENT_AT, sentAt)),
             executor.executeVoid(deleteReceivedAt.bind()
+                .setUuid(MAILBOX_ID, cassandraId.asUuid())
+                .setUuid(MESSAGE_ID, cassandraMessageId.get())
+                .setInstant(RECEIVED_AT, receivedAt)),
+            executor.executeVoid(deleteKeywords.bind()
                 .setUuid(MAILBOX_ID, cassandraId.asUuid())
                 .setUuid(MESSAGE_ID, cassandraMessageId.get())
                 .setInstant(RECEIVED_AT, receivedAt)))
@@ -273,6 +369,8 @@ public class CassandraEmailQueryView implements EmailQueryView {
             executor.executeVoid(deleteAllSentAt.bind()
                 .setUuid(MAILBOX_ID, cassandraId.asUuid())),
             executor.executeVoid(deleteAllReceivedAt.bind()
+                .setUuid(MAILBOX_ID, cassandraId.asUuid())),
+            executor.executeVoid(deleteAllKeywords.bind()
                 .setUuid(MAILBOX_ID, cassandraId.asUuid())))
             .then(executor.executeVoid(deleteAllLookupRecords.bind()
                 .setUuid(MAILBOX_ID, ((CassandraId) mailboxId).asUuid())));
@@ -280,9 +378,24 @@ public class CassandraEmailQueryView implements EmailQueryView {
 
     @Override
     public Mono<Void> save(MailboxId mailboxId, ZonedDateTime sentAt, ZonedDateTime receivedAt, MessageId messageId) {
+        return saveDates((CassandraId) mailboxId, sentAt, receivedAt, (CassandraMessageId) messageId);
+    }
+
+    @Override
+    public Mono<Void> save(MailboxId mailboxId, ZonedDateTime sentAt, ZonedDateTime receivedAt, MessageId messageId, Flags flags, boolean hasAttachment) {
         CassandraMessageId cassandraMessageId = (CassandraMessageId) messageId;
         CassandraId cassandraId = (CassandraId) mailboxId;
 
+        return saveDates(cassandraId, sentAt, receivedAt, cassandraMessageId)
+            .then(executor.executeVoid(insertKeywords.bind()
+                .setUuid(MESSAGE_ID, cassandraMessageId.get())
+                .setUuid(MAILBOX_ID, cassandraId.asUuid())
+                .setInstant(RECEIVED_AT, receivedAt.toInstant())
+                .setSet(KEYWORDS, asKeywords(flags), String.class)
+                .setBoolean(HAS_ATTACHMENT, hasAttachment)));
+    }
+
+    private Mono<Void> saveDates(CassandraId cassandraId, ZonedDateTime sentAt, ZonedDateTime receivedAt, CassandraMessageId cassandraMessageId) {
         return executor.executeVoid(insertInLookupTable.bind()
             .setUuid(MESSAGE_ID, cassandraMessageId.get())
             .setUuid(MAILBOX_ID, cassandraId.asUuid())
@@ -300,4 +413,20 @@ public class CassandraEmailQueryView implements EmailQueryView {
                     .setInstant(SENT_AT, sentAt.toInstant())))
                 .then());
     }
+
+    @Override
+    public Mono<Void> updateFlags(MailboxId mailboxId, MessageId messageId, Flags flags) {
+        CassandraMessageId cassandraMessageId = (CassandraMessageId) messageId;
+        CassandraId cassandraId = (CassandraId) mailboxId;
+
+        return executor.executeSingleRow(lookupDate.bind()
+                .setUuid(MAILBOX_ID, cassandraId.asUuid())
+                .setUuid(MESSAGE_ID, cassandraMessageId.get()))
+            // A concurrent delete can leave a keywords row without hasAttachment: filtered listings skip it
+            .flatMap(row -> executor.executeVoid(updateKeywords.bind()
+                .setUuid(MAILBOX_ID, cassandraId.asUuid())
+                .setUuid(MESSAGE_ID, cassandraMessageId.get())
+                .setInstant(RECEIVED_AT, row.getInstant(RECEIVED_AT))
+                .setSet(KEYWORDS, asKeywords(flags), String.class)));
+    }
 }
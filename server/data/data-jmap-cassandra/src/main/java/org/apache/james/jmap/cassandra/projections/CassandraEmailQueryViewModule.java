@@ -23,10 +23,13 @@ import static com.datastax.oss.driver.api.core.metadata.schema.ClusteringOrder.D
 import static com.datastax.oss.driver.api.querybuilder.SchemaBuilder.RowsPerPartition.rows;
 import static org.apache.james.backends.cassandra.utils.CassandraConstants.DEFAULT_CACHED_ROW_PER_PARTITION;
 import static org.apache.james.jmap.cassandra.projections.table.CassandraEmailQueryViewTable.DATE_LOOKUP_TABLE;
+import static org.apache.james.jmap.cassandra.projections.table.CassandraEmailQueryViewTable.HAS_ATTACHMENT;
+import static org.apache.james.jmap.cassandra.projections.table.CassandraEmailQueryViewTable.KEYWORDS;
 import static org.apache.james.jmap.cassandra.projections.table.CassandraEmailQueryViewTable.MAILBOX_ID;
 import static org.apache.james.jmap.cassandra.projections.table.CassandraEmailQueryViewTable.MESSAGE_ID;
 import static org.apache.james.jmap.cassandra.projections.table.CassandraEmailQueryViewTable.RECEIVED_AT;
 import static org.apache.james.jmap.cassandra.projections.table.CassandraEmailQueryViewTable.SENT_AT;
+import static org.apache.james.jmap.cassandra.projections.table.CassandraEmailQueryViewTable.TABLE_NAME_KEYWORDS_RECEIVED_AT;
 import static org.apache.james.jmap.cassandra.projections.table.CassandraEmailQueryViewTable.TABLE_NAME_RECEIVED_AT;
 import static org.apache.james.jmap.cassandra.projections.table.CassandraEmailQueryViewTable.TABLE_NAME_SENT_AT;
 
@@ -66,5 +69,18 @@ public interface CassandraEmailQueryViewModule {
             .withColumn(SENT_AT, DataTypes.TIMESTAMP)
             .withColumn(RECEIVED_AT, DataTypes.TIMESTAMP))
 
+        .table(TABLE_NAME_KEYWORDS_RECEIVED_AT)
+        .comment("Storing the JMAP projections for list of emails within a mailbox to not rely on OpenSearch for Email/query " +
+            "filtering on keywords and attachments (sorts on receivedAt).")
+        .options(options -> options
+            .withClusteringOrder(RECEIVED_AT, DESC)
+            .withCaching(true, rows(DEFAULT_CACHED_ROW_PER_PARTITION)))
+        .statement(statement -> types -> statement
+            .withPartitionKey(MAILBOX_ID, DataTypes.UUID)
+            .withClusteringColumn(RECEIVED_AT, DataTypes.TIMESTAMP)
+            .withClusteringColumn(MESSAGE_ID, DataTypes.UUID)
+            .withColumn(KEYWORDS, DataTypes.setOf(DataTypes.TEXT))
+            .withColumn(HAS_ATTACHMENT, DataTypes.BOOLEAN))
+
         .build();
 }
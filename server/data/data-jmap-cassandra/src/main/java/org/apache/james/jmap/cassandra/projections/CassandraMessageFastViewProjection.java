@@ -23,8 +23,10 @@ import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.bindMarker;
 import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.deleteFrom;
 import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.insertInto;
 import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.selectFrom;
+import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.update;
 import static org.apache.james.jmap.cassandra.projections.table.CassandraMessageFastViewProjectionTable.HAS_ATTACHMENT;
 import static org.apache.james.jmap.cassandra.projections.table.CassandraMessageFastViewProjectionTable.HAS_ATTACHMENT_LOWERCASE;
+import static org.apache.james.jmap.cassandra.projections.table.CassandraMessageFastViewProjectionTable.HEADERS;
 import static org.apache.james.jmap.cassandra.projections.table.CassandraMessageFastViewProjectionTable.MESSAGE_ID;
 import static org.apache.james.jmap.cassandra.projections.table.CassandraMessageFastViewProjectionTable.MESSAGE_ID_LOWERCASE;
 import static org.apache.james.jmap.cassandra.projections.table.CassandraMessageFastViewProjectionTable.PREVIEW;
@@ -63,6 +65,8 @@ public class CassandraMessageFastViewProjection implements MessageFastViewProjec
 
     private final PreparedStatement storeStatement;
     private final PreparedStatement retrieveStatement;
+    private final PreparedStatement storeHeadersStatement;
+    private final PreparedStatement retrieveHeadersStatement;
     private final PreparedStatement deleteStatement;
     private final PreparedStatement truncateStatement;
     private final DriverExecutionProfile cachingProfile;
@@ -82,7 +86,17 @@ public class CassandraMessageFastViewProjection implements MessageFastViewProjec
             .build());
 
         this.retrieveStatement = session.prepare(selectFrom(TABLE_NAME)
-            .all()
+            .columns(PREVIEW, HAS_ATTACHMENT)
+            .whereColumn(MESSAGE_ID_LOWERCASE).isEqualTo(bindMarker(MESSAGE_ID_LOWERCASE))
+            .build());
+
+        this.storeHeadersStatement = session.prepare(update(TABLE_NAME)
+            .setColumn(HEADERS, bindMarker(HEADERS))
+            .whereColumn(MESSAGE_ID).isEqualTo(bindMarker(MESSAGE_ID))
+            .build());
+
+        this.retrieveHeadersStatement = session.prepare(selectFrom(TABLE_NAME)
+            .column(HEADERS)
             .whereColumn(MESSAGE_ID_LOWERCASE).isEqualTo(bindMarker(MESSAGE_ID_LOWERCASE))
             .build());
 
@@ -112,6 +126,7 @@ public class CassandraMessageFastViewProjection implements MessageFastViewProjec
         return cassandraAsyncExecutor.executeSingleRow(retrieveStatement.bind()
                 .setUuid(MESSAGE_ID_LOWERCASE, ((CassandraMessageId) messageId).get())
                 .setExecutionProfile(cachingProfile))
+            .filter(row -> row.getString(PREVIEW) != null)
             .map(this::fromRow)
             .doOnNext(preview -> metricRetrieveHitCount.increment())
             .switchIfEmpty(Mono.fromRunnable(metricRetrieveMissCount::increment))
@@ -121,6 +136,31 @@ public class CassandraMessageFastViewProjection implements MessageFastViewProjec
             });
     }
 
+    @Override
+    public Mono<Void> storeHeaders(MessageId messageId, String headers) {
+        checkMessage(messageId);
+        Preconditions.checkNotNull(headers);
+
+        return cassandraAsyncExecutor.executeVoid(storeHeadersStatement.bind()
+            .setUuid(MESSAGE_ID, ((CassandraMessageId) messageId).get())
+            .setString(HEADERS, headers)
+            .setExecutionProfile(cachingProfile));
+    }
+
+    @Override
+    public Mono<String> retrieveHeaders(MessageId messageId) {
+        checkMessage(messageId);
+
+        return cassandraAsyncExecutor.executeSingleRow(retrieveHeadersStatement.bind()
+                .setUuid(MESSAGE_ID_LOWERCASE, ((CassandraMessageId) messageId).get())
+                .setExecutionProfile(cachingProfile))
+            .flatMap(row -> Mono.justOrEmpty(row.getString(HEADERS)))
+            .onErrorResume(e -> {
+                LOGGER.error("Error while retrieving MessageFastView projected headers for {}", messageId, e);
+                return Mono.empty();
+            });
+    }
+
     @Override
     public Mono<Void> delete(MessageId messageId) {
         checkMessage(messageId);
@@ -22,6 +22,7 @@ package org.apache.james.jmap.cassandra.projections;
 import static com.datastax.oss.driver.api.querybuilder.SchemaBuilder.RowsPerPartition.rows;
 import static org.apache.james.backends.cassandra.utils.CassandraConstants.DEFAULT_CACHED_ROW_PER_PARTITION;
 import static org.apache.james.jmap.cassandra.projections.table.CassandraMessageFastViewProjectionTable.HAS_ATTACHMENT;
+import static org.apache.james.jmap.cassandra.projections.table.CassandraMessageFastViewProjectionTable.HEADERS;
 import static org.apache.james.jmap.cassandra.projections.table.CassandraMessageFastViewProjectionTable.MESSAGE_ID;
 import static org.apache.james.jmap.cassandra.projections.table.CassandraMessageFastViewProjectionTable.PREVIEW;
 import static org.apache.james.jmap.cassandra.projections.table.CassandraMessageFastViewProjectionTable.TABLE_NAME;
@@ -39,6 +40,7 @@ public interface CassandraMessageFastViewProjectionModule {
         .statement(statement -> types -> statement
             .withPartitionKey(MESSAGE_ID, DataTypes.UUID)
             .withColumn(PREVIEW, DataTypes.TEXT)
-            .withColumn(HAS_ATTACHMENT, DataTypes.BOOLEAN))
+            .withColumn(HAS_ATTACHMENT, DataTypes.BOOLEAN)
+            .withColumn(HEADERS, DataTypes.TEXT))
         .build();
 }
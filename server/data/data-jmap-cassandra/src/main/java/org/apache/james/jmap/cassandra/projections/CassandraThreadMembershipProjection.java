@@ -0,0 +1,283 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+
+package org.apache.james.jmap.cassandra.projections;
+
+import static com.datastax.oss.driver.api.core.metadata.schema.ClusteringOrder.ASC;
+import static com.datastax.oss.driver.api.core.metadata.schema.ClusteringOrder.DESC;
+import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.bindMarker;
+import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.deleteFrom;
+import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.insertInto;
+import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.selectFrom;
+import static org.apache.james.jmap.cassandra.projections.table.CassandraThreadMembershipProjectionTable.CHANGE_TABLE_NAME;
+import static org.apache.james.jmap.cassandra.projections.table.CassandraThreadMembershipProjectionTable.MESSAGE_ID;
+import static org.apache.james.jmap.cassandra.projections.table.CassandraThreadMembershipProjectionTable.RECEIVED_AT;
+import static org.apache.james.jmap.cassandra.projections.table.CassandraThreadMembershipProjectionTable.STATE;
+import static org.apache.james.jmap.cassandra.projections.table.CassandraThreadMembershipProjectionTable.TABLE_NAME;
+import static org.apache.james.jmap.cassandra.projections.table.CassandraThreadMembershipProjectionTable.THREAD_ID;
+import static org.apache.james.jmap.cassandra.projections.table.CassandraThreadMembershipProjectionTable.TYPE;
+import static org.apache.james.jmap.cassandra.projections.table.CassandraThreadMembershipProjectionTable.USERNAME;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.UUID;
+
+import javax.inject.Inject;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.james.backends.cassandra.utils.CassandraAsyncExecutor;
+import org.apache.james.core.Username;
+import org.apache.james.jmap.api.change.Limit;
+import org.apache.james.jmap.api.change.State;
+import org.apache.james.jmap.api.change.ThreadChange;
+import org.apache.james.jmap.api.change.ThreadChanges;
+import org.apache.james.jmap.api.exception.ChangeNotFoundException;
+import org.apache.james.jmap.api.projections.ThreadMembershipProjection;
+import org.apache.james.mailbox.cassandra.ids.CassandraMessageId;
+import org.apache.james.mailbox.model.MessageId;
+import org.apache.james.mailbox.model.ThreadId;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.google.common.base.Preconditions;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class CassandraThreadMembershipProjection implements ThreadMembershipProjection {
+
+    private final CassandraAsyncExecutor executor;
+    private final State.Factory stateFactory;
+    private final PreparedStatement insertMember;
+    private final PreparedStatement deleteMember;
+    private final PreparedStatement selectMember;
+    private final PreparedStatement selectAnyMember;
+    private final PreparedStatement selectMembers;
+    private final PreparedStatement insertChange;
+    private final PreparedStatement selectAllChanges;
+    private final PreparedStatement selectChangesFrom;
+    private final PreparedStatement selectLatestChange;
+
+    @Inject
+    public CassandraThreadMembershipProjection(CqlSession session, State.Factory stateFactory) {
+        this.executor = new CassandraAsyncExecutor(session);
+        this.stateFactory = stateFactory;
+
+        insertMember = session.prepare(insertInto(TABLE_NAME)
+            .value(USERNAME, bindMarker(USERNAME))
+            .value(THREAD_ID, bindMarker(THREAD_ID))
+            .value(MESSAGE_ID, bindMarker(MESSAGE_ID))
+            .value(RECEIVED_AT, bindMarker(RECEIVED_AT))
+            .build());
+
+        deleteMember = session.prepare(deleteFrom(TABLE_NAME)
+            .whereColumn(USERNAME).isEqualTo(bindMarker(USERNAME))
+            .whereColumn(THREAD_ID).isEqualTo(bindMarker(THREAD_ID))
+            .whereColumn(MESSAGE_ID).isEqualTo(bindMarker(MESSAGE_ID))
+            .build());
+
+        selectMember = session.prepare(selectFrom(TABLE_NAME)
+            .column(MESSAGE_ID)
+            .whereColumn(USERNAME).isEqualTo(bindMarker(USERNAME))
+            .whereColumn(THREAD_ID).isEqualTo(bindMarker(THREAD_ID))
+            .whereColumn(MESSAGE_ID).isEqualTo(bindMarker(MESSAGE_ID))
+            .build());
+
+        selectAnyMember = session.prepare(selectFrom(TABLE_NAME)
+            .column(MESSAGE_ID)
+            .whereColumn(USERNAME).isEqualTo(bindMarker(USERNAME))
+            .whereColumn(THREAD_ID).isEqualTo(bindMarker(THREAD_ID))
+            .limit(1)
+            .build());
+
+        selectMembers = session.prepare(selectFrom(TABLE_NAME)
+            .columns(MESSAGE_ID, RECEIVED_AT)
+            .whereColumn(USERNAME).isEqualTo(bindMarker(USERNAME))
+            .whereColumn(THREAD_ID).isEqualTo(bindMarker(THREAD_ID))
+            .build());
+
+        insertChange = session.prepare(insertInto(CHANGE_TABLE_NAME)
+            .value(USERNAME, bindMarker(USERNAME))
+            .value(STATE, bindMarker(STATE))
+            .value(THREAD_ID, bindMarker(THREAD_ID))
+            .value(TYPE, bindMarker(TYPE))
+            .build());
+
+        selectAllChanges = session.prepare(selectFrom(CHANGE_TABLE_NAME)
+            .all()
+            .whereColumn(USERNAME).isEqualTo(bindMarker(USERNAME))
+            .orderBy(STATE, ASC)
+            .build());
+
+        selectChangesFrom = session.prepare(selectFrom(CHANGE_TABLE_NAME)
+            .all()
+            .whereColumn(USERNAME).isEqualTo(bindMarker(USERNAME))
+            .whereColumn(STATE).isGreaterThanOrEqualTo(bindMarker(STATE))
+            .orderBy(STATE, ASC)
+            .build());
+
+        selectLatestChange = session.prepare(selectFrom(CHANGE_TABLE_NAME)
+            .column(STATE)
+            .whereColumn(USERNAME).isEqualTo(bindMarker(USERNAME))
+            .orderBy(STATE, DESC)
+            .limit(1)
+            .build());
+    }
+
+    /**
+     * Membership is checked before writing, hence concurrent additions to a new thread may both be recorded as
+     * CREATED. Clients then see a thread being created twice, which is harmless.
+     */
+    @Override
+    public Mono<Void> add(Username username, ThreadId threadId, MessageId messageId, Instant receivedAt) {
+        Preconditions.checkNotNull(username);
+        Preconditions.checkNotNull(threadId);
+        Preconditions.checkNotNull(messageId);
+        Preconditions.checkNotNull(receivedAt);
+
+        return isMember(username, threadId, messageId)
+            .filter(isMember -> !isMember)
+            .flatMap(any -> hasMembers(username, threadId))
+            .flatMap(hasMembers -> executor.executeVoid(insertMember.bind()
+                    .setString(USERNAME, username.asString())
+                    .setUuid(THREAD_ID, asUuid(threadId))
+                    .setUuid(MESSAGE_ID, ((CassandraMessageId) messageId).get())
+                    .setInstant(RECEIVED_AT, receivedAt))
+                .then(saveChange(username, new ThreadChange(stateFactory.generate(), threadId, addType(hasMembers)))));
+    }
+
+    @Override
+    public Mono<Void> remove(Username username, ThreadId threadId, MessageId messageId) {
+        Preconditions.checkNotNull(username);
+        Preconditions.checkNotNull(threadId);
+        Preconditions.checkNotNull(messageId);
+
+        return isMember(username, threadId, messageId)
+            .filter(isMember -> isMember)
+            .flatMap(any -> executor.executeVoid(deleteMember.bind()
+                    .setString(USERNAME, username.asString())
+                    .setUuid(THREAD_ID, asUuid(threadId))
+                    .setUuid(MESSAGE_ID, ((CassandraMessageId) messageId).get()))
+                .then(hasMembers(username, threadId)))
+            .flatMap(hasMembers -> saveChange(username, new ThreadChange(stateFactory.generate(), threadId, removeType(hasMembers))));
+    }
+
+    @Override
+    public Flux<MessageId> retrieve(Username username, ThreadId threadId) {
+        Preconditions.checkNotNull(username);
+        Preconditions.checkNotNull(threadId);
+
+        return executor.executeRows(selectMembers.bind()
+                .setString(USERNAME, username.asString())
+                .setUuid(THREAD_ID, asUuid(threadId)))
+            .map(row -> Pair.of(row.getInstant(RECEIVED_AT), (MessageId) CassandraMessageId.Factory.of(row.getUuid(MESSAGE_ID))))
+            .sort(Comparator.comparing(Pair::getLeft))
+            .map(Pair::getRight);
+    }
+
+    @Override
+    public Mono<ThreadChanges> getSinceState(Username username, State state, Limit maxChanges) {
+        Preconditions.checkNotNull(username);
+        Preconditions.checkNotNull(state);
+        Preconditions.checkNotNull(maxChanges);
+
+        if (state.equals(State.INITIAL)) {
+            return executor.executeRows(selectAllChanges.bind()
+                    .setString(USERNAME, username.asString()))
+                .map(this::readChange)
+                .as(changes -> collect(changes, state, maxChanges));
+        }
+
+        return executor.executeRows(selectChangesFrom.bind()
+                .setString(USERNAME, username.asString())
+                .setUuid(STATE, state.getValue()))
+            .map(this::readChange)
+            .switchIfEmpty(Flux.error(() -> new ChangeNotFoundException(state, String.format("State '%s' could not be found", state.getValue()))))
+            .filter(change -> !change.getState().equals(state))
+            .as(changes -> collect(changes, state, maxChanges));
+    }
+
+    private Mono<ThreadChanges> collect(Flux<ThreadChange> changes, State state, Limit limit) {
+        return Mono.defer(() -> {
+            ThreadChanges.Builder builder = new ThreadChanges.Builder(state, limit);
+
+            // Stops reading the log as soon as the limit is reached
+            return changes
+                .takeWhile(change -> !builder.add(change).hasMoreChanges())
+                .then(Mono.fromCallable(builder::build));
+        });
+    }
+
+    @Override
+    public Mono<State> getLatestState(Username username) {
+        Preconditions.checkNotNull(username);
+
+        return executor.executeSingleRow(selectLatestChange.bind()
+                .setString(USERNAME, username.asString()))
+            .map(row -> State.of(row.getUuid(STATE)))
+            .defaultIfEmpty(State.INITIAL);
+    }
+
+    private Mono<Boolean> isMember(Username username, ThreadId threadId, MessageId messageId) {
+        return executor.executeReturnExists(selectMember.bind()
+            .setString(USERNAME, username.asString())
+            .setUuid(THREAD_ID, asUuid(threadId))
+            .setUuid(MESSAGE_ID, ((CassandraMessageId) messageId).get()));
+    }
+
+    private Mono<Boolean> hasMembers(Username username, ThreadId threadId) {
+        return executor.executeReturnExists(selectAnyMember.bind()
+            .setString(USERNAME, username.asString())
+            .setUuid(THREAD_ID, asUuid(threadId)));
+    }
+
+    private Mono<Void> saveChange(Username username, ThreadChange change) {
+        return executor.executeVoid(insertChange.bind()
+            .setString(USERNAME, username.asString())
+            .setUuid(STATE, change.getState().getValue())
+            .setUuid(THREAD_ID, asUuid(change.getThreadId()))
+            .setString(TYPE, change.getType().name()));
+    }
+
+    private ThreadChange readChange(Row row) {
+        return new ThreadChange(State.of(row.getUuid(STATE)),
+            ThreadId.fromBaseMessageId(CassandraMessageId.Factory.of(row.getUuid(THREAD_ID))),
+            ThreadChange.Type.valueOf(row.getString(TYPE)));
+    }
+
+    private ThreadChange.Type addType(boolean threadHadMembers) {
+        if (threadHadMembers) {
+            return ThreadChange.Type.UPDATED;
+        }
+        return ThreadChange.Type.CREATED;
+    }
+
+    private ThreadChange.Type removeType(boolean threadHasMembersLeft) {
+        if (threadHasMembersLeft) {
+            return ThreadChange.Type.UPDATED;
+        }
+        return ThreadChange.Type.DESTROYED;
+    }
+
+    private UUID asUuid(ThreadId threadId) {
+        return ((CassandraMessageId) threadId.getBaseMessageId()).get();
+    }
+}
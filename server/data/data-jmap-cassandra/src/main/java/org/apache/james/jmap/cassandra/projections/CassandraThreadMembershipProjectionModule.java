@@ -0,0 +1,71 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+
+package org.apache.james.jmap.cassandra.projections;
+
+import static com.datastax.oss.driver.api.core.metadata.schema.ClusteringOrder.ASC;
+import static com.datastax.oss.driver.api.querybuilder.SchemaBuilder.RowsPerPartition.rows;
+import static com.datastax.oss.driver.api.querybuilder.schema.compaction.TimeWindowCompactionStrategy.CompactionWindowUnit.DAYS;
+import static org.apache.james.backends.cassandra.utils.CassandraConstants.DEFAULT_CACHED_ROW_PER_PARTITION;
+import static org.apache.james.jmap.cassandra.projections.table.CassandraThreadMembershipProjectionTable.CHANGE_TABLE_NAME;
+import static org.apache.james.jmap.cassandra.projections.table.CassandraThreadMembershipProjectionTable.MESSAGE_ID;
+import static org.apache.james.jmap.cassandra.projections.table.CassandraThreadMembershipProjectionTable.RECEIVED_AT;
+import static org.apache.james.jmap.cassandra.projections.table.CassandraThreadMembershipProjectionTable.STATE;
+import static org.apache.james.jmap.cassandra.projections.table.CassandraThreadMembershipProjectionTable.TABLE_NAME;
+import static org.apache.james.jmap.cassandra.projections.table.CassandraThreadMembershipProjectionTable.THREAD_ID;
+import static org.apache.james.jmap.cassandra.projections.table.CassandraThreadMembershipProjectionTable.TYPE;
+import static org.apache.james.jmap.cassandra.projections.table.CassandraThreadMembershipProjectionTable.USERNAME;
+
+import java.time.Duration;
+
+import org.apache.james.backends.cassandra.components.CassandraModule;
+
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.querybuilder.SchemaBuilder;
+
+public interface CassandraThreadMembershipProjectionModule {
+    Duration CHANGE_TTL = Duration.ofDays(60);
+
+    CassandraModule MODULE = CassandraModule.table(TABLE_NAME)
+        .comment("Storing the JMAP projection of the emails belonging to each thread, to not search them by threadId upon Thread/get.")
+        .options(options -> options
+            .withCaching(true, rows(DEFAULT_CACHED_ROW_PER_PARTITION)))
+        .statement(statement -> types -> statement
+            .withPartitionKey(USERNAME, DataTypes.TEXT)
+            .withPartitionKey(THREAD_ID, DataTypes.TIMEUUID)
+            .withClusteringColumn(MESSAGE_ID, DataTypes.TIMEUUID)
+            .withColumn(RECEIVED_AT, DataTypes.TIMESTAMP))
+
+        .table(CHANGE_TABLE_NAME)
+        .comment("Log of the changes of the thread membership projection, used to compute Thread/changes. Changes expire: " +
+            "clients holding an expired state can not calculate changes and need to resynchronize.")
+        .options(options -> options
+            .withClusteringOrder(STATE, ASC)
+            .withDefaultTimeToLiveSeconds(Math.toIntExact(CHANGE_TTL.getSeconds()))
+            .withCompaction(SchemaBuilder.timeWindowCompactionStrategy()
+                .withCompactionWindow(7, DAYS))
+            .withCaching(true, rows(DEFAULT_CACHED_ROW_PER_PARTITION)))
+        .statement(statement -> types -> statement
+            .withPartitionKey(USERNAME, DataTypes.TEXT)
+            .withClusteringColumn(STATE, DataTypes.TIMEUUID)
+            .withColumn(THREAD_ID, DataTypes.TIMEUUID)
+            .withColumn(TYPE, DataTypes.TEXT))
+        .build();
+}
@@ -25,10 +25,13 @@ public interface CassandraEmailQueryViewTable {
     String TABLE_NAME_SENT_AT = "email_query_view_sent_at";
     String TABLE_NAME_RECEIVED_AT = "email_query_view_received_at";
     String DATE_LOOKUP_TABLE = "email_query_view_date_lookup";
+    String TABLE_NAME_KEYWORDS_RECEIVED_AT = "email_query_view_keywords_received_at";
 
     String MAILBOX_ID = "mailboxId";
     String MESSAGE_ID = "messageId";
     String MESSAGE_ID_LOWERCASE = MESSAGE_ID.toLowerCase(Locale.US);
     String RECEIVED_AT = "receivedAt";
     String SENT_AT = "sentAt";
+    String KEYWORDS = "keywords";
+    String HAS_ATTACHMENT = "hasAttachment";
 }
@@ -29,4 +29,5 @@ public interface CassandraMessageFastViewProjectionTable {
     String PREVIEW = "preview";
     String HAS_ATTACHMENT = "hasAttachment";
     String HAS_ATTACHMENT_LOWERCASE = HAS_ATTACHMENT.toLowerCase(Locale.US);
+    String HEADERS = "headers";
 }
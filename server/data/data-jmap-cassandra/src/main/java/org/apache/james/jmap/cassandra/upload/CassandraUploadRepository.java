@@ -1,12 +1,11 @@
 package org.apache.james.jmap.cassandra.upload;
 
-import static org.apache.james.blob.api.BlobStore.StoragePolicy.LOW_COST;
-
 import java.io.InputStream;
 
 import javax.inject.Inject;
 
-import org.apache.james.blob.api.BlobStore;
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.BlobStoreDAO;
 import org.apache.james.blob.api.BucketName;
 import org.apache.james.core.Username;
 import org.apache.james.jmap.api.model.Upload;
@@ -25,25 +24,33 @@ import reactor.core.publisher.Mono;
 
 public class CassandraUploadRepository implements UploadRepository {
     private final UploadDAO uploadDAO;
-    private final BlobStore blobStore;
+    private final BlobStoreDAO blobStoreDAO;
+    private final BlobId.Factory blobIdFactory;
     private final BucketNameGenerator bucketNameGenerator;
 
     @Inject
-    public CassandraUploadRepository(UploadDAO uploadDAO, BlobStore blobStore, BucketNameGenerator bucketNameGenerator) {
+    public CassandraUploadRepository(UploadDAO uploadDAO, BlobStoreDAO blobStoreDAO, BlobId.Factory blobIdFactory, BucketNameGenerator bucketNameGenerator) {
         this.uploadDAO = uploadDAO;
-        this.blobStore = blobStore;
+        this.blobStoreDAO = blobStoreDAO;
+        this.blobIdFactory = blobIdFactory;
         this.bucketNameGenerator = bucketNameGenerator;
     }
 
+    /**
+     * Uploads are short-lived and never shared, deduplicating them is pointless. Their content is hence saved
+     * under a random blobId, straight to the {@link BlobStoreDAO}, which allows streaming it without staging it
+     * first in order to compute its hash.
+     */
     @Override
     public Publisher<UploadMetaData> upload(InputStream data, ContentType contentType, Username user) {
         UploadId uploadId = generateId();
         UploadBucketName uploadBucketName = bucketNameGenerator.current();
         BucketName bucketName = uploadBucketName.asBucketName();
+        BlobId blobId = blobIdFactory.randomId();
 
         return Mono.fromCallable(() -> new CountingInputStream(data))
-            .flatMap(countingInputStream -> Mono.from(blobStore.save(bucketName, countingInputStream, LOW_COST))
-                .map(blobId -> new UploadDAO.UploadRepresentation(uploadId, bucketName, blobId, contentType, countingInputStream.getCount(), user))
+            .flatMap(countingInputStream -> Mono.from(blobStoreDAO.save(bucketName, blobId, countingInputStream))
+                .then(Mono.fromCallable(() -> new UploadDAO.UploadRepresentation(uploadId, bucketName, blobId, contentType, countingInputStream.getCount(), user)))
                 .flatMap(upload -> uploadDAO.save(upload)
                     .thenReturn(UploadMetaData.from(uploadId, upload.getContentType(), upload.getSize(), upload.getBlobId()))));
     }
@@ -54,15 +61,16 @@ public class CassandraUploadRepository implements UploadRepository {
             .filter(upload -> upload.getUser().equals(user))
             .map(upload -> Upload.from(
                 UploadMetaData.from(id, upload.getContentType(), upload.getSize(), upload.getBlobId()),
-                () -> blobStore.read(upload.getBucketName(), upload.getBlobId(), LOW_COST)))
+                () -> blobStoreDAO.read(upload.getBucketName(), upload.getBlobId()),
+                (offset, length) -> blobStoreDAO.readRange(upload.getBucketName(), upload.getBlobId(), offset, length)))
             .switchIfEmpty(Mono.error(() -> new UploadNotFoundException(id)));
     }
 
     public Mono<Void> purge() {
-        return Flux.from(blobStore.listBuckets())
+        return Flux.from(blobStoreDAO.listBuckets())
             .<UploadBucketName>handle((bucketName, sink) -> UploadBucketName.ofBucket(bucketName).ifPresentOrElse(sink::next, sink::complete))
             .filter(bucketNameGenerator.evictionPredicate())
-            .concatMap(bucket -> blobStore.deleteBucket(bucket.asBucketName()))
+            .concatMap(bucket -> blobStoreDAO.deleteBucket(bucket.asBucketName()))
             .then();
     }
 
@@ -19,19 +19,32 @@
 
 package org.apache.james.jmap.cassandra.change;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
 import org.apache.james.backends.cassandra.CassandraCluster;
 import org.apache.james.backends.cassandra.CassandraClusterExtension;
 import org.apache.james.backends.cassandra.components.CassandraModule;
 import org.apache.james.backends.cassandra.init.CassandraZonedDateTimeModule;
 import org.apache.james.backends.cassandra.versions.CassandraSchemaVersionModule;
+import org.apache.james.jmap.api.change.EmailChange;
 import org.apache.james.jmap.api.change.EmailChangeRepository;
 import org.apache.james.jmap.api.change.EmailChangeRepositoryContract;
+import org.apache.james.jmap.api.change.EmailChanges;
+import org.apache.james.jmap.api.change.Limit;
 import org.apache.james.jmap.api.change.State;
 import org.apache.james.mailbox.cassandra.ids.CassandraMessageId;
 import org.apache.james.mailbox.model.MessageId;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
+import com.google.common.collect.ImmutableList;
+
 public class CassandraEmailChangeRepositoryTest implements EmailChangeRepositoryContract {
 
     @RegisterExtension
@@ -40,13 +53,14 @@ public class CassandraEmailChangeRepositoryTest implements EmailChangeRepository
             CassandraSchemaVersionModule.MODULE,
             CassandraZonedDateTimeModule.MODULE));
 
-    EmailChangeRepository emailChangeRepository;
+    CassandraEmailChangeRepository emailChangeRepository;
     EmailChangeRepositoryDAO emailChangeRepositoryDAO;
 
     @BeforeEach
     public void setUp(CassandraCluster cassandra) {
         emailChangeRepositoryDAO = new EmailChangeRepositoryDAO(cassandra.getConf(), cassandra.getTypesProvider());
-        emailChangeRepository = new CassandraEmailChangeRepository(emailChangeRepositoryDAO, DEFAULT_NUMBER_OF_CHANGES);
+        emailChangeRepository = new CassandraEmailChangeRepository(emailChangeRepositoryDAO,
+            new EmailChangeCheckpointDAO(cassandra.getConf()), DEFAULT_NUMBER_OF_CHANGES, Clock.systemUTC());
     }
 
     @Override
@@ -63,4 +77,87 @@ public class CassandraEmailChangeRepositoryTest implements EmailChangeRepository
     public MessageId generateNewMessageId() {
         return new CassandraMessageId.Factory().generate();
     }
+
+    @Test
+    void getSinceStateShouldReturnAllChangesWhenLogIsCompacted() {
+        List<EmailChange> changes = saveCreations(12, false);
+
+        emailChangeRepository.compact(ACCOUNT_ID, DATE.plusDays(1)).block();
+
+        EmailChanges emailChanges = emailChangeRepository.getSinceState(ACCOUNT_ID, changes.get(0).getState(), Optional.of(Limit.of(20))).block();
+        assertThat(emailChanges.getCreated())
+            .containsExactlyInAnyOrderElementsOf(createdIds(changes.subList(1, 12)));
+        assertThat(emailChanges.getNewState()).isEqualTo(changes.get(11).getState());
+        assertThat(emailChanges.hasMoreChanges()).isFalse();
+    }
+
+    @Test
+    void getSinceStateShouldSupportStatesWithinCompactedWindows() {
+        List<EmailChange> changes = saveCreations(12, false);
+
+        emailChangeRepository.compact(ACCOUNT_ID, DATE.plusDays(1)).block();
+
+        assertThat(emailChangeRepository.getSinceState(ACCOUNT_ID, changes.get(3).getState(), Optional.of(Limit.of(20))).block().getCreated())
+            .containsExactlyInAnyOrderElementsOf(createdIds(changes.subList(4, 12)));
+    }
+
+    @Test
+    void getSinceStateShouldPageThroughCompactedLog() {
+        List<EmailChange> changes = saveCreations(12, false);
+
+        emailChangeRepository.compact(ACCOUNT_ID, DATE.plusDays(1)).block();
+
+        EmailChanges firstPage = emailChangeRepository.getSinceState(ACCOUNT_ID, changes.get(0).getState(), Optional.of(Limit.of(2))).block();
+        EmailChanges secondPage = emailChangeRepository.getSinceState(ACCOUNT_ID, firstPage.getNewState(), Optional.of(Limit.of(2))).block();
+
+        assertThat(firstPage.getCreated()).containsExactlyInAnyOrderElementsOf(createdIds(changes.subList(1, 3)));
+        assertThat(firstPage.hasMoreChanges()).isTrue();
+        assertThat(secondPage.getCreated()).containsExactlyInAnyOrderElementsOf(createdIds(changes.subList(3, 5)));
+    }
+
+    @Test
+    void getSinceStateShouldFilterDelegatedChangesWhenLogIsCompacted() {
+        List<EmailChange> ownChanges = saveCreations(6, false);
+        List<EmailChange> delegatedChanges = saveCreations(6, true);
+
+        emailChangeRepository.compact(ACCOUNT_ID, DATE.plusDays(1)).block();
+
+        assertThat(emailChangeRepository.getSinceState(ACCOUNT_ID, State.INITIAL, Optional.of(Limit.of(20))).block().getCreated())
+            .containsExactlyInAnyOrderElementsOf(createdIds(ownChanges));
+        assertThat(emailChangeRepository.getSinceStateWithDelegation(ACCOUNT_ID, State.INITIAL, Optional.of(Limit.of(20))).block().getCreated())
+            .containsExactlyInAnyOrderElementsOf(ImmutableList.<MessageId>builder()
+                .addAll(createdIds(ownChanges))
+                .addAll(createdIds(delegatedChanges))
+                .build());
+    }
+
+    @Test
+    void compactShouldIgnoreRecentChanges() {
+        List<EmailChange> changes = saveCreations(12, false);
+
+        emailChangeRepository.compact(ACCOUNT_ID, DATE.minusDays(1)).block();
+
+        assertThat(emailChangeRepository.getSinceState(ACCOUNT_ID, changes.get(0).getState(), Optional.of(Limit.of(20))).block().getCreated())
+            .containsExactlyInAnyOrderElementsOf(createdIds(changes.subList(1, 12)));
+    }
+
+    private List<EmailChange> saveCreations(int count, boolean isDelegated) {
+        List<EmailChange> changes = IntStream.range(0, count)
+            .mapToObj(i -> EmailChange.builder()
+                .accountId(ACCOUNT_ID)
+                .state(generateNewState())
+                .date(DATE)
+                .isDelegated(isDelegated)
+                .created(generateNewMessageId())
+                .build())
+            .collect(ImmutableList.toImmutableList());
+        changes.forEach(change -> emailChangeRepository.save(change).block());
+        return changes;
+    }
+
+    private List<MessageId> createdIds(List<EmailChange> changes) {
+        return changes.stream()
+            .flatMap(change -> change.getCreated().stream())
+            .collect(ImmutableList.toImmutableList());
+    }
 }
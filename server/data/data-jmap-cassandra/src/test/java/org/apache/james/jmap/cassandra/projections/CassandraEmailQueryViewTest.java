@@ -19,17 +19,33 @@
 
 package org.apache.james.jmap.cassandra.projections;
 
+import static org.apache.james.backends.cassandra.Scenario.Builder.awaitOn;
+import static org.apache.james.jmap.cassandra.projections.table.CassandraEmailQueryViewTable.TABLE_NAME_KEYWORDS_RECEIVED_AT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Optional;
+
+import javax.mail.Flags;
+
 import org.apache.james.backends.cassandra.CassandraCluster;
 import org.apache.james.backends.cassandra.CassandraClusterExtension;
+import org.apache.james.backends.cassandra.Scenario;
 import org.apache.james.jmap.api.projections.EmailQueryView;
+import org.apache.james.jmap.api.projections.EmailQueryView.Filter;
 import org.apache.james.jmap.api.projections.EmailQueryViewContract;
 import org.apache.james.mailbox.cassandra.ids.CassandraId;
 import org.apache.james.mailbox.cassandra.ids.CassandraMessageId;
 import org.apache.james.mailbox.model.MailboxId;
 import org.apache.james.mailbox.model.MessageId;
+import org.apache.james.util.streams.Limit;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
 public class CassandraEmailQueryViewTest implements EmailQueryViewContract {
     public static final CassandraId MAILBOX_ID_1 = CassandraId.timeBased();
     public static final CassandraMessageId.Factory MESSAGE_ID_FACTORY = new CassandraMessageId.Factory();
@@ -77,4 +93,52 @@ public class CassandraEmailQueryViewTest implements EmailQueryViewContract {
     public MessageId messageId4() {
         return MESSAGE_ID_4;
     }
+
+    @Test
+    void listMailboxContentWithFilterShouldReadFollowingPages() {
+        Flux.range(0, 250)
+            .concatMap(i -> testee.save(MAILBOX_ID_1, DATE_1, DATE_2.plusSeconds(i), MESSAGE_ID_FACTORY.generate(), new Flags(Flags.Flag.SEEN), false))
+            .blockLast();
+        testee.save(MAILBOX_ID_1, DATE_1, DATE_1, MESSAGE_ID_1, new Flags(), false).block();
+
+        Filter filter = Filter.of(new Flags(), new Flags(Flags.Flag.SEEN), Optional.empty());
+
+        assertThat(testee.listMailboxContentSortedByReceivedAt(MAILBOX_ID_1, filter, Limit.limit(12)).collectList().block())
+            .containsExactly(MESSAGE_ID_1);
+    }
+
+    @Test
+    void saveWithoutFlagsShouldNotIndexTheEntryForFilteredListings() {
+        testee.save(MAILBOX_ID_1, DATE_1, DATE_2, MESSAGE_ID_1).block();
+
+        Filter filter = Filter.of(new Flags(), new Flags(), Optional.empty());
+        assertThat(testee.listMailboxContentSortedByReceivedAt(MAILBOX_ID_1, filter, Limit.limit(12)).collectList().block())
+            .isEmpty();
+    }
+
+    @Test
+    void filteredListingsShouldIgnoreEntriesDeletedDuringFlagsUpdate(CassandraCluster cassandra) throws Exception {
+        testee.save(MAILBOX_ID_1, DATE_1, DATE_2, MESSAGE_ID_1, new Flags(), false).block();
+
+        Scenario.Barrier barrier = new Scenario.Barrier(1);
+        cassandra.getConf()
+            .registerScenario(awaitOn(barrier)
+                .thenExecuteNormally()
+                .times(1)
+                .whenQueryStartsWith("UPDATE " + TABLE_NAME_KEYWORDS_RECEIVED_AT));
+
+        Mono<Void> update = testee.updateFlags(MAILBOX_ID_1, MESSAGE_ID_1, new Flags(Flags.Flag.FLAGGED))
+            .subscribeOn(Schedulers.boundedElastic())
+            .cache();
+        update.subscribe();
+
+        barrier.awaitCaller();
+        testee.delete(MAILBOX_ID_1, MESSAGE_ID_1).block();
+        barrier.releaseCaller();
+        update.block();
+
+        Filter filter = Filter.of(new Flags(Flags.Flag.FLAGGED), new Flags(), Optional.empty());
+        assertThat(testee.listMailboxContentSortedByReceivedAt(MAILBOX_ID_1, filter, Limit.limit(12)).collectList().block())
+            .isEmpty();
+    }
 }
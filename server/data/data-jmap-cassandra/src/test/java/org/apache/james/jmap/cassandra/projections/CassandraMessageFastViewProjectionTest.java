@@ -77,9 +77,23 @@ class CassandraMessageFastViewProjectionTest implements MessageFastViewProjectio
             .hasMessage("MessageId type is required to be CassandraMessageId");
     }
 
+    @Test
+    void storeHeadersShouldThrowWhenMessageIdIsNotCassandraType() {
+        assertThatThrownBy(() -> testee.storeHeaders(TestMessageId.of(1), HEADERS_1))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("MessageId type is required to be CassandraMessageId");
+    }
+
+    @Test
+    void retrieveHeadersShouldThrowWhenMessageIdIsNotCassandraType() {
+        assertThatThrownBy(() -> testee.retrieveHeaders(TestMessageId.of(1)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("MessageId type is required to be CassandraMessageId");
+    }
+
     @Test
     void deleteShouldThrowWhenMessageIdIsNotCassandraType() {
-        assertThatThrownBy(() -> testee.retrieve(TestMessageId.of(1)))
+        assertThatThrownBy(() -> testee.delete(TestMessageId.of(1)))
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessage("MessageId type is required to be CassandraMessageId");
     }
@@ -0,0 +1,89 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+
+package org.apache.james.jmap.cassandra.projections;
+
+import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.literal;
+import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.selectFrom;
+import static org.apache.james.jmap.cassandra.projections.table.CassandraThreadMembershipProjectionTable.CHANGE_TABLE_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.james.backends.cassandra.CassandraCluster;
+import org.apache.james.backends.cassandra.CassandraClusterExtension;
+import org.apache.james.jmap.api.projections.ThreadMembershipProjection;
+import org.apache.james.jmap.api.projections.ThreadMembershipProjectionContract;
+import org.apache.james.jmap.cassandra.change.CassandraStateFactory;
+import org.apache.james.mailbox.cassandra.ids.CassandraMessageId;
+import org.apache.james.mailbox.model.MessageId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+
+public class CassandraThreadMembershipProjectionTest implements ThreadMembershipProjectionContract {
+    public static final CassandraMessageId.Factory MESSAGE_ID_FACTORY = new CassandraMessageId.Factory();
+    public static final CassandraMessageId MESSAGE_ID_1 = MESSAGE_ID_FACTORY.generate();
+    public static final CassandraMessageId MESSAGE_ID_2 = MESSAGE_ID_FACTORY.generate();
+    public static final CassandraMessageId MESSAGE_ID_3 = MESSAGE_ID_FACTORY.generate();
+
+    @RegisterExtension
+    static CassandraClusterExtension cassandra = new CassandraClusterExtension(CassandraThreadMembershipProjectionModule.MODULE);
+
+    private CassandraThreadMembershipProjection testee;
+
+    @BeforeEach
+    void setUp(CassandraCluster cassandra) {
+        testee = new CassandraThreadMembershipProjection(cassandra.getConf(), new CassandraStateFactory());
+    }
+
+    @Override
+    public ThreadMembershipProjection testee() {
+        return testee;
+    }
+
+    @Override
+    public MessageId messageId1() {
+        return MESSAGE_ID_1;
+    }
+
+    @Override
+    public MessageId messageId2() {
+        return MESSAGE_ID_2;
+    }
+
+    @Override
+    public MessageId messageId3() {
+        return MESSAGE_ID_3;
+    }
+
+    @Test
+    void changesShouldExpire(CassandraCluster cassandra) {
+        Row table = cassandra.getConf().execute(selectFrom("system_schema", "tables")
+                .column("default_time_to_live")
+                .whereColumn("keyspace_name").isEqualTo(literal(cassandra.getConf().getKeyspace().get().asInternal()))
+                .whereColumn("table_name").isEqualTo(literal(CHANGE_TABLE_NAME))
+                .build())
+            .one();
+
+        assertThat(table.getInt("default_time_to_live"))
+            .isEqualTo(Math.toIntExact(CassandraThreadMembershipProjectionModule.CHANGE_TTL.getSeconds()));
+    }
+}
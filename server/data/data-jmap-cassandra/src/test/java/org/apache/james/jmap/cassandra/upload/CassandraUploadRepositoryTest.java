@@ -25,7 +25,6 @@ import java.time.Clock;
 import java.time.Duration;
 
 import org.apache.james.backends.cassandra.CassandraClusterExtension;
-import org.apache.james.blob.api.BucketName;
 import org.apache.james.blob.api.HashBlobId;
 import org.apache.james.blob.memory.MemoryBlobStoreDAO;
 import org.apache.james.core.Username;
@@ -34,7 +33,6 @@ import org.apache.james.jmap.api.model.UploadNotFoundException;
 import org.apache.james.jmap.api.upload.UploadRepository;
 import org.apache.james.jmap.api.upload.UploadRepositoryContract;
 import org.apache.james.mailbox.model.ContentType;
-import org.apache.james.server.blob.deduplication.DeDuplicationBlobStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
@@ -53,7 +51,8 @@ class CassandraUploadRepositoryTest implements UploadRepositoryContract {
         testee = new CassandraUploadRepository(new UploadDAO(cassandra.getCassandraCluster().getConf(),
             new HashBlobId.Factory(),
             new UploadConfiguration(Duration.ofSeconds(5))),
-            new DeDuplicationBlobStore(new MemoryBlobStoreDAO(), BucketName.of("default"), new HashBlobId.Factory()),
+            new MemoryBlobStoreDAO(),
+            new HashBlobId.Factory(),
             new BucketNameGenerator(Clock.systemUTC()));
     }
 
@@ -96,36 +96,64 @@ public class EmailChanges {
                 return this;
             }
 
-            Set<MessageId> destroyedTemp = new HashSet<>(destroyed);
+            Set<MessageId> createdTemp = mergeCreated(change);
+            Set<MessageId> updatedTemp = mergeUpdated(change);
+            Set<MessageId> destroyedTemp = mergeDestroyed(change);
+
+            if (createdTemp.size() + updatedTemp.size() + destroyedTemp.size() > limit.getValue()) {
+                hasMoreChanges = true;
+                canAddMoreItem = false;
+                return this;
+            }
+
+            state = change.getState();
+            created = createdTemp;
+            updated = updatedTemp;
+            destroyed = destroyedTemp;
+
+            return this;
+        }
 
-            Set<MessageId> createdTemp = Sets.difference(
+        /**
+         * @return true if adding this change keeps the collected changes within the limit
+         */
+        public boolean canAdd(EmailChange change) {
+            return canAddMoreItem
+                && mergeCreated(change).size() + mergeUpdated(change).size() + mergeDestroyed(change).size() <= limit.getValue();
+        }
+
+        public boolean hasMoreChanges() {
+            return hasMoreChanges;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        private Set<MessageId> mergeCreated(EmailChange change) {
+            return Sets.difference(
                 ImmutableSet.<MessageId>builder()
                     .addAll(created)
                     .addAll(change.getCreated())
                     .build(),
                 ImmutableSet.copyOf(change.getDestroyed()));
-            Set<MessageId> updatedTemp = Sets.difference(
+        }
+
+        private Set<MessageId> mergeUpdated(EmailChange change) {
+            return Sets.difference(
                 ImmutableSet.<MessageId>builder()
                     .addAll(updated)
                     .addAll(ImmutableSet.copyOf(change.getUpdated()))
                     .build(),
                 ImmutableSet.copyOf(change.getDestroyed()));
+        }
+
+        private Set<MessageId> mergeDestroyed(EmailChange change) {
+            Set<MessageId> destroyedTemp = new HashSet<>(destroyed);
             destroyedTemp.addAll(Sets.difference(
                 ImmutableSet.copyOf(change.getDestroyed()),
                 created));
-
-            if (createdTemp.size() + updatedTemp.size() + destroyedTemp.size() > limit.getValue()) {
-                hasMoreChanges = true;
-                canAddMoreItem = false;
-                return this;
-            }
-
-            state = change.getState();
-            created = createdTemp;
-            updated = updatedTemp;
-            destroyed = destroyedTemp;
-
-            return this;
+            return destroyedTemp;
         }
 
         public EmailChanges build() {
@@ -132,6 +132,10 @@ public class MailboxChanges {
             return this;
         }
 
+        public boolean hasMoreChanges() {
+            return hasMoreChanges;
+        }
+
         public MailboxChanges build() {
             if (hasMoreChanges && created.isEmpty() && updated.isEmpty() && destroyed.isEmpty()) {
                 throw new CanNotCalculateChangesException(String.format("Current change collector limit %d is exceeded by a single change, hence we cannot calculate changes.", limit.getValue()));
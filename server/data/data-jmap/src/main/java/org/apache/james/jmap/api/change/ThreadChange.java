@@ -0,0 +1,100 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+
+package org.apache.james.jmap.api.change;
+
+import java.util.Objects;
+
+import org.apache.james.mailbox.model.ThreadId;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+public class ThreadChange {
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DESTROYED
+    }
+
+    public static ThreadChange created(State state, ThreadId threadId) {
+        return new ThreadChange(state, threadId, Type.CREATED);
+    }
+
+    public static ThreadChange updated(State state, ThreadId threadId) {
+        return new ThreadChange(state, threadId, Type.UPDATED);
+    }
+
+    public static ThreadChange destroyed(State state, ThreadId threadId) {
+        return new ThreadChange(state, threadId, Type.DESTROYED);
+    }
+
+    private final State state;
+    private final ThreadId threadId;
+    private final Type type;
+
+    public ThreadChange(State state, ThreadId threadId, Type type) {
+        Preconditions.checkNotNull(state, "'state' cannot be null");
+        Preconditions.checkNotNull(threadId, "'threadId' cannot be null");
+        Preconditions.checkNotNull(type, "'type' cannot be null");
+
+        this.state = state;
+        this.threadId = threadId;
+        this.type = type;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public ThreadId getThreadId() {
+        return threadId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof ThreadChange) {
+            ThreadChange that = (ThreadChange) o;
+
+            return Objects.equals(state, that.state)
+                && Objects.equals(threadId, that.threadId)
+                && Objects.equals(type, that.type);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(state, threadId, type);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("state", state)
+            .add("threadId", threadId)
+            .add("type", type)
+            .toString();
+    }
+}
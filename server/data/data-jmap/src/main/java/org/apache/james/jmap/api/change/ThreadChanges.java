@@ -0,0 +1,168 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+
+package org.apache.james.jmap.api.change;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+import org.apache.commons.lang3.NotImplementedException;
+import org.apache.james.mailbox.model.ThreadId;
+
+import com.google.common.collect.ImmutableSet;
+
+public class ThreadChanges {
+
+    public static class Builder {
+
+        public static class ThreadChangeCollector implements Collector<ThreadChange, Builder, ThreadChanges> {
+            private final Limit limit;
+            private final State state;
+
+            public ThreadChangeCollector(State state, Limit limit) {
+                this.limit = limit;
+                this.state = state;
+            }
+
+            @Override
+            public Supplier<Builder> supplier() {
+                return () -> new Builder(state, limit);
+            }
+
+            public BiConsumer<Builder, ThreadChange> accumulator() {
+                return Builder::add;
+            }
+
+            @Override
+            public BinaryOperator<Builder> combiner() {
+                throw new NotImplementedException("Not supported");
+            }
+
+            @Override
+            public Function<Builder, ThreadChanges> finisher() {
+                return Builder::build;
+            }
+
+            @Override
+            public Set<Characteristics> characteristics() {
+                return ImmutableSet.of();
+            }
+        }
+
+        private State state;
+        private boolean hasMoreChanges;
+        private final Limit limit;
+        private final Set<ThreadId> created;
+        private final Set<ThreadId> updated;
+        private final Set<ThreadId> destroyed;
+
+        public Builder(State state, Limit limit) {
+            this.limit = limit;
+            this.state = state;
+            this.hasMoreChanges = false;
+            this.created = new HashSet<>();
+            this.updated = new HashSet<>();
+            this.destroyed = new HashSet<>();
+        }
+
+        public Builder add(ThreadChange change) {
+            if (hasMoreChanges) {
+                return this;
+            }
+            ThreadId threadId = change.getThreadId();
+            boolean alreadyTracked = created.contains(threadId) || updated.contains(threadId) || destroyed.contains(threadId);
+            if (!alreadyTracked && created.size() + updated.size() + destroyed.size() >= limit.getValue()) {
+                hasMoreChanges = true;
+                return this;
+            }
+
+            switch (change.getType()) {
+                case CREATED:
+                    if (destroyed.remove(threadId)) {
+                        // The client knew this thread before it got destroyed
+                        updated.add(threadId);
+                    } else if (!updated.contains(threadId)) {
+                        created.add(threadId);
+                    }
+                    break;
+                case UPDATED:
+                    if (!created.contains(threadId)) {
+                        updated.add(threadId);
+                    }
+                    break;
+                case DESTROYED:
+                    updated.remove(threadId);
+                    if (!created.remove(threadId)) {
+                        destroyed.add(threadId);
+                    }
+                    break;
+            }
+            state = change.getState();
+            return this;
+        }
+
+        public boolean hasMoreChanges() {
+            return hasMoreChanges;
+        }
+
+        public ThreadChanges build() {
+            return new ThreadChanges(state, hasMoreChanges, ImmutableSet.copyOf(created), ImmutableSet.copyOf(updated), ImmutableSet.copyOf(destroyed));
+        }
+    }
+
+    private final State newState;
+    private final boolean hasMoreChanges;
+    private final Set<ThreadId> created;
+    private final Set<ThreadId> updated;
+    private final Set<ThreadId> destroyed;
+
+    private ThreadChanges(State newState, boolean hasMoreChanges, Set<ThreadId> created, Set<ThreadId> updated, Set<ThreadId> destroyed) {
+        this.newState = newState;
+        this.hasMoreChanges = hasMoreChanges;
+        this.created = created;
+        this.updated = updated;
+        this.destroyed = destroyed;
+    }
+
+    public State getNewState() {
+        return newState;
+    }
+
+    public boolean hasMoreChanges() {
+        return hasMoreChanges;
+    }
+
+    public Set<ThreadId> getCreated() {
+        return created;
+    }
+
+    public Set<ThreadId> getUpdated() {
+        return updated;
+    }
+
+    public Set<ThreadId> getDestroyed() {
+        return destroyed;
+    }
+}
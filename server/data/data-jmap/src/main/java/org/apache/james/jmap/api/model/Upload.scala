@@ -21,23 +21,35 @@ package org.apache.james.jmap.api.model
 
 import java.io.InputStream
 
-import org.apache.james.blob.api.BlobId
+import org.apache.james.blob.api.{BlobId, RangedInputStreams}
 import org.apache.james.jmap.api.model.Size.Size
 import org.apache.james.mailbox.model.ContentType
 
 object Upload {
 
   def from(metaData: UploadMetaData, content: () => InputStream): Upload =
+    from(metaData, content, (offset, length) => RangedInputStreams.slice(content(), offset, length))
+
+  def from(metaData: UploadMetaData, content: () => InputStream, contentRange: UploadContentRange): Upload =
     Upload(uploadId = metaData.uploadId,
       size = metaData.size,
       contentType = metaData.contentType,
-      content = content)
+      content = content,
+      contentRange = contentRange)
+}
+
+/**
+ * Reads at most `length` bytes of the upload content, starting at `offset`.
+ */
+trait UploadContentRange {
+  def read(offset: Long, length: Long): InputStream
 }
 
 case class Upload(uploadId: UploadId,
                   size: Size,
                   contentType: ContentType,
-                  content: () => InputStream) {
+                  content: () => InputStream,
+                  contentRange: UploadContentRange) {
   def sizeAsLong(): java.lang.Long = size.value
 }
 
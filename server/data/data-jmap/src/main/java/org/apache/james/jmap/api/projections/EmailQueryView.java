@@ -20,7 +20,11 @@
 package org.apache.james.jmap.api.projections;
 
 import java.time.ZonedDateTime;
+import java.util.Arrays;
 import java.util.Objects;
+import java.util.Optional;
+
+import javax.mail.Flags;
 
 import org.apache.james.mailbox.model.MailboxId;
 import org.apache.james.mailbox.model.MessageId;
@@ -35,12 +39,20 @@ public interface EmailQueryView {
         private final MessageId messageId;
         private final ZonedDateTime sentAt;
         private final ZonedDateTime receivedAt;
+        private final Flags flags;
+        private final boolean hasAttachment;
 
         public Entry(MailboxId mailboxId, MessageId messageId, ZonedDateTime sentAt, ZonedDateTime receivedAt) {
+            this(mailboxId, messageId, sentAt, receivedAt, new Flags(), false);
+        }
+
+        public Entry(MailboxId mailboxId, MessageId messageId, ZonedDateTime sentAt, ZonedDateTime receivedAt, Flags flags, boolean hasAttachment) {
             this.mailboxId = mailboxId;
             this.messageId = messageId;
             this.sentAt = sentAt;
             this.receivedAt = receivedAt;
+            this.flags = flags;
+            this.hasAttachment = hasAttachment;
         }
 
         public MailboxId getMailboxId() {
@@ -59,6 +71,18 @@ public interface EmailQueryView {
             return receivedAt;
         }
 
+        public Flags getFlags() {
+            return flags;
+        }
+
+        public boolean hasAttachment() {
+            return hasAttachment;
+        }
+
+        public Entry withFlags(Flags flags) {
+            return new Entry(mailboxId, messageId, sentAt, receivedAt, flags, hasAttachment);
+        }
+
         @Override
         public final boolean equals(Object o) {
             if (o instanceof Entry) {
@@ -67,14 +91,68 @@ public interface EmailQueryView {
                 return Objects.equals(this.mailboxId, entry.mailboxId)
                     && Objects.equals(this.messageId, entry.messageId)
                     && Objects.equals(this.sentAt, entry.sentAt)
-                    && Objects.equals(this.receivedAt, entry.receivedAt);
+                    && Objects.equals(this.receivedAt, entry.receivedAt)
+                    && Objects.equals(this.flags, entry.flags)
+                    && Objects.equals(this.hasAttachment, entry.hasAttachment);
             }
             return false;
         }
 
         @Override
         public final int hashCode() {
-            return Objects.hash(mailboxId, messageId, sentAt, receivedAt);
+            return Objects.hash(mailboxId, messageId, sentAt, receivedAt, flags, hasAttachment);
+        }
+    }
+
+    class Filter {
+        public static Filter of(Flags withFlags, Flags withoutFlags, Optional<Boolean> hasAttachment) {
+            return new Filter(withFlags, withoutFlags, hasAttachment);
+        }
+
+        private final Flags withFlags;
+        private final Flags withoutFlags;
+        private final Optional<Boolean> hasAttachment;
+
+        private Filter(Flags withFlags, Flags withoutFlags, Optional<Boolean> hasAttachment) {
+            this.withFlags = withFlags;
+            this.withoutFlags = withoutFlags;
+            this.hasAttachment = hasAttachment;
+        }
+
+        public Flags getWithFlags() {
+            return withFlags;
+        }
+
+        public Flags getWithoutFlags() {
+            return withoutFlags;
+        }
+
+        public Optional<Boolean> getHasAttachment() {
+            return hasAttachment;
+        }
+
+        public boolean matches(Flags flags, boolean hasAttachment) {
+            return flags.contains(withFlags)
+                && Arrays.stream(withoutFlags.getSystemFlags()).noneMatch(flags::contains)
+                && Arrays.stream(withoutFlags.getUserFlags()).noneMatch(flags::contains)
+                && this.hasAttachment.map(expected -> expected == hasAttachment).orElse(true);
+        }
+
+        @Override
+        public final boolean equals(Object o) {
+            if (o instanceof Filter) {
+                Filter filter = (Filter) o;
+
+                return Objects.equals(this.withFlags, filter.withFlags)
+                    && Objects.equals(this.withoutFlags, filter.withoutFlags)
+                    && Objects.equals(this.hasAttachment, filter.hasAttachment);
+            }
+            return false;
+        }
+
+        @Override
+        public final int hashCode() {
+            return Objects.hash(withFlags, withoutFlags, hasAttachment);
         }
     }
 
@@ -185,9 +263,45 @@ public interface EmailQueryView {
      */
     Flux<MessageId> listMailboxContentSinceSentAt(MailboxId mailboxId, ZonedDateTime since, Limit limit);
 
+    /**
+     *  Sample JMAP requests:
+     *
+     *      - RFC-8621:
+     *
+     *    ["Email/query",
+     *     {
+     *       "accountId": "29883977c13473ae7cb7678ef767cbfbaffc8a44a6e463d971d23a65c1dc4af6",
+     *       "filter: {
+     *           "inMailbox":"abcd",
+     *           "notKeyword":"$seen",
+     *           "hasAttachment":true
+     *       }
+     *       "sort": [{
+     *         "property":"receivedAt",
+     *         "isAscending": false
+     *       }]
+     *     },
+     *     "c1"]
+     *
+     * @return messageIds of the messages in this mailbox matching the filter, sorted by receivedAt.
+     */
+    Flux<MessageId> listMailboxContentSortedByReceivedAt(MailboxId mailboxId, Filter filter, Limit limit);
+
     Mono<Void> delete(MailboxId mailboxId, MessageId messageId);
 
     Mono<Void> delete(MailboxId mailboxId);
 
-    Mono<Void> save(MailboxId mailboxId, ZonedDateTime sentAt, ZonedDateTime receivedAt, MessageId messageId);
+    /**
+     * Saves an entry without its flags nor its attachments. Implementations may leave it out of filtered listings.
+     */
+    default Mono<Void> save(MailboxId mailboxId, ZonedDateTime sentAt, ZonedDateTime receivedAt, MessageId messageId) {
+        return save(mailboxId, sentAt, receivedAt, messageId, new Flags(), false);
+    }
+
+    Mono<Void> save(MailboxId mailboxId, ZonedDateTime sentAt, ZonedDateTime receivedAt, MessageId messageId, Flags flags, boolean hasAttachment);
+
+    /**
+     * Updates the flags of an entry already in the view, for filtered listings. Does nothing if the entry is absent.
+     */
+    Mono<Void> updateFlags(MailboxId mailboxId, MessageId messageId, Flags flags);
 }
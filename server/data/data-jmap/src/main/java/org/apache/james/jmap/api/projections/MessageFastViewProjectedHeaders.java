@@ -0,0 +1,87 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.jmap.api.projections;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Optional;
+
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.model.MessageResult;
+import org.apache.james.mime4j.dom.Header;
+import org.apache.james.mime4j.message.DefaultMessageBuilder;
+import org.apache.james.mime4j.stream.Field;
+import org.apache.james.mime4j.stream.MimeConfig;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * The header fields most commonly requested by JMAP clients, stored along with the fast view so that they can be
+ * served without reading the message from the blob store.
+ *
+ * They are kept as the raw lines of the projected header fields, each of them terminated by a CRLF.
+ */
+public class MessageFastViewProjectedHeaders {
+    public static final String FIELD_SEPARATOR = "\r\n";
+
+    /**
+     * Lower cased names of the header fields retained by the projection.
+     */
+    public static final ImmutableSet<String> PROJECTED_HEADER_NAMES = ImmutableSet.of(
+        "message-id", "in-reply-to", "references",
+        "from", "sender", "reply-to", "to", "cc", "bcc",
+        "subject", "date");
+
+    public static boolean isProjected(String headerName) {
+        return PROJECTED_HEADER_NAMES.contains(headerName.toLowerCase(Locale.US));
+    }
+
+    public static String from(MessageResult messageResult) throws MailboxException, IOException {
+        try (InputStream inputStream = messageResult.getFullContent().getInputStream()) {
+            DefaultMessageBuilder defaultMessageBuilder = new DefaultMessageBuilder();
+            defaultMessageBuilder.setMimeEntityConfig(MimeConfig.PERMISSIVE);
+            Header header = defaultMessageBuilder.parseHeader(inputStream);
+
+            return projectedHeaders(header);
+        }
+    }
+
+    private static String projectedHeaders(Header header) {
+        StringBuilder builder = new StringBuilder();
+        for (Field field : header.getFields()) {
+            if (isProjected(field.getName())) {
+                builder.append(asRawString(field)).append(FIELD_SEPARATOR);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static String asRawString(Field field) {
+        return Optional.ofNullable(field.getRaw())
+            .map(raw -> new String(raw.toByteArray(), UTF_8))
+            .orElseGet(() -> field.getName() + ": " + field.getBody());
+    }
+
+    private MessageFastViewProjectedHeaders() {
+    }
+}
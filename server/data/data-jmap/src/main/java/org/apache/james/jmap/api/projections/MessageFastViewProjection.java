@@ -43,6 +43,19 @@ public interface MessageFastViewProjection {
 
     Publisher<MessageFastViewPrecomputedProperties> retrieve(MessageId messageId);
 
+    /**
+     * Stores the projected header fields of a message, see {@link MessageFastViewProjectedHeaders}.
+     *
+     * Headers are stored independently of the other fast view properties: {@link #store(MessageId, MessageFastViewPrecomputedProperties)}
+     * does not alter them.
+     */
+    Publisher<Void> storeHeaders(MessageId messageId, String headers);
+
+    Publisher<String> retrieveHeaders(MessageId messageId);
+
+    /**
+     * Deletes both the fast view properties and the projected headers of a message.
+     */
     Publisher<Void> delete(MessageId messageId);
 
     Publisher<Void> clear();
@@ -55,4 +68,13 @@ public interface MessageFastViewProjection {
                 .map(preview -> Pair.of(messageId, preview)), DEFAULT_CONCURRENCY)
             .collectMap(Pair::getLeft, Pair::getRight);
     }
+
+    default Publisher<Map<MessageId, String>> retrieveHeaders(Collection<MessageId> messageIds) {
+        Preconditions.checkNotNull(messageIds);
+
+        return Flux.fromIterable(messageIds)
+            .flatMap(messageId -> Mono.from(this.retrieveHeaders(messageId))
+                .map(headers -> Pair.of(messageId, headers)), DEFAULT_CONCURRENCY)
+            .collectMap(Pair::getLeft, Pair::getRight);
+    }
 }
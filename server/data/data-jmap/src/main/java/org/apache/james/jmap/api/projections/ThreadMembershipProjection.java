@@ -0,0 +1,69 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+
+package org.apache.james.jmap.api.projections;
+
+import java.time.Instant;
+
+import org.apache.james.core.Username;
+import org.apache.james.jmap.api.change.Limit;
+import org.apache.james.jmap.api.change.State;
+import org.apache.james.jmap.api.change.ThreadChanges;
+import org.apache.james.mailbox.model.MessageId;
+import org.apache.james.mailbox.model.ThreadId;
+import org.reactivestreams.Publisher;
+
+/**
+ * Holds, for each user, the emails belonging to each of their threads, along with a log of the thread changes,
+ * so that Thread/get and Thread/changes do not need to search messages by threadId.
+ */
+public interface ThreadMembershipProjection {
+
+    String THREAD_MEMBERSHIP_PROJECTION = "ThreadMembershipProjection";
+
+    /**
+     * Records a thread change: CREATED when the thread had no member yet, UPDATED otherwise.
+     * Adding a message already belonging to the thread is a no-op.
+     */
+    Publisher<Void> add(Username username, ThreadId threadId, MessageId messageId, Instant receivedAt);
+
+    /**
+     * Records a thread change: DESTROYED when the thread has no member left, UPDATED otherwise.
+     * Removing a message not belonging to the thread is a no-op.
+     */
+    Publisher<Void> remove(Username username, ThreadId threadId, MessageId messageId);
+
+    /**
+     * @return the messageIds of the thread, sorted by receivedAt. Empty when the thread is unknown.
+     */
+    Publisher<MessageId> retrieve(Username username, ThreadId threadId);
+
+    /**
+     * {@link State#INITIAL} stands for the beginning of the change log.
+     *
+     * @throws org.apache.james.jmap.api.exception.ChangeNotFoundException in the error channel when the state is unknown
+     */
+    Publisher<ThreadChanges> getSinceState(Username username, State state, Limit maxChanges);
+
+    /**
+     * @return the state of the latest thread change, {@link State#INITIAL} if none
+     */
+    Publisher<State> getLatestState(Username username);
+}
@@ -23,6 +23,7 @@ import java.time.ZonedDateTime;
 import java.util.Comparator;
 
 import javax.inject.Inject;
+import javax.mail.Flags;
 
 import org.apache.james.jmap.api.projections.EmailQueryView;
 import org.apache.james.mailbox.model.MailboxId;
@@ -94,6 +95,17 @@ public class MemoryEmailQueryView implements EmailQueryView {
             .take(limit.getLimit().get());
     }
 
+    @Override
+    public Flux<MessageId> listMailboxContentSortedByReceivedAt(MailboxId mailboxId, Filter filter, Limit limit) {
+        Preconditions.checkArgument(!limit.isUnlimited(), "Limit should be defined");
+
+        return Flux.fromIterable(entries.row(mailboxId).values())
+            .filter(e -> filter.matches(e.getFlags(), e.hasAttachment()))
+            .sort(Comparator.comparing(Entry::getReceivedAt).reversed())
+            .map(Entry::getMessageId)
+            .take(limit.getLimit().get());
+    }
+
     @Override
     public Mono<Void> delete(MailboxId mailboxId, MessageId messageId) {
         return Mono.fromRunnable(() -> entries.remove(mailboxId, messageId));
@@ -105,7 +117,19 @@ public class MemoryEmailQueryView implements EmailQueryView {
     }
 
     @Override
-    public Mono<Void> save(MailboxId mailboxId, ZonedDateTime sentAt, ZonedDateTime receivedAt, MessageId messageId) {
-        return Mono.fromRunnable(() -> entries.put(mailboxId, messageId, new Entry(mailboxId, messageId, sentAt, receivedAt)));
+    public Mono<Void> save(MailboxId mailboxId, ZonedDateTime sentAt, ZonedDateTime receivedAt, MessageId messageId, Flags flags, boolean hasAttachment) {
+        return Mono.fromRunnable(() -> entries.put(mailboxId, messageId, new Entry(mailboxId, messageId, sentAt, receivedAt, new Flags(flags), hasAttachment)));
+    }
+
+    @Override
+    public Mono<Void> updateFlags(MailboxId mailboxId, MessageId messageId, Flags flags) {
+        return Mono.fromRunnable(() -> {
+            synchronized (entries) {
+                Entry entry = entries.get(mailboxId, messageId);
+                if (entry != null) {
+                    entries.put(mailboxId, messageId, entry.withFlags(new Flags(flags)));
+                }
+            }
+        });
     }
 }
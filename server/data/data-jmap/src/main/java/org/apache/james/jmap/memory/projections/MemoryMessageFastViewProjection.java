@@ -36,12 +36,14 @@ import reactor.core.publisher.Mono;
 public class MemoryMessageFastViewProjection implements MessageFastViewProjection {
 
     private final ConcurrentHashMap<MessageId, MessageFastViewPrecomputedProperties> projectionItems;
+    private final ConcurrentHashMap<MessageId, String> projectedHeaders;
     private final Metric metricRetrieveHitCount;
     private final Metric metricRetrieveMissCount;
 
     @Inject
     public MemoryMessageFastViewProjection(MetricFactory metricFactory) {
         this.projectionItems = new ConcurrentHashMap<>();
+        this.projectedHeaders = new ConcurrentHashMap<>();
         this.metricRetrieveHitCount = metricFactory.generate(METRIC_RETRIEVE_HIT_COUNT);
         this.metricRetrieveMissCount = metricFactory.generate(METRIC_RETRIEVE_MISS_COUNT);
     }
@@ -63,15 +65,36 @@ public class MemoryMessageFastViewProjection implements MessageFastViewProjectio
             .switchIfEmpty(Mono.fromRunnable(metricRetrieveMissCount::increment));
     }
 
+    @Override
+    public Mono<Void> storeHeaders(MessageId messageId, String headers) {
+        Preconditions.checkNotNull(messageId);
+        Preconditions.checkNotNull(headers);
+
+        return Mono.fromRunnable(() -> projectedHeaders.put(messageId, headers));
+    }
+
+    @Override
+    public Mono<String> retrieveHeaders(MessageId messageId) {
+        Preconditions.checkNotNull(messageId);
+
+        return Mono.fromSupplier(() -> projectedHeaders.get(messageId));
+    }
+
     @Override
     public Mono<Void> delete(MessageId messageId) {
         Preconditions.checkNotNull(messageId);
 
-        return Mono.fromRunnable(() -> projectionItems.remove(messageId));
+        return Mono.fromRunnable(() -> {
+            projectionItems.remove(messageId);
+            projectedHeaders.remove(messageId);
+        });
     }
 
     @Override
     public Mono<Void> clear() {
-        return Mono.fromRunnable(projectionItems::clear);
+        return Mono.fromRunnable(() -> {
+            projectionItems.clear();
+            projectedHeaders.clear();
+        });
     }
 }
@@ -0,0 +1,168 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+
+package org.apache.james.jmap.memory.projections;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.inject.Inject;
+
+import org.apache.james.core.Username;
+import org.apache.james.jmap.api.change.Limit;
+import org.apache.james.jmap.api.change.State;
+import org.apache.james.jmap.api.change.ThreadChange;
+import org.apache.james.jmap.api.change.ThreadChanges;
+import org.apache.james.jmap.api.exception.ChangeNotFoundException;
+import org.apache.james.jmap.api.projections.ThreadMembershipProjection;
+import org.apache.james.mailbox.model.MessageId;
+import org.apache.james.mailbox.model.ThreadId;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Table;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class MemoryThreadMembershipProjection implements ThreadMembershipProjection {
+
+    private final State.Factory stateFactory;
+    private final Table<Username, ThreadId, Map<MessageId, Instant>> members;
+    private final ListMultimap<Username, ThreadChange> changes;
+
+    @Inject
+    public MemoryThreadMembershipProjection(State.Factory stateFactory) {
+        this.stateFactory = stateFactory;
+        this.members = HashBasedTable.create();
+        this.changes = ArrayListMultimap.create();
+    }
+
+    @Override
+    public Mono<Void> add(Username username, ThreadId threadId, MessageId messageId, Instant receivedAt) {
+        Preconditions.checkNotNull(username);
+        Preconditions.checkNotNull(threadId);
+        Preconditions.checkNotNull(messageId);
+        Preconditions.checkNotNull(receivedAt);
+
+        return Mono.fromRunnable(() -> {
+            synchronized (this) {
+                Map<MessageId, Instant> threadMembers = Optional.ofNullable(members.get(username, threadId))
+                    .orElse(ImmutableMap.of());
+                if (threadMembers.containsKey(messageId)) {
+                    return;
+                }
+                members.put(username, threadId, ImmutableMap.<MessageId, Instant>builder()
+                    .putAll(threadMembers)
+                    .put(messageId, receivedAt)
+                    .build());
+                if (threadMembers.isEmpty()) {
+                    changes.put(username, ThreadChange.created(stateFactory.generate(), threadId));
+                } else {
+                    changes.put(username, ThreadChange.updated(stateFactory.generate(), threadId));
+                }
+            }
+        });
+    }
+
+    @Override
+    public Mono<Void> remove(Username username, ThreadId threadId, MessageId messageId) {
+        Preconditions.checkNotNull(username);
+        Preconditions.checkNotNull(threadId);
+        Preconditions.checkNotNull(messageId);
+
+        return Mono.fromRunnable(() -> {
+            synchronized (this) {
+                Map<MessageId, Instant> threadMembers = Optional.ofNullable(members.get(username, threadId))
+                    .orElse(ImmutableMap.of());
+                if (!threadMembers.containsKey(messageId)) {
+                    return;
+                }
+                if (threadMembers.size() == 1) {
+                    members.remove(username, threadId);
+                    changes.put(username, ThreadChange.destroyed(stateFactory.generate(), threadId));
+                } else {
+                    members.put(username, threadId, threadMembers.entrySet().stream()
+                        .filter(entry -> !entry.getKey().equals(messageId))
+                        .collect(ImmutableMap.toImmutableMap(Map.Entry::getKey, Map.Entry::getValue)));
+                    changes.put(username, ThreadChange.updated(stateFactory.generate(), threadId));
+                }
+            }
+        });
+    }
+
+    @Override
+    public Flux<MessageId> retrieve(Username username, ThreadId threadId) {
+        Preconditions.checkNotNull(username);
+        Preconditions.checkNotNull(threadId);
+
+        return Mono.fromSupplier(() -> {
+                synchronized (this) {
+                    return Optional.ofNullable(members.get(username, threadId))
+                        .orElse(ImmutableMap.of());
+                }
+            })
+            .flatMapIterable(Map::entrySet)
+            .sort(Map.Entry.comparingByValue(Comparator.naturalOrder()))
+            .map(Map.Entry::getKey);
+    }
+
+    @Override
+    public Mono<ThreadChanges> getSinceState(Username username, State state, Limit maxChanges) {
+        Preconditions.checkNotNull(username);
+        Preconditions.checkNotNull(state);
+        Preconditions.checkNotNull(maxChanges);
+
+        return Mono.fromCallable(() -> userChanges(username))
+            .flatMap(userChanges -> {
+                if (state.equals(State.INITIAL)) {
+                    return Mono.just(userChanges);
+                }
+                return userChanges.stream()
+                    .filter(change -> change.getState().equals(state))
+                    .findFirst()
+                    .map(change -> Mono.just(userChanges.subList(userChanges.indexOf(change) + 1, userChanges.size())))
+                    .orElse(Mono.error(() -> new ChangeNotFoundException(state, String.format("State '%s' could not be found", state.getValue()))));
+            })
+            .map(changesSince -> changesSince.stream()
+                .collect(new ThreadChanges.Builder.ThreadChangeCollector(state, maxChanges)));
+    }
+
+    @Override
+    public Mono<State> getLatestState(Username username) {
+        Preconditions.checkNotNull(username);
+
+        return Mono.fromCallable(() -> userChanges(username))
+            .flatMap(userChanges -> Mono.justOrEmpty(userChanges.stream().reduce((first, second) -> second)))
+            .map(ThreadChange::getState)
+            .defaultIfEmpty(State.INITIAL);
+    }
+
+    private synchronized List<ThreadChange> userChanges(Username username) {
+        return ImmutableList.copyOf(changes.get(username));
+    }
+}
@@ -24,7 +24,12 @@ import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.time.ZonedDateTime;
+import java.util.Optional;
 
+import javax.mail.Flags;
+
+import org.apache.james.jmap.api.projections.EmailQueryView.Filter;
+import org.apache.james.mailbox.FlagsBuilder;
 import org.apache.james.mailbox.model.MailboxId;
 import org.apache.james.mailbox.model.MessageId;
 import org.apache.james.util.streams.Limit;
@@ -274,4 +279,128 @@ public interface EmailQueryViewContract {
         assertThatThrownBy(() -> testee().listMailboxContentSinceReceivedAt(mailboxId1(), DATE_3, Limit.unlimited()).blockLast())
             .isInstanceOf(IllegalArgumentException.class);
     }
+
+    @Test
+    default void listMailboxContentWithFilterShouldReturnEmptyByDefault() {
+        Filter filter = Filter.of(new Flags(), new Flags(Flags.Flag.SEEN), Optional.empty());
+
+        assertThat(testee().listMailboxContentSortedByReceivedAt(mailboxId1(), filter, Limit.limit(12)).collectList().block())
+            .isEmpty();
+    }
+
+    @Test
+    default void listMailboxContentWithFilterShouldExcludeMessagesWithForbiddenFlags() {
+        testee().save(mailboxId1(), DATE_1, DATE_2, messageId1(), new Flags(Flags.Flag.SEEN), false).block();
+        testee().save(mailboxId1(), DATE_3, DATE_4, messageId2(), new Flags(), false).block();
+        testee().save(mailboxId1(), DATE_5, DATE_6, messageId3(), new Flags(Flags.Flag.FLAGGED), false).block();
+
+        Filter filter = Filter.of(new Flags(), new Flags(Flags.Flag.SEEN), Optional.empty());
+
+        assertThat(testee().listMailboxContentSortedByReceivedAt(mailboxId1(), filter, Limit.limit(12)).collectList().block())
+            .containsExactly(messageId3(), messageId2());
+    }
+
+    @Test
+    default void listMailboxContentWithFilterShouldOnlyReturnMessagesWithRequiredFlags() {
+        testee().save(mailboxId1(), DATE_1, DATE_2, messageId1(), FlagsBuilder.builder().add(Flags.Flag.FLAGGED).add("custom").build(), false).block();
+        testee().save(mailboxId1(), DATE_3, DATE_4, messageId2(), new Flags(Flags.Flag.FLAGGED), false).block();
+        testee().save(mailboxId1(), DATE_5, DATE_6, messageId3(), new Flags("custom"), false).block();
+
+        Filter filter = Filter.of(FlagsBuilder.builder().add(Flags.Flag.FLAGGED).add("custom").build(), new Flags(), Optional.empty());
+
+        assertThat(testee().listMailboxContentSortedByReceivedAt(mailboxId1(), filter, Limit.limit(12)).collectList().block())
+            .containsExactly(messageId1());
+    }
+
+    @Test
+    default void listMailboxContentWithFilterShouldFilterOnAttachments() {
+        testee().save(mailboxId1(), DATE_1, DATE_2, messageId1(), new Flags(), true).block();
+        testee().save(mailboxId1(), DATE_3, DATE_4, messageId2(), new Flags(), false).block();
+        testee().save(mailboxId1(), DATE_5, DATE_6, messageId3(), new Flags(), true).block();
+
+        Filter filter = Filter.of(new Flags(), new Flags(), Optional.of(true));
+
+        assertThat(testee().listMailboxContentSortedByReceivedAt(mailboxId1(), filter, Limit.limit(12)).collectList().block())
+            .containsExactly(messageId3(), messageId1());
+    }
+
+    @Test
+    default void listMailboxContentWithFilterShouldBeSortedByReceivedAt() {
+        testee().save(mailboxId1(), DATE_4, DATE_1, messageId1(), new Flags(), false).block();
+        testee().save(mailboxId1(), DATE_3, DATE_2, messageId2(), new Flags(), false).block();
+        testee().save(mailboxId1(), DATE_1, DATE_4, messageId3(), new Flags(), false).block();
+
+        Filter filter = Filter.of(new Flags(), new Flags(Flags.Flag.SEEN), Optional.empty());
+
+        assertThat(testee().listMailboxContentSortedByReceivedAt(mailboxId1(), filter, Limit.limit(12)).collectList().block())
+            .containsExactly(messageId3(), messageId2(), messageId1());
+    }
+
+    @Test
+    default void listMailboxContentWithFilterShouldApplyLimitAfterFiltering() {
+        testee().save(mailboxId1(), DATE_1, DATE_2, messageId1(), new Flags(), false).block();
+        testee().save(mailboxId1(), DATE_3, DATE_4, messageId2(), new Flags(), false).block();
+        testee().save(mailboxId1(), DATE_5, DATE_6, messageId3(), new Flags(Flags.Flag.SEEN), false).block();
+
+        Filter filter = Filter.of(new Flags(), new Flags(Flags.Flag.SEEN), Optional.empty());
+
+        assertThat(testee().listMailboxContentSortedByReceivedAt(mailboxId1(), filter, Limit.limit(1)).collectList().block())
+            .containsExactly(messageId2());
+    }
+
+    @Test
+    default void listMailboxContentWithFilterShouldNotReturnDeletedEntries() {
+        testee().save(mailboxId1(), DATE_1, DATE_2, messageId1(), new Flags(), false).block();
+        testee().save(mailboxId1(), DATE_3, DATE_4, messageId2(), new Flags(), false).block();
+
+        testee().delete(mailboxId1(), messageId2()).block();
+
+        Filter filter = Filter.of(new Flags(), new Flags(Flags.Flag.SEEN), Optional.empty());
+
+        assertThat(testee().listMailboxContentSortedByReceivedAt(mailboxId1(), filter, Limit.limit(12)).collectList().block())
+            .containsExactly(messageId1());
+    }
+
+    @Test
+    default void listMailboxContentWithFilterShouldNotReturnEntriesOfDeletedMailbox() {
+        testee().save(mailboxId1(), DATE_1, DATE_2, messageId1(), new Flags(), false).block();
+
+        testee().delete(mailboxId1()).block();
+
+        Filter filter = Filter.of(new Flags(), new Flags(Flags.Flag.SEEN), Optional.empty());
+
+        assertThat(testee().listMailboxContentSortedByReceivedAt(mailboxId1(), filter, Limit.limit(12)).collectList().block())
+            .isEmpty();
+    }
+
+    @Test
+    default void updateFlagsShouldBeTakenIntoAccountWhenFiltering() {
+        testee().save(mailboxId1(), DATE_1, DATE_2, messageId1(), new Flags(), false).block();
+        testee().save(mailboxId1(), DATE_3, DATE_4, messageId2(), new Flags(), false).block();
+
+        testee().updateFlags(mailboxId1(), messageId2(), new Flags(Flags.Flag.SEEN)).block();
+
+        Filter filter = Filter.of(new Flags(), new Flags(Flags.Flag.SEEN), Optional.empty());
+
+        assertThat(testee().listMailboxContentSortedByReceivedAt(mailboxId1(), filter, Limit.limit(12)).collectList().block())
+            .containsExactly(messageId1());
+    }
+
+    @Test
+    default void updateFlagsShouldNotAddMissingEntries() {
+        testee().updateFlags(mailboxId1(), messageId1(), new Flags(Flags.Flag.FLAGGED)).block();
+
+        Filter filter = Filter.of(new Flags(Flags.Flag.FLAGGED), new Flags(), Optional.empty());
+
+        assertThat(testee().listMailboxContentSortedByReceivedAt(mailboxId1(), filter, Limit.limit(12)).collectList().block())
+            .isEmpty();
+    }
+
+    @Test
+    default void listMailboxContentWithFilterShouldThrowOnUndefinedLimit() {
+        Filter filter = Filter.of(new Flags(), new Flags(), Optional.empty());
+
+        assertThatThrownBy(() -> testee().listMailboxContentSortedByReceivedAt(mailboxId1(), filter, Limit.unlimited()).blockLast())
+            .isInstanceOf(IllegalArgumentException.class);
+    }
 }
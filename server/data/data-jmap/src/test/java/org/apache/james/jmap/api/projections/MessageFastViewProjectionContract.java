@@ -54,6 +54,8 @@ public interface MessageFastViewProjectionContract {
         .preview(PREVIEW_2)
         .noAttachments()
         .build();
+    String HEADERS_1 = "Subject: subject 1\r\nFrom: bob@domain.tld\r\n";
+    String HEADERS_2 = "Subject: subject 2\r\n";
 
     MessageFastViewProjection testee();
 
@@ -359,6 +361,141 @@ public interface MessageFastViewProjectionContract {
             .isEqualTo(0);
     }
 
+    @Test
+    default void retrieveHeadersShouldReturnStoredHeaders() {
+        MessageId messageId = newMessageId();
+        Mono.from(testee().storeHeaders(messageId, HEADERS_1))
+            .block();
+
+        assertThat(Mono.from(testee().retrieveHeaders(messageId)).block())
+            .isEqualTo(HEADERS_1);
+    }
+
+    @Test
+    default void retrieveHeadersShouldReturnEmptyWhenMessageIdNotFound() {
+        MessageId messageId = newMessageId();
+
+        assertThat(Mono.from(testee().retrieveHeaders(messageId)).blockOptional())
+            .isEmpty();
+    }
+
+    @Test
+    default void retrieveHeadersShouldReturnEmptyWhenOnlyPreviewIsStored() {
+        MessageId messageId = newMessageId();
+        Mono.from(testee().store(messageId, MESSAGE_FAST_VIEW_PRECOMPUTED_PROPERTIES_1))
+            .block();
+
+        assertThat(Mono.from(testee().retrieveHeaders(messageId)).blockOptional())
+            .isEmpty();
+    }
+
+    @Test
+    default void retrieveShouldReturnEmptyWhenOnlyHeadersAreStored() {
+        MessageId messageId = newMessageId();
+        Mono.from(testee().storeHeaders(messageId, HEADERS_1))
+            .block();
+
+        assertThat(Mono.from(testee().retrieve(messageId)).blockOptional())
+            .isEmpty();
+    }
+
+    @Test
+    default void retrieveHeadersShouldReturnOnlyHeadersAvailableInTheStore() {
+        MessageId messageId1 = newMessageId();
+        MessageId messageId2 = newMessageId();
+        MessageId messageId3 = newMessageId();
+        Mono.from(testee().storeHeaders(messageId1, HEADERS_1))
+            .block();
+        Mono.from(testee().storeHeaders(messageId2, HEADERS_2))
+            .block();
+
+        assertThat(Mono.from(testee().retrieveHeaders(ImmutableList.of(messageId1, messageId2, messageId3))).block())
+            .isEqualTo(ImmutableMap.builder()
+                .put(messageId1, HEADERS_1)
+                .put(messageId2, HEADERS_2)
+                .build());
+    }
+
+    @Test
+    default void storeShouldNotOverrideStoredHeaders() {
+        MessageId messageId = newMessageId();
+        Mono.from(testee().storeHeaders(messageId, HEADERS_1))
+            .block();
+
+        Mono.from(testee().store(messageId, MESSAGE_FAST_VIEW_PRECOMPUTED_PROPERTIES_1))
+            .block();
+
+        SoftAssertions.assertSoftly(softly -> {
+            softly.assertThat(Mono.from(testee().retrieve(messageId)).block())
+                .isEqualTo(MESSAGE_FAST_VIEW_PRECOMPUTED_PROPERTIES_1);
+            softly.assertThat(Mono.from(testee().retrieveHeaders(messageId)).block())
+                .isEqualTo(HEADERS_1);
+        });
+    }
+
+    @Test
+    default void storeHeadersShouldOverrideOldHeaders() {
+        MessageId messageId = newMessageId();
+        Mono.from(testee().storeHeaders(messageId, HEADERS_1))
+            .block();
+
+        Mono.from(testee().storeHeaders(messageId, HEADERS_2))
+            .block();
+
+        assertThat(Mono.from(testee().retrieveHeaders(messageId)).block())
+            .isEqualTo(HEADERS_2);
+    }
+
+    @Test
+    default void storeHeadersShouldThrowWhenNullMessageId() {
+        assertThatThrownBy(() -> Mono.from(testee().storeHeaders(null, HEADERS_1)).block())
+            .isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    default void deleteShouldDeleteStoredHeaders() {
+        MessageId messageId = newMessageId();
+        Mono.from(testee().store(messageId, MESSAGE_FAST_VIEW_PRECOMPUTED_PROPERTIES_1))
+            .block();
+        Mono.from(testee().storeHeaders(messageId, HEADERS_1))
+            .block();
+
+        Mono.from(testee().delete(messageId))
+            .block();
+
+        assertThat(Mono.from(testee().retrieveHeaders(messageId)).blockOptional())
+            .isEmpty();
+    }
+
+    @Test
+    default void clearShouldRemoveStoredHeaders() {
+        MessageId messageId = newMessageId();
+        Mono.from(testee().storeHeaders(messageId, HEADERS_1))
+            .block();
+
+        Mono.from(testee().clear()).block();
+
+        assertThat(Mono.from(testee().retrieveHeaders(messageId)).blockOptional())
+            .isEmpty();
+    }
+
+    @Test
+    default void retrieveHeadersShouldNotIncrementMetrics() {
+        MessageId messageId = newMessageId();
+        Mono.from(testee().storeHeaders(messageId, HEADERS_1))
+            .block();
+
+        Mono.from(testee().retrieveHeaders(messageId))
+            .block();
+
+        SoftAssertions.assertSoftly(softly -> {
+            softly.assertThat(metricFactory().countFor(METRIC_RETRIEVE_HIT_COUNT))
+                .isEqualTo(0);
+            softly.assertThat(metricFactory().countFor(METRIC_RETRIEVE_MISS_COUNT))
+                .isEqualTo(0);
+        });
+    }
+
     @Test
     default void clearShouldNotThrowWhenNoData() {
         assertThatCode(() -> Mono.from(testee().clear()).block())
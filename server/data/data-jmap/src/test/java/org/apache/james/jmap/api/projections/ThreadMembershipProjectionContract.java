@@ -0,0 +1,227 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+
+package org.apache.james.jmap.api.projections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+
+import org.apache.james.core.Username;
+import org.apache.james.jmap.api.change.Limit;
+import org.apache.james.jmap.api.change.State;
+import org.apache.james.jmap.api.change.ThreadChanges;
+import org.apache.james.jmap.api.exception.ChangeNotFoundException;
+import org.apache.james.mailbox.model.MessageId;
+import org.apache.james.mailbox.model.ThreadId;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ThreadMembershipProjectionContract {
+    Username BOB = Username.of("bob");
+    Username ALICE = Username.of("alice");
+    Instant DATE_1 = Instant.parse("2010-10-30T15:12:00Z");
+    Instant DATE_2 = Instant.parse("2010-10-30T16:12:00Z");
+    Instant DATE_3 = Instant.parse("2010-10-30T17:12:00Z");
+    Limit LIMIT = Limit.of(10);
+
+    ThreadMembershipProjection testee();
+
+    MessageId messageId1();
+
+    MessageId messageId2();
+
+    MessageId messageId3();
+
+    default ThreadId threadId() {
+        return ThreadId.fromBaseMessageId(messageId1());
+    }
+
+    default ThreadId otherThreadId() {
+        return ThreadId.fromBaseMessageId(messageId3());
+    }
+
+    @Test
+    default void retrieveShouldReturnEmptyByDefault() {
+        assertThat(Flux.from(testee().retrieve(BOB, threadId())).collectList().block())
+            .isEmpty();
+    }
+
+    @Test
+    default void retrieveShouldBeOrderedByReceivedAt() {
+        Mono.from(testee().add(BOB, threadId(), messageId1(), DATE_2)).block();
+        Mono.from(testee().add(BOB, threadId(), messageId2(), DATE_3)).block();
+        Mono.from(testee().add(BOB, threadId(), messageId3(), DATE_1)).block();
+
+        assertThat(Flux.from(testee().retrieve(BOB, threadId())).collectList().block())
+            .containsExactly(messageId3(), messageId1(), messageId2());
+    }
+
+    @Test
+    default void retrieveShouldNotReturnRemovedMembers() {
+        Mono.from(testee().add(BOB, threadId(), messageId1(), DATE_1)).block();
+        Mono.from(testee().add(BOB, threadId(), messageId2(), DATE_2)).block();
+
+        Mono.from(testee().remove(BOB, threadId(), messageId1())).block();
+
+        assertThat(Flux.from(testee().retrieve(BOB, threadId())).collectList().block())
+            .containsExactly(messageId2());
+    }
+
+    @Test
+    default void retrieveShouldBeScopedByUser() {
+        Mono.from(testee().add(BOB, threadId(), messageId1(), DATE_1)).block();
+
+        assertThat(Flux.from(testee().retrieve(ALICE, threadId())).collectList().block())
+            .isEmpty();
+    }
+
+    @Test
+    default void retrieveShouldBeScopedByThread() {
+        Mono.from(testee().add(BOB, threadId(), messageId1(), DATE_1)).block();
+        Mono.from(testee().add(BOB, otherThreadId(), messageId3(), DATE_2)).block();
+
+        assertThat(Flux.from(testee().retrieve(BOB, threadId())).collectList().block())
+            .containsExactly(messageId1());
+    }
+
+    @Test
+    default void getLatestStateShouldReturnInitialByDefault() {
+        assertThat(Mono.from(testee().getLatestState(BOB)).block())
+            .isEqualTo(State.INITIAL);
+    }
+
+    @Test
+    default void getLatestStateShouldChangeUponAdditions() {
+        Mono.from(testee().add(BOB, threadId(), messageId1(), DATE_1)).block();
+
+        assertThat(Mono.from(testee().getLatestState(BOB)).block())
+            .isNotEqualTo(State.INITIAL);
+    }
+
+    @Test
+    default void addingAnExistingMemberShouldNotRecordChanges() {
+        Mono.from(testee().add(BOB, threadId(), messageId1(), DATE_1)).block();
+        State state = Mono.from(testee().getLatestState(BOB)).block();
+
+        Mono.from(testee().add(BOB, threadId(), messageId1(), DATE_1)).block();
+
+        assertThat(Mono.from(testee().getLatestState(BOB)).block())
+            .isEqualTo(state);
+    }
+
+    @Test
+    default void removingAnUnknownMemberShouldNotRecordChanges() {
+        Mono.from(testee().add(BOB, threadId(), messageId1(), DATE_1)).block();
+        State state = Mono.from(testee().getLatestState(BOB)).block();
+
+        Mono.from(testee().remove(BOB, threadId(), messageId2())).block();
+
+        assertThat(Mono.from(testee().getLatestState(BOB)).block())
+            .isEqualTo(state);
+    }
+
+    @Test
+    default void getSinceStateShouldReturnCreatedThreads() {
+        Mono.from(testee().add(BOB, threadId(), messageId1(), DATE_1)).block();
+        Mono.from(testee().add(BOB, threadId(), messageId2(), DATE_2)).block();
+
+        ThreadChanges changes = Mono.from(testee().getSinceState(BOB, State.INITIAL, LIMIT)).block();
+
+        assertThat(changes.getCreated()).containsOnly(threadId());
+        assertThat(changes.getUpdated()).isEmpty();
+        assertThat(changes.getDestroyed()).isEmpty();
+    }
+
+    @Test
+    default void getSinceStateShouldReturnUpdatedThreads() {
+        Mono.from(testee().add(BOB, threadId(), messageId1(), DATE_1)).block();
+        State state = Mono.from(testee().getLatestState(BOB)).block();
+
+        Mono.from(testee().add(BOB, threadId(), messageId2(), DATE_2)).block();
+
+        ThreadChanges changes = Mono.from(testee().getSinceState(BOB, state, LIMIT)).block();
+
+        assertThat(changes.getCreated()).isEmpty();
+        assertThat(changes.getUpdated()).containsOnly(threadId());
+        assertThat(changes.getDestroyed()).isEmpty();
+    }
+
+    @Test
+    default void getSinceStateShouldReturnDestroyedThreads() {
+        Mono.from(testee().add(BOB, threadId(), messageId1(), DATE_1)).block();
+        State state = Mono.from(testee().getLatestState(BOB)).block();
+
+        Mono.from(testee().remove(BOB, threadId(), messageId1())).block();
+
+        ThreadChanges changes = Mono.from(testee().getSinceState(BOB, state, LIMIT)).block();
+
+        assertThat(changes.getCreated()).isEmpty();
+        assertThat(changes.getUpdated()).isEmpty();
+        assertThat(changes.getDestroyed()).containsOnly(threadId());
+    }
+
+    @Test
+    default void getSinceStateShouldOmitThreadsCreatedThenDestroyed() {
+        State state = Mono.from(testee().getLatestState(BOB)).block();
+
+        Mono.from(testee().add(BOB, threadId(), messageId1(), DATE_1)).block();
+        Mono.from(testee().remove(BOB, threadId(), messageId1())).block();
+
+        ThreadChanges changes = Mono.from(testee().getSinceState(BOB, state, LIMIT)).block();
+
+        assertThat(changes.getCreated()).isEmpty();
+        assertThat(changes.getUpdated()).isEmpty();
+        assertThat(changes.getDestroyed()).isEmpty();
+    }
+
+    @Test
+    default void getSinceStateShouldReturnTheLatestState() {
+        Mono.from(testee().add(BOB, threadId(), messageId1(), DATE_1)).block();
+        Mono.from(testee().add(BOB, otherThreadId(), messageId3(), DATE_2)).block();
+
+        ThreadChanges changes = Mono.from(testee().getSinceState(BOB, State.INITIAL, LIMIT)).block();
+
+        assertThat(changes.getNewState()).isEqualTo(Mono.from(testee().getLatestState(BOB)).block());
+    }
+
+    @Test
+    default void getSinceStateShouldHonorTheLimit() {
+        Mono.from(testee().add(BOB, threadId(), messageId1(), DATE_1)).block();
+        Mono.from(testee().add(BOB, otherThreadId(), messageId3(), DATE_2)).block();
+
+        ThreadChanges changes = Mono.from(testee().getSinceState(BOB, State.INITIAL, Limit.of(1))).block();
+
+        assertThat(changes.getCreated()).containsOnly(threadId());
+        assertThat(changes.hasMoreChanges()).isTrue();
+    }
+
+    @Test
+    default void getSinceStateShouldFailWhenUnknownState() {
+        Mono.from(testee().add(BOB, threadId(), messageId1(), DATE_1)).block();
+        State state = Mono.from(testee().getLatestState(BOB)).block();
+
+        assertThatThrownBy(() -> Mono.from(testee().getSinceState(ALICE, state, LIMIT)).block())
+            .isInstanceOf(ChangeNotFoundException.class);
+    }
+}
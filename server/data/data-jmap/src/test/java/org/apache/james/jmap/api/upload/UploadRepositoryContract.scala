@@ -87,6 +87,15 @@
        .isEqualTo(DATA_STRING.getBytes)
    }
 
+   @Test
+   def contentRangeShouldReturnRequestedBytes(): Unit = {
+     val uploadId: UploadId = SMono.fromPublisher(testee.upload(data(), CONTENT_TYPE, USER)).block().uploadId
+     val actualUpload: Upload = SMono.fromPublisher(testee.retrieve(uploadId, USER)).block()
+
+     assertThat(actualUpload.contentRange.read(2, 3).readAllBytes())
+       .isEqualTo("332".getBytes)
+   }
+
    @Test
    def retrieveShouldThrowWhenUploadIdIsNotExist(): Unit = {
      assertThatThrownBy(() => SMono.fromPublisher(testee.retrieve(randomUploadId(), USER)).block())
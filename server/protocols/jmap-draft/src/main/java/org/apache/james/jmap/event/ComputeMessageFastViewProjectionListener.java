@@ -25,11 +25,12 @@ import java.io.IOException;
 
 import javax.inject.Inject;
 
-import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
 import org.apache.james.events.Event;
 import org.apache.james.events.EventListener;
 import org.apache.james.events.Group;
 import org.apache.james.jmap.api.projections.MessageFastViewPrecomputedProperties;
+import org.apache.james.jmap.api.projections.MessageFastViewProjectedHeaders;
 import org.apache.james.jmap.api.projections.MessageFastViewProjection;
 import org.apache.james.mailbox.MailboxSession;
 import org.apache.james.mailbox.MessageIdManager;
@@ -89,9 +90,12 @@ public class ComputeMessageFastViewProjectionListener implements EventListener.R
     private Mono<Void> handleAddedEvent(Added addedEvent, MailboxSession session) {
         return Flux.from(messageIdManager.getMessagesReactive(addedEvent.getMessageIds(), FetchGroup.FULL_CONTENT, session))
             .flatMap(Throwing.function(messageResult -> Mono.fromCallable(
-                () -> Pair.of(messageResult.getMessageId(),
-                    computeFastViewPrecomputedProperties(messageResult)))), DEFAULT_CONCURRENCY)
-            .flatMap(message -> messageFastViewProjection.store(message.getKey(), message.getValue()), DEFAULT_CONCURRENCY)
+                () -> Triple.of(messageResult.getMessageId(),
+                    computeFastViewPrecomputedProperties(messageResult),
+                    MessageFastViewProjectedHeaders.from(messageResult)))), DEFAULT_CONCURRENCY)
+            .flatMap(message -> Mono.when(
+                messageFastViewProjection.store(message.getLeft(), message.getMiddle()),
+                messageFastViewProjection.storeHeaders(message.getLeft(), message.getRight())), DEFAULT_CONCURRENCY)
             .then();
     }
 
@@ -33,6 +33,7 @@ import javax.inject.Inject;
 import org.apache.james.events.Event;
 import org.apache.james.events.EventListener.ReactiveGroupEventListener;
 import org.apache.james.events.Group;
+import org.apache.james.jmap.JMAPConfiguration;
 import org.apache.james.jmap.api.projections.EmailQueryView;
 import org.apache.james.mailbox.MailboxSession;
 import org.apache.james.mailbox.MessageIdManager;
@@ -44,6 +45,7 @@ import org.apache.james.mailbox.events.MailboxEvents.MailboxDeletion;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.model.FetchGroup;
 import org.apache.james.mailbox.model.MailboxId;
+import org.apache.james.mailbox.model.MessageAttachmentMetadata;
 import org.apache.james.mailbox.model.MessageId;
 import org.apache.james.mailbox.model.MessageMetaData;
 import org.apache.james.mailbox.model.MessageResult;
@@ -72,12 +74,14 @@ public class PopulateEmailQueryViewListener implements ReactiveGroupEventListene
     private final MessageIdManager messageIdManager;
     private final EmailQueryView view;
     private final SessionProvider sessionProvider;
+    private final JMAPConfiguration configuration;
 
     @Inject
-    public PopulateEmailQueryViewListener(MessageIdManager messageIdManager, EmailQueryView view, SessionProvider sessionProvider) {
+    public PopulateEmailQueryViewListener(MessageIdManager messageIdManager, EmailQueryView view, SessionProvider sessionProvider, JMAPConfiguration configuration) {
         this.messageIdManager = messageIdManager;
         this.view = view;
         this.sessionProvider = sessionProvider;
+        this.configuration = configuration;
     }
 
     @Override
@@ -142,8 +146,22 @@ public class PopulateEmailQueryViewListener implements ReactiveGroupEventListene
             .concatMap(message -> handleAdded(flagsUpdated.getMailboxId(), message))
             .then();
 
+        // Flags are only indexed for filtered listings
+        if (!configuration.isEmailQueryViewFilteringEnabled()) {
+            return removeMessagesMarkedAsDeleted
+                .then(addMessagesNoLongerMarkedAsDeleted);
+        }
+
+        Mono<Void> updateFlags = Flux.fromIterable(flagsUpdated.getUpdatedFlags())
+            .filter(updatedFlags -> !updatedFlags.isModifiedToSet(DELETED) && !updatedFlags.isModifiedToUnset(DELETED))
+            .filter(UpdatedFlags::flagsChanged)
+            .concatMap(updatedFlags -> Mono.justOrEmpty(updatedFlags.getMessageId())
+                .flatMap(messageId -> view.updateFlags(flagsUpdated.getMailboxId(), messageId, updatedFlags.getNewFlags())))
+            .then();
+
         return removeMessagesMarkedAsDeleted
-            .then(addMessagesNoLongerMarkedAsDeleted);
+            .then(addMessagesNoLongerMarkedAsDeleted)
+            .then(updateFlags);
     }
 
     private Mono<Void> handleAdded(Added added) {
@@ -169,10 +187,18 @@ public class PopulateEmailQueryViewListener implements ReactiveGroupEventListene
         return Mono.fromCallable(() -> parseMessage(messageResult))
             .map(header -> date(header).orElse(messageResult.getInternalDate()))
             .map(date -> ZonedDateTime.ofInstant(date.toInstant(), ZoneOffset.UTC))
-            .flatMap(sentAt -> view.save(mailboxId, sentAt, receivedAt, messageResult.getMessageId()))
+            .flatMap(sentAt -> save(mailboxId, sentAt, receivedAt, messageResult))
             .then();
     }
 
+    private Mono<Void> save(MailboxId mailboxId, ZonedDateTime sentAt, ZonedDateTime receivedAt, MessageResult messageResult) {
+        if (!configuration.isEmailQueryViewFilteringEnabled()) {
+            return view.save(mailboxId, sentAt, receivedAt, messageResult.getMessageId());
+        }
+        return Mono.fromCallable(() -> MessageAttachmentMetadata.hasNonInlinedAttachment(messageResult.getLoadedAttachments()))
+            .flatMap(hasAttachment -> view.save(mailboxId, sentAt, receivedAt, messageResult.getMessageId(), messageResult.getFlags(), hasAttachment));
+    }
+
     private Header parseMessage(MessageResult messageResult) throws IOException, MailboxException {
         DefaultMessageBuilder defaultMessageBuilder = new DefaultMessageBuilder();
         defaultMessageBuilder.setMimeEntityConfig(MimeConfig.PERMISSIVE);
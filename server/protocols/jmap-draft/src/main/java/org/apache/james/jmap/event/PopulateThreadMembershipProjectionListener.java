@@ -0,0 +1,146 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+
+package org.apache.james.jmap.event;
+
+import java.util.Collection;
+
+import javax.inject.Inject;
+
+import org.apache.james.core.Username;
+import org.apache.james.events.Event;
+import org.apache.james.events.EventListener.ReactiveGroupEventListener;
+import org.apache.james.events.Group;
+import org.apache.james.jmap.api.projections.ThreadMembershipProjection;
+import org.apache.james.mailbox.MailboxManager;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageIdManager;
+import org.apache.james.mailbox.SessionProvider;
+import org.apache.james.mailbox.events.MailboxEvents.Added;
+import org.apache.james.mailbox.events.MailboxEvents.Expunged;
+import org.apache.james.mailbox.exception.ThreadNotFoundException;
+import org.apache.james.mailbox.model.FetchGroup;
+import org.apache.james.mailbox.model.MessageId;
+import org.apache.james.mailbox.model.MessageMetaData;
+import org.apache.james.mailbox.model.ThreadId;
+import org.reactivestreams.Publisher;
+
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Maintains the {@link ThreadMembershipProjection} of mailbox owners.
+ *
+ * Threads the projection does not know yet, but whose base message is another message, predate the projection:
+ * their members are then searched once in order to seed it.
+ */
+public class PopulateThreadMembershipProjectionListener implements ReactiveGroupEventListener {
+    public static class PopulateThreadMembershipProjectionListenerGroup extends Group {
+
+    }
+
+    static final Group GROUP = new PopulateThreadMembershipProjectionListenerGroup();
+
+    private final ThreadMembershipProjection projection;
+    private final MailboxManager mailboxManager;
+    private final MessageIdManager messageIdManager;
+    private final SessionProvider sessionProvider;
+
+    @Inject
+    public PopulateThreadMembershipProjectionListener(ThreadMembershipProjection projection, MailboxManager mailboxManager,
+                                                      MessageIdManager messageIdManager, SessionProvider sessionProvider) {
+        this.projection = projection;
+        this.mailboxManager = mailboxManager;
+        this.messageIdManager = messageIdManager;
+        this.sessionProvider = sessionProvider;
+    }
+
+    @Override
+    public Group getDefaultGroup() {
+        return GROUP;
+    }
+
+    @Override
+    public boolean isHandling(Event event) {
+        return event instanceof Added
+            || event instanceof Expunged;
+    }
+
+    @Override
+    public Publisher<Void> reactiveEvent(Event event) {
+        if (event instanceof Added) {
+            return handleAdded((Added) event);
+        }
+        if (event instanceof Expunged) {
+            return handleExpunged((Expunged) event);
+        }
+        return Mono.empty();
+    }
+
+    private Mono<Void> handleAdded(Added added) {
+        Username owner = added.getMailboxPath().getUser();
+        MailboxSession session = sessionProvider.createSystemSession(owner);
+
+        return Flux.fromStream(added.getUids().stream()
+                .map(added::getMetaData))
+            .concatMap(messageMetaData -> seedIfNeeded(owner, messageMetaData, session)
+                .then(Mono.from(projection.add(owner, messageMetaData.getThreadId(), messageMetaData.getMessageId(),
+                    messageMetaData.getInternalDate().toInstant()))))
+            .then();
+    }
+
+    private Mono<Void> seedIfNeeded(Username owner, MessageMetaData messageMetaData, MailboxSession session) {
+        ThreadId threadId = messageMetaData.getThreadId();
+        if (threadId.getBaseMessageId().equals(messageMetaData.getMessageId())) {
+            return Mono.empty();
+        }
+        return Flux.from(projection.retrieve(owner, threadId))
+            .hasElements()
+            .filter(known -> !known)
+            .flatMapMany(any -> Flux.from(mailboxManager.getThread(threadId, session))
+                .onErrorResume(ThreadNotFoundException.class, e -> Mono.empty()))
+            .filter(messageId -> !messageId.equals(messageMetaData.getMessageId()))
+            .collectList()
+            .filter(messageIds -> !messageIds.isEmpty())
+            .flatMapMany(messageIds -> messageIdManager.getMessagesReactive(messageIds, FetchGroup.MINIMAL, session))
+            .concatMap(message -> projection.add(owner, threadId, message.getMessageId(), message.getInternalDate().toInstant()))
+            .then();
+    }
+
+    private Mono<Void> handleExpunged(Expunged expunged) {
+        Username owner = expunged.getMailboxPath().getUser();
+        MailboxSession session = sessionProvider.createSystemSession(owner);
+        Collection<MessageMetaData> expungedMessages = expunged.getUids().stream()
+            .map(expunged::getMetaData)
+            .collect(ImmutableList.toImmutableList());
+        ImmutableList<MessageId> messageIds = expungedMessages.stream()
+            .map(MessageMetaData::getMessageId)
+            .collect(ImmutableList.toImmutableList());
+
+        // Messages still held by other mailboxes remain in their thread
+        return Mono.from(messageIdManager.accessibleMessagesReactive(messageIds, session))
+            .flatMapMany(stillExisting -> Flux.fromIterable(expungedMessages)
+                .filter(messageMetaData -> !stillExisting.contains(messageMetaData.getMessageId())))
+            .concatMap(messageMetaData -> projection.remove(owner, messageMetaData.getThreadId(), messageMetaData.getMessageId()))
+            .then();
+    }
+}
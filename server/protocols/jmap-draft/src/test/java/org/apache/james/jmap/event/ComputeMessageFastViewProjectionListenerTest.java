@@ -259,6 +259,20 @@ class ComputeMessageFastViewProjectionListenerTest {
             .isEqualTo(PRECOMPUTED_PROPERTIES_PREVIEW);
     }
 
+    @Test
+    void shouldStoreProjectedHeaders() throws Exception {
+        ComposedMessageId composedId = inboxMessageManager.appendMessage(
+            MessageManager.AppendCommand.builder()
+                .build(previewMessage()),
+            mailboxSession).getId();
+
+        String headers = Mono.from(messageFastViewProjection.retrieveHeaders(composedId.getMessageId())).block();
+        SoftAssertions.assertSoftly(softly -> {
+            softly.assertThat(headers).contains("Subject: Preview message\r\n");
+            softly.assertThat(headers).doesNotContain("MIME-Version");
+        });
+    }
+
     @Test
     void shouldStoreEventInDeadLettersWhenComputeFastViewPrecomputedPropertiesException() throws Exception {
         doThrow(new IOException())
@@ -20,12 +20,14 @@
 package org.apache.james.jmap.event;
 
 import static javax.mail.Flags.Flag.DELETED;
+import static javax.mail.Flags.Flag.SEEN;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.Date;
+import java.util.Optional;
 
 import javax.mail.Flags;
 
@@ -35,6 +37,8 @@ import org.apache.james.events.InVMEventBus;
 import org.apache.james.events.MemoryEventDeadLetters;
 import org.apache.james.events.RetryBackoffConfiguration;
 import org.apache.james.events.delivery.InVmEventDelivery;
+import org.apache.james.jmap.JMAPConfiguration;
+import org.apache.james.jmap.api.projections.EmailQueryView;
 import org.apache.james.jmap.memory.projections.MemoryEmailQueryView;
 import org.apache.james.mailbox.MailboxSession;
 import org.apache.james.mailbox.MailboxSessionUtil;
@@ -61,6 +65,15 @@ public class PopulateEmailQueryViewListenerTest {
     private static final Username BOB = Username.of("bob");
     private static final MailboxPath BOB_INBOX_PATH = MailboxPath.inbox(BOB);
     private static final MailboxPath BOB_OTHER_BOX_PATH = MailboxPath.forUser(BOB, "otherBox");
+    private static final JMAPConfiguration FILTERING_ENABLED = JMAPConfiguration.builder()
+        .enable()
+        .enableEmailQueryView()
+        .enableEmailQueryViewFiltering()
+        .build();
+
+    static class UnfilteredListenerGroup extends Group {
+
+    }
 
     MailboxSession mailboxSession;
     StoreMailboxManager mailboxManager;
@@ -69,6 +82,8 @@ public class PopulateEmailQueryViewListenerTest {
     MessageManager otherBoxMessageManager;
     PopulateEmailQueryViewListener listener;
     MessageIdManager messageIdManager;
+    InMemoryIntegrationResources resources;
+    SessionProviderImpl sessionProvider;
     private MemoryEmailQueryView view;
     private MailboxId inboxId;
 
@@ -81,7 +96,7 @@ public class PopulateEmailQueryViewListenerTest {
             .firstBackoff(Duration.ofMillis(1))
             .jitterFactor(0.5)
             .build();
-        InMemoryIntegrationResources resources = InMemoryIntegrationResources.builder()
+        resources = InMemoryIntegrationResources.builder()
             .preProvisionnedFakeAuthenticator()
             .fakeAuthorizator()
             .eventBus(new InVMEventBus(new InVmEventDelivery(new RecordingMetricFactory()), backoffConfiguration, new MemoryEventDeadLetters()))
@@ -97,10 +112,10 @@ public class PopulateEmailQueryViewListenerTest {
 
         FakeAuthenticator authenticator = new FakeAuthenticator();
         authenticator.addUser(BOB, "12345");
-        SessionProviderImpl sessionProvider = new SessionProviderImpl(authenticator, FakeAuthorizator.defaultReject());
+        sessionProvider = new SessionProviderImpl(authenticator, FakeAuthorizator.defaultReject());
 
         view = new MemoryEmailQueryView();
-        listener = new PopulateEmailQueryViewListener(messageIdManager, view, sessionProvider);
+        listener = new PopulateEmailQueryViewListener(messageIdManager, view, sessionProvider, FILTERING_ENABLED);
 
         resources.getEventBus().register(listener);
 
@@ -202,6 +217,51 @@ public class PopulateEmailQueryViewListenerTest {
             .isEmpty();
     }
 
+    @Test
+    void appendingAMessageShouldRecordItsFlags() throws Exception {
+        inboxMessageManager.appendMessage(
+            MessageManager.AppendCommand.builder()
+                .withInternalDate(Date.from(ZonedDateTime.parse("2014-10-30T15:12:00Z").toInstant()))
+                .withFlags(new Flags(SEEN))
+                .build(emptyMessage(Date.from(ZonedDateTime.parse("2014-10-30T14:12:00Z").toInstant()))),
+            mailboxSession);
+
+        assertThat(view.listMailboxContentSortedByReceivedAt(inboxId, EmailQueryView.Filter.of(new Flags(), new Flags(SEEN), Optional.empty()), Limit.limit(12)).collectList().block())
+            .isEmpty();
+    }
+
+    @Test
+    void updatingFlagsShouldUpdateTheView() throws Exception {
+        ComposedMessageId composedId = inboxMessageManager.appendMessage(
+            MessageManager.AppendCommand.builder()
+                .withInternalDate(Date.from(ZonedDateTime.parse("2014-10-30T15:12:00Z").toInstant()))
+                .build(emptyMessage(Date.from(ZonedDateTime.parse("2014-10-30T14:12:00Z").toInstant()))),
+            mailboxSession).getId();
+
+        inboxMessageManager.setFlags(new Flags(SEEN), MessageManager.FlagsUpdateMode.REPLACE, MessageRange.all(), mailboxSession);
+
+        assertThat(view.listMailboxContentSortedByReceivedAt(inboxId, EmailQueryView.Filter.of(new Flags(SEEN), new Flags(), Optional.empty()), Limit.limit(12)).collectList().block())
+            .containsOnly(composedId.getMessageId());
+    }
+
+    @Test
+    void updatingFlagsShouldNotUpdateTheViewWhenFilteringIsDisabled() throws Exception {
+        MemoryEmailQueryView unfilteredView = new MemoryEmailQueryView();
+        resources.getEventBus().register(new PopulateEmailQueryViewListener(messageIdManager, unfilteredView, sessionProvider,
+            JMAPConfiguration.builder().enable().enableEmailQueryView().build()), new UnfilteredListenerGroup());
+
+        inboxMessageManager.appendMessage(
+            MessageManager.AppendCommand.builder()
+                .withInternalDate(Date.from(ZonedDateTime.parse("2014-10-30T15:12:00Z").toInstant()))
+                .build(emptyMessage(Date.from(ZonedDateTime.parse("2014-10-30T14:12:00Z").toInstant()))),
+            mailboxSession);
+
+        inboxMessageManager.setFlags(new Flags(SEEN), MessageManager.FlagsUpdateMode.REPLACE, MessageRange.all(), mailboxSession);
+
+        assertThat(unfilteredView.listMailboxContentSortedByReceivedAt(inboxId, EmailQueryView.Filter.of(new Flags(SEEN), new Flags(), Optional.empty()), Limit.limit(12)).collectList().block())
+            .isEmpty();
+    }
+
     private Message emptyMessage(Date sentAt) throws Exception {
         return Message.Builder.of()
             .setSubject("Empty message")
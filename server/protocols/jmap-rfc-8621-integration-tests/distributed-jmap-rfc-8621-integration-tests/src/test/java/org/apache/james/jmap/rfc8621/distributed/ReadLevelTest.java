@@ -26,6 +26,7 @@ import static org.apache.http.HttpStatus.SC_OK;
 import static org.apache.james.jmap.rfc8621.contract.Fixture.authScheme;
 import static org.apache.james.jmap.rfc8621.contract.Fixture.baseRequestSpecBuilder;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
 
 import java.nio.charset.StandardCharsets;
 
@@ -306,6 +307,79 @@ class ReadLevelTest {
             .hasSize(1);
     }
 
+    @Test
+    void gettingEmailProjectedHeadersShouldNotReadBlobs(GuiceJamesServer server) {
+        StatementRecorder statementRecorder = new StatementRecorder();
+        server.getProbe(TestingSessionProbe.class)
+            .getTestingSession()
+            .recordStatements(statementRecorder);
+
+        String request = "{" +
+            "  \"using\": [\"urn:ietf:params:jmap:core\", \"urn:ietf:params:jmap:mail\"]," +
+            "  \"methodCalls\": [[" +
+            "    \"Email/get\"," +
+            "    {" +
+            "      \"accountId\": \"29883977c13473ae7cb7678ef767cbfbaffc8a44a6e463d971d23a65c1dc4af6\"," +
+            "      \"ids\": [\"" + messageId.serialize() + "\"]," +
+            "      \"properties\": [\"id\", \"size\", \"mailboxIds\", \"mailboxIds\", \"blobId\", " +
+            "                       \"threadId\", \"receivedAt\",  \"messageId\", \"inReplyTo\", " +
+            "                       \"references\", \"to\", \"cc\", \"bcc\", \"from\", \"sender\", " +
+            "                       \"replyTo\", \"subject\", \"sentAt\", \"preview\", \"hasAttachment\"]" +
+            "    }," +
+            "    \"c1\"]]" +
+            "} ";
+        given()
+            .header(HttpHeaderNames.ACCEPT.toString(), Fixture.ACCEPT_RFC8621_VERSION_HEADER())
+            .body(request)
+            .post()
+            .then()
+            .statusCode(SC_OK)
+            .body("methodResponses[0][1].list[0].subject", startsWith("World domination"));
+
+        assertThat(statementRecorder.listExecutedStatements(
+            StatementRecorder.Selector.preparedStatementStartingWith("SELECT * FROM blobs")))
+            .hasSize(0);
+    }
+
+    @Test
+    void projectedHeadersMissesShouldPopulateTheProjection(GuiceJamesServer server) {
+        server.getProbe(JmapGuiceProbe.class).clearMessageFastViewProjection();
+
+        String request = "{" +
+            "  \"using\": [\"urn:ietf:params:jmap:core\", \"urn:ietf:params:jmap:mail\"]," +
+            "  \"methodCalls\": [[" +
+            "    \"Email/get\"," +
+            "    {" +
+            "      \"accountId\": \"29883977c13473ae7cb7678ef767cbfbaffc8a44a6e463d971d23a65c1dc4af6\"," +
+            "      \"ids\": [\"" + messageId.serialize() + "\"]," +
+            "      \"properties\": [\"id\", \"size\", \"mailboxIds\", \"mailboxIds\", \"blobId\", " +
+            "                       \"threadId\", \"receivedAt\",  \"messageId\", \"inReplyTo\", " +
+            "                       \"references\", \"to\", \"cc\", \"bcc\", \"from\", \"sender\", " +
+            "                       \"replyTo\", \"subject\", \"sentAt\", \"preview\", \"hasAttachment\"]" +
+            "    }," +
+            "    \"c1\"]]" +
+            "} ";
+        given()
+            .header(HttpHeaderNames.ACCEPT.toString(), Fixture.ACCEPT_RFC8621_VERSION_HEADER())
+            .body(request)
+            .post()
+            .then()
+            .statusCode(SC_OK);
+
+        StatementRecorder statementRecorder = new StatementRecorder();
+        server.getProbe(TestingSessionProbe.class)
+            .getTestingSession()
+            .recordStatements(statementRecorder);
+        with()
+            .header(HttpHeaderNames.ACCEPT.toString(), Fixture.ACCEPT_RFC8621_VERSION_HEADER())
+            .body(request)
+            .post();
+
+        assertThat(statementRecorder.listExecutedStatements(
+            StatementRecorder.Selector.preparedStatementStartingWith("SELECT * FROM blobs")))
+            .hasSize(0);
+    }
+
     @Test
     void gettingEmailBodyShouldReadBlobTwice(GuiceJamesServer server) {
         StatementRecorder statementRecorder = new StatementRecorder();
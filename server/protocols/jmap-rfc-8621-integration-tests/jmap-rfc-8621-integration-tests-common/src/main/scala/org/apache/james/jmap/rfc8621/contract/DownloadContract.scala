@@ -25,7 +25,7 @@ import java.nio.charset.StandardCharsets
 import io.netty.handler.codec.http.HttpHeaderNames.ACCEPT
 import io.restassured.RestAssured.{`given`, requestSpecification}
 import org.apache.commons.io.IOUtils
-import org.apache.http.HttpStatus.{SC_FORBIDDEN, SC_NOT_FOUND, SC_OK, SC_UNAUTHORIZED}
+import org.apache.http.HttpStatus.{SC_FORBIDDEN, SC_NOT_FOUND, SC_NOT_MODIFIED, SC_OK, SC_PARTIAL_CONTENT, SC_REQUESTED_RANGE_NOT_SATISFIABLE, SC_UNAUTHORIZED}
 import org.apache.james.GuiceJamesServer
 import org.apache.james.jmap.http.UserCredential
 import org.apache.james.jmap.rfc8621.contract.DownloadContract.accountId
@@ -533,4 +533,134 @@ trait DownloadContract {
       .body("type", equalTo("about:blank"))
       .body("detail", equalTo("The resource could not be found"))
   }
+
+  @Test
+  def downloadShouldReturnCacheValidators(server: GuiceJamesServer): Unit = {
+    val messageId: MessageId = appendMessage(server)
+
+    `given`
+      .basePath("")
+      .header(ACCEPT.toString, ACCEPT_RFC8621_VERSION_HEADER)
+    .when
+      .get(s"/download/$accountId/${messageId.serialize()}")
+    .`then`
+      .statusCode(SC_OK)
+      .header("ETag", "\"" + messageId.serialize() + "\"")
+      .header("Cache-Control", "private, max-age=31536000, immutable")
+      .header("Accept-Ranges", "bytes")
+  }
+
+  @Test
+  def downloadShouldReturnNotModifiedWhenETagMatches(server: GuiceJamesServer): Unit = {
+    val messageId: MessageId = appendMessage(server)
+
+    `given`
+      .basePath("")
+      .header(ACCEPT.toString, ACCEPT_RFC8621_VERSION_HEADER)
+      .header("If-None-Match", "\"" + messageId.serialize() + "\"")
+    .when
+      .get(s"/download/$accountId/${messageId.serialize()}")
+    .`then`
+      .statusCode(SC_NOT_MODIFIED)
+      .header("ETag", "\"" + messageId.serialize() + "\"")
+  }
+
+  @Test
+  def downloadShouldReturnContentWhenETagDoesNotMatch(server: GuiceJamesServer): Unit = {
+    val messageId: MessageId = appendMessage(server)
+
+    `given`
+      .basePath("")
+      .header(ACCEPT.toString, ACCEPT_RFC8621_VERSION_HEADER)
+      .header("If-None-Match", "\"other\"")
+    .when
+      .get(s"/download/$accountId/${messageId.serialize()}")
+    .`then`
+      .statusCode(SC_OK)
+  }
+
+  @Test
+  def downloadShouldReturnRequestedRange(server: GuiceJamesServer): Unit = {
+    val messageId: MessageId = appendMessage(server)
+    val expectedContent: Array[Byte] = ClassLoaderUtils.getSystemResourceAsByteArray("eml/multipart_simple.eml")
+
+    val response = `given`
+      .basePath("")
+      .header(ACCEPT.toString, ACCEPT_RFC8621_VERSION_HEADER)
+      .header("Range", "bytes=10-19")
+    .when
+      .get(s"/download/$accountId/${messageId.serialize()}")
+    .`then`
+      .statusCode(SC_PARTIAL_CONTENT)
+      .header("Content-Range", s"bytes 10-19/${expectedContent.length}")
+      .header("Content-Length", "10")
+      .contentType("message/rfc822")
+      .extract
+      .body
+      .asByteArray()
+
+    assertThat(response).isEqualTo(expectedContent.slice(10, 20))
+  }
+
+  @Test
+  def downloadShouldReturnLastBytesForSuffixRanges(server: GuiceJamesServer): Unit = {
+    val messageId: MessageId = appendMessage(server)
+    val expectedContent: Array[Byte] = ClassLoaderUtils.getSystemResourceAsByteArray("eml/multipart_simple.eml")
+
+    val response = `given`
+      .basePath("")
+      .header(ACCEPT.toString, ACCEPT_RFC8621_VERSION_HEADER)
+      .header("Range", "bytes=-20")
+    .when
+      .get(s"/download/$accountId/${messageId.serialize()}")
+    .`then`
+      .statusCode(SC_PARTIAL_CONTENT)
+      .header("Content-Range", s"bytes ${expectedContent.length - 20}-${expectedContent.length - 1}/${expectedContent.length}")
+      .extract
+      .body
+      .asByteArray()
+
+    assertThat(response).isEqualTo(expectedContent.takeRight(20))
+  }
+
+  @Test
+  def downloadShouldRejectUnsatisfiableRanges(server: GuiceJamesServer): Unit = {
+    val messageId: MessageId = appendMessage(server)
+    val expectedContent: Array[Byte] = ClassLoaderUtils.getSystemResourceAsByteArray("eml/multipart_simple.eml")
+
+    `given`
+      .basePath("")
+      .header(ACCEPT.toString, ACCEPT_RFC8621_VERSION_HEADER)
+      .header("Range", s"bytes=${expectedContent.length}-")
+    .when
+      .get(s"/download/$accountId/${messageId.serialize()}")
+    .`then`
+      .statusCode(SC_REQUESTED_RANGE_NOT_SATISFIABLE)
+      .header("Content-Range", s"bytes */${expectedContent.length}")
+      .body("status", equalTo(416))
+  }
+
+  @Test
+  def downloadShouldIgnoreRangeWhenIfRangeDoesNotMatch(server: GuiceJamesServer): Unit = {
+    val messageId: MessageId = appendMessage(server)
+
+    `given`
+      .basePath("")
+      .header(ACCEPT.toString, ACCEPT_RFC8621_VERSION_HEADER)
+      .header("Range", "bytes=10-19")
+      .header("If-Range", "\"other\"")
+    .when
+      .get(s"/download/$accountId/${messageId.serialize()}")
+    .`then`
+      .statusCode(SC_OK)
+  }
+
+  private def appendMessage(server: GuiceJamesServer): MessageId = {
+    val path = MailboxPath.inbox(BOB)
+    server.getProbe(classOf[MailboxProbeImpl]).createMailbox(path)
+    server.getProbe(classOf[MailboxProbeImpl])
+      .appendMessage(BOB.asString, path, AppendCommand.from(
+        ClassLoaderUtils.getSystemResourceAsSharedStream("eml/multipart_simple.eml")))
+      .getMessageId
+  }
 }
@@ -1399,6 +1399,38 @@ trait MailboxGetMethodContract {
       .body(s"$ARGUMENTS.notFound", contains(randomId))
   }
 
+  @Test
+  def getMailboxesByManyIdsShouldReturnBothFoundAndNotFound(server: GuiceJamesServer): Unit = {
+    val mailboxIds: Seq[String] = (1 to 12).map(i => server.getProbe(classOf[MailboxProbeImpl])
+      .createMailbox(MailboxPath.forUser(BOB, s"custom$i"))
+      .serialize)
+    val randomId = randomMailboxId.serialize()
+    val ids: String = (mailboxIds :+ randomId).map(id => s""""$id"""").mkString(", ")
+
+    `given`
+      .header(ACCEPT.toString, ACCEPT_RFC8621_VERSION_HEADER)
+      .body(s"""{
+               |  "using": [
+               |    "urn:ietf:params:jmap:core",
+               |    "urn:ietf:params:jmap:mail"],
+               |  "methodCalls": [[
+               |     "Mailbox/get",
+               |     {
+               |       "accountId": "29883977c13473ae7cb7678ef767cbfbaffc8a44a6e463d971d23a65c1dc4af6",
+               |       "ids": [$ids]
+               |     },
+               |     "c1"]]
+               |}""".stripMargin)
+    .when
+      .post
+    .`then`
+      .statusCode(SC_OK)
+      .body(s"$ARGUMENTS.list", hasSize(12))
+      .body(s"$ARGUMENTS.list.id", containsInAnyOrder(mailboxIds: _*))
+      .body(s"$ARGUMENTS.notFound", hasSize(1))
+      .body(s"$ARGUMENTS.notFound", contains(randomId))
+  }
+
   @Test
   def getMailboxesByIdsShouldReturnNotFoundWhenMailboxDoesNotExist(): Unit = {
     val randomId = randomMailboxId.serialize()
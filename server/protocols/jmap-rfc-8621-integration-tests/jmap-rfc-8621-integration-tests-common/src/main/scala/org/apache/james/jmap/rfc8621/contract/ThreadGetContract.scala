@@ -215,6 +215,7 @@ trait ThreadGetContract {
       .asString
 
     assertThatJson(response)
+      .whenIgnoringPaths("methodResponses[0][1].state")
       .isEqualTo(
         s"""{
            |	"sessionState": "2c9f1b12-b35a-43e6-9af2-0106fb53a943",
@@ -356,6 +357,7 @@ trait ThreadGetContract {
       .asString
 
     assertThatJson(response)
+      .whenIgnoringPaths("methodResponses[0][1].state")
       .isEqualTo(
         s"""{
            |	"sessionState": "2c9f1b12-b35a-43e6-9af2-0106fb53a943",
@@ -440,6 +442,7 @@ trait ThreadGetContract {
       .asString
 
     assertThatJson(response)
+      .whenIgnoringPaths("methodResponses[0][1].state")
       .isEqualTo(
         s"""{
            |	"sessionState": "2c9f1b12-b35a-43e6-9af2-0106fb53a943",
@@ -521,6 +524,7 @@ trait ThreadGetContract {
       .asString
 
     assertThatJson(response)
+      .whenIgnoringPaths("methodResponses[0][1].state")
       .isEqualTo(
         s"""{
            |	"sessionState": "2c9f1b12-b35a-43e6-9af2-0106fb53a943",
@@ -0,0 +1,204 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.jmap.change
+
+import java.util.concurrent.{ConcurrentHashMap, CopyOnWriteArraySet}
+
+import javax.inject.{Inject, Named}
+import org.apache.james.core.Username
+import org.apache.james.events.EventListener.ReactiveEventListener
+import org.apache.james.events.{Event, EventBus, Registration}
+import org.apache.james.jmap.api.model.TypeName
+import org.apache.james.jmap.core.{OutboundMessage, PingMessage, StateChange}
+import org.apache.james.jmap.json.PushSerializer
+import org.apache.james.jmap.{InjectionKeys => JMAPInjectionKeys}
+import org.apache.james.metrics.api.{Metric, MetricFactory}
+import org.reactivestreams.Publisher
+import play.api.libs.json.Json
+import reactor.core.publisher.Sinks
+import reactor.core.publisher.Sinks.EmitResult
+import reactor.core.scala.publisher.SMono
+import reactor.core.scheduler.Schedulers
+import reactor.util.concurrent.Queues
+
+import scala.annotation.tailrec
+import scala.jdk.CollectionConverters._
+
+/**
+ * A message ready to be written on a push connection, together with the message it was serialized from.
+ */
+case class PushFrame(message: OutboundMessage, payload: String)
+
+sealed trait PushFormat {
+  def serialize(pushSerializer: PushSerializer, message: OutboundMessage): String
+}
+
+case object WebSocketPushFormat extends PushFormat {
+  override def serialize(pushSerializer: PushSerializer, message: OutboundMessage): String =
+    Json.stringify(pushSerializer.serialize(message))
+}
+
+case object EventSourcePushFormat extends PushFormat {
+  override def serialize(pushSerializer: PushSerializer, message: OutboundMessage): String = {
+    val event: String = message match {
+      case _: PingMessage => "ping"
+      case _: StateChange => "state"
+    }
+    s"event: $event\ndata: ${Json.stringify(pushSerializer.serializeSSE(message))}\n\n"
+  }
+}
+
+/**
+ * Signals a push connection that could not keep up with state changes. The connection is closed so that the client
+ * reconnects and resynchronizes.
+ */
+class PushOverflowException extends RuntimeException("Push connection could not keep up with state changes")
+
+object PushClient {
+  def sink(): Sinks.Many[PushFrame] = Sinks.many().unicast().onBackpressureBuffer(Queues.get[PushFrame](PushHub.BUFFER_SIZE).get())
+}
+
+/**
+ * A push connection. Connections are compared by identity so that re-enabling push on a connection replaces its
+ * previous subscription.
+ */
+class PushClient(val types: Set[TypeName], val format: PushFormat, val sink: Sinks.Many[PushFrame]) {
+  @tailrec
+  final def tryEmit(frame: PushFrame): EmitResult = sink.tryEmitNext(frame) match {
+    case EmitResult.FAIL_NON_SERIALIZED => tryEmit(frame)
+    case result => result
+  }
+
+  @tailrec
+  final def close(): Unit = sink.tryEmitError(new PushOverflowException) match {
+    case EmitResult.FAIL_NON_SERIALIZED => close()
+    case _ => ()
+  }
+}
+
+object PushHub {
+  val BUFFER_SIZE: Int = 128
+  val ACTIVE_CONNECTIONS_METRIC_NAME: String = "jmap-push-active-connections"
+  val OVERFLOWED_CONNECTIONS_METRIC_NAME: String = "jmap-push-overflowed-connections"
+}
+
+/**
+ * Holds a single event bus registration per account having push connections, and fans state changes out to
+ * all of them.
+ *
+ * A state change is filtered and serialized once per distinct (types, format) pair of the account connections,
+ * and the resulting frame is shared by all matching connections.
+ *
+ * Connections do not buffer more than [[PushHub.BUFFER_SIZE]] frames: a slow consumer overflowing its buffer is
+ * closed with a [[PushOverflowException]] rather than silently losing state changes, so that the client reconnects
+ * and resynchronizes.
+ */
+class PushHub @Inject()(@Named(JMAPInjectionKeys.JMAP) eventBus: EventBus,
+                        pushSerializer: PushSerializer,
+                        metricFactory: MetricFactory) {
+  private val accounts: ConcurrentHashMap[Username, AccountPushListener] = new ConcurrentHashMap()
+  private val activeConnections: Metric = metricFactory.generate(PushHub.ACTIVE_CONNECTIONS_METRIC_NAME)
+  private val overflowedConnections: Metric = metricFactory.generate(PushHub.OVERFLOWED_CONNECTIONS_METRIC_NAME)
+
+  def subscribe(username: Username, client: PushClient): SMono[Registration] = {
+    val listener: AccountPushListener = accounts.compute(username, (_, existing) => {
+      val listener = Option(existing).getOrElse(new AccountPushListener(username))
+      if (listener.add(client)) {
+        activeConnections.increment()
+      }
+      listener
+    })
+
+    listener.registration
+      .`then`(SMono.just[Registration](() => SMono.fromCallable(() => unsubscribe(username, client)).asJava().`then`()))
+      .doOnError(_ => evict(username, listener, client))
+  }
+
+  // A failed registration is cached by its listener: the listener is evicted so that the next subscription retries
+  private def evict(username: Username, listener: AccountPushListener, client: PushClient): Unit = {
+    accounts.computeIfPresent(username, (_, current) => if (current eq listener) null else current)
+    if (listener.remove(client)) {
+      activeConnections.decrement()
+    }
+  }
+
+  private def unsubscribe(username: Username, client: PushClient): Unit =
+    accounts.computeIfPresent(username, (_, listener) => {
+      if (listener.remove(client)) {
+        activeConnections.decrement()
+      }
+      if (listener.isEmpty) {
+        listener.unregister()
+        null
+      } else {
+        listener
+      }
+    })
+
+  private class AccountPushListener(username: Username) extends ReactiveEventListener {
+    private val clients: CopyOnWriteArraySet[PushClient] = new CopyOnWriteArraySet()
+
+    val registration: SMono[Registration] = SMono(eventBus.register(this, AccountIdRegistrationKey.of(username)))
+      .cache()
+
+    def add(client: PushClient): Boolean = clients.add(client)
+
+    def remove(client: PushClient): Boolean = clients.remove(client)
+
+    def isEmpty: Boolean = clients.isEmpty
+
+    def unregister(): Unit =
+      registration.flatMap(registration => SMono(registration.unregister()))
+        .subscribeOn(Schedulers.boundedElastic())
+        .subscribe()
+
+    override def reactiveEvent(event: Event): Publisher[Void] =
+      event match {
+        case stateChangeEvent: StateChangeEvent =>
+          SMono.fromCallable(() => fanOut(stateChangeEvent.asStateChange))
+            .asJava().`then`()
+        case _ => SMono.empty
+      }
+
+    private def fanOut(stateChange: StateChange): Unit =
+      clients.asScala
+        .groupBy(client => (client.types, client.format))
+        .foreach {
+          case ((types, format), matchingClients) => stateChange.filter(types)
+            .map(filtered => PushFrame(filtered, format.serialize(pushSerializer, filtered)))
+            .foreach(frame => matchingClients.foreach(emit(frame)))
+        }
+
+    private def emit(frame: PushFrame)(client: PushClient): Unit =
+      client.tryEmit(frame) match {
+        case EmitResult.OK => ()
+        // A full buffer is reported as FAIL_ZERO_SUBSCRIBER until the connection subscribed to it
+        case EmitResult.FAIL_OVERFLOW | EmitResult.FAIL_ZERO_SUBSCRIBER =>
+          overflowedConnections.increment()
+          client.close()
+        case _ => ()
+      }
+
+    override def isHandling(event: Event): Boolean = event match {
+      case _: StateChangeEvent => true
+      case _ => false
+    }
+  }
+}
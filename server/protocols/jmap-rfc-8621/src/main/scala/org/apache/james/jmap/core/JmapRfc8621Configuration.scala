@@ -20,12 +20,13 @@
 package org.apache.james.jmap.core
 
 import java.net.URI
+import java.time.Duration
 import java.util.Optional
 
 import org.apache.commons.configuration2.Configuration
-import org.apache.james.jmap.core.JmapRfc8621Configuration.UPLOAD_LIMIT_DEFAULT
+import org.apache.james.jmap.core.JmapRfc8621Configuration.{EMAIL_QUERY_CACHE_MAX_SIZE_DEFAULT, EMAIL_QUERY_CACHE_TTL_DEFAULT, UPLOAD_LIMIT_DEFAULT}
 import org.apache.james.jmap.pushsubscription.PushClientConfiguration
-import org.apache.james.util.Size
+import org.apache.james.util.{DurationParser, Size}
 
 import scala.jdk.OptionConverters._
 
@@ -38,6 +39,9 @@ object JmapConfigProperties {
   val WEB_PUSH_PREVENT_SERVER_SIDE_REQUEST_FORGERY: String = "webpush.prevent.server.side.request.forgery"
   val DYNAMIC_JMAP_PREFIX_RESOLUTION_ENABLED_PROPERTY: String = "dynamic.jmap.prefix.resolution.enabled"
   val AUTHENTICATION_STRATEGIES: String = "authentication.strategy.rfc8621"
+  val EMAIL_QUERY_CACHE_ENABLED_PROPERTY: String = "email.query.cache.enabled"
+  val EMAIL_QUERY_CACHE_TTL_PROPERTY: String = "email.query.cache.ttl"
+  val EMAIL_QUERY_CACHE_MAX_SIZE_PROPERTY: String = "email.query.cache.max.size"
 }
 
 object JmapRfc8621Configuration {
@@ -45,6 +49,8 @@ object JmapRfc8621Configuration {
   val URL_PREFIX_DEFAULT: String = "http://localhost"
   val WEBSOCKET_URL_PREFIX_DEFAULT: String = "ws://localhost"
   val UPLOAD_LIMIT_DEFAULT: MaxSizeUpload = MaxSizeUpload.of(Size.of(30L, Size.Unit.M)).get
+  val EMAIL_QUERY_CACHE_TTL_DEFAULT: Duration = Duration.ofMinutes(1)
+  val EMAIL_QUERY_CACHE_MAX_SIZE_DEFAULT: Long = 10000L
 
   val LOCALHOST_CONFIGURATION: JmapRfc8621Configuration = JmapRfc8621Configuration(
     urlPrefixString = URL_PREFIX_DEFAULT,
@@ -63,7 +69,12 @@ object JmapRfc8621Configuration {
       maxTimeoutSeconds = Optional.ofNullable(configuration.getInteger(WEB_PUSH_MAX_TIMEOUT_SECONDS_PROPERTY, null)).map(Integer2int).toScala,
       maxConnections = Optional.ofNullable(configuration.getInteger(WEB_PUSH_MAX_CONNECTIONS_PROPERTY, null)).map(Integer2int).toScala,
       preventServerSideRequestForgery = Optional.ofNullable(configuration.getBoolean(WEB_PUSH_PREVENT_SERVER_SIDE_REQUEST_FORGERY, null)).orElse(true),
-      authenticationStrategies = Optional.ofNullable(configuration.getList(classOf[String], AUTHENTICATION_STRATEGIES, null)).toScala)
+      authenticationStrategies = Optional.ofNullable(configuration.getList(classOf[String], AUTHENTICATION_STRATEGIES, null)).toScala,
+      emailQueryCacheEnabled = configuration.getBoolean(EMAIL_QUERY_CACHE_ENABLED_PROPERTY, false),
+      emailQueryCacheTtl = Option(configuration.getString(EMAIL_QUERY_CACHE_TTL_PROPERTY, null))
+        .map(DurationParser.parse)
+        .getOrElse(EMAIL_QUERY_CACHE_TTL_DEFAULT),
+      emailQueryCacheMaxSize = configuration.getLong(EMAIL_QUERY_CACHE_MAX_SIZE_PROPERTY, EMAIL_QUERY_CACHE_MAX_SIZE_DEFAULT))
 }
 
 case class JmapRfc8621Configuration(urlPrefixString: String,
@@ -73,7 +84,10 @@ case class JmapRfc8621Configuration(urlPrefixString: String,
                                     maxTimeoutSeconds: Option[Int] = None,
                                     maxConnections: Option[Int] = None,
                                     authenticationStrategies: Option[java.util.List[String]] = None,
-                                    preventServerSideRequestForgery: Boolean = true) {
+                                    preventServerSideRequestForgery: Boolean = true,
+                                    emailQueryCacheEnabled: Boolean = false,
+                                    emailQueryCacheTtl: Duration = EMAIL_QUERY_CACHE_TTL_DEFAULT,
+                                    emailQueryCacheMaxSize: Long = EMAIL_QUERY_CACHE_MAX_SIZE_DEFAULT) {
 
   val webPushConfiguration: PushClientConfiguration = PushClientConfiguration(
     maxTimeoutSeconds = maxTimeoutSeconds,
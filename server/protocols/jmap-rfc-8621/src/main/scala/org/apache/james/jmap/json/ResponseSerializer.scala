@@ -21,6 +21,7 @@ package org.apache.james.jmap.json
 
 import java.io.InputStream
 import java.net.URL
+import java.nio.charset.StandardCharsets
 
 import eu.timepit.refined.refineV
 import io.netty.handler.codec.http.HttpResponseStatus
@@ -155,6 +156,35 @@ object ResponseSerializer {
 
   def serialize(responseObject: ResponseObject): JsObject = Json.toJsObject(responseObject)
 
+  /**
+   * Lazily serializes the response object one invocation at a time, so that large responses can be streamed
+   * without being rendered as a whole. The concatenated chunks are equivalent to `serialize(responseObject)`.
+   */
+  def serializeChunks(responseObject: ResponseObject): Iterator[Array[Byte]] =
+    Iterator.single(serializeChunksPrefix(responseObject.sessionState))
+      .concat(responseObject.methodResponses
+        .iterator
+        .zipWithIndex
+        .map { case (invocation, index) => serializeChunk(invocation, index) })
+      .concat(Iterator.single(serializeChunksSuffix()))
+
+  def serializeChunksPrefix(sessionState: UuidState): Array[Byte] =
+    s"""{"sessionState":${Json.stringify(Json.toJson(sessionState))},"methodResponses":[""".getBytes(StandardCharsets.UTF_8)
+
+  /**
+   * @param index position of the invocation within the method responses, all but the first one being comma prefixed
+   */
+  def serializeChunk(invocation: Invocation, index: Long): Array[Byte] = {
+    val serialized: String = Json.stringify(Json.toJson(invocation))
+    if (index == 0) {
+      serialized.getBytes(StandardCharsets.UTF_8)
+    } else {
+      ("," + serialized).getBytes(StandardCharsets.UTF_8)
+    }
+  }
+
+  def serializeChunksSuffix(): Array[Byte] = "]}".getBytes(StandardCharsets.UTF_8)
+
   def serialize(problemDetails: ProblemDetails): JsObject = Json.toJsObject(problemDetails)
 
   def serialize(errors: JsError): JsValue = Json.toJson(errors)
@@ -19,7 +19,8 @@
 
 package org.apache.james.jmap.mail
 
-import java.nio.charset.StandardCharsets.US_ASCII
+import java.io.ByteArrayInputStream
+import java.nio.charset.StandardCharsets.{US_ASCII, UTF_8}
 import java.time.ZoneId
 import java.util.Date
 
@@ -30,7 +31,7 @@ import eu.timepit.refined.types.string.NonEmptyString
 import javax.inject.Inject
 import org.apache.james.jmap.api.model.Size.{Size, sanitizeSize}
 import org.apache.james.jmap.api.model.{EmailAddress, Preview}
-import org.apache.james.jmap.api.projections.{MessageFastViewPrecomputedProperties, MessageFastViewProjection}
+import org.apache.james.jmap.api.projections.{MessageFastViewPrecomputedProperties, MessageFastViewProjectedHeaders, MessageFastViewProjection}
 import org.apache.james.jmap.core.Id.{Id, IdConstraint}
 import org.apache.james.jmap.core.{Properties, UTCDate}
 import org.apache.james.jmap.mail.BracketHeader.sanitize
@@ -47,6 +48,7 @@ import org.apache.james.mime4j.field.AddressListFieldLenientImpl
 import org.apache.james.mime4j.message.DefaultMessageBuilder
 import org.apache.james.mime4j.stream.{Field, MimeConfig, RawFieldParser}
 import org.apache.james.mime4j.util.MimeUtil
+import org.apache.james.util.ReactorUtils
 import org.apache.james.util.html.HtmlTextExtractor
 import org.slf4j.{Logger, LoggerFactory}
 import reactor.core.scala.publisher.{SFlux, SMono}
@@ -132,6 +134,17 @@ object ReadLevel {
   }
 }
 
+object HeaderProjectionEligibility {
+  private val metadataProperty: Set[NonEmptyString] = Set("id", "size", "mailboxIds", "blobId", "threadId",
+    "receivedAt", "keywords")
+  private val projectedProperty: Set[NonEmptyString] = Set("preview", "hasAttachment", "messageId", "inReplyTo",
+    "references", "sender", "from", "to", "cc", "bcc", "replyTo", "subject", "sentAt")
+
+  def isEligible(properties: Properties): Boolean =
+    properties.value.forall(property => metadataProperty.contains(property) || projectedProperty.contains(property)) &&
+      properties.value.exists(projectedProperty.contains)
+}
+
 sealed trait ReadLevel
 case object MetadataReadLevel extends ReadLevel
 case object HeaderReadLevel extends ReadLevel
@@ -360,8 +373,16 @@ case class EmailFastView(metadata: EmailMetadata,
 class EmailViewReaderFactory @Inject() (metadataReader: EmailMetadataViewReader,
                                         headerReader: EmailHeaderViewReader,
                                         fastViewReader: EmailFastViewReader,
+                                        headerProjectionReader: EmailHeaderProjectionReader,
                                         fullReader: EmailFullViewReader) {
-  def selectReader(request: EmailGetRequest): EmailViewReader[EmailView] = {
+  def selectReader(request: EmailGetRequest): EmailViewReader[EmailView] =
+    if (HeaderProjectionEligibility.isEligible(request.properties.getOrElse(Email.defaultProperties))) {
+      headerProjectionReader
+    } else {
+      selectByReadLevel(request)
+    }
+
+  private def selectByReadLevel(request: EmailGetRequest): EmailViewReader[EmailView] = {
     val readLevel: ReadLevel = request.properties
       .getOrElse(Email.defaultProperties)
       .value
@@ -667,3 +688,104 @@ private class EmailFastViewReader @Inject()(messageIdManager: MessageIdManager,
     }
   }
 }
+
+object EmailHeaderProjectionReader {
+  val logger: Logger = LoggerFactory.getLogger(classOf[EmailHeaderProjectionReader])
+}
+
+private class EmailHeaderProjectionReader @Inject()(messageIdManager: MessageIdManager,
+                                                    messageFastViewProjection: MessageFastViewProjection,
+                                                    fastViewReader: EmailFastViewReader,
+                                                    zoneIdProvider: ZoneIdProvider) extends EmailViewReader[EmailView] {
+  override def read[T >: EmailView](ids: Seq[MessageId], request: EmailGetRequest, mailboxSession: MailboxSession): SFlux[T] =
+    SMono.zip(array => (array(0).asInstanceOf[java.util.Map[MessageId, MessageFastViewPrecomputedProperties]].asScala.toMap,
+        array(1).asInstanceOf[java.util.Map[MessageId, String]].asScala.toMap),
+      SMono.fromPublisher(messageFastViewProjection.retrieve(ids.asJava)),
+      SMono.fromPublisher(messageFastViewProjection.retrieveHeaders(ids.asJava)))
+      .flatMapMany {
+        case (fastViews, headers) =>
+          val (availables, unavailables) = ids.partition(id => fastViews.contains(id) && headers.contains(id))
+
+          SFlux.merge(Seq(
+            toHeaderViews(availables.map(id => (id, (fastViews(id), headers(id)))).toMap, mailboxSession),
+            fastViewReader.read[EmailView](unavailables, request, mailboxSession)
+              .flatMap(storeOnCacheMisses, ReactorUtils.DEFAULT_CONCURRENCY)))
+      }
+
+  private def storeOnCacheMisses(emailView: EmailView): SMono[EmailView] = emailView match {
+    case fastView: EmailFastView => storeHeaders(fastView.metadata.id, fastView.header).`then`(SMono.just(emailView))
+    case fullView: EmailFullView => storeHeaders(fullView.metadata.id, fullView.header).`then`(SMono.just(emailView))
+    case _ => SMono.just(emailView)
+  }
+
+  private def storeHeaders(id: MessageId, header: EmailHeaders): SMono[Unit] = {
+    val headers: String = header.headers
+      .filter(emailHeader => MessageFastViewProjectedHeaders.isProjected(emailHeader.name.value))
+      .flatMap(emailHeader => emailHeader.value match {
+        case RawHeaderValue(value) => Some(s"${emailHeader.name.value}:$value${MessageFastViewProjectedHeaders.FIELD_SEPARATOR}")
+        case _ => None
+      })
+      .mkString
+
+    SMono.fromPublisher(messageFastViewProjection.storeHeaders(id, headers))
+      .onErrorResume(e => {
+        EmailHeaderProjectionReader.logger.error(s"Cannot store the projected headers to MessageFastViewProjection for $id", e)
+        SMono.empty
+      })
+      .`then`()
+  }
+
+  private def toHeaderViews(projections: Map[MessageId, (MessageFastViewPrecomputedProperties, String)], mailboxSession: MailboxSession): SFlux[EmailView] =
+    if (projections.isEmpty) {
+      SFlux.empty
+    } else {
+      SFlux.fromPublisher(messageIdManager.getMessagesReactive(projections.keys.toList.asJava, MINIMAL, mailboxSession))
+        .collectSeq()
+        .flatMapIterable(messages => messages.groupBy(_.getMessageId).toSet)
+        .map(message => toEmail(message, projections(message._1)))
+        .handle[EmailView]((aTry, sink) => aTry match {
+          case Success(value) => sink.next(value)
+          case Failure(e) => sink.error(e)
+        })
+    }
+
+  private def toEmail(message: (MessageId, Seq[MessageResult]), projection: (MessageFastViewPrecomputedProperties, String)): Try[EmailView] = {
+    val messageId: MessageId = message._1
+    val mailboxIds: MailboxIds = MailboxIds(message._2
+      .map(_.getMailboxId)
+      .toList)
+    val threadId: ThreadId = ThreadId(message._2.head.getThreadId.serialize())
+
+    for {
+      firstMessage <- message._2
+        .headOption
+        .map(Success(_))
+        .getOrElse(Failure(new IllegalArgumentException("No message supplied")))
+      mime4JMessage <- parseHeaders(projection._2)
+      blobId <- BlobId.of(messageId)
+      keywords <- LENIENT_KEYWORDS_FACTORY.fromFlags(firstMessage.getFlags)
+    } yield {
+      EmailFastView(
+        metadata = EmailMetadata(
+          id = messageId,
+          blobId = blobId,
+          threadId = threadId,
+          mailboxIds = mailboxIds,
+          receivedAt = UTCDate.from(firstMessage.getInternalDate, zoneIdProvider.get()),
+          size = sanitizeSize(firstMessage.getSize),
+          keywords = keywords),
+        bodyMetadata = EmailBodyMetadata(
+          hasAttachment = HasAttachment(projection._1.hasAttachment),
+          preview = projection._1.getPreview),
+        header = EmailHeaders.from(zoneIdProvider.get())(mime4JMessage),
+        specificHeaders = Map())
+    }
+  }
+
+  private def parseHeaders(headers: String): Try[Message] = Try {
+    val defaultMessageBuilder = new DefaultMessageBuilder
+    defaultMessageBuilder.setMimeEntityConfig(MimeConfig.PERMISSIVE)
+    defaultMessageBuilder.setDecodeMonitor(DecodeMonitor.SILENT)
+    defaultMessageBuilder.parseMessage(new ByteArrayInputStream((headers + MessageFastViewProjectedHeaders.FIELD_SEPARATOR).getBytes(UTF_8)))
+  }
+}
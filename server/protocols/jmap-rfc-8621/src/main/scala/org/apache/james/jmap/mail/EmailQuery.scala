@@ -41,6 +41,8 @@ sealed trait FilterQuery {
 
   def inMailboxAndAfterFilterOnly: Boolean
 
+  def inMailboxAndKeywordsFilterOnly: Boolean
+
   def countNestedMailboxFilter: Int
 
   def countMailboxFilter: Int
@@ -57,6 +59,8 @@ case class FilterOperator(operator: Operator,
 
   override val inMailboxAndAfterFilterOnly: Boolean = false
 
+  override val inMailboxAndKeywordsFilterOnly: Boolean = false
+
   override def countNestedMailboxFilter: Int = conditions.map(_.countNestedMailboxFilter).sum
 
   override def countMailboxFilter: Int = conditions.map {
@@ -130,6 +134,25 @@ case class FilterCondition(inMailbox: Option[MailboxId],
     after.nonEmpty &&
     noOtherFiltersThanInMailboxAndAfter
 
+  override val inMailboxAndKeywordsFilterOnly: Boolean = inMailbox.nonEmpty &&
+    (hasKeyword.nonEmpty || notKeyword.nonEmpty || hasAttachment.nonEmpty) &&
+    inMailboxOtherThan.isEmpty &&
+    before.isEmpty &&
+    after.isEmpty &&
+    minSize.isEmpty &&
+    maxSize.isEmpty &&
+    allInThreadHaveKeyword.isEmpty &&
+    someInThreadHaveKeyword.isEmpty &&
+    noneInThreadHaveKeyword.isEmpty &&
+    text.isEmpty &&
+    from.isEmpty &&
+    to.isEmpty &&
+    cc.isEmpty &&
+    bcc.isEmpty &&
+    subject.isEmpty &&
+    header.isEmpty &&
+    body.isEmpty
+
   override def countNestedMailboxFilter: Int = countMailboxFilter
 
   override def countMailboxFilter: Int = Booleans.countTrue(inMailbox.isDefined, inMailboxOtherThan.isDefined)
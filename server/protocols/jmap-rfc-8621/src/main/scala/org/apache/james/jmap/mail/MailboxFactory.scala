@@ -74,6 +74,13 @@ case class Subscriptions(subscribedNames: Set[String]) {
   def isSubscribed(metaData: MailboxMetaData): IsSubscribed = isSubscribed(metaData.getPath.getName)
 }
 
+object MailboxFactory {
+  def indexByPath(allMailboxesMetadata: Seq[MailboxMetaData]): Map[MailboxPath, MailboxMetaData] =
+    allMailboxesMetadata
+      .map(m => (m.getPath, m))
+      .toMap
+}
+
 class MailboxFactory @Inject() (mailboxManager: MailboxManager,
                                 namespaceFactory: NamespaceFactory) {
 
@@ -119,11 +126,22 @@ class MailboxFactory @Inject() (mailboxManager: MailboxManager,
              mailboxSession: MailboxSession,
              subscriptions: Subscriptions,
              allMailboxesMetadata: Seq[MailboxMetaData],
+             quotaLoader: QuotaLoader): SMono[Mailbox] =
+    create(mailboxMetaData = mailboxMetaData,
+      mailboxSession = mailboxSession,
+      subscriptions = subscriptions,
+      metadataByPath = MailboxFactory.indexByPath(allMailboxesMetadata),
+      quotaLoader = quotaLoader)
+
+  /**
+   * Builds the view of a mailbox without any further lookup but its quotas, given the metadata of all the mailboxes
+   * of the account indexed with [[MailboxFactory.indexByPath]].
+   */
+  def create(mailboxMetaData: MailboxMetaData,
+             mailboxSession: MailboxSession,
+             subscriptions: Subscriptions,
+             metadataByPath: Map[MailboxPath, MailboxMetaData],
              quotaLoader: QuotaLoader): SMono[Mailbox] = {
-    val allMetadataMap: Map[MailboxPath, MailboxMetaData] = allMailboxesMetadata
-      .map(m => (m.getPath, m))
-      .toMap
-
     val sanitizedCounters: MailboxCounters.Sanitized = mailboxMetaData.getCounters.sanitize()
 
     MailboxValidation.validate(mailboxMetaData.getPath, mailboxSession.getPathDelimiter, sanitizedCounters.getUnseen, sanitizedCounters.getUnseen, sanitizedCounters.getCount, sanitizedCounters.getCount) match {
@@ -137,7 +155,7 @@ class MailboxFactory @Inject() (mailboxManager: MailboxManager,
             val rights: Rights = getRights(mailboxMetaData.getResolvedAcls)
             val namespace: MailboxNamespace = getNamespace(mailboxMetaData.getPath, mailboxSession)
             val parentPath: Option[MailboxPath] = getParentPath(mailboxMetaData.getPath, mailboxSession)
-            val parentId: Option[MailboxId] = parentPath.flatMap(path => allMetadataMap.get(path)).map(_.getId)
+            val parentId: Option[MailboxId] = parentPath.flatMap(path => metadataByPath.get(path)).map(_.getId)
             val myRights: MailboxRights = getMyRights(mailboxMetaData.getPath, mailboxMetaData.getResolvedAcls, mailboxSession)
             val isSubscribed: IsSubscribed = subscriptions.isSubscribed(mailboxMetaData)
 
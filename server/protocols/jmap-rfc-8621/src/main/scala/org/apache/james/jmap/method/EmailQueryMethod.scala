@@ -23,6 +23,7 @@ import java.time.ZonedDateTime
 import cats.implicits._
 import eu.timepit.refined.auto._
 import javax.inject.Inject
+import javax.mail.Flags
 import javax.mail.Flags.Flag.DELETED
 import org.apache.james.jmap.JMAPConfiguration
 import org.apache.james.jmap.api.projections.EmailQueryView
@@ -45,13 +46,15 @@ import play.api.libs.json.{JsError, JsSuccess}
 import reactor.core.scala.publisher.{SFlux, SMono}
 
 import scala.jdk.CollectionConverters._
+import scala.jdk.OptionConverters._
 
 class EmailQueryMethod @Inject() (serializer: EmailQuerySerializer,
                                   mailboxManager: MailboxManager,
                                   val metricFactory: MetricFactory,
                                   val sessionSupplier: SessionSupplier,
                                   val configuration: JMAPConfiguration,
-                                  val emailQueryView: EmailQueryView) extends MethodRequiringAccountId[EmailQueryRequest] {
+                                  val emailQueryView: EmailQueryView,
+                                  val resultCache: EmailQueryResultCache) extends MethodRequiringAccountId[EmailQueryRequest] {
   override val methodName: MethodName = MethodName("Email/query")
   override val requiredCapabilities: Set[CapabilityIdentifier] = Set(JMAP_CORE, JMAP_MAIL)
 
@@ -69,7 +72,9 @@ class EmailQueryMethod @Inject() (serializer: EmailQuerySerializer,
         limit <- Limit.validateRequestLimit(request.limit)
         position <- Position.validateRequestPosition(request.position)
       } yield {
-        executeQuery(mailboxSession, request, searchQuery, position, limit)
+        resultCache.getOrCompute(EmailQueryResultCache.Key.from(mailboxSession, request, capabilities, position, limit), mailboxSession)(
+            executeQuery(mailboxSession, request, searchQuery, position, limit))
+          .map(ids => toResponse(request, position, limit, ids))
           .map(response => Invocation(
             methodName = methodName,
             arguments = Arguments(serializer.serialize(response)),
@@ -91,8 +96,8 @@ class EmailQueryMethod @Inject() (serializer: EmailQuerySerializer,
       case _ => Right(request)
     }
 
-  private def executeQuery(session: MailboxSession, request: EmailQueryRequest, searchQuery: MultimailboxesSearchQuery, position: Position, limit: Limit): SMono[EmailQueryResponse] = {
-    val ids: SMono[Seq[MessageId]] = request match {
+  private def executeQuery(session: MailboxSession, request: EmailQueryRequest, searchQuery: MultimailboxesSearchQuery, position: Position, limit: Limit): SMono[Seq[MessageId]] =
+    request match {
       case request: EmailQueryRequest if matchesInMailboxSortedBySentAt(request) =>
         queryViewForListingSortedBySentAt(session, position, limit, request)
       case request: EmailQueryRequest if matchesInMailboxAfterSortedBySentAt(request) =>
@@ -101,12 +106,11 @@ class EmailQueryMethod @Inject() (serializer: EmailQuerySerializer,
         queryViewForListingSortedByReceivedAt(session, position, limit, request)
       case request: EmailQueryRequest if matchesInMailboxAfterSortedByReceivedAt(request) =>
         queryViewForContentAfterSortedByReceivedAt(session, position, limit, request)
+      case request: EmailQueryRequest if matchesInMailboxAndKeywordsSortedByReceivedAt(request) =>
+        queryViewForFilteredListingSortedByReceivedAt(session, position, limit, request)
       case _ => executeQueryAgainstSearchIndex(session, searchQuery, position, limit)
     }
 
-    ids.map(ids => toResponse(request, position, limit, ids))
-  }
-
   private def queryViewForContentAfterSortedBySentAt(mailboxSession: MailboxSession, position: Position, limitToUse: Limit, request: EmailQueryRequest): SMono[Seq[MessageId]] = {
     val condition: FilterCondition = request.filter.get.asInstanceOf[FilterCondition]
     val mailboxId: MailboxId = condition.inMailbox.get
@@ -167,6 +171,25 @@ class EmailQueryMethod @Inject() (serializer: EmailQuerySerializer,
       })
   }
 
+  private def queryViewForFilteredListingSortedByReceivedAt(mailboxSession: MailboxSession, position: Position, limitToUse: Limit, request: EmailQueryRequest): SMono[Seq[MessageId]] = {
+    val condition: FilterCondition = request.filter.get.asInstanceOf[FilterCondition]
+    val mailboxId: MailboxId = condition.inMailbox.get
+    val filter: EmailQueryView.Filter = EmailQueryView.Filter.of(
+      condition.hasKeyword.map(_.asFlags).getOrElse(new Flags()),
+      condition.notKeyword.map(_.asFlags).getOrElse(new Flags()),
+      condition.hasAttachment.map(hasAttachment => Boolean.box(hasAttachment.value)).toJava)
+    SMono(mailboxManager.getMailboxReactive(mailboxId, mailboxSession))
+      .`then`(SFlux.fromPublisher(
+        emailQueryView.listMailboxContentSortedByReceivedAt(mailboxId, filter, JavaLimit.from(limitToUse.value + position.value)))
+        .drop(position.value)
+        .take(limitToUse.value)
+        .collectSeq())
+      .onErrorResume({
+        case _: MailboxNotFoundException => SMono.just[Seq[MessageId]](Seq())
+        case e => SMono.error[Seq[MessageId]](e)
+      })
+  }
+
   private def matchesInMailboxSortedBySentAt(request: EmailQueryRequest): Boolean =
     configuration.isEmailQueryViewEnabled &&
       request.filter.exists(_.inMailboxFilterOnly) &&
@@ -187,6 +210,11 @@ class EmailQueryMethod @Inject() (serializer: EmailQuerySerializer,
       request.filter.exists(_.inMailboxAndAfterFilterOnly) &&
       request.sort.contains(Set(Comparator.RECEIVED_AT_DESC))
 
+  private def matchesInMailboxAndKeywordsSortedByReceivedAt(request: EmailQueryRequest): Boolean =
+    configuration.isEmailQueryViewFilteringEnabled &&
+      request.filter.exists(_.inMailboxAndKeywordsFilterOnly) &&
+      request.sort.contains(Set(Comparator.RECEIVED_AT_DESC))
+
   private def toResponse(request: EmailQueryRequest, position: Position, limitToUse: Limit, ids: Seq[MessageId]): EmailQueryResponse =
     EmailQueryResponse(accountId = request.accountId,
       queryState = QueryState.forIds(ids),
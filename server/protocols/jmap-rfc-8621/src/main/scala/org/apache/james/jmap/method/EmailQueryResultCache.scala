@@ -0,0 +1,101 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.jmap.method
+
+import com.google.common.cache.{Cache, CacheBuilder}
+import javax.inject.Inject
+import org.apache.james.core.Username
+import org.apache.james.jmap.api.change.{EmailChangeRepository, MailboxChangeRepository, State}
+import org.apache.james.jmap.api.model.AccountId
+import org.apache.james.jmap.core.CapabilityIdentifier.CapabilityIdentifier
+import org.apache.james.jmap.core.JmapRfc8621Configuration
+import org.apache.james.jmap.core.Limit.Limit
+import org.apache.james.jmap.core.Position.Position
+import org.apache.james.jmap.mail.{Comparator, EmailQueryRequest, FilterQuery}
+import org.apache.james.mailbox.MailboxSession
+import org.apache.james.mailbox.model.MessageId
+import org.apache.james.metrics.api.{Metric, MetricFactory}
+import reactor.core.scala.publisher.SMono
+
+object EmailQueryResultCache {
+  val HIT_COUNT_METRIC_NAME: String = "EmailQueryResultCache:hitCount"
+  val MISS_COUNT_METRIC_NAME: String = "EmailQueryResultCache:missCount"
+
+  object Key {
+    def from(session: MailboxSession, request: EmailQueryRequest, capabilities: Set[CapabilityIdentifier], position: Position, limit: Limit): Key =
+      Key(session.getUser, request.filter, request.sort, capabilities, position.value, limit.value)
+  }
+
+  case class Key(username: Username,
+                 filter: Option[FilterQuery],
+                 sort: Option[Set[Comparator]],
+                 capabilities: Set[CapabilityIdentifier],
+                 position: Int,
+                 limit: Int)
+
+  private case class AccountState(mailboxState: State, emailState: State)
+
+  private case class Entry(state: AccountState, ids: Seq[MessageId])
+}
+
+/**
+ * Caches Email/query results per account, normalized filter, sort and window.
+ *
+ * An entry is only served while the mailbox and email states of the account, delegated mailboxes included, did not
+ * move since it was computed. As the search index is updated asynchronously, results computed before the indexing of
+ * the latest changes can be served until the entry expires: the TTL bounds that staleness.
+ */
+class EmailQueryResultCache @Inject()(configuration: JmapRfc8621Configuration,
+                                      mailboxChangeRepository: MailboxChangeRepository,
+                                      emailChangeRepository: EmailChangeRepository,
+                                      metricFactory: MetricFactory) {
+  import EmailQueryResultCache._
+
+  private val cache: Cache[Key, Entry] = CacheBuilder.newBuilder()
+    .maximumSize(configuration.emailQueryCacheMaxSize)
+    .expireAfterWrite(configuration.emailQueryCacheTtl)
+    .build[Key, Entry]()
+  private val hitCount: Metric = metricFactory.generate(HIT_COUNT_METRIC_NAME)
+  private val missCount: Metric = metricFactory.generate(MISS_COUNT_METRIC_NAME)
+
+  def getOrCompute(key: Key, session: MailboxSession)(compute: => SMono[Seq[MessageId]]): SMono[Seq[MessageId]] =
+    if (configuration.emailQueryCacheEnabled) {
+      currentState(session.getUser)
+        .flatMap(state => Option(cache.getIfPresent(key))
+          .filter(_.state.equals(state))
+          .map(entry => {
+            hitCount.increment()
+            SMono.just(entry.ids)
+          })
+          .getOrElse({
+            missCount.increment()
+            compute.doOnNext(ids => cache.put(key, Entry(state, ids)))
+          }))
+    } else {
+      compute
+    }
+
+  private def currentState(username: Username): SMono[AccountState] = {
+    val accountId: AccountId = AccountId.fromUsername(username)
+
+    SMono.zip(array => AccountState(array(0).asInstanceOf[State], array(1).asInstanceOf[State]),
+      SMono(mailboxChangeRepository.getLatestStateWithDelegation(accountId)),
+      SMono(emailChangeRepository.getLatestStateWithDelegation(accountId)))
+  }
+}
@@ -33,7 +33,7 @@ import org.apache.james.jmap.routes.SessionSupplier
 import org.apache.james.jmap.utils.quotas.{QuotaLoaderWithPreloadedDefault, QuotaLoaderWithPreloadedDefaultFactory}
 import org.apache.james.mailbox.exception.MailboxNotFoundException
 import org.apache.james.mailbox.model.search.MailboxQuery
-import org.apache.james.mailbox.model.{MailboxId, MailboxMetaData}
+import org.apache.james.mailbox.model.{MailboxId, MailboxMetaData, MailboxPath}
 import org.apache.james.mailbox.{MailboxManager, MailboxSession, SubscriptionManager}
 import org.apache.james.metrics.api.MetricFactory
 import play.api.libs.json.{JsError, JsObject, JsSuccess}
@@ -59,6 +59,11 @@ case class MailboxGetResults(mailboxes: Set[Mailbox], notFound: NotFound) {
     notFound = notFound)
 }
 
+object MailboxGetMethod {
+  // Above this count of requested ids, loading all the mailboxes of the account in bulk is cheaper than one by one lookups
+  val BATCH_LOADING_THRESHOLD: Int = 10
+}
+
 class MailboxGetMethod @Inject() (serializer: MailboxSerializer,
                                   mailboxManager: MailboxManager,
                                   subscriptionManager: SubscriptionManager,
@@ -115,6 +120,8 @@ class MailboxGetMethod @Inject() (serializer: MailboxSerializer,
         .thenMany(getAllMailboxes(capabilities, mailboxSession))
         .map(MailboxGetResults.found)
       case Some(Ids.EMPTY) => SFlux.empty
+      case Some(ids) if ids.value.size > MailboxGetMethod.BATCH_LOADING_THRESHOLD =>
+        getMailboxesInBatch(capabilities, ids, mailboxSession)
       case Some(ids) =>
         SMono.zip(array => (array(0).asInstanceOf[QuotaLoaderWithPreloadedDefault],
           array(1).asInstanceOf[Subscriptions]),
@@ -129,6 +136,30 @@ class MailboxGetMethod @Inject() (serializer: MailboxSerializer,
           }
     }
 
+  private def getMailboxesInBatch(capabilities: Set[CapabilityIdentifier], ids: Ids, mailboxSession: MailboxSession): SFlux[MailboxGetResults] =
+    SMono.zip(array => (array(0).asInstanceOf[Seq[MailboxMetaData]],
+        array(1).asInstanceOf[QuotaLoaderWithPreloadedDefault],
+        array(2).asInstanceOf[Subscriptions]),
+        getAllMailboxesMetaData(capabilities, mailboxSession),
+        quotaFactory.loadFor(mailboxSession),
+        retrieveSubscriptions(mailboxSession))
+      .flatMapMany {
+        case (mailboxes, quotaLoader, subscriptions) =>
+          val metadataById: Map[MailboxId, MailboxMetaData] = mailboxes.map(mailbox => (mailbox.getId, mailbox)).toMap
+          val metadataByPath: Map[MailboxPath, MailboxMetaData] = MailboxFactory.indexByPath(mailboxes)
+
+          SFlux.fromIterable(ids.value)
+            .flatMap(id => Try(mailboxIdFactory.fromString(id.id)).toOption
+              .flatMap(metadataById.get)
+              .map(mailbox => mailboxFactory.create(mailboxMetaData = mailbox,
+                  mailboxSession = mailboxSession,
+                  subscriptions = subscriptions,
+                  metadataByPath = metadataByPath,
+                  quotaLoader = quotaLoader)
+                .map(MailboxGetResults.found))
+              .getOrElse(SMono.just(MailboxGetResults.notFound(id))))
+      }
+
   private def retrieveSubscriptions(mailboxSession: MailboxSession): SMono[Subscriptions] =
     SFlux(subscriptionManager.subscriptionsReactive(mailboxSession))
       .collectSeq()
@@ -165,12 +196,15 @@ class MailboxGetMethod @Inject() (serializer: MailboxSerializer,
         quotaFactory.loadFor(mailboxSession),
         retrieveSubscriptions(mailboxSession))
       .flatMapMany {
-        case (mailboxes, quotaLoader, subscriptions) => SFlux.fromIterable(mailboxes)
-          .flatMap(mailbox => mailboxFactory.create(mailboxMetaData = mailbox,
-            mailboxSession = mailboxSession,
-            subscriptions = subscriptions,
-            allMailboxesMetadata = mailboxes,
-            quotaLoader = quotaLoader))
+        case (mailboxes, quotaLoader, subscriptions) =>
+          val metadataByPath: Map[MailboxPath, MailboxMetaData] = MailboxFactory.indexByPath(mailboxes)
+
+          SFlux.fromIterable(mailboxes)
+            .flatMap(mailbox => mailboxFactory.create(mailboxMetaData = mailbox,
+              mailboxSession = mailboxSession,
+              subscriptions = subscriptions,
+              metadataByPath = metadataByPath,
+              quotaLoader = quotaLoader))
       }
   }
 
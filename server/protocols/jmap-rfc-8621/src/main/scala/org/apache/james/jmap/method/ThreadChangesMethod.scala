@@ -21,43 +21,62 @@ package org.apache.james.jmap.method
 
 import eu.timepit.refined.auto._
 import javax.inject.Inject
+import org.apache.james.jmap.api.change.{CanNotCalculateChangesException, Limit, ThreadChanges, State => JavaState}
+import org.apache.james.jmap.api.projections.ThreadMembershipProjection
 import org.apache.james.jmap.core.CapabilityIdentifier.{CapabilityIdentifier, JMAP_MAIL}
+import org.apache.james.jmap.core.Id.Id
 import org.apache.james.jmap.core.Invocation.{Arguments, MethodName}
-import org.apache.james.jmap.core.{ErrorCode, Invocation, UuidState}
+import org.apache.james.jmap.core.{ErrorCode, Id, Invocation, UuidState}
 import org.apache.james.jmap.json.{ResponseSerializer, ThreadSerializer}
 import org.apache.james.jmap.mail.{HasMoreChanges, ThreadChangesRequest, ThreadChangesResponse}
 import org.apache.james.jmap.routes.SessionSupplier
 import org.apache.james.mailbox.MailboxSession
+import org.apache.james.mailbox.model.ThreadId
 import org.apache.james.metrics.api.MetricFactory
 import play.api.libs.json.{JsError, JsSuccess}
 import reactor.core.scala.publisher.SMono
 
+import scala.jdk.CollectionConverters._
+
+object ThreadChangesMethod {
+  // Used when the client does not specify maxChanges, and caps the value it specifies otherwise
+  val MAX_CHANGES: Int = 256
+}
+
 class ThreadChangesMethod @Inject()(val metricFactory: MetricFactory,
-                                    val sessionSupplier: SessionSupplier) extends MethodRequiringAccountId[ThreadChangesRequest] {
+                                    val sessionSupplier: SessionSupplier,
+                                    val threadMembershipProjection: ThreadMembershipProjection) extends MethodRequiringAccountId[ThreadChangesRequest] {
   override val methodName: MethodName = MethodName("Thread/changes")
   override val requiredCapabilities: Set[CapabilityIdentifier] = Set(JMAP_MAIL)
 
   override def doProcess(capabilities: Set[CapabilityIdentifier], invocation: InvocationWithContext, mailboxSession: MailboxSession, request: ThreadChangesRequest): SMono[InvocationWithContext] =
-    if (request.sinceState.equals(UuidState.INSTANCE)) {
-      val response: ThreadChangesResponse = ThreadChangesResponse(
+    SMono[ThreadChanges](threadMembershipProjection.getSinceState(mailboxSession.getUser, JavaState.of(request.sinceState.value), maxChanges(request)))
+      .map(threadChanges => ThreadChangesResponse(
         accountId = request.accountId,
-        oldState = UuidState.INSTANCE,
-        newState = UuidState.INSTANCE,
-        hasMoreChanges = HasMoreChanges(false),
-        created = List(),
-        updated = List(),
-        destroyed = List())
-      SMono.just(InvocationWithContext(invocation = Invocation(
-        methodName = methodName,
-        arguments = Arguments(ThreadSerializer.serializeChanges(response)),
-        methodCallId = invocation.invocation.methodCallId
-      ), processingContext = invocation.processingContext))
-    } else {
-      SMono.just(InvocationWithContext(invocation = Invocation.error(ErrorCode.CannotCalculateChanges,
-        "Naive implementation for Thread/changes",
-        invocation.invocation.methodCallId),
+        oldState = request.sinceState,
+        newState = UuidState.fromJava(threadChanges.getNewState),
+        hasMoreChanges = HasMoreChanges(threadChanges.hasMoreChanges),
+        created = asIds(threadChanges.getCreated.asScala),
+        updated = asIds(threadChanges.getUpdated.asScala),
+        destroyed = asIds(threadChanges.getDestroyed.asScala)))
+      .map(response => InvocationWithContext(
+        invocation = Invocation(
+          methodName = methodName,
+          arguments = Arguments(ThreadSerializer.serializeChanges(response)),
+          methodCallId = invocation.invocation.methodCallId),
         processingContext = invocation.processingContext))
-    }
+      .onErrorResume {
+        case e: CanNotCalculateChangesException => SMono.just(InvocationWithContext(Invocation.error(ErrorCode.CannotCalculateChanges, e.getMessage, invocation.invocation.methodCallId), invocation.processingContext))
+        case e => SMono.error(e)
+      }
+
+  private def maxChanges(request: ThreadChangesRequest): Limit =
+    Limit.of(request.maxChanged
+      .map(_.value.min(ThreadChangesMethod.MAX_CHANGES.toLong).toInt)
+      .getOrElse(ThreadChangesMethod.MAX_CHANGES))
+
+  private def asIds(threadIds: Iterable[ThreadId]): List[Id] =
+    threadIds.flatMap(threadId => Id.validate(threadId.serialize).toOption).toList
 
   override def getRequest(mailboxSession: MailboxSession, invocation: Invocation): Either[IllegalArgumentException, ThreadChangesRequest] =
     ThreadSerializer.deserializeChanges(invocation.arguments.value) match {
@@ -21,6 +21,7 @@ package org.apache.james.jmap.method
 
 import eu.timepit.refined.auto._
 import javax.inject.Inject
+import org.apache.james.jmap.api.projections.ThreadMembershipProjection
 import org.apache.james.jmap.core.CapabilityIdentifier.{CapabilityIdentifier, JMAP_CORE, JMAP_MAIL}
 import org.apache.james.jmap.core.Invocation.{Arguments, MethodName}
 import org.apache.james.jmap.core.{AccountId, Invocation, UuidState}
@@ -28,12 +29,13 @@ import org.apache.james.jmap.json.{ResponseSerializer, ThreadSerializer}
 import org.apache.james.jmap.mail.{Thread, ThreadGetRequest, ThreadGetResponse, ThreadNotFound, UnparsedThreadId}
 import org.apache.james.jmap.routes.SessionSupplier
 import org.apache.james.mailbox.exception.ThreadNotFoundException
-import org.apache.james.mailbox.model.{ThreadId => JavaThreadId}
-import org.apache.james.mailbox.{MailboxManager, MailboxSession}
+import org.apache.james.mailbox.model.{MessageId, ThreadId => JavaThreadId}
+import org.apache.james.mailbox.{MailboxManager, MailboxSession, MessageIdManager}
 import org.apache.james.metrics.api.MetricFactory
 import play.api.libs.json.{JsError, JsSuccess}
 import reactor.core.scala.publisher.{SFlux, SMono}
 
+import scala.jdk.CollectionConverters._
 import scala.util.Try
 
 object ThreadGetResult {
@@ -52,10 +54,10 @@ case class ThreadGetResult(threads: Set[Thread], notFound: ThreadNotFound) {
   def merge(other: ThreadGetResult): ThreadGetResult =
     ThreadGetResult(this.threads ++ other.threads, this.notFound.merge(other.notFound))
 
-  def asResponse(accountId: AccountId): ThreadGetResponse =
+  def asResponse(accountId: AccountId, state: UuidState): ThreadGetResponse =
     ThreadGetResponse(
       accountId = accountId,
-      state = UuidState.INSTANCE,
+      state = state,
       list = threads.toList,
       notFound = notFound)
 }
@@ -63,14 +65,18 @@ case class ThreadGetResult(threads: Set[Thread], notFound: ThreadNotFound) {
 class ThreadGetMethod @Inject()(val metricFactory: MetricFactory,
                                 val sessionSupplier: SessionSupplier,
                                 val threadIdFactory: JavaThreadId.Factory,
-                                val mailboxManager: MailboxManager) extends MethodRequiringAccountId[ThreadGetRequest] {
+                                val mailboxManager: MailboxManager,
+                                val messageIdManager: MessageIdManager,
+                                val threadMembershipProjection: ThreadMembershipProjection) extends MethodRequiringAccountId[ThreadGetRequest] {
   override val methodName: MethodName = MethodName("Thread/get")
   override val requiredCapabilities: Set[CapabilityIdentifier] = Set(JMAP_CORE, JMAP_MAIL)
 
   override def doProcess(capabilities: Set[CapabilityIdentifier], invocation: InvocationWithContext, mailboxSession: MailboxSession, request: ThreadGetRequest): SMono[InvocationWithContext] =
-    getThreadResponse(request, mailboxSession)
-      .reduce(ThreadGetResult.empty)(ThreadGetResult.merge)
-      .map(threadGetResult => threadGetResult.asResponse(request.accountId))
+    SMono(threadMembershipProjection.getLatestState(mailboxSession.getUser))
+      .map(UuidState.fromJava)
+      .flatMap(state => getThreadResponse(request, mailboxSession)
+        .reduce(ThreadGetResult.empty)(ThreadGetResult.merge)
+        .map(threadGetResult => threadGetResult.asResponse(request.accountId, state)))
       .map(threadGetResponse => Invocation(
         methodName = methodName,
         arguments = Arguments(ThreadSerializer.serialize(threadGetResponse)),
@@ -89,13 +95,30 @@ class ThreadGetMethod @Inject()(val metricFactory: MetricFactory,
       .flatMap(unparsedThreadId => {
         Try(threadIdFactory.fromString(unparsedThreadId.id.toString()))
           .fold(_ => SFlux.just(ThreadGetResult.notFound(unparsedThreadId)),
-            threadId => SFlux.fromPublisher(mailboxManager.getThread(threadId, mailboxSession))
-              .collectSeq()
-              .map(seq => Thread(id = unparsedThreadId.id, emailIds = seq.toList))
+            threadId => retrieveThread(threadId, mailboxSession)
+              .map(emailIds => Thread(id = unparsedThreadId.id, emailIds = emailIds))
               .map(ThreadGetResult.found)
               .onErrorResume({
                 case _: ThreadNotFoundException => SMono.just(ThreadGetResult.notFound(unparsedThreadId))
                 case e => SMono.error(e)
               }))
       })
+
+  private def retrieveThread(threadId: JavaThreadId, mailboxSession: MailboxSession): SMono[List[MessageId]] =
+    SFlux(threadMembershipProjection.retrieve(mailboxSession.getUser, threadId))
+      .collectSeq()
+      .flatMap(members => filterAccessible(members, mailboxSession))
+      .filter(_.nonEmpty)
+      // Threads living only in delegated mailboxes, or not yet projected, are searched
+      .switchIfEmpty(SFlux(mailboxManager.getThread(threadId, mailboxSession))
+        .collectSeq()
+        .map(_.toList))
+
+  private def filterAccessible(members: Seq[MessageId], mailboxSession: MailboxSession): SMono[List[MessageId]] =
+    if (members.isEmpty) {
+      SMono.just(List())
+    } else {
+      SMono(messageIdManager.accessibleMessagesReactive(members.asJava, mailboxSession))
+        .map(accessible => members.filter(accessible.contains).toList)
+    }
 }
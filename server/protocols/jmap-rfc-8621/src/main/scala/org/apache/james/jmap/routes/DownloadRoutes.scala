@@ -27,11 +27,12 @@ import com.google.common.base.CharMatcher
 import eu.timepit.refined.numeric.NonNegative
 import eu.timepit.refined.refineV
 import io.netty.buffer.Unpooled
-import io.netty.handler.codec.http.HttpHeaderNames.{CONTENT_LENGTH, CONTENT_TYPE}
+import io.netty.handler.codec.http.HttpHeaderNames.{ACCEPT_RANGES, CACHE_CONTROL, CONTENT_LENGTH, CONTENT_RANGE, CONTENT_TYPE, ETAG, IF_NONE_MATCH, IF_RANGE, RANGE}
 import io.netty.handler.codec.http.HttpResponseStatus._
 import io.netty.handler.codec.http.{HttpMethod, HttpResponseStatus, QueryStringDecoder}
 import javax.inject.{Inject, Named}
 import org.apache.commons.io.output.UnsynchronizedByteArrayOutputStream
+import org.apache.james.blob.api.RangedInputStreams
 import org.apache.james.jmap.HttpConstants.JSON_CONTENT_TYPE
 import org.apache.james.jmap.api.model.Size.{Size, sanitizeSize}
 import org.apache.james.jmap.api.model.{Upload, UploadId, UploadNotFoundException}
@@ -43,7 +44,7 @@ import org.apache.james.jmap.http.Authenticator
 import org.apache.james.jmap.http.rfc8621.InjectionKeys
 import org.apache.james.jmap.json.ResponseSerializer
 import org.apache.james.jmap.mail.{BlobId, EmailBodyPart, PartId}
-import org.apache.james.jmap.routes.DownloadRoutes.{BUFFER_SIZE, LOGGER}
+import org.apache.james.jmap.routes.DownloadRoutes.{BUFFER_SIZE, CACHE_CONTROL_VALUE, LOGGER}
 import org.apache.james.jmap.{Endpoint, JMAPRoute, JMAPRoutes}
 import org.apache.james.mailbox.model.ContentType.{MediaType, MimeType, SubType}
 import org.apache.james.mailbox.model._
@@ -68,6 +69,50 @@ object DownloadRoutes {
   val LOGGER: Logger = LoggerFactory.getLogger(classOf[DownloadRoutes])
 
   val BUFFER_SIZE: Int = 16 * 1024
+
+  // Blob ids are content addressed: a given blob id always designates the same content
+  val CACHE_CONTROL_VALUE: String = "private, max-age=31536000, immutable"
+}
+
+sealed trait RangeSelection
+case object FullContent extends RangeSelection
+case class PartialContent(range: ByteRange, size: Long) extends RangeSelection
+case class UnsatisfiableRange(size: Long) extends RangeSelection
+
+object ByteRange {
+  private val SINGLE_RANGE = """bytes=(\d*)-(\d*)""".r
+
+  /**
+   * Only single byte ranges are supported (RFC-7233): multiple ranges as well as invalid ranges are ignored,
+   * leading to the full content being served.
+   */
+  def select(rangeHeader: Option[String], size: Long): RangeSelection =
+    rangeHeader.map(_.trim) match {
+      case Some(SINGLE_RANGE(first, last)) if first.nonEmpty =>
+        val start = BigInt(first)
+        if (last.nonEmpty && BigInt(last) < start) {
+          FullContent
+        } else if (start >= size) {
+          UnsatisfiableRange(size)
+        } else {
+          val end = if (last.isEmpty) size - 1 else BigInt(last).min(size - 1).toLong
+          PartialContent(ByteRange(start.toLong, end), size)
+        }
+      case Some(SINGLE_RANGE(_, suffix)) if suffix.nonEmpty =>
+        val suffixLength = BigInt(suffix).min(size).toLong
+        if (suffixLength == 0) {
+          UnsatisfiableRange(size)
+        } else {
+          PartialContent(ByteRange(size - suffixLength, size - 1), size)
+        }
+      case _ => FullContent
+    }
+}
+
+case class ByteRange(start: Long, end: Long) {
+  def length: Long = end - start + 1
+
+  def asContentRange(size: Long): String = s"bytes $start-$end/$size"
 }
 
 sealed trait BlobResolutionResult {
@@ -89,12 +134,14 @@ trait Blob {
   def contentType: ContentType
   def size: Try[Size]
   def content: InputStream
+
+  def contentRange(range: ByteRange): InputStream = RangedInputStreams.slice(content, range.start, range.length)
 }
 
 case class BlobNotFoundException(blobId: BlobId) extends RuntimeException
 case class ForbiddenException() extends RuntimeException
 
-case class MessageBlob(blobId: BlobId, message: MessageResult) extends Blob {
+case class MessageBlob(blobId: BlobId, message: MessageResult, messageIdManager: MessageIdManager, mailboxSession: MailboxSession) extends Blob {
   override def contentType: ContentType = ContentType.of(MimeType.of(MediaType.of("message"), SubType.of("rfc822")))
 
   override def size: Try[Size] = refineV[NonNegative](message.getSize) match {
@@ -102,7 +149,14 @@ case class MessageBlob(blobId: BlobId, message: MessageResult) extends Blob {
     case Right(size) => Success(size)
   }
 
-  override def content: InputStream = message.getFullContent.getInputStream
+  override def content: InputStream = loadFullContentRange(0, message.getSize)
+
+  override def contentRange(range: ByteRange): InputStream = loadFullContentRange(range.start, range.length)
+
+  private def loadFullContentRange(offset: Long, length: Long): InputStream =
+    SMono(messageIdManager.loadFullContentRange(message.getMessageId, offset, length, mailboxSession))
+      .switchIfEmpty(SMono.error(BlobNotFoundException(blobId)))
+      .block()
 }
 
 case class UploadedBlob(blobId: BlobId, upload: Upload) extends Blob {
@@ -111,14 +165,19 @@ case class UploadedBlob(blobId: BlobId, upload: Upload) extends Blob {
   override def size: Try[Size] = Success(upload.size)
 
   override def content: InputStream = upload.content()
+
+  override def contentRange(range: ByteRange): InputStream = upload.contentRange.read(range.start, range.length)
 }
 
-case class AttachmentBlob(attachmentMetadata: AttachmentMetadata, fileContent: InputStream) extends Blob {
+case class AttachmentBlob(attachmentMetadata: AttachmentMetadata, attachmentManager: AttachmentManager, mailboxSession: MailboxSession) extends Blob {
   override def size: Try[Size] = Success(sanitizeSize(attachmentMetadata.getSize))
 
   override def contentType: ContentType = attachmentMetadata.getType
 
-  override def content: InputStream = fileContent
+  override def content: InputStream = attachmentManager.load(attachmentMetadata, mailboxSession)
+
+  override def contentRange(range: ByteRange): InputStream =
+    attachmentManager.loadAttachmentContentRange(attachmentMetadata.getAttachmentId, range.start, range.length, mailboxSession)
 
   override def blobId: BlobId = BlobId.of(attachmentMetadata.getAttachmentId.getId).get
 }
@@ -144,8 +203,8 @@ class MessageBlobResolver @Inject()(val messageIdFactory: MessageId.Factory,
     Try(messageIdFactory.fromString(blobId.value.value)) match {
       case Failure(_) => NonApplicable
       case Success(messageId) => Applicable(SMono.fromPublisher(
-        messageIdManager.getMessagesReactive(List(messageId).asJava, FetchGroup.FULL_CONTENT, mailboxSession))
-        .map[Blob](MessageBlob(blobId, _))
+        messageIdManager.getMessagesReactive(List(messageId).asJava, FetchGroup.MINIMAL, mailboxSession))
+        .map[Blob](MessageBlob(blobId, _, messageIdManager, mailboxSession))
         .switchIfEmpty(SMono.error(BlobNotFoundException(blobId))))
     }
   }
@@ -178,7 +237,7 @@ class AttachmentBlobResolver @Inject()(val attachmentManager: AttachmentManager)
       case attachmentId: AttachmentId =>
         Try(attachmentManager.getAttachment(attachmentId, mailboxSession)) match {
           case Success(attachmentMetadata) => Applicable(
-            SMono.fromCallable(() => AttachmentBlob(attachmentMetadata, attachmentManager.load(attachmentMetadata, mailboxSession))))
+            SMono.just(AttachmentBlob(attachmentMetadata, attachmentManager, mailboxSession)))
           case Failure(_) => NonApplicable
         }
       case _ => NonApplicable
@@ -285,6 +344,7 @@ class DownloadRoutes @Inject()(@Named(InjectionKeys.RFC_8621) val authenticator:
       .fold(e => SMono.error(e),
         blobResolvers.resolve(_, mailboxSession))
       .flatMap(blob => downloadBlob(
+        request = request,
         optionalName = queryParam(request, nameParam),
         response = response,
         blobContentType = queryParam(request, contentTypeParam)
@@ -308,17 +368,47 @@ class DownloadRoutes @Inject()(@Named(InjectionKeys.RFC_8621) val authenticator:
       case Left(throwable: Throwable) => SMono.error(throwable)
     }
 
-  private def downloadBlob(optionalName: Option[String],
+  private def downloadBlob(request: HttpServerRequest,
+                           optionalName: Option[String],
                            response: HttpServerResponse,
                            blobContentType: ContentType,
-                           blob: Blob): SMono[Unit] =
+                           blob: Blob): SMono[Unit] = {
+    val etag: String = "\"" + blob.blobId.value.value + "\""
+    val cacheableResponse: HttpServerResponse = response
+      .header(ETAG, etag)
+      .header(CACHE_CONTROL, CACHE_CONTROL_VALUE)
+
+    if (isNotModified(request, etag)) {
+      SMono.fromPublisher(cacheableResponse.status(NOT_MODIFIED).send()).`then`
+    } else {
+      rangeSelection(request, etag, blob) match {
+        case FullContent => sendContent(() => blob.content,
+          addContentDispositionHeader(optionalName)
+            .compose(addContentLengthHeader(blob.size))
+            .apply(cacheableResponse)
+            .header(CONTENT_TYPE, blobContentType.asString)
+            .header(ACCEPT_RANGES, "bytes")
+            .status(OK))
+        case PartialContent(range, size) => sendContent(() => blob.contentRange(range),
+          addContentDispositionHeader(optionalName)
+            .apply(cacheableResponse)
+            .header(CONTENT_TYPE, blobContentType.asString)
+            .header(CONTENT_LENGTH, range.length.toString)
+            .header(CONTENT_RANGE, range.asContentRange(size))
+            .header(ACCEPT_RANGES, "bytes")
+            .status(PARTIAL_CONTENT))
+        case UnsatisfiableRange(size) =>
+          respondDetails(response.header(CONTENT_RANGE, s"bytes */$size"),
+            ProblemDetails(status = REQUESTED_RANGE_NOT_SATISFIABLE, detail = s"The requested range does not overlap the $size bytes of the blob"),
+            REQUESTED_RANGE_NOT_SATISFIABLE)
+      }
+    }
+  }
+
+  private def sendContent(content: () => InputStream, response: HttpServerResponse): SMono[Unit] =
     SMono.fromPublisher(Mono.using(
-      () => blob.content,
-      (stream: InputStream) => addContentDispositionHeader(optionalName)
-        .compose(addContentLengthHeader(blob.size))
-        .apply(response)
-        .header(CONTENT_TYPE, blobContentType.asString)
-        .status(OK)
+      () => content(),
+      (stream: InputStream) => response
         .send(ReactorUtils.toChunks(stream, BUFFER_SIZE)
           .map(Unpooled.wrappedBuffer(_))
           .subscribeOn(Schedulers.boundedElastic()))
@@ -326,6 +416,19 @@ class DownloadRoutes @Inject()(@Named(InjectionKeys.RFC_8621) val authenticator:
       asJavaConsumer[InputStream]((stream: InputStream) => stream.close())))
       .`then`
 
+  private def isNotModified(request: HttpServerRequest, etag: String): Boolean =
+    Option(request.requestHeaders().get(IF_NONE_MATCH))
+      .exists(_.split(',')
+        .map(_.trim.stripPrefix("W/"))
+        .exists(candidate => candidate.equals("*") || candidate.equals(etag)))
+
+  // Ranges are ignored when the size is unknown, or when the client holds an outdated representation (If-Range)
+  private def rangeSelection(request: HttpServerRequest, etag: String, blob: Blob): RangeSelection =
+    blob.size.toOption
+      .filter(_ => Option(request.requestHeaders().get(IF_RANGE)).forall(_.trim.equals(etag)))
+      .map(size => ByteRange.select(Option(request.requestHeaders().get(RANGE)), size.value))
+      .getOrElse(FullContent)
+
   private def addContentDispositionHeader(optionalName: Option[String]): HttpServerResponse => HttpServerResponse =
     resp => optionalName.map(addContentDispositionHeaderRegardingEncoding(_, resp))
       .getOrElse(resp)
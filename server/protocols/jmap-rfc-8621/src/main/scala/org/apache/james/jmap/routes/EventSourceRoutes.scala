@@ -30,22 +30,20 @@ import eu.timepit.refined.refineV
 import io.netty.handler.codec.http.HttpHeaderNames.CONTENT_TYPE
 import io.netty.handler.codec.http.{HttpMethod, QueryStringDecoder}
 import javax.inject.{Inject, Named}
-import org.apache.james.events.{EventBus, Registration}
+import org.apache.james.events.Registration
 import org.apache.james.jmap.HttpConstants.JSON_CONTENT_TYPE
 import org.apache.james.jmap.JMAPUrls.EVENT_SOURCE
 import org.apache.james.jmap.api.change.TypeStateFactory
 import org.apache.james.jmap.api.model.TypeName
-import org.apache.james.jmap.change.{AccountIdRegistrationKey, StateChangeListener}
-import org.apache.james.jmap.core.{OutboundMessage, PingMessage, ProblemDetails, StateChange}
+import org.apache.james.jmap.change.{EventSourcePushFormat, PushClient, PushFrame, PushHub, PushOverflowException}
+import org.apache.james.jmap.core.{PingMessage, ProblemDetails, StateChange}
 import org.apache.james.jmap.exceptions.UnauthorizedException
 import org.apache.james.jmap.http.rfc8621.InjectionKeys
 import org.apache.james.jmap.http.{Authenticator, UserProvisioning}
 import org.apache.james.jmap.json.{PushSerializer, ResponseSerializer}
 import org.apache.james.jmap.routes.PingPolicy.Interval
-import org.apache.james.jmap.{Endpoint, JMAPRoute, JMAPRoutes, InjectionKeys => JMAPInjectionKeys}
+import org.apache.james.jmap.{Endpoint, JMAPRoute, JMAPRoutes}
 import org.apache.james.mailbox.MailboxSession
-import play.api.libs.json.Json
-import reactor.core.publisher.Sinks.EmitFailureHandler.FAIL_FAST
 import reactor.core.publisher.{Mono, Sinks}
 import reactor.core.scala.publisher.{SFlux, SMono}
 import reactor.core.scheduler.Schedulers
@@ -141,21 +139,21 @@ object CloseAfter {
   }
 }
 sealed trait CloseAfter {
-  def applyOn(flux: SFlux[OutboundMessage]): SFlux[OutboundMessage]
+  def applyOn(flux: SFlux[PushFrame]): SFlux[PushFrame]
 }
 case object CloseAfterState extends CloseAfter {
-  override def applyOn(flux: SFlux[OutboundMessage]): SFlux[OutboundMessage] = flux.takeUntil {
-    case _: StateChange => true
+  override def applyOn(flux: SFlux[PushFrame]): SFlux[PushFrame] = flux.takeUntil {
+    case PushFrame(_: StateChange, _) => true
     case _ => false
   }
 }
 case object NoCloseAfter extends CloseAfter {
-  override def applyOn(flux: SFlux[OutboundMessage]): SFlux[OutboundMessage] = flux
+  override def applyOn(flux: SFlux[PushFrame]): SFlux[PushFrame] = flux
 }
 
 class EventSourceRoutes@Inject() (@Named(InjectionKeys.RFC_8621) val authenticator: Authenticator,
                                   userProvisioner: UserProvisioning,
-                                  @Named(JMAPInjectionKeys.JMAP) eventBus: EventBus,
+                                  pushHub: PushHub,
                                   pushSerializer: PushSerializer,
                                   typeStateFactory: TypeStateFactory) extends JMAPRoutes {
 
@@ -181,27 +179,29 @@ class EventSourceRoutes@Inject() (@Named(InjectionKeys.RFC_8621) val authenticat
       .`then`()
 
   private def registerSSE(response: HttpServerResponse, session: MailboxSession, options: EventSourceOptions): SMono[Unit] = {
-    val sink: Sinks.Many[OutboundMessage] = Sinks.many().unicast().onBackpressureBuffer()
+    val sink: Sinks.Many[PushFrame] = PushClient.sink()
     val context = ClientContext(sink, new AtomicReference[Registration](), session)
 
     val pingDisposable = options.pingPolicy
       .asFlux()
-      .subscribe(ping => context.outbound.emitNext(ping, FAIL_FAST))
+      .subscribe(ping => context.outbound.tryEmitNext(asSSEEvent(ping)))
 
-    SMono(
-      eventBus.register(
-        StateChangeListener(options.types, context.outbound),
-        AccountIdRegistrationKey.of(session.getUser)))
+    pushHub.subscribe(session.getUser, new PushClient(options.types, EventSourcePushFormat, context.outbound))
       .doOnNext(newRegistration => context.withRegistration(newRegistration))
       .subscribeOn(Schedulers.boundedElastic())
-      .subscribe()
+      .subscribe(_ => (), e => context.outbound.tryEmitError(e))
 
     SMono(response
       .addHeader("Connection", "keep-alive")
       .sse()
       .sendString(
         options.closeAfter.applyOn(SFlux(sink.asFlux()))
-          .map(asSSEEvent),
+          .map(_.payload)
+          // Ending the stream lets the client reconnect and resynchronize
+          .onErrorResume {
+            case _: PushOverflowException => SFlux.empty[String]
+            case e => SFlux.error[String](e)
+          },
         StandardCharsets.UTF_8).`then`
       .doFinally(_ => context.clean())
       .doFinally(_ => pingDisposable.dispose())
@@ -209,13 +209,8 @@ class EventSourceRoutes@Inject() (@Named(InjectionKeys.RFC_8621) val authenticat
       .`then`()
   }
 
-  private def asSSEEvent(outboundMessage: OutboundMessage): String = {
-    val event: String = outboundMessage match {
-      case _: PingMessage => "ping"
-      case _: StateChange => "state"
-    }
-    s"event: $event\ndata: ${Json.stringify(pushSerializer.serializeSSE(outboundMessage))}\n\n"
-  }
+  private def asSSEEvent(ping: PingMessage): PushFrame =
+    PushFrame(ping, EventSourcePushFormat.serialize(pushSerializer, ping))
 
   private def handleConnectionEstablishmentError(throwable: Throwable, response: HttpServerResponse): SMono[Void] = throwable match {
     case e: UnauthorizedException => respondDetails(e.addHeaders(response), ProblemDetails.forThrowable(throwable))
@@ -20,9 +20,11 @@ package org.apache.james.jmap.routes
 
 import java.io.InputStream
 import java.nio.charset.StandardCharsets
+import java.util.concurrent.atomic.AtomicLong
 import java.util.stream
 import java.util.stream.Stream
 
+import io.netty.buffer.Unpooled
 import io.netty.handler.codec.http.HttpHeaderNames.{CONTENT_LENGTH, CONTENT_TYPE}
 import io.netty.handler.codec.http.HttpMethod
 import io.netty.handler.codec.http.HttpResponseStatus.OK
@@ -30,21 +32,27 @@ import javax.inject.{Inject, Named}
 import org.apache.james.jmap.HttpConstants.JSON_CONTENT_TYPE
 import org.apache.james.jmap.JMAPUrls.JMAP
 import org.apache.james.jmap.core.CapabilityIdentifier.CapabilityIdentifier
-import org.apache.james.jmap.core.{ProblemDetails, RequestObject}
+import org.apache.james.jmap.core.{ProblemDetails, RequestObject, ResponseObject}
 import org.apache.james.jmap.exceptions.UnauthorizedException
 import org.apache.james.jmap.http.rfc8621.InjectionKeys
 import org.apache.james.jmap.http.{Authenticator, UserProvisioning}
 import org.apache.james.jmap.json.ResponseSerializer
+import org.apache.james.jmap.routes.JMAPApiRoutes.STREAMING_THRESHOLD
 import org.apache.james.jmap.{Endpoint, JMAPRoute, JMAPRoutes}
 import org.apache.james.mailbox.MailboxSession
 import org.slf4j.{Logger, LoggerFactory}
-import play.api.libs.json.{JsError, JsSuccess, Json}
-import reactor.core.publisher.Mono
+import play.api.libs.json.{JsError, JsSuccess}
+import reactor.core.publisher.{Flux, Mono}
 import reactor.core.scala.publisher.SMono
 import reactor.netty.http.server.{HttpServerRequest, HttpServerResponse}
 
+import scala.jdk.CollectionConverters._
+
 object JMAPApiRoutes {
   val LOGGER: Logger = LoggerFactory.getLogger(classOf[JMAPApiRoutes])
+
+  // Responses bigger than this are streamed as their invocations get serialized
+  val STREAMING_THRESHOLD: Int = 64 * 1024
 }
 
 class JMAPApiRoutes @Inject() (@Named(InjectionKeys.RFC_8621) val authenticator: Authenticator,
@@ -90,16 +98,43 @@ class JMAPApiRoutes @Inject() (@Named(InjectionKeys.RFC_8621) val authenticator:
   private def process(requestObject: RequestObject,
                       httpServerResponse: HttpServerResponse,
                       mailboxSession: MailboxSession): SMono[Void] =
-    jmapApi.process(requestObject, mailboxSession)
-      .map(ResponseSerializer.serialize)
-      .map(Json.stringify)
-      .map(_.getBytes(StandardCharsets.UTF_8))
-      .flatMap(bytes =>
-        SMono.fromPublisher(httpServerResponse.status(OK)
-          .header(CONTENT_TYPE, JSON_CONTENT_TYPE)
-          .header(CONTENT_LENGTH, Integer.toString(bytes.length))
-          .sendByteArray(SMono.just(bytes))
-          .`then`()))
+    send(Flux.concat[Array[Byte]](
+        Mono.fromCallable(() => ResponseSerializer.serializeChunksPrefix(ResponseObject.SESSION_STATE)),
+        jmapApi.processInvocations(requestObject, mailboxSession)
+          .index
+          .map { case (index, invocation) => ResponseSerializer.serializeChunk(invocation, index) },
+        Mono.fromCallable(() => ResponseSerializer.serializeChunksSuffix())),
+      httpServerResponse)
+
+  /**
+   * Small responses are sent at once along with their Content-Length. Responses exceeding the
+   * STREAMING_THRESHOLD are sent using chunked transfer encoding, each following invocation being written
+   * as soon as it is processed, which bounds the memory needed for large responses (eg Email/get with body values).
+   */
+  private def send(chunks: Flux[Array[Byte]], httpServerResponse: HttpServerResponse): SMono[Void] =
+    SMono(Flux.defer(() => {
+      val size: AtomicLong = new AtomicLong()
+      // The first buffer holds the chunks up to the threshold, the next ones hold a single chunk
+      chunks.bufferUntil(chunk => size.addAndGet(chunk.length) > STREAMING_THRESHOLD)
+    }).switchOnFirst[Void]((first, buffers) => {
+      val response = httpServerResponse.status(OK)
+        .header(CONTENT_TYPE, JSON_CONTENT_TYPE)
+      if (!first.hasValue) {
+        buffers.`then`()
+      } else if (sizeOf(first.get()) <= STREAMING_THRESHOLD) {
+        // The first buffer was closed by the end of the response
+        buffers.`then`(response
+          .header(CONTENT_LENGTH, java.lang.Long.toString(sizeOf(first.get())))
+          .send(Mono.just(Unpooled.wrappedBuffer(first.get().asScala.toSeq: _*)))
+          .`then`())
+      } else {
+        response
+          .send(buffers.map(buffer => Unpooled.wrappedBuffer(buffer.asScala.toSeq: _*)))
+          .`then`()
+      }
+    }).`then`())
+
+  private def sizeOf(chunks: java.util.List[Array[Byte]]): Long = chunks.asScala.map(_.length.toLong).sum
 
   private def handleError(throwable: Throwable, response: HttpServerResponse): SMono[Void] = throwable match {
     case e: UnauthorizedException => respondDetails(e.addHeaders(response), ProblemDetails.forThrowable(throwable))
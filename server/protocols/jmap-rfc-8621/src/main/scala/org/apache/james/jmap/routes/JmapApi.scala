@@ -18,6 +18,8 @@
  ****************************************************************/
 package org.apache.james.jmap.routes
 
+import java.util.concurrent.atomic.AtomicReference
+
 import javax.inject.Inject
 import org.apache.james.jmap.core.CapabilityIdentifier.CapabilityIdentifier
 import org.apache.james.jmap.core.Invocation.MethodName
@@ -25,7 +27,6 @@ import org.apache.james.jmap.core.{CapabilityFactory, ErrorCode, Invocation, Mis
 import org.apache.james.jmap.method.{InvocationWithContext, Method}
 import org.apache.james.mailbox.MailboxSession
 import org.slf4j.{Logger, LoggerFactory}
-import reactor.core.publisher.Flux
 import reactor.core.scala.publisher.{SFlux, SMono}
 
 import scala.jdk.CollectionConverters._
@@ -44,33 +45,34 @@ class JMAPApi (methods: Set[Method], defaultCapabilities: Set[CapabilityIdentifi
   }
 
   def process(requestObject: RequestObject,
-              mailboxSession: MailboxSession): SMono[ResponseObject] = {
-    val processingContext: ProcessingContext = ProcessingContext(Map.empty, Map.empty)
+              mailboxSession: MailboxSession): SMono[ResponseObject] =
+    processInvocations(requestObject, mailboxSession)
+      .collectSeq()
+      .map(invocations => ResponseObject(ResponseObject.SESSION_STATE, invocations))
+
+  /**
+   * Emits the method responses as soon as they are computed, so that callers can stream them.
+   *
+   * Method calls are processed sequentially, each one being given the processing context of the previous one.
+   */
+  def processInvocations(requestObject: RequestObject,
+                         mailboxSession: MailboxSession): SFlux[Invocation] = {
     val unsupportedCapabilities = requestObject.using -- defaultCapabilities
     val capabilities: Set[CapabilityIdentifier] = requestObject.using
 
     if (unsupportedCapabilities.nonEmpty) {
-      SMono.error(UnsupportedCapabilitiesException(unsupportedCapabilities))
+      SFlux.error(UnsupportedCapabilitiesException(unsupportedCapabilities))
     } else {
-      processSequentiallyAndUpdateContext(requestObject, mailboxSession, processingContext, capabilities)
-        .map(invocations => ResponseObject(ResponseObject.SESSION_STATE, invocations.map(_.invocation)))
+      SFlux.defer {
+        val processingContext: AtomicReference[ProcessingContext] = new AtomicReference(ProcessingContext(Map.empty, Map.empty))
+        SFlux.fromIterable(requestObject.methodCalls)
+          .concatMap(methodCall => process(capabilities, mailboxSession, InvocationWithContext(methodCall, processingContext.get()))
+            .doOnNext(invocation => processingContext.set(invocation.processingContext)))
+          .map(_.invocation)
+      }
     }
   }
 
-  private def processSequentiallyAndUpdateContext(requestObject: RequestObject, mailboxSession: MailboxSession, processingContext: ProcessingContext, capabilities: Set[CapabilityIdentifier]): SMono[Seq[(InvocationWithContext)]] =
-    SFlux.fromIterable(requestObject.methodCalls)
-      .fold(List[SFlux[InvocationWithContext]]())((acc, elem) => {
-        val lastProcessingContext: SMono[ProcessingContext] = acc.headOption
-          .map(last => SMono.fromPublisher(Flux.from(last.map(_.processingContext)).last()))
-          .getOrElse(SMono.just(processingContext))
-        val invocation: SFlux[InvocationWithContext] = lastProcessingContext.flatMapMany(context => process(capabilities, mailboxSession, InvocationWithContext(elem, context)))
-        invocation.cache() :: acc
-      })
-      .map(_.reverse)
-      .flatMap(list => SFlux.fromIterable(list)
-        .concatMap(e => e)
-        .collectSeq())
-
   private def process(capabilities: Set[CapabilityIdentifier], mailboxSession: MailboxSession, invocation: InvocationWithContext) : SFlux[InvocationWithContext] =
     SFlux.fromPublisher(
       invocation.processingContext.resolveBackReferences(invocation.invocation) match {
@@ -25,6 +25,7 @@ import java.nio.charset.StandardCharsets
 import java.util.stream
 import java.util.stream.Stream
 
+import com.google.common.base.Throwables
 import io.netty.handler.codec.http.HttpHeaderNames.{CONTENT_LENGTH, CONTENT_TYPE}
 import io.netty.handler.codec.http.HttpResponseStatus.{BAD_REQUEST, CREATED, FORBIDDEN, INTERNAL_SERVER_ERROR, UNAUTHORIZED}
 import io.netty.handler.codec.http.{HttpMethod, HttpResponseStatus}
@@ -52,6 +53,8 @@ import reactor.core.publisher.Mono
 import reactor.core.scala.publisher.SMono
 import reactor.netty.http.server.{HttpServerRequest, HttpServerResponse}
 
+import scala.jdk.CollectionConverters._
+
 case class TooBigUploadException() extends RuntimeException
 
 object UploadRoutes {
@@ -95,7 +98,7 @@ class UploadRoutes @Inject()(@Named(InjectionKeys.RFC_8621) val authenticator: A
             respondDetails(e.addHeaders(response),
               ProblemDetails(status = UNAUTHORIZED, detail = e.getMessage),
               UNAUTHORIZED)
-          case _: TooBigUploadException =>
+          case e if isTooBigUpload(e) =>
             respondDetails(response,
               ProblemDetails(status = BAD_REQUEST, detail = "Attempt to upload exceed max size"),
               BAD_REQUEST)
@@ -170,6 +173,10 @@ class UploadRoutes @Inject()(@Named(InjectionKeys.RFC_8621) val authenticator: A
         size = uploadMetaData.size,
         accountId = accountId)
 
+  // BlobStoreDAO implementations and reactive operators may wrap the errors raised by the stream they are consuming
+  private def isTooBigUpload(throwable: Throwable): Boolean =
+    Throwables.getCausalChain(throwable).asScala.exists(_.isInstanceOf[TooBigUploadException])
+
   private def asBlobId(uploadId: UploadId): BlobId = BlobId.of(s"uploads-${uploadId.asString()}" ).get
 
   private def respondDetails(httpServerResponse: HttpServerResponse, details: ProblemDetails, statusCode: HttpResponseStatus = BAD_REQUEST): SMono[Void] =
@@ -28,21 +28,20 @@ import io.netty.handler.codec.http.HttpMethod
 import io.netty.handler.codec.http.websocketx.WebSocketFrame
 import javax.inject.{Inject, Named}
 import org.apache.james.core.Username
-import org.apache.james.events.{EventBus, Registration}
+import org.apache.james.events.Registration
 import org.apache.james.jmap.HttpConstants.JSON_CONTENT_TYPE
 import org.apache.james.jmap.JMAPUrls.JMAP_WS
 import org.apache.james.jmap.api.change.{EmailChangeRepository, MailboxChangeRepository, TypeStateFactory}
 import org.apache.james.jmap.api.model.{AccountId => JavaAccountId}
-import org.apache.james.jmap.change.{AccountIdRegistrationKey, StateChangeListener, _}
+import org.apache.james.jmap.change.{PushClient, PushFrame, PushHub, PushOverflowException, WebSocketPushFormat, _}
 import org.apache.james.jmap.core.{OutboundMessage, ProblemDetails, RequestId, WebSocketError, WebSocketPushDisable, WebSocketPushEnable, WebSocketRequest, WebSocketResponse, _}
 import org.apache.james.jmap.exceptions.UnauthorizedException
 import org.apache.james.jmap.http.rfc8621.InjectionKeys
 import org.apache.james.jmap.http.{Authenticator, UserProvisioning}
 import org.apache.james.jmap.json.{PushSerializer, ResponseSerializer}
-import org.apache.james.jmap.{Endpoint, JMAPRoute, JMAPRoutes, InjectionKeys => JMAPInjectionKeys}
+import org.apache.james.jmap.{Endpoint, JMAPRoute, JMAPRoutes}
 import org.apache.james.mailbox.MailboxSession
 import org.slf4j.{Logger, LoggerFactory}
-import play.api.libs.json.Json
 import reactor.core.publisher.Sinks.EmitFailureHandler.FAIL_FAST
 import reactor.core.publisher.{Mono, Sinks}
 import reactor.core.scala.publisher.{SFlux, SMono}
@@ -52,9 +51,10 @@ import reactor.netty.http.websocket.{WebsocketInbound, WebsocketOutbound}
 
 object WebSocketRoutes {
   val LOGGER: Logger = LoggerFactory.getLogger(classOf[WebSocketRoutes])
+  val TRY_AGAIN_LATER: Int = 1013
 }
 
-case class ClientContext(outbound: Sinks.Many[OutboundMessage], pushRegistration: AtomicReference[Registration], session: MailboxSession) {
+case class ClientContext(outbound: Sinks.Many[PushFrame], pushRegistration: AtomicReference[Registration], session: MailboxSession) {
   def withRegistration(registration: Registration): Unit = withRegistration(Some(registration))
 
   def clean(): Unit ={
@@ -70,7 +70,7 @@ case class ClientContext(outbound: Sinks.Many[OutboundMessage], pushRegistration
 
 class WebSocketRoutes @Inject() (@Named(InjectionKeys.RFC_8621) val authenticator: Authenticator,
                                  userProvisioner: UserProvisioning,
-                                 @Named(JMAPInjectionKeys.JMAP) eventBus: EventBus,
+                                 pushHub: PushHub,
                                  jmapApi: JMAPApi,
                                  mailboxChangeRepository: MailboxChangeRepository,
                                  emailChangeRepository: EmailChangeRepository,
@@ -98,7 +98,7 @@ class WebSocketRoutes @Inject() (@Named(InjectionKeys.RFC_8621) val authenticato
   }
 
   private def handleWebSocketConnection(session: MailboxSession)(in: WebsocketInbound, out: WebsocketOutbound): Mono[Void] = {
-    val sink: Sinks.Many[OutboundMessage] = Sinks.many().unicast().onBackpressureBuffer()
+    val sink: Sinks.Many[PushFrame] = PushClient.sink()
 
     val context = ClientContext(sink, new AtomicReference[Registration](), session)
     val responseFlux: SFlux[OutboundMessage] = SFlux[WebSocketFrame](in.aggregateFrames()
@@ -113,10 +113,14 @@ class WebSocketRoutes @Inject() (@Named(InjectionKeys.RFC_8621) val authenticato
       .doOnCancel(context.clean)
 
     out.sendString(
-      SFlux.merge(Seq(responseFlux, sink.asFlux()))
-        .map(pushSerializer.serialize)
-        .map(Json.stringify))
+      SFlux.merge(Seq(
+        responseFlux.map(WebSocketPushFormat.serialize(pushSerializer, _)),
+        SFlux(sink.asFlux()).map(_.payload))))
       .`then`()
+      .onErrorResume((e: Throwable) => e match {
+        case _: PushOverflowException => out.sendClose(WebSocketRoutes.TRY_AGAIN_LATER, "Push notifications overflowed")
+        case _ => Mono.error[Void](e)
+      })
   }
 
   private def handleClientMessages(clientContext: ClientContext)(message: String): SMono[OutboundMessage] =
@@ -130,9 +134,8 @@ class WebSocketRoutes @Inject() (@Named(InjectionKeys.RFC_8621) val authenticato
               .map[OutboundMessage](WebSocketResponse(request.id, _))
               .onErrorResume(e => SMono.just(asError(request.id)(e)))
           case pushEnable: WebSocketPushEnable =>
-            SMono(eventBus.register(
-                StateChangeListener(pushEnable.dataTypes.getOrElse(typeStateFactory.all.toSet), clientContext.outbound),
-                AccountIdRegistrationKey.of(clientContext.session.getUser)))
+            pushHub.subscribe(clientContext.session.getUser,
+                new PushClient(pushEnable.dataTypes.getOrElse(typeStateFactory.all.toSet), WebSocketPushFormat, clientContext.outbound))
               .doOnNext(newRegistration => clientContext.withRegistration(newRegistration))
               .`then`(sendPushStateIfRequested(pushEnable, clientContext))
           case WebSocketPushDisable => SMono.fromCallable(() => clientContext.clean())
@@ -19,6 +19,8 @@
 
 package org.apache.james.jmap.utils.quotas
 
+import java.util.concurrent.ConcurrentHashMap
+
 import javax.inject.Inject
 import org.apache.james.jmap.mail.{QuotaRoot, Quotas}
 import org.apache.james.mailbox.MailboxSession
@@ -47,11 +49,14 @@ class QuotaLoaderWithPreloadedDefault(quotaRootResolver: UserQuotaRootResolver,
                                       quotaReader: QuotaReader,
                                       session: MailboxSession,
                                       preloadedUserDefaultQuotas: Quotas) extends QuotaLoader {
+  // Delegated mailboxes of a same owner share their quota root: read it once per loader
+  private val loadedQuotas: ConcurrentHashMap[ModelQuotaRoot, SMono[Quotas]] = new ConcurrentHashMap()
+
   override def getQuotas(mailboxPath: MailboxPath): SMono[Quotas] =
     if (mailboxPath.belongsTo(session)) {
       SMono.just(preloadedUserDefaultQuotas)
     } else {
       val quotaRoot: ModelQuotaRoot = quotaRootResolver.getQuotaRoot(mailboxPath)
-      quotaReader.retrieveQuotas(QuotaRoot.toJmap(quotaRoot))
+      loadedQuotas.computeIfAbsent(quotaRoot, root => quotaReader.retrieveQuotas(QuotaRoot.toJmap(root)).cache())
     }
 }
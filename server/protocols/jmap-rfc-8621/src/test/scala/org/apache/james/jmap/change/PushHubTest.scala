@@ -0,0 +1,173 @@
+/***************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.jmap.change
+
+import com.google.common.collect.ImmutableSet
+import org.apache.james.core.Username
+import org.apache.james.events.Event.EventId
+import org.apache.james.events.delivery.InVmEventDelivery
+import org.apache.james.events.{EventListener, InVMEventBus, MemoryEventDeadLetters, Registration, RegistrationKey, RetryBackoffConfiguration}
+import org.apache.james.jmap.api.change.TypeStateFactory
+import org.apache.james.jmap.api.model.TypeName
+import org.apache.james.jmap.core.UuidState
+import org.apache.james.jmap.json.PushSerializer
+import org.apache.james.metrics.tests.RecordingMetricFactory
+import org.assertj.core.api.Assertions.{assertThat, assertThatThrownBy}
+import org.junit.jupiter.api.{BeforeEach, Test}
+import org.mockito.ArgumentMatchers.any
+import org.mockito.Mockito.{doAnswer, spy}
+import org.mockito.invocation.InvocationOnMock
+import reactor.core.publisher.Mono
+import reactor.core.publisher.Sinks.EmitFailureHandler
+import reactor.core.scala.publisher.SMono
+
+class PushHubTest {
+  private val bob = Username.of("bob")
+  private val mailboxState = UuidState.fromStringUnchecked("2f9f1b12-b35a-43e6-9af2-0106fb53a943")
+  private val emailState = UuidState.fromStringUnchecked("2d9f1b12-b35a-43e6-9af2-0106fb53a943")
+  private val event = StateChangeEvent(eventId = EventId.of("6e0dd59d-660e-4d9b-b22f-0354479f47b4"),
+    username = bob,
+    map = Map(MailboxTypeName -> mailboxState, EmailTypeName -> emailState))
+
+  var eventBus: InVMEventBus = _
+  var metricFactory: RecordingMetricFactory = _
+  var testee: PushHub = _
+
+  @BeforeEach
+  def setUp(): Unit = {
+    metricFactory = new RecordingMetricFactory
+    eventBus = new InVMEventBus(new InVmEventDelivery(metricFactory), RetryBackoffConfiguration.DEFAULT, new MemoryEventDeadLetters)
+    testee = new PushHub(eventBus,
+      PushSerializer(TypeStateFactory(ImmutableSet.of[TypeName](MailboxTypeName, EmailTypeName))),
+      metricFactory)
+  }
+
+  @Test
+  def stateChangesShouldBeSerializedOnceForClientsSharingTheSameFilter(): Unit = {
+    val client1 = new PushClient(Set(MailboxTypeName, EmailTypeName), WebSocketPushFormat, PushClient.sink())
+    val client2 = new PushClient(Set(MailboxTypeName, EmailTypeName), WebSocketPushFormat, PushClient.sink())
+    testee.subscribe(bob, client1).block()
+    testee.subscribe(bob, client2).block()
+
+    SMono(eventBus.dispatch(event, AccountIdRegistrationKey.of(bob))).block()
+
+    val frame1 = nextFrame(client1)
+    val frame2 = nextFrame(client2)
+    assertThat(frame1).isSameAs(frame2)
+    assertThat(frame1.payload).contains("StateChange")
+  }
+
+  @Test
+  def stateChangesShouldOmitUnwantedTypes(): Unit = {
+    val client = new PushClient(Set(MailboxTypeName), EventSourcePushFormat, PushClient.sink())
+    testee.subscribe(bob, client).block()
+
+    SMono(eventBus.dispatch(event, AccountIdRegistrationKey.of(bob))).block()
+
+    val frame = nextFrame(client)
+    assertThat(frame.payload)
+      .startsWith("event: state\n")
+      .contains("Mailbox")
+      .doesNotContain("Email")
+  }
+
+  @Test
+  def stateChangesShouldNotBeSentWhenNoWantedTypeChanged(): Unit = {
+    val client = new PushClient(Set(EmailDeliveryTypeName), WebSocketPushFormat, PushClient.sink())
+    testee.subscribe(bob, client).block()
+
+    SMono(eventBus.dispatch(event, AccountIdRegistrationKey.of(bob))).block()
+
+    client.sink.emitComplete(EmitFailureHandler.FAIL_FAST)
+    assertThat(client.sink.asFlux().collectList().block()).isEmpty()
+  }
+
+  @Test
+  def stateChangesShouldNotBeSentAfterUnregistering(): Unit = {
+    val client = new PushClient(Set(MailboxTypeName), WebSocketPushFormat, PushClient.sink())
+    val registration = testee.subscribe(bob, client).block()
+    SMono(registration.unregister()).block()
+
+    SMono(eventBus.dispatch(event, AccountIdRegistrationKey.of(bob))).block()
+
+    client.sink.emitComplete(EmitFailureHandler.FAIL_FAST)
+    assertThat(client.sink.asFlux().collectList().block()).isEmpty()
+  }
+
+  @Test
+  def activeConnectionsShouldBeTracked(): Unit = {
+    val client1 = new PushClient(Set(MailboxTypeName), WebSocketPushFormat, PushClient.sink())
+    val client2 = new PushClient(Set(MailboxTypeName), WebSocketPushFormat, PushClient.sink())
+    val registration = testee.subscribe(bob, client1).block()
+    testee.subscribe(bob, client2).block()
+    SMono(registration.unregister()).block()
+
+    assertThat(metricFactory.countFor(PushHub.ACTIVE_CONNECTIONS_METRIC_NAME)).isEqualTo(1)
+  }
+
+  @Test
+  def slowConsumersShouldBeClosedInsteadOfLosingFrames(): Unit = {
+    val client = new PushClient(Set(MailboxTypeName), WebSocketPushFormat, PushClient.sink())
+    testee.subscribe(bob, client).block()
+
+    (0 to PushHub.BUFFER_SIZE).foreach(_ => SMono(eventBus.dispatch(event, AccountIdRegistrationKey.of(bob))).block())
+
+    assertThat(metricFactory.countFor(PushHub.OVERFLOWED_CONNECTIONS_METRIC_NAME)).isEqualTo(1)
+    assertThatThrownBy(() => client.sink.asFlux().blockLast())
+      .isInstanceOf(classOf[PushOverflowException])
+  }
+
+  @Test
+  def failedRegistrationsShouldNotBeCached(): Unit = {
+    val failingEventBus = spy(eventBus)
+    doAnswer((_: InvocationOnMock) => Mono.error[Registration](new RuntimeException("boom")))
+      .doCallRealMethod()
+      .when(failingEventBus).register(any[EventListener.ReactiveEventListener](), any[RegistrationKey]())
+    testee = new PushHub(failingEventBus,
+      PushSerializer(TypeStateFactory(ImmutableSet.of[TypeName](MailboxTypeName, EmailTypeName))),
+      metricFactory)
+    val client = new PushClient(Set(MailboxTypeName), WebSocketPushFormat, PushClient.sink())
+
+    assertThatThrownBy(() => testee.subscribe(bob, client).block())
+      .hasMessage("boom")
+    testee.subscribe(bob, client).block()
+    SMono(eventBus.dispatch(event, AccountIdRegistrationKey.of(bob))).block()
+
+    assertThat(nextFrame(client).payload).contains("StateChange")
+  }
+
+  @Test
+  def failedRegistrationsShouldRemoveTheClient(): Unit = {
+    val failingEventBus = spy(eventBus)
+    doAnswer((_: InvocationOnMock) => Mono.error[Registration](new RuntimeException("boom")))
+      .when(failingEventBus).register(any[EventListener.ReactiveEventListener](), any[RegistrationKey]())
+    testee = new PushHub(failingEventBus,
+      PushSerializer(TypeStateFactory(ImmutableSet.of[TypeName](MailboxTypeName, EmailTypeName))),
+      metricFactory)
+
+    assertThatThrownBy(() => testee.subscribe(bob, new PushClient(Set(MailboxTypeName), WebSocketPushFormat, PushClient.sink())).block())
+      .hasMessage("boom")
+
+    assertThat(metricFactory.countFor(PushHub.ACTIVE_CONNECTIONS_METRIC_NAME)).isEqualTo(0)
+  }
+
+  private def nextFrame(client: PushClient): PushFrame =
+    client.sink.asFlux().next().block()
+}
@@ -92,5 +92,33 @@ class ResponseObjectSerializationTest extends AnyWordSpec with Matchers {
 
       ResponseSerializer.serialize(responseObject) should be(Json.parse(expectedJson))
     }
+    }
+
+  "Serialize ResponseObject as chunks" should {
+    "be equivalent to the full serialization" in {
+      val responseObject: ResponseObject = ResponseObject(
+        sessionState = UuidState.INSTANCE,
+        methodResponses = Seq(invocation1, invocation2))
+
+      val chunks: Seq[Array[Byte]] = ResponseSerializer.serializeChunks(responseObject).toSeq
+
+      Json.parse(chunks.flatten.toArray) should be(ResponseSerializer.serialize(responseObject))
+    }
+
+    "serialize each invocation in its own chunk" in {
+      val responseObject: ResponseObject = ResponseObject(
+        sessionState = UuidState.INSTANCE,
+        methodResponses = Seq(invocation1, invocation2))
+
+      ResponseSerializer.serializeChunks(responseObject).size should be(4)
+    }
+
+    "support empty responses" in {
+      val responseObject: ResponseObject = ResponseObject(
+        sessionState = UuidState.INSTANCE,
+        methodResponses = Seq())
+
+      Json.parse(ResponseSerializer.serializeChunks(responseObject).toSeq.flatten.toArray) should be(ResponseSerializer.serialize(responseObject))
+    }
   }
 }
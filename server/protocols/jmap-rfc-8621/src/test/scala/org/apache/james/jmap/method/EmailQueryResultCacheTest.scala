@@ -0,0 +1,117 @@
+/** **************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ * *
+ * http://www.apache.org/licenses/LICENSE-2.0                 *
+ * *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ * ***************************************************************/
+package org.apache.james.jmap.method
+
+import java.time.ZonedDateTime
+import java.util.UUID
+import java.util.concurrent.atomic.AtomicInteger
+
+import org.apache.james.core.Username
+import org.apache.james.jmap.api.change.{EmailChange, Limit, State}
+import org.apache.james.jmap.api.model.AccountId
+import org.apache.james.jmap.core.JmapRfc8621Configuration
+import org.apache.james.jmap.memory.change.{MemoryEmailChangeRepository, MemoryMailboxChangeRepository}
+import org.apache.james.jmap.method.EmailQueryResultCache.Key
+import org.apache.james.mailbox.MailboxSessionUtil
+import org.apache.james.mailbox.model.{MessageId, TestMessageId}
+import org.apache.james.metrics.tests.RecordingMetricFactory
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.{BeforeEach, Test}
+import reactor.core.scala.publisher.SMono
+
+class EmailQueryResultCacheTest {
+  private val bob = Username.of("bob")
+  private val session = MailboxSessionUtil.create(bob)
+  private val key = Key(bob, None, None, Set(), 0, 10)
+  private val enabledConfiguration = JmapRfc8621Configuration.LOCALHOST_CONFIGURATION.copy(emailQueryCacheEnabled = true)
+
+  var emailChangeRepository: MemoryEmailChangeRepository = _
+  var mailboxChangeRepository: MemoryMailboxChangeRepository = _
+  var metricFactory: RecordingMetricFactory = _
+  var computations: AtomicInteger = _
+
+  @BeforeEach
+  def setUp(): Unit = {
+    emailChangeRepository = new MemoryEmailChangeRepository(Limit.of(5))
+    mailboxChangeRepository = new MemoryMailboxChangeRepository(Limit.of(5))
+    metricFactory = new RecordingMetricFactory
+    computations = new AtomicInteger()
+  }
+
+  @Test
+  def cachedResultsShouldBeServedWhileStateDoesNotChange(): Unit = {
+    val testee = cache(enabledConfiguration)
+
+    query(testee)
+    val ids = query(testee)
+
+    assertThat(computations.get()).isEqualTo(1)
+    assertThat(ids).isEqualTo(Seq(TestMessageId.of(1)))
+    assertThat(metricFactory.countFor(EmailQueryResultCache.HIT_COUNT_METRIC_NAME)).isEqualTo(1)
+  }
+
+  @Test
+  def cachedResultsShouldBeRecomputedWhenEmailStateChanges(): Unit = {
+    val testee = cache(enabledConfiguration)
+
+    query(testee)
+    emailChangeRepository.save(EmailChange.builder()
+        .accountId(AccountId.fromUsername(bob))
+        .state(State.of(UUID.randomUUID()))
+        .date(ZonedDateTime.now)
+        .isDelegated(false)
+        .created(TestMessageId.of(2))
+        .build)
+      .block()
+    query(testee)
+
+    assertThat(computations.get()).isEqualTo(2)
+  }
+
+  @Test
+  def cachedResultsShouldBeScopedToTheirKey(): Unit = {
+    val testee = cache(enabledConfiguration)
+
+    query(testee)
+    testee.getOrCompute(key.copy(position = 10), session)(compute()).block()
+
+    assertThat(computations.get()).isEqualTo(2)
+  }
+
+  @Test
+  def resultsShouldNotBeCachedWhenDisabled(): Unit = {
+    val testee = cache(JmapRfc8621Configuration.LOCALHOST_CONFIGURATION)
+
+    query(testee)
+    query(testee)
+
+    assertThat(computations.get()).isEqualTo(2)
+  }
+
+  private def cache(configuration: JmapRfc8621Configuration): EmailQueryResultCache =
+    new EmailQueryResultCache(configuration, mailboxChangeRepository, emailChangeRepository, metricFactory)
+
+  private def query(testee: EmailQueryResultCache): Seq[MessageId] =
+    testee.getOrCompute(key, session)(compute()).block()
+
+  private def compute(): SMono[Seq[MessageId]] = SMono.fromCallable(() => {
+    computations.incrementAndGet()
+    Seq[MessageId](TestMessageId.of(1))
+  })
+}
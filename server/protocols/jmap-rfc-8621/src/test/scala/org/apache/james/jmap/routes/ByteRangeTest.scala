@@ -0,0 +1,85 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you May not use this file except in compliance   *
+ * with the License.  You May obtain a copy of the License at   *
+ *                                                              *
+ * http://www.apache.org/licenses/LICENSE-2.0                   *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ * ***************************************************************/
+
+package org.apache.james.jmap.routes
+
+import org.scalatest.matchers.must.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class ByteRangeTest extends AnyWordSpec with Matchers {
+  "select" should {
+    "return full content when no range is requested" in {
+      ByteRange.select(None, 100) must equal(FullContent)
+    }
+
+    "select the requested bytes" in {
+      ByteRange.select(Some("bytes=10-19"), 100) must equal(PartialContent(ByteRange(10, 19), 100))
+    }
+
+    "truncate the range to the last byte" in {
+      ByteRange.select(Some("bytes=90-199"), 100) must equal(PartialContent(ByteRange(90, 99), 100))
+    }
+
+    "select up to the last byte when the end is omitted" in {
+      ByteRange.select(Some("bytes=90-"), 100) must equal(PartialContent(ByteRange(90, 99), 100))
+    }
+
+    "select the last bytes for suffix ranges" in {
+      ByteRange.select(Some("bytes=-10"), 100) must equal(PartialContent(ByteRange(90, 99), 100))
+    }
+
+    "select the full content for suffix ranges exceeding the size" in {
+      ByteRange.select(Some("bytes=-500"), 100) must equal(PartialContent(ByteRange(0, 99), 100))
+    }
+
+    "not overflow with huge values" in {
+      ByteRange.select(Some("bytes=10-99999999999999999999999"), 100) must equal(PartialContent(ByteRange(10, 99), 100))
+    }
+
+    "be unsatisfiable when the start exceeds the size" in {
+      ByteRange.select(Some("bytes=100-"), 100) must equal(UnsatisfiableRange(100))
+    }
+
+    "be unsatisfiable for empty suffix ranges" in {
+      ByteRange.select(Some("bytes=-0"), 100) must equal(UnsatisfiableRange(100))
+    }
+
+    "be unsatisfiable for empty blobs" in {
+      ByteRange.select(Some("bytes=0-"), 0) must equal(UnsatisfiableRange(0))
+    }
+
+    "ignore ranges whose end precedes their start" in {
+      ByteRange.select(Some("bytes=20-10"), 100) must equal(FullContent)
+    }
+
+    "ignore multiple ranges" in {
+      ByteRange.select(Some("bytes=0-10,20-30"), 100) must equal(FullContent)
+    }
+
+    "ignore other units" in {
+      ByteRange.select(Some("items=0-10"), 100) must equal(FullContent)
+    }
+  }
+
+  "asContentRange" should {
+    "render the range and the size" in {
+      ByteRange(10, 19).asContentRange(100) must equal("bytes 10-19/100")
+    }
+  }
+}
@@ -48,7 +48,7 @@ import org.apache.james.mailbox.extension.PreDeletionHook
 import org.apache.james.mailbox.inmemory.{InMemoryMailboxManager, MemoryMailboxManagerProvider}
 import org.apache.james.metrics.tests.RecordingMetricFactory
 import org.apache.james.user.memory.MemoryUsersRepository
-import org.hamcrest.Matchers.equalTo
+import org.hamcrest.Matchers.{equalTo, nullValue}
 import org.mockito.ArgumentMatchers.any
 import org.mockito.Mockito.{doReturn, mock, when}
 import org.scalatest.BeforeAndAfter
@@ -323,6 +323,30 @@ class JMAPApiRoutesTest extends AnyFlatSpec with BeforeAndAfter with Matchers {
     assertThatJson(response).isEqualTo(RESPONSE_OBJECT)
   }
 
+  "RFC-8621 version, POST, with large responses" should "stream the ResponseObject" in {
+    val headers: Headers = Headers.headers(
+      new Header(ACCEPT.toString, ACCEPT_RFC8621_VERSION_HEADER),
+      new Header("Authorization", s"Basic ${userBase64String}")
+    )
+    val largeArgument: String = "a" * (2 * JMAPApiRoutes.STREAMING_THRESHOLD)
+
+    val response = RestAssured
+      .`given`()
+        .headers(headers)
+        .body(REQUEST_OBJECT.replace("arg1data", largeArgument))
+      .when()
+        .post()
+      .`then`
+        .statusCode(HttpStatus.SC_OK)
+        .contentType(ContentType.JSON)
+        .header("Content-Length", nullValue())
+      .extract()
+        .body()
+        .asString()
+
+    assertThatJson(response).isEqualTo(RESPONSE_OBJECT.replace("arg1data", largeArgument))
+  }
+
   "RFC-8621 version, POST, with methods" should "return OK status, ResponseObject depend on method" in {
 
     val headers: Headers = Headers.headers(
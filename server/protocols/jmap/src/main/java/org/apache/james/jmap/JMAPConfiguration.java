@@ -34,10 +34,13 @@ public class JMAPConfiguration {
     public static class Builder {
         private Optional<Boolean> enabled = Optional.empty();
         private Optional<Boolean> emailQueryViewEnabled = Optional.empty();
+        private Optional<Boolean> emailQueryViewFilteringEnabled = Optional.empty();
         private Optional<Boolean> userProvisioningEnabled = Optional.empty();
         private Optional<Port> port = Optional.empty();
         private Optional<Version> defaultVersion = Optional.empty();
         private Optional<Long> maximumSendSize = Optional.empty();
+        private Optional<Boolean> compressionEnabled = Optional.empty();
+        private Optional<Integer> compressionMinimumSize = Optional.empty();
 
         private Builder() {
 
@@ -65,6 +68,15 @@ public class JMAPConfiguration {
             return this;
         }
 
+        public Builder enableEmailQueryViewFiltering(Optional<Boolean> enabled) {
+            this.emailQueryViewFilteringEnabled = enabled;
+            return this;
+        }
+
+        public Builder enableEmailQueryViewFiltering() {
+            return enableEmailQueryViewFiltering(Optional.of(true));
+        }
+
         public Builder userProvisioningEnabled(boolean enabled) {
             return userProvisioningEnabled(Optional.of(enabled));
         }
@@ -114,31 +126,55 @@ public class JMAPConfiguration {
             return this;
         }
 
+        public Builder compressionEnabled(Optional<Boolean> compressionEnabled) {
+            this.compressionEnabled = compressionEnabled;
+            return this;
+        }
+
+        public Builder enableCompression() {
+            return compressionEnabled(Optional.of(true));
+        }
+
+        public Builder compressionMinimumSize(Optional<Integer> compressionMinimumSize) {
+            this.compressionMinimumSize = compressionMinimumSize;
+            return this;
+        }
+
         public JMAPConfiguration build() {
             Preconditions.checkState(enabled.isPresent(), "You should specify if JMAP server should be started");
+            compressionMinimumSize.ifPresent(size -> Preconditions.checkArgument(size >= 0, "'compressionMinimumSize' should not be negative"));
             return new JMAPConfiguration(enabled.get(), port, emailQueryViewEnabled.orElse(false),
-                userProvisioningEnabled.orElse(true),
-                defaultVersion.orElse(Version.DRAFT), maximumSendSize);
+                emailQueryViewFilteringEnabled.orElse(false), userProvisioningEnabled.orElse(true),
+                defaultVersion.orElse(Version.DRAFT), maximumSendSize,
+                compressionEnabled.orElse(false), compressionMinimumSize.orElse(DEFAULT_COMPRESSION_MINIMUM_SIZE));
         }
     }
 
+    public static final int DEFAULT_COMPRESSION_MINIMUM_SIZE = 1024;
     public static JMAPConfiguration DEFAULT = JMAPConfiguration.builder().enable().build();
 
     private final boolean enabled;
     private final Optional<Port> port;
     private final boolean emailQueryViewEnabled;
+    private final boolean emailQueryViewFilteringEnabled;
     private final boolean userProvisioningEnabled;
     private final Version defaultVersion;
     private final Optional<Long> maximumSendSize;
+    private final boolean compressionEnabled;
+    private final int compressionMinimumSize;
 
     @VisibleForTesting
-    JMAPConfiguration(boolean enabled, Optional<Port> port, boolean emailQueryViewEnabled, boolean userProvisioningEnabled, Version defaultVersion, Optional<Long> maximumSendSize) {
+    JMAPConfiguration(boolean enabled, Optional<Port> port, boolean emailQueryViewEnabled, boolean emailQueryViewFilteringEnabled, boolean userProvisioningEnabled, Version defaultVersion, Optional<Long> maximumSendSize,
+                      boolean compressionEnabled, int compressionMinimumSize) {
         this.enabled = enabled;
         this.port = port;
         this.emailQueryViewEnabled = emailQueryViewEnabled;
+        this.emailQueryViewFilteringEnabled = emailQueryViewFilteringEnabled;
         this.userProvisioningEnabled = userProvisioningEnabled;
         this.defaultVersion = defaultVersion;
         this.maximumSendSize = maximumSendSize;
+        this.compressionEnabled = compressionEnabled;
+        this.compressionMinimumSize = compressionMinimumSize;
     }
 
     public boolean isEnabled() {
@@ -153,6 +189,10 @@ public class JMAPConfiguration {
         return emailQueryViewEnabled;
     }
 
+    public boolean isEmailQueryViewFilteringEnabled() {
+        return emailQueryViewEnabled && emailQueryViewFilteringEnabled;
+    }
+
     public boolean isUserProvisioningEnabled() {
         return userProvisioningEnabled;
     }
@@ -164,4 +204,12 @@ public class JMAPConfiguration {
     public Optional<Long> getMaximumSendSize() {
         return maximumSendSize;
     }
+
+    public boolean isCompressionEnabled() {
+        return compressionEnabled;
+    }
+
+    public int getCompressionMinimumSize() {
+        return compressionMinimumSize;
+    }
 }
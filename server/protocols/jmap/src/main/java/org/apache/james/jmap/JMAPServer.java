@@ -40,6 +40,7 @@ import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.Multimap;
 
 import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.QueryStringDecoder;
 import reactor.netty.DisposableServer;
 import reactor.netty.http.server.HttpServer;
 import reactor.netty.http.server.HttpServerRequest;
@@ -84,7 +85,7 @@ public class JMAPServer implements Startable {
 
     public void start() {
         if (configuration.isEnabled()) {
-            server = Optional.of(HttpServer.create()
+            server = Optional.of(configureCompression(HttpServer.create())
                 .port(configuration.getPort()
                     .map(Port::getValue)
                     .orElse(RANDOM_PORT))
@@ -94,6 +95,26 @@ public class JMAPServer implements Startable {
         }
     }
 
+    /**
+     * gzip and deflate content encodings are negotiated with the client, as well as brotli when
+     * com.aayushatharva.brotli4j is on the classpath. Responses whose Content-Length is below the minimum size
+     * are not compressed.
+     *
+     * Only API responses are compressed: other routes serve binary content, like blobs, that compression would not shrink.
+     */
+    private HttpServer configureCompression(HttpServer httpServer) {
+        if (configuration.isCompressionEnabled()) {
+            return httpServer.compress(configuration.getCompressionMinimumSize())
+                .compress((request, response) -> isApiRequest(request));
+        }
+        return httpServer;
+    }
+
+    private boolean isApiRequest(HttpServerRequest request) {
+        return request.method().equals(HttpMethod.POST)
+            && new QueryStringDecoder(request.uri()).path().equals(JMAPUrls.JMAP);
+    }
+
     private boolean wireTapEnabled() {
         return LoggerFactory.getLogger("org.apache.james.jmap.wire").isTraceEnabled();
     }
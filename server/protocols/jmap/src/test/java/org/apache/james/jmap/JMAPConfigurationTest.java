@@ -41,7 +41,7 @@ class JMAPConfigurationTest {
 
     @Test
     void buildShouldWorkWhenRandomPort() {
-        JMAPConfiguration expectedJMAPConfiguration = new JMAPConfiguration(ENABLED, Optional.empty(), ENABLED, ENABLED, Version.DRAFT, Optional.empty());
+        JMAPConfiguration expectedJMAPConfiguration = new JMAPConfiguration(ENABLED, Optional.empty(), ENABLED, DISABLED, ENABLED, Version.DRAFT, Optional.empty(), DISABLED, JMAPConfiguration.DEFAULT_COMPRESSION_MINIMUM_SIZE);
 
         JMAPConfiguration jmapConfiguration = JMAPConfiguration.builder()
             .enable()
@@ -53,7 +53,7 @@ class JMAPConfigurationTest {
 
     @Test
     void buildShouldWorkWhenFixedPort() {
-        JMAPConfiguration expectedJMAPConfiguration = new JMAPConfiguration(ENABLED, Optional.of(Port.of(80)), ENABLED, ENABLED, Version.DRAFT, Optional.empty());
+        JMAPConfiguration expectedJMAPConfiguration = new JMAPConfiguration(ENABLED, Optional.of(Port.of(80)), ENABLED, DISABLED, ENABLED, Version.DRAFT, Optional.empty(), DISABLED, JMAPConfiguration.DEFAULT_COMPRESSION_MINIMUM_SIZE);
 
         JMAPConfiguration jmapConfiguration = JMAPConfiguration.builder()
             .enable()
@@ -67,7 +67,7 @@ class JMAPConfigurationTest {
 
     @Test
     void buildShouldWorkWhenDisabled() {
-        JMAPConfiguration expectedJMAPConfiguration = new JMAPConfiguration(DISABLED, Optional.empty(), DISABLED, DISABLED, Version.DRAFT, Optional.empty());
+        JMAPConfiguration expectedJMAPConfiguration = new JMAPConfiguration(DISABLED, Optional.empty(), DISABLED, DISABLED, DISABLED, Version.DRAFT, Optional.empty(), DISABLED, JMAPConfiguration.DEFAULT_COMPRESSION_MINIMUM_SIZE);
 
         JMAPConfiguration jmapConfiguration = JMAPConfiguration.builder()
             .disable()
@@ -76,4 +76,46 @@ class JMAPConfigurationTest {
             .build();
         assertThat(jmapConfiguration).isEqualToComparingFieldByField(expectedJMAPConfiguration);
     }
+
+    @Test
+    void buildShouldWorkWhenCompressionEnabled() {
+        JMAPConfiguration expectedJMAPConfiguration = new JMAPConfiguration(ENABLED, Optional.empty(), DISABLED, DISABLED, ENABLED, Version.DRAFT, Optional.empty(), ENABLED, 2048);
+
+        JMAPConfiguration jmapConfiguration = JMAPConfiguration.builder()
+            .enable()
+            .enableCompression()
+            .compressionMinimumSize(Optional.of(2048))
+            .build();
+        assertThat(jmapConfiguration).isEqualToComparingFieldByField(expectedJMAPConfiguration);
+    }
+
+    @Test
+    void emailQueryViewFilteringShouldRequireEmailQueryView() {
+        JMAPConfiguration jmapConfiguration = JMAPConfiguration.builder()
+            .enable()
+            .enableEmailQueryViewFiltering()
+            .build();
+
+        assertThat(jmapConfiguration.isEmailQueryViewFilteringEnabled()).isFalse();
+    }
+
+    @Test
+    void emailQueryViewFilteringShouldBeEnabledAlongWithEmailQueryView() {
+        JMAPConfiguration jmapConfiguration = JMAPConfiguration.builder()
+            .enable()
+            .enableEmailQueryView()
+            .enableEmailQueryViewFiltering()
+            .build();
+
+        assertThat(jmapConfiguration.isEmailQueryViewFilteringEnabled()).isTrue();
+    }
+
+    @Test
+    void buildShouldThrowWhenNegativeCompressionMinimumSize() {
+        assertThatThrownBy(() -> JMAPConfiguration.builder()
+                .enable()
+                .compressionMinimumSize(Optional.of(-1))
+                .build())
+            .isInstanceOf(IllegalArgumentException.class);
+    }
 }
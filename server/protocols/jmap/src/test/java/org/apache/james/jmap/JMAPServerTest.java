@@ -20,6 +20,7 @@
 package org.apache.james.jmap;
 
 import static io.netty.handler.codec.http.HttpHeaderNames.ACCEPT;
+import static io.netty.handler.codec.http.HttpHeaderNames.CONTENT_LENGTH;
 import static io.netty.handler.codec.http.HttpHeaderNames.CONTENT_TYPE;
 import static io.restassured.RestAssured.given;
 import static io.restassured.RestAssured.when;
@@ -29,6 +30,7 @@ import static org.apache.james.jmap.HttpConstants.JSON_CONTENT_TYPE_UTF8;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Set;
@@ -39,6 +41,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableSet;
 
 import io.netty.handler.codec.http.HttpMethod;
@@ -272,6 +275,123 @@ class JMAPServerTest {
         }
     }
 
+    @Nested
+    class CompressionTest {
+        private final String bigBody = "{\"value\":\"" + Strings.repeat("a", 4096) + "\"}";
+        private final String smallBody = "{\"value\":\"a\"}";
+        private final ImmutableSet<JMAPRoutesHandler> routesHandlers = ImmutableSet.of(
+            new JMAPRoutesHandler(
+                Version.RFC8621,
+                () -> Stream.of(
+                    JMAPRoute.builder()
+                        .endpoint(Endpoint.ofFixedPath(HttpMethod.POST, JMAPUrls.JMAP))
+                        .action((request, response) -> request.receive().aggregate().asString(StandardCharsets.UTF_8)
+                            .flatMap(body -> send(response, body)))
+                        .noCorsHeaders(),
+                    JMAPRoute.builder()
+                        .endpoint(Endpoint.ofFixedPath(HttpMethod.GET, "/big"))
+                        .action((request, response) -> send(response, bigBody))
+                        .noCorsHeaders())));
+
+        JMAPServer server;
+
+        @AfterEach
+        void tearDown() {
+            server.stop();
+        }
+
+        @Test
+        void bigResponsesShouldBeCompressedWhenEnabled() {
+            start(JMAPConfiguration.builder()
+                .enable()
+                .randomPort()
+                .enableCompression()
+                .build());
+
+            given()
+                .header("Accept-Encoding", "gzip")
+                .body(bigBody)
+            .when()
+                .post(JMAPUrls.JMAP)
+            .then()
+                .statusCode(200)
+                .header("Content-Encoding", "gzip")
+                .body(is(bigBody));
+        }
+
+        @Test
+        void responsesBelowTheMinimumSizeShouldNotBeCompressed() {
+            start(JMAPConfiguration.builder()
+                .enable()
+                .randomPort()
+                .enableCompression()
+                .build());
+
+            given()
+                .header("Accept-Encoding", "gzip")
+                .body(smallBody)
+            .when()
+                .post(JMAPUrls.JMAP)
+            .then()
+                .statusCode(200)
+                .header("Content-Encoding", nullValue())
+                .body(is(smallBody));
+        }
+
+        @Test
+        void responsesShouldNotBeCompressedByDefault() {
+            start(TEST_CONFIGURATION);
+
+            given()
+                .header("Accept-Encoding", "gzip")
+                .body(bigBody)
+            .when()
+                .post(JMAPUrls.JMAP)
+            .then()
+                .statusCode(200)
+                .header("Content-Encoding", nullValue())
+                .body(is(bigBody));
+        }
+
+        @Test
+        void responsesOfOtherRoutesShouldNotBeCompressed() {
+            start(JMAPConfiguration.builder()
+                .enable()
+                .randomPort()
+                .enableCompression()
+                .build());
+
+            given()
+                .header("Accept-Encoding", "gzip")
+            .when()
+                .get("/big")
+            .then()
+                .statusCode(200)
+                .header("Content-Encoding", nullValue())
+                .body(is(bigBody));
+        }
+
+        private void start(JMAPConfiguration configuration) {
+            VersionParser versionParser = new VersionParser(SUPPORTED_VERSIONS, JMAPConfiguration.DEFAULT);
+            server = new JMAPServer(configuration, routesHandlers, versionParser);
+            server.start();
+
+            RestAssured.requestSpecification = new RequestSpecBuilder()
+                .setAccept(ACCEPT_RFC8621_VERSION_HEADER)
+                .setPort(server.getPort().getValue())
+                .build();
+        }
+
+        private Mono<Void> send(HttpServerResponse response, String body) {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            return response.status(HttpResponseStatus.OK)
+                .header(CONTENT_TYPE, JSON_CONTENT_TYPE_UTF8)
+                .header(CONTENT_LENGTH, String.valueOf(bytes.length))
+                .sendByteArray(Mono.just(bytes))
+                .then();
+        }
+    }
+
     private static class FakeJMAPRoutes implements JMAPRoutes {
         private final Set<Endpoint> endpoints;
         private final Version version;
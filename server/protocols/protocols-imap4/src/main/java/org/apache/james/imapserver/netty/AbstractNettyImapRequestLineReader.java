@@ -19,6 +19,7 @@
 package org.apache.james.imapserver.netty;
 
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import org.apache.james.imap.decode.ImapRequestLineReader;
@@ -31,20 +32,30 @@ public abstract class AbstractNettyImapRequestLineReader extends ImapRequestLine
     private static final Supplier<ByteBuf> CONTINUATION_REQUEST = () -> Unpooled.wrappedUnmodifiableBuffer(Unpooled.wrappedBuffer("+ Ok\r\n".getBytes(StandardCharsets.US_ASCII)));
 
     private final Channel channel;
-    private final boolean retry;
+    private final AtomicInteger sentContinuationRequests;
+    private int literalCount = 0;
 
     public AbstractNettyImapRequestLineReader(Channel channel, boolean retry) {
-        this.channel = channel;
-        this.retry = retry;
+        this(channel, new AtomicInteger(retry ? 1 : 0));
+    }
 
+    /**
+     * @param sentContinuationRequests count of the continuation requests already sent for the command being decoded.
+     *                                 It survives retries so that commands carrying several synchronizing literals,
+     *                                 like MULTIAPPEND, get each of their continuation requests exactly once.
+     */
+    public AbstractNettyImapRequestLineReader(Channel channel, AtomicInteger sentContinuationRequests) {
+        this.channel = channel;
+        this.sentContinuationRequests = sentContinuationRequests;
     }
 
     @Override
     protected void commandContinuationRequest() {
-        // only write the request out if this is not a retry to process the
-        // request..
-
-        if (!retry) {
+        // only write the request out if a previous attempt to process the
+        // request did not already do it for this literal
+        literalCount++;
+        if (literalCount > sentContinuationRequests.get()) {
+            sentContinuationRequests.set(literalCount);
             channel.writeAndFlush(CONTINUATION_REQUEST.get());
         }
     }
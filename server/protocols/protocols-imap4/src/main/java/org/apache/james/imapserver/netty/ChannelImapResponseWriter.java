@@ -27,7 +27,7 @@ import java.nio.channels.FileChannel;
 import org.apache.james.imap.encode.ImapResponseWriter;
 import org.apache.james.imap.message.Literal;
 
-import io.netty.buffer.Unpooled;
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.DefaultFileRegion;
@@ -39,11 +39,17 @@ import io.netty.handler.stream.ChunkedStream;
 /**
  * {@link ImapResponseWriter} implementation which writes the data to a
  * {@link Channel}
+ *
+ * Responses are encoded into pooled buffers and only flushed when asked for, or once
+ * {@link #FLUSH_THRESHOLD} bytes are pending, so that large responses are sent with few syscalls.
  */
 public class ChannelImapResponseWriter implements ImapResponseWriter {
+    public static final int FLUSH_THRESHOLD = 64 * 1024;
 
     private final Channel channel;
     private final boolean zeroCopy;
+    // Approximate when written concurrently, which only affects when the watermark triggers a flush
+    private int pendingBytes;
 
     public ChannelImapResponseWriter(Channel channel) {
         this(channel, true);
@@ -56,14 +62,33 @@ public class ChannelImapResponseWriter implements ImapResponseWriter {
 
     @Override
     public void write(byte[] buffer) throws IOException {
+        write(buffer, 0, buffer.length);
+    }
+
+    @Override
+    public void write(byte[] buffer, int offset, int length) throws IOException {
         if (channel.isActive()) {
-            channel.writeAndFlush(Unpooled.wrappedBuffer(buffer));
+            ByteBuf byteBuf = channel.alloc().ioBuffer(length);
+            byteBuf.writeBytes(buffer, offset, length);
+            channel.write(byteBuf);
+            pendingBytes += length;
+            if (pendingBytes >= FLUSH_THRESHOLD) {
+                flush();
+            }
         }
     }
 
+    @Override
+    public void flush() {
+        pendingBytes = 0;
+        channel.flush();
+    }
+
     @Override
     public void write(Literal literal) throws IOException {
         if (channel.isActive()) {
+            // Literals are flushed, along with pending responses
+            pendingBytes = 0;
             InputStream in = literal.getInputStream();
             if (in instanceof FileInputStream) {
                 FileChannel fc = ((FileInputStream) in).getChannel();
@@ -81,7 +106,4 @@ public class ChannelImapResponseWriter implements ImapResponseWriter {
             }
         }
     }
-    
-    
-
 }
@@ -0,0 +1,86 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imapserver.netty;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Suspends response emission while the outbound buffer of the channel is above its high water mark.
+ *
+ * Waiters are released once the channel becomes writable again, or inactive.
+ */
+public class ChannelWritabilityGate extends ChannelInboundHandlerAdapter {
+    private final Channel channel;
+    private final OutboundBufferGauges gauges;
+    private final Queue<Sinks.Empty<Void>> waiters = new ConcurrentLinkedQueue<>();
+
+    public ChannelWritabilityGate(Channel channel, OutboundBufferGauges gauges) {
+        this.channel = channel;
+        this.gauges = gauges;
+    }
+
+    public Mono<Void> awaitWritable() {
+        return Mono.defer(() -> {
+            if (channel.isWritable() || !channel.isActive()) {
+                return Mono.empty();
+            }
+            Sinks.Empty<Void> waiter = Sinks.empty();
+            waiters.add(waiter);
+            gauges.suspended();
+            // Coalesced writes count toward the water mark, they need to be flushed in order to drain
+            channel.flush();
+            // The channel might have become writable before the waiter got registered
+            if (channel.isWritable() || !channel.isActive()) {
+                releaseWaiters();
+            }
+            return waiter.asMono();
+        });
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        if (ctx.channel().isWritable()) {
+            releaseWaiters();
+        }
+        super.channelWritabilityChanged(ctx);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        releaseWaiters();
+        super.channelInactive(ctx);
+    }
+
+    private void releaseWaiters() {
+        Sinks.Empty<Void> waiter = waiters.poll();
+        while (waiter != null) {
+            gauges.resumed();
+            waiter.tryEmitEmpty();
+            waiter = waiters.poll();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imapserver.netty;
+
+import java.time.Duration;
+import java.util.zip.Deflater;
+
+import org.apache.james.metrics.api.TimeMetric;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.compression.ZlibEncoder;
+
+/**
+ * Raw DEFLATE encoder for RFC-4978 COMPRESS=DEFLATE relying on the JDK {@link Deflater}, backed by the native zlib.
+ *
+ * When adaptive, the compression level is lowered to {@link Deflater#BEST_SPEED} for large payloads that barely
+ * shrink, typically already compressed attachments, in order to save CPU. Response lines, headers and envelopes
+ * always use the configured level.
+ */
+public class DeflateEncoder extends ZlibEncoder {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeflateEncoder.class);
+    private static final int MIN_OUTPUT_SPACE = 64;
+    // Literals are written in 8 KB chunks, response lines are smaller
+    @VisibleForTesting static final int ADAPTIVE_THRESHOLD = 4096;
+    // Base64 encoded compressed data can not go far below 75%, text usually compresses below 50%
+    @VisibleForTesting static final double INCOMPRESSIBLE_RATIO = 0.8;
+
+    private final Deflater deflater;
+    private final int level;
+    private final boolean adaptive;
+    private final ImapMetrics imapMetrics;
+    private volatile ChannelHandlerContext ctx;
+    private volatile boolean finished = false;
+    private int currentLevel;
+    private boolean incompressible = false;
+    private long inputBytes = 0;
+    private long outputBytes = 0;
+    private Duration compressionTime = Duration.ZERO;
+
+    public DeflateEncoder(int level, boolean adaptive, ImapMetrics imapMetrics) {
+        Preconditions.checkArgument(level >= Deflater.NO_COMPRESSION && level <= Deflater.BEST_COMPRESSION,
+            "'level' needs to be between 0 and 9");
+        this.deflater = new Deflater(level, true);
+        this.level = level;
+        this.currentLevel = level;
+        this.adaptive = adaptive;
+        this.imapMetrics = imapMetrics;
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) {
+        this.ctx = ctx;
+    }
+
+    @Override
+    protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, ByteBuf msg, boolean preferDirect) {
+        // Deflater works on arrays. Accounts for the overhead of stored blocks and of the sync flush marker.
+        int sizeEstimate = (int) Math.ceil(msg.readableBytes() * 1.001) + 12;
+        return ctx.alloc().heapBuffer(sizeEstimate);
+    }
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, ByteBuf uncompressed, ByteBuf out) {
+        if (finished) {
+            out.writeBytes(uncompressed);
+            return;
+        }
+        int length = uncompressed.readableBytes();
+        if (length == 0) {
+            return;
+        }
+        boolean largePayload = length >= ADAPTIVE_THRESHOLD;
+        adjustLevel(largePayload);
+
+        TimeMetric timeMetric = imapMetrics.compressionTimer();
+        if (uncompressed.hasArray()) {
+            deflater.setInput(uncompressed.array(), uncompressed.arrayOffset() + uncompressed.readerIndex(), length);
+        } else {
+            byte[] input = new byte[length];
+            uncompressed.getBytes(uncompressed.readerIndex(), input);
+            deflater.setInput(input);
+        }
+        uncompressed.skipBytes(length);
+        int written = deflate(out, Deflater.SYNC_FLUSH);
+        compressionTime = compressionTime.plus(timeMetric.stopAndPublish().elasped());
+
+        record(length, written, largePayload);
+    }
+
+    private void adjustLevel(boolean largePayload) {
+        if (!adaptive) {
+            return;
+        }
+        int targetLevel = largePayload && incompressible ? Deflater.BEST_SPEED : level;
+        if (targetLevel != currentLevel) {
+            deflater.setLevel(targetLevel);
+            currentLevel = targetLevel;
+        }
+    }
+
+    private void record(int length, int written, boolean largePayload) {
+        inputBytes += length;
+        outputBytes += written;
+        imapMetrics.getCompressionInputBytesMetric().add(length);
+        imapMetrics.getCompressionOutputBytesMetric().add(written);
+        if (largePayload) {
+            incompressible = written > length * INCOMPRESSIBLE_RATIO;
+        } else {
+            // A new payload is likely to start: probe it with the configured level
+            incompressible = false;
+        }
+    }
+
+    private int deflate(ByteBuf out, int flush) {
+        int written = 0;
+        int numBytes;
+        int writable;
+        do {
+            out.ensureWritable(MIN_OUTPUT_SPACE);
+            writable = out.writableBytes();
+            int writerIndex = out.writerIndex();
+            numBytes = deflater.deflate(out.array(), out.arrayOffset() + writerIndex, writable, flush);
+            out.writerIndex(writerIndex + numBytes);
+            written += numBytes;
+            // A full output buffer means the flush is not complete. A level change might also leave input behind.
+        } while (numBytes == writable || !deflater.needsInput());
+        return written;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return finished;
+    }
+
+    @Override
+    public ChannelFuture close() {
+        return close(ctx.newPromise());
+    }
+
+    @Override
+    public ChannelFuture close(ChannelPromise promise) {
+        ChannelHandlerContext ctx = this.ctx;
+        if (ctx.executor().inEventLoop()) {
+            return finishEncode(ctx, promise);
+        }
+        ctx.executor().execute(() -> finishEncode(ctx, promise));
+        return promise;
+    }
+
+    @Override
+    public void close(ChannelHandlerContext ctx, ChannelPromise promise) {
+        finishEncode(ctx, ctx.newPromise())
+            .addListener((ChannelFutureListener) future -> ctx.close(promise));
+    }
+
+    private ChannelFuture finishEncode(ChannelHandlerContext ctx, ChannelPromise promise) {
+        if (finished) {
+            promise.setSuccess();
+            return promise;
+        }
+        finished = true;
+        ByteBuf footer = ctx.alloc().heapBuffer();
+        deflater.finish();
+        while (!deflater.finished()) {
+            footer.ensureWritable(MIN_OUTPUT_SPACE);
+            int writerIndex = footer.writerIndex();
+            footer.writerIndex(writerIndex + deflater.deflate(footer.array(), footer.arrayOffset() + writerIndex, footer.writableBytes()));
+        }
+        release();
+        return ctx.writeAndFlush(footer, promise);
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+        if (!finished) {
+            finished = true;
+            release();
+        }
+        super.handlerRemoved(ctx);
+    }
+
+    private void release() {
+        deflater.end();
+        LOGGER.debug("COMPRESS=DEFLATE session compressed {} bytes into {} bytes (ratio {}) in {} ms",
+            inputBytes, outputBytes, compressionRatio(), compressionTime.toMillis());
+    }
+
+    /**
+     * @return the size of the compressed output relative to the input, 1 if nothing was compressed yet
+     */
+    public double compressionRatio() {
+        if (inputBytes == 0) {
+            return 1;
+        }
+        return (double) outputBytes / inputBytes;
+    }
+
+    public Duration compressionTime() {
+        return compressionTime;
+    }
+
+    @VisibleForTesting
+    int currentLevel() {
+        return currentLevel;
+    }
+}
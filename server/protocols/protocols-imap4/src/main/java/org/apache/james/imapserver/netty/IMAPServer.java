@@ -22,6 +22,7 @@ import java.net.MalformedURLException;
 import java.time.Duration;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
 
 import org.apache.commons.configuration2.HierarchicalConfiguration;
 import org.apache.commons.configuration2.ex.ConfigurationException;
@@ -119,6 +120,40 @@ public class IMAPServer extends AbstractConfigurableAsyncServer implements ImapC
         }
     }
 
+    public static class CompressionConfiguration {
+        private static final int DEFAULT_LEVEL = 5;
+        private static final boolean DEFAULT_ADAPTIVE = false;
+        public static final CompressionConfiguration DEFAULT = new CompressionConfiguration(DEFAULT_LEVEL, DEFAULT_ADAPTIVE);
+
+        public static CompressionConfiguration parse(HierarchicalConfiguration<ImmutableNode> configuration) throws ConfigurationException {
+            int level = configuration.getInt("compressionLevel", DEFAULT_LEVEL);
+            if (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+                throw new ConfigurationException("'compressionLevel' needs to be between 0 and 9");
+            }
+            return new CompressionConfiguration(level, configuration.getBoolean("adaptiveCompression", DEFAULT_ADAPTIVE));
+        }
+
+        private final int level;
+        private final boolean adaptive;
+
+        public CompressionConfiguration(int level, boolean adaptive) {
+            this.level = level;
+            this.adaptive = adaptive;
+        }
+
+        public int getLevel() {
+            return level;
+        }
+
+        public boolean isAdaptive() {
+            return adaptive;
+        }
+
+        DeflateEncoder createEncoder(ImapMetrics imapMetrics) {
+            return new DeflateEncoder(level, adaptive, imapMetrics);
+        }
+    }
+
     private static final String SOFTWARE_TYPE = "JAMES " + VERSION + " Server ";
     private static final String DEFAULT_TIME_UNIT = "SECONDS";
     private static final String CAPABILITY_SEPARATOR = "|";
@@ -126,6 +161,8 @@ public class IMAPServer extends AbstractConfigurableAsyncServer implements ImapC
     public static final Size DEFAULT_IN_MEMORY_SIZE_LIMIT = Size.of(10L, Size.Unit.M); // Use 10MB as default
     public static final int DEFAULT_TIMEOUT = 30 * 60; // default timeout is 30 minutes
     public static final int DEFAULT_LITERAL_SIZE_LIMIT = 0;
+    public static final int DEFAULT_LITERAL_MEMORY_BUFFER_SIZE = 0; // Large literals are entirely stored in a temporary file
+    public static final int DEFAULT_CONCURRENT_REQUESTS_PER_SESSION = 1; // Commands of a session are executed sequentially
 
     private final ImapProcessor processor;
     private final ImapEncoder encoder;
@@ -139,12 +176,16 @@ public class IMAPServer extends AbstractConfigurableAsyncServer implements ImapC
     private int inMemorySizeLimit;
     private int timeout;
     private int literalSizeLimit;
+    private int literalMemoryBufferSize;
     private AuthenticationConfiguration authenticationConfiguration;
     private Optional<ConnectionLimitUpstreamHandler> connectionLimitUpstreamHandler = Optional.empty();
     private Optional<ConnectionPerIpLimitUpstreamHandler> connectionPerIpLimitUpstreamHandler = Optional.empty();
     private boolean ignoreIDLEUponProcessing;
     private Duration heartbeatInterval;
     private ReactiveThrottler reactiveThrottler;
+    private int concurrentRequestsPerSession;
+    private CompressionConfiguration compressionConfiguration;
+    private OutboundBufferGauges outboundBufferGauges;
 
 
     public IMAPServer(ImapDecoder decoder, ImapEncoder encoder, ImapProcessor processor, ImapMetrics imapMetrics, GaugeRegistry gaugeRegistry) {
@@ -162,6 +203,7 @@ public class IMAPServer extends AbstractConfigurableAsyncServer implements ImapC
         
         hello = SOFTWARE_TYPE + getHelloName() + " is ready.";
         compress = configuration.getBoolean("compress", false);
+        compressionConfiguration = CompressionConfiguration.parse(configuration);
         maxLineLength = configuration.getInt("maxLineLength", DEFAULT_MAX_LINE_LENGTH);
         inMemorySizeLimit = Math.toIntExact(Optional.ofNullable(configuration.getString("inMemorySizeLimit", null))
             .map(Size::parse)
@@ -172,6 +214,11 @@ public class IMAPServer extends AbstractConfigurableAsyncServer implements ImapC
             .map(Size::asBytes)
             .map(Math::toIntExact)
             .orElse(DEFAULT_LITERAL_SIZE_LIMIT);
+        literalMemoryBufferSize = Optional.ofNullable(configuration.getString("literalMemoryBufferSize", null))
+            .map(Size::parse)
+            .map(Size::asBytes)
+            .map(Math::toIntExact)
+            .orElse(DEFAULT_LITERAL_MEMORY_BUFFER_SIZE);
 
         timeout = configuration.getInt("timeout", DEFAULT_TIMEOUT);
         if (timeout < DEFAULT_TIMEOUT) {
@@ -181,9 +228,14 @@ public class IMAPServer extends AbstractConfigurableAsyncServer implements ImapC
         connectionLimitUpstreamHandler = ConnectionLimitUpstreamHandler.forCount(connectionLimit);
         connectionPerIpLimitUpstreamHandler = ConnectionPerIpLimitUpstreamHandler.forCount(connPerIP);
         ignoreIDLEUponProcessing = configuration.getBoolean("ignoreIDLEUponProcessing", true);
+        concurrentRequestsPerSession = configuration.getInt("concurrentRequestsPerSession", DEFAULT_CONCURRENT_REQUESTS_PER_SESSION);
+        if (concurrentRequestsPerSession < 1) {
+            throw new ConfigurationException("'concurrentRequestsPerSession' needs to be strictly positive");
+        }
         ImapConfiguration imapConfiguration = getImapConfiguration(configuration);
         heartbeatInterval = imapConfiguration.idleTimeIntervalAsDuration();
         reactiveThrottler = new ReactiveThrottler(gaugeRegistry, imapConfiguration.getConcurrentRequests(), imapConfiguration.getMaxQueueSize());
+        outboundBufferGauges = new OutboundBufferGauges(gaugeRegistry);
         processor.configure(imapConfiguration);
     }
 
@@ -197,6 +249,10 @@ public class IMAPServer extends AbstractConfigurableAsyncServer implements ImapC
                 .disabledCaps(disabledCaps)
                 .maxQueueSize(configuration.getInteger("maxQueueSize", ImapConfiguration.DEFAULT_QUEUE_SIZE))
                 .concurrentRequests(configuration.getInteger("concurrentRequests", ImapConfiguration.DEFAULT_CONCURRENT_REQUESTS))
+                .appendLimit(Optional.ofNullable(configuration.getString("literalSizeLimit", null))
+                    .map(Size::parse)
+                    .map(Size::asBytes)
+                    .filter(limit -> limit > 0))
                 .build();
     }
 
@@ -260,8 +316,11 @@ public class IMAPServer extends AbstractConfigurableAsyncServer implements ImapC
 
                 pipeline.addLast(CHUNK_WRITE_HANDLER, new ChunkedWriteHandler());
 
+                outboundBufferGauges.track(channel);
+                pipeline.addLast(WRITABILITY_GATE, new ChannelWritabilityGate(channel, outboundBufferGauges));
+
                 pipeline.addLast(REQUEST_DECODER, new ImapRequestFrameDecoder(decoder, inMemorySizeLimit,
-                    literalSizeLimit, maxLineLength));
+                    literalSizeLimit, literalMemoryBufferSize, maxLineLength));
 
                 pipeline.addLast(CORE_HANDLER, createCoreHandler());
             }
@@ -283,11 +342,13 @@ public class IMAPServer extends AbstractConfigurableAsyncServer implements ImapC
             .processor(processor)
             .encoder(encoder)
             .compress(compress)
+            .compressionConfiguration(compressionConfiguration)
             .authenticationConfiguration(authenticationConfiguration)
             .secure(secure)
             .imapMetrics(imapMetrics)
             .heartbeatInterval(heartbeatInterval)
             .ignoreIDLEUponProcessing(ignoreIDLEUponProcessing)
+            .concurrentRequestsPerSession(concurrentRequestsPerSession)
             .build();
     }
 
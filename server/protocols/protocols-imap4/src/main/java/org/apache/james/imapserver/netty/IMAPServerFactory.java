@@ -42,6 +42,7 @@ public class IMAPServerFactory extends AbstractServerFactory {
     protected final ImapProcessor processor;
     protected final ImapMetrics imapMetrics;
     protected final GaugeRegistry gaugeRegistry;
+    protected final MetricFactory metricFactory;
 
     @Inject
     public IMAPServerFactory(FileSystem fileSystem, ImapDecoder decoder, ImapEncoder encoder, ImapProcessor processor,
@@ -51,6 +52,7 @@ public class IMAPServerFactory extends AbstractServerFactory {
         this.encoder = encoder;
         this.processor = processor;
         this.imapMetrics = new ImapMetrics(metricFactory);
+        this.metricFactory = metricFactory;
         this.gaugeRegistry = gaugeRegistry;
     }
 
@@ -67,6 +69,7 @@ public class IMAPServerFactory extends AbstractServerFactory {
         for (HierarchicalConfiguration<ImmutableNode> serverConfig: configs) {
             IMAPServer server = createServer();
             server.setFileSystem(fileSystem);
+            server.setMetricFactory(metricFactory);
             server.configure(serverConfig);
             servers.add(server);
         }
@@ -26,10 +26,12 @@ import java.net.InetSocketAddress;
 import java.time.Duration;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.james.imap.api.ImapConstants;
 import org.apache.james.imap.api.ImapMessage;
 import org.apache.james.imap.api.ImapSessionState;
+import org.apache.james.imap.api.message.request.ImapRequest;
 import org.apache.james.imap.api.process.ImapProcessor;
 import org.apache.james.imap.api.process.ImapSession;
 import org.apache.james.imap.api.process.ImapSession.SessionId;
@@ -37,6 +39,7 @@ import org.apache.james.imap.encode.ImapEncoder;
 import org.apache.james.imap.encode.ImapResponseComposer;
 import org.apache.james.imap.encode.base.ImapResponseComposerImpl;
 import org.apache.james.imap.main.ResponseEncoder;
+import org.apache.james.imap.message.request.IdleRequest;
 import org.apache.james.metrics.api.Metric;
 import org.apache.james.protocols.netty.Encryption;
 import org.apache.james.util.MDCBuilder;
@@ -74,6 +77,8 @@ public class ImapChannelUpstreamHandler extends ChannelInboundHandlerAdapter imp
         private boolean ignoreIDLEUponProcessing;
         private Duration heartbeatInterval;
         private ReactiveThrottler reactiveThrottler;
+        private int concurrentRequestsPerSession = 1;
+        private IMAPServer.CompressionConfiguration compressionConfiguration = IMAPServer.CompressionConfiguration.DEFAULT;
 
         public ImapChannelUpstreamHandlerBuilder reactiveThrottler(ReactiveThrottler reactiveThrottler) {
             this.reactiveThrottler = reactiveThrottler;
@@ -125,8 +130,18 @@ public class ImapChannelUpstreamHandler extends ChannelInboundHandlerAdapter imp
             return this;
         }
 
+        public ImapChannelUpstreamHandlerBuilder concurrentRequestsPerSession(int concurrentRequestsPerSession) {
+            this.concurrentRequestsPerSession = concurrentRequestsPerSession;
+            return this;
+        }
+
+        public ImapChannelUpstreamHandlerBuilder compressionConfiguration(IMAPServer.CompressionConfiguration compressionConfiguration) {
+            this.compressionConfiguration = compressionConfiguration;
+            return this;
+        }
+
         public ImapChannelUpstreamHandler build() {
-            return new ImapChannelUpstreamHandler(hello, processor, encoder, compress, secure, imapMetrics, authenticationConfiguration, ignoreIDLEUponProcessing, (int) heartbeatInterval.toSeconds(), reactiveThrottler);
+            return new ImapChannelUpstreamHandler(hello, processor, encoder, compress, secure, imapMetrics, authenticationConfiguration, ignoreIDLEUponProcessing, (int) heartbeatInterval.toSeconds(), reactiveThrottler, concurrentRequestsPerSession, compressionConfiguration);
         }
     }
 
@@ -145,10 +160,14 @@ public class ImapChannelUpstreamHandler extends ChannelInboundHandlerAdapter imp
     private final Metric imapCommandsMetric;
     private final boolean ignoreIDLEUponProcessing;
     private final ReactiveThrottler reactiveThrottler;
+    private final int concurrentRequestsPerSession;
+    private final IMAPServer.CompressionConfiguration compressionConfiguration;
+    private final ImapMetrics imapMetrics;
 
     public ImapChannelUpstreamHandler(String hello, ImapProcessor processor, ImapEncoder encoder, boolean compress,
                                       Encryption secure, ImapMetrics imapMetrics, AuthenticationConfiguration authenticationConfiguration,
-                                      boolean ignoreIDLEUponProcessing, int heartbeatIntervalSeconds, ReactiveThrottler reactiveThrottler) {
+                                      boolean ignoreIDLEUponProcessing, int heartbeatIntervalSeconds, ReactiveThrottler reactiveThrottler,
+                                      int concurrentRequestsPerSession, IMAPServer.CompressionConfiguration compressionConfiguration) {
         this.hello = hello;
         this.processor = processor;
         this.encoder = encoder;
@@ -160,16 +179,22 @@ public class ImapChannelUpstreamHandler extends ChannelInboundHandlerAdapter imp
         this.ignoreIDLEUponProcessing = ignoreIDLEUponProcessing;
         this.heartbeatHandler = new ImapHeartbeatHandler(heartbeatIntervalSeconds, heartbeatIntervalSeconds, heartbeatIntervalSeconds);
         this.reactiveThrottler = reactiveThrottler;
+        this.concurrentRequestsPerSession = concurrentRequestsPerSession;
+        this.compressionConfiguration = compressionConfiguration;
+        this.imapMetrics = imapMetrics;
     }
 
     @Override
     public void channelActive(ChannelHandlerContext ctx) throws Exception {
         ImapSession imapsession = new NettyImapSession(ctx.channel(), secure, compress, authenticationConfiguration.isSSLRequired(),
             authenticationConfiguration.isPlainAuthEnabled(), SessionId.generate(),
-            authenticationConfiguration.getOidcSASLConfiguration());
+            authenticationConfiguration.getOidcSASLConfiguration(), () -> compressionConfiguration.createEncoder(imapMetrics));
         MDCBuilder boundMDC = IMAPMDCContext.boundMDC(ctx);
         imapsession.setAttribute(MDC_KEY, boundMDC);
         ctx.channel().attr(IMAP_SESSION_ATTRIBUTE_KEY).set(imapsession);
+        ctx.channel().attr(COMMAND_PIPELINE_ATTRIBUTE_KEY).set(new ImapCommandPipeline(concurrentRequestsPerSession,
+            ImapCommandPipeline.DEFAULT_MAX_QUEUED_COMMANDS, reading -> ctx.channel().config().setAutoRead(reading)));
+        ctx.channel().attr(PROCESSING_COMMANDS_ATTRIBUTE_KEY).set(new AtomicInteger());
         try (Closeable closeable = boundMDC.build()) {
             InetSocketAddress address = (InetSocketAddress) ctx.channel().remoteAddress();
             LOGGER.info("Connection established from {}", address.getAddress().getHostAddress());
@@ -179,6 +204,7 @@ public class ImapChannelUpstreamHandler extends ChannelInboundHandlerAdapter imp
 
             // write hello to client
             response.untagged().message("OK").message(hello).end();
+            response.flush();
             super.channelActive(ctx);
         }
 
@@ -206,6 +232,8 @@ public class ImapChannelUpstreamHandler extends ChannelInboundHandlerAdapter imp
             // remove the stored attribute for the channel to free up resources
             // See JAMES-1195
             ImapSession imapSession = ctx.channel().attr(IMAP_SESSION_ATTRIBUTE_KEY).getAndSet(null);
+            Optional.ofNullable(ctx.channel().attr(COMMAND_PIPELINE_ATTRIBUTE_KEY).get())
+                .ifPresent(ImapCommandPipeline::close);
 
             Optional.ofNullable(imapSession)
                 .map(ImapSession::logout)
@@ -243,6 +271,7 @@ public class ImapChannelUpstreamHandler extends ChannelInboundHandlerAdapter imp
                 // See also JAMES-1190
                 ImapResponseComposer response = new ImapResponseComposerImpl(new ChannelImapResponseWriter(ctx.channel()));
                 response.untaggedResponse(ImapConstants.BAD + " failed. Maximum command line length exceeded");
+                response.flush();
 
             } else {
 
@@ -277,14 +306,19 @@ public class ImapChannelUpstreamHandler extends ChannelInboundHandlerAdapter imp
     public void channelRead(ChannelHandlerContext ctx, Object msg) {
         imapCommandsMetric.increment();
         ImapSession session = ctx.channel().attr(IMAP_SESSION_ATTRIBUTE_KEY).get();
-        ImapResponseComposer response = new ImapResponseComposerImpl(new ChannelImapResponseWriter(ctx.channel()));
+        OrderedImapResponseWriter writer = new OrderedImapResponseWriter(new ChannelImapResponseWriter(ctx.channel()));
+        ImapResponseComposer response = new ImapResponseComposerImpl(writer);
         ImapMessage message = (ImapMessage) msg;
 
         beforeIDLEUponProcessing(ctx);
         ResponseEncoder responseEncoder = new ResponseEncoder(encoder, response);
-        reactiveThrottler.throttle(
+        ctx.channel().attr(COMMAND_PIPELINE_ATTRIBUTE_KEY).get().submit(canRunConcurrently(message), message instanceof IdleRequest, writer, () -> reactiveThrottler.throttle(
             processor.processReactive(message, responseEncoder, session)
                 .doOnEach(Throwing.consumer(signal -> {
+                    if (signal.isOnComplete() || signal.isOnError()) {
+                        // Coalesced responses are sent once the command completes
+                        responseEncoder.flush();
+                    }
                     if (session.getState() == ImapSessionState.LOGOUT) {
                         // Make sure we close the channel after all the buffers were flushed out
                         Channel channel = ctx.channel();
@@ -316,26 +350,40 @@ public class ImapChannelUpstreamHandler extends ChannelInboundHandlerAdapter imp
                     }
                     ctx.fireChannelReadComplete();
                 }))
-                .contextWrite(ReactorUtils.context("imap", mdc(ctx))))
-            .subscribe();
+                .contextWrite(ReactorUtils.context("imap", mdc(ctx)))));
+    }
+
+    private boolean canRunConcurrently(ImapMessage message) {
+        return message instanceof ImapRequest && ((ImapRequest) message).canRunConcurrently();
     }
 
     private void beforeIDLEUponProcessing(ChannelHandlerContext ctx) {
         if (!ignoreIDLEUponProcessing) {
-            try {
-                ctx.pipeline().addBefore(NettyConstants.CORE_HANDLER, NettyConstants.HEARTBEAT_HANDLER, heartbeatHandler);
-            } catch (IllegalArgumentException e) {
-                LOGGER.info("heartbeat handler is already part of this pipeline", e);
+            // Pipelined commands overlap: the heartbeat handler is only removed once the last of them completes
+            AtomicInteger processingCommands = ctx.channel().attr(PROCESSING_COMMANDS_ATTRIBUTE_KEY).get();
+            synchronized (processingCommands) {
+                if (processingCommands.getAndIncrement() == 0) {
+                    try {
+                        ctx.pipeline().addBefore(NettyConstants.CORE_HANDLER, NettyConstants.HEARTBEAT_HANDLER, heartbeatHandler);
+                    } catch (IllegalArgumentException e) {
+                        LOGGER.info("heartbeat handler is already part of this pipeline", e);
+                    }
+                }
             }
         }
     }
 
     private void afterIDLEUponProcessing(ChannelHandlerContext ctx) {
         if (!ignoreIDLEUponProcessing) {
-            try {
-                ctx.pipeline().remove(NettyConstants.HEARTBEAT_HANDLER);
-            } catch (NoSuchElementException e) {
-                LOGGER.info("Heartbeat handler was concurrently removed");
+            AtomicInteger processingCommands = ctx.channel().attr(PROCESSING_COMMANDS_ATTRIBUTE_KEY).get();
+            synchronized (processingCommands) {
+                if (processingCommands.decrementAndGet() == 0) {
+                    try {
+                        ctx.pipeline().remove(NettyConstants.HEARTBEAT_HANDLER);
+                    } catch (NoSuchElementException e) {
+                        LOGGER.info("Heartbeat handler was concurrently removed");
+                    }
+                }
             }
         }
     }
@@ -0,0 +1,240 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imapserver.netty;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Schedules the commands pipelined by a client on a single connection.
+ *
+ * Commands are started in the order they were received. Concurrent safe commands (see RFC-3501 section 5.5)
+ * run alongside each other, up to the configured parallelism. Any other command runs alone: it only starts once
+ * all the previous commands completed, and holds back the following ones.
+ *
+ * Responses are emitted in command order: the responses of a command are retained until the ones of all the
+ * commands received before it were written.
+ *
+ * Unsolicited responses, that are not bound to any command, are written between the responses of two commands.
+ *
+ * Reads are suspended while the count of queued commands reaches the configured maximum, and resumed once half of
+ * them completed: a client pipelining commands faster than they complete can not grow the queue without bound.
+ */
+public class ImapCommandPipeline {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImapCommandPipeline.class);
+    public static final int DEFAULT_MAX_QUEUED_COMMANDS = 128;
+
+    @FunctionalInterface
+    public interface ReadControl {
+        ReadControl NONE = reading -> { };
+
+        void setReading(boolean reading);
+    }
+
+    private static class Command {
+        private final boolean concurrent;
+        private final boolean acceptsUnsolicitedResponses;
+        private final OrderedImapResponseWriter writer;
+        private final Supplier<Mono<Void>> execution;
+        private boolean started = false;
+        private boolean completed = false;
+
+        private Command(boolean concurrent, boolean acceptsUnsolicitedResponses, OrderedImapResponseWriter writer, Supplier<Mono<Void>> execution) {
+            this.concurrent = concurrent;
+            this.acceptsUnsolicitedResponses = acceptsUnsolicitedResponses;
+            this.writer = writer;
+            this.execution = execution;
+        }
+    }
+
+    private final int parallelism;
+    private final int maxQueuedCommands;
+    private final ReadControl readControl;
+    // Commands whose responses were not entirely written yet, in reception order
+    private final Deque<Command> commands = new ArrayDeque<>();
+    // Unsolicited responses waiting for the responses of the command being written to end
+    private final Deque<Runnable> unsolicitedWrites = new ArrayDeque<>();
+    private int runningConcurrentCommands = 0;
+    private boolean readSuspended = false;
+
+    public ImapCommandPipeline(int parallelism) {
+        this(parallelism, DEFAULT_MAX_QUEUED_COMMANDS, ReadControl.NONE);
+    }
+
+    public ImapCommandPipeline(int parallelism, int maxQueuedCommands, ReadControl readControl) {
+        Preconditions.checkArgument(parallelism > 0, "'parallelism' needs to be strictly positive");
+        Preconditions.checkArgument(maxQueuedCommands > 0, "'maxQueuedCommands' needs to be strictly positive");
+        this.parallelism = parallelism;
+        this.maxQueuedCommands = maxQueuedCommands;
+        this.readControl = readControl;
+    }
+
+    /**
+     * @param concurrent true if the command can be run alongside other concurrent safe commands
+     * @param writer the writer the command writes its responses to
+     * @param execution triggers the command processing, only called once the command can start
+     */
+    public void submit(boolean concurrent, OrderedImapResponseWriter writer, Supplier<Mono<Void>> execution) {
+        submit(concurrent, false, writer, execution);
+    }
+
+    /**
+     * @param concurrent true if the command can be run alongside other concurrent safe commands
+     * @param acceptsUnsolicitedResponses true if unsolicited responses can be written while the command is running,
+     *                                    like for IDLE, whose own responses are all unsolicited
+     * @param writer the writer the command writes its responses to
+     * @param execution triggers the command processing, only called once the command can start
+     */
+    public void submit(boolean concurrent, boolean acceptsUnsolicitedResponses, OrderedImapResponseWriter writer, Supplier<Mono<Void>> execution) {
+        boolean suspendReads;
+        synchronized (this) {
+            commands.addLast(new Command(concurrent && parallelism > 1, acceptsUnsolicitedResponses, writer, execution));
+            if (commands.size() == 1) {
+                writer.release();
+            }
+            suspendReads = !readSuspended && commands.size() >= maxQueuedCommands;
+            readSuspended |= suspendReads;
+        }
+        if (suspendReads) {
+            readControl.setReading(false);
+        }
+        startEligibleCommands();
+    }
+
+    /**
+     * Drops the responses retained for the queued commands, once the connection is closed.
+     */
+    public synchronized void close() {
+        commands.forEach(command -> command.writer.discard());
+        unsolicitedWrites.clear();
+    }
+
+    @VisibleForTesting
+    synchronized boolean isReadSuspended() {
+        return readSuspended;
+    }
+
+    /**
+     * @return true while concurrent safe commands are running, in which case sequence numbers must be kept stable
+     */
+    public synchronized boolean isExecutingConcurrentCommands() {
+        return runningConcurrentCommands > 0;
+    }
+
+    /**
+     * Writes a response that is not bound to any command, like a NOTIFY (RFC-5465) notification.
+     *
+     * The write happens right away when no command responses are being written. Otherwise it is deferred until
+     * the command whose responses are being written completes, so that a response split across several writes,
+     * like a FETCH carrying a literal, is never interleaved.
+     */
+    public synchronized void writeUnsolicited(Runnable write) {
+        Command head = commands.peekFirst();
+        if (head == null || head.acceptsUnsolicitedResponses) {
+            write.run();
+        } else {
+            unsolicitedWrites.addLast(write);
+        }
+    }
+
+    private void startEligibleCommands() {
+        List<Command> eligibleCommands;
+        synchronized (this) {
+            eligibleCommands = eligibleCommands();
+            eligibleCommands.forEach(command -> {
+                command.started = true;
+                if (command.concurrent) {
+                    runningConcurrentCommands++;
+                }
+            });
+        }
+        // Executions may complete synchronously: they are subscribed outside of the lock
+        eligibleCommands.forEach(command -> Mono.defer(command.execution)
+            .doFinally(any -> onComplete(command))
+            .subscribe());
+    }
+
+    private List<Command> eligibleCommands() {
+        List<Command> result = new ArrayList<>();
+        int running = runningConcurrentCommands;
+        for (Command command : commands) {
+            if (!command.concurrent) {
+                // A command requiring exclusive execution only starts at the head, and holds back the following ones
+                if (!command.started && command == commands.peekFirst()) {
+                    result.add(command);
+                }
+                return result;
+            }
+            if (!command.started) {
+                if (running >= parallelism) {
+                    return result;
+                }
+                result.add(command);
+                running++;
+            }
+        }
+        return result;
+    }
+
+    private void writeDeferredUnsolicitedResponses() {
+        while (!unsolicitedWrites.isEmpty()) {
+            try {
+                unsolicitedWrites.pollFirst().run();
+            } catch (RuntimeException e) {
+                // A failed write must not stall the following commands
+                LOGGER.warn("Failed to write an unsolicited response", e);
+            }
+        }
+    }
+
+    private void onComplete(Command command) {
+        boolean resumeReads;
+        synchronized (this) {
+            command.completed = true;
+            if (command.concurrent) {
+                runningConcurrentCommands--;
+            }
+            // Releasing under the lock keeps the retained responses ordered
+            while (!commands.isEmpty() && commands.peekFirst().completed) {
+                commands.pollFirst();
+                writeDeferredUnsolicitedResponses();
+                if (!commands.isEmpty()) {
+                    commands.peekFirst().writer.release();
+                }
+            }
+            resumeReads = readSuspended && commands.size() <= maxQueuedCommands / 2;
+            readSuspended &= !resumeReads;
+        }
+        if (resumeReads) {
+            readControl.setReading(true);
+        }
+        startEligibleCommands();
+    }
+}
@@ -21,10 +21,7 @@ package org.apache.james.imapserver.netty;
 
 import static reactor.core.publisher.Sinks.EmitFailureHandler.FAIL_FAST;
 
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
@@ -62,10 +59,9 @@ import reactor.core.scheduler.Schedulers;
 public class ImapRequestFrameDecoder extends ByteToMessageDecoder implements NettyConstants, LineHandlerAware {
     @VisibleForTesting
     static final String NEEDED_DATA = "NEEDED_DATA";
-    private static final boolean RETRY = true;
+    private static final String CONTINUATION_REQUESTS = "CONTINUATION_REQUESTS";
     private static final String STORED_DATA = "STORED_DATA";
     private static final String WRITTEN_DATA = "WRITTEN_DATA";
-    private static final String OUTPUT_STREAM = "OUTPUT_STREAM";
     private static final String SINK = "SINK";
     private static final String SUBSCRIPTION = "SUBSCRIPTION";
 
@@ -73,14 +69,20 @@ public class ImapRequestFrameDecoder extends ByteToMessageDecoder implements Net
     private final ImapDecoder decoder;
     private final int inMemorySizeLimit;
     private final int literalSizeLimit;
+    private final int literalMemoryBufferSize;
     private final Deque<ChannelInboundHandlerAdapter> behaviourOverrides = new ConcurrentLinkedDeque<>();
     private final int maxFrameLength;
     private final AtomicBoolean framingEnabled = new AtomicBoolean(true);
 
     public ImapRequestFrameDecoder(ImapDecoder decoder, int inMemorySizeLimit, int literalSizeLimit, int maxFrameLength) {
+        this(decoder, inMemorySizeLimit, literalSizeLimit, 0, maxFrameLength);
+    }
+
+    public ImapRequestFrameDecoder(ImapDecoder decoder, int inMemorySizeLimit, int literalSizeLimit, int literalMemoryBufferSize, int maxFrameLength) {
         this.decoder = decoder;
         this.inMemorySizeLimit = inMemorySizeLimit;
         this.literalSizeLimit = literalSizeLimit;
+        this.literalMemoryBufferSize = literalMemoryBufferSize;
         this.maxFrameLength = maxFrameLength;
     }
 
@@ -113,30 +115,34 @@ public class ImapRequestFrameDecoder extends ByteToMessageDecoder implements Net
     }
 
     private Optional<ImapMessage> parseImapMessage(ChannelHandlerContext ctx, ByteBuf in, Map<String, Object> attachment, Pair<ImapRequestLineReader, Integer> readerAndSize, int readerIndex) throws DecodingException {
+        try {
+            return decodeImapMessage(ctx, attachment, readerAndSize);
+        } catch (NettyImapRequestLineReader.NotEnoughDataException e) {
+            // this exception was thrown because we don't have enough data yet
+            requestMoreData(ctx, in, attachment, e.getNeededSize(), readerIndex);
+            return Optional.empty();
+        }
+    }
+
+    private Optional<ImapMessage> decodeImapMessage(ChannelHandlerContext ctx, Map<String, Object> attachment, Pair<ImapRequestLineReader, Integer> readerAndSize) throws DecodingException {
         ImapSession session = ctx.channel().attr(IMAP_SESSION_ATTRIBUTE_KEY).get();
 
         // check if the session was removed before to prevent a harmless NPE. See JAMES-1312
         // Also check if the session was logged out if so there is not need to try to decode it. See JAMES-1341
         if (session != null && session.getState() != ImapSessionState.LOGOUT) {
-            try {
+            ImapMessage message = decoder.decode(readerAndSize.getLeft(), session);
 
-                ImapMessage message = decoder.decode(readerAndSize.getLeft(), session);
-
-                // if size is != -1 the case was a literal. if thats the case we
-                // should not consume the line
-                // See JAMES-1199
-                if (readerAndSize.getRight() == -1) {
-                    readerAndSize.getLeft().consumeLine();
-                }
+            // if size is != -1 the case was a literal. if thats the case we
+            // should not consume the line
+            // See JAMES-1199
+            if (readerAndSize.getRight() == -1) {
+                readerAndSize.getLeft().consumeLine();
+            }
 
-                enableFraming(ctx);
+            enableFraming(ctx);
 
-                attachment.clear();
-                return Optional.of(message);
-            } catch (NettyImapRequestLineReader.NotEnoughDataException e) {
-                // this exception was thrown because we don't have enough data yet
-                requestMoreData(ctx, in, attachment, e.getNeededSize(), readerIndex);
-            }
+            attachment.clear();
+            return Optional.of(message);
         } else {
             // The session was null so may be the case because the channel was already closed but there were still bytes in the buffer.
             // We now try to disconnect the client if still connected
@@ -151,20 +157,26 @@ public class ImapRequestFrameDecoder extends ByteToMessageDecoder implements Net
         // store the needed data size for later usage
         attachment.put(NEEDED_DATA, neededData);
 
+        // Rewind before disabling framing: removing the framer synchronously hands us
+        // the bytes it buffered, which must be decoded from the start of the command.
+        in.readerIndex(readerIndex);
         // SwitchableDelimiterBasedFrameDecoder added further to JAMES-1436.
         disableFraming(ctx);
-        in.readerIndex(readerIndex);
     }
 
     private Pair<ImapRequestLineReader, Integer> obtainReader(ChannelHandlerContext ctx, ByteBuf in, Map<String, Object> attachment, int readerIndex) throws IOException {
-        boolean retry = false;
         ImapRequestLineReader reader;
+        // once the command started to be stored in a literal buffer, the remaining
+        // of it (eg further literals) follows the same path
+        if (attachment.containsKey(STORED_DATA)) {
+            uploadToAFile(ctx, in, attachment, NettyImapRequestLineReader.NotEnoughDataException.UNKNOWN_SIZE, readerIndex);
+            return null;
+        }
         // check if we failed before and if we already know how much data we
         // need to sucess next run
         int size = -1;
         final Object rawSize = attachment.get(NEEDED_DATA);
         if (rawSize != null) {
-            retry = true;
             size = (Integer) rawSize;
             // now see if the buffer hold enough data to process.
             if (size != NettyImapRequestLineReader.NotEnoughDataException.UNKNOWN_SIZE && size > in.readableBytes()) {
@@ -174,7 +186,7 @@ public class ImapRequestFrameDecoder extends ByteToMessageDecoder implements Net
                 if (inMemorySizeLimit > 0 && inMemorySizeLimit < size) {
 
                     // ok seems like it will not fit in the memory limit so we
-                    // need to store it in a temporary file
+                    // need to store it in a literal buffer, overflowing to a temporary file
                     uploadToAFile(ctx, in, attachment, size, readerIndex);
                     return null;
 
@@ -185,30 +197,34 @@ public class ImapRequestFrameDecoder extends ByteToMessageDecoder implements Net
 
             } else {
 
-                reader = new NettyImapRequestLineReader(ctx.channel(), in, retry, literalSizeLimit);
+                reader = new NettyImapRequestLineReader(ctx.channel(), in, sentContinuationRequests(attachment), literalSizeLimit);
             }
         } else {
-            reader = new NettyImapRequestLineReader(ctx.channel(), in, retry, literalSizeLimit);
+            reader = new NettyImapRequestLineReader(ctx.channel(), in, sentContinuationRequests(attachment), literalSizeLimit);
         }
         return Pair.of(reader, size);
     }
 
+    private AtomicInteger sentContinuationRequests(Map<String, Object> attachment) {
+        return (AtomicInteger) attachment.computeIfAbsent(CONTINUATION_REQUESTS, any -> new AtomicInteger(0));
+    }
+
     private void uploadToAFile(ChannelHandlerContext ctx, ByteBuf in, Map<String, Object> attachment, int size, int readerIndex) throws IOException {
-        final File f;
         Sinks.Many<byte[]> sink;
 
-        OutputStream outputStream;
-        // check if we have created a temporary file already or if
+        // check if we have created a literal buffer already or if
         // we need to create a new one
         if (attachment.containsKey(STORED_DATA)) {
             sink = (Sinks.Many<byte[]>) attachment.get(SINK);
         } else {
-            f = File.createTempFile("imap-literal", ".tmp");
-            attachment.put(STORED_DATA, f);
+            // received chunks are retained in memory up to literalMemoryBufferSize, the
+            // remaining of the command overflows to a temporary file
+            LiteralBuffer buffer = new LiteralBuffer(literalMemoryBufferSize);
+            attachment.put(STORED_DATA, buffer);
             final AtomicInteger written = new AtomicInteger(0);
+            final AtomicInteger expected = new AtomicInteger(size);
+            final AtomicInteger sentContinuationRequests = sentContinuationRequests(attachment);
             attachment.put(WRITTEN_DATA, written);
-            outputStream = new FileOutputStream(f, true);
-            attachment.put(OUTPUT_STREAM, outputStream);
             sink = Sinks.many().unicast().onBackpressureBuffer();
             attachment.put(SINK, sink);
 
@@ -216,31 +232,43 @@ public class ImapRequestFrameDecoder extends ByteToMessageDecoder implements Net
                 .publishOn(Schedulers.boundedElastic())
                 .doOnNext(next -> {
                     try {
-                        int amount = Math.min(next.length, size - written.get());
-                        outputStream.write(next, 0, amount);
-                        written.addAndGet(amount);
+                        buffer.write(next);
+                        written.addAndGet(next.length);
                     } catch (Exception e) {
                         try {
-                            outputStream.close();
+                            buffer.close();
                         } catch (IOException ignored) {
                             //ignore exception during close
                         }
                         throw new RuntimeException(e);
                     }
 
-                    // Check if all needed data was streamed to the file.
-                    if (written.get() == size) {
-                        try {
-                            outputStream.close();
-                        } catch (IOException ignored) {
-                            //ignore exception during close
-                        }
-
-                        ImapRequestLineReader reader = new NettyStreamImapRequestLineReader(ctx.channel(), f, RETRY);
+                    // Check if all needed data was streamed to the buffer.
+                    if (written.get() >= expected.get()) {
+                        NettyStreamImapRequestLineReader reader = new NettyStreamImapRequestLineReader(ctx.channel(), buffer, sentContinuationRequests);
 
                         try {
-                            parseImapMessage(ctx, null, attachment, Pair.of(reader, written.get()), readerIndex)
-                                .ifPresent(ctx::fireChannelRead);
+                            decodeImapMessage(ctx, attachment, Pair.of(reader, written.get()))
+                                .ifPresent(message -> {
+                                    try {
+                                        buffer.complete();
+                                    } catch (IOException ignored) {
+                                        //ignore exception during close
+                                    }
+                                    ctx.fireChannelRead(message);
+                                });
+                        } catch (NettyImapRequestLineReader.NotEnoughDataException e) {
+                            // The command carries more literals than what was received so far
+                            try {
+                                reader.close();
+                            } catch (IOException ignored) {
+                                //ignore exception during close
+                            }
+                            if (e.getNeededSize() == NettyImapRequestLineReader.NotEnoughDataException.UNKNOWN_SIZE) {
+                                expected.set(written.get() + 1);
+                            } else {
+                                expected.set(e.getNeededSize());
+                            }
                         } catch (DecodingException e) {
                             ctx.fireExceptionCaught(e);
                         }
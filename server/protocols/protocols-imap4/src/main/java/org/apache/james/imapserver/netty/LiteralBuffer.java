@@ -0,0 +1,148 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imapserver.netty;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.base.Preconditions;
+import com.google.common.io.ByteStreams;
+
+/**
+ * Stores the bytes of a command carrying a large literal while it is being received.
+ *
+ * Received chunks are retained in memory as long as they fit within the memory threshold, only the
+ * remaining bytes overflow into a temporary file. The stored bytes can be read several times, first by
+ * the decoder then by the processor consuming the literal, without any disk access for the in memory part.
+ */
+public class LiteralBuffer implements Closeable {
+    private final long memoryThreshold;
+    private final List<byte[]> chunks;
+    private long memorySize;
+    private long size;
+    private File overflowFile;
+    private OutputStream overflowStream;
+    private boolean complete;
+    private boolean closed;
+
+    public LiteralBuffer(long memoryThreshold) {
+        Preconditions.checkArgument(memoryThreshold >= 0, "'memoryThreshold' should be positive");
+        this.memoryThreshold = memoryThreshold;
+        this.chunks = new ArrayList<>();
+    }
+
+    public synchronized void write(byte[] bytes) throws IOException {
+        Preconditions.checkState(!closed && !complete, "Can not write to a completed literal buffer");
+
+        if (overflowStream == null && memorySize + bytes.length <= memoryThreshold) {
+            chunks.add(bytes);
+            memorySize += bytes.length;
+        } else {
+            overflowStream().write(bytes);
+        }
+        size += bytes.length;
+    }
+
+    private OutputStream overflowStream() throws IOException {
+        if (overflowStream == null) {
+            overflowFile = File.createTempFile("imap-literal", ".tmp");
+            overflowStream = new FileOutputStream(overflowFile);
+        }
+        return overflowStream;
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    public synchronized boolean isOverflowing() {
+        return overflowFile != null;
+    }
+
+    /**
+     * @return a stream over the bytes stored so far, starting at the given offset
+     */
+    public synchronized InputStream openStream(long offset) throws IOException {
+        Preconditions.checkState(!closed, "Literal buffer is closed");
+
+        List<InputStream> streams = new ArrayList<>();
+        long position = 0;
+        for (byte[] chunk : chunks) {
+            if (position + chunk.length > offset) {
+                int start = Math.toIntExact(Math.max(0, offset - position));
+                streams.add(new ByteArrayInputStream(chunk, start, chunk.length - start));
+            }
+            position += chunk.length;
+        }
+        if (overflowFile != null) {
+            streams.add(openOverflow(Math.max(0, offset - memorySize)));
+        }
+        return new SequenceInputStream(Collections.enumeration(streams));
+    }
+
+    private InputStream openOverflow(long offset) throws IOException {
+        FileInputStream fileInputStream = new FileInputStream(overflowFile);
+        try {
+            ByteStreams.skipFully(fileInputStream, offset);
+            return ByteStreams.limit(fileInputStream, size - memorySize - offset);
+        } catch (IOException e) {
+            fileInputStream.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Releases the overflow file handle once all the bytes of the command were received. Stored bytes
+     * remain readable until this buffer is closed.
+     */
+    public synchronized void complete() throws IOException {
+        complete = true;
+        if (overflowStream != null) {
+            overflowStream.close();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        chunks.clear();
+        if (overflowFile != null) {
+            try {
+                overflowStream.close();
+            } finally {
+                Files.deleteIfExists(overflowFile.toPath());
+            }
+        }
+    }
+}
@@ -19,6 +19,7 @@
 package org.apache.james.imapserver.netty;
 
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.james.imap.api.process.ImapSession;
 
@@ -38,8 +39,11 @@ public interface NettyConstants {
     String CORE_HANDLER = "coreHandler";
     String CHUNK_WRITE_HANDLER = "chunkWriteHandler";
     String HEARTBEAT_HANDLER = "heartbeatHandler";
+    String WRITABILITY_GATE = "writabilityGate";
 
     AttributeKey<ImapSession> IMAP_SESSION_ATTRIBUTE_KEY = AttributeKey.valueOf("ImapSession");
     AttributeKey<Map<String, Object>> FRAME_DECODE_ATTACHMENT_ATTRIBUTE_KEY  = AttributeKey.valueOf("FrameDecoderMap");
+    AttributeKey<ImapCommandPipeline> COMMAND_PIPELINE_ATTRIBUTE_KEY = AttributeKey.valueOf("ImapCommandPipeline");
+    AttributeKey<AtomicInteger> PROCESSING_COMMANDS_ATTRIBUTE_KEY = AttributeKey.valueOf("ProcessingCommands");
 
 }
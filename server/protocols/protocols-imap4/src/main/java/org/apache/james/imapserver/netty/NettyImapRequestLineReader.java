@@ -21,6 +21,7 @@ package org.apache.james.imapserver.netty;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.io.input.BoundedInputStream;
 import org.apache.james.imap.api.display.HumanReadableText;
@@ -43,12 +44,20 @@ import io.netty.channel.Channel;
 public class NettyImapRequestLineReader extends AbstractNettyImapRequestLineReader {
 
     private final ByteBuf buffer;
-    private int read = 0;
+    private final int startIndex;
     private final int maxLiteralSize;
 
     public NettyImapRequestLineReader(Channel channel, ByteBuf buffer, boolean retry, int maxLiteralSize) {
         super(channel, retry);
         this.buffer = buffer;
+        this.startIndex = buffer.readerIndex();
+        this.maxLiteralSize  = maxLiteralSize;
+    }
+
+    public NettyImapRequestLineReader(Channel channel, ByteBuf buffer, AtomicInteger sentContinuationRequests, int maxLiteralSize) {
+        super(channel, sentContinuationRequests);
+        this.buffer = buffer;
+        this.startIndex = buffer.readerIndex();
         this.maxLiteralSize  = maxLiteralSize;
     }
     
@@ -66,7 +75,6 @@ public class NettyImapRequestLineReader extends AbstractNettyImapRequestLineRead
         if (!nextSeen) {
             if (buffer.isReadable()) {
                 nextChar = (char) buffer.readByte();
-                read++;
                 nextSeen = true;
             } else {
                 throw new NotEnoughDataException();
@@ -93,8 +101,8 @@ public class NettyImapRequestLineReader extends AbstractNettyImapRequestLineRead
         // Check if we have enough data
         if (size + crlf > buffer.readableBytes()) {
             // ok let us throw a exception which till the decoder how many more
-            // bytes we need
-            throw new NotEnoughDataException(size + read + crlf);
+            // bytes we need, counted from the start of the command as it may carry several literals
+            throw new NotEnoughDataException(buffer.readerIndex() - startIndex + size + crlf);
         }
 
         // Unset the next char.
@@ -23,8 +23,11 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang3.NotImplementedException;
+import org.apache.james.events.Registration;
 import org.apache.james.imap.api.ImapSessionState;
 import org.apache.james.imap.api.process.ImapLineHandler;
 import org.apache.james.imap.api.process.ImapSession;
@@ -38,8 +41,7 @@ import org.apache.james.protocols.netty.LineHandlerAware;
 
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
-import io.netty.handler.codec.compression.JZlibDecoder;
-import io.netty.handler.codec.compression.JZlibEncoder;
+import io.netty.handler.codec.compression.JdkZlibDecoder;
 import io.netty.handler.codec.compression.ZlibDecoder;
 import io.netty.handler.codec.compression.ZlibEncoder;
 import io.netty.handler.codec.compression.ZlibWrapper;
@@ -55,6 +57,8 @@ public class NettyImapSession implements ImapSession, NettyConstants {
     private final SessionId sessionId;
     private final boolean supportsOAuth;
     private final Optional<OidcSASLConfiguration> oidcSASLConfiguration;
+    private final Supplier<ZlibEncoder> compressionEncoderFactory;
+    private final AtomicReference<Registration> notifyRegistration = new AtomicReference<>();
 
     private volatile ImapSessionState state = ImapSessionState.NON_AUTHENTICATED;
     private volatile SelectedMailbox selectedMailbox;
@@ -62,7 +66,7 @@ public class NettyImapSession implements ImapSession, NettyConstants {
     private volatile MailboxSession mailboxSession = null;
 
     public NettyImapSession(Channel channel, Encryption secure, boolean compress, boolean requiredSSL, boolean plainAuthEnabled, SessionId sessionId,
-                            Optional<OidcSASLConfiguration> oidcSASLConfiguration) {
+                            Optional<OidcSASLConfiguration> oidcSASLConfiguration, Supplier<ZlibEncoder> compressionEncoderFactory) {
         this.channel = channel;
         this.secure = secure;
         this.compress = compress;
@@ -72,6 +76,7 @@ public class NettyImapSession implements ImapSession, NettyConstants {
         this.needsCommandInjectionDetection = true;
         this.oidcSASLConfiguration = oidcSASLConfiguration;
         this.supportsOAuth = oidcSASLConfiguration.isPresent();
+        this.compressionEncoderFactory = compressionEncoderFactory;
     }
 
     @Override
@@ -107,6 +112,7 @@ public class NettyImapSession implements ImapSession, NettyConstants {
     @Override
     public Mono<Void> logout() {
         return closeMailbox()
+            .then(setNotifyRegistration(Optional.empty()))
             .then(Mono.fromRunnable(() -> state = ImapSessionState.LOGOUT));
     }
 
@@ -148,6 +154,13 @@ public class NettyImapSession implements ImapSession, NettyConstants {
         return this.state;
     }
 
+    @Override
+    public Mono<Void> setNotifyRegistration(Optional<Registration> registration) {
+        return Mono.defer(() -> Optional.ofNullable(notifyRegistration.getAndSet(registration.orElse(null)))
+            .map(previous -> Mono.from(previous.unregister()))
+            .orElse(Mono.empty()));
+    }
+
     private Mono<Void> closeMailbox() {
         if (selectedMailbox != null) {
             return selectedMailbox.deselect()
@@ -223,8 +236,8 @@ public class NettyImapSession implements ImapSession, NettyConstants {
 
         executeSafely(() -> {
             runnable.run();
-            ZlibDecoder decoder = new JZlibDecoder(ZlibWrapper.NONE);
-            ZlibEncoder encoder = new JZlibEncoder(ZlibWrapper.NONE, 5);
+            ZlibDecoder decoder = new JdkZlibDecoder(ZlibWrapper.NONE);
+            ZlibEncoder encoder = compressionEncoderFactory.get();
 
             // Check if we have the SslHandler in the pipeline already
             // if so we need to move the compress encoder and decoder
@@ -293,4 +306,24 @@ public class NettyImapSession implements ImapSession, NettyConstants {
     public void schedule(Runnable runnable, Duration waitDelay) {
         channel.eventLoop().schedule(runnable, waitDelay.toMillis(), TimeUnit.MILLISECONDS);
     }
+
+    @Override
+    public Mono<Void> awaitWritable() {
+        return Optional.ofNullable((ChannelWritabilityGate) channel.pipeline().get(WRITABILITY_GATE))
+            .map(ChannelWritabilityGate::awaitWritable)
+            .orElse(Mono.empty());
+    }
+
+    @Override
+    public boolean isExecutingConcurrentCommands() {
+        return Optional.ofNullable(channel.attr(COMMAND_PIPELINE_ATTRIBUTE_KEY).get())
+            .map(ImapCommandPipeline::isExecutingConcurrentCommands)
+            .orElse(false);
+    }
+
+    @Override
+    public void writeUnsolicited(Runnable write) {
+        Optional.ofNullable(channel.attr(COMMAND_PIPELINE_ATTRIBUTE_KEY).get())
+            .ifPresentOrElse(pipeline -> pipeline.writeUnsolicited(write), write);
+    }
 }
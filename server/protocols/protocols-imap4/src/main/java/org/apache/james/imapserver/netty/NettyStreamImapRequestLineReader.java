@@ -19,11 +19,9 @@
 package org.apache.james.imapserver.netty;
 
 import java.io.Closeable;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.james.imap.api.display.HumanReadableText;
 import org.apache.james.imap.decode.DecodingException;
@@ -36,36 +34,32 @@ import com.google.common.io.CountingInputStream;
 import io.netty.channel.Channel;
 
 public class NettyStreamImapRequestLineReader extends AbstractNettyImapRequestLineReader implements Closeable {
-    private class FileLiteral implements Literal, Closeable {
+    private class BufferedLiteral implements Literal, Closeable {
         private final long offset;
         private final int size;
         private final boolean extraCRLF;
-        private final File file;
         private final AbstractNettyImapRequestLineReader reader;
 
-        private FileLiteral(long offset, int size, boolean extraCRLF, File file, AbstractNettyImapRequestLineReader reader) {
+        private BufferedLiteral(long offset, int size, boolean extraCRLF, AbstractNettyImapRequestLineReader reader) {
             this.offset = offset;
             this.size = size;
             this.extraCRLF = extraCRLF;
-            this.file = file;
             this.reader = reader;
         }
 
         @Override
-        public void close() {
-            file.delete();
+        public void close() throws IOException {
+            backingBuffer.close();
         }
 
         @Override
         public long size() {
-            return Math.min(file.length() - offset, size);
+            return Math.min(backingBuffer.size() - offset, size);
         }
 
         @Override
         public InputStream getInputStream() throws IOException {
-            FileInputStream fileInputStream = new FileInputStream(file);
-            fileInputStream.skip(offset);
-            InputStream limitedStream = ByteStreams.limit(fileInputStream, size);
+            InputStream limitedStream = ByteStreams.limit(backingBuffer.openStream(offset), size);
             if (extraCRLF) {
                 return new EolInputStream(reader, limitedStream);
             } else {
@@ -74,15 +68,19 @@ public class NettyStreamImapRequestLineReader extends AbstractNettyImapRequestLi
         }
     }
 
-    private final File backingFile;
+    private final LiteralBuffer backingBuffer;
     private final CountingInputStream in;
 
-    public NettyStreamImapRequestLineReader(Channel channel, File file, boolean retry) {
-        super(channel, retry);
-        this.backingFile = file;
+    public NettyStreamImapRequestLineReader(Channel channel, LiteralBuffer buffer, boolean retry) {
+        this(channel, buffer, new AtomicInteger(retry ? 1 : 0));
+    }
+
+    public NettyStreamImapRequestLineReader(Channel channel, LiteralBuffer buffer, AtomicInteger sentContinuationRequests) {
+        super(channel, sentContinuationRequests);
+        this.backingBuffer = buffer;
         try {
-            this.in = new CountingInputStream(new FileInputStream(file));
-        } catch (FileNotFoundException e) {
+            this.in = new CountingInputStream(buffer.openStream(0));
+        } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
@@ -95,8 +93,8 @@ public class NettyStreamImapRequestLineReader extends AbstractNettyImapRequestLi
      * @return The next character TODO: character encoding is variable and
      *         cannot be determine at the token level; this char is not accurate
      *         reported; should be an octet
-     * @throws DecodingException
-     *             If the end-of-stream is reached.
+     * @throws NettyImapRequestLineReader.NotEnoughDataException
+     *             If the end of the backing buffer is reached, as more data is still to be received.
      */
     @Override
     public char nextChar() throws DecodingException {
@@ -109,7 +107,7 @@ public class NettyStreamImapRequestLineReader extends AbstractNettyImapRequestLi
                 throw new DecodingException(HumanReadableText.SOCKET_IO_FAILURE, "Error reading from stream.", e);
             }
             if (next == -1) {
-                throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Unexpected end of stream.");
+                throw new NettyImapRequestLineReader.NotEnoughDataException();
             }
             nextSeen = true;
             nextChar = (char) next;
@@ -138,11 +136,15 @@ public class NettyStreamImapRequestLineReader extends AbstractNettyImapRequestLi
         nextSeen = false;
         nextChar = 0;
 
+        long offset = in.getCount();
+        if (offset + size > backingBuffer.size()) {
+            throw new NettyImapRequestLineReader.NotEnoughDataException(Math.toIntExact(offset + size));
+        }
+
         //TODO move this copy in netty stack and try to avoid it
         try {
-            long offset = in.getCount();
-            in.skip(size);
-            return new FileLiteral(offset, size, extraCRLF, backingFile, this);
+            ByteStreams.skipFully(in, size);
+            return new BufferedLiteral(offset, size, extraCRLF, this);
         } catch (IOException e) {
             throw new DecodingException(HumanReadableText.SOCKET_IO_FAILURE, "Could not copy litteral", e);
         }
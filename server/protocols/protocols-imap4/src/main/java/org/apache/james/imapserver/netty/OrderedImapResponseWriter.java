@@ -0,0 +1,142 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imapserver.netty;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+import org.apache.james.imap.encode.ImapResponseWriter;
+import org.apache.james.imap.message.Literal;
+
+import com.google.common.io.FileBackedOutputStream;
+
+/**
+ * {@link ImapResponseWriter} retaining the responses of a pipelined command until the responses of all
+ * the commands received before it were written.
+ *
+ * Retained responses, literals included, are copied to a buffer spilling to disk once
+ * {@link #RETAINED_BYTES_IN_MEMORY_THRESHOLD} bytes are exceeded. As only started commands write, the heap held
+ * by a session is bounded by its command parallelism. The buffer is only allocated upon the first retained write:
+ * commands released before writing, like all of them when commands are executed sequentially, allocate none.
+ *
+ * Writes go straight to the underlying writer once released.
+ */
+public class OrderedImapResponseWriter implements ImapResponseWriter {
+    public static final int RETAINED_BYTES_IN_MEMORY_THRESHOLD = 128 * 1024;
+    private static final int COPY_BUFFER_SIZE = 8192;
+
+    private final ImapResponseWriter delegate;
+    private boolean released = false;
+    private FileBackedOutputStream pendingWrites;
+
+    public OrderedImapResponseWriter(ImapResponseWriter delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public synchronized void write(Literal literal) throws IOException {
+        if (isReleased()) {
+            delegate.write(literal);
+        } else {
+            try (InputStream in = literal.getInputStream()) {
+                in.transferTo(pendingWrites());
+            }
+        }
+    }
+
+    @Override
+    public void write(byte[] buffer) throws IOException {
+        write(buffer, 0, buffer.length);
+    }
+
+    @Override
+    public synchronized void write(byte[] buffer, int offset, int length) throws IOException {
+        if (isReleased()) {
+            delegate.write(buffer, offset, length);
+        } else {
+            pendingWrites().write(buffer, offset, length);
+        }
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        if (isReleased()) {
+            delegate.flush();
+        }
+    }
+
+    /**
+     * Writes the retained responses then switches to direct writes.
+     */
+    public synchronized void release() {
+        if (released) {
+            return;
+        }
+        released = true;
+        FileBackedOutputStream writes = pendingWrites;
+        pendingWrites = null;
+        if (writes == null) {
+            return;
+        }
+        try (InputStream in = writes.asByteSource().openStream()) {
+            byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                delegate.write(buffer, 0, read);
+            }
+            delegate.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            discard(writes);
+        }
+    }
+
+    /**
+     * Drops the retained responses, when the connection is closed before they could be written.
+     */
+    public synchronized void discard() {
+        released = true;
+        FileBackedOutputStream writes = pendingWrites;
+        pendingWrites = null;
+        if (writes != null) {
+            discard(writes);
+        }
+    }
+
+    public synchronized boolean isReleased() {
+        return released;
+    }
+
+    private FileBackedOutputStream pendingWrites() {
+        if (pendingWrites == null) {
+            pendingWrites = new FileBackedOutputStream(RETAINED_BYTES_IN_MEMORY_THRESHOLD);
+        }
+        return pendingWrites;
+    }
+
+    private void discard(FileBackedOutputStream writes) {
+        try {
+            writes.reset();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imapserver.netty;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import org.apache.james.metrics.api.GaugeRegistry;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOutboundBuffer;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+
+/**
+ * Gauges about the data the IMAP server has not yet been able to send to its clients.
+ *
+ * Exposes the total and the worst per connection count of outbound bytes waiting in Netty buffers,
+ * as well as the count of connections whose responses are currently suspended as the client does not
+ * read fast enough.
+ */
+public class OutboundBufferGauges {
+    private final ChannelGroup channels = new DefaultChannelGroup(ImmediateEventExecutor.INSTANCE);
+    private final AtomicInteger suspendedConnections = new AtomicInteger(0);
+
+    public OutboundBufferGauges(GaugeRegistry gaugeRegistry) {
+        gaugeRegistry.register("imap.outbound.pending.bytes", () -> pendingBytes().sum());
+        gaugeRegistry.register("imap.outbound.pending.bytes.max", () -> pendingBytes().max().orElse(0));
+        gaugeRegistry.register("imap.outbound.suspended.connections", suspendedConnections::get);
+    }
+
+    public void track(Channel channel) {
+        // Closed channels are removed from the group automatically
+        channels.add(channel);
+    }
+
+    void suspended() {
+        suspendedConnections.incrementAndGet();
+    }
+
+    void resumed() {
+        suspendedConnections.decrementAndGet();
+    }
+
+    private LongStream pendingBytes() {
+        return channels.stream()
+            .flatMap(channel -> Optional.ofNullable(channel.unsafe().outboundBuffer()).stream())
+            .mapToLong(ChannelOutboundBuffer::totalPendingWriteBytes);
+    }
+}
@@ -0,0 +1,98 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imapserver.netty;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+class ChannelImapResponseWriterTest {
+    EmbeddedChannel channel;
+    ChannelImapResponseWriter testee;
+
+    @BeforeEach
+    void setUp() {
+        channel = new EmbeddedChannel();
+        testee = new ChannelImapResponseWriter(channel);
+    }
+
+    @Test
+    void writeShouldNotFlush() throws Exception {
+        testee.write("* 1 EXISTS\r\n".getBytes(US_ASCII));
+
+        assertThat(channel.outboundMessages()).isEmpty();
+    }
+
+    @Test
+    void flushShouldSendPendingWrites() throws Exception {
+        testee.write("* 1 EXISTS\r\n".getBytes(US_ASCII));
+        testee.write("* 2 EXISTS\r\n".getBytes(US_ASCII));
+
+        testee.flush();
+
+        assertThat(readOutbound()).isEqualTo("* 1 EXISTS\r\n* 2 EXISTS\r\n");
+    }
+
+    @Test
+    void writeShouldOnlyWriteTheGivenSlice() throws Exception {
+        byte[] bytes = "xx* 1 EXISTS\r\nyy".getBytes(US_ASCII);
+
+        testee.write(bytes, 2, bytes.length - 4);
+        testee.flush();
+
+        assertThat(readOutbound()).isEqualTo("* 1 EXISTS\r\n");
+    }
+
+    @Test
+    void writeShouldNotRetainTheGivenArray() throws Exception {
+        byte[] bytes = "* 1 EXISTS\r\n".getBytes(US_ASCII);
+
+        testee.write(bytes);
+        bytes[2] = '2';
+        testee.flush();
+
+        assertThat(readOutbound()).isEqualTo("* 1 EXISTS\r\n");
+    }
+
+    @Test
+    void writeShouldFlushOnceThresholdIsReached() throws Exception {
+        byte[] line = new byte[1024];
+        for (int i = 0; i < ChannelImapResponseWriter.FLUSH_THRESHOLD / line.length; i++) {
+            testee.write(line);
+        }
+
+        assertThat(channel.outboundMessages()).hasSize(ChannelImapResponseWriter.FLUSH_THRESHOLD / line.length);
+    }
+
+    private String readOutbound() {
+        StringBuilder result = new StringBuilder();
+        ByteBuf byteBuf;
+        while ((byteBuf = channel.readOutbound()) != null) {
+            result.append(byteBuf.toString(US_ASCII));
+            byteBuf.release();
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,125 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imapserver.netty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.james.metrics.api.Gauge;
+import org.apache.james.metrics.api.GaugeRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+class ChannelWritabilityGateTest {
+    private static final int USER_DEFINED_WRITABILITY_INDEX = 1;
+
+    Map<String, Gauge<?>> gauges;
+    EmbeddedChannel channel;
+    ChannelWritabilityGate testee;
+
+    @BeforeEach
+    void setUp() {
+        gauges = new HashMap<>();
+        OutboundBufferGauges outboundBufferGauges = new OutboundBufferGauges(new GaugeRegistry() {
+            @Override
+            public <T> GaugeRegistry register(String name, Gauge<T> gauge) {
+                gauges.put(name, gauge);
+                return this;
+            }
+        });
+        channel = new EmbeddedChannel();
+        outboundBufferGauges.track(channel);
+        testee = new ChannelWritabilityGate(channel, outboundBufferGauges);
+        channel.pipeline().addLast(testee);
+    }
+
+    @Test
+    void awaitWritableShouldCompleteWhenChannelIsWritable() {
+        AtomicBoolean completed = new AtomicBoolean(false);
+
+        testee.awaitWritable().doOnSuccess(any -> completed.set(true)).subscribe();
+
+        assertThat(completed).isTrue();
+    }
+
+    @Test
+    void awaitWritableShouldSuspendWhileChannelIsNotWritable() {
+        AtomicBoolean completed = new AtomicBoolean(false);
+        channel.unsafe().outboundBuffer().setUserDefinedWritability(USER_DEFINED_WRITABILITY_INDEX, false);
+
+        testee.awaitWritable().doOnSuccess(any -> completed.set(true)).subscribe();
+
+        assertThat(completed).isFalse();
+        assertThat(gauges.get("imap.outbound.suspended.connections").get()).isEqualTo(1);
+    }
+
+    @Test
+    void awaitWritableShouldResumeWhenChannelBecomesWritable() {
+        AtomicBoolean completed = new AtomicBoolean(false);
+        channel.unsafe().outboundBuffer().setUserDefinedWritability(USER_DEFINED_WRITABILITY_INDEX, false);
+        testee.awaitWritable().doOnSuccess(any -> completed.set(true)).subscribe();
+
+        channel.unsafe().outboundBuffer().setUserDefinedWritability(USER_DEFINED_WRITABILITY_INDEX, true);
+        // Writability changes are notified later on the event loop
+        channel.runPendingTasks();
+
+        assertThat(completed).isTrue();
+        assertThat(gauges.get("imap.outbound.suspended.connections").get()).isEqualTo(0);
+    }
+
+    @Test
+    void awaitWritableShouldResumeWhenChannelIsClosed() {
+        AtomicBoolean completed = new AtomicBoolean(false);
+        channel.unsafe().outboundBuffer().setUserDefinedWritability(USER_DEFINED_WRITABILITY_INDEX, false);
+        testee.awaitWritable().doOnSuccess(any -> completed.set(true)).subscribe();
+
+        channel.close();
+
+        assertThat(completed).isTrue();
+    }
+
+    @Test
+    void awaitWritableShouldFlushCoalescedWrites() {
+        AtomicBoolean completed = new AtomicBoolean(false);
+        channel.config().setWriteBufferWaterMark(new WriteBufferWaterMark(8, 16));
+        channel.write(Unpooled.wrappedBuffer(new byte[32]));
+
+        testee.awaitWritable().doOnSuccess(any -> completed.set(true)).subscribe();
+
+        assertThat(completed).isTrue();
+        assertThat(channel.outboundMessages()).hasSize(1);
+    }
+
+    @Test
+    void pendingBytesGaugeShouldReportUnflushedWrites() {
+        channel.write(Unpooled.wrappedBuffer(new byte[32]));
+
+        // Netty accounts for some overhead per pending message
+        assertThat((Long) gauges.get("imap.outbound.pending.bytes").get()).isGreaterThanOrEqualTo(32L);
+        assertThat((Long) gauges.get("imap.outbound.pending.bytes.max").get()).isGreaterThanOrEqualTo(32L);
+    }
+}
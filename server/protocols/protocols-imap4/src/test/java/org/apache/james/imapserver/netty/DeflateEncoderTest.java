@@ -0,0 +1,163 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imapserver.netty;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.base.Strings;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+class DeflateEncoderTest {
+    static final String RESPONSE = "* 1 FETCH (ENVELOPE (\"Tue, 1 Jan 2019 10:00:00 +0000\" \"subject\" NIL NIL NIL NIL NIL NIL NIL NIL))\r\n";
+
+    RecordingMetricFactory metricFactory;
+    ImapMetrics imapMetrics;
+    Inflater inflater;
+
+    @BeforeEach
+    void setUp() {
+        metricFactory = new RecordingMetricFactory();
+        imapMetrics = new ImapMetrics(metricFactory);
+        inflater = new Inflater(true);
+    }
+
+    @Test
+    void constructorShouldRejectInvalidLevel() {
+        assertThatThrownBy(() -> new DeflateEncoder(10, false, imapMetrics))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void eachWriteShouldBeDecodableOnItsOwn() throws Exception {
+        EmbeddedChannel channel = new EmbeddedChannel(new DeflateEncoder(5, false, imapMetrics));
+
+        channel.writeOutbound(Unpooled.wrappedBuffer(RESPONSE.getBytes(US_ASCII)));
+        channel.writeOutbound(Unpooled.wrappedBuffer("a1 OK FETCH completed.\r\n".getBytes(US_ASCII)));
+
+        assertThat(new String(inflate(channel.readOutbound()), US_ASCII)).isEqualTo(RESPONSE);
+        assertThat(new String(inflate(channel.readOutbound()), US_ASCII)).isEqualTo("a1 OK FETCH completed.\r\n");
+    }
+
+    @Test
+    void largeWritesShouldBeDecodable() throws Exception {
+        EmbeddedChannel channel = new EmbeddedChannel(new DeflateEncoder(9, true, imapMetrics));
+        byte[] payload = randomBytes(64 * 1024);
+
+        channel.writeOutbound(Unpooled.wrappedBuffer(payload));
+
+        assertThat(inflate(channel.readOutbound())).isEqualTo(payload);
+    }
+
+    @Test
+    void adaptiveEncoderShouldLowerLevelForIncompressiblePayloads() {
+        DeflateEncoder testee = new DeflateEncoder(9, true, imapMetrics);
+        EmbeddedChannel channel = new EmbeddedChannel(testee);
+
+        channel.writeOutbound(Unpooled.wrappedBuffer(randomBytes(8192)));
+
+        assertThat(testee.currentLevel()).isEqualTo(9);
+
+        channel.writeOutbound(Unpooled.wrappedBuffer(randomBytes(8192)));
+
+        assertThat(testee.currentLevel()).isEqualTo(Deflater.BEST_SPEED);
+    }
+
+    @Test
+    void adaptiveEncoderShouldUseConfiguredLevelForResponseLines() {
+        DeflateEncoder testee = new DeflateEncoder(9, true, imapMetrics);
+        EmbeddedChannel channel = new EmbeddedChannel(testee);
+        channel.writeOutbound(Unpooled.wrappedBuffer(randomBytes(8192)));
+        channel.writeOutbound(Unpooled.wrappedBuffer(randomBytes(8192)));
+
+        channel.writeOutbound(Unpooled.wrappedBuffer(RESPONSE.getBytes(US_ASCII)));
+
+        assertThat(testee.currentLevel()).isEqualTo(9);
+    }
+
+    @Test
+    void adaptiveEncoderShouldKeepLevelForCompressiblePayloads() {
+        DeflateEncoder testee = new DeflateEncoder(9, true, imapMetrics);
+        EmbeddedChannel channel = new EmbeddedChannel(testee);
+
+        channel.writeOutbound(Unpooled.wrappedBuffer(Strings.repeat(RESPONSE, 100).getBytes(US_ASCII)));
+        channel.writeOutbound(Unpooled.wrappedBuffer(Strings.repeat(RESPONSE, 100).getBytes(US_ASCII)));
+
+        assertThat(testee.currentLevel()).isEqualTo(9);
+    }
+
+    @Test
+    void nonAdaptiveEncoderShouldKeepLevel() {
+        DeflateEncoder testee = new DeflateEncoder(9, false, imapMetrics);
+        EmbeddedChannel channel = new EmbeddedChannel(testee);
+
+        channel.writeOutbound(Unpooled.wrappedBuffer(randomBytes(8192)));
+        channel.writeOutbound(Unpooled.wrappedBuffer(randomBytes(8192)));
+
+        assertThat(testee.currentLevel()).isEqualTo(9);
+    }
+
+    @Test
+    void encoderShouldRecordCompressionStatistics() {
+        DeflateEncoder testee = new DeflateEncoder(5, false, imapMetrics);
+        EmbeddedChannel channel = new EmbeddedChannel(testee);
+        byte[] payload = Strings.repeat(RESPONSE, 100).getBytes(US_ASCII);
+
+        channel.writeOutbound(Unpooled.wrappedBuffer(payload));
+
+        assertThat(testee.compressionRatio()).isLessThan(0.5);
+        assertThat(imapMetrics.getCompressionInputBytesMetric().getCount()).isEqualTo(payload.length);
+        assertThat(imapMetrics.getCompressionOutputBytesMetric().getCount()).isEqualTo(((ByteBuf) channel.readOutbound()).readableBytes());
+        assertThat(metricFactory.executionTimesFor("imapCompression")).hasSize(1);
+    }
+
+    byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random().nextBytes(bytes);
+        return bytes;
+    }
+
+    byte[] inflate(ByteBuf compressed) throws Exception {
+        byte[] input = new byte[compressed.readableBytes()];
+        compressed.readBytes(input);
+        compressed.release();
+        inflater.setInput(input);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int inflated;
+        do {
+            inflated = inflater.inflate(buffer);
+            output.write(buffer, 0, inflated);
+        } while (inflated > 0);
+        return output.toByteArray();
+    }
+}
@@ -70,4 +70,13 @@ class IMAPServerConfigurationTest {
 
         assertThat(imapConfiguration).isEqualTo(expectImapConfiguration);
     }
+
+    @Test
+    void getImapConfigurationShouldAdvertiseLiteralSizeLimitAsAppendLimit() {
+        HierarchicalConfiguration<ImmutableNode> configurationBuilder = new BaseHierarchicalConfiguration();
+        configurationBuilder.addProperty("literalSizeLimit", "128K");
+
+        assertThat(IMAPServer.getImapConfiguration(configurationBuilder).getAppendLimit())
+            .contains(128L * 1024);
+    }
 }
\ No newline at end of file
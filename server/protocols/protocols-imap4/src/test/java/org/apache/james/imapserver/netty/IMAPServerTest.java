@@ -39,10 +39,13 @@ import java.nio.channels.SocketChannel;
 import java.nio.charset.StandardCharsets;
 import java.security.cert.X509Certificate;
 import java.time.Duration;
+import java.util.Base64;
 import java.util.List;
 import java.util.Properties;
+import java.util.Random;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.function.Predicate;
+import java.util.regex.Pattern;
 import java.util.stream.IntStream;
 
 import javax.mail.FetchProfile;
@@ -124,6 +127,7 @@ import io.netty.handler.codec.compression.ZlibWrapper;
 import io.netty.handler.ssl.SslContextBuilder;
 import nl.altindag.ssl.exception.GenericKeyStoreException;
 import nl.altindag.ssl.exception.PrivateKeyParseException;
+import reactor.core.Disposable;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 import reactor.netty.Connection;
@@ -350,6 +354,49 @@ class IMAPServerTest {
         }
     }
 
+    @Nested
+    class LiteralMemoryBuffer {
+        IMAPServer imapServer;
+        private int port;
+
+        @BeforeEach
+        void beforeEach() throws Exception {
+            imapServer = createImapServer("imapServerLiteralMemoryBuffer.xml");
+            port = imapServer.getListenAddresses().get(0).getPort();
+        }
+
+        @AfterEach
+        void tearDown() {
+            imapServer.destroy();
+        }
+
+        @Test
+        void appendsFittingInTheMemoryBufferShouldWork() throws Exception {
+            assertThatCode(() ->
+                testIMAPClient.connect("127.0.0.1", port)
+                    .login(USER.asString(), USER_PASS)
+                    .append("INBOX", _65K_MESSAGE))
+                .doesNotThrowAnyException();
+
+            assertThat(testIMAPClient.select("INBOX")
+                    .readFirstMessage())
+                .contains("\r\n" + _65K_MESSAGE + ")\r\n");
+        }
+
+        @Test
+        void appendsOverflowingTheMemoryBufferShouldWork() throws Exception {
+            assertThatCode(() ->
+                testIMAPClient.connect("127.0.0.1", port)
+                    .login(USER.asString(), USER_PASS)
+                    .append("INBOX", _129K_MESSAGE))
+                .doesNotThrowAnyException();
+
+            assertThat(testIMAPClient.select("INBOX")
+                    .readFirstMessage())
+                .contains("\r\n" + _129K_MESSAGE + ")\r\n");
+        }
+    }
+
     @Nested
     class AppendNonSynchronizedLitterals {
         IMAPServer imapServer;
@@ -439,6 +486,72 @@ class IMAPServerTest {
 
             assertThat(new String(readBytes(clientConnection), StandardCharsets.US_ASCII)).contains("APPEND completed.");
         }
+
+        @Test
+        void multiAppendShouldStoreAllMessagesWhenNonSynchronized() throws Exception {
+            clientConnection.write(ByteBuffer.wrap(String.format("a0 LOGIN %s %s\r\n", USER.asString(), USER_PASS).getBytes(StandardCharsets.UTF_8)));
+            readBytes(clientConnection);
+
+            clientConnection.write(ByteBuffer.wrap(("A004 APPEND INBOX {" + SMALL_MESSAGE.length() + "+}\r\n" +
+                SMALL_MESSAGE + " (\\Seen) {" + SMALL_MESSAGE.length() + "+}\r\n" +
+                SMALL_MESSAGE + "\r\n").getBytes(StandardCharsets.UTF_8)));
+
+            assertThat(readStringUntil(clientConnection, s -> s.contains("A004 ")))
+                .filteredOn(s -> s.contains("A004 OK"))
+                .hasSize(1)
+                .allSatisfy(s -> assertThat(s).contains("APPENDUID"));
+            assertThat(inboxMessageCount()).isEqualTo(2);
+        }
+
+        @Test
+        void multiAppendShouldRequestEachSynchronizedLiteral() throws Exception {
+            clientConnection.write(ByteBuffer.wrap(String.format("a0 LOGIN %s %s\r\n", USER.asString(), USER_PASS).getBytes(StandardCharsets.UTF_8)));
+            readBytes(clientConnection);
+
+            clientConnection.write(ByteBuffer.wrap(("A004 APPEND INBOX {" + SMALL_MESSAGE.length() + "}\r\n").getBytes(StandardCharsets.UTF_8)));
+            assertThat(new String(readBytes(clientConnection), StandardCharsets.US_ASCII)).startsWith("+");
+
+            clientConnection.write(ByteBuffer.wrap((SMALL_MESSAGE + " {" + SMALL_MESSAGE.length() + "}\r\n").getBytes(StandardCharsets.UTF_8)));
+            assertThat(new String(readBytes(clientConnection), StandardCharsets.US_ASCII)).startsWith("+");
+
+            clientConnection.write(ByteBuffer.wrap((SMALL_MESSAGE + "\r\n").getBytes(StandardCharsets.UTF_8)));
+
+            assertThat(readStringUntil(clientConnection, s -> s.contains("A004 ")))
+                .anySatisfy(s -> assertThat(s).contains("APPEND completed."));
+            assertThat(inboxMessageCount()).isEqualTo(2);
+        }
+
+        @Test
+        void multiAppendShouldSupportLiteralsStoredInTemporaryFiles() throws Exception {
+            clientConnection.write(ByteBuffer.wrap(String.format("a0 LOGIN %s %s\r\n", USER.asString(), USER_PASS).getBytes(StandardCharsets.UTF_8)));
+            readBytes(clientConnection);
+
+            clientConnection.write(ByteBuffer.wrap(("A004 APPEND INBOX {" + _65K_MESSAGE.length() + "}\r\n").getBytes(StandardCharsets.UTF_8)));
+            assertThat(new String(readBytes(clientConnection), StandardCharsets.US_ASCII)).startsWith("+");
+
+            writeFully(clientConnection, _65K_MESSAGE + " {" + _65K_MESSAGE.length() + "}\r\n");
+            assertThat(new String(readBytes(clientConnection), StandardCharsets.US_ASCII)).startsWith("+");
+
+            writeFully(clientConnection, _65K_MESSAGE + "\r\n");
+
+            assertThat(readStringUntil(clientConnection, s -> s.contains("A004 ")))
+                .anySatisfy(s -> assertThat(s).contains("APPEND completed."));
+            assertThat(inboxMessageCount()).isEqualTo(2);
+        }
+
+        private void writeFully(SocketChannel channel, String data) throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap(data.getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        private long inboxMessageCount() throws Exception {
+            MailboxSession mailboxSession = memoryIntegrationResources.getMailboxManager().createSystemSession(USER);
+            return memoryIntegrationResources.getMailboxManager()
+                .getMailbox(MailboxPath.inbox(USER), mailboxSession)
+                .getMessageCount(mailboxSession);
+        }
     }
 
     @Nested
@@ -515,6 +628,33 @@ class IMAPServerTest {
 
             inbox.getMessageByUID(1);
         }
+
+        @Test
+        void largeMessagesShouldBeReadableWhenAdaptiveCompression() throws Exception {
+            InMemoryMailboxManager mailboxManager = memoryIntegrationResources.getMailboxManager();
+            MailboxSession mailboxSession = mailboxManager.createSystemSession(USER);
+            mailboxManager.createMailbox(
+                MailboxPath.inbox(USER),
+                mailboxSession);
+            byte[] attachment = new byte[256 * 1024];
+            new Random().nextBytes(attachment);
+            String body = Base64.getMimeEncoder().encodeToString(attachment) + "\r\n";
+            mailboxManager.getMailbox(MailboxPath.inbox(USER), mailboxSession)
+                .appendMessage(MessageManager.AppendCommand.builder().build("header: value\r\n\r\n" + body), mailboxSession);
+
+            Properties props = new Properties();
+            props.put("mail.imap.user", USER.asString());
+            props.put("mail.imap.host", "127.0.0.1");
+            props.put("mail.imap.auth.mechanisms", "LOGIN");
+            props.put("mail.imap.compress.enable", true);
+            final Session session = Session.getInstance(props);
+            final Store store = session.getStore("imap");
+            store.connect("127.0.0.1", port, USER.asString(), USER_PASS);
+            final IMAPFolder inbox = (IMAPFolder) store.getFolder("INBOX");
+            inbox.open(READ_WRITE);
+
+            assertThat(inbox.getMessageByUID(1).getContent()).isEqualTo(body);
+        }
     }
 
     @Nested
@@ -1802,6 +1942,89 @@ class IMAPServerTest {
         }
     }
 
+    @Nested
+    class Notify {
+        IMAPServer imapServer;
+        private MailboxSession mailboxSession;
+        private MessageManager inbox;
+        private MessageManager other;
+        private SocketChannel clientConnection;
+        private StringBuilder output;
+
+        @BeforeEach
+        void beforeEach() throws Exception {
+            imapServer = createImapServer("imapServer.xml");
+            int port = imapServer.getListenAddresses().get(0).getPort();
+            mailboxSession = memoryIntegrationResources.getMailboxManager().createSystemSession(USER);
+            memoryIntegrationResources.getMailboxManager()
+                .createMailbox(MailboxPath.inbox(USER), mailboxSession);
+            memoryIntegrationResources.getMailboxManager()
+                .createMailbox(MailboxPath.forUser(USER, "other"), mailboxSession);
+            inbox = memoryIntegrationResources.getMailboxManager().getMailbox(MailboxPath.inbox(USER), mailboxSession);
+            other = memoryIntegrationResources.getMailboxManager().getMailbox(MailboxPath.forUser(USER, "other"), mailboxSession);
+
+            output = new StringBuilder();
+            clientConnection = SocketChannel.open();
+            clientConnection.connect(new InetSocketAddress(LOCALHOST_IP, port));
+            readUntil("* OK");
+        }
+
+        @AfterEach
+        void tearDown() throws Exception {
+            clientConnection.close();
+            imapServer.destroy();
+        }
+
+        @Test
+        void notificationsShouldNotInterleaveWithFetchedLiterals() throws Exception {
+            String message = "Subject: big\r\n\r\n" + "0123456789abcdefghijklmnopqrstuvwxyz\r\n".repeat(5000);
+            inbox.appendMessage(MessageManager.AppendCommand.builder().build(message.getBytes(StandardCharsets.US_ASCII)), mailboxSession);
+
+            send(String.format("a0 LOGIN %s %s\r\n", USER.asString(), USER_PASS));
+            readUntil("a0 OK");
+            send("a1 NOTIFY SET (personal (MessageNew MessageExpunge))\r\n");
+            readUntil("a1 OK");
+            send("a2 SELECT INBOX\r\n");
+            readUntil("a2 OK");
+
+            Disposable events = Mono.fromRunnable(Throwing.runnable(() -> other.appendMessage(MessageManager.AppendCommand.builder()
+                    .build("h: value\r\n\r\nbody".getBytes(StandardCharsets.US_ASCII)), mailboxSession)))
+                .repeat()
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe();
+            int fetchCount = 10;
+            try {
+                for (int i = 0; i < fetchCount; i++) {
+                    send("f" + i + " FETCH 1 BODY.PEEK[]\r\n");
+                    readUntil("f" + i + " OK");
+                }
+            } finally {
+                events.dispose();
+            }
+
+            String fetchedLiteral = "{" + message.length() + "}\r\n" + message + ")\r\n";
+            SoftAssertions.assertSoftly(softly -> {
+                softly.assertThat(output.toString()).contains("* STATUS ");
+                softly.assertThat(output.toString().split(Pattern.quote(fetchedLiteral), -1)).hasSize(fetchCount + 1);
+            });
+        }
+
+        private void send(String command) throws IOException {
+            clientConnection.write(ByteBuffer.wrap(command.getBytes(StandardCharsets.US_ASCII)));
+        }
+
+        private void readUntil(String marker) throws IOException {
+            int start = output.length();
+            ByteBuffer buffer = ByteBuffer.allocate(8192);
+            while (output.indexOf(marker, start) < 0) {
+                buffer.clear();
+                clientConnection.read(buffer);
+                buffer.flip();
+                output.append(StandardCharsets.US_ASCII.decode(buffer));
+            }
+        }
+    }
+
     @Nested
     class CondStore {
         IMAPServer imapServer;
@@ -0,0 +1,310 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imapserver.netty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.james.imap.encode.ImapResponseWriter;
+import org.apache.james.imap.message.Literal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class ImapCommandPipelineTest {
+    static class RecordingWriter implements ImapResponseWriter {
+        private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        @Override
+        public void write(Literal literal) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void write(byte[] buffer) {
+            output.writeBytes(buffer);
+        }
+
+        String content() {
+            return output.toString(StandardCharsets.US_ASCII);
+        }
+    }
+
+    RecordingWriter channel;
+    List<String> started;
+
+    @BeforeEach
+    void setUp() {
+        channel = new RecordingWriter();
+        started = new ArrayList<>();
+    }
+
+    Sinks.Empty<Void> submit(ImapCommandPipeline testee, String tag, boolean concurrent) {
+        Sinks.Empty<Void> completion = Sinks.empty();
+        OrderedImapResponseWriter writer = new OrderedImapResponseWriter(channel);
+        testee.submit(concurrent, writer, () -> Mono.fromRunnable(() -> started.add(tag))
+            .then(Mono.fromRunnable(() -> write(writer, tag + " started\r\n")))
+            .then(completion.asMono())
+            .then(Mono.fromRunnable(() -> write(writer, tag + " OK\r\n"))));
+        return completion;
+    }
+
+    void write(ImapResponseWriter writer, String content) {
+        try {
+            writer.write(content.getBytes(StandardCharsets.US_ASCII));
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Test
+    void constructorShouldRejectNonPositiveParallelism() {
+        assertThatThrownBy(() -> new ImapCommandPipeline(0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void commandsShouldBeExecutedSequentiallyByDefault() {
+        ImapCommandPipeline testee = new ImapCommandPipeline(1);
+
+        Sinks.Empty<Void> a1 = submit(testee, "a1", true);
+        submit(testee, "a2", true);
+
+        assertThat(started).containsExactly("a1");
+        assertThat(testee.isExecutingConcurrentCommands()).isFalse();
+
+        a1.tryEmitEmpty();
+
+        assertThat(started).containsExactly("a1", "a2");
+    }
+
+    @Test
+    void concurrentSafeCommandsShouldRunConcurrently() {
+        ImapCommandPipeline testee = new ImapCommandPipeline(4);
+
+        submit(testee, "a1", true);
+        submit(testee, "a2", true);
+
+        assertThat(started).containsExactly("a1", "a2");
+        assertThat(testee.isExecutingConcurrentCommands()).isTrue();
+    }
+
+    @Test
+    void concurrencyShouldBeBoundedByParallelism() {
+        ImapCommandPipeline testee = new ImapCommandPipeline(2);
+
+        Sinks.Empty<Void> a1 = submit(testee, "a1", true);
+        submit(testee, "a2", true);
+        submit(testee, "a3", true);
+
+        assertThat(started).containsExactly("a1", "a2");
+
+        a1.tryEmitEmpty();
+
+        assertThat(started).containsExactly("a1", "a2", "a3");
+    }
+
+    @Test
+    void exclusiveCommandShouldWaitForPreviousCommands() {
+        ImapCommandPipeline testee = new ImapCommandPipeline(4);
+
+        Sinks.Empty<Void> a1 = submit(testee, "a1", true);
+        submit(testee, "a2", false);
+
+        assertThat(started).containsExactly("a1");
+
+        a1.tryEmitEmpty();
+
+        assertThat(started).containsExactly("a1", "a2");
+        assertThat(testee.isExecutingConcurrentCommands()).isFalse();
+    }
+
+    @Test
+    void exclusiveCommandShouldHoldBackFollowingCommands() {
+        ImapCommandPipeline testee = new ImapCommandPipeline(4);
+
+        Sinks.Empty<Void> a1 = submit(testee, "a1", false);
+        submit(testee, "a2", true);
+
+        assertThat(started).containsExactly("a1");
+
+        a1.tryEmitEmpty();
+
+        assertThat(started).containsExactly("a1", "a2");
+    }
+
+    @Test
+    void responsesShouldBeWrittenInCommandOrder() {
+        ImapCommandPipeline testee = new ImapCommandPipeline(4);
+
+        Sinks.Empty<Void> a1 = submit(testee, "a1", true);
+        Sinks.Empty<Void> a2 = submit(testee, "a2", true);
+
+        a2.tryEmitEmpty();
+
+        assertThat(channel.content()).isEqualTo("a1 started\r\n");
+
+        a1.tryEmitEmpty();
+
+        assertThat(channel.content()).isEqualTo("a1 started\r\na1 OK\r\na2 started\r\na2 OK\r\n");
+    }
+
+    @Test
+    void releasedCommandShouldWriteDirectly() {
+        ImapCommandPipeline testee = new ImapCommandPipeline(4);
+
+        Sinks.Empty<Void> a1 = submit(testee, "a1", true);
+        Sinks.Empty<Void> a2 = submit(testee, "a2", true);
+        a1.tryEmitEmpty();
+
+        assertThat(channel.content()).isEqualTo("a1 started\r\na1 OK\r\na2 started\r\n");
+
+        a2.tryEmitEmpty();
+
+        assertThat(channel.content()).isEqualTo("a1 started\r\na1 OK\r\na2 started\r\na2 OK\r\n");
+    }
+
+    @Test
+    void unsolicitedResponsesShouldBeWrittenRightAwayWhenNoCommandIsInFlight() {
+        ImapCommandPipeline testee = new ImapCommandPipeline(4);
+
+        testee.writeUnsolicited(() -> write(channel, "* STATUS\r\n"));
+
+        assertThat(channel.content()).isEqualTo("* STATUS\r\n");
+    }
+
+    @Test
+    void unsolicitedResponsesShouldBeDeferredUntilTheWrittenCommandCompletes() {
+        ImapCommandPipeline testee = new ImapCommandPipeline(4);
+
+        Sinks.Empty<Void> a1 = submit(testee, "a1", true);
+        Sinks.Empty<Void> a2 = submit(testee, "a2", true);
+        testee.writeUnsolicited(() -> write(channel, "* STATUS\r\n"));
+
+        assertThat(channel.content()).isEqualTo("a1 started\r\n");
+
+        a2.tryEmitEmpty();
+        a1.tryEmitEmpty();
+
+        assertThat(channel.content()).isEqualTo("a1 started\r\na1 OK\r\n* STATUS\r\na2 started\r\na2 OK\r\n");
+    }
+
+    @Test
+    void unsolicitedResponsesShouldBeWrittenRightAwayWhenTheCommandAcceptsThem() {
+        ImapCommandPipeline testee = new ImapCommandPipeline(4);
+
+        testee.submit(false, true, new OrderedImapResponseWriter(channel), () -> Mono.never());
+        testee.writeUnsolicited(() -> write(channel, "* STATUS\r\n"));
+
+        assertThat(channel.content()).isEqualTo("* STATUS\r\n");
+    }
+
+    @Test
+    void failedCommandShouldNotStallThePipeline() {
+        ImapCommandPipeline testee = new ImapCommandPipeline(1);
+
+        testee.submit(false, new OrderedImapResponseWriter(channel), () -> Mono.error(new RuntimeException()));
+        submit(testee, "a2", false);
+
+        assertThat(started).containsExactly("a2");
+    }
+
+    @Test
+    void retainedResponsesExceedingTheInMemoryThresholdShouldBeWrittenOnRelease() {
+        ImapCommandPipeline testee = new ImapCommandPipeline(4);
+        String largeResponse = "* 1 FETCH (BODY[] " + "a".repeat(OrderedImapResponseWriter.RETAINED_BYTES_IN_MEMORY_THRESHOLD) + ")\r\n";
+
+        Sinks.Empty<Void> a1 = submit(testee, "a1", true);
+        OrderedImapResponseWriter writer = new OrderedImapResponseWriter(channel);
+        testee.submit(true, writer, () -> Mono.fromRunnable(() -> write(writer, largeResponse)));
+
+        assertThat(channel.content()).isEqualTo("a1 started\r\n");
+
+        a1.tryEmitEmpty();
+
+        assertThat(channel.content()).isEqualTo("a1 started\r\na1 OK\r\n" + largeResponse);
+    }
+
+    @Test
+    void readsShouldBeSuspendedOnceTheMaximumCountOfCommandsIsQueued() {
+        List<Boolean> readings = new ArrayList<>();
+        ImapCommandPipeline testee = new ImapCommandPipeline(1, 4, readings::add);
+
+        submit(testee, "a1", false);
+        submit(testee, "a2", false);
+        submit(testee, "a3", false);
+
+        assertThat(readings).isEmpty();
+
+        submit(testee, "a4", false);
+
+        assertThat(readings).containsExactly(false);
+        assertThat(testee.isReadSuspended()).isTrue();
+    }
+
+    @Test
+    void readsShouldBeResumedOnceHalfOfTheQueuedCommandsCompleted() {
+        List<Boolean> readings = new ArrayList<>();
+        ImapCommandPipeline testee = new ImapCommandPipeline(1, 4, readings::add);
+
+        Sinks.Empty<Void> a1 = submit(testee, "a1", false);
+        Sinks.Empty<Void> a2 = submit(testee, "a2", false);
+        Sinks.Empty<Void> a3 = submit(testee, "a3", false);
+        submit(testee, "a4", false);
+
+        a1.tryEmitEmpty();
+
+        assertThat(readings).containsExactly(false);
+
+        a2.tryEmitEmpty();
+
+        assertThat(readings).containsExactly(false, true);
+        assertThat(testee.isReadSuspended()).isFalse();
+    }
+
+    @Test
+    void releasingAWriterWithoutRetainedResponsesShouldNotFlush() throws Exception {
+        ImapResponseWriter delegate = mock(ImapResponseWriter.class);
+        OrderedImapResponseWriter writer = new OrderedImapResponseWriter(delegate);
+
+        writer.release();
+
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    void discardedResponsesShouldNotBeWritten() {
+        ImapCommandPipeline testee = new ImapCommandPipeline(4);
+
+        submit(testee, "a1", true);
+        submit(testee, "a2", true);
+        testee.close();
+
+        assertThat(channel.content()).isEqualTo("a1 started\r\n");
+    }
+}
@@ -0,0 +1,162 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.imapserver.netty;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LiteralBufferTest {
+    LiteralBuffer testee;
+
+    @BeforeEach
+    void setUp() {
+        testee = new LiteralBuffer(10);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        testee.close();
+    }
+
+    @Test
+    void constructorShouldRejectNegativeThreshold() {
+        assertThatThrownBy(() -> new LiteralBuffer(-1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void bytesFittingInMemoryShouldNotOverflow() throws Exception {
+        testee.write("01234".getBytes(US_ASCII));
+        testee.write("56789".getBytes(US_ASCII));
+
+        assertThat(testee.isOverflowing()).isFalse();
+    }
+
+    @Test
+    void bytesExceedingTheThresholdShouldOverflow() throws Exception {
+        testee.write("01234".getBytes(US_ASCII));
+        testee.write("56789A".getBytes(US_ASCII));
+
+        assertThat(testee.isOverflowing()).isTrue();
+    }
+
+    @Test
+    void sizeShouldAccountForMemoryAndOverflow() throws Exception {
+        testee.write("01234".getBytes(US_ASCII));
+        testee.write("56789ABCDE".getBytes(US_ASCII));
+
+        assertThat(testee.size()).isEqualTo(15);
+    }
+
+    @Test
+    void openStreamShouldReturnInMemoryBytes() throws Exception {
+        testee.write("01234".getBytes(US_ASCII));
+        testee.write("567".getBytes(US_ASCII));
+
+        assertThat(read(testee.openStream(0))).isEqualTo("01234567");
+    }
+
+    @Test
+    void openStreamShouldReturnMemoryThenOverflowBytes() throws Exception {
+        testee.write("01234".getBytes(US_ASCII));
+        testee.write("56789ABCDE".getBytes(US_ASCII));
+        testee.write("FGH".getBytes(US_ASCII));
+
+        assertThat(read(testee.openStream(0))).isEqualTo("0123456789ABCDEFGH");
+    }
+
+    @Test
+    void openStreamShouldHonorOffsetWithinMemory() throws Exception {
+        testee.write("01234".getBytes(US_ASCII));
+        testee.write("5678".getBytes(US_ASCII));
+        testee.write("9ABCDE".getBytes(US_ASCII));
+
+        assertThat(read(testee.openStream(3))).isEqualTo("3456789ABCDE");
+    }
+
+    @Test
+    void openStreamShouldHonorOffsetWithinOverflow() throws Exception {
+        testee.write("01234".getBytes(US_ASCII));
+        testee.write("56789ABCDE".getBytes(US_ASCII));
+
+        assertThat(read(testee.openStream(7))).isEqualTo("789ABCDE");
+    }
+
+    @Test
+    void openStreamShouldOnlyReturnBytesWrittenSoFar() throws Exception {
+        testee.write("0123456789AB".getBytes(US_ASCII));
+        InputStream stream = testee.openStream(0);
+        testee.write("CDE".getBytes(US_ASCII));
+
+        assertThat(read(stream)).isEqualTo("0123456789AB");
+    }
+
+    @Test
+    void storedBytesShouldRemainReadableWhenComplete() throws Exception {
+        testee.write("01234".getBytes(US_ASCII));
+        testee.write("56789ABCDE".getBytes(US_ASCII));
+
+        testee.complete();
+
+        assertThat(read(testee.openStream(0))).isEqualTo("0123456789ABCDE");
+    }
+
+    @Test
+    void writeShouldThrowWhenComplete() throws Exception {
+        testee.complete();
+
+        assertThatThrownBy(() -> testee.write("0".getBytes(US_ASCII)))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void openStreamShouldThrowWhenClosed() throws Exception {
+        testee.write("0123456789ABCDE".getBytes(US_ASCII));
+
+        testee.close();
+
+        assertThatThrownBy(() -> testee.openStream(0))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void closeShouldBeIdempotent() throws Exception {
+        testee.write("0123456789ABCDE".getBytes(US_ASCII));
+
+        testee.close();
+        testee.close();
+
+        assertThat(testee.size()).isEqualTo(15);
+    }
+
+    private String read(InputStream stream) throws IOException {
+        try (InputStream inputStream = stream) {
+            return new String(inputStream.readAllBytes(), US_ASCII);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.protocols.lib;
+
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.TimeMetric;
+import org.apache.james.protocols.api.ClientAuth;
+import org.apache.james.protocols.netty.Encryption;
+
+import io.netty.handler.ssl.SslHandler;
+
+/**
+ * Decorates an {@link Encryption} in order to publish the duration of TLS handshakes, a count of failed
+ * handshakes, as well as counts of resumed and full handshakes allowing to monitor the session cache hit rate.
+ *
+ * A session is considered resumed when it was created before the handshake started.
+ *
+ * The timer starts when the {@link SslHandler} is created, which happens upon connection for implicit
+ * TLS and upon STARTTLS command otherwise.
+ */
+public class HandshakeTimingEncryption implements Encryption {
+    private static final String TLS_HANDSHAKE = "tlsHandshake-";
+    private static final String TLS_HANDSHAKE_FAILURES = "tlsHandshakeFailures-";
+    private static final String TLS_SESSION_RESUMED = "tlsSessionResumed-";
+    private static final String TLS_FULL_HANDSHAKE = "tlsFullHandshake-";
+
+    private final Encryption delegate;
+    private final MetricFactory metricFactory;
+    private final String handshakeTimerName;
+    private final Metric handshakeFailures;
+    private final Metric sessionResumed;
+    private final Metric fullHandshake;
+
+    public HandshakeTimingEncryption(Encryption delegate, MetricFactory metricFactory, String serverName) {
+        this.delegate = delegate;
+        this.metricFactory = metricFactory;
+        this.handshakeTimerName = TLS_HANDSHAKE + serverName;
+        this.handshakeFailures = metricFactory.generate(TLS_HANDSHAKE_FAILURES + serverName);
+        this.sessionResumed = metricFactory.generate(TLS_SESSION_RESUMED + serverName);
+        this.fullHandshake = metricFactory.generate(TLS_FULL_HANDSHAKE + serverName);
+    }
+
+    @Override
+    public boolean isStartTLS() {
+        return delegate.isStartTLS();
+    }
+
+    @Override
+    public boolean supportsEncryption() {
+        return delegate.supportsEncryption();
+    }
+
+    @Override
+    public String[] getEnabledCipherSuites() {
+        return delegate.getEnabledCipherSuites();
+    }
+
+    @Override
+    public ClientAuth getClientAuth() {
+        return delegate.getClientAuth();
+    }
+
+    @Override
+    public SslHandler sslHandler() {
+        SslHandler sslHandler = delegate.sslHandler();
+        TimeMetric timer = metricFactory.timer(handshakeTimerName);
+        long startedAt = System.currentTimeMillis();
+        sslHandler.handshakeFuture().addListener(future -> {
+            if (future.isSuccess()) {
+                timer.stopAndPublish();
+                recordResumption(sslHandler, startedAt);
+            } else {
+                handshakeFailures.increment();
+            }
+        });
+        return sslHandler;
+    }
+
+    private void recordResumption(SslHandler sslHandler, long startedAt) {
+        if (sslHandler.engine().getSession().getCreationTime() < startedAt) {
+            sessionResumed.increment();
+        } else {
+            fullHandshake.increment();
+        }
+    }
+}
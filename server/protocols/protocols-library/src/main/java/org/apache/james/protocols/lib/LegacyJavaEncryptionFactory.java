@@ -41,6 +41,23 @@ public class LegacyJavaEncryptionFactory implements Encryption.Factory {
 
     @Override
     public Encryption create() throws Exception {
+        SSLContext context = SharedTlsContexts.jdkContext(fileSystem, sslConfig, this::createContext);
+
+        if (sslConfig.useStartTLS()) {
+            return Encryption.createStartTls(context, sslConfig.getEnabledCipherSuites(), sslConfig.getClientAuth());
+        } else {
+           return Encryption.createTls(context, sslConfig.getEnabledCipherSuites(), sslConfig.getClientAuth());
+        }
+    }
+
+    private SSLContext createContext() throws Exception {
+        SSLContext context = sslFactory(fileSystem, sslConfig).getSslContext();
+        context.getServerSessionContext().setSessionCacheSize(Math.toIntExact(sslConfig.getSessionCacheSize()));
+        context.getServerSessionContext().setSessionTimeout(Math.toIntExact(sslConfig.getSessionTimeout()));
+        return context;
+    }
+
+    static SSLFactory sslFactory(FileSystem fileSystem, SslConfig sslConfig) throws Exception {
         SSLFactory.Builder sslFactoryBuilder = SSLFactory.builder()
             .withSslContextAlgorithm("TLS");
         if (sslConfig.getKeystore() != null) {
@@ -70,12 +87,6 @@ public class LegacyJavaEncryptionFactory implements Encryption.Factory {
                 sslConfig.getKeystoreType());
         }
 
-        SSLContext context = sslFactoryBuilder.build().getSslContext();
-
-        if (sslConfig.useStartTLS()) {
-            return Encryption.createStartTls(context, sslConfig.getEnabledCipherSuites(), sslConfig.getClientAuth());
-        } else {
-           return Encryption.createTls(context, sslConfig.getEnabledCipherSuites(), sslConfig.getClientAuth());
-        }
+        return sslFactoryBuilder.build();
     }
 }
@@ -0,0 +1,106 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.protocols.lib;
+
+import java.util.Arrays;
+
+import javax.net.ssl.KeyManagerFactory;
+
+import org.apache.james.filesystem.api.FileSystem;
+import org.apache.james.protocols.api.ClientAuth;
+import org.apache.james.protocols.netty.Encryption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.handler.ssl.OpenSsl;
+import io.netty.handler.ssl.OpenSslSessionContext;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslProvider;
+import nl.altindag.ssl.SSLFactory;
+
+/**
+ * Builds a Netty {@link SslContext} backed by the OpenSSL engine (netty-tcnative).
+ *
+ * Falls back to the JDK engine when OpenSSL is not available on this platform.
+ */
+public class NettyEncryptionFactory implements Encryption.Factory {
+    private static final Logger LOGGER = LoggerFactory.getLogger(NettyEncryptionFactory.class);
+
+    private final FileSystem fileSystem;
+    private final SslConfig sslConfig;
+
+    public NettyEncryptionFactory(FileSystem fileSystem, SslConfig sslConfig) {
+        this.fileSystem = fileSystem;
+        this.sslConfig = sslConfig;
+    }
+
+    @Override
+    public Encryption create() throws Exception {
+        SslContext context = SharedTlsContexts.nettyContext(fileSystem, sslConfig, this::createContext);
+
+        if (sslConfig.useStartTLS()) {
+            return Encryption.createStartTls(context, sslConfig.getEnabledCipherSuites(), sslConfig.getClientAuth());
+        } else {
+            return Encryption.createTls(context, sslConfig.getEnabledCipherSuites(), sslConfig.getClientAuth());
+        }
+    }
+
+    private SslContext createContext() throws Exception {
+        SSLFactory sslFactory = LegacyJavaEncryptionFactory.sslFactory(fileSystem, sslConfig);
+        KeyManagerFactory keyManagerFactory = sslFactory.getKeyManagerFactory()
+            .orElseThrow(() -> new IllegalStateException("No identity material was loaded"));
+
+        SslContextBuilder contextBuilder = SslContextBuilder.forServer(keyManagerFactory)
+            .sslProvider(sslProvider())
+            .clientAuth(asNettyClientAuth(sslConfig.getClientAuth()))
+            .sessionCacheSize(sslConfig.getSessionCacheSize())
+            .sessionTimeout(sslConfig.getSessionTimeout());
+        sslFactory.getTrustManagerFactory().ifPresent(contextBuilder::trustManager);
+        if (sslConfig.getEnabledCipherSuites() != null && sslConfig.getEnabledCipherSuites().length > 0) {
+            contextBuilder.ciphers(Arrays.asList(sslConfig.getEnabledCipherSuites()));
+        }
+        SslContext context = contextBuilder.build();
+
+        if (context.sessionContext() instanceof OpenSslSessionContext) {
+            SessionTicketKeys.getInstance().register((OpenSslSessionContext) context.sessionContext());
+        }
+        return context;
+    }
+
+    private SslProvider sslProvider() {
+        if (OpenSsl.isAvailable()) {
+            return SslProvider.OPENSSL;
+        }
+        LOGGER.warn("OpenSSL is not available, falling back to the JDK TLS engine", OpenSsl.unavailabilityCause());
+        return SslProvider.JDK;
+    }
+
+    private io.netty.handler.ssl.ClientAuth asNettyClientAuth(ClientAuth clientAuth) {
+        switch (clientAuth) {
+            case NEED:
+                return io.netty.handler.ssl.ClientAuth.REQUIRE;
+            case WANT:
+                return io.netty.handler.ssl.ClientAuth.OPTIONAL;
+            default:
+                return io.netty.handler.ssl.ClientAuth.NONE;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.protocols.lib;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.stream.Stream;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import io.netty.handler.ssl.OpenSslSessionContext;
+import io.netty.handler.ssl.OpenSslSessionTicketKey;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Session ticket keys shared by all the OpenSSL contexts of this JVM.
+ *
+ * Keys are rotated every {@link #ROTATION_PERIOD}. The previous key is kept for decryption only so that
+ * tickets issued shortly before a rotation can still be used to resume a session.
+ *
+ * The rotation runs while at least one server retains the keys.
+ */
+public class SessionTicketKeys {
+    public static final Duration ROTATION_PERIOD = Duration.ofHours(1);
+    private static final int KEY_PART_LENGTH = 16;
+    private static final SessionTicketKeys INSTANCE = new SessionTicketKeys();
+
+    public static SessionTicketKeys getInstance() {
+        return INSTANCE;
+    }
+
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final Set<OpenSslSessionContext> sessionContexts = Collections.newSetFromMap(new WeakHashMap<>());
+    private OpenSslSessionTicketKey current;
+    private Optional<OpenSslSessionTicketKey> previous;
+    private Optional<Disposable> rotation;
+    private int retainCount;
+
+    @VisibleForTesting
+    SessionTicketKeys() {
+        this.current = generate();
+        this.previous = Optional.empty();
+        this.rotation = Optional.empty();
+        this.retainCount = 0;
+    }
+
+    public synchronized void register(OpenSslSessionContext sessionContext) {
+        sessionContexts.add(sessionContext);
+        sessionContext.setTicketKeys(keys());
+    }
+
+    /**
+     * Starts the rotation if no other server retained the keys.
+     */
+    public synchronized void retain() {
+        if (retainCount == 0) {
+            rotation = Optional.of(Flux.interval(ROTATION_PERIOD, Schedulers.parallel())
+                .subscribe(any -> rotate()));
+        }
+        retainCount++;
+    }
+
+    /**
+     * Stops the rotation once the last server retaining the keys released them.
+     */
+    public synchronized void release() {
+        if (retainCount == 0) {
+            return;
+        }
+        retainCount--;
+        if (retainCount == 0) {
+            rotation.ifPresent(Disposable::dispose);
+            rotation = Optional.empty();
+        }
+    }
+
+    @VisibleForTesting
+    synchronized boolean isRotating() {
+        return rotation.isPresent();
+    }
+
+    @VisibleForTesting
+    synchronized void rotate() {
+        previous = Optional.of(current);
+        current = generate();
+        OpenSslSessionTicketKey[] keys = keys();
+        sessionContexts.forEach(sessionContext -> sessionContext.setTicketKeys(keys));
+    }
+
+    /**
+     * OpenSSL encrypts new tickets with the first key and accepts all of them for decryption.
+     */
+    @VisibleForTesting
+    synchronized OpenSslSessionTicketKey[] keys() {
+        return Stream.concat(Stream.of(current), previous.stream())
+            .toArray(OpenSslSessionTicketKey[]::new);
+    }
+
+    private OpenSslSessionTicketKey generate() {
+        return new OpenSslSessionTicketKey(randomBytes(), randomBytes(), randomBytes());
+    }
+
+    private byte[] randomBytes() {
+        byte[] bytes = new byte[KEY_PART_LENGTH];
+        secureRandom.nextBytes(bytes);
+        return bytes;
+    }
+}
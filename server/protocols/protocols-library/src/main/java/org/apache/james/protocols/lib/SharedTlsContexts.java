@@ -0,0 +1,97 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.protocols.lib;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import javax.net.ssl.SSLContext;
+
+import org.apache.james.filesystem.api.FileSystem;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import io.netty.handler.ssl.SslContext;
+
+/**
+ * TLS contexts shared by all the servers of this JVM.
+ *
+ * Servers configured with the same key material share the same context, hence the same TLS session cache
+ * and session ticket keys: a client resuming its session on another listener (IMAP, SMTP, POP3...)
+ * skips the full handshake.
+ *
+ * Contexts are weakly referenced and released once no server uses them anymore.
+ */
+public final class SharedTlsContexts {
+    private static final Cache<List<Object>, SSLContext> JDK_CONTEXTS = CacheBuilder.newBuilder()
+        .weakValues()
+        .build();
+    private static final Cache<List<Object>, SslContext> NETTY_CONTEXTS = CacheBuilder.newBuilder()
+        .weakValues()
+        .build();
+
+    static SSLContext jdkContext(FileSystem fileSystem, SslConfig sslConfig, Callable<SSLContext> loader) throws Exception {
+        return get(JDK_CONTEXTS, key(fileSystem, sslConfig), loader);
+    }
+
+    static SslContext nettyContext(FileSystem fileSystem, SslConfig sslConfig, Callable<SslContext> loader) throws Exception {
+        return get(NETTY_CONTEXTS, key(fileSystem, sslConfig), loader);
+    }
+
+    private static <T> T get(Cache<List<Object>, T> cache, List<Object> key, Callable<T> loader) throws Exception {
+        try {
+            return cache.get(key, loader);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Everything defining the context. STARTTLS versus implicit TLS does not, allowing both kind of listeners
+     * to share sessions.
+     */
+    private static List<Object> key(FileSystem fileSystem, SslConfig sslConfig) {
+        return Arrays.asList(
+            fileSystem,
+            sslConfig.getEngine(),
+            sslConfig.getKeystore(),
+            sslConfig.getKeystoreType(),
+            sslConfig.getPrivateKey(),
+            sslConfig.getCertificates(),
+            sslConfig.getSecret(),
+            sslConfig.getTruststore(),
+            sslConfig.getTruststoreType(),
+            sslConfig.getTruststoreSecret() == null ? null : String.valueOf(sslConfig.getTruststoreSecret()),
+            sslConfig.getEnabledCipherSuites() == null ? null : Arrays.asList(sslConfig.getEnabledCipherSuites()),
+            sslConfig.getClientAuth(),
+            sslConfig.getSessionCacheSize(),
+            sslConfig.getSessionTimeout());
+    }
+
+    private SharedTlsContexts() {
+    }
+}
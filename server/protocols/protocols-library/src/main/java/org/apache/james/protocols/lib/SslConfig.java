@@ -19,6 +19,9 @@
 
 package org.apache.james.protocols.lib;
 
+import java.util.Arrays;
+import java.util.Locale;
+
 import org.apache.commons.configuration2.HierarchicalConfiguration;
 import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.commons.configuration2.tree.ImmutableNode;
@@ -29,6 +32,26 @@ import org.slf4j.LoggerFactory;
 public class SslConfig {
     private static final Logger LOGGER = LoggerFactory.getLogger(SslConfig.class);
 
+    public static final long DEFAULT_SESSION_CACHE_SIZE = 20480;
+    public static final long DEFAULT_SESSION_TIMEOUT_IN_SECONDS = 24 * 60 * 60;
+
+    /**
+     * TLS engine implementation.
+     *
+     * OPENSSL relies on netty-tcnative and falls back to the JDK engine when the native library can not be loaded.
+     */
+    public enum Engine {
+        JDK,
+        OPENSSL;
+
+        public static Engine parse(String value) throws ConfigurationException {
+            return Arrays.stream(values())
+                .filter(engine -> engine.name().equals(value.toUpperCase(Locale.US)))
+                .findFirst()
+                .orElseThrow(() -> new ConfigurationException("Unknown TLS engine " + value + ". Supported values are " + Arrays.toString(values())));
+        }
+    }
+
     public static SslConfig parse(HierarchicalConfiguration<ImmutableNode> config) throws ConfigurationException {
         boolean useStartTLS = config.getBoolean("tls.[@startTLS]", false);
         boolean useSSL = config.getBoolean("tls.[@socketTLS]", false);
@@ -46,6 +69,12 @@ public class SslConfig {
 
         if (useStartTLS || useSSL) {
             String[] enabledCipherSuites = config.getStringArray("tls.supportedCipherSuites.cipherSuite");
+            Engine engine = Engine.parse(config.getString("tls.[@engine]", Engine.JDK.name()));
+            long sessionCacheSize = config.getLong("tls.sessionCacheSize", DEFAULT_SESSION_CACHE_SIZE);
+            long sessionTimeout = config.getLong("tls.sessionTimeout", DEFAULT_SESSION_TIMEOUT_IN_SECONDS);
+            if (sessionCacheSize < 0 || sessionTimeout < 0) {
+                throw new ConfigurationException("tls.sessionCacheSize and tls.sessionTimeout must be positive");
+            }
             String keystore = config.getString("tls.keystore", null);
             String privateKey = config.getString("tls.privateKey", null);
             String certificates = config.getString("tls.certificates", null);
@@ -60,9 +89,11 @@ public class SslConfig {
             char[] truststoreSecret = config.getString("tls.clientAuth.truststoreSecret", "").toCharArray();
             LOGGER.info("TLS enabled with auth {} using truststore {}", clientAuth, truststore);
 
-            return new SslConfig(useStartTLS, useSSL, clientAuth, keystore, keystoreType, privateKey, certificates, secret, truststore, truststoreType, enabledCipherSuites, truststoreSecret);
+            return new SslConfig(useStartTLS, useSSL, clientAuth, keystore, keystoreType, privateKey, certificates, secret, truststore, truststoreType, enabledCipherSuites, truststoreSecret, engine,
+                sessionCacheSize, sessionTimeout);
         } else {
-            return new SslConfig(useStartTLS, useSSL, clientAuth, null, null, null, null, null, null, null, null, null);
+            return new SslConfig(useStartTLS, useSSL, clientAuth, null, null, null, null, null, null, null, null, null, Engine.JDK,
+                DEFAULT_SESSION_CACHE_SIZE, DEFAULT_SESSION_TIMEOUT_IN_SECONDS);
         }
     }
 
@@ -78,9 +109,13 @@ public class SslConfig {
     private final String truststoreType;
     private final String[] enabledCipherSuites;
     private final char[] truststoreSecret;
+    private final Engine engine;
+    private final long sessionCacheSize;
+    private final long sessionTimeout;
 
     public SslConfig(boolean useStartTLS, boolean useSSL, ClientAuth clientAuth, String keystore, String keystoreType, String privateKey,
-                     String certificates, String secret, String truststore, String truststoreType, String[] enabledCipherSuites, char[] truststoreSecret) {
+                     String certificates, String secret, String truststore, String truststoreType, String[] enabledCipherSuites, char[] truststoreSecret,
+                     Engine engine, long sessionCacheSize, long sessionTimeout) {
         this.useStartTLS = useStartTLS;
         this.useSSL = useSSL;
         this.clientAuth = clientAuth;
@@ -93,6 +128,9 @@ public class SslConfig {
         this.truststoreType = truststoreType;
         this.enabledCipherSuites = enabledCipherSuites;
         this.truststoreSecret = truststoreSecret;
+        this.engine = engine;
+        this.sessionCacheSize = sessionCacheSize;
+        this.sessionTimeout = sessionTimeout;
     }
 
     public ClientAuth getClientAuth() {
@@ -142,4 +180,22 @@ public class SslConfig {
     public char[] getTruststoreSecret() {
         return truststoreSecret;
     }
+
+    public Engine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Maximum count of TLS sessions kept for resumption
+     */
+    public long getSessionCacheSize() {
+        return sessionCacheSize;
+    }
+
+    /**
+     * Lifetime of cached TLS sessions, in seconds
+     */
+    public long getSessionTimeout() {
+        return sessionTimeout;
+    }
 }
@@ -23,7 +23,9 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 import javax.annotation.PostConstruct;
@@ -39,7 +41,11 @@ import org.apache.commons.configuration2.tree.ImmutableNode;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.james.filesystem.api.FileSystem;
 import org.apache.james.lifecycle.api.Configurable;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.protocols.lib.HandshakeTimingEncryption;
 import org.apache.james.protocols.lib.LegacyJavaEncryptionFactory;
+import org.apache.james.protocols.lib.NettyEncryptionFactory;
+import org.apache.james.protocols.lib.SessionTicketKeys;
 import org.apache.james.protocols.lib.SslConfig;
 import org.apache.james.protocols.lib.jmx.ServerMBean;
 import org.apache.james.protocols.netty.AbstractAsyncServer;
@@ -47,6 +53,7 @@ import org.apache.james.protocols.netty.AbstractChannelPipelineFactory;
 import org.apache.james.protocols.netty.AbstractSSLAwareChannelPipelineFactory;
 import org.apache.james.protocols.netty.ChannelHandlerFactory;
 import org.apache.james.protocols.netty.Encryption;
+import org.apache.james.protocols.netty.NettyTransport;
 import org.apache.james.util.concurrent.NamedThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -86,6 +93,8 @@ public abstract class AbstractConfigurableAsyncServer extends AbstractAsyncServe
 
     private FileSystem fileSystem;
 
+    private Optional<MetricFactory> metricFactory = Optional.empty();
+
     private boolean enabled;
 
     protected boolean proxyRequired;
@@ -97,6 +106,9 @@ public abstract class AbstractConfigurableAsyncServer extends AbstractAsyncServe
     private String helloName;
 
     private SslConfig sslConfig;
+
+    private boolean sessionTicketKeysRetained;
+
     protected Encryption encryption;
 
     private ChannelHandlerFactory frameHandlerFactory;
@@ -112,6 +124,13 @@ public abstract class AbstractConfigurableAsyncServer extends AbstractAsyncServe
         this.fileSystem = filesystem;
     }
 
+    /**
+     * When set, TLS handshake durations and failures are published with this {@link MetricFactory}
+     */
+    public final void setMetricFactory(MetricFactory metricFactory) {
+        this.metricFactory = Optional.of(metricFactory);
+    }
+
     protected void registerMBean() {
 
         try {
@@ -173,6 +192,7 @@ public abstract class AbstractConfigurableAsyncServer extends AbstractAsyncServe
         setIoWorkerCount(ioWorker);
         Integer bossWorker = config.getInteger("bossWorkerCount", null);
         setBossWorkerCount(Optional.ofNullable(bossWorker));
+        setTransport(parseTransport(config.getString("ioTransport", NettyTransport.NIO.name())));
 
         executorGroup = new DefaultEventExecutorGroup(config.getInt("maxExecutorCount", DEFAULT_MAX_EXECUTOR_COUNT),
             NamedThreadFactory.withName(jmxName));
@@ -227,6 +247,13 @@ public abstract class AbstractConfigurableAsyncServer extends AbstractAsyncServe
 
     }
 
+    private NettyTransport parseTransport(String value) throws ConfigurationException {
+        return Arrays.stream(NettyTransport.values())
+            .filter(transport -> transport.name().equals(value.toUpperCase(Locale.US)))
+            .findFirst()
+            .orElseThrow(() -> new ConfigurationException("Unknown ioTransport " + value + ". Supported values are " + Arrays.toString(NettyTransport.values())));
+    }
+
     protected EventExecutorGroup getExecutorGroup() {
         return executorGroup;
     }
@@ -270,6 +297,10 @@ public abstract class AbstractConfigurableAsyncServer extends AbstractAsyncServe
             unbind();
             postDestroy();
             executorGroup.shutdownGracefully();
+            if (sessionTicketKeysRetained) {
+                SessionTicketKeys.getInstance().release();
+                sessionTicketKeysRetained = false;
+            }
 
             unregisterMBean();
         }
@@ -355,8 +386,23 @@ public abstract class AbstractConfigurableAsyncServer extends AbstractAsyncServe
      */
     protected void buildSSLContext() throws Exception {
         if (sslConfig.useSSL() || sslConfig.useStartTLS()) {
-            encryption = new LegacyJavaEncryptionFactory(fileSystem, sslConfig)
-                .create();
+            Encryption built = encryptionFactory().create();
+            if (sslConfig.getEngine() == SslConfig.Engine.OPENSSL) {
+                SessionTicketKeys.getInstance().retain();
+                sessionTicketKeysRetained = true;
+            }
+            encryption = metricFactory
+                .<Encryption>map(factory -> new HandshakeTimingEncryption(built, factory, jmxName))
+                .orElse(built);
+        }
+    }
+
+    private Encryption.Factory encryptionFactory() {
+        switch (sslConfig.getEngine()) {
+            case OPENSSL:
+                return new NettyEncryptionFactory(fileSystem, sslConfig);
+            default:
+                return new LegacyJavaEncryptionFactory(fileSystem, sslConfig);
         }
     }
 
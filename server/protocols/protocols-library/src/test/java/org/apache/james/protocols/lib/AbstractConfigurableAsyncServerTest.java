@@ -20,6 +20,7 @@
 package org.apache.james.protocols.lib;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -31,6 +32,9 @@ import java.net.UnknownHostException;
 import java.util.HashMap;
 import java.util.Map;
 
+import javax.net.ssl.SSLContext;
+
+import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.commons.lang3.NotImplementedException;
 import org.apache.james.filesystem.api.FileSystem;
 import org.apache.james.protocols.api.ClientAuth;
@@ -251,6 +255,60 @@ class AbstractConfigurableAsyncServerTest {
         assertThat(testServer.getEncryption().getClientAuth()).isEqualTo(ClientAuth.NEED);
     }
 
+    @Test
+    void testServerOpenSslTLS() throws Exception {
+        memoryFileSystem.put("file://conf/keystore", "keystore");
+
+        initTestServer("testServerOpenSslTLS.xml");
+        testServer.buildSSLContext();
+
+        assertThat(testServer.getEncryption()).isInstanceOf(Encryption.NettyEncryption.class);
+        assertThat(testServer.getEncryption().isStartTLS()).isFalse();
+        assertThat(testServer.getEncryption().getClientAuth()).isEqualTo(ClientAuth.NONE);
+        assertThat(testServer.getEncryption().supportsEncryption()).isTrue();
+        assertThat(testServer.getEncryption().sslHandler().engine().getUseClientMode()).isFalse();
+    }
+
+    @Test
+    void testServerEpollTransport() throws Exception {
+        initTestServer("testServerEpoll.xml");
+
+        assertThat(testServer.isEnabled()).isTrue();
+    }
+
+    @Test
+    void testServerUnknownTransport() {
+        assertThatThrownBy(() -> initTestServer("testServerUnknownTransport.xml"))
+            .isInstanceOf(ConfigurationException.class);
+    }
+
+    @Test
+    void serversWithSameKeyMaterialShouldShareTheirTlsContext() throws Exception {
+        memoryFileSystem.put("file://conf/keystore", "keystore");
+
+        initTestServer("testServerTLS.xml");
+        testServer.buildSSLContext();
+        SSLContext tlsContext = ((Encryption.LegacyJavaEncryption) testServer.getEncryption()).getContext();
+
+        initTestServer("testServerStartTLS.xml");
+        testServer.buildSSLContext();
+        SSLContext startTlsContext = ((Encryption.LegacyJavaEncryption) testServer.getEncryption()).getContext();
+
+        assertThat(startTlsContext).isSameAs(tlsContext);
+    }
+
+    @Test
+    void testServerTLSSessionCache() throws Exception {
+        memoryFileSystem.put("file://conf/keystore", "keystore");
+
+        initTestServer("testServerTLSSessionCache.xml");
+        testServer.buildSSLContext();
+        SSLContext context = ((Encryption.LegacyJavaEncryption) testServer.getEncryption()).getContext();
+
+        assertThat(context.getServerSessionContext().getSessionCacheSize()).isEqualTo(1000);
+        assertThat(context.getServerSessionContext().getSessionTimeout()).isEqualTo(3600);
+    }
+
     private static String getLocalHostName() {
         try {
             return InetAddress.getLocalHost().getHostName();
@@ -0,0 +1,112 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.protocols.lib;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.netty.handler.ssl.OpenSslSessionContext;
+import io.netty.handler.ssl.OpenSslSessionTicketKey;
+
+class SessionTicketKeysTest {
+    SessionTicketKeys testee;
+
+    @BeforeEach
+    void setUp() {
+        testee = new SessionTicketKeys();
+    }
+
+    @Test
+    void keysShouldInitiallyContainASingleKey() {
+        assertThat(testee.keys()).hasSize(1);
+    }
+
+    @Test
+    void rotateShouldKeepThePreviousKeyForDecryption() {
+        OpenSslSessionTicketKey initialKey = testee.keys()[0];
+
+        testee.rotate();
+
+        assertThat(testee.keys()).hasSize(2);
+        assertThat(testee.keys()[0]).isNotSameAs(initialKey);
+        assertThat(testee.keys()[1]).isSameAs(initialKey);
+    }
+
+    @Test
+    void rotateShouldDropKeysOlderThanThePreviousOne() {
+        OpenSslSessionTicketKey initialKey = testee.keys()[0];
+
+        testee.rotate();
+        testee.rotate();
+
+        assertThat(testee.keys()).hasSize(2)
+            .doesNotContain(initialKey);
+    }
+
+    @Test
+    void rotateShouldUpdateRegisteredContexts() {
+        OpenSslSessionContext sessionContext = mock(OpenSslSessionContext.class);
+        testee.register(sessionContext);
+
+        testee.rotate();
+
+        verify(sessionContext, times(2)).setTicketKeys((OpenSslSessionTicketKey[]) any());
+    }
+
+    @Test
+    void retainShouldStartTheRotation() {
+        testee.retain();
+
+        assertThat(testee.isRotating()).isTrue();
+    }
+
+    @Test
+    void releaseShouldStopTheRotation() {
+        testee.retain();
+
+        testee.release();
+
+        assertThat(testee.isRotating()).isFalse();
+    }
+
+    @Test
+    void rotationShouldRunWhileAServerStillRetainsTheKeys() {
+        testee.retain();
+        testee.retain();
+
+        testee.release();
+
+        assertThat(testee.isRotating()).isTrue();
+    }
+
+    @Test
+    void releaseShouldBeANoopWhenNotRetained() {
+        testee.release();
+        testee.retain();
+
+        assertThat(testee.isRotating()).isTrue();
+    }
+}
@@ -36,12 +36,14 @@ public class LMTPServerFactory extends AbstractServerFactory {
     private final ProtocolHandlerLoader loader;
     private final FileSystem fileSystem;
     protected final LMTPMetricsImpl lmtpMetrics;
+    protected final MetricFactory metricFactory;
 
     @Inject
     public LMTPServerFactory(ProtocolHandlerLoader loader, FileSystem fileSystem, MetricFactory metricFactory) {
         this.loader = loader;
         this.fileSystem = fileSystem;
         this.lmtpMetrics = new LMTPMetricsImpl(metricFactory);
+        this.metricFactory = metricFactory;
     }
 
     protected LMTPServer createServer() {
@@ -56,6 +58,7 @@ public class LMTPServerFactory extends AbstractServerFactory {
         for (HierarchicalConfiguration<ImmutableNode> serverConfig: configs) {
             LMTPServer server = createServer();
             server.setFileSystem(fileSystem);
+            server.setMetricFactory(metricFactory);
             server.setProtocolHandlerLoader(loader);
             server.configure(serverConfig);
             servers.add(server);
@@ -39,6 +39,7 @@ public class SMTPServerFactory extends AbstractServerFactory {
     protected final ProtocolHandlerLoader loader;
     protected final FileSystem fileSystem;
     protected final SmtpMetricsImpl smtpMetrics;
+    protected final MetricFactory metricFactory;
 
     @Inject
     public SMTPServerFactory(DNSService dns, ProtocolHandlerLoader loader, FileSystem fileSystem,
@@ -47,6 +48,7 @@ public class SMTPServerFactory extends AbstractServerFactory {
         this.loader = loader;
         this.fileSystem = fileSystem;
         this.smtpMetrics = new SmtpMetricsImpl(metricFactory);
+        this.metricFactory = metricFactory;
     }
 
     protected SMTPServer createServer() {
@@ -64,6 +66,7 @@ public class SMTPServerFactory extends AbstractServerFactory {
             server.setDnsService(dns);
             server.setProtocolHandlerLoader(loader);
             server.setFileSystem(fileSystem);
+            server.setMetricFactory(metricFactory);
             server.configure(serverConfig);
             servers.add(server);
         }
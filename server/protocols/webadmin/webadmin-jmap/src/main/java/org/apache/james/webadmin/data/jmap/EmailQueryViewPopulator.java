@@ -40,6 +40,7 @@ import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.model.FetchGroup;
 import org.apache.james.mailbox.model.MailboxId;
 import org.apache.james.mailbox.model.MailboxMetaData;
+import org.apache.james.mailbox.model.MessageAttachmentMetadata;
 import org.apache.james.mailbox.model.MessageId;
 import org.apache.james.mailbox.model.MessageRange;
 import org.apache.james.mailbox.model.MessageResult;
@@ -156,9 +157,12 @@ public class EmailQueryViewPopulator {
             Date sentAtDate = Optional.ofNullable(mime4JMessage.getDate()).orElse(messageResult.getInternalDate());
             ZonedDateTime sentAt = ZonedDateTime.ofInstant(sentAtDate.toInstant(), ZoneOffset.UTC);
 
-            return new EmailQueryView.Entry(mailboxId, messageId, sentAt, receivedAt);
+            boolean hasAttachment = MessageAttachmentMetadata.hasNonInlinedAttachment(messageResult.getLoadedAttachments());
+
+            return new EmailQueryView.Entry(mailboxId, messageId, sentAt, receivedAt, messageResult.getFlags(), hasAttachment);
         })
-            .flatMap(entry -> emailQueryView.save(entry.getMailboxId(), entry.getSentAt(), entry.getReceivedAt(), entry.getMessageId()))
+            .flatMap(entry -> emailQueryView.save(entry.getMailboxId(), entry.getSentAt(), entry.getReceivedAt(), entry.getMessageId(),
+                entry.getFlags(), entry.hasAttachment()))
             .thenReturn(Result.COMPLETED)
             .doOnSuccess(any -> progress.incrementProcessedMessageCount())
             .onErrorResume(e -> {
@@ -36,7 +36,7 @@ import java.util.Map;
 
 import org.apache.james.backends.cassandra.CassandraClusterExtension;
 import org.apache.james.backends.cassandra.components.CassandraModule;
-import org.apache.james.blob.api.BlobStore;
+import org.apache.james.blob.api.BlobStoreDAO;
 import org.apache.james.blob.api.BucketName;
 import org.apache.james.blob.api.HashBlobId;
 import org.apache.james.blob.memory.MemoryBlobStoreDAO;
@@ -50,7 +50,6 @@ import org.apache.james.jmap.cassandra.upload.UploadDAO;
 import org.apache.james.jmap.cassandra.upload.UploadModule;
 import org.apache.james.json.DTOConverter;
 import org.apache.james.mailbox.model.ContentType;
-import org.apache.james.server.blob.deduplication.DeDuplicationBlobStore;
 import org.apache.james.task.Hostname;
 import org.apache.james.task.MemoryTaskManager;
 import org.apache.james.utils.UpdatableTickingClock;
@@ -87,7 +86,7 @@ class JmapUploadRoutesTest {
 
     private WebAdminServer webAdminServer;
     private MemoryTaskManager taskManager;
-    private BlobStore blobStore;
+    private BlobStoreDAO blobStoreDAO;
     private BucketNameGenerator bucketNameGenerator;
     private CassandraUploadRepository cassandraUploadRepository;
     private UpdatableTickingClock clock;
@@ -101,14 +100,13 @@ class JmapUploadRoutesTest {
         taskManager = new MemoryTaskManager(new Hostname("foo"));
         clock = new UpdatableTickingClock(TIMESTAMP.toInstant());
         bucketNameGenerator = new BucketNameGenerator(clock);
-        blobStore = new DeDuplicationBlobStore(new MemoryBlobStoreDAO(),
-            BucketName.of("default"),
-            new HashBlobId.Factory());
+        blobStoreDAO = new MemoryBlobStoreDAO();
 
         cassandraUploadRepository = new CassandraUploadRepository(new UploadDAO(cassandraCluster.getCassandraCluster().getConf(),
             new HashBlobId.Factory(),
             new UploadConfiguration(Duration.ofSeconds(5))),
-            blobStore,
+            blobStoreDAO,
+            new HashBlobId.Factory(),
             bucketNameGenerator);
 
         JsonTransformer jsonTransformer = new JsonTransformer();
@@ -216,7 +214,7 @@ class JmapUploadRoutesTest {
         .when()
             .get(taskId + "/await");
 
-        assertThat(Flux.from(blobStore.listBuckets()).collectList().block())
+        assertThat(Flux.from(blobStoreDAO.listBuckets()).collectList().block())
             .doesNotContain(expiredBucket);
     }
 
@@ -237,7 +235,7 @@ class JmapUploadRoutesTest {
         .when()
             .get(taskId + "/await");
 
-        assertThat(Flux.from(blobStore.listBuckets()).collectList().block())
+        assertThat(Flux.from(blobStoreDAO.listBuckets()).collectList().block())
             .contains(unExpiredBucket);
     }
 
@@ -269,7 +267,7 @@ class JmapUploadRoutesTest {
         .when()
             .get(taskId + "/await");
 
-        List<BucketName> bucketNameList = Flux.from(blobStore.listBuckets()).collectList().block();
+        List<BucketName> bucketNameList = Flux.from(blobStoreDAO.listBuckets()).collectList().block();
 
         assertThat(bucketNameList)
             .contains(unExpiredBucketName1, unExpiredBucketName2)